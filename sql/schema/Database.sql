@@ -109,6 +109,16 @@ ALTER TABLE public.resource_resource_id_seq OWNER TO postgres;
 ALTER SEQUENCE resource_resource_id_seq OWNED BY resource.resource_id;
 ALTER TABLE ONLY resource 
 	ALTER COLUMN resource_id SET DEFAULT nextval('resource_resource_id_seq'::regclass);
+-- Search indexes used by resource search: a GIN full-text index over name and
+-- description for ranked word matches, and pg_trgm indexes so substring
+-- matches on name and description do not need a sequential scan.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX resource_search_vector_idx ON resource
+    USING gin (to_tsvector('english', name || ' ' || description));
+CREATE INDEX resource_name_trgm_idx ON resource
+    USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX resource_description_trgm_idx ON resource
+    USING gin (lower(description) gin_trgm_ops);
 
 -- Table topic_resource_reltn
 CREATE TABLE topic_resource_reltn (
@@ -182,6 +192,39 @@ ALTER TABLE ONLY completed_user_resource
 ALTER TABLE ONLY completed_user_resource
     ADD CONSTRAINT resource_id_fkey FOREIGN KEY (resource_id) REFERENCES resource(resource_id) ON DELETE CASCADE;
 ALTER TABLE public.completed_user_resource OWNER TO postgres;
+-- Index used to seed the trending resources and categories at startup, which
+-- count the completions of the last trending window only.
+CREATE INDEX completed_user_resource_completion_date_idx ON completed_user_resource
+    (completion_date);
+
+-- Table resource_rating_summary
+-- Running count and sum of the completion ratings of each resource, kept up to
+-- date by the statement that inserts into completed_user_resource.
+CREATE TABLE resource_rating_summary (
+    resource_id integer NOT NULL,
+    rating_count integer DEFAULT 0 NOT NULL,
+    rating_sum bigint DEFAULT 0 NOT NULL
+);
+ALTER TABLE ONLY resource_rating_summary
+    ADD CONSTRAINT resource_rating_summary_pkey PRIMARY KEY (resource_id);
+ALTER TABLE ONLY resource_rating_summary
+    ADD CONSTRAINT resource_rating_summary_resource_id_fkey FOREIGN KEY (resource_id) REFERENCES resource(resource_id) ON DELETE CASCADE;
+ALTER TABLE public.resource_rating_summary OWNER TO postgres;
+
+-- Table resource_engagement
+-- Running count of the times each resource was shown in search results,
+-- category listings and recommendations and of the times its link was
+-- clicked, added to by the resourceEngagementTracker bean in periodic batches.
+CREATE TABLE resource_engagement (
+    resource_id integer NOT NULL,
+    view_count bigint DEFAULT 0 NOT NULL,
+    click_count bigint DEFAULT 0 NOT NULL
+);
+ALTER TABLE ONLY resource_engagement
+    ADD CONSTRAINT resource_engagement_pkey PRIMARY KEY (resource_id);
+ALTER TABLE ONLY resource_engagement
+    ADD CONSTRAINT resource_engagement_resource_id_fkey FOREIGN KEY (resource_id) REFERENCES resource(resource_id) ON DELETE CASCADE;
+ALTER TABLE public.resource_engagement OWNER TO postgres;
 
 -- Table user_resource_rating
 CREATE TABLE user_resource_rating (
@@ -256,6 +299,31 @@ CREATE TABLE category_resource_reltn (
     difficulty_level integer DEFAULT 1
 );
 ALTER TABLE public.category_resource_reltn OWNER TO postgres;
+-- Indexes used by the keyset pagination of resource listings: resources of a
+-- category are read in resource id order past the last id of the previous
+-- page, and the admin listing seeks over the resources that have a category.
+CREATE INDEX category_resource_reltn_category_id_resource_id_idx ON category_resource_reltn
+    (category_id, resource_id);
+CREATE INDEX category_resource_reltn_resource_id_idx ON category_resource_reltn
+    (resource_id);
+
+-- Table category_difficulty_summary
+-- Number of resources related to each category, in total and per difficulty
+-- level, kept up to date by the statements that change category_resource_reltn.
+CREATE TABLE category_difficulty_summary (
+    category_id integer NOT NULL,
+    resource_count integer DEFAULT 0 NOT NULL,
+    skill_level_1 integer DEFAULT 0 NOT NULL,
+    skill_level_2 integer DEFAULT 0 NOT NULL,
+    skill_level_3 integer DEFAULT 0 NOT NULL,
+    skill_level_4 integer DEFAULT 0 NOT NULL,
+    skill_level_5 integer DEFAULT 0 NOT NULL
+);
+ALTER TABLE ONLY category_difficulty_summary
+    ADD CONSTRAINT category_difficulty_summary_pkey PRIMARY KEY (category_id);
+ALTER TABLE ONLY category_difficulty_summary
+    ADD CONSTRAINT category_difficulty_summary_category_id_fkey FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE CASCADE;
+ALTER TABLE public.category_difficulty_summary OWNER TO postgres;
 
 -- Table user_interested_category
 CREATE TABLE user_interested_category (
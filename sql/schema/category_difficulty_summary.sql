@@ -0,0 +1,33 @@
+DROP TABLE IF EXISTS category_difficulty_summary CASCADE;
+
+-- Number of resources related to each category, in total and per difficulty
+-- level, kept up to date by the statements that insert into and delete from
+-- category_resource_reltn so category listings are read without aggregating
+-- category_resource_reltn. A category without a row has no resources.
+CREATE TABLE category_difficulty_summary (
+    category_id integer NOT NULL,
+    resource_count integer DEFAULT 0 NOT NULL,
+    skill_level_1 integer DEFAULT 0 NOT NULL,
+    skill_level_2 integer DEFAULT 0 NOT NULL,
+    skill_level_3 integer DEFAULT 0 NOT NULL,
+    skill_level_4 integer DEFAULT 0 NOT NULL,
+    skill_level_5 integer DEFAULT 0 NOT NULL
+);
+
+ALTER TABLE ONLY category_difficulty_summary
+    ADD CONSTRAINT category_difficulty_summary_pkey PRIMARY KEY (category_id);
+
+ALTER TABLE ONLY category_difficulty_summary
+    ADD CONSTRAINT category_difficulty_summary_category_id_fkey FOREIGN KEY (category_id) REFERENCES category(id) ON DELETE CASCADE;
+
+ALTER TABLE public.category_difficulty_summary OWNER TO postgres;
+
+-- Backfills the summaries from the relations already stored.
+INSERT INTO category_difficulty_summary (category_id, resource_count, skill_level_1, skill_level_2, skill_level_3, skill_level_4, skill_level_5)
+    SELECT category_id, COUNT(resource_id),
+        COUNT(CASE WHEN difficulty_level = 1 THEN 1 END),
+        COUNT(CASE WHEN difficulty_level = 2 THEN 1 END),
+        COUNT(CASE WHEN difficulty_level = 3 THEN 1 END),
+        COUNT(CASE WHEN difficulty_level = 4 THEN 1 END),
+        COUNT(CASE WHEN difficulty_level = 5 THEN 1 END)
+    FROM category_resource_reltn WHERE category_id IN (SELECT id FROM category) GROUP BY category_id;
@@ -8,4 +8,10 @@ CREATE TABLE category_resource_reltn (
 
 ALTER TABLE public.category_resource_reltn OWNER TO postgres;
 
-
+-- Indexes used by the keyset pagination of resource listings: resources of a
+-- category are read in resource id order past the last id of the previous
+-- page, and the admin listing seeks over the resources that have a category.
+CREATE INDEX category_resource_reltn_category_id_resource_id_idx ON category_resource_reltn
+    (category_id, resource_id);
+CREATE INDEX category_resource_reltn_resource_id_idx ON category_resource_reltn
+    (resource_id);
@@ -13,4 +13,9 @@ ALTER TABLE ONLY completed_user_resource
 ALTER TABLE ONLY completed_user_resource
     ADD CONSTRAINT resource_id_fkey FOREIGN KEY (resource_id) REFERENCES resource(resource_id) ON DELETE CASCADE;
 	
-ALTER TABLE public.completed_user_resource OWNER TO postgres;
\ No newline at end of file
+ALTER TABLE public.completed_user_resource OWNER TO postgres;
+
+-- Index used to seed the trending resources and categories at startup, which
+-- count the completions of the last trending window only.
+CREATE INDEX completed_user_resource_completion_date_idx ON completed_user_resource
+    (completion_date);
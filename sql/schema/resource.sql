@@ -32,4 +32,15 @@ ALTER TABLE public.resource_resource_id_seq OWNER TO postgres;
 ALTER SEQUENCE resource_resource_id_seq OWNED BY resource.resource_id;
 
 ALTER TABLE ONLY resource 
-	ALTER COLUMN resource_id SET DEFAULT nextval('resource_resource_id_seq'::regclass);
\ No newline at end of file
+	ALTER COLUMN resource_id SET DEFAULT nextval('resource_resource_id_seq'::regclass);
+
+-- Search indexes used by resource search: a GIN full-text index over name and
+-- description for ranked word matches, and pg_trgm indexes so substring
+-- matches on name and description do not need a sequential scan.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX resource_search_vector_idx ON resource
+    USING gin (to_tsvector('english', name || ' ' || description));
+CREATE INDEX resource_name_trgm_idx ON resource
+    USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX resource_description_trgm_idx ON resource
+    USING gin (lower(description) gin_trgm_ops);
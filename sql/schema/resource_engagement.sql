@@ -0,0 +1,20 @@
+DROP TABLE IF EXISTS resource_engagement CASCADE;
+
+-- Running count of the times each resource was shown in search results,
+-- category listings and recommendations and of the times its link was
+-- clicked. The counts are added up in memory by the resourceEngagementTracker
+-- bean and added to this table in periodic batches. A resource without a row
+-- has not been shown or clicked yet.
+CREATE TABLE resource_engagement (
+    resource_id integer NOT NULL,
+    view_count bigint DEFAULT 0 NOT NULL,
+    click_count bigint DEFAULT 0 NOT NULL
+);
+
+ALTER TABLE ONLY resource_engagement
+    ADD CONSTRAINT resource_engagement_pkey PRIMARY KEY (resource_id);
+
+ALTER TABLE ONLY resource_engagement
+    ADD CONSTRAINT resource_engagement_resource_id_fkey FOREIGN KEY (resource_id) REFERENCES resource(resource_id) ON DELETE CASCADE;
+
+ALTER TABLE public.resource_engagement OWNER TO postgres;
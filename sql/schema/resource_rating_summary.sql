@@ -0,0 +1,24 @@
+DROP TABLE IF EXISTS resource_rating_summary CASCADE;
+
+-- Running count and sum of the completion ratings of each resource, kept up to
+-- date by the statement that inserts into completed_user_resource so average
+-- ratings are read without aggregating completed_user_resource. A resource
+-- without a row has no ratings.
+CREATE TABLE resource_rating_summary (
+    resource_id integer NOT NULL,
+    rating_count integer DEFAULT 0 NOT NULL,
+    rating_sum bigint DEFAULT 0 NOT NULL
+);
+
+ALTER TABLE ONLY resource_rating_summary
+    ADD CONSTRAINT resource_rating_summary_pkey PRIMARY KEY (resource_id);
+
+ALTER TABLE ONLY resource_rating_summary
+    ADD CONSTRAINT resource_rating_summary_resource_id_fkey FOREIGN KEY (resource_id) REFERENCES resource(resource_id) ON DELETE CASCADE;
+
+ALTER TABLE public.resource_rating_summary OWNER TO postgres;
+
+-- Backfills the summaries from the ratings already stored.
+INSERT INTO resource_rating_summary (resource_id, rating_count, rating_sum)
+    SELECT resource_id, COUNT(completion_rating), COALESCE(SUM(completion_rating), 0)
+    FROM completed_user_resource GROUP BY resource_id;
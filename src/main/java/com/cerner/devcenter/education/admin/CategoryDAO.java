@@ -1,6 +1,8 @@
 package com.cerner.devcenter.education.admin;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import com.cerner.devcenter.education.models.Category;
 
@@ -55,6 +57,23 @@ public interface CategoryDAO {
      */
     Category getByName(String name) throws DAOException;
 
+    /**
+     * Returns the {@link Category} objects whose names are in the passed in
+     * collection, looked up in a single query. Names with no matching category
+     * are absent from the returned map.
+     *
+     * @param names
+     *            a {@link Collection} of category names to look up. Cannot be
+     *            <code>null</code> or empty
+     * @return a {@link Map} of category name to {@link Category}
+     * @throws DAOException
+     *             when there is an error while trying to get the categories
+     *             from the database
+     * @throws IllegalArgumentException
+     *             when names is <code>null</code> or empty
+     */
+    Map<String, Category> getByNames(Collection<String> names) throws DAOException;
+
     /**
      * Returns a {@link Category} from a database that has the same name and
      * description as the passed in value.
@@ -110,7 +129,9 @@ public interface CategoryDAO {
     void deleteCategory(int id) throws DAOException;
 
     /**
-     * Returns a list of all categories from database.
+     * Returns a list of all categories from database, with their resource
+     * count and number of resources per difficulty level read from the
+     * category_difficulty_summary table.
      *
      * @return a List of all {@link Category} from database
      * @throws DAOException
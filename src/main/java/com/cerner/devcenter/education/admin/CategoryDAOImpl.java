@@ -5,6 +5,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +24,7 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 import com.google.common.base.Strings;
 
 /**
@@ -41,13 +43,15 @@ import com.google.common.base.Strings;
 @Repository("categoryDAO")
 public class CategoryDAOImpl implements CategoryDAO {
 
-    private static final String GET_MAX_ID_QUERY = "SELECT MAX(id) FROM category";
     private static final String GET_CATEGORY_QUERY = "SELECT id, name, description FROM category WHERE id=?";
     private static final String GET_CATEGORY_BY_NAME_QUERY = "SELECT id, name, description FROM category WHERE name=?";
     private static final String DELETE_CATEGORY_QUERY = "DELETE FROM category WHERE id=?";
-    private static final String INSERT_CATEGORY_QUERY = "INSERT INTO category (name, description, difficulty_level) VALUES(?,?,?)";
-    private static final String GET_ALL_CATEGORIES_QUERY = "SELECT ct.id, ct.name, ct.description, COUNT(CASE WHEN tr.difficulty_level = '1' THEN 1 END) AS skill_level_1, COUNT(CASE WHEN tr.difficulty_level = '2' THEN 1 END) AS skill_level_2,COUNT(CASE WHEN tr.difficulty_level = '3' THEN 1 END) AS skill_level_3,COUNT(CASE WHEN tr.difficulty_level = '4' THEN 1 END) AS skill_level_4,COUNT(CASE WHEN tr.difficulty_level = '5' THEN 1 END) AS skill_level_5, COUNT(tr.resource_id) AS resource_count FROM category AS ct LEFT JOIN topic_resource_reltn AS tr ON (tr.topic_id = ct.id) GROUP BY ct.id, ct.name"; 
-    private static final String GET_CATEGORIES_BY_IDS_QUERY = "SELECT id, name, description FROM category WHERE id IN (:categoryIds)";
+    private static final String INSERT_CATEGORY_QUERY = "INSERT INTO category (name, description, difficulty_level) VALUES(?,?,?) RETURNING id";
+    private static final String GET_ALL_CATEGORIES_QUERY = "SELECT ct.id, ct.name, ct.description, COALESCE(s.skill_level_1, 0) AS skill_level_1, COALESCE(s.skill_level_2, 0) AS skill_level_2, "
+            + "COALESCE(s.skill_level_3, 0) AS skill_level_3, COALESCE(s.skill_level_4, 0) AS skill_level_4, COALESCE(s.skill_level_5, 0) AS skill_level_5, "
+            + "COALESCE(s.resource_count, 0) AS resource_count FROM category AS ct LEFT JOIN category_difficulty_summary AS s ON (s.category_id = ct.id)";
+    private static final String GET_CATEGORIES_BY_IDS_QUERY = "SELECT id, name, description FROM category WHERE id = ANY(:categoryIds)";
+    private static final String GET_CATEGORIES_BY_NAMES_QUERY = "SELECT id, name, description FROM category WHERE name = ANY(:names)";
     private static final String QUERY_UPDATE_CATEGORY = "UPDATE category SET name = ?, description = ? WHERE id = ?";
     private static final String GET_NON_CHOSEN_CATEGORIES_QUERY = "SELECT id, name, description FROM category ct WHERE (lower(ct.name) ILIKE ? OR lower(ct.description) ILIKE ?)"
             + "AND ct.id NOT IN (SELECT category_id from user_interested_category where user_id = ?)";
@@ -69,6 +73,7 @@ public class CategoryDAOImpl implements CategoryDAO {
     private static final String RESOURCE_COUNT = "resource_count";
     private static final String ZERO_CATEGORY_ID = "Category id cannot be zero";
     private static final String INVALID_CATEGORY_NAME = "Category name cannot be empty";
+    private static final String INVALID_CATEGORY_NAMES = "Category names cannot be null or empty";
     private static final String INVALID_CATEGORY_DESCRIPTION = "Category description cannot be empty";
     private static final String NULL_CATEGORY = "Category cannot be null";
     private static final String INVALID_DIFFICULTY_LEVEL = "difficultyLevel must be on a scale of 1-5";
@@ -76,6 +81,7 @@ public class CategoryDAOImpl implements CategoryDAO {
     private static final String CATEGORY_ID = "id";
     private static final String CATEGORY_NAME = "name";
     private static final String CATEGORY_DESCRIPTION = "description";
+    private static final String CATEGORY_NAMES = "names";
     private static final int MIN_DIFFICULTY_LEVEL = 1;
     private static final int MAX_DIFFICULTY_LEVEL = 5;
     
@@ -122,6 +128,25 @@ public class CategoryDAOImpl implements CategoryDAO {
         }
     }
 
+    /***
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Category> getByNames(final Collection<String> names) throws DAOException {
+        checkArgument(names != null && !names.isEmpty(), INVALID_CATEGORY_NAMES);
+        final Map<String, Category> categoriesByName = new HashMap<>();
+        try {
+            for (final Category category : namedParameterJdbcTemplate.query(GET_CATEGORIES_BY_NAMES_QUERY,
+                    new MapSqlParameterSource(CATEGORY_NAMES, SqlArrayValue.ofStrings(names)),
+                    new CategoryRowMapper())) {
+                categoriesByName.put(category.getName(), category);
+            }
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(GET_CATEGORY_BY_NAME_ERROR, daoException);
+        }
+        return categoriesByName;
+    }
+
     /***
      * {@inheritDoc}
      */
@@ -132,12 +157,10 @@ public class CategoryDAOImpl implements CategoryDAO {
         checkArgument(StringUtils.isNotBlank(category.getDescription()), INVALID_CATEGORY_DESCRIPTION);
         Range<Integer> desiredDifficultyLevelRange = Range.between(MIN_DIFFICULTY_LEVEL, MAX_DIFFICULTY_LEVEL);
         checkArgument(desiredDifficultyLevelRange.contains(category.getDifficultyLevel()), INVALID_DIFFICULTY_LEVEL);
-        int maxRows = 0;
         try {
-            jdbcTemplate.update(INSERT_CATEGORY_QUERY, category.getName(), category.getDescription(),
-                    category.getDifficultyLevel());
-            maxRows = jdbcTemplate.queryForObject(GET_MAX_ID_QUERY, Integer.class);
-            return new Category(maxRows, category.getName(), category.getDescription());
+            final int categoryId = jdbcTemplate.queryForObject(INSERT_CATEGORY_QUERY, Integer.class,
+                    category.getName(), category.getDescription(), category.getDifficultyLevel());
+            return new Category(categoryId, category.getName(), category.getDescription());
         } catch (final DataAccessException daoException) {
             throw new DAOException(INSERT_CATEGORY_ERROR, daoException);
         }
@@ -193,7 +216,7 @@ public class CategoryDAOImpl implements CategoryDAO {
     @Override
     public List<Category> getCategoryListByIds(final List<Integer> categoryIds) throws DAOException {
         final MapSqlParameterSource parameters = new MapSqlParameterSource();
-        parameters.addValue("categoryIds", categoryIds);
+        parameters.addValue("categoryIds", SqlArrayValue.ofIntegers(categoryIds));
         try {
             final List<Category> categoryList = namedParameterJdbcTemplate
                     .query(GET_CATEGORIES_BY_IDS_QUERY, parameters, new CategoriesByIdsResultExtractor());
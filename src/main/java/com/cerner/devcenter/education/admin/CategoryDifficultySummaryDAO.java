@@ -0,0 +1,38 @@
+package com.cerner.devcenter.education.admin;
+
+import java.util.List;
+
+/**
+ * This interface is responsible for checking and repairing the per-category
+ * resource count and difficulty histogram kept in the
+ * category_difficulty_summary table against the relations stored in the
+ * category_resource_reltn table.
+ */
+public interface CategoryDifficultySummaryDAO {
+
+    /**
+     * Finds the categories whose resource count or difficulty histogram in
+     * category_difficulty_summary differs from the relations stored in
+     * category_resource_reltn.
+     *
+     * @return a {@link List} of the ids of the categories whose summary has
+     *         drifted. Empty when every summary is correct.
+     * @throws DAOException
+     *             when there is an error while comparing the summaries with the
+     *             relations
+     */
+    List<Integer> getCategoryIdsWithDriftedDifficultySummary() throws DAOException;
+
+    /**
+     * Recomputes the resource count and difficulty histogram of every category
+     * from category_resource_reltn and stores the ones that differ. Relations
+     * cannot be added or deleted while the summaries are recomputed, so this
+     * must be called within a transaction; the lock is released when it
+     * commits.
+     *
+     * @return the number of summaries that were added or corrected.
+     * @throws DAOException
+     *             when there is an error while recomputing the summaries
+     */
+    int rebuildDifficultySummaries() throws DAOException;
+}
@@ -0,0 +1,111 @@
+package com.cerner.devcenter.education.admin;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Responsible for checking and repairing the category_difficulty_summary table
+ * against the category_resource_reltn table.
+ * <p>
+ * Also holds the statements the relation DAOs append to their inserts and
+ * deletes so the summaries change in the same statement as the relations.
+ */
+@Repository("categoryDifficultySummaryDAO")
+public class CategoryDifficultySummaryDAOImpl implements CategoryDifficultySummaryDAO {
+
+    // @formatter:off
+    private static final String DIFFICULTY_HISTOGRAM = "COUNT(resource_id) AS resource_count, "
+            + "COUNT(CASE WHEN difficulty_level = 1 THEN 1 END) AS skill_level_1, "
+            + "COUNT(CASE WHEN difficulty_level = 2 THEN 1 END) AS skill_level_2, "
+            + "COUNT(CASE WHEN difficulty_level = 3 THEN 1 END) AS skill_level_3, "
+            + "COUNT(CASE WHEN difficulty_level = 4 THEN 1 END) AS skill_level_4, "
+            + "COUNT(CASE WHEN difficulty_level = 5 THEN 1 END) AS skill_level_5";
+    private static final String SUMMARY_COLUMNS = "category_id, resource_count, skill_level_1, skill_level_2, skill_level_3, skill_level_4, skill_level_5";
+
+    /**
+     * Adds the relations returned by a preceding
+     * <code>WITH added AS (INSERT INTO category_resource_reltn ... RETURNING category_id, resource_id, difficulty_level)</code>
+     * to the summaries. Relations to categories that do not exist are not
+     * counted.
+     */
+    static final String ADD_RELATIONS_TO_SUMMARY = "INSERT INTO category_difficulty_summary (" + SUMMARY_COLUMNS + ") "
+            + "SELECT category_id, " + DIFFICULTY_HISTOGRAM + " FROM added "
+            + "WHERE category_id IN (SELECT id FROM category) GROUP BY category_id "
+            + "ON CONFLICT (category_id) DO UPDATE SET "
+            + "resource_count = category_difficulty_summary.resource_count + EXCLUDED.resource_count, "
+            + "skill_level_1 = category_difficulty_summary.skill_level_1 + EXCLUDED.skill_level_1, "
+            + "skill_level_2 = category_difficulty_summary.skill_level_2 + EXCLUDED.skill_level_2, "
+            + "skill_level_3 = category_difficulty_summary.skill_level_3 + EXCLUDED.skill_level_3, "
+            + "skill_level_4 = category_difficulty_summary.skill_level_4 + EXCLUDED.skill_level_4, "
+            + "skill_level_5 = category_difficulty_summary.skill_level_5 + EXCLUDED.skill_level_5";
+
+    /**
+     * Removes the relations returned by a preceding
+     * <code>WITH removed AS (DELETE FROM category_resource_reltn ... RETURNING category_id, resource_id, difficulty_level)</code>
+     * from the summaries.
+     */
+    static final String REMOVE_RELATIONS_FROM_SUMMARY = "UPDATE category_difficulty_summary s SET "
+            + "resource_count = s.resource_count - r.resource_count, "
+            + "skill_level_1 = s.skill_level_1 - r.skill_level_1, "
+            + "skill_level_2 = s.skill_level_2 - r.skill_level_2, "
+            + "skill_level_3 = s.skill_level_3 - r.skill_level_3, "
+            + "skill_level_4 = s.skill_level_4 - r.skill_level_4, "
+            + "skill_level_5 = s.skill_level_5 - r.skill_level_5 "
+            + "FROM (SELECT category_id, " + DIFFICULTY_HISTOGRAM + " FROM removed GROUP BY category_id) r "
+            + "WHERE s.category_id = r.category_id";
+
+    private static final String ACTUAL_DIFFICULTY_SUMMARIES = "SELECT category_id, " + DIFFICULTY_HISTOGRAM
+            + " FROM category_resource_reltn GROUP BY category_id";
+    private static final String GET_CATEGORY_IDS_WITH_DRIFTED_DIFFICULTY_SUMMARY_QUERY = "SELECT c.id FROM category c "
+            + "LEFT JOIN (" + ACTUAL_DIFFICULTY_SUMMARIES + ") a ON a.category_id = c.id "
+            + "LEFT JOIN category_difficulty_summary s ON s.category_id = c.id "
+            + "WHERE (COALESCE(a.resource_count, 0), COALESCE(a.skill_level_1, 0), COALESCE(a.skill_level_2, 0), "
+            + "COALESCE(a.skill_level_3, 0), COALESCE(a.skill_level_4, 0), COALESCE(a.skill_level_5, 0)) "
+            + "<> (COALESCE(s.resource_count, 0), COALESCE(s.skill_level_1, 0), COALESCE(s.skill_level_2, 0), "
+            + "COALESCE(s.skill_level_3, 0), COALESCE(s.skill_level_4, 0), COALESCE(s.skill_level_5, 0)) "
+            + "ORDER BY c.id";
+    private static final String LOCK_CATEGORY_RESOURCE_RELTN_QUERY = "LOCK TABLE category_resource_reltn IN SHARE MODE";
+    private static final String REBUILD_DIFFICULTY_SUMMARIES_QUERY = "INSERT INTO category_difficulty_summary (" + SUMMARY_COLUMNS + ") "
+            + "SELECT c.id, COALESCE(a.resource_count, 0), COALESCE(a.skill_level_1, 0), COALESCE(a.skill_level_2, 0), "
+            + "COALESCE(a.skill_level_3, 0), COALESCE(a.skill_level_4, 0), COALESCE(a.skill_level_5, 0) FROM category c "
+            + "LEFT JOIN (" + ACTUAL_DIFFICULTY_SUMMARIES + ") a ON a.category_id = c.id "
+            + "ON CONFLICT (category_id) DO UPDATE SET resource_count = EXCLUDED.resource_count, "
+            + "skill_level_1 = EXCLUDED.skill_level_1, skill_level_2 = EXCLUDED.skill_level_2, "
+            + "skill_level_3 = EXCLUDED.skill_level_3, skill_level_4 = EXCLUDED.skill_level_4, "
+            + "skill_level_5 = EXCLUDED.skill_level_5 "
+            + "WHERE (category_difficulty_summary.resource_count, category_difficulty_summary.skill_level_1, "
+            + "category_difficulty_summary.skill_level_2, category_difficulty_summary.skill_level_3, "
+            + "category_difficulty_summary.skill_level_4, category_difficulty_summary.skill_level_5) "
+            + "<> (EXCLUDED.resource_count, EXCLUDED.skill_level_1, EXCLUDED.skill_level_2, "
+            + "EXCLUDED.skill_level_3, EXCLUDED.skill_level_4, EXCLUDED.skill_level_5)";
+    // @formatter:on
+
+    private static final String ERROR_FINDING_DRIFTED_DIFFICULTY_SUMMARIES = "Error: unable to compare the category difficulty summaries with the category resource relations.";
+    private static final String ERROR_REBUILDING_DIFFICULTY_SUMMARIES = "Error: unable to rebuild the category difficulty summaries from the category resource relations.";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Integer> getCategoryIdsWithDriftedDifficultySummary() throws DAOException {
+        try {
+            return jdbcTemplate.queryForList(GET_CATEGORY_IDS_WITH_DRIFTED_DIFFICULTY_SUMMARY_QUERY, Integer.class);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_FINDING_DRIFTED_DIFFICULTY_SUMMARIES, dataAccessException);
+        }
+    }
+
+    @Override
+    public int rebuildDifficultySummaries() throws DAOException {
+        try {
+            jdbcTemplate.execute(LOCK_CATEGORY_RESOURCE_RELTN_QUERY);
+            return jdbcTemplate.update(REBUILD_DIFFICULTY_SUMMARIES_QUERY);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_REBUILDING_DIFFICULTY_SUMMARIES, dataAccessException);
+        }
+    }
+}
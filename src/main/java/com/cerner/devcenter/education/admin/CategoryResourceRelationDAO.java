@@ -1,5 +1,7 @@
 package com.cerner.devcenter.education.admin;
 
+import java.util.List;
+
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.Resource;
 
@@ -14,7 +16,8 @@ import com.cerner.devcenter.education.models.Resource;
 public interface CategoryResourceRelationDAO {
 
     /**
-     * Adds a new relation between a resource and a category to the database.
+     * Adds a new relation between a resource and a category to the database
+     * and counts it in the category's difficulty summary.
      *
      * @param resource
      *            a {@link Resource} that we wish to add a relationship for in
@@ -34,10 +37,30 @@ public interface CategoryResourceRelationDAO {
      *             reason
      */
      void addMappingsToDB(Resource resource, Category category) throws DAOException;
+
+    /**
+     * Adds the category relations of every given resource to the database in a
+     * single JDBC batch, one row per entry of
+     * {@link Resource#getResourceDifficultyForCategory()}, and counts them in
+     * the categories' difficulty summaries.
+     *
+     * @param resources
+     *            a {@link List} of {@link Resource} that have already been
+     *            added to the database (Must not be null or empty, IDs must be
+     *            positive numbers)
+     * @throws IllegalArgumentException
+     *             when resources is null or empty, or any resource ID is not
+     *             positive
+     * @throws DAOException
+     *             when the mappings are unable to be added to the database for
+     *             any reason
+     */
+     void addMappingsToDB(List<Resource> resources) throws DAOException;
     
     /**
      * Deletes an existing category-resource mapping from the
-     * category_resource_reltn table using the {@link Resource} id.
+     * category_resource_reltn table using the {@link Resource} id, and removes
+     * it from the category's difficulty summary.
      * 
      * @param resourceId
      *            the resource id of the category-resource relation that needs
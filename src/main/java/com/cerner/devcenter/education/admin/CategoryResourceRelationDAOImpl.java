@@ -3,6 +3,10 @@ package com.cerner.devcenter.education.admin;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -23,8 +27,15 @@ import com.cerner.devcenter.education.models.Resource;
  */
 @Repository("categoryResourceRelationDAO")
 public class CategoryResourceRelationDAOImpl implements CategoryResourceRelationDAO {
-    private final static String INSERT_CATEGORY_RESOURCE_QUERY = "INSERT INTO category_resource_reltn (category_id, resource_id) VALUES(?,?)";
-    private final static String DELETE_CATEGORY_RESOURCE_QUERY = "DELETE FROM category_resource_reltn WHERE resource_id=?";
+    private final static String INSERT_CATEGORY_RESOURCE_QUERY = "WITH added AS (INSERT INTO category_resource_reltn (category_id, resource_id) VALUES(?,?) "
+            + "RETURNING category_id, resource_id, difficulty_level) "
+            + CategoryDifficultySummaryDAOImpl.ADD_RELATIONS_TO_SUMMARY;
+    private final static String INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY = "WITH added AS (INSERT INTO category_resource_reltn (category_id, resource_id, difficulty_level) VALUES(?,?,?) "
+            + "RETURNING category_id, resource_id, difficulty_level) "
+            + CategoryDifficultySummaryDAOImpl.ADD_RELATIONS_TO_SUMMARY;
+    private final static String DELETE_CATEGORY_RESOURCE_QUERY = "WITH removed AS (DELETE FROM category_resource_reltn WHERE resource_id=? "
+            + "RETURNING category_id, resource_id, difficulty_level) "
+            + CategoryDifficultySummaryDAOImpl.REMOVE_RELATIONS_FROM_SUMMARY;
 
     private final static String RESOURCE_ID_NOT_FOUND = "Resource not found in database with id =";
     private final static String CATEGORY_ID_NOT_FOUND = "Category not found in database with id =";
@@ -33,6 +44,7 @@ public class CategoryResourceRelationDAOImpl implements CategoryResourceRelation
     private final static String DB_ACCESSING_ERROR = "There was an error while attempting to access to database";
     private final static String NULL_RESOURCE = "The resource can not be null";
     private final static String NULL_CATEGORY = "The category can not be null";
+    private final static String INVALID_RESOURCE_LIST = "The resource list can not be null or empty";
 
     @Autowired
     private ResourceDAO resourceDAO;
@@ -64,6 +76,34 @@ public class CategoryResourceRelationDAOImpl implements CategoryResourceRelation
         }
     }
 
+    /**
+     * Adds the relations between the given resources and their categories,
+     * along with their difficulty levels, in a single batch.
+     * 
+     * @throws DAOException
+     *             when the mappings are unable to be added to the database
+     */
+    @Override
+    public void addMappingsToDB(List<Resource> resources) throws DAOException {
+        checkArgument(resources != null && !resources.isEmpty(), INVALID_RESOURCE_LIST);
+        List<Object[]> queryArgs = new ArrayList<Object[]>();
+        for (Resource resource : resources) {
+            checkNotNull(resource, NULL_RESOURCE);
+            checkArgument(resource.getResourceId() > 0, INVALID_RESOURCE_ID);
+            for (Map.Entry<Integer, Integer> entry : resource.getResourceDifficultyForCategory().entrySet()) {
+                queryArgs.add(new Object[] { entry.getKey(), resource.getResourceId(), entry.getValue() });
+            }
+        }
+        if (queryArgs.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY, queryArgs);
+        } catch (DataAccessException daoException) {
+            throw new DAOException(DB_ACCESSING_ERROR, daoException);
+        }
+    }
+
     /**
      * Deletes an existing category-resource mapping from the
      * category_resource_reltn table using the {@link Resource} id.
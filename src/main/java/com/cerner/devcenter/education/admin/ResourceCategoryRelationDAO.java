@@ -1,5 +1,6 @@
 package com.cerner.devcenter.education.admin;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -44,7 +45,7 @@ public interface ResourceCategoryRelationDAO {
 
     /**
      * Adds a new relation between a resource and a category with difficulty level
-     * to the database.
+     * to the database and counts it in the category's difficulty summary.
      *
      * @param resourceCategoryRelation
      *            a {@link ResourceCategoryRelation} that needs to be added to
@@ -101,6 +102,99 @@ public interface ResourceCategoryRelationDAO {
             int resourcesLimit,
             int offSet) throws DAOException;
 
+    /**
+     * Extracts the {@link ResourceCategoryRelation ResourceCategoryRelations}
+     * of a category whose resource id is greater than the given one, ordered
+     * by resource id. Seeking past the last resource id of the previous page
+     * reads a page at the same cost regardless of how deep it is.
+     *
+     * @param categoryId
+     *            an {@link Integer} that uniquely identify a category (must be
+     *            greater than 0)
+     * @param afterResourceId
+     *            the resource id of the last resource on the previous page, or
+     *            0 for the first page. (must be greater than or equal to 0)
+     * @param resourcesLimit
+     *            Number of resources to be retrieved from database. (must be
+     *            greater than 0)
+     * @return a {@link List} of at most resourcesLimit
+     *         {@link ResourceCategoryRelation ResourceCategoryRelations}
+     * @throws DAOException
+     *             when there is an error while retrieving the resources
+     * @throws IllegalArgumentException
+     *             when any of the following are true:
+     *             <ul>
+     *             <li>categoryId is less than or equal to 0</li>
+     *             <li>afterResourceId is less than 0</li>
+     *             <li>resourcesLimit is less than or equal to 0</li>
+     *             </ul>
+     */
+    List<ResourceCategoryRelation> getResourcesAndDifficultyLevelByCategoryIdAfter(
+            int categoryId,
+            int afterResourceId,
+            int resourcesLimit) throws DAOException;
+
+    /**
+     * Extracts the {@link ResourceCategoryRelation ResourceCategoryRelations}
+     * of a category and {@link ResourceType} whose resource id is greater than
+     * the given one, ordered by resource id.
+     *
+     * @param categoryId
+     *            an {@link Integer} that uniquely identify a category (must be
+     *            greater than 0)
+     * @param resourceTypeId
+     *            an {@link Integer} that identify the type of the resource
+     *            (must be greater than 0)
+     * @param afterResourceId
+     *            the resource id of the last resource on the previous page, or
+     *            0 for the first page. (must be greater than or equal to 0)
+     * @param resourcesLimit
+     *            Number of resources to be retrieved from database. (must be
+     *            greater than 0)
+     * @return a {@link List} of at most resourcesLimit
+     *         {@link ResourceCategoryRelation ResourceCategoryRelations}
+     * @throws DAOException
+     *             when there is an error while retrieving the resources
+     * @throws IllegalArgumentException
+     *             when any of the following are true:
+     *             <ul>
+     *             <li>categoryId is less than or equal to 0</li>
+     *             <li>resourceTypeId is less than or equal to 0</li>
+     *             <li>afterResourceId is less than 0</li>
+     *             <li>resourcesLimit is less than or equal to 0</li>
+     *             </ul>
+     */
+    List<ResourceCategoryRelation> getResourcesByCategoryIdAndTypeIdAfter(
+            int categoryId,
+            int resourceTypeId,
+            int afterResourceId,
+            int resourcesLimit) throws DAOException;
+
+    /**
+     * Extracts the {@link ResourceCategoryRelation ResourceCategoryRelations}
+     * and average ratings of the next resourcesLimit resources that have a
+     * category, starting after the given resource id. Every relation of a
+     * resource is on the same page, so a page can hold more relations than
+     * resourcesLimit. The relations are ordered by resource id and category
+     * id.
+     *
+     * @param afterResourceId
+     *            the resource id of the last resource on the previous page, or
+     *            0 for the first page. (must be greater than or equal to 0)
+     * @param resourcesLimit
+     *            Number of resources to be retrieved from database. (must be
+     *            greater than 0)
+     * @return a {@link List} of the {@link ResourceCategoryRelation
+     *         ResourceCategoryRelations} of at most resourcesLimit resources
+     * @throws DAOException
+     *             when there is an error while retrieving the resources
+     * @throws IllegalArgumentException
+     *             when afterResourceId is less than 0 or resourcesLimit is less
+     *             than or equal to 0
+     */
+    List<ResourceCategoryRelation> getResourcesAndAverageRatingsAfter(int afterResourceId, int resourcesLimit)
+            throws DAOException;
+
     /**
      * Extracts a {@link List} of {@link ResourceCategoryRelation
      * ResourceCategoryRelations}
@@ -146,4 +240,33 @@ public interface ResourceCategoryRelationDAO {
             final String categoryName,
             final int difficultyLevel) throws DAOException;
 
+    /**
+     * Retrieves the {@link ResourceCategoryRelation
+     * ResourceCategoryRelations}, with their average ratings, of the given
+     * resources in a category at a difficulty level, looked up by resource id.
+     *
+     * @param categoryId
+     *            the id of the {@link Category}. It must be greater than 0.
+     * @param difficultyLevel
+     *            the difficulty level of the resources in that category. It
+     *            must be greater than 0.
+     * @param resourceIds
+     *            the ids of the resources to retrieve, each greater than 0. It
+     *            cannot be <code>null</code> or empty.
+     * @return a {@link List} of the {@link ResourceCategoryRelation
+     *         ResourceCategoryRelations} of the given resources that are in
+     *         the category at that difficulty level, ordered by resource id
+     * @throws DAOException
+     *             when there's an error in retrieving the
+     *             {@link ResourceCategoryRelation ResourceCategoryRelations}
+     * @throws IllegalArgumentException
+     *             when categoryId or difficultyLevel is less than or equal to
+     *             0, or resourceIds is <code>null</code>, empty or contains an
+     *             id less than or equal to 0
+     */
+    List<ResourceCategoryRelation> getResourcesAndAverageRatingsByIds(
+            final int categoryId,
+            final int difficultyLevel,
+            final Collection<Integer> resourceIds) throws DAOException;
+
 }
\ No newline at end of file
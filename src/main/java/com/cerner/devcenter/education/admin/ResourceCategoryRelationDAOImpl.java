@@ -7,6 +7,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
@@ -22,6 +23,7 @@ import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 import com.google.common.base.Preconditions;
 
 /**
@@ -50,20 +52,52 @@ public class ResourceCategoryRelationDAOImpl implements ResourceCategoryRelation
             + " INNER JOIN type tp" + " on r.type_id = tp.type_id" + " INNER JOIN category ct"
             + " on ct.id = ctr.category_id" + " WHERE ct.id = ? and r.type_id = ?"
             + " ORDER BY r.resource_id LIMIT(?) OFFSET(?)";
+    private static final String GET_RESOURCES_WITH_DIFFICULTY_LEVEL_BY_CATEGORY_ID_AFTER_QUERY = "SELECT r.name as resource_name, r.description as resource_description, r.link, r.resource_id,"
+            + " r.type_id, tp.type_name as resource_type_name,"
+            + " ct.id, ct.name as category_name, ct.description as category_description, ctr.difficulty_level"
+            + " FROM category_resource_reltn ctr INNER JOIN resource r on r.resource_id = ctr.resource_id"
+            + " INNER JOIN type tp on r.type_id = tp.type_id INNER JOIN category ct on ct.id = ctr.category_id"
+            + " WHERE ctr.category_id = ? AND ctr.resource_id > ? ORDER BY ctr.resource_id LIMIT ?";
+    private static final String GET_RESOURCES_BY_CATEGORY_ID_AND_TYPE_ID_AFTER_QUERY = "SELECT r.name as resource_name, r.description as resource_description, r.link, r.resource_id,"
+            + " r.type_id, tp.type_name as resource_type_name,"
+            + " ct.id, ct.name as category_name, ct.description as category_description, ctr.difficulty_level"
+            + " FROM category_resource_reltn ctr INNER JOIN resource r on r.resource_id = ctr.resource_id"
+            + " INNER JOIN type tp on r.type_id = tp.type_id INNER JOIN category ct on ct.id = ctr.category_id"
+            + " WHERE ctr.category_id = ? AND r.type_id = ? AND ctr.resource_id > ? ORDER BY ctr.resource_id LIMIT ?";
+    private static final String GET_RESOURCES_AND_AVERAGE_RATINGS_AFTER_QUERY = "WITH page AS (SELECT DISTINCT resource_id FROM category_resource_reltn"
+            + " WHERE resource_id > ? ORDER BY resource_id LIMIT ?)"
+            + " SELECT r.resource_id, r.description as resource_description, r.link,"
+            + " r.name as resource_name, r.type_id, r.resource_owner, rt.type_name as resource_type_name, ct.id, ct.name as category_name, ct.description as category_description,"
+            + " ctr.difficulty_level, rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) as avg_rating"
+            + " FROM page INNER JOIN resource r on r.resource_id = page.resource_id"
+            + " INNER JOIN category_resource_reltn ctr on r.resource_id = ctr.resource_id"
+            + " INNER JOIN category ct on ct.id = ctr.category_id INNER JOIN type rt on r.type_id = rt.type_id"
+            + " LEFT JOIN resource_rating_summary rs on r.resource_id = rs.resource_id"
+            + " GROUP BY r.resource_id, rt.type_name, ct.id, ctr.difficulty_level, rs.rating_count, rs.rating_sum ORDER BY r.resource_id, ct.id";
     private static final String GET_ALL_RESOURCES_QUERY = "SELECT r.resource_id, r.description as resource_description, r.link,"
             + " r.name as resource_name, r.type_id, r.resource_owner, rt.type_name as resource_type_name, ct.id, ct.name as category_name, ct.description as category_description,"
-            + " ctr.difficulty_level, AVG(c.completion_rating) as avg_rating"
+            + " ctr.difficulty_level, rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) as avg_rating"
             + " FROM resource r INNER JOIN category_resource_reltn ctr on r.resource_id = ctr.resource_id"
             + " INNER JOIN category ct on ct.id = ctr.category_id INNER JOIN type rt on r.type_id = rt.type_id"
-            + " LEFT JOIN completed_user_resource c on r.resource_id = c.resource_id GROUP BY r.resource_id, rt.type_name, ct.id, ctr.difficulty_level ORDER BY resource_id;";
-    private static final String INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY = "INSERT into category_resource_reltn (category_id, resource_id, difficulty_level) VALUES(?,?,?)";
+            + " LEFT JOIN resource_rating_summary rs on r.resource_id = rs.resource_id"
+            + " GROUP BY r.resource_id, rt.type_name, ct.id, ctr.difficulty_level, rs.rating_count, rs.rating_sum ORDER BY resource_id;";
+    private static final String INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY = "WITH added AS (INSERT into category_resource_reltn (category_id, resource_id, difficulty_level) VALUES(?,?,?) "
+            + "RETURNING category_id, resource_id, difficulty_level) "
+            + CategoryDifficultySummaryDAOImpl.ADD_RELATIONS_TO_SUMMARY;
     private static final String SEARCH_BY_CATEGORY_NAME_AND_DIFFICULTY_LEVEL_QUERY = "SELECT r.resource_id, r.description as resource_description, r.link,"
-            + " r.name as resource_name, r.type_id, rt.type_name as resource_type_name, ct.id, ct.name as category_name, ct.description as category_description,"
-            + " ctr.difficulty_level, AVG(c.completion_rating) as avg_rating"
+            + " r.name as resource_name, r.type_id, r.resource_owner, rt.type_name as resource_type_name, ct.id, ct.name as category_name, ct.description as category_description,"
+            + " ctr.difficulty_level, rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) as avg_rating"
             + " FROM resource r INNER JOIN category_resource_reltn ctr on r.resource_id = ctr.resource_id"
             + " INNER JOIN category ct on ct.id = ctr.category_id INNER JOIN type rt on r.type_id = rt.type_id"
-            + " LEFT JOIN completed_user_resource c on r.resource_id = c.resource_id WHERE lower(ct.name) ILIKE ? AND ctr.difficulty_level = ?"
-            + " GROUP BY r.resource_id, rt.type_name, ct.id, ctr.difficulty_level ORDER BY resource_id;";
+            + " LEFT JOIN resource_rating_summary rs on r.resource_id = rs.resource_id WHERE lower(ct.name) ILIKE ? AND ctr.difficulty_level = ?"
+            + " GROUP BY r.resource_id, rt.type_name, ct.id, ctr.difficulty_level, rs.rating_count, rs.rating_sum ORDER BY resource_id;";
+    private static final String GET_RESOURCES_AND_AVERAGE_RATINGS_BY_IDS_QUERY = "SELECT r.resource_id, r.description as resource_description, r.link,"
+            + " r.name as resource_name, r.type_id, r.resource_owner, rt.type_name as resource_type_name, ct.id, ct.name as category_name, ct.description as category_description,"
+            + " ctr.difficulty_level, rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) as avg_rating"
+            + " FROM category_resource_reltn ctr INNER JOIN resource r on r.resource_id = ctr.resource_id"
+            + " INNER JOIN category ct on ct.id = ctr.category_id INNER JOIN type rt on r.type_id = rt.type_id"
+            + " LEFT JOIN resource_rating_summary rs on r.resource_id = rs.resource_id"
+            + " WHERE ctr.category_id = ? AND ctr.difficulty_level = ? AND ctr.resource_id = ANY(?) ORDER BY r.resource_id";
 
     private static final String CATEGORY_ID = "id";
     private static final String RESOURCE_ID = "resource_id";
@@ -82,6 +116,7 @@ public class ResourceCategoryRelationDAOImpl implements ResourceCategoryRelation
     private static final String INVALID_RESOURCE_ID = "Resource Type ID is invalid because it is less than or equal to 0";
     private static final String INVALID_RESOURCE_LIMIT = "Resource Limit is invalid because it is less than or equal to 0";
     private static final String INVALID_OFFSET = "Offset is invalid because it is less than or equal to 0";
+    private static final String INVALID_AFTER_RESOURCE_ID = "Resource id to read after cannot be negative";
     private static final String RESOURCE_ID_NOT_POSITIVE = "resourceId must be greater than 0";
     private static final String CATEGORY_ID_NOT_POSITIVE = "categoryId must be greater than 0";
     private static final String INVALID_RESOURCE_CATEGORY = "The resourceCategoryRelation can not be null";
@@ -94,6 +129,7 @@ public class ResourceCategoryRelationDAOImpl implements ResourceCategoryRelation
     private static final String INVALID_URL_ERROR_MESSAGE = "Error: Invalid URL in database; table 'category_resource_reltn' for row with category id ";
     private static final String INVALID_CATEGORY_NAME_ERROR_MESSAGE = "Category Name can't be blank/empty/null";
     private static final String INVALID_RESOURCE_LEVEL_ERROR_MESSAGE = "Resource Difficulty Level must be greater than 0";
+    private static final String INVALID_RESOURCE_IDS_ERROR_MESSAGE = "Resource ids cannot be null or empty";
 
     private static final ResourceCategoryRelationRowMapper rowMapper = new ResourceCategoryRelationRowMapper();
 
@@ -145,6 +181,49 @@ public class ResourceCategoryRelationDAOImpl implements ResourceCategoryRelation
         }
     }
 
+    @Override
+    public List<ResourceCategoryRelation> getResourcesAndDifficultyLevelByCategoryIdAfter(
+            final int categoryId,
+            final int afterResourceId,
+            final int resourcesLimit) throws DAOException {
+        checkArgument(categoryId > 0, INVALID_CATEGORY_ID);
+        checkArgument(afterResourceId >= 0, INVALID_AFTER_RESOURCE_ID);
+        checkArgument(resourcesLimit > 0, INVALID_RESOURCE_LIMIT);
+        try {
+            return jdbcTemplate.query(
+                    GET_RESOURCES_WITH_DIFFICULTY_LEVEL_BY_CATEGORY_ID_AFTER_QUERY,
+                    rowMapper,
+                    categoryId,
+                    afterResourceId,
+                    resourcesLimit);
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(RETRIEVING_RESOURCES_ERROR, daoException);
+        }
+    }
+
+    @Override
+    public List<ResourceCategoryRelation> getResourcesByCategoryIdAndTypeIdAfter(
+            final int categoryId,
+            final int resourceTypeId,
+            final int afterResourceId,
+            final int resourcesLimit) throws DAOException {
+        checkArgument(categoryId > 0, INVALID_CATEGORY_ID);
+        checkArgument(resourceTypeId > 0, INVALID_RESOURCE_ID);
+        checkArgument(afterResourceId >= 0, INVALID_AFTER_RESOURCE_ID);
+        checkArgument(resourcesLimit > 0, INVALID_RESOURCE_LIMIT);
+        try {
+            return jdbcTemplate.query(
+                    GET_RESOURCES_BY_CATEGORY_ID_AND_TYPE_ID_AFTER_QUERY,
+                    rowMapper,
+                    categoryId,
+                    resourceTypeId,
+                    afterResourceId,
+                    resourcesLimit);
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(RETRIEVING_RESOURCES_ERROR, daoException);
+        }
+    }
+
     /**
      * Custom {@link RowMapper} class to map a {@link ResultSet} to a new
      * {@link ResourceCategoryRelation} object.
@@ -209,6 +288,23 @@ public class ResourceCategoryRelationDAOImpl implements ResourceCategoryRelation
         }
     }
 
+    @Override
+    public List<ResourceCategoryRelation> getResourcesAndAverageRatingsAfter(
+            final int afterResourceId,
+            final int resourcesLimit) throws DAOException {
+        checkArgument(afterResourceId >= 0, INVALID_AFTER_RESOURCE_ID);
+        checkArgument(resourcesLimit > 0, INVALID_RESOURCE_LIMIT);
+        try {
+            return jdbcTemplate.query(
+                    GET_RESOURCES_AND_AVERAGE_RATINGS_AFTER_QUERY,
+                    new ResourceCategoryRelationAndAverageRatingRowMapper(),
+                    afterResourceId,
+                    resourcesLimit);
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(RETRIEVING_RESOURCES_RATING_ERROR, daoException);
+        }
+    }
+
     /**
      * Custom {@link RowMapper} to map a {@link ResultSet} to a new
      * {@link ResourceCategoryRelation} object.
@@ -265,4 +361,27 @@ public class ResourceCategoryRelationDAOImpl implements ResourceCategoryRelation
             throw new DAOException(RETRIEVING_RESOURCES_RATING_ERROR, daoException);
         }
     }
+
+    @Override
+    public List<ResourceCategoryRelation> getResourcesAndAverageRatingsByIds(
+            final int categoryId,
+            final int difficultyLevel,
+            final Collection<Integer> resourceIds) throws DAOException {
+        checkArgument(categoryId > 0, INVALID_CATEGORY_ID);
+        checkArgument(difficultyLevel > 0, INVALID_RESOURCE_LEVEL_ERROR_MESSAGE);
+        checkArgument(resourceIds != null && !resourceIds.isEmpty(), INVALID_RESOURCE_IDS_ERROR_MESSAGE);
+        for (final Integer resourceId : resourceIds) {
+            checkArgument(resourceId != null && resourceId > 0, RESOURCE_ID_NOT_POSITIVE);
+        }
+        try {
+            return jdbcTemplate.query(
+                    GET_RESOURCES_AND_AVERAGE_RATINGS_BY_IDS_QUERY,
+                    new ResourceCategoryRelationAndAverageRatingRowMapper(),
+                    categoryId,
+                    difficultyLevel,
+                    SqlArrayValue.ofIntegers(resourceIds));
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(RETRIEVING_RESOURCES_RATING_ERROR, daoException);
+        }
+    }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.cerner.devcenter.education.admin;
 
 import java.net.URL;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 
@@ -24,21 +27,39 @@ public interface ResourceDAO {
 
     /**
      * Performs a query on the data source that will return a {@link List}
-     * containing the resources that are currently searched.
+     * containing the available resources that match the search, best match
+     * first. A resource matches when its name or description contains the
+     * words of the search or contains the search as a substring; matches are
+     * ranked by full-text relevance plus the trigram similarity of the name to
+     * the search.
      *
      * @param search
      *            {@link String} the user entered to search (cannot be empty or
      *            null)
+     * @param limit
+     *            the maximum number of resources to return. Must be greater
+     *            than 0.
      *
-     * @return a {@link List} of {@link Resource} objects
+     * @return a {@link List} of at most limit {@link Resource} objects
      *
      * @throws DAOException
      *             when there is an error while trying to get all resources from
      *             the data source
      * @throws IllegalArgumentException
-     *             when search is null or empty
+     *             when search is null or empty or limit is not positive
      */
-    List<Resource> getSearchedResources(String search) throws DAOException;
+    List<Resource> getSearchedResources(String search, int limit) throws DAOException;
+
+    /**
+     * Returns every resource whose status is Available, with its type.
+     *
+     * @return a {@link List} of the available {@link Resource} objects, empty
+     *         when there are none
+     * @throws DAOException
+     *             when there is an error while trying to get the resources
+     *             from the data source
+     */
+    List<Resource> getAvailableResources() throws DAOException;
 
     /**
      * Returns a {@link Resource} from a database that has the same id as the
@@ -48,8 +69,8 @@ public interface ResourceDAO {
      *            an {@link Integer} that represents the primary key of the
      *            resource we wish to retrieve from the database
      * @return {@link Resource} from the database that has the same primary key
-     *         as the passed in id, if no resource with this key can be found,
-     *         null is returned
+     *         as the passed in id, with its status set, if no resource with
+     *         this key can be found, null is returned
      * @throws IllegalArgumentException
      *             when id is non-positive
      * @throws DAOException
@@ -150,19 +171,47 @@ public interface ResourceDAO {
     List<Resource> getResourcesByCategoryId(int categoryId) throws DAOException;
 
     /**
-     * Extracts total number of resources per particular Category.
+     * Extracts the Resources of every passed categoryId with a single query,
+     * so the resources of many categories cost one round trip instead of one
+     * per category.
+     *
+     * @param categoryIds
+     *            The IDs used to uniquely identify the categories, each
+     *            positive. Cannot be null or empty.
+     * @return a {@link Map} from each distinct categoryId, in the iteration
+     *         order of categoryIds, to the {@link List} of {@link Resource}
+     *         in that category. A category without resources maps to an
+     *         empty list.
      *
-     * @param categoryId
-     *            The ID to uniquely identify a category, it must be greater
-     *            than zero.
-     * @return total number of resources corresponding to passed categoryId
      * @throws DAOException
-     *             when there is an error while attempting to delete from the
-     *             database
+     *             when
+     *             {@link JdbcTemplate#query(String, org.springframework.jdbc.core.RowCallbackHandler, Object...)}
+     *             throws {@link DataAccessException}
+     * @throws IllegalArgumentException
+     *             when categoryIds is null or empty or contains a null or
+     *             non-positive id
+     */
+    Map<Integer, List<Resource>> getResourcesByCategoryIds(Collection<Integer> categoryIds) throws DAOException;
+
+    /**
+     * Extracts the available Resources with the passed ids with a single
+     * query.
+     *
+     * @param resourceIds
+     *            The IDs used to uniquely identify the resources, each
+     *            positive. Cannot be null or empty.
+     * @return a {@link Map} from resource id to the {@link Resource}, for the
+     *         ids of available resources only.
+     *
+     * @throws DAOException
+     *             when
+     *             {@link JdbcTemplate#query(String, org.springframework.jdbc.core.RowMapper, Object...)}
+     *             throws {@link DataAccessException}
      * @throws IllegalArgumentException
-     *             when categoryId is negative
+     *             when resourceIds is null or empty or contains a null or
+     *             non-positive id
      */
-    int getResourceCountByCategoryId(int categoryId) throws DAOException;
+    Map<Integer, Resource> getAvailableResourcesByIds(Collection<Integer> resourceIds) throws DAOException;
 
     /***
      * Check if a resource exists in the database with the given name
@@ -182,6 +231,40 @@ public interface ResourceDAO {
      */
     boolean checkResourceExists(String resourceName) throws DAOException;
 
+    /***
+     * Returns the subset of the given resource names that already exist in the
+     * database, checked in a single query.
+     *
+     * @param resourceNames
+     *            {@link Collection} of resource names to check against the
+     *            database. Cannot be null or empty.
+     * @return {@link Set} of the names that already belong to a resource
+     * @throws DAOException
+     *             when there is an error while attempting to check the database
+     * @throws IllegalArgumentException
+     *             when resourceNames is null or empty.
+     */
+    Set<String> getExistingResourceNames(Collection<String> resourceNames) throws DAOException;
+
+    /**
+     * Adds the given {@link Resource} objects to the resource table using a
+     * single JDBC batch. Ids are reserved from the resource sequence up front
+     * and set on each {@link Resource} so relations can be written against
+     * them in the same transaction.
+     *
+     * @param resources
+     *            {@link List} of {@link Resource} to add. Cannot be null or
+     *            empty. Every resource must have a name, description, link,
+     *            type, owner and status.
+     * @throws DAOException
+     *             when there is an error while attempting to add the resources
+     *             to the database
+     * @throws IllegalArgumentException
+     *             when resources is null or empty, or any resource is missing
+     *             a required field
+     */
+    void addResources(List<Resource> resources) throws DAOException;
+
     /**
      * Edits the {@link Resource} with the given resource ID from the resource
      * table otherwise throws a {@link DAOException} if an invalid resourceId
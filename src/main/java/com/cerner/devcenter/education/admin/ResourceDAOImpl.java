@@ -6,15 +6,24 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import com.cerner.devcenter.education.helpers.HttpURLValidator;
@@ -22,6 +31,7 @@ import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceStatus;
 import com.cerner.devcenter.education.models.ResourceType;
 import com.cerner.devcenter.education.utils.Constants;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 import com.google.common.base.Preconditions;
 
 /**
@@ -49,22 +59,41 @@ public class ResourceDAOImpl implements ResourceDAO {
     private static final String NAME = "name";
     private static final String TYPE_ID = "type_id";
     private static final String TYPE_NAME = "type_name";
+    private static final String CATEGORY_ID = "category_id";
+    private static final String STATUS = "status";
 
-    private static final String GET_MAX_ID = "SELECT MAX(resource_id) FROM resource";
-    private static final String INSERT_RESOURCE = "INSERT INTO resource (description, name, link, type_id, resource_owner, status) VALUES(?,?,?,?,?,?::status)";
+    private static final String INSERT_RESOURCE = "INSERT INTO resource (description, name, link, type_id, resource_owner, status) VALUES(?,?,?,?,?,?::status) RETURNING resource_id";
+    private static final String INSERT_RESOURCE_WITH_ID = "INSERT INTO resource (resource_id, description, name, link, type_id, resource_owner, status) VALUES(?,?,?,?,?,?,?::status)";
+    private static final String RESERVE_RESOURCE_IDS = "SELECT nextval('resource_resource_id_seq') FROM generate_series(1, ?)";
     private static final String DELETE_RESOURCE_BY_ID = "DELETE FROM resource WHERE resource_id = ?";
-    private static final String GET_RESOURCE_COUNT_BY_CATEGORY_ID = "SELECT count(*) FROM resource r INNER JOIN category_resource_reltn c on r.resource_id=c.resource_id WHERE c.category_id=?";
     private static final String GET_RESOURCE_DESCRIPTION_BY_ID = "SELECT description FROM resource WHERE resource_id = ?";
-    private static final String GET_SEARCHED_RESOURCES_QUERY = "SELECT r.*, rt.type_name FROM resource r INNER JOIN type rt on r.type_id = rt.type_id where (lower(r.name) ILIKE ? OR lower(r.description) ILIKE ?) AND r.status = "
-            + "'" + ResourceStatus.Available.toString() + "'";
+    private static final String GET_SEARCHED_RESOURCES_QUERY = "SELECT r.*, rt.type_name FROM resource r INNER JOIN type rt on r.type_id = rt.type_id,"
+            + " plainto_tsquery('english', :search) query"
+            + " WHERE (to_tsvector('english', r.name || ' ' || r.description) @@ query"
+            + " OR lower(r.name) LIKE :pattern OR lower(r.description) LIKE :pattern) AND r.status = '"
+            + ResourceStatus.Available.toString() + "'"
+            + " ORDER BY ts_rank(to_tsvector('english', r.name || ' ' || r.description), query)"
+            + " + similarity(lower(r.name), :search) DESC, r.name LIMIT :limit";
+    private static final String GET_AVAILABLE_RESOURCES_QUERY = "SELECT r.*, rt.type_name FROM resource r INNER JOIN type rt on r.type_id = rt.type_id WHERE r.status = '"
+            + ResourceStatus.Available.toString() + "'";
+    private static final String SEARCH = "search";
+    private static final String PATTERN = "pattern";
+    private static final String LIMIT = "limit";
+    private static final String LIKE_WILDCARD = "%";
+    private static final String[] LIKE_SPECIAL_CHARACTERS = { "\\", "%", "_" };
+    private static final String[] ESCAPED_LIKE_SPECIAL_CHARACTERS = { "\\\\", "\\%", "\\_" };
     private static final Logger LOGGER = Logger.getLogger(ResourceDAOImpl.class);
-    private static final String GET_RESOURCE = "SELECT r.resource_id, r.description, r.link, r.name, r.type_id, t.type_name FROM resource r INNER JOIN type t on r.type_id = t.type_id WHERE r.resource_id=?";
+    private static final String GET_RESOURCE = "SELECT r.resource_id, r.description, r.link, r.name, r.type_id, r.status, t.type_name FROM resource r INNER JOIN type t on r.type_id = t.type_id WHERE r.resource_id=?";
     private static final String GET_RESOURCES_BY_CATEGORY = "SELECT r.*, rt.type_name FROM resource r INNER JOIN category_resource_reltn c on r.resource_id=c.resource_id INNER JOIN type rt on r.type_id = rt.type_id WHERE c.category_id=?";
+    private static final String GET_RESOURCES_BY_CATEGORIES = "SELECT c.category_id, r.*, rt.type_name FROM resource r INNER JOIN category_resource_reltn c on r.resource_id=c.resource_id INNER JOIN type rt on r.type_id = rt.type_id WHERE c.category_id = ANY(?)";
+    private static final String GET_AVAILABLE_RESOURCES_BY_IDS = "SELECT r.*, rt.type_name FROM resource r INNER JOIN type rt on r.type_id = rt.type_id WHERE r.resource_id = ANY(?) AND r.status = '"
+            + ResourceStatus.Available.toString() + "'";
     private static final String CHECK_RESOURCE_EXISTS_QUERY = "SELECT count(*) FROM resource WHERE name = ?";
+    private static final String GET_EXISTING_RESOURCE_NAMES_QUERY = "SELECT DISTINCT name FROM resource WHERE name = ANY(:names)";
+    private static final String NAMES = "names";
     private static final String TYPE_NAME_QUERY = "SELECT type_id FROM type WHERE type_name=?";
     private static final String EDIT_RESOURCE = "UPDATE resource SET name=?, link=?, skill_level=?, type_id=?, resource_owner=? WHERE resource_id=?";
 
-    private static final String EMPTY_RESULT = "Error: the specified query did not return any results";
     private static final String EMPTY_FIELDS_IN_RESULT = "Resource has empty/null field(s)";
     private static final String GET_RESOURCE_BY_ID_FAILURE = "Error while extracting resource by its ID";
     private static final String INSERT_RESOURCE_FAILURE = "Error while adding resource to the database";
@@ -76,6 +105,8 @@ public class ResourceDAOImpl implements ResourceDAO {
     private static final String NULL_RESOURCE_TYPE = "Resource Type cannot be null";
     private static final String NEGATIVE_RESOURCE_ID = "Resource id must be greater than 0";
     private static final String INVALID_CATEGORY_ID = "Category Id should be positive integer";
+    private static final String CATEGORY_IDS_INVALID = "Category Ids cannot be null or empty";
+    private static final String RESOURCE_IDS_INVALID = "Resource Ids cannot be null or empty";
 
     private static final String RESOURCE_NAME_NULL = "Resource Name can not be null";
     private static final String RESOURCE_LINK_NULL = "Resource Link can not be null";
@@ -89,24 +120,46 @@ public class ResourceDAOImpl implements ResourceDAO {
     private static final String RESOURCE_OWNER_ERROR_MESSAGE = "Resource owner cannot be null/empty/blank";
     private static final String INVALID_STRING = "Search string cannot be null or empty";
     private static final String INVALID_ID = "The id is invalid";
+    private static final String INVALID_LIMIT = "Search limit must be greater than 0";
     private static final String RESOURCE_STATUS_NULL_ERROR_MESSAGE = "Resource status cannot be null";
     private static final String RESOURCE_STATUS_INVALID = "Resource status must be Available/Pending/Deleted";
+    private static final String RESOURCE_NAMES_INVALID = "Resource names cannot be null or empty";
+    private static final String RESOURCE_LIST_INVALID = "Resource list cannot be null or empty";
+    private static final String NULL_RESOURCE = "Resource cannot be null";
 
     private static final ResourceRowMapper rowMapper = new ResourceRowMapper();
+    private static final ResourceWithStatusRowMapper rowWithStatusMapper = new ResourceWithStatusRowMapper();
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
     @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Autowired
     private CategoryResourceRelationDAO categoryResourceRelationDAO;
 
     @Override
-    public List<Resource> getSearchedResources(final String search) throws DAOException {
+    public List<Resource> getSearchedResources(final String search, final int limit) throws DAOException {
         Preconditions.checkArgument(StringUtils.isNotEmpty(search), INVALID_STRING);
+        Preconditions.checkArgument(limit > 0, INVALID_LIMIT);
+        final String lowerCaseSearch = search.toLowerCase();
+        final String pattern = LIKE_WILDCARD
+                + StringUtils.replaceEach(lowerCaseSearch, LIKE_SPECIAL_CHARACTERS, ESCAPED_LIKE_SPECIAL_CHARACTERS)
+                + LIKE_WILDCARD;
+        final MapSqlParameterSource parameters = new MapSqlParameterSource(SEARCH, lowerCaseSearch)
+                .addValue(PATTERN, pattern).addValue(LIMIT, limit);
+        try {
+            return namedParameterJdbcTemplate.query(GET_SEARCHED_RESOURCES_QUERY, parameters, rowMapper);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(DATA_RETRIEVAL_FAILURE, dataAccessException);
+        }
+    }
+
+    @Override
+    public List<Resource> getAvailableResources() throws DAOException {
         try {
-            return jdbcTemplate.<Resource>query(GET_SEARCHED_RESOURCES_QUERY, rowMapper, "%" + search + "%",
-                    "%" + search + "%");
-        } catch (final EmptyResultDataAccessException emptyResultEx) {
-            throw new DAOException(EMPTY_RESULT, emptyResultEx);
+            return jdbcTemplate.query(GET_AVAILABLE_RESOURCES_QUERY, rowMapper);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(DATA_RETRIEVAL_FAILURE, dataAccessException);
         }
     }
 
@@ -115,7 +168,7 @@ public class ResourceDAOImpl implements ResourceDAO {
         Preconditions.checkArgument(id > 0, INVALID_ID);
         Resource queriedResource;
         try {
-            queriedResource = jdbcTemplate.queryForObject(GET_RESOURCE, rowMapper, id);
+            queriedResource = jdbcTemplate.queryForObject(GET_RESOURCE, rowWithStatusMapper, id);
             if (queriedResource.getDescription().isEmpty() || queriedResource.getResourceLink() == null
                     || queriedResource.getResourceType() == null) {
                 throw new DAOException(EMPTY_FIELDS_IN_RESULT);
@@ -148,9 +201,8 @@ public class ResourceDAOImpl implements ResourceDAO {
         checkArgument(StringUtils.isNotBlank(resourceOwner), RESOURCE_OWNER_ERROR_MESSAGE);
         checkArgument(resourceStatus != null, RESOURCE_STATUS_NULL_ERROR_MESSAGE);
         try {
-            jdbcTemplate.update(INSERT_RESOURCE, description, name, resourceLink.toString(),
-                    resourceType.getResourceTypeId(), resourceOwner, resourceStatus);
-            return jdbcTemplate.queryForObject(GET_MAX_ID, Integer.class);
+            return jdbcTemplate.queryForObject(INSERT_RESOURCE, Integer.class, description, name,
+                    resourceLink.toString(), resourceType.getResourceTypeId(), resourceOwner, resourceStatus);
         } catch (final DataAccessException daoException) {
             throw new DAOException(INSERT_RESOURCE_FAILURE, daoException);
         }
@@ -178,12 +230,45 @@ public class ResourceDAOImpl implements ResourceDAO {
     }
 
     @Override
-    public int getResourceCountByCategoryId(final int categoryId) throws DAOException {
-        checkArgument(categoryId > 0, "Category Id must be greater than zero");
+    public Map<Integer, List<Resource>> getResourcesByCategoryIds(final Collection<Integer> categoryIds)
+            throws DAOException {
+        checkArgument(categoryIds != null && !categoryIds.isEmpty(), CATEGORY_IDS_INVALID);
+        final Map<Integer, List<Resource>> resourcesByCategoryId = new LinkedHashMap<>();
+        for (final Integer categoryId : categoryIds) {
+            checkArgument(categoryId != null && categoryId > 0, INVALID_CATEGORY_ID);
+            resourcesByCategoryId.put(categoryId, new ArrayList<Resource>());
+        }
         try {
-            return jdbcTemplate.queryForObject(GET_RESOURCE_COUNT_BY_CATEGORY_ID, Integer.class, categoryId);
+            jdbcTemplate.query(GET_RESOURCES_BY_CATEGORIES, new RowCallbackHandler() {
+                private int rowNum;
+
+                @Override
+                public void processRow(final ResultSet row) throws SQLException {
+                    resourcesByCategoryId.get(row.getInt(CATEGORY_ID)).add(rowMapper.mapRow(row, rowNum++));
+                }
+            }, SqlArrayValue.ofIntegers(resourcesByCategoryId.keySet()));
         } catch (final DataAccessException daoException) {
-            throw new DAOException(DATA_RETRIEVAL_FAILURE, daoException);
+            throw new DAOException(GET_RESOURCES_BY_CATEGORY_ID_FAILURE, daoException);
+        }
+        return resourcesByCategoryId;
+    }
+
+    @Override
+    public Map<Integer, Resource> getAvailableResourcesByIds(final Collection<Integer> resourceIds)
+            throws DAOException {
+        checkArgument(resourceIds != null && !resourceIds.isEmpty(), RESOURCE_IDS_INVALID);
+        for (final Integer resourceId : resourceIds) {
+            checkArgument(resourceId != null && resourceId > 0, NEGATIVE_RESOURCE_ID);
+        }
+        try {
+            final Map<Integer, Resource> resourcesById = new HashMap<>();
+            for (final Resource resource : jdbcTemplate.query(GET_AVAILABLE_RESOURCES_BY_IDS, rowMapper,
+                    SqlArrayValue.ofIntegers(resourceIds))) {
+                resourcesById.put(resource.getResourceId(), resource);
+            }
+            return resourcesById;
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(GET_RESOURCE_BY_ID_FAILURE, daoException);
         }
     }
 
@@ -197,6 +282,48 @@ public class ResourceDAOImpl implements ResourceDAO {
         }
     }
 
+    @Override
+    public Set<String> getExistingResourceNames(final Collection<String> resourceNames) throws DAOException {
+        checkArgument(resourceNames != null && !resourceNames.isEmpty(), RESOURCE_NAMES_INVALID);
+        try {
+            return new HashSet<>(namedParameterJdbcTemplate.queryForList(GET_EXISTING_RESOURCE_NAMES_QUERY,
+                    new MapSqlParameterSource(NAMES, SqlArrayValue.ofStrings(resourceNames)), String.class));
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(DATA_RETRIEVAL_FAILURE, daoException);
+        }
+    }
+
+    @Override
+    public void addResources(final List<Resource> resources) throws DAOException {
+        checkArgument(resources != null && !resources.isEmpty(), RESOURCE_LIST_INVALID);
+        for (final Resource resource : resources) {
+            checkArgument(resource != null, NULL_RESOURCE);
+            checkArgument(StringUtils.isNotBlank(resource.getResourceName()), Constants.RESOURCE_NAME_INVALID);
+            checkArgument(StringUtils.isNotBlank(resource.getDescription()), Constants.RESOURCE_DESCRIPTION_INVALID);
+            checkArgument(HttpURLValidator.verifyURL(resource.getResourceLink()), Constants.RESOURCE_URL_INVALID);
+            checkArgument(resource.getResourceType() != null, NULL_RESOURCE_TYPE);
+            checkArgument(StringUtils.isNotBlank(resource.getResourceOwner()), RESOURCE_OWNER_ERROR_MESSAGE);
+            checkArgument(resource.getResourceStatus() != null, RESOURCE_STATUS_NULL_ERROR_MESSAGE);
+        }
+        try {
+            final List<Integer> resourceIds = jdbcTemplate.queryForList(RESERVE_RESOURCE_IDS, Integer.class,
+                    resources.size());
+            final List<Object[]> queryArgs = new ArrayList<>(resources.size());
+            for (int i = 0; i < resources.size(); i++) {
+                final Resource resource = resources.get(i);
+                queryArgs.add(new Object[] { resourceIds.get(i), resource.getDescription(), resource.getResourceName(),
+                        resource.getResourceLink().toString(), resource.getResourceType().getResourceTypeId(),
+                        resource.getResourceOwner(), resource.getResourceStatus() });
+            }
+            jdbcTemplate.batchUpdate(INSERT_RESOURCE_WITH_ID, queryArgs);
+            for (int i = 0; i < resources.size(); i++) {
+                resources.get(i).setResourceId(resourceIds.get(i));
+            }
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(INSERT_RESOURCE_FAILURE, daoException);
+        }
+    }
+
     /**
      * Custom {@link RowMapper} class to map a {@link ResultSet} to a new
      * {@link Resource} object.
@@ -224,6 +351,19 @@ public class ResourceDAOImpl implements ResourceDAO {
         }
     }
 
+    /**
+     * {@link ResourceRowMapper} for queries that also select the status of the
+     * resource.
+     */
+    static class ResourceWithStatusRowMapper extends ResourceRowMapper {
+        @Override
+        public Resource mapRow(final ResultSet row, final int rowNum) throws SQLException {
+            final Resource resource = super.mapRow(row, rowNum);
+            resource.setResourceStatus(row.getString(STATUS));
+            return resource;
+        }
+    }
+
     @Override
     public void updateResource(final int resourceId, final String resourceName, final URL resourceLink,
             final int resourceDifficultyLevel, final String resourceType, final String resourceOwner)
@@ -1,5 +1,6 @@
 package com.cerner.devcenter.education.admin;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.cerner.devcenter.education.models.Resource;
@@ -35,4 +36,27 @@ public interface ResourceTagRelationDAO {
      *             reason
      */
     void addTagsToResource(int resourceID, List<Tag> tagList) throws DAOException;
+
+    /**
+     * Adds the tags with the given names to a resource in a single statement:
+     * tags that do not exist yet are created, and relations the resource
+     * already has are kept. Names are trimmed and matched ignoring case, so
+     * an existing tag keeps its spelling. It is safe to call concurrently for
+     * the same tag names, from any number of connections.
+     *
+     * @param resourceID
+     *            the ID of the resource to tag. Must be positive and exist.
+     * @param tagNames
+     *            the names of the tags to add. Cannot be null or empty, and
+     *            each name cannot be null, empty or blank.
+     * @return the {@link Tag tags} now related to the resource for the given
+     *         names, one per distinct name ignoring case, never null.
+     * @throws IllegalArgumentException
+     *             when the resourceID is not positive, when tagNames is null or
+     *             empty, or when a name is null, empty or blank.
+     * @throws DAOException
+     *             when the tags or relations cannot be added, for example
+     *             when the resource does not exist.
+     */
+    List<Tag> addTagsToResourceByName(int resourceID, Collection<String> tagNames) throws DAOException;
 }
@@ -1,8 +1,10 @@
 package com.cerner.devcenter.education.admin;
 
+import static com.cerner.devcenter.education.utils.TagNameVerifier.verifyTagNameCollectionArgument;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
@@ -11,9 +13,11 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import com.cerner.devcenter.education.admin.TagDAOImpl.TagRowMapper;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.Tag;
 import com.cerner.devcenter.education.utils.Constants;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * Responsible for performing database operations for relationships between
@@ -32,6 +36,21 @@ public class ResourceTagRelationDAOImpl implements ResourceTagRelationDAO {
     private JdbcTemplate jdbcTemplate;
 
     private final static String INSERT_TAG_RESOURCE_QUERY = "INSERT INTO tag_resource_reltn(tag_id, resource_id) VALUES(?,?)";
+    /*
+     * Names are de-duplicated the way the tag_tag_name unique index compares
+     * them and upserted in that order, so concurrent calls lock the same tags
+     * in the same order. DO UPDATE rather than DO NOTHING makes the insert
+     * return the existing row even when another transaction committed it after
+     * this statement started, which a separate SELECT would not see.
+     */
+    private final static String ADD_TAGS_TO_RESOURCE_BY_NAME_QUERY = "WITH requested AS ("
+            + "SELECT DISTINCT ON (lower(name)) name FROM unnest(?::text[]) AS name ORDER BY lower(name), name), "
+            + "tags AS (INSERT INTO tag(tag_name) SELECT name FROM requested "
+            + "ON CONFLICT (lower(tag_name)) DO UPDATE SET tag_name = tag.tag_name RETURNING tag_id, tag_name), "
+            + "relations AS (INSERT INTO tag_resource_reltn(tag_id, resource_id) SELECT tag_id, ? FROM tags "
+            + "ON CONFLICT DO NOTHING) "
+            + "SELECT tag_id, tag_name FROM tags ORDER BY tag_id";
+    private final static TagRowMapper TAG_ROW_MAPPER = new TagRowMapper();
 
     @Override
     public void addTagsToResource(final int resourceID, final List<Tag> tagList) throws DAOException {
@@ -54,4 +73,23 @@ public class ResourceTagRelationDAOImpl implements ResourceTagRelationDAO {
             throw new DAOException(Constants.ERROR_ADDING_TAG_RESOURCE_RELTN, dataAccessException);
         }
     }
+
+    @Override
+    public List<Tag> addTagsToResourceByName(final int resourceID, final Collection<String> tagNames)
+            throws DAOException {
+        checkArgument(resourceID > 0, Constants.RESOURCE_ID_MUST_BE_POSITIVE);
+        verifyTagNameCollectionArgument(tagNames);
+
+        List<String> trimmedNames = new ArrayList<String>(tagNames.size());
+        for (String tagName : tagNames) {
+            trimmedNames.add(tagName.trim());
+        }
+
+        try {
+            return jdbcTemplate.query(ADD_TAGS_TO_RESOURCE_BY_NAME_QUERY, TAG_ROW_MAPPER,
+                    SqlArrayValue.ofStrings(trimmedNames), resourceID);
+        } catch (DataAccessException dataAccessException) {
+            throw new DAOException(Constants.ERROR_ADDING_TAG_RESOURCE_RELTN, dataAccessException);
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.cerner.devcenter.education.admin;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -59,6 +61,22 @@ public interface ResourceTypeDAO {
      */
     ResourceType getByName(String name) throws DAOException;
 
+    /**
+     * Returns the {@link ResourceType} objects whose names are in the passed in collection, looked
+     * up in a single query. Names with no matching type are absent from the returned map.
+     * 
+     * @param names
+     *            a {@link Collection} of resource type names to look up. Cannot be null or empty.
+     * 
+     * @return a {@link Map} of type name to {@link ResourceType}
+     * 
+     * @throws DAOException
+     *             when there is an error while trying to get the resource types from the data source
+     * @throws IllegalArgumentException
+     *             when names is null or empty.
+     */
+    Map<String, ResourceType> getByNames(Collection<String> names) throws DAOException;
+
     /**
      * Adds a new resourceType to the resource type table. Takes the the resource type name as an
      * input. The name cannot be <code>null</code>.
@@ -5,16 +5,22 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 import com.google.common.base.Strings;
 
 /**
@@ -29,14 +35,16 @@ import com.google.common.base.Strings;
 @Repository("resourceTypeDAO")
 public class ResourceTypeDAOImpl implements ResourceTypeDAO {
     private static final String GET_ALL_RESOURCES_TYPE_QUERY = "SELECT * FROM type";
-    private static final String GET_MAX_ID_QUERY = "SELECT MAX(type_id) FROM type";
-    private static final String INSERT_RESOURCE_TYPE_QUERY = "INSERT INTO type (type_name) VALUES(?)";
+    private static final String INSERT_RESOURCE_TYPE_QUERY = "INSERT INTO type (type_name) VALUES(?) RETURNING type_id";
     private static final String GET_RESOURCE_BY_TYPE_ID = "SELECT type_id, type_name FROM type WHERE type_id=?";
     private static final String GET_TYPE_BY_NAME = "SELECT type_id, type_name FROM type WHERE type_name=?";
+    private static final String GET_TYPES_BY_NAMES = "SELECT type_id, type_name FROM type WHERE type_name = ANY(:names)";
+    private static final String NAMES = "names";
     private static final String EMPTY_RESULT_ERROR_MESSAGE = "Error: the specified query did not return any results";
 
     private static final String INVALID_RESOURCE_TYPE_ID = "The id for resource type is invalid because it is less than or equal to zero";
     private static final String INVALID_RESOURCE_TYPE_NAME = "The name for resource type is invalid because it is either null or empty.";
+    private static final String INVALID_RESOURCE_TYPE_NAMES = "The names for resource types cannot be null or empty.";
     private static final String RESOURCE_ID_ERROR = "Error while extracting resource by its id";
     private static final String TYPE_EXTRACTION_ERROR = "Error while extracting type by its name";
     private static final String DB_RESOURCE_ERROR = "Error while adding resource to the database";
@@ -45,6 +53,8 @@ public class ResourceTypeDAOImpl implements ResourceTypeDAO {
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
     @Override
     public List<ResourceType> getAllResourceTypes() throws DAOException {
@@ -79,14 +89,28 @@ public class ResourceTypeDAOImpl implements ResourceTypeDAO {
         return queriedResource;
     }
 
+    @Override
+    public Map<String, ResourceType> getByNames(Collection<String> names) throws DAOException {
+        checkArgument(names != null && !names.isEmpty(), INVALID_RESOURCE_TYPE_NAMES);
+        Map<String, ResourceType> typesByName = new HashMap<>();
+        try {
+            for (ResourceType resourceType : namedParameterJdbcTemplate.query(GET_TYPES_BY_NAMES,
+                    new MapSqlParameterSource(NAMES, SqlArrayValue.ofStrings(names)), rowMapper)) {
+                typesByName.put(resourceType.getResourceType(), resourceType);
+            }
+        } catch (DataAccessException daoException) {
+            throw new DAOException(TYPE_EXTRACTION_ERROR, daoException);
+        }
+        return typesByName;
+    }
+
     @Override
     public ResourceType addResourceType(String resourceTypeName) throws DAOException {
         checkNotNull(resourceTypeName, INVALID_RESOURCE_TYPE_NAME);
-        int maxRows = 0;
         try {
-            jdbcTemplate.update(INSERT_RESOURCE_TYPE_QUERY, resourceTypeName);
-            maxRows = jdbcTemplate.queryForObject(GET_MAX_ID_QUERY, Integer.class);
-            return new ResourceType(maxRows, resourceTypeName);
+            final int resourceTypeId = jdbcTemplate.queryForObject(INSERT_RESOURCE_TYPE_QUERY, Integer.class,
+                    resourceTypeName);
+            return new ResourceType(resourceTypeId, resourceTypeName);
         } catch (DataAccessException daoException) {
             throw new DAOException(DB_RESOURCE_ERROR, daoException);
         }
@@ -1,6 +1,5 @@
 package com.cerner.devcenter.education.admin;
 
-import static com.cerner.devcenter.education.utils.QueryExpanderUtil.expandPlaceholders;
 import static com.cerner.devcenter.education.utils.TagNameVerifier.verifyTagNameArgument;
 import static com.cerner.devcenter.education.utils.TagNameVerifier.verifyTagNameCollectionArgument;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -25,6 +24,7 @@ import org.springframework.stereotype.Repository;
 
 import com.cerner.devcenter.education.models.Tag;
 import com.cerner.devcenter.education.utils.Constants;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * Responsible for performing database operations for {@link Tag} objects on a
@@ -44,7 +44,7 @@ public class TagDAOImpl implements TagDAO {
     private static final String GET_TAG_BY_ID_QUERY = "Select tag_id, tag_name FROM tag WHERE tag_id = ?";
     private static final String INSERT_TAG_QUERY = "INSERT INTO tag(tag_name) VALUES(?)";
     private static final String GET_TAGS_SAME_NAME_QUERY = "SELECT tag_id, tag_name FROM tag WHERE lower(tag_name) = ?";
-    private static final String GET_TAGS_NAME_IN_LIST_QUERY = "SELECT tag_id, tag_name FROM tag WHERE lower(tag_name) in (%s)";
+    private static final String GET_TAGS_NAME_IN_LIST_QUERY = "SELECT tag_id, tag_name FROM tag WHERE lower(tag_name) = ANY(?)";
     private static final String GET_TAG_BY_NAME_RETURNED_DUPLICATES = "More than one tag was returned when querying for a tag with the name %s.";
     private static ResourceBundle i18nBundle = ResourceBundle.getBundle("i18n", Locale.getDefault());
 
@@ -149,14 +149,13 @@ public class TagDAOImpl implements TagDAO {
     public List<Tag> getTagsWithNameInCollection(final Collection<String> tagNames) throws DAOException {
         verifyTagNameCollectionArgument(tagNames);
 
-        List<Object> searchParameters = new ArrayList<Object>();
+        List<String> searchParameters = new ArrayList<String>();
         for (String tagName : tagNames) {
             searchParameters.add(tagName.toLowerCase().trim());
         }
         try {
-            return jdbcTemplate.<Tag>query(
-                    String.format(GET_TAGS_NAME_IN_LIST_QUERY, expandPlaceholders(searchParameters.size())), rowMapper,
-                    searchParameters.toArray());
+            return jdbcTemplate.<Tag>query(GET_TAGS_NAME_IN_LIST_QUERY, rowMapper,
+                    SqlArrayValue.ofStrings(searchParameters));
         } catch (DataAccessException dataAccessException) {
             throw new DAOException(Constants.ERROR_FINDING_TAGS_BY_NAME, dataAccessException);
         }
@@ -37,6 +37,7 @@ public class LdapAuthenticationProvider implements AuthenticationProvider {
 
     /**
      * Overloaded method for facilitating the testing. This will return an {@link UsernamePasswordAuthenticationToken}
+     * whose details hold the {@link com.cerner.devcenter.education.user.UserProfileDetails} read at login, if any
      * @param auth - initial Auth in the Session that holds the UserName
      * @param user - Instance of {@link UserCredentials} holding the user credentials
      * @param ldapReader - Instance of  {@link LdapReader}
@@ -52,7 +53,10 @@ public class LdapAuthenticationProvider implements AuthenticationProvider {
             if (status == LOGIN_SUCCESS) {
                 List<GrantedAuthority> grantedAuths = new ArrayList<GrantedAuthority>();
                 grantedAuths.add(new SimpleGrantedAuthority("ROLE_USER"));
-                return new UsernamePasswordAuthenticationToken(user.getUsername(), user.getPassword(), grantedAuths);
+                UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(user.getUsername(),
+                        user.getPassword(), grantedAuths);
+                token.setDetails(ldapAuth.getUserProfile());
+                return token;
             }
             else
                 throw new AuthenticationCredentialsNotFoundException("Invalid credentials");
@@ -9,6 +9,9 @@ import java.util.Properties;
 import javax.naming.Context;
 import javax.naming.NamingException;
 
+import com.cerner.devcenter.education.user.LdapUserProfileDirectory;
+import com.cerner.devcenter.education.user.UserProfileDetails;
+
 /**
  * @author AC034492 This class implements AuthenticatorService for
  *         authenticating the user credentials with Cerner LDAP server.
@@ -16,6 +19,13 @@ import javax.naming.NamingException;
  */
 public class LdapAuthenticator implements AuthenticatorService {
 
+    private UserProfileDetails userProfile;
+
+    /**
+     * Verifies the credentials with a bind and, when they are valid, looks the user's profile up on the
+     * connection of that bind, which is then available from {@link #getUserProfile()}.
+     * {@inheritDoc}
+     */
     @Override
     public int authenticateUser(UserCredentials credentials, Properties connectionProperties) throws IOException {
 
@@ -28,14 +38,23 @@ public class LdapAuthenticator implements AuthenticatorService {
                 + "\\" + credentials.getUsername());
 
         LdapReader ldapReader = LdapReader.getInstance();
-        System.out.println(ldapReader);
 
         try {
-            ldapReader.createDirContext(connectionProperties);
+            userProfile = ldapReader.authenticate(connectionProperties,
+                    LdapUserProfileDirectory.DEFAULT_SEARCH_BASE, credentials.getUsername());
             return LOGIN_SUCCESS;
         } catch (NamingException e) {
             return LOGIN_BAD_CREDENTIALS;
         }
     }
 
+    /**
+     * @return the {@link UserProfileDetails} of the user read during the last successful
+     *         {@link #authenticateUser(UserCredentials, Properties)}, null if there was none or the user was
+     *         not found under the search base
+     */
+    public UserProfileDetails getUserProfile() {
+        return userProfile;
+    }
+
 }
@@ -0,0 +1,606 @@
+package com.cerner.devcenter.education.authentication;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.naming.CommunicationException;
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+
+/**
+ * Manages the LDAP connections used to log users in and to look users up, so
+ * that concurrent logins and searches neither share nor overwrite a single
+ * directory context.
+ * <p>
+ * Logins and searches use separate pools:
+ * <ul>
+ * <li>binds: a directory context is bound to the credentials it was opened
+ * with, so every login opens its own context with the user's credentials and
+ * closes it right after the bind. The pool bounds how many binds run at once,
+ * so a burst of logins cannot exhaust the LDAP server or starve searches.</li>
+ * <li>searches: contexts opened with the search credentials are kept idle and
+ * reused. The pool has a maximum size, validates idle contexts with a root DSE
+ * read before reusing them when they have not been used for the validation
+ * interval, discards contexts whose connection broke and evicts contexts idle
+ * for longer than the idle timeout.</li>
+ * </ul>
+ * Pooled searches are made as the configured search account, never with the
+ * credentials of a user who logged in, so pooled contexts are not bound to a
+ * user and no user's password is kept after their login. A login can still
+ * look up the user's own profile on the context it bound, with
+ * {@link #bind(Properties, SearchOperation)}, so the search account is only
+ * needed to look up other users; without one, logins work and pooled
+ * searches fail.
+ * <p>
+ * Every operation is bounded: acquiring a bind or search slot times out after
+ * the acquire timeout, and opening a connection and waiting for a response
+ * time out after the connect and read timeouts. Bind, search and acquire
+ * latencies are exposed through {@link #getMetrics()}.
+ * <p>
+ * {@link #init()} and {@link #close()} are meant to be used as the Spring
+ * init-method and destroy-method of the bean.
+ */
+public class LdapConnectionManager implements MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LdapConnectionManager.class);
+
+    static final String CONNECT_TIMEOUT_PROPERTY = "com.sun.jndi.ldap.connect.timeout";
+    static final String READ_TIMEOUT_PROPERTY = "com.sun.jndi.ldap.read.timeout";
+
+    private static final String CONNECTION_PROPERTIES_FILE = "connection";
+    private static final String[] VALIDATION_ATTRIBUTES = { "namingContexts" };
+    private static final String CONNECTION_PROPERTIES_NULL_ERROR_MESSAGE = "Connection properties cannot be null";
+    private static final String ENVIRONMENT_NULL_ERROR_MESSAGE = "Bind environment cannot be null";
+    private static final String OPERATION_NULL_ERROR_MESSAGE = "Search operation cannot be null";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String NEGATIVE_DURATION_ERROR_MESSAGE = "%s cannot be negative";
+    private static final String MANAGER_NOT_INITIALIZED_ERROR_MESSAGE = "LDAP connection manager has not been initialized";
+    private static final String MANAGER_ALREADY_INITIALIZED_ERROR_MESSAGE = "LDAP connection manager has already been initialized";
+    private static final String MANAGER_CLOSED_ERROR_MESSAGE = "LDAP connection manager has been closed";
+    private static final String CONNECTION_PROPERTIES_UNREADABLE_ERROR_MESSAGE = "Could not read the LDAP connection properties";
+    private static final String NO_SEARCH_ACCOUNT_ERROR_MESSAGE = "No LDAP search account is configured";
+    private static final String NO_SEARCH_ACCOUNT_WARNING = "No LDAP search account is configured; users are looked up on their own login, and looking up other users will fail until ldap.search.principal is set";
+    private static final String ACQUIRE_TIMEOUT_ERROR_MESSAGE = "Timed out after %d ms waiting for an LDAP %s connection";
+    private static final String ACQUIRE_INTERRUPTED_ERROR_MESSAGE = "Interrupted while waiting for an LDAP %s connection";
+    private static final String VALIDATION_FAILED_MESSAGE = "Discarding pooled LDAP search connection that failed validation";
+    private static final String ERROR_CLOSING_CONTEXT_MESSAGE = "Error closing LDAP directory context";
+    private static final String HOUSEKEEPING_ERROR_MESSAGE = "Error during LDAP connection pool housekeeping";
+    private static final String HOUSEKEEPER_THREAD_NAME = "ldap-connection-housekeeper";
+    private static final String BIND = "bind";
+    private static final String SEARCH = "search";
+
+    private static final int DEFAULT_MAXIMUM_CONCURRENT_BINDS = 20;
+    private static final int DEFAULT_MAXIMUM_SEARCH_CONNECTIONS = 10;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 5000;
+    private static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 3000;
+    private static final long DEFAULT_READ_TIMEOUT_MILLIS = 5000;
+    private static final long DEFAULT_VALIDATION_INTERVAL_MILLIS = 30000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 300000;
+    private static final long DEFAULT_HOUSEKEEPING_PERIOD_MILLIS = 30000;
+
+    private Properties connectionProperties;
+    private String searchPrincipal;
+    private String searchCredentials;
+    private int maximumConcurrentBinds = DEFAULT_MAXIMUM_CONCURRENT_BINDS;
+    private int maximumSearchConnections = DEFAULT_MAXIMUM_SEARCH_CONNECTIONS;
+    private long acquireTimeoutMillis = DEFAULT_ACQUIRE_TIMEOUT_MILLIS;
+    private long connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private long readTimeoutMillis = DEFAULT_READ_TIMEOUT_MILLIS;
+    private long validationIntervalMillis = DEFAULT_VALIDATION_INTERVAL_MILLIS;
+    private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    private long housekeepingPeriodMillis = DEFAULT_HOUSEKEEPING_PERIOD_MILLIS;
+
+    private final LinkedBlockingDeque<PooledContext> idleSearchContexts = new LinkedBlockingDeque<>();
+    private final AtomicInteger activeSearchContexts = new AtomicInteger();
+    private final AtomicInteger activeBinds = new AtomicInteger();
+    private final AtomicLong bindCount = new AtomicLong();
+    private final AtomicLong bindFailureCount = new AtomicLong();
+    private final AtomicLong searchCount = new AtomicLong();
+    private final AtomicLong searchFailureCount = new AtomicLong();
+    private final AtomicLong acquireTimeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final LatencyHistogram bindLatency = new LatencyHistogram();
+    private final LatencyHistogram searchLatency = new LatencyHistogram();
+    private final LatencyHistogram searchAcquireLatency = new LatencyHistogram();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile Properties searchEnvironment;
+    private volatile Semaphore bindPermits;
+    private volatile Semaphore searchPermits;
+    private ScheduledExecutorService housekeeper;
+
+    /**
+     * Runs a search on a pooled directory context, or on the context bound by
+     * a login.
+     *
+     * @param <T>
+     *            the result of the search.
+     */
+    public interface SearchOperation<T> {
+        /**
+         * @param dirContext
+         *            the {@link DirContext} lent for the search. It must not be
+         *            kept or closed.
+         * @return the result of the search.
+         * @throws NamingException
+         *             when the search fails.
+         */
+        T run(DirContext dirContext) throws NamingException;
+    }
+
+    /**
+     * Validates the configuration, reads the connection properties when none
+     * were set, prepares the environment of the search account and starts the
+     * housekeeping task that evicts idle search contexts.
+     *
+     * @throws IllegalStateException
+     *             when the manager has already been initialized or the
+     *             connection properties cannot be read.
+     */
+    public synchronized void init() {
+        checkState(bindPermits == null, MANAGER_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        if (connectionProperties == null) {
+            try {
+                connectionProperties = LdapReader.getInstance().readProperties(CONNECTION_PROPERTIES_FILE);
+            } catch (final IOException ioException) {
+                throw new IllegalStateException(CONNECTION_PROPERTIES_UNREADABLE_ERROR_MESSAGE, ioException);
+            }
+        }
+        if (StringUtils.isNotBlank(searchPrincipal)) {
+            final Properties environment = withTimeouts(connectionProperties);
+            environment.setProperty(Context.SECURITY_PRINCIPAL, searchPrincipal);
+            environment.setProperty(Context.SECURITY_CREDENTIALS, StringUtils.defaultString(searchCredentials));
+            searchEnvironment = environment;
+        } else {
+            LOGGER.warn(NO_SEARCH_ACCOUNT_WARNING);
+        }
+        searchPermits = new Semaphore(maximumSearchConnections, true);
+        bindPermits = new Semaphore(maximumConcurrentBinds, true);
+        housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, HOUSEKEEPER_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        housekeeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                runHousekeeping();
+            }
+        }, housekeepingPeriodMillis, housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops housekeeping and closes all idle search contexts. Contexts still
+     * in use are closed when their search ends.
+     */
+    public synchronized void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        PooledContext idleContext;
+        while ((idleContext = idleSearchContexts.pollFirst()) != null) {
+            destroy(idleContext);
+        }
+    }
+
+    /**
+     * Binds to LDAP with the credentials in the environment, which verifies
+     * them, and closes the connection. Nothing of the environment is kept.
+     *
+     * @param environment
+     *            the JNDI environment holding the connection properties and the
+     *            user's principal and credentials. Cannot be null.
+     * @throws ServiceUnavailableException
+     *             when no bind slot becomes available within the acquire
+     *             timeout.
+     * @throws NamingException
+     *             when the credentials are invalid or the LDAP server cannot
+     *             be reached.
+     * @throws IllegalStateException
+     *             when the manager has not been initialized.
+     */
+    public void bind(final Properties environment) throws NamingException {
+        bind(environment, null);
+    }
+
+    /**
+     * Binds to LDAP with the credentials in the environment, which verifies
+     * them, runs the operation on the bound context and closes the
+     * connection. The operation runs as the user who logged in, so it does not
+     * need the search account; it is counted as part of the bind. Nothing of
+     * the environment is kept.
+     *
+     * @param environment
+     *            the JNDI environment holding the connection properties and the
+     *            user's principal and credentials. Cannot be null.
+     * @param operation
+     *            the {@link SearchOperation} to run once the bind succeeded, or
+     *            null to only verify the credentials.
+     * @return the result of the operation, or null when there is none.
+     * @throws ServiceUnavailableException
+     *             when no bind slot becomes available within the acquire
+     *             timeout.
+     * @throws NamingException
+     *             when the credentials are invalid, the LDAP server cannot be
+     *             reached or the operation fails.
+     * @throws IllegalStateException
+     *             when the manager has not been initialized.
+     */
+    public <T> T bind(final Properties environment, final SearchOperation<T> operation) throws NamingException {
+        checkArgument(environment != null, ENVIRONMENT_NULL_ERROR_MESSAGE);
+        final Semaphore permits = getPermits(bindPermits);
+        acquire(permits, BIND);
+        activeBinds.incrementAndGet();
+        final long startNanos = System.nanoTime();
+        try {
+            final DirContext dirContext = new InitialDirContext(withTimeouts(environment));
+            final T result;
+            try {
+                result = operation == null ? null : operation.run(dirContext);
+            } finally {
+                closeQuietly(dirContext);
+            }
+            bindCount.incrementAndGet();
+            return result;
+        } catch (final NamingException namingException) {
+            bindFailureCount.incrementAndGet();
+            throw namingException;
+        } finally {
+            bindLatency.record(System.nanoTime() - startNanos);
+            activeBinds.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Runs a search on a pooled directory context, opening a new one when no
+     * valid idle context is available and the pool is below its maximum size.
+     *
+     * @param operation
+     *            the {@link SearchOperation} to run. Cannot be null.
+     * @return the result of the operation.
+     * @throws ServiceUnavailableException
+     *             when no search context becomes available within the acquire
+     *             timeout.
+     * @throws NamingException
+     *             when no search account is configured, or when the search
+     *             fails.
+     * @throws IllegalStateException
+     *             when the manager has not been initialized.
+     */
+    public <T> T search(final SearchOperation<T> operation) throws NamingException {
+        checkArgument(operation != null, OPERATION_NULL_ERROR_MESSAGE);
+        final Semaphore permits = getPermits(searchPermits);
+        final long acquireStartNanos = System.nanoTime();
+        acquire(permits, SEARCH);
+        final PooledContext pooledContext;
+        try {
+            pooledContext = takeOrCreateSearchContext();
+        } catch (final NamingException | RuntimeException exception) {
+            permits.release();
+            throw exception;
+        }
+        activeSearchContexts.incrementAndGet();
+        searchAcquireLatency.record(System.nanoTime() - acquireStartNanos);
+        final long startNanos = System.nanoTime();
+        boolean broken = false;
+        try {
+            final T result = operation.run(pooledContext.dirContext);
+            searchCount.incrementAndGet();
+            return result;
+        } catch (final CommunicationException | ServiceUnavailableException connectionException) {
+            broken = true;
+            searchFailureCount.incrementAndGet();
+            throw connectionException;
+        } catch (final NamingException | RuntimeException exception) {
+            searchFailureCount.incrementAndGet();
+            throw exception;
+        } finally {
+            searchLatency.record(System.nanoTime() - startNanos);
+            release(pooledContext, broken);
+            permits.release();
+        }
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the pools' gauges and counters.
+     *
+     * @return a {@link LdapConnectionMetrics}, never null.
+     */
+    @Override
+    public LdapConnectionMetrics getMetrics() {
+        return new LdapConnectionMetrics(
+                activeBinds.get(),
+                maximumConcurrentBinds,
+                activeSearchContexts.get(),
+                idleSearchContexts.size(),
+                maximumSearchConnections,
+                bindCount.get(),
+                bindFailureCount.get(),
+                searchCount.get(),
+                searchFailureCount.get(),
+                acquireTimeoutCount.get(),
+                createdCount.get(),
+                destroyedCount.get(),
+                validationFailureCount.get(),
+                bindLatency.snapshot(),
+                searchLatency.snapshot(),
+                searchAcquireLatency.snapshot());
+    }
+
+    /**
+     * Runs one housekeeping pass: closes the search contexts that have been
+     * idle for longer than the idle timeout.
+     */
+    void runHousekeeping() {
+        try {
+            if (idleTimeoutMillis <= 0) {
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            final Iterator<PooledContext> iterator = idleSearchContexts.descendingIterator();
+            while (iterator.hasNext()) {
+                final PooledContext idleContext = iterator.next();
+                if (now - idleContext.lastUsedMillis > idleTimeoutMillis
+                        && idleSearchContexts.removeLastOccurrence(idleContext)) {
+                    destroy(idleContext);
+                }
+            }
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.error(HOUSEKEEPING_ERROR_MESSAGE, runtimeException);
+        }
+    }
+
+    private Semaphore getPermits(final Semaphore permits) throws NamingException {
+        checkState(permits != null, MANAGER_NOT_INITIALIZED_ERROR_MESSAGE);
+        if (closed.get()) {
+            throw new ServiceUnavailableException(MANAGER_CLOSED_ERROR_MESSAGE);
+        }
+        return permits;
+    }
+
+    private void acquire(final Semaphore permits, final String pool) throws NamingException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                acquireTimeoutCount.incrementAndGet();
+                throw new ServiceUnavailableException(String.format(ACQUIRE_TIMEOUT_ERROR_MESSAGE,
+                        acquireTimeoutMillis, pool));
+            }
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(String.format(ACQUIRE_INTERRUPTED_ERROR_MESSAGE, pool));
+        }
+    }
+
+    private PooledContext takeOrCreateSearchContext() throws NamingException {
+        PooledContext idleContext;
+        while ((idleContext = idleSearchContexts.pollFirst()) != null) {
+            if (System.currentTimeMillis() - idleContext.lastValidatedMillis < validationIntervalMillis
+                    || isValid(idleContext)) {
+                return idleContext;
+            }
+            validationFailureCount.incrementAndGet();
+            LOGGER.warn(VALIDATION_FAILED_MESSAGE);
+            destroy(idleContext);
+        }
+        final Properties environment = searchEnvironment;
+        if (environment == null) {
+            throw new NamingException(NO_SEARCH_ACCOUNT_ERROR_MESSAGE);
+        }
+        final PooledContext pooledContext = new PooledContext(new InitialDirContext(environment));
+        createdCount.incrementAndGet();
+        return pooledContext;
+    }
+
+    private boolean isValid(final PooledContext pooledContext) {
+        try {
+            pooledContext.dirContext.getAttributes("", VALIDATION_ATTRIBUTES);
+            pooledContext.lastValidatedMillis = System.currentTimeMillis();
+            return true;
+        } catch (final NamingException namingException) {
+            return false;
+        }
+    }
+
+    private void release(final PooledContext pooledContext, final boolean broken) {
+        activeSearchContexts.decrementAndGet();
+        if (broken || closed.get()) {
+            destroy(pooledContext);
+            return;
+        }
+        pooledContext.lastUsedMillis = System.currentTimeMillis();
+        idleSearchContexts.offerFirst(pooledContext);
+    }
+
+    private void destroy(final PooledContext pooledContext) {
+        destroyedCount.incrementAndGet();
+        closeQuietly(pooledContext.dirContext);
+    }
+
+    /**
+     * @return a copy of the environment search contexts are opened with, or
+     *         null when no search account is configured.
+     */
+    Properties getSearchEnvironment() {
+        final Properties environment = searchEnvironment;
+        return environment == null ? null : copyOf(environment);
+    }
+
+    private Properties withTimeouts(final Properties environment) {
+        final Properties copy = copyOf(environment);
+        copy.setProperty(CONNECT_TIMEOUT_PROPERTY, String.valueOf(connectTimeoutMillis));
+        copy.setProperty(READ_TIMEOUT_PROPERTY, String.valueOf(readTimeoutMillis));
+        return copy;
+    }
+
+    private static Properties copyOf(final Properties properties) {
+        final Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
+    private static void closeQuietly(final DirContext dirContext) {
+        try {
+            dirContext.close();
+        } catch (final NamingException namingException) {
+            LOGGER.debug(ERROR_CLOSING_CONTEXT_MESSAGE, namingException);
+        }
+    }
+
+    /**
+     * @param connectionProperties
+     *            the JNDI environment to connect with (context factory,
+     *            provider URL and authentication type), as read by
+     *            {@link LdapReader#readProperties(String)}. Cannot be null.
+     *            When not set, the connection properties file is read by
+     *            {@link #init()}.
+     */
+    public void setConnectionProperties(final Properties connectionProperties) {
+        checkArgument(connectionProperties != null, CONNECTION_PROPERTIES_NULL_ERROR_MESSAGE);
+        this.connectionProperties = copyOf(connectionProperties);
+    }
+
+    /**
+     * @param searchPrincipal
+     *            the principal searches are made as. When null or blank,
+     *            searches fail.
+     */
+    public void setSearchPrincipal(final String searchPrincipal) {
+        this.searchPrincipal = searchPrincipal;
+    }
+
+    /**
+     * @param searchCredentials
+     *            the password of the search principal.
+     */
+    public void setSearchCredentials(final String searchCredentials) {
+        this.searchCredentials = searchCredentials;
+    }
+
+    /**
+     * @param maximumConcurrentBinds
+     *            the maximum number of logins verified at once. Must be greater
+     *            than 0.
+     */
+    public void setMaximumConcurrentBinds(final int maximumConcurrentBinds) {
+        checkArgument(maximumConcurrentBinds > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum concurrent binds");
+        this.maximumConcurrentBinds = maximumConcurrentBinds;
+    }
+
+    /**
+     * @param maximumSearchConnections
+     *            the maximum number of search contexts (idle and in use). Must
+     *            be greater than 0.
+     */
+    public void setMaximumSearchConnections(final int maximumSearchConnections) {
+        checkArgument(maximumSearchConnections > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum search connections");
+        this.maximumSearchConnections = maximumSearchConnections;
+    }
+
+    /**
+     * @param acquireTimeoutMillis
+     *            how long a login or search waits for a free slot before
+     *            failing. Must be greater than 0.
+     */
+    public void setAcquireTimeoutMillis(final long acquireTimeoutMillis) {
+        checkArgument(acquireTimeoutMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Acquire timeout");
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * @param connectTimeoutMillis
+     *            how long opening a connection to the LDAP server may take.
+     *            Must be greater than 0.
+     */
+    public void setConnectTimeoutMillis(final long connectTimeoutMillis) {
+        checkArgument(connectTimeoutMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Connect timeout");
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * @param readTimeoutMillis
+     *            how long a bind, search or validation waits for the LDAP
+     *            server to respond. Must be greater than 0.
+     */
+    public void setReadTimeoutMillis(final long readTimeoutMillis) {
+        checkArgument(readTimeoutMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Read timeout");
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * @param validationIntervalMillis
+     *            how long an idle search context is reused without being
+     *            validated; 0 validates on every reuse. Cannot be negative.
+     */
+    public void setValidationIntervalMillis(final long validationIntervalMillis) {
+        checkArgument(validationIntervalMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE, "Validation interval");
+        this.validationIntervalMillis = validationIntervalMillis;
+    }
+
+    /**
+     * @param idleTimeoutMillis
+     *            how long a search context may sit idle before it is closed; 0
+     *            disables eviction. Cannot be negative.
+     */
+    public void setIdleTimeoutMillis(final long idleTimeoutMillis) {
+        checkArgument(idleTimeoutMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE, "Idle timeout");
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * @param housekeepingPeriodMillis
+     *            how often idle search contexts are evicted. Must be greater
+     *            than 0.
+     */
+    public void setHousekeepingPeriodMillis(final long housekeepingPeriodMillis) {
+        checkArgument(housekeepingPeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Housekeeping period");
+        this.housekeepingPeriodMillis = housekeepingPeriodMillis;
+    }
+
+    /**
+     * A search context owned by the pool together with its bookkeeping.
+     */
+    private static final class PooledContext {
+
+        private final DirContext dirContext;
+        private volatile long lastUsedMillis;
+        private volatile long lastValidatedMillis;
+
+        private PooledContext(final DirContext dirContext) {
+            this.dirContext = dirContext;
+            this.lastUsedMillis = System.currentTimeMillis();
+            this.lastValidatedMillis = lastUsedMillis;
+        }
+    }
+}
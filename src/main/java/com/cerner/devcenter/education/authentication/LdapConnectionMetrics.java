@@ -0,0 +1,163 @@
+package com.cerner.devcenter.education.authentication;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of the {@link LdapConnectionManager}'s gauges
+ * and counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class LdapConnectionMetrics {
+
+    private final int activeBinds;
+    private final int maximumConcurrentBinds;
+    private final int activeSearchConnections;
+    private final int idleSearchConnections;
+    private final int maximumSearchConnections;
+    private final long bindCount;
+    private final long bindFailureCount;
+    private final long searchCount;
+    private final long searchFailureCount;
+    private final long acquireTimeoutCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long validationFailureCount;
+    private final LatencyHistogram.Snapshot bindLatency;
+    private final LatencyHistogram.Snapshot searchLatency;
+    private final LatencyHistogram.Snapshot searchAcquireLatency;
+
+    /**
+     * @param activeBinds
+     *            number of logins being verified right now
+     * @param maximumConcurrentBinds
+     *            configured maximum number of logins verified at once
+     * @param activeSearchConnections
+     *            number of search connections currently lent out
+     * @param idleSearchConnections
+     *            number of search connections waiting in the pool
+     * @param maximumSearchConnections
+     *            configured maximum number of search connections
+     * @param bindCount
+     *            total number of successful binds
+     * @param bindFailureCount
+     *            total number of binds that failed, including bad credentials
+     * @param searchCount
+     *            total number of successful searches
+     * @param searchFailureCount
+     *            total number of searches that failed
+     * @param acquireTimeoutCount
+     *            total number of logins and searches that gave up waiting for
+     *            a free slot
+     * @param createdCount
+     *            total number of search connections opened
+     * @param destroyedCount
+     *            total number of search connections closed
+     * @param validationFailureCount
+     *            total number of idle search connections that failed their
+     *            health check
+     * @param bindLatency
+     *            snapshot of the bind-latency histogram
+     * @param searchLatency
+     *            snapshot of the search-latency histogram
+     * @param searchAcquireLatency
+     *            snapshot of the histogram of time spent waiting for a search
+     *            connection
+     */
+    public LdapConnectionMetrics(
+            final int activeBinds,
+            final int maximumConcurrentBinds,
+            final int activeSearchConnections,
+            final int idleSearchConnections,
+            final int maximumSearchConnections,
+            final long bindCount,
+            final long bindFailureCount,
+            final long searchCount,
+            final long searchFailureCount,
+            final long acquireTimeoutCount,
+            final long createdCount,
+            final long destroyedCount,
+            final long validationFailureCount,
+            final LatencyHistogram.Snapshot bindLatency,
+            final LatencyHistogram.Snapshot searchLatency,
+            final LatencyHistogram.Snapshot searchAcquireLatency) {
+        this.activeBinds = activeBinds;
+        this.maximumConcurrentBinds = maximumConcurrentBinds;
+        this.activeSearchConnections = activeSearchConnections;
+        this.idleSearchConnections = idleSearchConnections;
+        this.maximumSearchConnections = maximumSearchConnections;
+        this.bindCount = bindCount;
+        this.bindFailureCount = bindFailureCount;
+        this.searchCount = searchCount;
+        this.searchFailureCount = searchFailureCount;
+        this.acquireTimeoutCount = acquireTimeoutCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.validationFailureCount = validationFailureCount;
+        this.bindLatency = bindLatency;
+        this.searchLatency = searchLatency;
+        this.searchAcquireLatency = searchAcquireLatency;
+    }
+
+    public int getActiveBinds() {
+        return activeBinds;
+    }
+
+    public int getMaximumConcurrentBinds() {
+        return maximumConcurrentBinds;
+    }
+
+    public int getActiveSearchConnections() {
+        return activeSearchConnections;
+    }
+
+    public int getIdleSearchConnections() {
+        return idleSearchConnections;
+    }
+
+    public int getMaximumSearchConnections() {
+        return maximumSearchConnections;
+    }
+
+    public long getBindCount() {
+        return bindCount;
+    }
+
+    public long getBindFailureCount() {
+        return bindFailureCount;
+    }
+
+    public long getSearchCount() {
+        return searchCount;
+    }
+
+    public long getSearchFailureCount() {
+        return searchFailureCount;
+    }
+
+    public long getAcquireTimeoutCount() {
+        return acquireTimeoutCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount;
+    }
+
+    public LatencyHistogram.Snapshot getBindLatency() {
+        return bindLatency;
+    }
+
+    public LatencyHistogram.Snapshot getSearchLatency() {
+        return searchLatency;
+    }
+
+    public LatencyHistogram.Snapshot getSearchAcquireLatency() {
+        return searchAcquireLatency;
+    }
+}
@@ -3,6 +3,9 @@ package com.cerner.devcenter.education.authentication;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Properties;
 
 import javax.naming.Context;
@@ -14,6 +17,9 @@ import javax.naming.directory.InitialDirContext;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.cerner.devcenter.education.user.UserProfileDetails;
 
 /**
@@ -24,41 +30,97 @@ import com.cerner.devcenter.education.user.UserProfileDetails;
  */
 public class LdapReader {
 
-    private static LdapReader instance = null;
-    private DirContext dirContext;
+    private static final Logger LOGGER = LoggerFactory.getLogger(LdapReader.class);
+    private static final String LOGIN_LOOKUP_FAILED_MESSAGE = "Could not look up user {} on their login connection";
+
+    private static final String[] USER_DETAILS_ATTRIBUTES = { "cn", "title", "sAMAccountName", "mail", "department",
+            "extensionAttribute6", "extensionAttribute11" };
+
+    private static volatile LdapReader instance = null;
+    private LdapConnectionManager connectionManager;
     private LdapReader() { }
 
     /**
-     * Singleton Implementation
+     * Singleton Implementation, safe to call from concurrent logins.
      * @return {@link LdapReader} instance.
      */
     public static LdapReader getInstance() {
-        if (instance == null) {
-            instance = new LdapReader();
+        LdapReader reader = instance;
+        if (reader == null) {
+            synchronized (LdapReader.class) {
+                reader = instance;
+                if (reader == null) {
+                    reader = new LdapReader();
+                    instance = reader;
+                }
+            }
         }
-        return instance;
+        return reader;
     }
 
+    /**
+     * Sets the {@link LdapConnectionManager} that binds and searches go through.
+     * @param connectionManager - the initialized connection manager
+     */
+    public void setConnectionManager(LdapConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
 
     /**
-     * Takes the connectionProperties from {@link LdapAuthenticator#authenticateUser} as input and
-     * creates a LDAP directoryContext if the credentials are valid
+     * Getter Method for the {@link LdapConnectionManager}
+     * @return - the connection manager, null until one is set
+     */
+    public LdapConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * Takes the connectionProperties as input and opens a new LDAP directoryContext if the
+     * credentials are valid. The caller owns the context and must close it.
      * @param connectionProperties
      * @return - directory context created
      * @throws NamingException
      */
     public DirContext createDirContext(Properties connectionProperties) throws NamingException{
-        dirContext = new InitialDirContext(connectionProperties);
-        return dirContext;
+        return new InitialDirContext(connectionProperties);
     }
 
     /**
-     * Getter Method for the DirectoryContext
-     * @return - DirContext
-     * @throws NamingException
+     * Takes the connectionProperties from {@link LdapAuthenticator#authenticateUser} as input and
+     * verifies the credentials with a bind through the {@link LdapConnectionManager}.
+     * @param connectionProperties - connection properties holding the user's principal and credentials
+     * @throws NamingException if the credentials are invalid or LDAP cannot be reached
      */
-    public DirContext getDirContext() throws NamingException {
-        return dirContext;
+    public void authenticate(Properties connectionProperties) throws NamingException {
+        getRequiredConnectionManager().bind(connectionProperties);
+    }
+
+    /**
+     * Verifies the credentials with a bind through the {@link LdapConnectionManager} and looks the user up
+     * on the connection the bind opened, so the user's own profile is read without the search account.
+     * A failed lookup does not fail the login; it is logged and the user is then looked up as any other.
+     * @param connectionProperties - connection properties holding the user's principal and credentials
+     * @param ldapSearchBase - SearchBase where the user need to be searched
+     * @param userId - UserId of the user who is logging in
+     * @return the {@link UserProfileDetails} of the user, null if the user is not found under the search base
+     *         or the lookup failed
+     * @throws NamingException if the credentials are invalid or LDAP cannot be reached
+     */
+    public UserProfileDetails authenticate(Properties connectionProperties, final String ldapSearchBase,
+            final String userId) throws NamingException {
+        return getRequiredConnectionManager().bind(connectionProperties,
+                new LdapConnectionManager.SearchOperation<UserProfileDetails>() {
+                    @Override
+                    public UserProfileDetails run(DirContext dirContext) {
+                        try {
+                            SearchResult searchResult = getSearchResults(dirContext, ldapSearchBase, userId);
+                            return searchResult == null ? null : getUserDetails(searchResult.getAttributes());
+                        } catch (NamingException e) {
+                            LOGGER.warn(LOGIN_LOOKUP_FAILED_MESSAGE, userId, e);
+                            return null;
+                        }
+                    }
+                });
     }
 
     /**
@@ -95,6 +157,41 @@ public class LdapReader {
     }
 
 
+    /**
+     * Searches the LDAP directory for the UserID on a pooled connection of the
+     * {@link LdapConnectionManager}.
+     * @param ldapSearchBase SearchBase where the user need to be searched
+     * @param userId UserId of whose details need to be searched in LDAP
+     * @return the {@link SearchResult} which holds the User information, null if not found
+     * @throws NamingException
+     */
+    public SearchResult getSearchResults(final String ldapSearchBase, final String userId) throws NamingException {
+        return getRequiredConnectionManager().search(new LdapConnectionManager.SearchOperation<SearchResult>() {
+            @Override
+            public SearchResult run(DirContext dirContext) throws NamingException {
+                return getSearchResults(dirContext, ldapSearchBase, userId);
+            }
+        });
+    }
+
+    /**
+     * Searches the LDAP directory for several users with a single OR-filter search on a pooled
+     * connection of the {@link LdapConnectionManager}.
+     * @param ldapSearchBase SearchBase where the users need to be searched
+     * @param userIds UserIds of whose details need to be searched in LDAP
+     * @return a {@link List} of {@link SearchResult}, one per UserID found.
+     * @throws NamingException
+     */
+    public List<SearchResult> getSearchResults(final String ldapSearchBase, final Collection<String> userIds)
+            throws NamingException {
+        return getRequiredConnectionManager().search(new LdapConnectionManager.SearchOperation<List<SearchResult>>() {
+            @Override
+            public List<SearchResult> run(DirContext dirContext) throws NamingException {
+                return getSearchResults(dirContext, ldapSearchBase, userIds);
+            }
+        });
+    }
+
     /**
      * This method will search the LDAP directory with the UserID provided and returns a {@link SearchResult} which holds the
      * User information
@@ -111,20 +208,68 @@ public class LdapReader {
         if(dir == null || UserId == null || ldapSearchBase == null)
             throw new NamingException("Not Authenticated");
 
-        String searchFilter = "(&(objectClass=user)(sAMAccountName=" + UserId + "))";
+        String searchFilter = "(&(objectClass=user)(sAMAccountName=" + escapeFilterValue(UserId) + "))";
 
         SearchControls searchControls = new SearchControls();
         searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
 
         NamingEnumeration<SearchResult> results = dir.search(ldapSearchBase, searchFilter, searchControls);
 
-        if(results.hasMoreElements()) {
-            searchResult = results.nextElement();
+        try {
+            if(results.hasMoreElements()) {
+                searchResult = results.nextElement();
+            }
+        } finally {
+            results.close();
         }
 
         return searchResult;
     }
 
+    /**
+     * Searches the LDAP directory for several users at once with a single
+     * OR-filter search, instead of one search per UserID. Only the attributes
+     * read by {@link #getUserDetails(Attributes)} are returned.
+     * @param dir LDAP directory context created after Authentication
+     * @param ldapSearchBase SearchBase where the users need to be searched
+     * @param userIds UserIds of whose details need to be searched in LDAP
+     * @return a {@link List} of {@link SearchResult}, one per UserID found. UserIDs that are not
+     * found have no result; empty when userIds is empty.
+     * @throws NamingException
+     */
+    public List<SearchResult> getSearchResults(DirContext dir, String ldapSearchBase, Collection<String> userIds)
+            throws NamingException {
+
+        List<SearchResult> searchResults = new ArrayList<>();
+
+        if(dir == null || userIds == null || ldapSearchBase == null)
+            throw new NamingException("Not Authenticated");
+
+        if(userIds.isEmpty())
+            return searchResults;
+
+        StringBuilder searchFilter = new StringBuilder("(&(objectClass=user)(|");
+        for(String userId : userIds) {
+            searchFilter.append("(sAMAccountName=").append(escapeFilterValue(userId)).append(')');
+        }
+        searchFilter.append("))");
+
+        SearchControls searchControls = new SearchControls();
+        searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        searchControls.setReturningAttributes(USER_DETAILS_ATTRIBUTES);
+
+        NamingEnumeration<SearchResult> results = dir.search(ldapSearchBase, searchFilter.toString(), searchControls);
+        try {
+            while(results.hasMore()) {
+                searchResults.add(results.next());
+            }
+        } finally {
+            results.close();
+        }
+
+        return searchResults;
+    }
+
     /**
      * Parse the {@link Attributes} object for User Profile Information
      * 
@@ -146,4 +291,42 @@ public class LdapReader {
 
     }
 
+    private LdapConnectionManager getRequiredConnectionManager() throws NamingException {
+        if(connectionManager == null)
+            throw new NamingException("LDAP connection manager is not configured");
+        return connectionManager;
+    }
+
+    /**
+     * Escapes the characters that have a meaning in an LDAP search filter (RFC 4515), so a UserID
+     * can only ever match itself.
+     * @param value - value to be placed in a search filter
+     * @return the escaped value
+     */
+    private static String escapeFilterValue(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for(char character : value.toCharArray()) {
+            switch(character) {
+            case '\\':
+                escaped.append("\\5c");
+                break;
+            case '*':
+                escaped.append("\\2a");
+                break;
+            case '(':
+                escaped.append("\\28");
+                break;
+            case ')':
+                escaped.append("\\29");
+                break;
+            case '\0':
+                escaped.append("\\00");
+                break;
+            default:
+                escaped.append(character);
+            }
+        }
+        return escaped.toString();
+    }
+
 }
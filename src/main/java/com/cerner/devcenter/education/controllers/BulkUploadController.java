@@ -108,7 +108,8 @@ public class BulkUploadController {
         ModelAndView model = new ModelAndView(UPLOAD_EXCEL);
 
         if (!file.isEmpty()) {
-            MessageHandler messageHandler = bulkUploadManager.addExcelDataSafely(file);
+            UserProfileDetails user = (UserProfileDetails) request.getSession().getAttribute(USER_DETAILS);
+            MessageHandler messageHandler = bulkUploadManager.addExcelDataSafely(file, user.getUserId());
             model.addObject(SUCCESS_MESSAGES,
                     MessageHandler.buildMessageHTML(messageHandler.getSuccessMessages(), SUCCESS_MESSAGES));
             model.addObject(ERROR_MESSAGES,
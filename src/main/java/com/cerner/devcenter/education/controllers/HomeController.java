@@ -14,13 +14,13 @@ import java.util.Map;
 import java.util.ResourceBundle;
 
 import javax.naming.NamingException;
-import javax.naming.directory.SearchResult;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.CollectionUtils;
@@ -34,7 +34,7 @@ import org.springframework.util.CollectionUtils;
 
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
-import com.cerner.devcenter.education.authentication.LdapReader;
+import com.cerner.devcenter.education.engagement.ResourceEngagementTracker;
 import com.cerner.devcenter.education.exceptions.DuplicateUserInterestedCategoryException;
 import com.cerner.devcenter.education.managers.CategoryManager;
 import com.cerner.devcenter.education.managers.CompletedUserResourceManager;
@@ -48,8 +48,13 @@ import com.cerner.devcenter.education.models.CompletedResource;
 import com.cerner.devcenter.education.models.Learner;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
+import com.cerner.devcenter.education.models.TrendingCategory;
+import com.cerner.devcenter.education.models.TrendingResource;
 import com.cerner.devcenter.education.models.UserInterestedCategory;
 import com.cerner.devcenter.education.models.UserRecommendedResource;
+import com.cerner.devcenter.education.page.PageFragment;
+import com.cerner.devcenter.education.page.PageFragmentLoader;
+import com.cerner.devcenter.education.user.UserDetails;
 import com.cerner.devcenter.education.user.UserProfileDetails;
 import com.cerner.devcenter.education.utils.AuthenticationStatusUtil;
 import com.cerner.devcenter.education.utils.CompletionRating;
@@ -74,7 +79,6 @@ import com.cerner.devcenter.education.utils.Constants;
 public class HomeController {
 
     private static final String ADMIN_CONSOLE = "admin_console";
-    private static final String BASE = "OU=Office Locations,DC=northamerica,DC=cerner,DC=net";
     private static final String HOME_PAGE = "home_page";
     private static final String HOME_REDIRECT = "redirect:/app/home_page";
     private static final String LOGIN_REDIRECT = "redirect:/login";
@@ -102,6 +106,9 @@ public class HomeController {
     private static final String NUMBER_OF_COMPLETED_RESOURCES = "numberOfCompletedResources";
     private static final String WELCOME_WIDGET_TITLE = "welcomeWidgetTitle";
     private static final String TOP_CATEGORY = "topCategory";
+    private static final String TRENDING_RESOURCES = "trendingResources";
+    private static final String TRENDING_CATEGORIES = "trendingCategories";
+    private static final String TRENDING_WIDGET_MESSAGE = "trendingWidgetMessage";
     private static final String NONE = "None";
 
     private static final String RESOURCE_CATEGORY_RELATION = "resourceCategoryRelation";
@@ -114,6 +121,7 @@ public class HomeController {
     private static final String ERROR_RETRIEVING_CATEGORIES_ERROR_MESSAGE = "Error retrieving all categories from the database with the following exception: %s";
     private static final String ERROR_RETRIEVING_RECOMMENDED_RESOURCES_ERROR_MESSAGE = "Error retrieving Recommended Resources for user.";
     private static final String ERROR_RETRIEVING_COMPLETED_RESOURCES_ERROR_MESSAGE = "Error retrieving Completed Resources for user";
+    private static final String ERROR_RETRIEVING_TRENDING_ERROR_MESSAGE = "Error retrieving the trending resources and categories";
     private static final String RETURNED_RECOMMENDED_RESOURCES_NULL_ERROR_MESSAGE = "The returned recommended resources for user: %s was null";
     private static final String RETURNED_CATEGORY_LIST_NULL_ERROR_MESSAGE = "The returned list of categories was null";
     private static final String ERROR_FILTERING_RESOURCES = "Error filtering recommended resources based on the selected category";
@@ -123,6 +131,8 @@ public class HomeController {
     private static final String NO_RECOMMENDED_RESOURCES = "com.cerner.devcenter.education.controllers.noRecommendedResource";
     private static final String NO_COMPLETED_RESOURCES = "homepage.completedResources.widget.message.noCompletedResources";
     private static final String COMPLETED_RESOURCES_RETRIEVAL_FAILURE = "homepage.completedResources.widget.message.errorCompletedResources";
+    private static final String NO_TRENDING = "homepage.trending.widget.message.noTrending";
+    private static final String TRENDING_RETRIEVAL_FAILURE = "homepage.trending.widget.message.errorTrending";
     private static final String CATEGORY_RETRIEVAL_FAILURE = "com.cerner.devcenter.education.controllers.errorRetrievingCategories";
     private static final String CATEGORY_LIST_RETURNED_EMPTY = "com.cerner.devcenter.education.controllers.noCategoriesReturned";
     private static final String GENERAL_DETAILS_WIDGET_TITLE = "homepage.generalDetails.widget.title";
@@ -133,6 +143,8 @@ public class HomeController {
     private static final String NO_RESULTS = "No results";
 
     private static final int NUMBER_OF_COMPLETED_RESOURCES_TO_RETURN = 5;
+    private static final int NUMBER_OF_TRENDING_RESOURCES_TO_RETURN = 5;
+    private static final int NUMBER_OF_TRENDING_CATEGORIES_TO_RETURN = 3;
     private static final double MINIMUM_RATING_REQUIRED_FOR_RESOURCE_TO_BE_RANKED_HIGHER_THAN_NEW_RESOURCES = CompletionRating.NEUTRAL
             .getValue();
     private static final int MINIMUM_NUMBER_OF_RATINGS_BEFORE_RESOURCE_IS_RANKED = 0;
@@ -143,12 +155,13 @@ public class HomeController {
 
     private AuthenticationStatusUtil status = AuthenticationStatusUtil.getInstance();
 
-    private LdapReader ldapReader;
     private HttpSession session;
 
     @Autowired
     private UserManager userManager;
     @Autowired
+    private UserDetails userDetails;
+    @Autowired
     private CategoryManager categoryManager;
     @Autowired
     private ResourceManager resourceManager;
@@ -160,6 +173,10 @@ public class HomeController {
     private LearnerManager learnerManager;
     @Autowired
     private UserInterestedCategoryManager userInterestedTopicManager;
+    @Autowired
+    private PageFragmentLoader pageFragmentLoader;
+    @Autowired
+    private ResourceEngagementTracker engagementTracker;
 
     /**
      * Redirects all users to home page upon successful login.
@@ -179,13 +196,11 @@ public class HomeController {
         if (!status.isLoggedIn()) {
             return new ModelAndView(LOGIN_REDIRECT);
         }
-        ldapReader = LdapReader.getInstance();
         try {
-            final SearchResult searchResult = ldapReader.getSearchResults(
-                    ldapReader.getDirContext(),
-                    BASE,
-                    SecurityContextHolder.getContext().getAuthentication().getName());
-            final UserProfileDetails user = ldapReader.getUserDetails(searchResult.getAttributes());
+            final UserProfileDetails user = getLoggedInUser(SecurityContextHolder.getContext().getAuthentication());
+            if (user == null) {
+                return new ModelAndView(LOGIN_FORCE_REDIRECT);
+            }
             session = request.getSession(true);
             session.setAttribute(USER_DETAILS, user);
             final List<Category> userInterestedCategories = new ArrayList<>();
@@ -205,10 +220,26 @@ public class HomeController {
         return new ModelAndView(HOME_REDIRECT);
     }
 
+    /**
+     * Returns the details of the logged in user, preferring those read on the
+     * user's own login connection, which need no LDAP search account, and
+     * caching them for later lookups.
+     */
+    private UserProfileDetails getLoggedInUser(final Authentication authentication) throws NamingException {
+        if (authentication.getDetails() instanceof UserProfileDetails) {
+            final UserProfileDetails user = (UserProfileDetails) authentication.getDetails();
+            userDetails.put(user);
+            return user;
+        }
+        return userDetails.getUserDetails(authentication.getName());
+    }
+
     /**
      * Displays the common home page, along with recommended resources for the
      * user and a widget displaying the user's most recently completed
-     * resources.
+     * resources. The widgets are loaded concurrently by the
+     * {@link PageFragmentLoader}; a widget that fails or is too slow is shown
+     * empty with a retrieval failure message.
      *
      * @param request
      *            a {@link HttpServletRequest} object
@@ -243,9 +274,86 @@ public class HomeController {
             return model;
         }
         model.setViewName(HOME_PAGE);
-        final Map<String, Object> modelMap = new HashMap<>();
         final UserProfileDetails user = (UserProfileDetails) session.getAttribute(USER_DETAILS);
         final String userId = user.getUserId();
+        final Map<String, Object> modelMap = new HashMap<>();
+        modelMap.putAll(pageFragmentLoader.loadAll(getHomePageFragments(userId)));
+        modelMap.put(NUMBER_OF_COMPLETED_RESOURCES_REQUIRED, NUMBER_OF_COMPLETED_RESOURCES_TO_RETURN);
+        modelMap.put(WELCOME_WIDGET_TITLE, MessageFormat.format(
+                I18N_BUNDLE.getString(GENERAL_DETAILS_WIDGET_TITLE),
+                user.getFirstName()));
+        return model.addAllObjects(modelMap);
+    }
+
+    /**
+     * Builds the independent fragments of the home page: the recommended
+     * resources, the recently completed resources, all the categories, the
+     * completed resources summary and the resources and categories trending
+     * this week. Each fragment only captures the userID, so
+     * it can be loaded off the request thread, and falls back to its empty
+     * widget with a retrieval failure message.
+     *
+     * @param userId
+     *            the userID of the logged in user
+     * @return the {@link List} of {@link PageFragment fragments} of the home
+     *         page
+     */
+    private List<PageFragment> getHomePageFragments(final String userId) {
+        final Map<String, Object> recommendedResourcesFallback = new HashMap<>();
+        recommendedResourcesFallback.put(RECOMMENDED_RESOURCES, Collections.<UserRecommendedResource> emptyList());
+        recommendedResourcesFallback.put(MESSAGE, I18N_BUNDLE.getString(RECOMMENDED_RESOURCES_RETRIEVAL_FAILURE));
+        final Map<String, Object> completedResourcesFallback = new HashMap<>();
+        completedResourcesFallback.put(COMPLETED_RESOURCES, Collections.<CompletedResource> emptyList());
+        completedResourcesFallback.put(
+                COMPLETED_RESOURCE_WIDGET_MESSAGE,
+                I18N_BUNDLE.getString(COMPLETED_RESOURCES_RETRIEVAL_FAILURE));
+        final Map<String, Object> allCategoriesFallback = new HashMap<>();
+        allCategoriesFallback.put(ALL_CATEGORIES, Collections.<Category> emptyList());
+        allCategoriesFallback.put(CATEGORY_ERROR, I18N_BUNDLE.getString(CATEGORY_RETRIEVAL_FAILURE));
+        final Map<String, Object> completedResourcesInfoFallback = new HashMap<>();
+        completedResourcesInfoFallback.put(NUMBER_OF_COMPLETED_RESOURCES, 0);
+        completedResourcesInfoFallback.put(TOP_CATEGORY, NONE);
+        final Map<String, Object> trendingFallback = new HashMap<>();
+        trendingFallback.put(TRENDING_RESOURCES, Collections.<TrendingResource> emptyList());
+        trendingFallback.put(TRENDING_CATEGORIES, Collections.<TrendingCategory> emptyList());
+        trendingFallback.put(TRENDING_WIDGET_MESSAGE, I18N_BUNDLE.getString(TRENDING_RETRIEVAL_FAILURE));
+
+        final List<PageFragment> fragments = new ArrayList<>();
+        fragments.add(new PageFragment(RECOMMENDED_RESOURCES, recommendedResourcesFallback) {
+            @Override
+            public Map<String, Object> load() {
+                return getRecommendedResourcesForUser(userId);
+            }
+        });
+        fragments.add(new PageFragment(COMPLETED_RESOURCES, completedResourcesFallback) {
+            @Override
+            public Map<String, Object> load() {
+                return getMostRecentlyCompletedResourcesForUser(userId);
+            }
+        });
+        fragments.add(new PageFragment(ALL_CATEGORIES, allCategoriesFallback) {
+            @Override
+            public Map<String, Object> load() {
+                return getAllCategories();
+            }
+        });
+        fragments.add(new PageFragment(TOP_CATEGORY, completedResourcesInfoFallback) {
+            @Override
+            public Map<String, Object> load() {
+                return getCompletedResourcesInfoForUser(userId);
+            }
+        });
+        fragments.add(new PageFragment(TRENDING_RESOURCES, trendingFallback) {
+            @Override
+            public Map<String, Object> load() {
+                return getTrending();
+            }
+        });
+        return fragments;
+    }
+
+    private Map<String, Object> getRecommendedResourcesForUser(final String userId) {
+        final Map<String, Object> modelMap = new HashMap<>();
         final List<UserRecommendedResource> recommendedResourcesAvailable = new ArrayList<>();
         List<UserRecommendedResource> intermediateRecommendedResourcesList;
         try {
@@ -270,7 +378,24 @@ public class HomeController {
             LOGGER.error(ERROR_RETRIEVING_RECOMMENDED_RESOURCES_ERROR_MESSAGE, managerException);
             modelMap.put(MESSAGE, I18N_BUNDLE.getString(RECOMMENDED_RESOURCES_RETRIEVAL_FAILURE));
         }
+        countViews(recommendedResourcesAvailable);
         modelMap.put(RECOMMENDED_RESOURCES, recommendedResourcesAvailable);
+        return modelMap;
+    }
+
+    /**
+     * Counts the recommended resources shown to the user as viewed.
+     */
+    private void countViews(final List<UserRecommendedResource> recommendedResources) {
+        for (final UserRecommendedResource recommendedResource : recommendedResources) {
+            if (recommendedResource != null) {
+                engagementTracker.resourceViewed(recommendedResource.getResource().getResourceId());
+            }
+        }
+    }
+
+    private Map<String, Object> getMostRecentlyCompletedResourcesForUser(final String userId) {
+        final Map<String, Object> modelMap = new HashMap<>();
         List<CompletedResource> completedResources = Collections.emptyList();
         try {
             completedResources = completedUserResourceManager
@@ -285,6 +410,30 @@ public class HomeController {
                     I18N_BUNDLE.getString(COMPLETED_RESOURCES_RETRIEVAL_FAILURE));
         }
         modelMap.put(COMPLETED_RESOURCES, completedResources);
+        return modelMap;
+    }
+
+    private Map<String, Object> getTrending() {
+        final Map<String, Object> modelMap = new HashMap<>();
+        List<TrendingResource> trendingResources = Collections.emptyList();
+        List<TrendingCategory> trendingCategories = Collections.emptyList();
+        try {
+            trendingResources = resourceManager.getTrendingResources(NUMBER_OF_TRENDING_RESOURCES_TO_RETURN);
+            trendingCategories = categoryManager.getTrendingCategories(NUMBER_OF_TRENDING_CATEGORIES_TO_RETURN);
+            if (trendingResources.isEmpty()) {
+                modelMap.put(TRENDING_WIDGET_MESSAGE, I18N_BUNDLE.getString(NO_TRENDING));
+            }
+        } catch (final ManagerException managerException) {
+            LOGGER.error(ERROR_RETRIEVING_TRENDING_ERROR_MESSAGE, managerException);
+            modelMap.put(TRENDING_WIDGET_MESSAGE, I18N_BUNDLE.getString(TRENDING_RETRIEVAL_FAILURE));
+        }
+        modelMap.put(TRENDING_RESOURCES, trendingResources);
+        modelMap.put(TRENDING_CATEGORIES, trendingCategories);
+        return modelMap;
+    }
+
+    private Map<String, Object> getAllCategories() {
+        final Map<String, Object> modelMap = new HashMap<>();
         final List<Category> allCategories = new ArrayList<>();
         List<Category> intermediateCategoryList;
         try {
@@ -307,12 +456,7 @@ public class HomeController {
             modelMap.put(CATEGORY_ERROR, I18N_BUNDLE.getString(CATEGORY_RETRIEVAL_FAILURE));
         }
         modelMap.put(ALL_CATEGORIES, allCategories);
-        modelMap.put(NUMBER_OF_COMPLETED_RESOURCES_REQUIRED, NUMBER_OF_COMPLETED_RESOURCES_TO_RETURN);
-        modelMap.put(WELCOME_WIDGET_TITLE, MessageFormat.format(
-                I18N_BUNDLE.getString(GENERAL_DETAILS_WIDGET_TITLE),
-                ((UserProfileDetails) session.getAttribute(USER_DETAILS)).getFirstName()));
-        model.addAllObjects(getCompletedResourcesInfoForUser(userId));
-        return model.addAllObjects(modelMap);
+        return modelMap;
     }
 
     /**
@@ -501,6 +645,7 @@ public class HomeController {
                                 MINIMUM_RATING_REQUIRED_FOR_RESOURCE_TO_BE_RANKED_HIGHER_THAN_NEW_RESOURCES,
                                 MINIMUM_NUMBER_OF_RATINGS_BEFORE_RESOURCE_IS_RANKED);
             }
+            countViews(recommendedResourcesAvailable);
         } catch (final ManagerException managerException) {
             LOGGER.error(ERROR_FILTERING_RESOURCES, managerException);
         }
@@ -0,0 +1,78 @@
+package com.cerner.devcenter.education.controllers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import javax.servlet.http.HttpSession;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.cerner.devcenter.education.managers.UserManager;
+import com.cerner.devcenter.education.user.UserProfileDetails;
+import com.cerner.devcenter.education.utils.AuthenticationStatusUtil;
+import com.cerner.devcenter.education.utils.Constants;
+import com.cerner.devcenter.education.utils.MetricsRegistry;
+
+/**
+ * This class defines the controller that exposes the runtime metrics of the
+ * components in the {@link MetricsRegistry}, such as the connection pools,
+ * caches, in-memory indexes and background loaders, as JSON so the
+ * application can be sized against its concurrent-user load. Metrics are
+ * only visible to admins.
+ */
+@Controller
+@RequestMapping("/app")
+public class MetricsController {
+
+    private static final String USER_DETAILS = "userDetails";
+
+    @Autowired
+    private AuthenticationStatusUtil status;
+    @Autowired
+    private UserManager userManager;
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    /**
+     * Returns a snapshot of the metrics registered under a name.
+     *
+     * @param name
+     *            the name the metrics are registered under in the
+     *            {@link MetricsRegistry}, for example connectionPool.
+     * @param session
+     *            a {@link HttpSession} object that stores the current session.
+     *            Cannot be <code>null</code>.
+     * @return a {@link ResponseEntity} holding the metrics with status OK, an
+     *         empty body with status FORBIDDEN when the current user is not
+     *         logged in or is not an admin, or an empty body with status
+     *         NOT_FOUND when no metrics are registered under the name.
+     */
+    @RequestMapping(value = "/metrics/{name}", method = RequestMethod.GET)
+    public @ResponseBody ResponseEntity<Object> getMetrics(
+            @PathVariable("name") final String name,
+            final HttpSession session) {
+        checkArgument(session != null, Constants.SESSION_NULL_ERROR_MESSAGE);
+        if (!isAdmin(session)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        final Object metrics = metricsRegistry.getMetrics(name);
+        if (metrics == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(metrics, HttpStatus.OK);
+    }
+
+    private boolean isAdmin(final HttpSession session) {
+        if (!status.isLoggedIn()) {
+            return false;
+        }
+        final UserProfileDetails user = (UserProfileDetails) session.getAttribute(USER_DETAILS);
+        return user != null && userManager.isAdminUser(user.getUserId());
+    }
+}
@@ -33,11 +33,13 @@ import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.cerner.devcenter.education.admin.ManagerException;
+import com.cerner.devcenter.education.engagement.ResourceEngagementTracker;
 import com.cerner.devcenter.education.exceptions.CategoryIdNotFoundException;
 import com.cerner.devcenter.education.exceptions.DuplicateResourceTypeFoundException;
 import com.cerner.devcenter.education.exceptions.ResourceIdNotFoundException;
+import com.cerner.devcenter.education.helpers.FuzzyRanker;
 import com.cerner.devcenter.education.helpers.HttpURLValidator;
-import com.cerner.devcenter.education.helpers.ResourceNameSorter;
+import com.cerner.devcenter.education.helpers.RoundToHigherIntHelper;
 import com.cerner.devcenter.education.managers.CategoryManager;
 import com.cerner.devcenter.education.managers.EmailManager;
 import com.cerner.devcenter.education.managers.ResourceCategoryRelationManager;
@@ -46,13 +48,19 @@ import com.cerner.devcenter.education.managers.ResourceRequestManager;
 import com.cerner.devcenter.education.managers.ResourceTypeManager;
 import com.cerner.devcenter.education.managers.TagManager;
 import com.cerner.devcenter.education.managers.UserManager;
+import com.cerner.devcenter.education.models.BulkResourceRequestAction;
+import com.cerner.devcenter.education.models.BulkResourceRequestResult;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.CategoryResourceForm;
+import com.cerner.devcenter.education.models.KeysetPage;
+import com.cerner.devcenter.education.models.RelatedResource;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
 import com.cerner.devcenter.education.models.ResourceRequest;
 import com.cerner.devcenter.education.models.ResourceStatus;
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.search.ResourceFacetQuery;
+import com.cerner.devcenter.education.search.ResourceFacets;
 import com.cerner.devcenter.education.user.UserProfileDetails;
 import com.cerner.devcenter.education.utils.AuthenticationStatusUtil;
 import com.cerner.devcenter.education.utils.Constants;
@@ -88,6 +96,13 @@ public class ResourcesController {
     private static final String REDIRECT_LOGIN = "redirect:/login";
     private static final String PAGE_NUMBER = "pagenumber";
     private static final String PAGE_COUNT = "pagecount";
+    private static final String AFTER = "after";
+    private static final String NEXT_AFTER = "nextafter";
+    private static final String LIMIT = "limit";
+    private static final String TOTAL = "total";
+    private static final String DEFAULT_PAGE_SIZE = "20";
+    private static final String DEFAULT_RELATED_RESOURCES = "5";
+    private static final int MAXIMUM_RELATED_RESOURCES = 20;
 
     private static final String RESOURCES_PER_PAGE = "resourcesperpage";
     private static final String ERROR_MESSAGE = "errorMessage";
@@ -104,6 +119,7 @@ public class ResourcesController {
     private static final String FORWARD_TO_MANAGE_REQUESTS = "forward:show_requests";
     private static final String SESSION_NULL_ERROR = "session cannot be null";
     private static final String RESOURCE_REQUEST_IDS_ERROR = "resourceRequestIds cannot be null/empty";
+    private static final String BULK_ACTION_NULL_ERROR = "bulkAction cannot be null";
     private static final String USER_NULL_ERROR_MESSAGE = "user cannot be null";
     private static final String RESOURCE_NULL_ERROR_MESSAGE = "resource cannot be null";
     private static final String RESOURCE_CATEGORY_RELATION = "resourceCategoryRelation";
@@ -129,6 +145,9 @@ public class ResourcesController {
     private static final String INVALID_RESOURCE_NAME_ERROR_MESSAGE = "Resource Name cannot be null/empty/blank";
     private static final String INVALID_RESOURCE_LINK_ERROR_MESSAGE = "Resource Link cannot be empty/blank";
     private static final String INVALID_RESOURCE_TYPE_ERROR_MESSAGE = "Resource Type cannot be null/empty/blank";
+    private static final String INVALID_RELATED_RESOURCES_LIMIT_ERROR_MESSAGE = "Number of related resources must be between 1 and %s";
+    private static final String RELATED_RESOURCES_ERROR = "Error retrieving the resources related to resource {}";
+    private static final String RESOURCE_FACETS_ERROR = "Error filtering the resources by {}";
     private static final String EDIT_ERROR = "Error Editing Resource";
     private static final String ERROR_PAGE = "error";
 
@@ -154,6 +173,8 @@ public class ResourcesController {
     private UserManager userManager;
     @Autowired
     private EmailManager emailManager;
+    @Autowired
+    private ResourceEngagementTracker engagementTracker;
 
     ResourcesController() {
         this(AuthenticationStatusUtil.getInstance());
@@ -306,6 +327,7 @@ public class ResourcesController {
     public ResponseEntity<List<Resource>> findResources(@PathVariable("id") final Integer id) throws ManagerException {
         checkArgument(id > 0, INVALID_CATEGORY_ID);
         final List<Resource> resources = resourceManager.getResourcesByCategoryId(id);
+        engagementTracker.resourcesViewed(resources);
         return new ResponseEntity<>(resources, HttpStatus.OK);
     }
 
@@ -412,11 +434,11 @@ public class ResourcesController {
      * /** Handles the request to auto-complete the search.
      *
      * <p>
-     * Gets the list of resources which contains the search string as a part of
-     * their name or description, sorts the list based on their nearness to the
-     * search string and returns the top ten resource if the count of resources
-     * is more than ten, returns the whole list after sorting if they are less
-     * then ten.
+     * Gets the closest resources whose name, or a word in their name, starts
+     * with the search string from the in-memory autocomplete index, sorts them
+     * based on their nearness to the search string, the most clicked first
+     * among equally near ones, and returns at most ten of them. Each returned
+     * resource is counted as viewed.
      * </p>
      *
      * @param search
@@ -432,12 +454,11 @@ public class ResourcesController {
     public @ResponseBody List<Resource> autocomplete(@RequestParam(SEARCH) final String search)
             throws MalformedURLException {
         checkArgument(StringUtils.isNotEmpty(search), SEARCH_NOT_NULL);
-        final List<Resource> resources = resourceManager.getSearchedResources(search.toLowerCase());
-        Collections.sort(resources, new ResourceNameSorter(search));
-        if (resources.size() > Constants.AUTOFILL_SIZE) {
-            return resources.subList(0, Constants.AUTOFILL_SIZE);
-        }
-        return resources;
+        final List<Resource> suggestions = FuzzyRanker
+                .forResources(search, engagementTracker.getPopularityOrder())
+                .top(resourceManager.getAutocompleteSuggestions(search), Constants.AUTOFILL_SIZE);
+        engagementTracker.resourcesViewed(suggestions);
+        return suggestions;
     }
 
     /**
@@ -448,18 +469,28 @@ public class ResourcesController {
      *            category id and resource type id in order to filter the
      *            results. If resource type id is 0 then user has selected all
      *            types (the option "any").
+     * @param pageNumber
+     *            the number of the page to show, 1 when not given.
+     * @param resourcesPerPage
+     *            the number of resources on a page, 5 when not given.
+     * @param after
+     *            the resource id of the last resource on the previous page when
+     *            moving to the next page. The page is then read by seeking past
+     *            that id instead of skipping pageNumber - 1 pages, so deep pages
+     *            are as fast as the first one. Can be <code>null</code>.
      * @return Returns the Spring {@link ModelAndView} object with the view name
      *         of the JSP page that is to be loaded.
      * @throws IllegalArgumentException
      *             when {@link CategoryResourceForm} is <code>null</code> or
      *             category id is less than or equal to 0 or resource type id is
-     *             less than 0.
+     *             less than 0, or after is negative.
      */
     @RequestMapping(value = "/Resources", method = { RequestMethod.GET })
     public ModelAndView showResources(
             @ModelAttribute(CATEGORY_RESOURCE_FORM) final CategoryResourceForm categoryResourceForm,
             @RequestParam(value = PAGE_NUMBER, required = false) Integer pageNumber,
-            @RequestParam(value = RESOURCES_PER_PAGE) Integer resourcesPerPage) {
+            @RequestParam(value = RESOURCES_PER_PAGE) Integer resourcesPerPage,
+            @RequestParam(value = AFTER, required = false) final Integer after) {
         int pageCount;
         if (!authenticationStatus.isLoggedIn()) {
             return redirectsNotLoggedIn();
@@ -481,19 +512,33 @@ public class ResourcesController {
         List<ResourceCategoryRelation> resourcesRelationAvailable = Collections.emptyList();
         final int userSelectedResourceTypeId = categoryResourceForm.getSelectedResourceTypeID();
         final int userSelectedCategoryId = categoryResourceForm.getSelectedCategoryID();
-        pageCount = resourceManager.getPageCountForResourcesByCategoryId(categoryResourceForm.getSelectedCategoryID(),
-                resourcesPerPage);
-        if (userSelectedResourceTypeId == 0) {
-            resourcesRelationAvailable = resourceCategoryRelationManager
-                    .getResourcesAndDifficultyLevelByCategoryIdWithPagination(userSelectedCategoryId, resourcesPerPage,
-                            pageNumber);
-            modelView.addObject(RESOURCE_WITH_DIFFICULTY, resourcesRelationAvailable);
+        Integer nextAfter = null;
+        if (after != null) {
+            checkArgument(after >= 0, "Resource ID to read after cannot be negative");
+            final KeysetPage<ResourceCategoryRelation> page = resourceCategoryRelationManager
+                    .getResourcesByCategoryIdAfter(userSelectedCategoryId, userSelectedResourceTypeId, after,
+                            resourcesPerPage);
+            resourcesRelationAvailable = page.getItems();
+            nextAfter = page.getNextAfter();
+            pageCount = RoundToHigherIntHelper.roundToHigherInt(page.getApproximateTotal(), resourcesPerPage);
         } else {
-            resourcesRelationAvailable = resourceCategoryRelationManager
-                    .getResourcesByCategoryIdAndTypeIdWithPagination(userSelectedCategoryId, userSelectedResourceTypeId,
-                            resourcesPerPage, pageNumber);
-            modelView.addObject(RESOURCE_WITH_DIFFICULTY, resourcesRelationAvailable);
+            pageCount = RoundToHigherIntHelper.roundToHigherInt(resourceCategoryRelationManager
+                    .getApproximateResourceCount(userSelectedCategoryId, userSelectedResourceTypeId), resourcesPerPage);
+            if (userSelectedResourceTypeId == 0) {
+                resourcesRelationAvailable = resourceCategoryRelationManager
+                        .getResourcesAndDifficultyLevelByCategoryIdWithPagination(userSelectedCategoryId,
+                                resourcesPerPage, pageNumber);
+            } else {
+                resourcesRelationAvailable = resourceCategoryRelationManager
+                        .getResourcesByCategoryIdAndTypeIdWithPagination(userSelectedCategoryId,
+                                userSelectedResourceTypeId, resourcesPerPage, pageNumber);
+            }
+            if (resourcesRelationAvailable.size() == resourcesPerPage) {
+                nextAfter = resourcesRelationAvailable.get(resourcesPerPage - 1).getResourceId();
+            }
         }
+        modelView.addObject(RESOURCE_WITH_DIFFICULTY, resourcesRelationAvailable);
+        modelView.addObject(NEXT_AFTER, nextAfter);
         if (resourcesRelationAvailable.isEmpty()) {
             modelView.addObject(ERROR_MESSAGE,
                     i18nBundle.getString("com.cerner.devcenter.education.controllers.errorNoResource"));
@@ -520,6 +565,53 @@ public class ResourcesController {
         return resourceManager.retrieveResourceDescriptionById(resourceId);
     }
 
+    /**
+     * Retrieves the resources most often completed by the learners who
+     * completed the resource passed in ("learners who completed this also
+     * completed").
+     *
+     * @param resourceId
+     *            a unique id used to find a specific {@link Resource} (must be
+     *            positive).
+     * @param limit
+     *            the maximum number of related resources, between 1 and
+     *            {@value #MAXIMUM_RELATED_RESOURCES}.
+     * @return the related resources, most related first. Empty when they
+     *         cannot be retrieved.
+     */
+    @RequestMapping(value = "/resource/related", method = RequestMethod.GET)
+    public @ResponseBody List<RelatedResource> getRelatedResources(
+            @RequestParam("id") final int resourceId,
+            @RequestParam(value = LIMIT, defaultValue = DEFAULT_RELATED_RESOURCES) final int limit) {
+        checkArgument(resourceId > 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        checkArgument(limit > 0 && limit <= MAXIMUM_RELATED_RESOURCES, INVALID_RELATED_RESOURCES_LIMIT_ERROR_MESSAGE,
+                MAXIMUM_RELATED_RESOURCES);
+        try {
+            return resourceManager.getRelatedResources(resourceId, limit);
+        } catch (final ManagerException managerException) {
+            LOGGER.error(RELATED_RESOURCES_ERROR, resourceId, managerException);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Counts a click on the link of a resource shown by the autocomplete, a
+     * category listing or the recommendations. The click is only counted in
+     * memory, so the request does not wait on the database.
+     *
+     * @param resourceId
+     *            a unique id used to find a specific {@link Resource} (must be
+     *            positive).
+     * @return a {@link ResponseEntity} with an empty body and status
+     *         NO_CONTENT.
+     */
+    @RequestMapping(value = "/resource/click", method = RequestMethod.POST)
+    public @ResponseBody ResponseEntity<Void> resourceClicked(@RequestParam("id") final int resourceId) {
+        checkArgument(resourceId > 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        engagementTracker.resourceClicked(resourceId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     /**
      * Redirects to the login page when admin is not logged in.
      *
@@ -637,6 +729,150 @@ public class ResourcesController {
         return modelAndView;
     }
 
+    /**
+     * Returns a page of every resource with its categories and average rating
+     * for the admin listing, read by seeking past the last resource id of the
+     * previous page.
+     *
+     * @param after
+     *            the resource id of the last resource on the previous page, 0
+     *            for the first page. Cannot be negative.
+     * @param limit
+     *            the number of resources on the page. Must be between 1 and
+     *            {@link Constants#MAX_PAGE_SIZE}.
+     * @return a {@link ResponseEntity} holding the {@link KeysetPage} with
+     *         status OK, or an empty body with status FORBIDDEN when the admin
+     *         is not logged in.
+     * @throws IllegalArgumentException
+     *             when after or limit is out of range.
+     */
+    @RequestMapping(value = "/manage_resources/page", method = RequestMethod.GET, produces = "application/json")
+    public @ResponseBody ResponseEntity<KeysetPage<ResourceCategoryRelation>> getResourcesPage(
+            @RequestParam(value = AFTER, defaultValue = "0") final int after,
+            @RequestParam(value = LIMIT, defaultValue = DEFAULT_PAGE_SIZE) final int limit) {
+        if (!authenticationStatus.isLoggedIn()) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return new ResponseEntity<>(resourceCategoryRelationManager.getResourcesForAllCategoriesAfter(after, limit),
+                HttpStatus.OK);
+    }
+
+    /**
+     * Filters the resources by any combination of categories, difficulty
+     * levels, resource types, tags and statuses, and counts the resources for
+     * every value of every dimension, in one call answered from memory. Values
+     * of one dimension are alternatives; dimensions are all required. A
+     * dimension with no value given is not filtered.
+     *
+     * @param categoryIds
+     *            the ids of the categories to match, optional.
+     * @param difficultyLevels
+     *            the difficulty levels to match in those categories, optional.
+     * @param resourceTypeIds
+     *            the ids of the resource types to match, optional.
+     * @param tagIds
+     *            the ids of the tags to match, optional.
+     * @param statuses
+     *            the {@link ResourceStatus statuses} to match, optional.
+     * @param after
+     *            the resource id of the last resource on the previous page, 0
+     *            for the first page. Cannot be negative.
+     * @param limit
+     *            the number of resource ids on the page, 0 to only count. Must
+     *            be between 0 and {@link Constants#MAX_PAGE_SIZE}.
+     * @return a {@link ResponseEntity} holding the {@link ResourceFacets} with
+     *         status OK, or an empty body with status SERVICE_UNAVAILABLE when
+     *         the facet index has not been built yet.
+     * @throws IllegalArgumentException
+     *             when after or limit is out of range.
+     */
+    @RequestMapping(value = "/resources/facets", method = RequestMethod.GET, produces = "application/json")
+    public @ResponseBody ResponseEntity<ResourceFacets> getResourceFacets(
+            @RequestParam(value = "categoryId", required = false) final List<Integer> categoryIds,
+            @RequestParam(value = "difficultyLevel", required = false) final List<Integer> difficultyLevels,
+            @RequestParam(value = "resourceTypeId", required = false) final List<Integer> resourceTypeIds,
+            @RequestParam(value = "tagId", required = false) final List<Integer> tagIds,
+            @RequestParam(value = "status", required = false) final List<ResourceStatus> statuses,
+            @RequestParam(value = AFTER, defaultValue = "0") final int after,
+            @RequestParam(value = LIMIT, defaultValue = DEFAULT_PAGE_SIZE) final int limit) {
+        final ResourceFacetQuery query = new ResourceFacetQuery(categoryIds, difficultyLevels, resourceTypeIds,
+                tagIds, statuses);
+        try {
+            return new ResponseEntity<>(resourceCategoryRelationManager.getResourceFacets(query, after, limit),
+                    HttpStatus.OK);
+        } catch (final ManagerException managerException) {
+            LOGGER.error(RESOURCE_FACETS_ERROR, query, managerException);
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Returns a page of the resource requests for the admin listing, read by
+     * seeking past the last request id of the previous page.
+     *
+     * @param after
+     *            the id of the last request on the previous page, 0 for the
+     *            first page. Cannot be negative.
+     * @param limit
+     *            the number of requests on the page. Must be between 1 and
+     *            {@link Constants#MAX_PAGE_SIZE}.
+     * @param total
+     *            <code>true</code> to include the approximate number of
+     *            requests.
+     * @return a {@link ResponseEntity} holding the {@link KeysetPage} with
+     *         status OK, or an empty body with status FORBIDDEN when the admin
+     *         is not logged in.
+     * @throws IllegalArgumentException
+     *             when after or limit is out of range.
+     */
+    @RequestMapping(value = "/show_requests/page", method = RequestMethod.GET, produces = "application/json")
+    public @ResponseBody ResponseEntity<KeysetPage<ResourceRequest>> getRequestsPage(
+            @RequestParam(value = AFTER, defaultValue = "0") final int after,
+            @RequestParam(value = LIMIT, defaultValue = DEFAULT_PAGE_SIZE) final int limit,
+            @RequestParam(value = TOTAL, defaultValue = "false") final boolean total) {
+        if (!authenticationStatus.isLoggedIn()) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return new ResponseEntity<>(resourceRequestManager.getResourceRequestsAfter(after, limit, total),
+                HttpStatus.OK);
+    }
+
+    /**
+     * Approves or rejects many resource requests at once for the admin
+     * listing. Rejected requests are deleted.
+     *
+     * @param bulkAction
+     *            the {@link BulkResourceRequestAction} holding the action and
+     *            the ids of the requests, at most
+     *            {@link Constants#MAX_BULK_REQUEST_IDS}. Cannot be null.
+     * @param session
+     *            {@link HttpSession} that contains objects related to current
+     *            session (can't be <code>null</code>)
+     * @return a {@link ResponseEntity} holding the
+     *         {@link BulkResourceRequestResult} with status OK, or an empty
+     *         body with status FORBIDDEN when the current user is not logged
+     *         in or is not an admin.
+     * @throws IllegalArgumentException
+     *             when session is null, or bulkAction is null or its action or
+     *             ids are missing or out of range.
+     */
+    @RequestMapping(value = "/requests/bulk", method = RequestMethod.POST, consumes = "application/json", produces = "application/json")
+    public @ResponseBody ResponseEntity<BulkResourceRequestResult> updateRequestsInBulk(
+            @RequestBody final BulkResourceRequestAction bulkAction,
+            final HttpSession session) {
+        checkArgument(session != null, SESSION_NULL_ERROR);
+        if (!authenticationStatus.isLoggedIn()) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        final UserProfileDetails user = (UserProfileDetails) session.getAttribute(USER_DETAILS);
+        if (user == null || !userManager.isAdminUser(user.getUserId())) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        checkArgument(bulkAction != null, BULK_ACTION_NULL_ERROR);
+        return new ResponseEntity<>(resourceRequestManager.updateResourceRequestsInBulk(bulkAction.getAction(),
+                bulkAction.getRequestIds()), HttpStatus.OK);
+    }
+
     /**
      * Handles a batch delete on {@link ResourceRequest} with passed in batch of
      * requestIds.
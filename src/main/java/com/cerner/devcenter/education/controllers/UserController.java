@@ -106,6 +106,8 @@ public class UserController {
     private AuthenticationStatusUtil status;
     @Autowired
     private UserManager userManager;
+    @Autowired
+    private UserDetails userDetails;
 
     /**
      * Loads the page where an Admin can add/remove users if the user is admin,
@@ -184,7 +186,7 @@ public class UserController {
             LOGGER.error(USER_ALREADY_EXISTS);
             modelView.addObject(MESSAGE, i18nBundle.getString(USER_EXISTS_ERROR));
         } else {
-            boolean userWasAdded = userManager.addUser(new User(userID, level), new UserDetails());
+            boolean userWasAdded = userManager.addUser(new User(userID, level), userDetails);
             if (userWasAdded) {
                 modelView.addObject(MESSAGE, i18nBundle.getString(USER_ADDED_SUCCESSFULLY));
             } else {
@@ -346,7 +348,7 @@ public class UserController {
             userManager.changeAuthorizationLevelBasedOnUserId(userId, AuthorizationLevel.ADMIN.getLevel());
             return showManageAdminsPage(session).addObject(MESSAGE, i18nBundle.getString(ADMIN_ADDED_SUCCESS));
         } else {
-            boolean userWasAdded = userManager.addUser(new User(userId, AuthorizationLevel.ADMIN), new UserDetails());
+            boolean userWasAdded = userManager.addUser(new User(userId, AuthorizationLevel.ADMIN), userDetails);
             if (userWasAdded) {
                 LOGGER.info(MessageFormat.format(NEW_ADMIN_LOG_MESSAGE, userId));
                 return showManageAdminsPage(session).addObject(MESSAGE, i18nBundle.getString(ADMIN_ADDED_SUCCESS));
@@ -1,6 +1,7 @@
 package com.cerner.devcenter.education.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.models.Category;
@@ -20,7 +21,9 @@ import com.cerner.devcenter.education.utils.CompletionRating;
 public interface CompletedUserResourceDAO {
     /**
      * Performs a query to add user id, resource id and completed rating to the
-     * completed_user_resource table in the database.
+     * completed_user_resource table in the database. The same statement adds
+     * the rating to the count and sum of the resource in the
+     * resource_rating_summary table, so both change together.
      *
      * @param userId
      *            is the id of the user. Must not be
@@ -136,4 +139,32 @@ public interface CompletedUserResourceDAO {
      *
      */
     String getCategoryNameWithMostCompletedResourcesByUser(String userId) throws DAOException;
-}
\ No newline at end of file
+
+    /**
+     * Reads the ids of the resources most recently completed by each of the
+     * next users in user id order, one row per user, so every completion can
+     * be read page by page with a bounded amount of memory.
+     *
+     * @param afterUserId
+     *            the last user id of the previous page; only users with a
+     *            greater id are read. The empty string reads the first page.
+     *            Cannot be <code>null</code>.
+     * @param numberOfUsers
+     *            the maximum number of users to read. Must be greater than 0.
+     * @param numberOfResourcesPerUser
+     *            the maximum number of resource ids to read per user, most
+     *            recently completed first. Must be greater than 0.
+     * @return a {@link Map} from user id, in ascending order, to the distinct
+     *         ids of the resources completed by that user, most recently
+     *         completed first. Empty when there are no more users.
+     * @throws DAOException
+     *             when there is an error reading the completed resources
+     * @throws IllegalArgumentException
+     *             when afterUserId is <code>null</code> or numberOfUsers or
+     *             numberOfResourcesPerUser is not greater than 0
+     */
+    Map<String, int[]> getRecentlyCompletedResourceIdsByUserAfter(
+            String afterUserId,
+            int numberOfUsers,
+            int numberOfResourcesPerUser) throws DAOException;
+}
@@ -6,14 +6,18 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
@@ -21,6 +25,7 @@ import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.models.CompletedResource;
 import com.cerner.devcenter.education.models.CompletedUserResource;
 import com.cerner.devcenter.education.utils.CompletionRating;
+import com.google.common.primitives.Ints;
 
 /**
  * Responsible for performing database operations for
@@ -36,7 +41,12 @@ import com.cerner.devcenter.education.utils.CompletionRating;
 @Repository("completedUserResourceDAO")
 public class CompletedUserResourceDAOImpl implements CompletedUserResourceDAO {
 
-    private static final String ADD_USER_RESOURCE_COMPLETION_RATING = "INSERT INTO completed_user_resource (user_id, resource_id, completion_rating, completion_date) VALUES (?,?,?,?)";
+    private static final String ADD_USER_RESOURCE_COMPLETION_RATING = "WITH completed AS (INSERT INTO completed_user_resource (user_id, resource_id, completion_rating, completion_date) VALUES (?,?,?,?) "
+            + "RETURNING resource_id, completion_rating) "
+            + "INSERT INTO resource_rating_summary (resource_id, rating_count, rating_sum) "
+            + "SELECT resource_id, 1, completion_rating FROM completed "
+            + "ON CONFLICT (resource_id) DO UPDATE SET rating_count = resource_rating_summary.rating_count + EXCLUDED.rating_count, "
+            + "rating_sum = resource_rating_summary.rating_sum + EXCLUDED.rating_sum";
     private static final String GET_USER_COMPLETED_RESOURCE = "SELECT c.user_id, r.resource_id, r.name, r.link, c.completion_rating, c.completion_date "
             + "FROM completed_user_resource c "
             + "INNER JOIN resource r ON r.resource_id = c.resource_id WHERE c.user_id = ? ORDER BY c.completion_date DESC";
@@ -49,6 +59,9 @@ public class CompletedUserResourceDAOImpl implements CompletedUserResourceDAO {
             + "INNER JOIN category_resource_reltn crt ON cr.resource_id = crt.resource_id "
             + "INNER JOIN category ct on ct.id = crt.category_id WHERE user_id = ? GROUP BY ct.name, ct.id "
             + "ORDER BY COUNT(ct.name) DESC LIMIT 1";
+    private static final String GET_RECENTLY_COMPLETED_RESOURCE_IDS_BY_USER_AFTER_QUERY = "SELECT user_id, "
+            + "(array_agg(resource_id ORDER BY completion_date DESC, resource_id))[1:?] AS resource_ids "
+            + "FROM completed_user_resource WHERE user_id > ? GROUP BY user_id ORDER BY user_id LIMIT ?";
 
     private static final String USER_ID = "user_Id";
     private static final String RESOURCE_ID = "resource_id";
@@ -56,6 +69,7 @@ public class CompletedUserResourceDAOImpl implements CompletedUserResourceDAO {
     private static final String LINK = "link";
     private static final String COMPLETION_RATING = "completion_rating";
     private static final String COMPLETION_DATE = "completion_date";
+    private static final String RESOURCE_IDS = "resource_ids";
 
     private static final String EMPTY_STRING = "";
 
@@ -64,6 +78,9 @@ public class CompletedUserResourceDAOImpl implements CompletedUserResourceDAO {
     private static final String RESOURCE_ID_ILLEGAL_ARGUMENT_MESSAGE = "Resource ID must be greater than zero.";
     private static final String COMPLETION_RATING_ILLEGAL_ARGUMENT_MESSAGE = "Completion Rating is invalid";
     private static final String INVALID_NUMBER_OF_REQUIRED_COMPLETED_RESOURCES_ERROR_MESSAGE = "Number of required completed resources to display must be greater than 0";
+    private static final String AFTER_USER_ID_NULL_ERROR_MESSAGE = "User ID to read after cannot be null";
+    private static final String INVALID_NUMBER_OF_USERS_ERROR_MESSAGE = "Number of users must be greater than 0";
+    private static final String INVALID_NUMBER_OF_RESOURCES_PER_USER_ERROR_MESSAGE = "Number of resources per user must be greater than 0";
 
     private static final String ERROR_QUERING_EXCEPTION = "Error querying completed resources for user: %s with the exception: %s";
     private static final String ERROR_ADDING_COMPLETION_EXCEPTION = "Error adding completion rating for the resource: %d and user: %s  with the exception: %s";
@@ -73,6 +90,7 @@ public class CompletedUserResourceDAOImpl implements CompletedUserResourceDAO {
     private static final String ERROR_INVALID_URL = "Error: Invalid URL in database; table 'resource' for row with resource id: ";
     private static final String ERROR_GETTING_COUNT_OF_COMPLETED_RESOURCES_ERROR_MESSAGE = "Unable to get count of completed resources for the user: %s";
     private static final String ERROR_GETTING_CATEGORY_WITH_MOST_COMPLETED_RESOURCES_ERROR_MESSAGE = "Unable to retrieve name of category with the most number of completed resources for the user: %s";
+    private static final String ERROR_GETTING_COMPLETED_RESOURCE_IDS_ERROR_MESSAGE = "Unable to read the completed resources of the users after: %s";
 
     private static final Logger LOGGER = Logger.getLogger(CompletedUserResourceDAOImpl.class);
     private static final CompletedResourceRowMapper ROWMAPPER = new CompletedResourceRowMapper();
@@ -175,6 +193,31 @@ public class CompletedUserResourceDAOImpl implements CompletedUserResourceDAO {
         }
     }
 
+    @Override
+    public Map<String, int[]> getRecentlyCompletedResourceIdsByUserAfter(
+            final String afterUserId,
+            final int numberOfUsers,
+            final int numberOfResourcesPerUser) throws DAOException {
+        checkArgument(afterUserId != null, AFTER_USER_ID_NULL_ERROR_MESSAGE);
+        checkArgument(numberOfUsers > 0, INVALID_NUMBER_OF_USERS_ERROR_MESSAGE);
+        checkArgument(numberOfResourcesPerUser > 0, INVALID_NUMBER_OF_RESOURCES_PER_USER_ERROR_MESSAGE);
+        final Map<String, int[]> resourceIdsByUser = new LinkedHashMap<>();
+        try {
+            jdbcTemplate.query(GET_RECENTLY_COMPLETED_RESOURCE_IDS_BY_USER_AFTER_QUERY, new RowCallbackHandler() {
+                @Override
+                public void processRow(final ResultSet row) throws SQLException {
+                    final Integer[] resourceIds = (Integer[]) row.getArray(RESOURCE_IDS).getArray();
+                    resourceIdsByUser.put(row.getString(USER_ID), Ints.toArray(Arrays.asList(resourceIds)));
+                }
+            }, numberOfResourcesPerUser, afterUserId, numberOfUsers);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(
+                    String.format(ERROR_GETTING_COMPLETED_RESOURCE_IDS_ERROR_MESSAGE, afterUserId),
+                    dataAccessException);
+        }
+        return resourceIdsByUser;
+    }
+
     /**
      * Custom {@link RowMapper} class to map a {@link ResultSet} to a new
      * {@link CompletedResource} object.
@@ -0,0 +1,56 @@
+package com.cerner.devcenter.education.dao;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.models.RecommendableResource;
+
+/**
+ * This interface is responsible for reading everything the in-memory
+ * recommendation engine holds: the available resources of every category with
+ * their difficulty levels and rating summaries, and the resources each user
+ * has completed.
+ */
+public interface RecommendationCatalogDAO {
+
+    /**
+     * Reads one {@link RecommendableResource} per category resource relation
+     * of every available resource, with a difficulty level between 1 and 5.
+     *
+     * @return a {@link List} of {@link RecommendableResource}, in no
+     *         particular order. Empty when there are no such resources.
+     * @throws DAOException
+     *             when there is an error while reading the catalog
+     */
+    List<RecommendableResource> getRecommendableResources() throws DAOException;
+
+    /**
+     * Reads the ids of the resources completed by every user.
+     *
+     * @return a {@link Map} from user id to a {@link BitSet} in which the bit
+     *         of each completed resource id is set. Users who have not
+     *         completed any resource are not in the map.
+     * @throws DAOException
+     *             when there is an error while reading the completed resources
+     */
+    Map<String, BitSet> getCompletedResourceIdsByUser() throws DAOException;
+
+    /**
+     * Reads the ids of the resources completed by every user on or after a
+     * completion date, so completions can be caught up with without reading
+     * all of them.
+     *
+     * @param completionDate
+     *            the earliest completion date read, in seconds since the
+     *            epoch.
+     * @return a {@link Map} from user id to a {@link BitSet} in which the bit
+     *         of each resource id completed on or after the completion date is
+     *         set. Users who have not completed any resource since then are
+     *         not in the map.
+     * @throws DAOException
+     *             when there is an error while reading the completed resources
+     */
+    Map<String, BitSet> getCompletedResourceIdsByUserSince(long completionDate) throws DAOException;
+}
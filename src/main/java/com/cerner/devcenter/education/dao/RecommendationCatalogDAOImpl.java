@@ -0,0 +1,146 @@
+package com.cerner.devcenter.education.dao;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.RecommendableResource;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceStatus;
+
+/**
+ * Reads the catalog and the completed resources the in-memory recommendation
+ * engine is built from, each with a single query. New completions can be read
+ * on their own by completion date, which is indexed.
+ */
+@Repository("recommendationCatalogDAO")
+public class RecommendationCatalogDAOImpl implements RecommendationCatalogDAO {
+
+    // @formatter:off
+    private static final String GET_RECOMMENDABLE_RESOURCES_QUERY = "SELECT r.resource_id, r.name AS resource_name, "
+            + "r.description AS resource_description, r.link, ct.id, ct.name AS category_name, "
+            + "ct.description AS category_description, crt.difficulty_level, "
+            + "COALESCE(rs.rating_count, 0) AS rating_count, COALESCE(rs.rating_sum, 0) AS rating_sum, "
+            + "COALESCE(re.click_count, 0) AS click_count FROM resource r "
+            + "INNER JOIN category_resource_reltn crt ON r.resource_id = crt.resource_id "
+            + "INNER JOIN category ct ON crt.category_id = ct.id "
+            + "LEFT JOIN resource_rating_summary rs ON r.resource_id = rs.resource_id "
+            + "LEFT JOIN resource_engagement re ON r.resource_id = re.resource_id "
+            + "WHERE r.status = '" + ResourceStatus.Available.toString() + "' AND crt.difficulty_level BETWEEN 1 AND 5";
+    private static final String GET_COMPLETED_RESOURCE_IDS_QUERY = "SELECT user_id, resource_id FROM completed_user_resource";
+    private static final String GET_COMPLETED_RESOURCE_IDS_SINCE_QUERY = "SELECT user_id, resource_id "
+            + "FROM completed_user_resource WHERE completion_date >= ?";
+    // @formatter:on
+
+    private static final String ERROR_READING_RECOMMENDABLE_RESOURCES = "Error: unable to read the recommendable resources.";
+    private static final String ERROR_READING_COMPLETED_RESOURCES = "Error: unable to read the completed resources of the users.";
+
+    private static final RecommendableResourceRowMapper rowMapper = new RecommendableResourceRowMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<RecommendableResource> getRecommendableResources() throws DAOException {
+        try {
+            return jdbcTemplate.query(GET_RECOMMENDABLE_RESOURCES_QUERY, rowMapper);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_READING_RECOMMENDABLE_RESOURCES, dataAccessException);
+        }
+    }
+
+    @Override
+    public Map<String, BitSet> getCompletedResourceIdsByUser() throws DAOException {
+        final CompletedResourceIdsHandler handler = new CompletedResourceIdsHandler();
+        try {
+            jdbcTemplate.query(GET_COMPLETED_RESOURCE_IDS_QUERY, handler);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_READING_COMPLETED_RESOURCES, dataAccessException);
+        }
+        return handler.completedResourceIdsByUser;
+    }
+
+    @Override
+    public Map<String, BitSet> getCompletedResourceIdsByUserSince(final long completionDate) throws DAOException {
+        final CompletedResourceIdsHandler handler = new CompletedResourceIdsHandler();
+        try {
+            jdbcTemplate.query(GET_COMPLETED_RESOURCE_IDS_SINCE_QUERY, handler, completionDate);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_READING_COMPLETED_RESOURCES, dataAccessException);
+        }
+        return handler.completedResourceIdsByUser;
+    }
+
+    /**
+     * Groups completed resource rows into one {@link BitSet} of resource ids
+     * per user.
+     */
+    private static class CompletedResourceIdsHandler implements RowCallbackHandler {
+        private final Map<String, BitSet> completedResourceIdsByUser = new HashMap<>();
+
+        @Override
+        public void processRow(final ResultSet resultSet) throws SQLException {
+            final String userId = resultSet.getString("user_id");
+            BitSet completedResourceIds = completedResourceIdsByUser.get(userId);
+            if (completedResourceIds == null) {
+                completedResourceIds = new BitSet();
+                completedResourceIdsByUser.put(userId, completedResourceIds);
+            }
+            completedResourceIds.set(resultSet.getInt("resource_id"));
+        }
+    }
+
+    /**
+     * Custom {@link RowMapper} class to map a {@link ResultSet} to a new
+     * {@link RecommendableResource} object.
+     */
+    static class RecommendableResourceRowMapper implements RowMapper<RecommendableResource> {
+        /**
+         * @see org.springframework.jdbc.core.RowMapper#mapRow(ResultSet, int)
+         *
+         * @throws SQLException
+         *             when link from the database is invalid and throws
+         *             {@link MalformedURLException}
+         */
+        @Override
+        public RecommendableResource mapRow(final ResultSet row, final int rowNum) throws SQLException {
+            try {
+                final Resource resource = new Resource(
+                        row.getInt("resource_id"),
+                        new URL(row.getString("link")),
+                        row.getString("resource_description"),
+                        row.getString("resource_name"));
+                final Category category = new Category(
+                        row.getInt("id"),
+                        row.getString("category_name"),
+                        row.getString("category_description"));
+                return new RecommendableResource(
+                        resource,
+                        category,
+                        row.getInt("difficulty_level"),
+                        row.getInt("rating_count"),
+                        row.getLong("rating_sum"),
+                        row.getLong("click_count"));
+            } catch (final MalformedURLException malformedURLException) {
+                throw new SQLException(
+                        "Error: Invalid URL in database; table 'resource' for row with resource id: "
+                                + row.getInt("resource_id"),
+                        malformedURLException);
+            }
+        }
+    }
+}
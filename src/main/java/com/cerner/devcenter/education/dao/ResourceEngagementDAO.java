@@ -0,0 +1,44 @@
+package com.cerner.devcenter.education.dao;
+
+import java.util.Map;
+
+import com.cerner.devcenter.education.admin.DAOException;
+
+/**
+ * This interface is responsible for the view and click counts of the resources
+ * kept in the resource_engagement table.
+ */
+public interface ResourceEngagementDAO {
+
+    /**
+     * Adds view and click counts to the counts of the resources in one
+     * statement, creating the rows of the resources that have none. The rows
+     * are locked in resource id order, so concurrent calls from several nodes
+     * cannot deadlock. Counts of resources that no longer exist are skipped.
+     *
+     * @param resourceIds
+     *            the ids of the resources, without duplicates. Cannot be null.
+     * @param viewCounts
+     *            the views to add to each resource, in the order of
+     *            resourceIds. Cannot be null.
+     * @param clickCounts
+     *            the clicks to add to each resource, in the order of
+     *            resourceIds. Cannot be null.
+     * @return the number of resources whose counts were added.
+     * @throws IllegalArgumentException
+     *             when an array is null or the arrays differ in length.
+     * @throws DAOException
+     *             when there is an error while adding the counts
+     */
+    int addEngagementCounts(int[] resourceIds, long[] viewCounts, long[] clickCounts) throws DAOException;
+
+    /**
+     * Reads the click count of every resource that has been clicked.
+     *
+     * @return a {@link Map} from resource id to click count. Resources that
+     *         have never been clicked are not in the map.
+     * @throws DAOException
+     *             when there is an error while reading the click counts
+     */
+    Map<Integer, Long> getClickCounts() throws DAOException;
+}
@@ -0,0 +1,81 @@
+package com.cerner.devcenter.education.dao;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
+
+/**
+ * Adds the view and click counts of the resources to the resource_engagement
+ * table, binding the counts of a whole batch as three arrays so a batch costs
+ * one statement whatever its size.
+ */
+@Repository("resourceEngagementDAO")
+public class ResourceEngagementDAOImpl implements ResourceEngagementDAO {
+
+    // @formatter:off
+    private static final String ADD_ENGAGEMENT_COUNTS_QUERY = "INSERT INTO resource_engagement (resource_id, view_count, click_count) "
+            + "SELECT e.resource_id, e.view_count, e.click_count "
+            + "FROM unnest(?::int[], ?::bigint[], ?::bigint[]) AS e(resource_id, view_count, click_count) "
+            + "INNER JOIN resource r ON e.resource_id = r.resource_id ORDER BY e.resource_id "
+            + "ON CONFLICT (resource_id) DO UPDATE SET view_count = resource_engagement.view_count + EXCLUDED.view_count, "
+            + "click_count = resource_engagement.click_count + EXCLUDED.click_count";
+    private static final String GET_CLICK_COUNTS_QUERY = "SELECT resource_id, click_count FROM resource_engagement "
+            + "WHERE click_count > 0";
+    // @formatter:on
+
+    private static final String RESOURCE_IDS_NULL_ERROR_MESSAGE = "Resource ids cannot be null";
+    private static final String COUNTS_NULL_ERROR_MESSAGE = "View and click counts cannot be null";
+    private static final String COUNTS_LENGTH_ERROR_MESSAGE = "There must be one view and one click count per resource id";
+
+    private static final String ERROR_ADDING_ENGAGEMENT_COUNTS = "Error: unable to add the view and click counts of the resources.";
+    private static final String ERROR_READING_CLICK_COUNTS = "Error: unable to read the click counts of the resources.";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int addEngagementCounts(final int[] resourceIds, final long[] viewCounts, final long[] clickCounts)
+            throws DAOException {
+        checkArgument(resourceIds != null, RESOURCE_IDS_NULL_ERROR_MESSAGE);
+        checkArgument(viewCounts != null && clickCounts != null, COUNTS_NULL_ERROR_MESSAGE);
+        checkArgument(viewCounts.length == resourceIds.length && clickCounts.length == resourceIds.length,
+                COUNTS_LENGTH_ERROR_MESSAGE);
+        if (resourceIds.length == 0) {
+            return 0;
+        }
+        try {
+            return jdbcTemplate.update(ADD_ENGAGEMENT_COUNTS_QUERY, SqlArrayValue.ofInts(resourceIds),
+                    SqlArrayValue.ofLongs(viewCounts), SqlArrayValue.ofLongs(clickCounts));
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_ADDING_ENGAGEMENT_COUNTS, dataAccessException);
+        }
+    }
+
+    @Override
+    public Map<Integer, Long> getClickCounts() throws DAOException {
+        final Map<Integer, Long> clickCounts = new HashMap<>();
+        try {
+            jdbcTemplate.query(GET_CLICK_COUNTS_QUERY, new RowCallbackHandler() {
+                @Override
+                public void processRow(final ResultSet resultSet) throws SQLException {
+                    clickCounts.put(resultSet.getInt("resource_id"), resultSet.getLong("click_count"));
+                }
+            });
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_READING_CLICK_COUNTS, dataAccessException);
+        }
+        return clickCounts;
+    }
+}
@@ -0,0 +1,83 @@
+package com.cerner.devcenter.education.dao;
+
+import com.cerner.devcenter.education.admin.DAOException;
+
+/**
+ * This interface is responsible for reading what the resources are filtered
+ * by: the type and status of every resource from the resource table, its
+ * categories and difficulty levels from the category_resource_reltn table and
+ * its tags from the tag_resource_reltn table.
+ */
+public interface ResourceFacetDAO {
+
+    /**
+     * Receives the facet values of the resources, one row at a time.
+     */
+    interface ResourceFacetHandler {
+
+        /**
+         * @param resourceId
+         *            the id of the resource.
+         * @param resourceTypeId
+         *            the id of the type of the resource.
+         * @param status
+         *            the status of the resource, the name of a
+         *            {@link com.cerner.devcenter.education.models.ResourceStatus}.
+         */
+        void resource(int resourceId, int resourceTypeId, String status);
+
+        /**
+         * @param resourceId
+         *            the id of the resource.
+         * @param categoryId
+         *            the id of a category of the resource.
+         * @param difficultyLevel
+         *            the difficulty level of the resource in that category.
+         */
+        void category(int resourceId, int categoryId, int difficultyLevel);
+
+        /**
+         * @param resourceId
+         *            the id of the resource.
+         * @param tagId
+         *            the id of a tag of the resource.
+         */
+        void tag(int resourceId, int tagId);
+    }
+
+    /**
+     * Reads the type and status of every resource, streaming them to a
+     * handler instead of holding them in memory.
+     *
+     * @param handler
+     *            the {@link ResourceFacetHandler} receiving each resource.
+     *            Cannot be null.
+     * @throws DAOException
+     *             when there is an error while reading the resources
+     */
+    void readResources(ResourceFacetHandler handler) throws DAOException;
+
+    /**
+     * Reads the categories and difficulty levels of every resource, streaming
+     * them to a handler instead of holding them in memory.
+     *
+     * @param handler
+     *            the {@link ResourceFacetHandler} receiving each category of
+     *            each resource. Cannot be null.
+     * @throws DAOException
+     *             when there is an error while reading the categories
+     */
+    void readCategories(ResourceFacetHandler handler) throws DAOException;
+
+    /**
+     * Reads the tags of every resource, streaming them to a handler instead of
+     * holding them in memory.
+     *
+     * @param handler
+     *            the {@link ResourceFacetHandler} receiving each tag of each
+     *            resource. Cannot be null.
+     * @throws DAOException
+     *             when there is an error while reading the tags
+     */
+    void readTags(ResourceFacetHandler handler) throws DAOException;
+}
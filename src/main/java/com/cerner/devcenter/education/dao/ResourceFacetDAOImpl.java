@@ -0,0 +1,86 @@
+package com.cerner.devcenter.education.dao;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.cerner.devcenter.education.admin.DAOException;
+
+/**
+ * Reads the facet values the resources are filtered by with one query per
+ * table, streaming the rows instead of mapping them to models, so the whole
+ * catalog is read in three round trips whatever its size.
+ */
+@Repository("resourceFacetDAO")
+public class ResourceFacetDAOImpl implements ResourceFacetDAO {
+
+    // @formatter:off
+    private static final String READ_RESOURCES_QUERY = "SELECT resource_id, type_id, status FROM resource";
+    private static final String READ_CATEGORIES_QUERY = "SELECT resource_id, category_id, difficulty_level "
+            + "FROM category_resource_reltn WHERE resource_id IS NOT NULL AND category_id IS NOT NULL "
+            + "AND difficulty_level IS NOT NULL";
+    private static final String READ_TAGS_QUERY = "SELECT resource_id, tag_id FROM tag_resource_reltn";
+    // @formatter:on
+
+    private static final String HANDLER_NULL_ERROR_MESSAGE = "Resource facet handler cannot be null";
+
+    private static final String ERROR_READING_RESOURCES = "Error: unable to read the types and statuses of the resources.";
+    private static final String ERROR_READING_CATEGORIES = "Error: unable to read the categories of the resources.";
+    private static final String ERROR_READING_TAGS = "Error: unable to read the tags of the resources.";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void readResources(final ResourceFacetHandler handler) throws DAOException {
+        checkArgument(handler != null, HANDLER_NULL_ERROR_MESSAGE);
+        try {
+            jdbcTemplate.query(READ_RESOURCES_QUERY, new RowCallbackHandler() {
+                @Override
+                public void processRow(final ResultSet row) throws SQLException {
+                    handler.resource(row.getInt("resource_id"), row.getInt("type_id"), row.getString("status"));
+                }
+            });
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_READING_RESOURCES, dataAccessException);
+        }
+    }
+
+    @Override
+    public void readCategories(final ResourceFacetHandler handler) throws DAOException {
+        checkArgument(handler != null, HANDLER_NULL_ERROR_MESSAGE);
+        try {
+            jdbcTemplate.query(READ_CATEGORIES_QUERY, new RowCallbackHandler() {
+                @Override
+                public void processRow(final ResultSet row) throws SQLException {
+                    handler.category(row.getInt("resource_id"), row.getInt("category_id"),
+                            row.getInt("difficulty_level"));
+                }
+            });
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_READING_CATEGORIES, dataAccessException);
+        }
+    }
+
+    @Override
+    public void readTags(final ResourceFacetHandler handler) throws DAOException {
+        checkArgument(handler != null, HANDLER_NULL_ERROR_MESSAGE);
+        try {
+            jdbcTemplate.query(READ_TAGS_QUERY, new RowCallbackHandler() {
+                @Override
+                public void processRow(final ResultSet row) throws SQLException {
+                    handler.tag(row.getInt("resource_id"), row.getInt("tag_id"));
+                }
+            });
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_READING_TAGS, dataAccessException);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.cerner.devcenter.education.dao;
+
+import java.util.List;
+
+import com.cerner.devcenter.education.admin.DAOException;
+
+/**
+ * This interface is responsible for checking and repairing the per-resource
+ * rating count and sum kept in the resource_rating_summary table against the
+ * ratings stored in the completed_user_resource table.
+ */
+public interface ResourceRatingSummaryDAO {
+
+    /**
+     * Finds the resources whose rating count or sum in resource_rating_summary
+     * differs from the ratings stored in completed_user_resource.
+     *
+     * @return a {@link List} of the ids of the resources whose summary has
+     *         drifted. Empty when every summary is correct.
+     * @throws DAOException
+     *             when there is an error while comparing the summaries with the
+     *             ratings
+     */
+    List<Integer> getResourceIdsWithDriftedRatingSummary() throws DAOException;
+
+    /**
+     * Recomputes the rating count and sum of every resource from
+     * completed_user_resource and stores the ones that differ. Ratings cannot
+     * be added while the summaries are recomputed, so this must be called
+     * within a transaction; the lock is released when it commits.
+     *
+     * @return the number of summaries that were added or corrected.
+     * @throws DAOException
+     *             when there is an error while recomputing the summaries
+     */
+    int rebuildRatingSummaries() throws DAOException;
+}
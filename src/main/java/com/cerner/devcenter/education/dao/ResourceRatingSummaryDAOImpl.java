@@ -0,0 +1,60 @@
+package com.cerner.devcenter.education.dao;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.cerner.devcenter.education.admin.DAOException;
+
+/**
+ * Responsible for checking and repairing the resource_rating_summary table
+ * against the completed_user_resource table.
+ */
+@Repository("resourceRatingSummaryDAO")
+public class ResourceRatingSummaryDAOImpl implements ResourceRatingSummaryDAO {
+
+    // @formatter:off
+    private static final String ACTUAL_RATING_SUMMARIES = "SELECT resource_id, COUNT(completion_rating) AS rating_count, "
+            + "COALESCE(SUM(completion_rating), 0) AS rating_sum FROM completed_user_resource GROUP BY resource_id";
+    private static final String GET_RESOURCE_IDS_WITH_DRIFTED_RATING_SUMMARY_QUERY = "SELECT COALESCE(a.resource_id, s.resource_id) AS resource_id "
+            + "FROM (" + ACTUAL_RATING_SUMMARIES + ") a "
+            + "FULL OUTER JOIN resource_rating_summary s ON a.resource_id = s.resource_id "
+            + "WHERE COALESCE(a.rating_count, 0) <> COALESCE(s.rating_count, 0) "
+            + "OR COALESCE(a.rating_sum, 0) <> COALESCE(s.rating_sum, 0) ORDER BY resource_id";
+    private static final String LOCK_COMPLETED_USER_RESOURCE_QUERY = "LOCK TABLE completed_user_resource IN SHARE MODE";
+    private static final String REBUILD_RATING_SUMMARIES_QUERY = "INSERT INTO resource_rating_summary (resource_id, rating_count, rating_sum) "
+            + "SELECT r.resource_id, COALESCE(a.rating_count, 0), COALESCE(a.rating_sum, 0) FROM resource r "
+            + "LEFT JOIN (" + ACTUAL_RATING_SUMMARIES + ") a ON r.resource_id = a.resource_id "
+            + "ON CONFLICT (resource_id) DO UPDATE SET rating_count = EXCLUDED.rating_count, rating_sum = EXCLUDED.rating_sum "
+            + "WHERE resource_rating_summary.rating_count <> EXCLUDED.rating_count "
+            + "OR resource_rating_summary.rating_sum <> EXCLUDED.rating_sum";
+    // @formatter:on
+
+    private static final String ERROR_FINDING_DRIFTED_RATING_SUMMARIES = "Error: unable to compare the rating summaries with the completed resource ratings.";
+    private static final String ERROR_REBUILDING_RATING_SUMMARIES = "Error: unable to rebuild the rating summaries from the completed resource ratings.";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Integer> getResourceIdsWithDriftedRatingSummary() throws DAOException {
+        try {
+            return jdbcTemplate.queryForList(GET_RESOURCE_IDS_WITH_DRIFTED_RATING_SUMMARY_QUERY, Integer.class);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_FINDING_DRIFTED_RATING_SUMMARIES, dataAccessException);
+        }
+    }
+
+    @Override
+    public int rebuildRatingSummaries() throws DAOException {
+        try {
+            jdbcTemplate.execute(LOCK_COMPLETED_USER_RESOURCE_QUERY);
+            return jdbcTemplate.update(REBUILD_RATING_SUMMARIES_QUERY);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_REBUILDING_RATING_SUMMARIES, dataAccessException);
+        }
+    }
+}
@@ -76,17 +76,72 @@ public interface ResourceRequestDAO {
      */
     List<ResourceRequest> getAllResourceRequests(final boolean isApproved) throws DAOException;
 
+    /**
+     * Retrieves the {@link ResourceRequest resource requests} whose id is
+     * greater than the given one, ordered by id. Seeking past the last id of
+     * the previous page reads a page at the same cost regardless of how deep
+     * it is.
+     *
+     * @param afterRequestId
+     *            the id of the last resource request on the previous page, or
+     *            0 for the first page. Cannot be negative
+     * @param limit
+     *            the maximum number of resource requests to retrieve. Must be
+     *            greater than 0
+     * @return a list of at most limit resource requests. Cannot be null, might
+     *         be empty
+     * @throws DAOException
+     *             when there is an error while trying to get the resource
+     *             requests list
+     * @throws IllegalArgumentException
+     *             when afterRequestId is negative or limit is not greater than
+     *             0
+     */
+    List<ResourceRequest> getResourceRequestsAfter(final int afterRequestId, final int limit) throws DAOException;
+
+    /**
+     * Retrieves the number of {@link ResourceRequest resource requests} as
+     * estimated by the planner statistics of the resource_request table. The
+     * estimate is refreshed by (auto)analyze and costs no scan of the table.
+     *
+     * @return the approximate number of resource requests, 0 when the table
+     *         has not been analyzed yet
+     * @throws DAOException
+     *             when there is an error while trying to read the estimate
+     */
+    int getApproximateResourceRequestCount() throws DAOException;
+
     /**
      * Deletes the {@link ResourceRequest resource requests} with the given
-     * id's.
+     * id's in a single statement.
      *
      * @param ids
      *            array of resource request identifiers. Cannot be null/empty
+     * @return the ids of the resource requests that were deleted, in no
+     *         particular order. Ids that did not exist are left out. Cannot be
+     *         null, might be empty
      * @throws DAOException
      *             when there is an error while trying to delete the resource
      *             requests
      * @throws IllegalArgumentException
      *             when ids is null/empty
      */
-    void deleteResourceRequests(final int[] ids) throws DAOException;
+    List<Integer> deleteResourceRequests(final int[] ids) throws DAOException;
+
+    /**
+     * Approves the {@link ResourceRequest resource requests} with the given
+     * id's in a single statement.
+     *
+     * @param ids
+     *            array of resource request identifiers. Cannot be null/empty
+     * @return the ids of the resource requests that were approved by this
+     *         call, in no particular order. Ids that did not exist or were
+     *         already approved are left out. Cannot be null, might be empty
+     * @throws DAOException
+     *             when there is an error while trying to approve the resource
+     *             requests
+     * @throws IllegalArgumentException
+     *             when ids is null/empty
+     */
+    List<Integer> approveResourceRequests(final int[] ids) throws DAOException;
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package com.cerner.devcenter.education.dao;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
@@ -11,13 +10,13 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.models.ResourceRequest;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * @author Navya Rangeneni (NR046827)
@@ -30,7 +29,10 @@ public class ResourceRequestDAOImpl implements ResourceRequestDAO {
     private static final String GET_ALL_RESOURCE_REQUESTS_QUERY = "SELECT id, user_id, category_name, resource_name, is_approved FROM resource_request";
     private static final String GET_ALL_RESOURCE_REQUESTS_OF_USER_QUERY = "SELECT id, user_id, category_name, resource_name, is_approved FROM resource_request WHERE user_id = ?";
     private static final String GET_ALL_RESOURCE_REQUESTS_FOR_IS_APPROVED_QUERY = "SELECT id, user_id, category_name, resource_name, is_approved FROM resource_request WHERE request_is_approved = ?";
-    private static final String DELETE_RESOURCE_REQUESTS_IN_BATCH_QUERY = "DELETE FROM resource_request WHERE id = ?";
+    private static final String GET_RESOURCE_REQUESTS_AFTER_QUERY = "SELECT id, user_id, category_name, resource_name, is_approved FROM resource_request WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String GET_APPROXIMATE_RESOURCE_REQUEST_COUNT_QUERY = "SELECT GREATEST(reltuples, 0)::integer FROM pg_class WHERE oid = 'resource_request'::regclass";
+    private static final String DELETE_RESOURCE_REQUESTS_QUERY = "DELETE FROM resource_request WHERE id = ANY(?) RETURNING id";
+    private static final String APPROVE_RESOURCE_REQUESTS_QUERY = "UPDATE resource_request SET is_approved = true WHERE id = ANY(?) AND NOT is_approved RETURNING id";
 
     private static final String REQUEST_ID = "id";
     private static final String USER_ID = "user_id";
@@ -41,6 +43,7 @@ public class ResourceRequestDAOImpl implements ResourceRequestDAO {
     private static final String RESOURCE_REQUEST_DB_INSERT_ERROR_MSG = "Error while adding resource request to the database.";
     private static final String RESOURCE_REQUEST_DB_READ_ERROR_MSG = "Error while retrieving all resource requests.";
     private static final String RESOURCE_REQUEST_DB_DELETE_ERROR_MSG = "Error while deleting the resource request.";
+    private static final String RESOURCE_REQUEST_DB_APPROVE_ERROR_MSG = "Error while approving the resource requests.";
 
     private static final String NULL_RESOURCE_REQUEST_ERROR_MSG = "ResourceRequest object is null.";
     private static final String NULL_RESULT_SET_ERROR_MSG = "ResultSet object is null.";
@@ -49,6 +52,8 @@ public class ResourceRequestDAOImpl implements ResourceRequestDAO {
     private static final String NULL_RESOURCE_NAME_ERROR_MSG = "ResourceName is null";
     private static final String INVALID_REQUEST_IDS_ERROR_MSG = "Resource request ID's array is null/empty.";
     private static final String INVALID_USER_ID_ERROR_MSG = "UserId is null/empty/blank.";
+    private static final String INVALID_AFTER_REQUEST_ID_ERROR_MSG = "Resource request ID to read after cannot be negative.";
+    private static final String INVALID_LIMIT_ERROR_MSG = "Limit must be greater than 0.";
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
@@ -99,25 +104,49 @@ public class ResourceRequestDAOImpl implements ResourceRequestDAO {
     }
 
     @Override
-    public void deleteResourceRequests(final int[] requestIds) throws DAOException {
+    public List<ResourceRequest> getResourceRequestsAfter(final int afterRequestId, final int limit)
+            throws DAOException {
+        checkArgument(afterRequestId >= 0, INVALID_AFTER_REQUEST_ID_ERROR_MSG);
+        checkArgument(limit > 0, INVALID_LIMIT_ERROR_MSG);
+        try {
+            return jdbcTemplate.query(GET_RESOURCE_REQUESTS_AFTER_QUERY, new ResourceRequestsRowMapper(),
+                    afterRequestId, limit);
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(RESOURCE_REQUEST_DB_READ_ERROR_MSG, daoException);
+        }
+    }
+
+    @Override
+    public int getApproximateResourceRequestCount() throws DAOException {
+        try {
+            return jdbcTemplate.queryForObject(GET_APPROXIMATE_RESOURCE_REQUEST_COUNT_QUERY, Integer.class);
+        } catch (final DataAccessException daoException) {
+            throw new DAOException(RESOURCE_REQUEST_DB_READ_ERROR_MSG, daoException);
+        }
+    }
+
+    @Override
+    public List<Integer> deleteResourceRequests(final int[] requestIds) throws DAOException {
         checkArgument(ArrayUtils.isNotEmpty(requestIds), INVALID_REQUEST_IDS_ERROR_MSG);
         try {
-            jdbcTemplate.batchUpdate(DELETE_RESOURCE_REQUESTS_IN_BATCH_QUERY, new BatchPreparedStatementSetter() {
-                @Override
-                public void setValues(final PreparedStatement ps, final int i) throws SQLException {
-                    ps.setInt(1, requestIds[i]);
-                }
-
-                @Override
-                public int getBatchSize() {
-                    return requestIds.length;
-                }
-            });
+            return jdbcTemplate.queryForList(DELETE_RESOURCE_REQUESTS_QUERY, Integer.class,
+                    SqlArrayValue.ofInts(requestIds));
         } catch (final DataAccessException dataAccessException) {
             throw new DAOException(RESOURCE_REQUEST_DB_DELETE_ERROR_MSG, dataAccessException);
         }
     }
 
+    @Override
+    public List<Integer> approveResourceRequests(final int[] requestIds) throws DAOException {
+        checkArgument(ArrayUtils.isNotEmpty(requestIds), INVALID_REQUEST_IDS_ERROR_MSG);
+        try {
+            return jdbcTemplate.queryForList(APPROVE_RESOURCE_REQUESTS_QUERY, Integer.class,
+                    SqlArrayValue.ofInts(requestIds));
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(RESOURCE_REQUEST_DB_APPROVE_ERROR_MSG, dataAccessException);
+        }
+    }
+
     /**
      * Custom {@link RowMapper} class to map a {@link ResultSet} to a new
      * {@link ResourceRequest} object.
@@ -0,0 +1,98 @@
+package com.cerner.devcenter.education.dao;
+
+import java.util.Map;
+
+import com.cerner.devcenter.education.admin.DAOException;
+
+/**
+ * This interface is responsible for reading what the trending resources and
+ * categories are seeded from: the completions of the completed_user_resource
+ * table counted per time bucket, and the categories of the resources.
+ */
+public interface TrendingDAO {
+
+    /**
+     * Receives the completions of one resource or category in one time
+     * bucket.
+     */
+    interface CompletionCountHandler {
+
+        /**
+         * @param id
+         *            the id of the resource or category.
+         * @param bucket
+         *            the time bucket, the completion date in seconds divided
+         *            by the bucket length.
+         * @param completions
+         *            the number of completions in the bucket.
+         */
+        void count(int id, long bucket, long completions);
+    }
+
+    /**
+     * Counts the completions of every resource per time bucket, streaming the
+     * counts to a handler instead of holding them in memory.
+     *
+     * @param fromSeconds
+     *            the first completion date counted, in seconds since the
+     *            epoch. Cannot be negative.
+     * @param toSeconds
+     *            the completion date, in seconds since the epoch, before which
+     *            completions are counted. Must not be before fromSeconds.
+     * @param bucketSeconds
+     *            the length of a time bucket in seconds. Must be greater than
+     *            0.
+     * @param handler
+     *            the {@link CompletionCountHandler} receiving the counts of
+     *            each resource and bucket. Cannot be null.
+     * @throws DAOException
+     *             when there is an error while counting the completions
+     */
+    void countResourceCompletions(long fromSeconds, long toSeconds, int bucketSeconds,
+            CompletionCountHandler handler) throws DAOException;
+
+    /**
+     * Counts the completions of the resources of every category per time
+     * bucket, by the categories the resources are in now, streaming the counts
+     * to a handler instead of holding them in memory.
+     *
+     * @param fromSeconds
+     *            the first completion date counted, in seconds since the
+     *            epoch. Cannot be negative.
+     * @param toSeconds
+     *            the completion date, in seconds since the epoch, before which
+     *            completions are counted. Must not be before fromSeconds.
+     * @param bucketSeconds
+     *            the length of a time bucket in seconds. Must be greater than
+     *            0.
+     * @param handler
+     *            the {@link CompletionCountHandler} receiving the counts of
+     *            each category and bucket. Cannot be null.
+     * @throws DAOException
+     *             when there is an error while counting the completions
+     */
+    void countCategoryCompletions(long fromSeconds, long toSeconds, int bucketSeconds,
+            CompletionCountHandler handler) throws DAOException;
+
+    /**
+     * Reads the categories of every resource.
+     *
+     * @return a {@link Map} from resource id to the ids of its categories.
+     *         Resources without a category are not in the map.
+     * @throws DAOException
+     *             when there is an error while reading the categories
+     */
+    Map<Integer, int[]> getCategoryIdsByResourceId() throws DAOException;
+
+    /**
+     * Reads the categories of a resource.
+     *
+     * @param resourceId
+     *            the id of the resource. Must be greater than 0.
+     * @return the ids of the categories of the resource. Empty when the
+     *         resource is in no category.
+     * @throws DAOException
+     *             when there is an error while reading the categories
+     */
+    int[] getCategoryIdsOfResource(int resourceId) throws DAOException;
+}
@@ -0,0 +1,119 @@
+package com.cerner.devcenter.education.dao;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.google.common.primitives.Ints;
+
+/**
+ * Counts the completions the trending resources and categories are seeded
+ * from in the database, grouped by time bucket, so only one row per resource
+ * or category and bucket is read instead of one row per completion.
+ */
+@Repository("trendingDAO")
+public class TrendingDAOImpl implements TrendingDAO {
+
+    // @formatter:off
+    private static final String COUNT_RESOURCE_COMPLETIONS_QUERY = "SELECT resource_id AS id, "
+            + "completion_date / ? AS bucket, COUNT(*) AS completions FROM completed_user_resource "
+            + "WHERE completion_date >= ? AND completion_date < ? GROUP BY 1, 2";
+    private static final String COUNT_CATEGORY_COMPLETIONS_QUERY = "SELECT crt.category_id AS id, "
+            + "cur.completion_date / ? AS bucket, COUNT(*) AS completions FROM completed_user_resource cur "
+            + "INNER JOIN category_resource_reltn crt ON cur.resource_id = crt.resource_id "
+            + "WHERE cur.completion_date >= ? AND cur.completion_date < ? GROUP BY 1, 2";
+    private static final String GET_CATEGORY_IDS_BY_RESOURCE_ID_QUERY = "SELECT resource_id, "
+            + "array_agg(category_id) AS category_ids FROM category_resource_reltn GROUP BY resource_id";
+    private static final String GET_CATEGORY_IDS_OF_RESOURCE_QUERY = "SELECT category_id FROM category_resource_reltn "
+            + "WHERE resource_id = ?";
+    // @formatter:on
+
+    private static final String INVALID_FROM_SECONDS_ERROR_MESSAGE = "From seconds cannot be negative";
+    private static final String INVALID_TO_SECONDS_ERROR_MESSAGE = "To seconds cannot be before from seconds";
+    private static final String INVALID_BUCKET_SECONDS_ERROR_MESSAGE = "Bucket seconds must be greater than 0";
+    private static final String HANDLER_NULL_ERROR_MESSAGE = "Completion count handler cannot be null";
+    private static final String INVALID_RESOURCE_ID_ERROR_MESSAGE = "Resource Id must be greater than 0";
+
+    private static final String ERROR_COUNTING_RESOURCE_COMPLETIONS = "Error: unable to count the completions of the resources.";
+    private static final String ERROR_COUNTING_CATEGORY_COMPLETIONS = "Error: unable to count the completions of the categories.";
+    private static final String ERROR_READING_CATEGORY_IDS = "Error: unable to read the categories of the resources.";
+    private static final String ERROR_READING_CATEGORY_IDS_OF_RESOURCE = "Error: unable to read the categories of resource %d.";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void countResourceCompletions(final long fromSeconds, final long toSeconds, final int bucketSeconds,
+            final CompletionCountHandler handler) throws DAOException {
+        countCompletions(COUNT_RESOURCE_COMPLETIONS_QUERY, ERROR_COUNTING_RESOURCE_COMPLETIONS, fromSeconds,
+                toSeconds, bucketSeconds, handler);
+    }
+
+    @Override
+    public void countCategoryCompletions(final long fromSeconds, final long toSeconds, final int bucketSeconds,
+            final CompletionCountHandler handler) throws DAOException {
+        countCompletions(COUNT_CATEGORY_COMPLETIONS_QUERY, ERROR_COUNTING_CATEGORY_COMPLETIONS, fromSeconds,
+                toSeconds, bucketSeconds, handler);
+    }
+
+    private void countCompletions(final String query, final String errorMessage, final long fromSeconds,
+            final long toSeconds, final int bucketSeconds, final CompletionCountHandler handler)
+            throws DAOException {
+        checkArgument(fromSeconds >= 0, INVALID_FROM_SECONDS_ERROR_MESSAGE);
+        checkArgument(toSeconds >= fromSeconds, INVALID_TO_SECONDS_ERROR_MESSAGE);
+        checkArgument(bucketSeconds > 0, INVALID_BUCKET_SECONDS_ERROR_MESSAGE);
+        checkArgument(handler != null, HANDLER_NULL_ERROR_MESSAGE);
+        try {
+            jdbcTemplate.query(query, new RowCallbackHandler() {
+                @Override
+                public void processRow(final ResultSet row) throws SQLException {
+                    handler.count(row.getInt("id"), row.getLong("bucket"), row.getLong("completions"));
+                }
+            }, bucketSeconds, fromSeconds, toSeconds);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(errorMessage, dataAccessException);
+        }
+    }
+
+    @Override
+    public Map<Integer, int[]> getCategoryIdsByResourceId() throws DAOException {
+        final Map<Integer, int[]> categoryIdsByResourceId = new HashMap<>();
+        try {
+            jdbcTemplate.query(GET_CATEGORY_IDS_BY_RESOURCE_ID_QUERY, new RowCallbackHandler() {
+                @Override
+                public void processRow(final ResultSet row) throws SQLException {
+                    final Integer[] categoryIds = (Integer[]) row.getArray("category_ids").getArray();
+                    categoryIdsByResourceId.put(row.getInt("resource_id"), Ints.toArray(Arrays.asList(categoryIds)));
+                }
+            });
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(ERROR_READING_CATEGORY_IDS, dataAccessException);
+        }
+        return categoryIdsByResourceId;
+    }
+
+    @Override
+    public int[] getCategoryIdsOfResource(final int resourceId) throws DAOException {
+        checkArgument(resourceId > 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        try {
+            final List<Integer> categoryIds = jdbcTemplate.queryForList(GET_CATEGORY_IDS_OF_RESOURCE_QUERY,
+                    Integer.class, resourceId);
+            return Ints.toArray(categoryIds);
+        } catch (final DataAccessException dataAccessException) {
+            throw new DAOException(String.format(ERROR_READING_CATEGORY_IDS_OF_RESOURCE, resourceId),
+                    dataAccessException);
+        }
+    }
+}
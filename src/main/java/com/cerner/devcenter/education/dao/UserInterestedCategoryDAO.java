@@ -77,8 +77,8 @@ public interface UserInterestedCategoryDAO {
     boolean deleteUserInterestedCategory(String userId, int topicId) throws DAOException;
 
     /**
-     * Performs a query to delete {@link UserInterestedCategory} in batch based
-     * on passed in {@link User} ID and array of {@link Category} ID
+     * Performs a single query to delete {@link UserInterestedCategory} in batch
+     * based on passed in {@link User} ID and array of {@link Category} ID
      * 
      * @param userId
      *            {@link String} that contains ID of {@link User} (can't be
@@ -86,9 +86,9 @@ public interface UserInterestedCategoryDAO {
      * @param categoryIds
      *            Array that contains {@link Category} ID (can't be
      *            <code>null</code> or empty).
-     * @return a {@link Boolean} value, <code>true</code> if
-     *         {@link UserInterestedCategory} is deleted else
-     *         <code>false</code>.
+     * @return a {@link List} of the {@link Category} IDs whose
+     *         {@link UserInterestedCategory} was deleted, in no particular
+     *         order. IDs the user was not interested in are left out.
      * @throws IllegalArgumentException
      *             <ul>
      *             <li>when <b>userId</b> is <code>null</code> or empty</li>
@@ -97,7 +97,7 @@ public interface UserInterestedCategoryDAO {
      * @throws DAOException
      *             if there is an error performing batch delete.
      */
-    boolean deleteUserInterestedCategoryInBatch(final String userId, final int[] categoryIds) throws DAOException;
+    List<Integer> deleteUserInterestedCategoryInBatch(final String userId, final int[] categoryIds) throws DAOException;
 
     /**
      * Performs a query to update the skill level and interest level to the user
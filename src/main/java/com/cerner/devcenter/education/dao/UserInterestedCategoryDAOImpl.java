@@ -2,7 +2,6 @@ package com.cerner.devcenter.education.dao;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
@@ -13,7 +12,6 @@ import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
@@ -21,6 +19,7 @@ import org.springframework.stereotype.Repository;
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.UserInterestedCategory;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * Class that is responsible for performing database operations for
@@ -39,7 +38,7 @@ public class UserInterestedCategoryDAOImpl implements UserInterestedCategoryDAO
     private static final String EMPTY_RESULT_ERROR_MESSAGE = "Error: the specified query did not return any results";
     private static final String DELETE_INTERESTED_CATEGORY_FOR_USER = "DELETE FROM user_interested_category WHERE user_id = ? and category_id = ?";
     private static final String UPDATE_INTERESTED_CATEGORY = "UPDATE user_interested_category set skill_level=?, interest_level=? where user_id=? and category_id=?";
-    private static final String DELETE_INTERESTED_CATEGORY_FOR_USER_IN_BATCH = "DELETE FROM user_interested_category WHERE user_id = ? and category_id = ?";
+    private static final String DELETE_INTERESTED_CATEGORIES_FOR_USER = "DELETE FROM user_interested_category WHERE user_id = ? and category_id = ANY(?) RETURNING category_id";
     private UserInterestedCategoryRowMapper rowMapper = new UserInterestedCategoryRowMapper();
 
     private static final String INVALID_USER_ID = "User ID cannot be null/empty";
@@ -146,24 +145,13 @@ public class UserInterestedCategoryDAOImpl implements UserInterestedCategoryDAO
      * {@inheritDoc}
      */
     @Override
-    public boolean deleteUserInterestedCategoryInBatch(final String userId, final int[] categoryIds)
+    public List<Integer> deleteUserInterestedCategoryInBatch(final String userId, final int[] categoryIds)
             throws DAOException {
         checkArgument(StringUtils.isNotBlank(userId), INVALID_USER_ID);
         checkArgument(ArrayUtils.isNotEmpty(categoryIds), INVALID_CATEGORY_IDS);
         try {
-            jdbcTemplate.batchUpdate(DELETE_INTERESTED_CATEGORY_FOR_USER_IN_BATCH, new BatchPreparedStatementSetter() {
-                @Override
-                public void setValues(PreparedStatement ps, int i) throws SQLException {
-                    ps.setString(1, userId);
-                    ps.setInt(2, categoryIds[i]);
-                }
-
-                @Override
-                public int getBatchSize() {
-                    return categoryIds.length;
-                }
-            });
-            return true;
+            return jdbcTemplate.queryForList(DELETE_INTERESTED_CATEGORIES_FOR_USER, Integer.class, userId,
+                    SqlArrayValue.ofInts(categoryIds));
         } catch (DataAccessException dataAccessEx) {
             LOGGER.error(ERROR_DELETING, dataAccessEx);
             throw new DAOException(ERROR_DELETING, dataAccessEx);
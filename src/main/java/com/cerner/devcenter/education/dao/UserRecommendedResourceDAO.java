@@ -19,7 +19,8 @@ public interface UserRecommendedResourceDAO {
      * {@link UserRecommendedResource} objects that contains the resources
      * recommended to user based on interest and skill level. The recommended
      * resources are returned in descending order of interest level, average
-     * rating and number of ratings.
+     * rating and number of ratings, then by category id, resource id and
+     * difficulty level, so the order is the same on every call.
      *
      * @param userId
      *            a {@link String} that is the unique id of the user. Cannot be
@@ -1,7 +1,5 @@
 package com.cerner.devcenter.education.dao;
 
-import static com.cerner.devcenter.education.utils.QueryExpanderUtil.expandPlaceholders;
-
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.ResultSet;
@@ -23,6 +21,7 @@ import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceStatus;
 import com.cerner.devcenter.education.models.UserRecommendedResource;
 import com.cerner.devcenter.education.utils.Constants;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 import com.google.common.base.Preconditions;
 
 /**
@@ -51,12 +50,14 @@ public class UserRecommendedResourceDAOImpl implements UserRecommendedResourceDA
             + "INNER JOIN category_resource_reltn crt ON r.resource_id = crt.resource_id "
             + "INNER JOIN user_interested_category uc ON (crt.category_id = uc.category_id AND crt.difficulty_level BETWEEN uc.skill_level - 1 AND uc.skill_level + 1 AND uc.interest_level > 2) "
             + "INNER JOIN category ct ON uc.category_id = ct.id "
-            + "LEFT JOIN completed_user_resource c ON r.resource_id = c.resource_id "
+            + "LEFT JOIN resource_rating_summary rs ON r.resource_id = rs.resource_id "
+            + "LEFT JOIN resource_engagement re ON r.resource_id = re.resource_id "
             + "WHERE uc.user_id = ? AND r.status = " + "'" + ResourceStatus.Available.toString() + "'"
             + " AND r.resource_id NOT IN (SELECT DISTINCT resource_id FROM completed_user_resource cur WHERE cur.user_id = uc.user_id) "
-            + "GROUP BY r.resource_id, ct.id, crt.difficulty_level, uc.interest_level "
-            + "ORDER BY uc.interest_level DESC, (CASE WHEN (avg(c.completion_rating) < ? AND count(c.completion_rating) > ?) THEN 1 ELSE 0 END), "
-            + "avg(c.completion_rating) DESC NULLS LAST";
+            + "GROUP BY r.resource_id, ct.id, crt.difficulty_level, uc.interest_level, rs.rating_count, rs.rating_sum, re.click_count "
+            + "ORDER BY uc.interest_level DESC, (CASE WHEN (rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) < ? AND rs.rating_count > ?) THEN 1 ELSE 0 END), "
+            + "rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) DESC NULLS LAST, COALESCE(re.click_count, 0) DESC, "
+            + "ct.id, r.resource_id, crt.difficulty_level";
 
     private static final String GET_RECOMMENDED_RESOURCES_FOR_USER_BY_CATEGORIES = "SELECT r.name as resource_name, r.description as resource_description, "
             + "r.link, r.resource_id, ct.id, ct.name as category_name, ct.description as category_description, crt.difficulty_level, "
@@ -64,13 +65,15 @@ public class UserRecommendedResourceDAOImpl implements UserRecommendedResourceDA
             + "INNER JOIN category_resource_reltn crt ON r.resource_id = crt.resource_id "
             + "INNER JOIN user_interested_category uc ON (crt.category_id = uc.category_id AND crt.difficulty_level BETWEEN uc.skill_level - 1 AND uc.skill_level + 1 AND uc.interest_level > 2) "
             + "INNER JOIN category ct ON uc.category_id = ct.id "
-            + "LEFT JOIN completed_user_resource c ON r.resource_id = c.resource_id "
-            + "WHERE (uc.user_id = (?) AND ct.id IN (%s) AND r.status = " + "'" + ResourceStatus.Available.toString()
+            + "LEFT JOIN resource_rating_summary rs ON r.resource_id = rs.resource_id "
+            + "LEFT JOIN resource_engagement re ON r.resource_id = re.resource_id "
+            + "WHERE (uc.user_id = (?) AND ct.id = ANY(?) AND r.status = " + "'" + ResourceStatus.Available.toString()
             + "'"
             + "AND r.resource_id NOT IN (SELECT DISTINCT resource_id FROM completed_user_resource cur WHERE cur.user_id = uc.user_id)) "
-            + "GROUP BY r.resource_id, ct.id, crt.difficulty_level, uc.interest_level "
-            + "ORDER BY uc.interest_level DESC, (CASE WHEN (avg(c.completion_rating) < ? AND count(c.completion_rating) > ?) THEN 1 ELSE 0 END), "
-            + "avg(c.completion_rating) DESC NULLS LAST";
+            + "GROUP BY r.resource_id, ct.id, crt.difficulty_level, uc.interest_level, rs.rating_count, rs.rating_sum, re.click_count "
+            + "ORDER BY uc.interest_level DESC, (CASE WHEN (rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) < ? AND rs.rating_count > ?) THEN 1 ELSE 0 END), "
+            + "rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) DESC NULLS LAST, COALESCE(re.click_count, 0) DESC, "
+            + "ct.id, r.resource_id, crt.difficulty_level";
 
     // @formatter:on
     private static final String EMPTY_RESULT_ERROR_MESSAGE = "Error: the specified query did not return any results";
@@ -109,21 +112,19 @@ public class UserRecommendedResourceDAOImpl implements UserRecommendedResourceDA
         Preconditions.checkArgument(minimumRatingRequired >= 0, INVALID_MINIMUM_RATING_REQUIRED_ERROR_MESSAGE);
         Preconditions
                 .checkArgument(minimumNumberOfRatingsRequired >= 0, INVALID_NUMBER_OF_RATINGS_REQUIRED_ERROR_MESSAGE);
-        final List<Object> queryParameters = new ArrayList<>(categories.size() + 1);
-        queryParameters.add(userId);
+        final List<Integer> categoryIds = new ArrayList<>(categories.size());
         for (final Category category : categories) {
             verifyCategoryArgument(category);
-            queryParameters.add(category.getId());
+            categoryIds.add(category.getId());
         }
-        queryParameters.add(minimumRatingRequired);
-        queryParameters.add(minimumNumberOfRatingsRequired);
         try {
             return jdbcTemplate.query(
-                    String.format(
-                            GET_RECOMMENDED_RESOURCES_FOR_USER_BY_CATEGORIES,
-                            expandPlaceholders(categories.size())),
+                    GET_RECOMMENDED_RESOURCES_FOR_USER_BY_CATEGORIES,
                     rowMapper,
-                    queryParameters.toArray());
+                    userId,
+                    SqlArrayValue.ofIntegers(categoryIds),
+                    minimumRatingRequired,
+                    minimumNumberOfRatingsRequired);
         } catch (final DataAccessException dataAccessException) {
             throw new DAOException(Constants.ERROR_RETRIEVING_RECOMMENDED_RESOURCES, dataAccessException);
         }
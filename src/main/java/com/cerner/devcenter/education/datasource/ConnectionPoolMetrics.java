@@ -0,0 +1,119 @@
+package com.cerner.devcenter.education.datasource;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of a {@link PooledDataSource}'s gauges and
+ * counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class ConnectionPoolMetrics {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waitingThreads;
+    private final int maximumPoolSize;
+    private final long acquiredCount;
+    private final long createdCount;
+    private final long destroyedCount;
+    private final long timeoutCount;
+    private final long validationFailureCount;
+    private final long leakCount;
+    private final LatencyHistogram.Snapshot acquireLatency;
+
+    /**
+     * @param activeConnections
+     *            number of connections currently lent out
+     * @param idleConnections
+     *            number of open connections waiting in the pool
+     * @param waitingThreads
+     *            number of threads blocked waiting for a connection
+     * @param maximumPoolSize
+     *            configured maximum pool size
+     * @param acquiredCount
+     *            total number of successful acquisitions
+     * @param createdCount
+     *            total number of physical connections opened
+     * @param destroyedCount
+     *            total number of physical connections closed
+     * @param timeoutCount
+     *            total number of acquisitions that timed out
+     * @param validationFailureCount
+     *            total number of idle connections discarded by validation
+     * @param leakCount
+     *            total number of connections reported as possible leaks
+     * @param acquireLatency
+     *            snapshot of the acquire-latency histogram
+     */
+    public ConnectionPoolMetrics(
+            final int activeConnections,
+            final int idleConnections,
+            final int waitingThreads,
+            final int maximumPoolSize,
+            final long acquiredCount,
+            final long createdCount,
+            final long destroyedCount,
+            final long timeoutCount,
+            final long validationFailureCount,
+            final long leakCount,
+            final LatencyHistogram.Snapshot acquireLatency) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waitingThreads = waitingThreads;
+        this.maximumPoolSize = maximumPoolSize;
+        this.acquiredCount = acquiredCount;
+        this.createdCount = createdCount;
+        this.destroyedCount = destroyedCount;
+        this.timeoutCount = timeoutCount;
+        this.validationFailureCount = validationFailureCount;
+        this.leakCount = leakCount;
+        this.acquireLatency = acquireLatency;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getWaitingThreads() {
+        return waitingThreads;
+    }
+
+    public int getTotalConnections() {
+        return activeConnections + idleConnections;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public long getAcquiredCount() {
+        return acquiredCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getValidationFailureCount() {
+        return validationFailureCount;
+    }
+
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    public LatencyHistogram.Snapshot getAcquireLatency() {
+        return acquireLatency;
+    }
+}
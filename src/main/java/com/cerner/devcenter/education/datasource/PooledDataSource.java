@@ -0,0 +1,612 @@
+package com.cerner.devcenter.education.datasource;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+
+/**
+ * A bounded, instrumented connection pool placed in front of a target
+ * {@link DataSource} (normally a
+ * {@link org.springframework.jdbc.datasource.DriverManagerDataSource}) so that
+ * {@link org.springframework.jdbc.core.JdbcTemplate} calls reuse physical
+ * PostgreSQL connections instead of opening a new one per statement.
+ * <p>
+ * The pool supports:
+ * <ul>
+ * <li>a minimum number of idle connections kept warm and a hard maximum pool
+ * size</li>
+ * <li>an acquire timeout, after which callers get a {@link SQLTimeoutException}
+ * instead of blocking forever</li>
+ * <li>validation, before they are handed out, of connections that have been
+ * idle longer than the validation interval, either with a validation query or
+ * {@link Connection#isValid(int)}. Connections returned more recently are
+ * handed out without a round trip</li>
+ * <li>eviction of connections that have been idle longer than the idle
+ * timeout</li>
+ * <li>leak detection, which logs the borrowing stack trace of connections held
+ * longer than a threshold</li>
+ * <li>metrics (see {@link ConnectionPoolMetrics}) including an acquire-latency
+ * histogram</li>
+ * </ul>
+ * Connections handed out are proxies; calling {@link Connection#close()} returns
+ * the physical connection to the pool and makes the proxy unusable.
+ * <p>
+ * {@link #init()} and {@link #close()} are meant to be used as the Spring
+ * init-method and destroy-method of the bean.
+ */
+public class PooledDataSource extends AbstractDataSource implements MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PooledDataSource.class);
+
+    private static final String TARGET_DATA_SOURCE_NULL_ERROR_MESSAGE = "Target data source cannot be null";
+    private static final String MINIMUM_IDLE_ERROR_MESSAGE = "Minimum idle connections cannot be negative";
+    private static final String MAXIMUM_POOL_SIZE_ERROR_MESSAGE = "Maximum pool size must be greater than 0";
+    private static final String MINIMUM_IDLE_EXCEEDS_MAXIMUM_ERROR_MESSAGE = "Minimum idle connections cannot exceed the maximum pool size";
+    private static final String ACQUIRE_TIMEOUT_ERROR_MESSAGE = "Acquire timeout must be greater than 0";
+    private static final String VALIDATION_TIMEOUT_ERROR_MESSAGE = "Validation timeout must be greater than 0";
+    private static final String NEGATIVE_DURATION_ERROR_MESSAGE = "Timeouts and thresholds cannot be negative";
+    private static final String HOUSEKEEPING_PERIOD_ERROR_MESSAGE = "Housekeeping period must be greater than 0";
+    private static final String POOL_NOT_INITIALIZED_ERROR_MESSAGE = "Connection pool has not been initialized";
+    private static final String POOL_ALREADY_INITIALIZED_ERROR_MESSAGE = "Connection pool has already been initialized";
+    private static final String POOL_CLOSED_ERROR_MESSAGE = "Connection pool has been closed";
+    private static final String ACQUIRE_TIMEOUT_EXCEPTION_MESSAGE = "Timed out after %d ms waiting for a connection (active: %d, idle: %d, waiting: %d)";
+    private static final String ACQUIRE_INTERRUPTED_EXCEPTION_MESSAGE = "Interrupted while waiting for a connection";
+    private static final String CONNECTION_RETURNED_EXCEPTION_MESSAGE = "Connection has already been returned to the pool";
+    private static final String LEAK_DETECTED_MESSAGE = "Connection leak detected: connection has been held for %d ms, borrowed at";
+    private static final String VALIDATION_FAILED_MESSAGE = "Discarding pooled connection that failed validation";
+    private static final String ERROR_CLOSING_CONNECTION_MESSAGE = "Error closing physical connection";
+    private static final String ERROR_FILLING_POOL_MESSAGE = "Error creating idle connection for the pool";
+    private static final String HOUSEKEEPING_ERROR_MESSAGE = "Error during connection pool housekeeping";
+    private static final String HOUSEKEEPER_THREAD_NAME = "connection-pool-housekeeper";
+
+    private static final int DEFAULT_MINIMUM_IDLE = 2;
+    private static final int DEFAULT_MAXIMUM_POOL_SIZE = 20;
+    private static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 5000;
+    private static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long DEFAULT_VALIDATION_INTERVAL_MILLIS = 30000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 600000;
+    private static final long DEFAULT_LEAK_DETECTION_THRESHOLD_MILLIS = 0;
+    private static final long DEFAULT_HOUSEKEEPING_PERIOD_MILLIS = 30000;
+
+    private DataSource targetDataSource;
+    private int minimumIdle = DEFAULT_MINIMUM_IDLE;
+    private int maximumPoolSize = DEFAULT_MAXIMUM_POOL_SIZE;
+    private long acquireTimeoutMillis = DEFAULT_ACQUIRE_TIMEOUT_MILLIS;
+    private String validationQuery;
+    private int validationTimeoutSeconds = DEFAULT_VALIDATION_TIMEOUT_SECONDS;
+    private long validationIntervalMillis = DEFAULT_VALIDATION_INTERVAL_MILLIS;
+    private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+    private long leakDetectionThresholdMillis = DEFAULT_LEAK_DETECTION_THRESHOLD_MILLIS;
+    private long housekeepingPeriodMillis = DEFAULT_HOUSEKEEPING_PERIOD_MILLIS;
+
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> activeConnections = Collections
+            .newSetFromMap(new ConcurrentHashMap<PooledConnection, Boolean>());
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile Semaphore permits;
+    private ScheduledExecutorService housekeeper;
+
+    /**
+     * Validates the configuration, warms the pool up to the minimum idle size
+     * and starts the housekeeping task that evicts idle connections, refills
+     * the pool and reports leaks.
+     *
+     * @throws IllegalArgumentException
+     *             when the pool configuration is invalid.
+     * @throws IllegalStateException
+     *             when the pool has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(permits == null, POOL_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(targetDataSource != null, TARGET_DATA_SOURCE_NULL_ERROR_MESSAGE);
+        checkArgument(minimumIdle <= maximumPoolSize, MINIMUM_IDLE_EXCEEDS_MAXIMUM_ERROR_MESSAGE);
+        permits = new Semaphore(maximumPoolSize, true);
+        fillPool();
+        housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, HOUSEKEEPER_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        housekeeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                runHousekeeping();
+            }
+        }, housekeepingPeriodMillis, housekeepingPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops housekeeping and closes all idle connections. Connections still in
+     * use are closed when they are returned.
+     */
+    public synchronized void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        PooledConnection idleConnection;
+        while ((idleConnection = idleConnections.pollFirst()) != null) {
+            destroy(idleConnection);
+        }
+    }
+
+    /**
+     * Borrows a connection from the pool, creating a new physical connection
+     * when no valid idle one is available and the pool is below its maximum
+     * size.
+     *
+     * @return a pooled {@link Connection}; closing it returns it to the pool.
+     * @throws SQLTimeoutException
+     *             when no connection becomes available within the acquire
+     *             timeout.
+     * @throws SQLException
+     *             when the pool is closed, the calling thread is interrupted,
+     *             or the target data source fails to create a connection.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        final Semaphore poolPermits = permits;
+        if (poolPermits == null) {
+            throw new SQLException(POOL_NOT_INITIALIZED_ERROR_MESSAGE);
+        }
+        if (closed.get()) {
+            throw new SQLException(POOL_CLOSED_ERROR_MESSAGE);
+        }
+        final long startNanos = System.nanoTime();
+        waitingThreads.incrementAndGet();
+        try {
+            if (!poolPermits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTimeoutException(String.format(
+                        ACQUIRE_TIMEOUT_EXCEPTION_MESSAGE,
+                        acquireTimeoutMillis,
+                        activeConnections.size(),
+                        idleConnections.size(),
+                        waitingThreads.get() - 1));
+            }
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ACQUIRE_INTERRUPTED_EXCEPTION_MESSAGE, interruptedException);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+        try {
+            PooledConnection pooledConnection = takeValidIdleConnection();
+            if (pooledConnection == null) {
+                pooledConnection = createPooledConnection();
+            }
+            pooledConnection.borrow(leakDetectionThresholdMillis > 0);
+            activeConnections.add(pooledConnection);
+            acquiredCount.incrementAndGet();
+            acquireLatency.record(System.nanoTime() - startNanos);
+            return pooledConnection.newHandle();
+        } catch (final SQLException | RuntimeException exception) {
+            poolPermits.release();
+            throw exception;
+        }
+    }
+
+    /**
+     * Opens a connection for other credentials straight from the target data
+     * source. Pooled connections all use the credentials configured on the
+     * target data source, so this connection is not pooled and closing it
+     * closes the physical connection.
+     *
+     * @param username
+     *            the database user to connect as.
+     * @param password
+     *            the password of that user.
+     * @return an unpooled {@link Connection}.
+     * @throws SQLException
+     *             when the pool has not been initialized, the pool is closed,
+     *             or the target data source fails to create a connection.
+     */
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        if (permits == null) {
+            throw new SQLException(POOL_NOT_INITIALIZED_ERROR_MESSAGE);
+        }
+        if (closed.get()) {
+            throw new SQLException(POOL_CLOSED_ERROR_MESSAGE);
+        }
+        return targetDataSource.getConnection(username, password);
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the pool's gauges and counters.
+     *
+     * @return a {@link ConnectionPoolMetrics}, never null.
+     */
+    @Override
+    public ConnectionPoolMetrics getMetrics() {
+        return new ConnectionPoolMetrics(
+                activeConnections.size(),
+                idleConnections.size(),
+                waitingThreads.get(),
+                maximumPoolSize,
+                acquiredCount.get(),
+                createdCount.get(),
+                destroyedCount.get(),
+                timeoutCount.get(),
+                validationFailureCount.get(),
+                leakCount.get(),
+                acquireLatency.snapshot());
+    }
+
+    /**
+     * Runs one housekeeping pass: evicts connections idle for longer than the
+     * idle timeout (while keeping the minimum idle count), tops the pool back
+     * up to the minimum idle count and reports leaked connections.
+     */
+    void runHousekeeping() {
+        try {
+            evictIdleConnections();
+            fillPool();
+            detectLeaks();
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.error(HOUSEKEEPING_ERROR_MESSAGE, runtimeException);
+        }
+    }
+
+    private void evictIdleConnections() {
+        if (idleTimeoutMillis <= 0) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+        while (iterator.hasNext() && idleConnections.size() > minimumIdle) {
+            final PooledConnection idleConnection = iterator.next();
+            if (now - idleConnection.getLastReturnedMillis() > idleTimeoutMillis
+                    && idleConnections.removeLastOccurrence(idleConnection)) {
+                destroy(idleConnection);
+            }
+        }
+    }
+
+    private void fillPool() {
+        while (!closed.get() && idleConnections.size() < minimumIdle
+                && idleConnections.size() + activeConnections.size() < maximumPoolSize && permits.tryAcquire()) {
+            try {
+                idleConnections.offerFirst(createPooledConnection());
+            } catch (final SQLException sqlException) {
+                LOGGER.warn(ERROR_FILLING_POOL_MESSAGE, sqlException);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakDetectionThresholdMillis <= 0) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        for (final PooledConnection activeConnection : activeConnections) {
+            final long heldMillis = now - activeConnection.getBorrowedMillis();
+            if (heldMillis > leakDetectionThresholdMillis && activeConnection.markLeakReported()) {
+                leakCount.incrementAndGet();
+                LOGGER.warn(String.format(LEAK_DETECTED_MESSAGE, heldMillis), activeConnection.getBorrowSite());
+            }
+        }
+    }
+
+    private PooledConnection takeValidIdleConnection() {
+        PooledConnection idleConnection;
+        while ((idleConnection = idleConnections.pollFirst()) != null) {
+            if (isValid(idleConnection)) {
+                return idleConnection;
+            }
+            validationFailureCount.incrementAndGet();
+            LOGGER.warn(VALIDATION_FAILED_MESSAGE);
+            destroy(idleConnection);
+        }
+        return null;
+    }
+
+    private boolean isValid(final PooledConnection pooledConnection) {
+        final Connection connection = pooledConnection.getPhysicalConnection();
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooledConnection.getLastReturnedMillis() < validationIntervalMillis) {
+                return true;
+            }
+            if (StringUtils.isBlank(validationQuery)) {
+                return connection.isValid(validationTimeoutSeconds);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(validationTimeoutSeconds);
+                statement.execute(validationQuery);
+                return true;
+            }
+        } catch (final SQLException sqlException) {
+            return false;
+        }
+    }
+
+    private PooledConnection createPooledConnection() throws SQLException {
+        final PooledConnection pooledConnection = new PooledConnection(targetDataSource.getConnection());
+        createdCount.incrementAndGet();
+        return pooledConnection;
+    }
+
+    private void release(final PooledConnection pooledConnection) {
+        activeConnections.remove(pooledConnection);
+        try {
+            if (closed.get() || pooledConnection.getPhysicalConnection().isClosed()) {
+                destroy(pooledConnection);
+            } else {
+                pooledConnection.reset();
+                idleConnections.offerFirst(pooledConnection);
+            }
+        } catch (final SQLException sqlException) {
+            destroy(pooledConnection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(final PooledConnection pooledConnection) {
+        destroyedCount.incrementAndGet();
+        try {
+            pooledConnection.getPhysicalConnection().close();
+        } catch (final SQLException sqlException) {
+            LOGGER.debug(ERROR_CLOSING_CONNECTION_MESSAGE, sqlException);
+        }
+    }
+
+    /**
+     * @param targetDataSource
+     *            the {@link DataSource} that creates physical connections.
+     *            Cannot be null.
+     */
+    public void setTargetDataSource(final DataSource targetDataSource) {
+        checkArgument(targetDataSource != null, TARGET_DATA_SOURCE_NULL_ERROR_MESSAGE);
+        this.targetDataSource = targetDataSource;
+    }
+
+    /**
+     * @param minimumIdle
+     *            the number of idle connections the pool tries to keep open.
+     *            Cannot be negative.
+     */
+    public void setMinimumIdle(final int minimumIdle) {
+        checkArgument(minimumIdle >= 0, MINIMUM_IDLE_ERROR_MESSAGE);
+        this.minimumIdle = minimumIdle;
+    }
+
+    /**
+     * @param maximumPoolSize
+     *            the maximum number of physical connections (idle and in use).
+     *            Must be greater than 0.
+     */
+    public void setMaximumPoolSize(final int maximumPoolSize) {
+        checkArgument(maximumPoolSize > 0, MAXIMUM_POOL_SIZE_ERROR_MESSAGE);
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    /**
+     * @param acquireTimeoutMillis
+     *            how long a caller waits for a connection before failing. Must
+     *            be greater than 0.
+     */
+    public void setAcquireTimeoutMillis(final long acquireTimeoutMillis) {
+        checkArgument(acquireTimeoutMillis > 0, ACQUIRE_TIMEOUT_ERROR_MESSAGE);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * @param validationQuery
+     *            the query used to validate connections idle longer than the
+     *            validation interval before handing them out. When null or blank,
+     *            {@link Connection#isValid(int)} is used instead.
+     */
+    public void setValidationQuery(final String validationQuery) {
+        this.validationQuery = validationQuery;
+    }
+
+    /**
+     * @param validationTimeoutSeconds
+     *            the timeout applied to connection validation. Must be greater
+     *            than 0.
+     */
+    public void setValidationTimeoutSeconds(final int validationTimeoutSeconds) {
+        checkArgument(validationTimeoutSeconds > 0, VALIDATION_TIMEOUT_ERROR_MESSAGE);
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    /**
+     * @param validationIntervalMillis
+     *            how long a returned connection may sit idle and still be
+     *            handed out without being validated; 0 validates on every
+     *            borrow. Cannot be negative.
+     */
+    public void setValidationIntervalMillis(final long validationIntervalMillis) {
+        checkArgument(validationIntervalMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE);
+        this.validationIntervalMillis = validationIntervalMillis;
+    }
+
+    /**
+     * @param idleTimeoutMillis
+     *            how long a connection may sit idle before it is evicted; 0
+     *            disables eviction. Cannot be negative.
+     */
+    public void setIdleTimeoutMillis(final long idleTimeoutMillis) {
+        checkArgument(idleTimeoutMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE);
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * @param leakDetectionThresholdMillis
+     *            how long a connection may be held before it is reported as a
+     *            possible leak; 0 disables leak detection. Cannot be negative.
+     */
+    public void setLeakDetectionThresholdMillis(final long leakDetectionThresholdMillis) {
+        checkArgument(leakDetectionThresholdMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE);
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+    }
+
+    /**
+     * @param housekeepingPeriodMillis
+     *            how often idle eviction, pool refill and leak detection run.
+     *            Must be greater than 0.
+     */
+    public void setHousekeepingPeriodMillis(final long housekeepingPeriodMillis) {
+        checkArgument(housekeepingPeriodMillis > 0, HOUSEKEEPING_PERIOD_ERROR_MESSAGE);
+        this.housekeepingPeriodMillis = housekeepingPeriodMillis;
+    }
+
+    /**
+     * A physical connection owned by the pool together with its bookkeeping.
+     */
+    private final class PooledConnection {
+
+        private final Connection physicalConnection;
+        private volatile long borrowedMillis;
+        private volatile long lastReturnedMillis;
+        private volatile Throwable borrowSite;
+        private final AtomicBoolean leakReported = new AtomicBoolean();
+
+        private PooledConnection(final Connection physicalConnection) {
+            this.physicalConnection = physicalConnection;
+            this.lastReturnedMillis = System.currentTimeMillis();
+        }
+
+        private void borrow(final boolean captureBorrowSite) {
+            borrowedMillis = System.currentTimeMillis();
+            borrowSite = captureBorrowSite ? new Throwable("Connection borrowed here") : null;
+            leakReported.set(false);
+        }
+
+        private void reset() throws SQLException {
+            if (!physicalConnection.getAutoCommit()) {
+                physicalConnection.rollback();
+                physicalConnection.setAutoCommit(true);
+            }
+            if (physicalConnection.isReadOnly()) {
+                physicalConnection.setReadOnly(false);
+            }
+            physicalConnection.clearWarnings();
+            lastReturnedMillis = System.currentTimeMillis();
+            borrowSite = null;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    PooledDataSource.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new ConnectionHandle(this));
+        }
+
+        private boolean markLeakReported() {
+            return leakReported.compareAndSet(false, true);
+        }
+
+        private Connection getPhysicalConnection() {
+            return physicalConnection;
+        }
+
+        private long getBorrowedMillis() {
+            return borrowedMillis;
+        }
+
+        private long getLastReturnedMillis() {
+            return lastReturnedMillis;
+        }
+
+        private Throwable getBorrowSite() {
+            return borrowSite;
+        }
+    }
+
+    /**
+     * The {@link InvocationHandler} behind each connection proxy handed out by
+     * the pool. A new handle is created per borrow so a stale reference cannot
+     * reach a connection that has since been lent to someone else.
+     */
+    private final class ConnectionHandle implements InvocationHandler {
+
+        private final PooledConnection pooledConnection;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private ConnectionHandle(final PooledConnection pooledConnection) {
+            this.pooledConnection = pooledConnection;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String methodName = method.getName();
+            switch (methodName) {
+            case "close":
+                if (returned.compareAndSet(false, true)) {
+                    release(pooledConnection);
+                }
+                return null;
+            case "isClosed":
+                return returned.get() || pooledConnection.getPhysicalConnection().isClosed();
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Pooled[" + pooledConnection.getPhysicalConnection() + "]";
+            default:
+                if (returned.get()) {
+                    throw new SQLException(CONNECTION_RETURNED_EXCEPTION_MESSAGE);
+                }
+                try {
+                    return method.invoke(pooledConnection.getPhysicalConnection(), args);
+                } catch (final InvocationTargetException invocationTargetException) {
+                    throw invocationTargetException.getTargetException();
+                }
+            }
+        }
+    }
+}
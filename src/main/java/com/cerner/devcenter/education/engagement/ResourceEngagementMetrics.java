@@ -0,0 +1,195 @@
+package com.cerner.devcenter.education.engagement;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of a {@link ResourceEngagementTracker}'s gauges
+ * and counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class ResourceEngagementMetrics {
+
+    private final boolean enabled;
+    private final boolean ready;
+    private final long flushPeriodMillis;
+    private final long reloadPeriodMillis;
+    private final int trackedResourceCount;
+    private final int pendingResourceCount;
+    private final int clickedResourceCount;
+    private final long lastFlushTimeMillis;
+    private final long lastReloadTimeMillis;
+    private final long viewCount;
+    private final long clickCount;
+    private final long droppedCount;
+    private final long flushCount;
+    private final long flushFailureCount;
+    private final long flushedResourceCount;
+    private final long reloadCount;
+    private final long reloadFailureCount;
+    private final LatencyHistogram.Snapshot flushLatency;
+    private final LatencyHistogram.Snapshot reloadLatency;
+
+    /**
+     * @param enabled
+     *            whether the tracker is configured to count views and clicks
+     * @param ready
+     *            whether the click counts have been read from the database
+     * @param flushPeriodMillis
+     *            configured delay between two writes of the counts
+     * @param reloadPeriodMillis
+     *            configured delay between two reads of the click counts
+     * @param trackedResourceCount
+     *            number of resources whose views and clicks are counted in
+     *            memory
+     * @param pendingResourceCount
+     *            number of resources whose counts the last flush could not
+     *            write, waiting for the next flush
+     * @param clickedResourceCount
+     *            number of resources with a click count
+     * @param lastFlushTimeMillis
+     *            time of the last successful flush, in milliseconds since the
+     *            epoch, or 0 when nothing has been flushed
+     * @param lastReloadTimeMillis
+     *            time of the last successful read of the click counts, in
+     *            milliseconds since the epoch, or 0 when they have not been
+     *            read
+     * @param viewCount
+     *            total number of views counted since startup
+     * @param clickCount
+     *            total number of clicks counted since startup
+     * @param droppedCount
+     *            total number of views and clicks dropped because too many
+     *            resources were tracked
+     * @param flushCount
+     *            total number of successful flushes
+     * @param flushFailureCount
+     *            total number of flushes that failed and were put back
+     * @param flushedResourceCount
+     *            total number of resource rows written by the flushes
+     * @param reloadCount
+     *            total number of successful reads of the click counts
+     * @param reloadFailureCount
+     *            total number of reads of the click counts that failed
+     * @param flushLatency
+     *            snapshot of the flush-latency histogram, one observation per
+     *            flush
+     * @param reloadLatency
+     *            snapshot of the reload-latency histogram, one observation
+     *            per read of the click counts
+     */
+    public ResourceEngagementMetrics(
+            final boolean enabled,
+            final boolean ready,
+            final long flushPeriodMillis,
+            final long reloadPeriodMillis,
+            final int trackedResourceCount,
+            final int pendingResourceCount,
+            final int clickedResourceCount,
+            final long lastFlushTimeMillis,
+            final long lastReloadTimeMillis,
+            final long viewCount,
+            final long clickCount,
+            final long droppedCount,
+            final long flushCount,
+            final long flushFailureCount,
+            final long flushedResourceCount,
+            final long reloadCount,
+            final long reloadFailureCount,
+            final LatencyHistogram.Snapshot flushLatency,
+            final LatencyHistogram.Snapshot reloadLatency) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.flushPeriodMillis = flushPeriodMillis;
+        this.reloadPeriodMillis = reloadPeriodMillis;
+        this.trackedResourceCount = trackedResourceCount;
+        this.pendingResourceCount = pendingResourceCount;
+        this.clickedResourceCount = clickedResourceCount;
+        this.lastFlushTimeMillis = lastFlushTimeMillis;
+        this.lastReloadTimeMillis = lastReloadTimeMillis;
+        this.viewCount = viewCount;
+        this.clickCount = clickCount;
+        this.droppedCount = droppedCount;
+        this.flushCount = flushCount;
+        this.flushFailureCount = flushFailureCount;
+        this.flushedResourceCount = flushedResourceCount;
+        this.reloadCount = reloadCount;
+        this.reloadFailureCount = reloadFailureCount;
+        this.flushLatency = flushLatency;
+        this.reloadLatency = reloadLatency;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getFlushPeriodMillis() {
+        return flushPeriodMillis;
+    }
+
+    public long getReloadPeriodMillis() {
+        return reloadPeriodMillis;
+    }
+
+    public int getTrackedResourceCount() {
+        return trackedResourceCount;
+    }
+
+    public int getPendingResourceCount() {
+        return pendingResourceCount;
+    }
+
+    public int getClickedResourceCount() {
+        return clickedResourceCount;
+    }
+
+    public long getLastFlushTimeMillis() {
+        return lastFlushTimeMillis;
+    }
+
+    public long getLastReloadTimeMillis() {
+        return lastReloadTimeMillis;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public long getClickCount() {
+        return clickCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    public long getFlushFailureCount() {
+        return flushFailureCount;
+    }
+
+    public long getFlushedResourceCount() {
+        return flushedResourceCount;
+    }
+
+    public long getReloadCount() {
+        return reloadCount;
+    }
+
+    public long getReloadFailureCount() {
+        return reloadFailureCount;
+    }
+
+    public LatencyHistogram.Snapshot getFlushLatency() {
+        return flushLatency;
+    }
+
+    public LatencyHistogram.Snapshot getReloadLatency() {
+        return reloadLatency;
+    }
+}
@@ -0,0 +1,543 @@
+package com.cerner.devcenter.education.engagement;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.ResourceEngagementDAO;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.cerner.devcenter.education.utils.StripedCounter;
+
+/**
+ * Counts how often each resource is shown to learners, by the autocomplete,
+ * the category listings and the home page recommendations, and how often its
+ * link is clicked, and writes the counts behind to the resource_engagement
+ * table.
+ * <p>
+ * Views and clicks are added up in memory, in a {@link StripedCounter} per
+ * resource, so recording one takes no lock and never waits on the database.
+ * Every flush period the counters are read and reset in place and the counts
+ * added to the table in batches of one statement each, in resource id order.
+ * A counter is never replaced while it may still be counted on, so no view or
+ * click is lost between two flushes. A batch that fails is added back and
+ * written with the next flush, so a database outage loses nothing as long as
+ * the node keeps running. {@link #close()} flushes one last time, so a restart
+ * loses nothing either; a node that dies loses at most the counts of one flush
+ * period.
+ * <p>
+ * At most the maximum number of tracked resources have counters; views and
+ * clicks of further resources are dropped and counted as such. When that
+ * maximum is reached, a flush forgets the resources with nothing counted since
+ * the previous one to make room; a view or click counted on such a resource
+ * while it is being forgotten may be lost.
+ * <p>
+ * The click count of every resource is read from the table at startup and
+ * every reload period, so it includes the clicks counted by the other nodes,
+ * and the clicks this node flushes are added to it right away. It is an
+ * immutable snapshot that search ranks resources by through
+ * {@link #getPopularityOrder()}. Counts and latencies are exposed through
+ * {@link #getMetrics()}. {@link #init()} and {@link #close()} are meant to be
+ * used as the Spring init-method and destroy-method of the bean.
+ */
+public class ResourceEngagementTracker implements MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceEngagementTracker.class);
+
+    private static final String ENGAGEMENT_DAO_NULL_ERROR_MESSAGE = "Resource engagement DAO cannot be null";
+    private static final String INVALID_RESOURCE_ID_ERROR_MESSAGE = "Resource Id must be greater than 0";
+    private static final String RESOURCES_NULL_ERROR_MESSAGE = "Resources cannot be null";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String TRACKER_ALREADY_INITIALIZED_ERROR_MESSAGE = "Resource engagement tracker has already been initialized";
+    private static final String TRACKER_DISABLED_MESSAGE = "Resource engagement tracker is disabled, views and clicks are not counted";
+    private static final String FLUSH_FAILED_MESSAGE = "Error writing the views and clicks of {} resources, retrying in {} ms";
+    private static final String FINAL_FLUSH_FAILED_MESSAGE = "Error writing the views and clicks of {} resources on shutdown, they are lost";
+    private static final String RELOAD_FAILED_MESSAGE = "Error reading the click counts of the resources";
+    private static final String FLUSH_INTERRUPTED_MESSAGE = "Interrupted while waiting for the last scheduled flush";
+    private static final String TRACKER_THREAD_NAME = "resource-engagement-flush";
+
+    private static final long DEFAULT_FLUSH_PERIOD_MILLIS = 30000;
+    private static final long DEFAULT_RELOAD_PERIOD_MILLIS = 600000;
+    private static final int DEFAULT_FLUSH_BATCH_SIZE = 500;
+    private static final int DEFAULT_MAXIMUM_TRACKED_RESOURCES = 10000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
+
+    private ResourceEngagementDAO engagementDAO;
+    private boolean enabled = true;
+    private long flushPeriodMillis = DEFAULT_FLUSH_PERIOD_MILLIS;
+    private long reloadPeriodMillis = DEFAULT_RELOAD_PERIOD_MILLIS;
+    private int flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
+    private int maximumTrackedResources = DEFAULT_MAXIMUM_TRACKED_RESOURCES;
+
+    private final StripedCounter viewCount = new StripedCounter();
+    private final StripedCounter clickCount = new StripedCounter();
+    private final StripedCounter droppedCount = new StripedCounter();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushFailureCount = new AtomicLong();
+    private final AtomicLong flushedResourceCount = new AtomicLong();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong reloadFailureCount = new AtomicLong();
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+    private final LatencyHistogram reloadLatency = new LatencyHistogram();
+
+    private final Object flushLock = new Object();
+    private volatile boolean started;
+    private final ConcurrentMap<Integer, Counts> countsByResourceId = new ConcurrentHashMap<>();
+    private final AtomicInteger trackedResourceCount = new AtomicInteger();
+    private final AtomicInteger pendingResourceCount = new AtomicInteger();
+    private volatile Map<Integer, Long> clickCountsByResourceId = Collections.emptyMap();
+    private volatile boolean loaded;
+    private volatile long lastFlushTimeMillis;
+    private volatile long lastReloadTimeMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Validates the configuration and, when the tracker is enabled, starts
+     * counting views and clicks, reads the click counts in the background
+     * right away and then every reload period, and flushes the counts every
+     * flush period. Until the click counts have been read the tracker is not
+     * {@link #isReady() ready}.
+     *
+     * @throws IllegalArgumentException
+     *             when the DAO has not been set.
+     * @throws IllegalStateException
+     *             when the tracker has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(scheduler == null, TRACKER_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(engagementDAO != null, ENGAGEMENT_DAO_NULL_ERROR_MESSAGE);
+        if (!enabled) {
+            LOGGER.info(TRACKER_DISABLED_MESSAGE);
+            return;
+        }
+        start();
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, TRACKER_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reload();
+                } catch (final DAOException | RuntimeException exception) {
+                    LOGGER.error(RELOAD_FAILED_MESSAGE, exception);
+                }
+            }
+        }, 0, reloadPeriodMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (final DAOException | RuntimeException exception) {
+                    LOGGER.error(FLUSH_FAILED_MESSAGE, pendingResourceCount.get(), flushPeriodMillis, exception);
+                }
+            }
+        }, flushPeriodMillis, flushPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts counting views and clicks.
+     */
+    void start() {
+        started = true;
+    }
+
+    /**
+     * Stops the scheduled flushes and reloads, waiting for a running one to
+     * finish, and writes the views and clicks counted since the last flush.
+     */
+    public synchronized void close() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (final InterruptedException interruptedException) {
+            LOGGER.warn(FLUSH_INTERRUPTED_MESSAGE);
+            Thread.currentThread().interrupt();
+        }
+        started = false;
+        try {
+            flush();
+        } catch (final DAOException | RuntimeException exception) {
+            LOGGER.error(FINAL_FLUSH_FAILED_MESSAGE, pendingResourceCount.get(), exception);
+        }
+    }
+
+    /**
+     * Counts one view of a resource. Does nothing when the tracker is not
+     * initialized.
+     *
+     * @param resourceId
+     *            the id of the shown resource. Must be greater than 0.
+     * @throws IllegalArgumentException
+     *             when the resource id is not greater than 0.
+     */
+    public void resourceViewed(final int resourceId) {
+        checkArgument(resourceId > 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        final Counts counts = countsOf(resourceId);
+        if (counts != null) {
+            counts.views.increment();
+            viewCount.increment();
+        }
+    }
+
+    /**
+     * Counts one view of each of the resources. Does nothing when the tracker
+     * is not initialized.
+     *
+     * @param resources
+     *            the shown {@link Resource} objects, with their ids set.
+     *            Cannot be null.
+     * @throws IllegalArgumentException
+     *             when resources is null or the id of a resource is not
+     *             greater than 0.
+     */
+    public void resourcesViewed(final Collection<Resource> resources) {
+        checkArgument(resources != null, RESOURCES_NULL_ERROR_MESSAGE);
+        for (final Resource resource : resources) {
+            resourceViewed(resource.getResourceId());
+        }
+    }
+
+    /**
+     * Counts one click on the link of a resource. Does nothing when the
+     * tracker is not initialized.
+     *
+     * @param resourceId
+     *            the id of the clicked resource. Must be greater than 0.
+     * @throws IllegalArgumentException
+     *             when the resource id is not greater than 0.
+     */
+    public void resourceClicked(final int resourceId) {
+        checkArgument(resourceId > 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        final Counts counts = countsOf(resourceId);
+        if (counts != null) {
+            counts.clicks.increment();
+            clickCount.increment();
+        }
+    }
+
+    /**
+     * @return the counters of a resource, or null when the tracker is not
+     *         started or the maximum number of resources are tracked.
+     */
+    private Counts countsOf(final int resourceId) {
+        if (!started) {
+            return null;
+        }
+        final Counts counts = countsByResourceId.get(resourceId);
+        if (counts != null) {
+            return counts;
+        }
+        if (trackedResourceCount.get() >= maximumTrackedResources) {
+            droppedCount.increment();
+            return null;
+        }
+        return track(resourceId);
+    }
+
+    private Counts track(final int resourceId) {
+        final Counts created = new Counts();
+        final Counts existing = countsByResourceId.putIfAbsent(resourceId, created);
+        if (existing != null) {
+            return existing;
+        }
+        trackedResourceCount.incrementAndGet();
+        return created;
+    }
+
+    /**
+     * Reads and resets the views and clicks counted so far and adds them to
+     * the database, in batches of at most the flush batch size. The clicks of
+     * each written batch are added to the click counts. The counts of the
+     * batches that could not be written are added back to be written with the
+     * next flush.
+     *
+     * @throws DAOException
+     *             when a batch cannot be written.
+     */
+    void flush() throws DAOException {
+        synchronized (flushLock) {
+            final long start = System.nanoTime();
+            final TreeMap<Integer, long[]> drained = drain();
+            final List<Map.Entry<Integer, long[]>> entries = new ArrayList<>(drained.entrySet());
+            Map<Integer, Long> updatedClickCounts = null;
+            int written = 0;
+            try {
+                while (written < entries.size()) {
+                    final List<Map.Entry<Integer, long[]>> batch = entries.subList(written,
+                            Math.min(entries.size(), written + flushBatchSize));
+                    final int[] resourceIds = new int[batch.size()];
+                    final long[] viewCounts = new long[batch.size()];
+                    final long[] clickCounts = new long[batch.size()];
+                    for (int index = 0; index < batch.size(); index++) {
+                        resourceIds[index] = batch.get(index).getKey();
+                        viewCounts[index] = batch.get(index).getValue()[0];
+                        clickCounts[index] = batch.get(index).getValue()[1];
+                    }
+                    flushedResourceCount.addAndGet(
+                            engagementDAO.addEngagementCounts(resourceIds, viewCounts, clickCounts));
+                    written += batch.size();
+                    updatedClickCounts = addClicks(updatedClickCounts, resourceIds, clickCounts);
+                }
+                flushCount.incrementAndGet();
+                lastFlushTimeMillis = System.currentTimeMillis();
+            } catch (final DAOException | RuntimeException exception) {
+                flushFailureCount.incrementAndGet();
+                for (final Map.Entry<Integer, long[]> entry : entries.subList(written, entries.size())) {
+                    final Counts counts = track(entry.getKey());
+                    counts.views.add(entry.getValue()[0]);
+                    counts.clicks.add(entry.getValue()[1]);
+                }
+                throw exception;
+            } finally {
+                pendingResourceCount.set(entries.size() - written);
+                if (updatedClickCounts != null) {
+                    clickCountsByResourceId = updatedClickCounts;
+                }
+                flushLatency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Reads and resets the counters of every tracked resource. When the
+     * maximum number of resources are tracked, the resources with nothing
+     * counted are forgotten.
+     *
+     * @return the views and clicks of the resources with any counted, by
+     *         resource id.
+     */
+    private TreeMap<Integer, long[]> drain() {
+        final boolean forgetIdle = trackedResourceCount.get() >= maximumTrackedResources;
+        final TreeMap<Integer, long[]> drained = new TreeMap<>();
+        for (final Map.Entry<Integer, Counts> entry : countsByResourceId.entrySet()) {
+            final Counts counts = entry.getValue();
+            long views = counts.views.sumThenReset();
+            long clicks = counts.clicks.sumThenReset();
+            if (views == 0 && clicks == 0 && forgetIdle
+                    && countsByResourceId.remove(entry.getKey(), counts)) {
+                trackedResourceCount.decrementAndGet();
+                views = counts.views.sumThenReset();
+                clicks = counts.clicks.sumThenReset();
+            }
+            if (views != 0 || clicks != 0) {
+                drained.put(entry.getKey(), new long[] { views, clicks });
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Replaces the click counts with the ones read from the database.
+     *
+     * @throws DAOException
+     *             when the click counts cannot be read; the previous ones are
+     *             then kept.
+     */
+    void reload() throws DAOException {
+        synchronized (flushLock) {
+            final long start = System.nanoTime();
+            try {
+                clickCountsByResourceId = Collections.unmodifiableMap(engagementDAO.getClickCounts());
+                loaded = true;
+                lastReloadTimeMillis = System.currentTimeMillis();
+                reloadCount.incrementAndGet();
+            } catch (final DAOException | RuntimeException exception) {
+                reloadFailureCount.incrementAndGet();
+                throw exception;
+            } finally {
+                reloadLatency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * @return true once the click counts have been read from the database.
+     */
+    public boolean isReady() {
+        return loaded;
+    }
+
+    /**
+     * @param resourceId
+     *            the id of a resource.
+     * @return the number of clicks on the link of the resource, as of the
+     *         last reload and flush; 0 when it has never been clicked.
+     */
+    public long getClickCount(final int resourceId) {
+        return clickCount(clickCountsByResourceId, resourceId);
+    }
+
+    /**
+     * Returns an order of resources by popularity for ranking them, such as
+     * breaking the ties between equally close search results. The order uses
+     * the click counts as of this call, so sorting with it is consistent even
+     * when the counts change meanwhile.
+     *
+     * @return a {@link Comparator} ordering the resources with the most clicks
+     *         first. Resources with as many clicks are equal.
+     */
+    public Comparator<Resource> getPopularityOrder() {
+        final Map<Integer, Long> clickCounts = clickCountsByResourceId;
+        return new Comparator<Resource>() {
+            @Override
+            public int compare(final Resource first, final Resource second) {
+                return Long.compare(clickCount(clickCounts, second.getResourceId()),
+                        clickCount(clickCounts, first.getResourceId()));
+            }
+        };
+    }
+
+    private static long clickCount(final Map<Integer, Long> clickCounts, final int resourceId) {
+        final Long count = clickCounts.get(resourceId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return a new click count map with the clicks added, or the given one
+     *         when no resource was clicked.
+     */
+    private Map<Integer, Long> addClicks(final Map<Integer, Long> updated, final int[] resourceIds,
+            final long[] clickCounts) {
+        Map<Integer, Long> result = updated;
+        for (int index = 0; index < resourceIds.length; index++) {
+            if (clickCounts[index] == 0) {
+                continue;
+            }
+            if (result == null) {
+                result = new HashMap<>(clickCountsByResourceId);
+            }
+            result.put(resourceIds[index], clickCount(result, resourceIds[index]) + clickCounts[index]);
+        }
+        return result;
+    }
+
+    /**
+     * @return a point-in-time {@link ResourceEngagementMetrics} snapshot.
+     */
+    @Override
+    public ResourceEngagementMetrics getMetrics() {
+        return new ResourceEngagementMetrics(
+                enabled,
+                loaded,
+                flushPeriodMillis,
+                reloadPeriodMillis,
+                trackedResourceCount.get(),
+                pendingResourceCount.get(),
+                clickCountsByResourceId.size(),
+                lastFlushTimeMillis,
+                lastReloadTimeMillis,
+                viewCount.sum(),
+                clickCount.sum(),
+                droppedCount.sum(),
+                flushCount.get(),
+                flushFailureCount.get(),
+                flushedResourceCount.get(),
+                reloadCount.get(),
+                reloadFailureCount.get(),
+                flushLatency.snapshot(),
+                reloadLatency.snapshot());
+    }
+
+    /**
+     * @param engagementDAO
+     *            the {@link ResourceEngagementDAO} the counts are written to
+     *            and the click counts read from. Cannot be null.
+     */
+    public void setEngagementDAO(final ResourceEngagementDAO engagementDAO) {
+        checkArgument(engagementDAO != null, ENGAGEMENT_DAO_NULL_ERROR_MESSAGE);
+        this.engagementDAO = engagementDAO;
+    }
+
+    /**
+     * @param enabled
+     *            false to never count views and clicks, so resources are
+     *            ranked as if none had been clicked.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param flushPeriodMillis
+     *            the delay between two writes of the counts, which bounds the
+     *            counts a node that dies loses. Must be greater than 0.
+     */
+    public void setFlushPeriodMillis(final long flushPeriodMillis) {
+        checkArgument(flushPeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Flush period");
+        this.flushPeriodMillis = flushPeriodMillis;
+    }
+
+    /**
+     * @param reloadPeriodMillis
+     *            the delay between two reads of the click counts, which
+     *            bounds how long the clicks counted by the other nodes take to
+     *            change the ranking. Must be greater than 0.
+     */
+    public void setReloadPeriodMillis(final long reloadPeriodMillis) {
+        checkArgument(reloadPeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Reload period");
+        this.reloadPeriodMillis = reloadPeriodMillis;
+    }
+
+    /**
+     * @param flushBatchSize
+     *            the maximum number of resources written by one statement.
+     *            Must be greater than 0.
+     */
+    public void setFlushBatchSize(final int flushBatchSize) {
+        checkArgument(flushBatchSize > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Flush batch size");
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * @param maximumTrackedResources
+     *            the maximum number of resources whose views and clicks are
+     *            counted in memory. Must be greater than 0.
+     */
+    public void setMaximumTrackedResources(final int maximumTrackedResources) {
+        checkArgument(maximumTrackedResources > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum tracked resources");
+        this.maximumTrackedResources = maximumTrackedResources;
+    }
+
+    /**
+     * The views and clicks of one resource.
+     */
+    private static final class Counts {
+
+        private final StripedCounter views = new StripedCounter();
+        private final StripedCounter clicks = new StripedCounter();
+    }
+}
@@ -29,7 +29,11 @@ public enum ExcelExceptionTypes {
     CATEGORY_DIFFICULTY_NOT_AN_INTEGER(Constants.UPLOAD_CELL_DIFFICULTY_NOT_AN_INTEGER_ERROR_I18N,
             "One of the category difficulties is not an integer in cell: {0}"),
     RESOURCE_EXISTS_ERROR(Constants.UPLOAD_RESOURCE_EXISTS_ERROR_I18N,
-            "The resource name in cell {0} already exists in the database");
+            "The resource name in cell {0} already exists in the database"),
+    RESOURCE_NOT_SAVED(Constants.UPLOAD_RESOURCE_NOT_SAVED_ERROR_I18N,
+            "The resource in cell {0} could not be saved to the database"),
+    NAME_LOOKUP_ERROR(Constants.UPLOAD_NAME_LOOKUP_ERROR_I18N,
+            "The resource types and categories for file {0} could not be read from the database");
 
     private final String i18nMessage;
     private final String logMessage;
@@ -0,0 +1,328 @@
+package com.cerner.devcenter.education.helpers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.cerner.devcenter.education.models.Resource;
+import com.google.common.collect.Ordering;
+
+/**
+ * Ranks candidates by the Levenshtein distance of a key from a search string,
+ * ignoring case and surrounding whitespace, and returns the closest ones.
+ * <p>
+ * Unlike sorting with a distance-computing {@link Comparator}, which computes
+ * two distances per comparison, every candidate is scored once:
+ * <ul>
+ * <li>the search is normalized once and each key once per candidate</li>
+ * <li>only the best K candidates are kept, in a bounded heap, instead of
+ * sorting all of them</li>
+ * <li>once the heap is full the distance is computed with the distance of the
+ * worst kept candidate as a threshold; the computation only fills the band of
+ * the edit-distance table within the threshold and stops as soon as a row
+ * exceeds it</li>
+ * </ul>
+ * Candidates with the same distance are ordered by an optional secondary key,
+ * then by an optional tie breaker and finally by their position in the input,
+ * so {@link #forResources(String)} orders resources exactly as
+ * {@link ResourceNameSorter} and {@link #forStrings(String)} orders strings
+ * exactly as {@link StringDistanceSorter}.
+ *
+ * @param <T>
+ *            the type of the ranked candidates
+ */
+public class FuzzyRanker<T> {
+
+    private static final String INVALID_SEARCH = "Search string cannot be null or empty";
+    private static final String KEY_FUNCTION_NULL = "Key function cannot be null";
+    private static final String CANDIDATES_NULL = "Candidates cannot be null";
+    private static final String LIMIT_INVALID = "Limit must be greater than 0";
+    private static final String KEY_NULL = "Candidate key cannot be null";
+    private static final int UNBOUNDED = Integer.MAX_VALUE - 1;
+
+    /**
+     * Extracts the string a candidate is ranked by.
+     *
+     * @param <T>
+     *            the type of the candidates
+     */
+    public interface KeyFunction<T> {
+        /**
+         * @param candidate
+         *            the candidate being ranked
+         * @return the key of the candidate. Cannot be null.
+         */
+        String apply(T candidate);
+    }
+
+    private static final KeyFunction<Resource> RESOURCE_NAME = new KeyFunction<Resource>() {
+        @Override
+        public String apply(final Resource resource) {
+            return resource.getResourceName();
+        }
+    };
+
+    private static final KeyFunction<Resource> RESOURCE_DESCRIPTION = new KeyFunction<Resource>() {
+        @Override
+        public String apply(final Resource resource) {
+            return resource.getDescription();
+        }
+    };
+
+    private static final KeyFunction<String> IDENTITY = new KeyFunction<String>() {
+        @Override
+        public String apply(final String candidate) {
+            return candidate;
+        }
+    };
+
+    private final String search;
+    private final KeyFunction<? super T> primaryKey;
+    private final KeyFunction<? super T> secondaryKey;
+    private final Comparator<? super T> tieBreaker;
+    private final Comparator<Scored<T>> bestFirst = new Comparator<Scored<T>>() {
+        @Override
+        public int compare(final Scored<T> first, final Scored<T> second) {
+            int result = Integer.compare(first.primaryDistance, second.primaryDistance);
+            if (result == 0) {
+                result = Integer.compare(first.secondaryDistance, second.secondaryDistance);
+            }
+            if (result == 0 && tieBreaker != null) {
+                result = tieBreaker.compare(first.candidate, second.candidate);
+            }
+            return result != 0 ? result : Integer.compare(first.position, second.position);
+        }
+    };
+
+    /**
+     * @param search
+     *            the string candidates are compared with. Cannot be null or
+     *            empty.
+     * @param primaryKey
+     *            the {@link KeyFunction} for the key candidates are ranked by.
+     *            Cannot be null.
+     * @param secondaryKey
+     *            the {@link KeyFunction} for the key that orders candidates
+     *            with the same primary distance, or null.
+     * @param tieBreaker
+     *            the {@link Comparator} that orders candidates with the same
+     *            distances, or null to keep their input order.
+     * @throws IllegalArgumentException
+     *             when search is null or empty or primaryKey is null.
+     */
+    public FuzzyRanker(final String search, final KeyFunction<? super T> primaryKey,
+            final KeyFunction<? super T> secondaryKey, final Comparator<? super T> tieBreaker) {
+        checkArgument(StringUtils.isNotEmpty(search), INVALID_SEARCH);
+        checkArgument(primaryKey != null, KEY_FUNCTION_NULL);
+        this.search = normalize(search);
+        this.primaryKey = primaryKey;
+        this.secondaryKey = secondaryKey;
+        this.tieBreaker = tieBreaker;
+    }
+
+    /**
+     * Creates a ranker for {@link Resource} objects that ranks by name and
+     * then by description, like {@link ResourceNameSorter}.
+     *
+     * @param search
+     *            represents the user entered search. Cannot be null or empty.
+     * @return a {@link FuzzyRanker} for resources.
+     * @throws IllegalArgumentException
+     *             when search string is null or empty
+     */
+    public static FuzzyRanker<Resource> forResources(final String search) {
+        return new FuzzyRanker<>(search, RESOURCE_NAME, RESOURCE_DESCRIPTION, null);
+    }
+
+    /**
+     * Creates a ranker for {@link Resource} objects that ranks by name and
+     * then by description, like {@link #forResources(String)}, and orders the
+     * resources with the same distances with a tie breaker, such as their
+     * popularity.
+     *
+     * @param search
+     *            represents the user entered search. Cannot be null or empty.
+     * @param tieBreaker
+     *            the {@link Comparator} that orders resources with the same
+     *            distances, or null to keep their input order.
+     * @return a {@link FuzzyRanker} for resources.
+     * @throws IllegalArgumentException
+     *             when search string is null or empty
+     */
+    public static FuzzyRanker<Resource> forResources(final String search,
+            final Comparator<? super Resource> tieBreaker) {
+        return new FuzzyRanker<>(search, RESOURCE_NAME, RESOURCE_DESCRIPTION, tieBreaker);
+    }
+
+    /**
+     * Creates a ranker for strings that orders strings with the same distance
+     * alphabetically, like {@link StringDistanceSorter}.
+     *
+     * @param search
+     *            represents the user entered search. Cannot be null or empty.
+     * @return a {@link FuzzyRanker} for strings.
+     * @throws IllegalArgumentException
+     *             when search string is null or empty
+     */
+    public static FuzzyRanker<String> forStrings(final String search) {
+        return new FuzzyRanker<>(search, IDENTITY, null, Ordering.<String> natural());
+    }
+
+    /**
+     * Returns the closest candidates, closest first.
+     *
+     * @param candidates
+     *            the candidates to rank. Cannot be null; their keys cannot be
+     *            null.
+     * @param limit
+     *            the maximum number of candidates to return. Must be greater
+     *            than 0.
+     * @return a new {@link List} of at most limit candidates.
+     * @throws IllegalArgumentException
+     *             when candidates is null, a key is null or limit is not
+     *             positive.
+     */
+    public List<T> top(final Collection<? extends T> candidates, final int limit) {
+        checkArgument(candidates != null, CANDIDATES_NULL);
+        checkArgument(limit > 0, LIMIT_INVALID);
+        final PriorityQueue<Scored<T>> worstFirst = new PriorityQueue<>(Math.min(limit, candidates.size()) + 1,
+                Collections.reverseOrder(bestFirst));
+        int position = 0;
+        for (final T candidate : candidates) {
+            final Scored<T> worst = worstFirst.size() == limit ? worstFirst.peek() : null;
+            final int primaryBound = worst == null ? UNBOUNDED : worst.primaryDistance;
+            final int primaryDistance = boundedDistance(key(primaryKey, candidate), search, primaryBound);
+            if (primaryDistance > primaryBound) {
+                position++;
+                continue;
+            }
+            int secondaryDistance = 0;
+            if (secondaryKey != null) {
+                final int secondaryBound = worst != null && primaryDistance == worst.primaryDistance
+                        ? worst.secondaryDistance : UNBOUNDED;
+                secondaryDistance = boundedDistance(key(secondaryKey, candidate), search, secondaryBound);
+                if (secondaryDistance > secondaryBound) {
+                    position++;
+                    continue;
+                }
+            }
+            final Scored<T> scored = new Scored<>(candidate, primaryDistance, secondaryDistance, position++);
+            if (worst == null) {
+                worstFirst.add(scored);
+            } else if (bestFirst.compare(scored, worst) < 0) {
+                worstFirst.poll();
+                worstFirst.add(scored);
+            }
+        }
+        final List<Scored<T>> ranked = new ArrayList<>(worstFirst);
+        Collections.sort(ranked, bestFirst);
+        final List<T> result = new ArrayList<>(ranked.size());
+        for (final Scored<T> scored : ranked) {
+            result.add(scored.candidate);
+        }
+        return result;
+    }
+
+    /**
+     * Returns all candidates, closest first.
+     *
+     * @param candidates
+     *            the candidates to rank. Cannot be null; their keys cannot be
+     *            null.
+     * @return a new {@link List} holding every candidate.
+     * @throws IllegalArgumentException
+     *             when candidates is null or a key is null.
+     */
+    public List<T> rank(final Collection<? extends T> candidates) {
+        checkArgument(candidates != null, CANDIDATES_NULL);
+        return candidates.isEmpty() ? new ArrayList<T>() : top(candidates, candidates.size());
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings when it is at
+     * most threshold. Only the cells of the edit-distance table within
+     * threshold of the diagonal are computed, and the computation stops as
+     * soon as a whole row exceeds the threshold.
+     *
+     * @param first
+     *            the first string. Cannot be null.
+     * @param second
+     *            the second string. Cannot be null.
+     * @param threshold
+     *            the largest distance of interest. Cannot be negative.
+     * @return the distance when it is at most threshold, otherwise threshold
+     *         + 1.
+     */
+    static int boundedDistance(final String first, final String second, final int threshold) {
+        final int firstLength = first.length();
+        final int secondLength = second.length();
+        final int bound = Math.min(threshold, Math.max(firstLength, secondLength));
+        final int tooFar = bound + 1;
+        if (Math.abs(firstLength - secondLength) > bound) {
+            return threshold + 1;
+        }
+        if (firstLength == 0 || secondLength == 0) {
+            return Math.max(firstLength, secondLength);
+        }
+        int[] previous = new int[secondLength + 1];
+        int[] current = new int[secondLength + 1];
+        for (int j = 0; j <= secondLength; j++) {
+            previous[j] = Math.min(j, tooFar);
+        }
+        for (int i = 1; i <= firstLength; i++) {
+            final int from = Math.max(1, i - bound);
+            final int to = Math.min(secondLength, i + bound);
+            current[from - 1] = from == 1 ? Math.min(i, tooFar) : tooFar;
+            int rowMinimum = current[from - 1];
+            final char firstChar = first.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                final int substitution = previous[j - 1] + (firstChar == second.charAt(j - 1) ? 0 : 1);
+                final int value = Math.min(Math.min(current[j - 1], previous[j]) + 1, substitution);
+                current[j] = Math.min(value, tooFar);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < secondLength) {
+                current[to + 1] = tooFar;
+            }
+            if (rowMinimum > bound) {
+                return threshold + 1;
+            }
+            final int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[secondLength] > bound ? threshold + 1 : previous[secondLength];
+    }
+
+    private static String normalize(final String text) {
+        return text.trim().toLowerCase();
+    }
+
+    private static <T> String key(final KeyFunction<? super T> keyFunction, final T candidate) {
+        final String key = keyFunction.apply(candidate);
+        checkArgument(key != null, KEY_NULL);
+        return normalize(key);
+    }
+
+    private static final class Scored<T> {
+        private final T candidate;
+        private final int primaryDistance;
+        private final int secondaryDistance;
+        private final int position;
+
+        private Scored(final T candidate, final int primaryDistance, final int secondaryDistance,
+                final int position) {
+            this.candidate = candidate;
+            this.primaryDistance = primaryDistance;
+            this.secondaryDistance = secondaryDistance;
+            this.position = position;
+        }
+    }
+}
@@ -11,11 +11,18 @@ import com.cerner.devcenter.education.models.Resource;
 /**
  * Compares {@link Resource} objects based on LevenshteinDistance of their name
  * and if score difference is zero, compares based on description.
+ * <p>
+ * Every comparison computes up to four distances, so sorting n resources
+ * computes O(n log n) of them. Use {@link FuzzyRanker#forResources(String)},
+ * which orders resources the same way but scores each resource once.
+ * </p>
  * 
+ * @deprecated use {@link FuzzyRanker#forResources(String)}
  * @author Anudeep Kumar Gadam (AG045334)
  * @author Santosh Kumar (SK051343)
  * 
  */
+@Deprecated
 public class ResourceNameSorter implements Comparator<Resource> {
 
     private String search;
@@ -9,10 +9,17 @@ import org.apache.commons.lang3.StringUtils;
 /**
  * Used to compares the two strings based on their Levenshtein distance from the
  * search string.
+ * <p>
+ * Every comparison computes the distances several times. Use
+ * {@link FuzzyRanker#forStrings(String)}, which orders strings the same way but
+ * scores each string once.
+ * </p>
  * 
+ * @deprecated use {@link FuzzyRanker#forStrings(String)}
  * @author Abhi Purella (AP045635)
  *
  */
+@Deprecated
 public class StringDistanceSorter implements Comparator<String> {
 
     private String search;
@@ -1,34 +1,51 @@
 package com.cerner.devcenter.education.managers;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.EncryptedDocumentException;
-import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellAddress;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.xml.sax.SAXException;
 
 import com.cerner.devcenter.education.admin.CategoryDAO;
 import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.admin.ResourceTypeDAO;
 import com.cerner.devcenter.education.exceptions.ExcelException;
 import com.cerner.devcenter.education.exceptions.ExcelExceptionTypes;
@@ -36,6 +53,8 @@ import com.cerner.devcenter.education.exceptions.ItemAlreadyExistsException;
 import com.cerner.devcenter.education.exceptions.MultiExcelException;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceStatus;
+import com.cerner.devcenter.education.models.ResourceType;
 import com.cerner.devcenter.education.utils.Constants;
 import com.cerner.devcenter.education.utils.MessageHandler;
 import com.google.common.net.MediaType;
@@ -63,7 +82,13 @@ public class BulkUploadManager {
     private static final int LINK_COL = 2;
     private static final int TYPE_COL = 3;
     private static final int CATEGORIES_COL = 4;
-    private Map<Integer, Integer> resourceDifficultyForCategory = new HashMap<>();
+    private static final int MIN_DIFFICULTY_LEVEL = 1;
+    private static final int MAX_DIFFICULTY_LEVEL = 5;
+    private static final int UPLOAD_CHUNK_SIZE = 500;
+    private static final String RESOURCE_OWNER_INVALID = "Resource owner cannot be null/empty/blank";
+    private static final String RESOURCE_EXISTS_ERROR = "Resource {0} already exists in resource table";
+    private static final String UPLOAD_FILE_PREFIX = "bulk-upload";
+    private static final String UPLOAD_FILE_SUFFIX = ".tmp";
 
     private static final List<String> ALLOWED_FILE_TYPES = Arrays.asList(MediaType.MICROSOFT_EXCEL.toString(),
             MediaType.OOXML_SHEET.toString());
@@ -73,7 +98,7 @@ public class BulkUploadManager {
     private static ResourceBundle i18nBundle = ResourceBundle.getBundle("i18n", Locale.getDefault());
 
     /***
-     * Wrapper for {@link BulkUploadManager#addExcelData(MultipartFile)}. Reads
+     * Wrapper for {@link BulkUploadManager#addExcelData(MultipartFile, String)}. Reads
      * the {@link Resource} values out of a given file and add them to the
      * database. Log and interpret any {@link ExcelException} into a user
      * message.
@@ -81,13 +106,16 @@ public class BulkUploadManager {
      * @param file
      *            {@link MultipartFile} containing the resource data to be added
      *            to the site. Should be a .xls or .xlsx file
+     * @param resourceOwner
+     *            {@link String} user id of the admin uploading the file. Cannot
+     *            be null, empty or blank.
      * @return {@link MessageHandler} containing i18n'd messages for the
      *         warnings, errors, or success
      */
-    public MessageHandler addExcelDataSafely(MultipartFile file) {
+    public MessageHandler addExcelDataSafely(MultipartFile file, String resourceOwner) {
         MessageHandler messageHandler = new MessageHandler();
         try {
-            addExcelData(file);
+            addExcelData(file, resourceOwner);
         } catch (MultiExcelException multiEx) {
             List<ExcelException> exceptions = multiEx.getExceptionList();
             if (!exceptions.isEmpty()) {
@@ -114,138 +142,460 @@ public class BulkUploadManager {
 
     /***
      * Read the {@link Resource} values out of a given file and add them to the
-     * database.
+     * database. Rows are parsed without touching the database and collected
+     * into chunks of {@value #UPLOAD_CHUNK_SIZE}. .xlsx files are streamed one
+     * row at a time; legacy .xls files are loaded with the usermodel. As soon
+     * as a chunk is full it is added and dropped, so only one chunk of rows is
+     * held at a time:
+     * <ol>
+     * <li>the resource type names and the category names of the chunk are
+     * resolved with one query each</li>
+     * <li>the resource names are checked for duplicates with one set query.
+     * Names repeated from an earlier chunk are found because that chunk has
+     * already been written</li>
+     * <li>the remaining resources and their category relations are written
+     * with JDBC batches in one transaction</li>
+     * </ol>
+     * A row that fails any stage is reported against the offending cell and
+     * skipped; the other rows are still added. The rows of a chunk whose names
+     * cannot be checked or whose transaction fails are reported as
+     * {@link ExcelExceptionTypes#RESOURCE_NOT_SAVED} against their name cell.
+     * When the resource types or categories of a chunk cannot be read, its rows
+     * are skipped and the upload reports a single
+     * {@link ExcelExceptionTypes#NAME_LOOKUP_ERROR}, ahead of the row errors.
      * 
      * @param file
      *            {@link MultipartFile} containing the resource data to be added
      *            to the site. Should be a .xls or .xlsx file
+     * @param resourceOwner
+     *            {@link String} user id of the admin uploading the file, stored
+     *            as the owner of every added resource. Cannot be null, empty
+     *            or blank.
      * @throws MultiExcelException
      *             when there are errors with the rows
      * @throws ExcelException
      *             when there is an error with the workbook
+     * @throws IllegalArgumentException
+     *             when resourceOwner is null, empty or blank
      */
-    public void addExcelData(MultipartFile file) throws MultiExcelException, ExcelException {
-        List<ExcelException> exceptions = new ArrayList<ExcelException>();
-        Workbook wb = null;
-        wb = createWorkbook(file);
-        if (wb == null) {
-            throw new ExcelException(ExcelExceptionTypes.FILE_ERROR, file.getOriginalFilename(), null);
+    public void addExcelData(MultipartFile file, String resourceOwner) throws MultiExcelException, ExcelException {
+        checkArgument(StringUtils.isNotBlank(resourceOwner), RESOURCE_OWNER_INVALID);
+        if (!ALLOWED_FILE_TYPES.contains(file.getContentType())) {
+            throw new ExcelException(ExcelExceptionTypes.FILE_TYPE_ERROR, file.getOriginalFilename(), null);
         }
 
-        for (Row row : wb.getSheetAt(0)) {
-            if (row.getRowNum() == 0) {
-                continue;
-            }
-            try {
-                Resource newResource = createResourceFromRow(row);
-                resourceManager.addResourceAndRelations(newResource);
-            } catch (ExcelException e) {
-                exceptions.add(e);
-            } catch (ItemAlreadyExistsException e) {
-                exceptions.add(new ExcelException(ExcelExceptionTypes.RESOURCE_EXISTS_ERROR,
-                        row.getCell(NAME_COL).getAddress(), e));
+        SortedMap<Integer, ExcelException> rowExceptions = new TreeMap<>();
+        List<DAOException> lookupExceptions = new ArrayList<DAOException>();
+        List<ResourceRow> pendingRows = new ArrayList<ResourceRow>(UPLOAD_CHUNK_SIZE);
+        readRows(file, pendingRows, resourceOwner, rowExceptions, lookupExceptions);
+        addRows(pendingRows, resourceOwner, rowExceptions, lookupExceptions);
+        if (!lookupExceptions.isEmpty() || !rowExceptions.isEmpty()) {
+            List<ExcelException> exceptions = new ArrayList<ExcelException>();
+            if (!lookupExceptions.isEmpty()) {
+                exceptions.add(new ExcelException(ExcelExceptionTypes.NAME_LOOKUP_ERROR, file.getOriginalFilename(),
+                        lookupExceptions.get(0)));
             }
-        }
-        if (!exceptions.isEmpty()) {
+            exceptions.addAll(rowExceptions.values());
             throw new MultiExcelException(exceptions);
         }
     }
 
     /***
-     * Extract the data from excel {@link Row} into {@link Resource}
+     * Extract the data from an excel {@link Row} without resolving any names
+     * against the database.
      * 
      * @param row
      *            {@link Row} containing the resource data in the expected
      *            column order. Cannot be null
-     * @return {@link Resource} containing the values extracted from the Excel
-     *         {@link Row}
+     * @return {@link ResourceRow} containing the values extracted from the
+     *         Excel {@link Row} and the addresses of the cells they came from
      * @throws ExcelException
      *             when there is an error with the data in the {@link Row}
      * @throws NullPointerException
      *             when row is null
      */
-    public Resource createResourceFromRow(Row row) throws ExcelException {
+    ResourceRow parseRow(Row row) throws ExcelException {
         checkNotNull(row, "Row cannot be null");
-        Resource newResource = new Resource();
-        resourceDifficultyForCategory = new HashMap<>();
+        return parseRow(row.getRowNum(), toSheetCells(row));
+    }
+
+    /***
+     * Extract the data from the cells of one spreadsheet row without resolving
+     * any names against the database. This is shared by the streaming .xlsx
+     * reader and the usermodel reader.
+     * 
+     * @param rowNum
+     *            0-based index of the row
+     * @param cells
+     *            {@link List} of the {@link SheetCell} in the row, in column
+     *            order
+     * @return {@link ResourceRow} containing the values extracted from the
+     *         cells and the addresses of the cells they came from
+     * @throws ExcelException
+     *             when there is an error with the data in the row
+     */
+    ResourceRow parseRow(int rowNum, List<SheetCell> cells) throws ExcelException {
+        ResourceRow resourceRow = new ResourceRow(rowNum);
         int expectedColumn = 0;
-        for (Cell cell : row) {
+        for (SheetCell cell : cells) {
             int column = cell.getColumnIndex();
             if (column != expectedColumn) {
                 throw new ExcelException(ExcelExceptionTypes.SKIPPED_CELL, cell.getAddress(), null);
             }
             switch (column) {
             case NAME_COL:
-                newResource.setResourceName(extractCellString(cell));
+                resourceRow.name = extractCellString(cell);
+                resourceRow.nameAddress = cell.getAddress();
                 break;
             case DESC_COL:
-                newResource.setDescription(extractCellString(cell));
+                resourceRow.description = extractCellString(cell);
                 break;
             case LINK_COL:
                 try {
-                    newResource.setResourceLink(new URL(extractCellString(cell)));
+                    resourceRow.link = new URL(extractCellString(cell));
                 } catch (MalformedURLException e) {
                     throw new ExcelException(ExcelExceptionTypes.LINK, cell.getAddress(), e);
                 }
                 break;
             case TYPE_COL:
-                try {
-                    newResource.setResourceType(resourceTypeDAO.getByName(extractCellString(cell)));
-                } catch (DAOException e) {
-                    throw new ExcelException(ExcelExceptionTypes.RESOURCE_TYPE, cell.getAddress(), e);
-                }
+                resourceRow.typeName = extractCellString(cell);
+                resourceRow.typeAddress = cell.getAddress();
                 break;
             case CATEGORIES_COL:
-                List<Category> categories = extractCategories(cell);
-                for (Category category : categories) {
-                    newResource.addCategory(category);
-                }
-                newResource.setResourceDifficultyForCategory(resourceDifficultyForCategory);
+                resourceRow.difficultyForCategoryName = extractCategoryDifficulties(cell);
+                resourceRow.categoriesAddress = cell.getAddress();
             }
             expectedColumn++;
         }
-        return newResource;
-
+        if (expectedColumn <= CATEGORIES_COL) {
+            ExcelExceptionTypes type = expectedColumn == CATEGORIES_COL ? ExcelExceptionTypes.NO_CATEGORY
+                    : ExcelExceptionTypes.SKIPPED_CELL;
+            throw new ExcelException(type, new CellAddress(rowNum, expectedColumn), null);
+        }
+        return resourceRow;
     }
 
     /***
-     * Create a workbook from the given {@link MultipartFile}.
+     * Parse every data row of the first sheet of the uploaded file, adding
+     * each full chunk of rows as it is read. The upload is copied to a
+     * temporary file first so that an .xlsx package can be opened from disk
+     * and streamed with {@link XlsxSheetReader} rather than unzipped into
+     * memory. Any other file is handed to {@link WorkbookFactory}, which keeps
+     * legacy .xls files on the HSSF usermodel.
      * 
      * @param file
-     *            {@link MultipartFile} containing the data to be made into a
-     *            {@link Workbook}
-     * @return {@link Workbook} created from the file.
+     *            {@link MultipartFile} containing the resource data
+     * @param pendingRows
+     *            {@link List} of the parsed rows not added yet. Holds the
+     *            last, partial chunk when this returns.
+     * @param resourceOwner
+     *            {@link String} user id to set as the owner of each resource
+     * @param rowExceptions
+     *            {@link SortedMap} of row number to the {@link ExcelException}
+     *            for that row. Rows that cannot be parsed or added are added
+     *            here.
+     * @param lookupExceptions
+     *            {@link List} of the {@link DAOException} of every chunk whose
+     *            names could not be resolved
      * @throws ExcelException
-     *             when it cannot create the workbook from the file.
+     *             when the file cannot be read as a workbook
      */
-    private Workbook createWorkbook(MultipartFile file) throws ExcelException {
-        if (!ALLOWED_FILE_TYPES.contains(file.getContentType())) {
-            throw new ExcelException(ExcelExceptionTypes.FILE_TYPE_ERROR, file.getOriginalFilename(), null);
-        }
-
+    private void readRows(MultipartFile file, final List<ResourceRow> pendingRows, final String resourceOwner,
+            final SortedMap<Integer, ExcelException> rowExceptions, final List<DAOException> lookupExceptions)
+            throws ExcelException {
+        File uploadedFile = null;
         try {
-            return WorkbookFactory.create(file.getInputStream());
+            uploadedFile = File.createTempFile(UPLOAD_FILE_PREFIX, UPLOAD_FILE_SUFFIX);
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, uploadedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (isOOXML(uploadedFile)) {
+                XlsxSheetReader.readFirstSheet(uploadedFile, new XlsxSheetReader.RowHandler() {
+                    @Override
+                    public void handleRow(int rowNum, List<SheetCell> cells) {
+                        addParsedRow(rowNum, cells, pendingRows, resourceOwner, rowExceptions, lookupExceptions);
+                    }
+                });
+            } else {
+                try (Workbook wb = WorkbookFactory.create(uploadedFile)) {
+                    for (Row row : wb.getSheetAt(0)) {
+                        addParsedRow(row.getRowNum(), toSheetCells(row), pendingRows, resourceOwner, rowExceptions,
+                                lookupExceptions);
+                    }
+                }
+            }
         } catch (EncryptedDocumentException e) {
             throw new ExcelException(ExcelExceptionTypes.ENCRYPTED, file.getOriginalFilename(), e);
-        } catch (InvalidFormatException e) {
+        } catch (OpenXML4JException e) {
+            throw new ExcelException(ExcelExceptionTypes.FILE_FORMAT_ERROR, file.getOriginalFilename(), e);
+        } catch (SAXException e) {
             throw new ExcelException(ExcelExceptionTypes.FILE_FORMAT_ERROR, file.getOriginalFilename(), e);
         } catch (IOException e) {
             throw new ExcelException(ExcelExceptionTypes.FILE_ERROR, file.getOriginalFilename(), e);
+        } finally {
+            if (uploadedFile != null && !uploadedFile.delete()) {
+                LOGGER.warn("Could not delete temporary upload file " + uploadedFile);
+            }
+        }
+    }
+
+    /***
+     * Parse one data row, skipping the header row and rows without any cells.
+     * When the pending rows make up a full chunk they are added and cleared.
+     * 
+     * @param rowNum
+     *            0-based index of the row
+     * @param cells
+     *            {@link List} of the {@link SheetCell} in the row
+     * @param pendingRows
+     *            {@link List} of the parsed rows not added yet
+     * @param resourceOwner
+     *            {@link String} user id to set as the owner of each resource
+     * @param rowExceptions
+     *            {@link SortedMap} of row number to the {@link ExcelException}
+     *            for that row. A row that cannot be parsed or added is added
+     *            here.
+     * @param lookupExceptions
+     *            {@link List} of the {@link DAOException} of every chunk whose
+     *            names could not be resolved
+     */
+    private void addParsedRow(int rowNum, List<SheetCell> cells, List<ResourceRow> pendingRows, String resourceOwner,
+            SortedMap<Integer, ExcelException> rowExceptions, List<DAOException> lookupExceptions) {
+        if (rowNum == 0 || cells.isEmpty()) {
+            return;
+        }
+        try {
+            pendingRows.add(parseRow(rowNum, cells));
+        } catch (ExcelException e) {
+            rowExceptions.put(rowNum, e);
+        }
+        if (pendingRows.size() >= UPLOAD_CHUNK_SIZE) {
+            addRows(pendingRows, resourceOwner, rowExceptions, lookupExceptions);
+            pendingRows.clear();
+        }
+    }
+
+    /***
+     * Resolve, check and write one chunk of parsed rows.
+     * 
+     * @param parsedRows
+     *            {@link List} of the parsed rows of the chunk
+     * @param resourceOwner
+     *            {@link String} user id to set as the owner of each resource
+     * @param rowExceptions
+     *            {@link SortedMap} of row number to the {@link ExcelException}
+     *            for that row. Rows that cannot be added are added here.
+     * @param lookupExceptions
+     *            {@link List} of the {@link DAOException} of every chunk whose
+     *            names could not be resolved. The chunk is added here when its
+     *            names cannot be resolved, and its rows are skipped.
+     */
+    private void addRows(List<ResourceRow> parsedRows, String resourceOwner,
+            SortedMap<Integer, ExcelException> rowExceptions, List<DAOException> lookupExceptions) {
+        if (parsedRows.isEmpty()) {
+            return;
+        }
+        List<ResourceRow> resolvedRows;
+        try {
+            resolvedRows = resolveNames(parsedRows, resourceOwner, rowExceptions);
+        } catch (DAOException e) {
+            LOGGER.error("Could not resolve the resource type and category names of a bulk upload chunk", e);
+            lookupExceptions.add(e);
+            return;
+        }
+        List<ResourceRow> newRows = removeExistingResources(resolvedRows, rowExceptions);
+        addResources(newRows, rowExceptions);
+    }
+
+    /***
+     * Read the cells of a usermodel {@link Row}.
+     * 
+     * @param row
+     *            {@link Row} to read
+     * @return {@link List} of a {@link SheetCell} for every physical cell of
+     *         the row, in column order
+     */
+    private List<SheetCell> toSheetCells(Row row) {
+        List<SheetCell> cells = new ArrayList<SheetCell>(row.getPhysicalNumberOfCells());
+        for (Cell cell : row) {
+            cells.add(SheetCell.fromCell(cell));
+        }
+        return cells;
+    }
+
+    /***
+     * Check whether a file starts with the zip header of an OOXML package,
+     * meaning it is an .xlsx file rather than a legacy OLE2 .xls file.
+     * 
+     * @param file
+     *            {@link File} to check
+     * @return true when the file is an OOXML package
+     * @throws IOException
+     *             when the file cannot be read
+     */
+    private boolean isOOXML(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return POIXMLDocument.hasOOXMLHeader(in);
         }
     }
 
     /***
-     * Attempts to extract a {@link String} from the {@link Cell}
+     * Resolve the resource type and category names of a chunk of rows with one
+     * query each and build the {@link Resource} for each row whose names all exist.
+     * 
+     * @param parsedRows
+     *            {@link List} of the parsed rows
+     * @param resourceOwner
+     *            {@link String} user id to set as the owner of each resource
+     * @param rowExceptions
+     *            {@link SortedMap} of row number to the {@link ExcelException}
+     *            for that row. Rows with an unknown type or category are added
+     *            here.
+     * @return {@link List} of the rows whose {@link Resource} was built
+     * @throws DAOException
+     *             when the resource types or categories cannot be read
+     */
+    private List<ResourceRow> resolveNames(List<ResourceRow> parsedRows, String resourceOwner,
+            SortedMap<Integer, ExcelException> rowExceptions) throws DAOException {
+        Set<String> typeNames = new HashSet<String>();
+        Set<String> categoryNames = new HashSet<String>();
+        for (ResourceRow row : parsedRows) {
+            typeNames.add(row.typeName);
+            categoryNames.addAll(row.difficultyForCategoryName.keySet());
+        }
+        Map<String, ResourceType> typesByName = resourceTypeDAO.getByNames(typeNames);
+        Map<String, Category> categoriesByName = categoryDAO.getByNames(categoryNames);
+
+        List<ResourceRow> resolvedRows = new ArrayList<ResourceRow>();
+        for (ResourceRow row : parsedRows) {
+            ResourceType resourceType = typesByName.get(row.typeName);
+            if (resourceType == null) {
+                rowExceptions.put(row.rowNum,
+                        new ExcelException(ExcelExceptionTypes.RESOURCE_TYPE, row.typeAddress, null));
+                continue;
+            }
+            Resource newResource = new Resource();
+            Map<Integer, Integer> resourceDifficultyForCategory = new HashMap<>();
+            boolean categoriesFound = true;
+            for (Map.Entry<String, Integer> entry : row.difficultyForCategoryName.entrySet()) {
+                Category category = categoriesByName.get(entry.getKey());
+                if (category == null) {
+                    rowExceptions.put(row.rowNum,
+                            new ExcelException(ExcelExceptionTypes.CATEGORY_NAME, row.categoriesAddress, null));
+                    categoriesFound = false;
+                    break;
+                }
+                newResource.addCategory(category);
+                resourceDifficultyForCategory.put(category.getId(), entry.getValue());
+            }
+            if (!categoriesFound) {
+                continue;
+            }
+            newResource.setResourceName(row.name);
+            newResource.setDescription(row.description);
+            newResource.setResourceLink(row.link);
+            newResource.setResourceType(resourceType);
+            newResource.setResourceOwner(resourceOwner);
+            newResource.setResourceStatus(ResourceStatus.Available.toString());
+            newResource.setResourceDifficultyForCategory(resourceDifficultyForCategory);
+            row.resource = newResource;
+            resolvedRows.add(row);
+        }
+        return resolvedRows;
+    }
+
+    /***
+     * Check the names of a chunk of resolved rows against the database with a
+     * single query. A row whose name already exists, or repeats an earlier row
+     * of the same chunk, is reported as a {@link ExcelExceptionTypes#RESOURCE_EXISTS_ERROR}.
+     * When the names cannot be checked, every row is reported as a
+     * {@link ExcelExceptionTypes#RESOURCE_NOT_SAVED} against its name cell.
+     * 
+     * @param resolvedRows
+     *            {@link List} of the rows whose {@link Resource} was built
+     * @param rowExceptions
+     *            {@link SortedMap} of row number to the {@link ExcelException}
+     *            for that row. Duplicate rows and rows whose name could not be
+     *            checked are added here.
+     * @return {@link List} of the rows whose {@link Resource} should be added
+     */
+    private List<ResourceRow> removeExistingResources(List<ResourceRow> resolvedRows,
+            SortedMap<Integer, ExcelException> rowExceptions) {
+        List<ResourceRow> newRows = new ArrayList<ResourceRow>();
+        if (resolvedRows.isEmpty()) {
+            return newRows;
+        }
+        Set<String> resourceNames = new HashSet<String>();
+        for (ResourceRow row : resolvedRows) {
+            resourceNames.add(row.name);
+        }
+        Set<String> existingNames;
+        try {
+            existingNames = resourceManager.getExistingResourceNames(resourceNames);
+        } catch (ManagerException e) {
+            LOGGER.error("Could not check the resource names of a bulk upload chunk", e);
+            for (ResourceRow row : resolvedRows) {
+                rowExceptions.put(row.rowNum,
+                        new ExcelException(ExcelExceptionTypes.RESOURCE_NOT_SAVED, row.nameAddress, e));
+            }
+            return newRows;
+        }
+        Set<String> uploadedNames = new HashSet<String>();
+        for (ResourceRow row : resolvedRows) {
+            if (existingNames.contains(row.name) || !uploadedNames.add(row.name)) {
+                ItemAlreadyExistsException cause = new ItemAlreadyExistsException(
+                        MessageFormat.format(RESOURCE_EXISTS_ERROR, row.name));
+                rowExceptions.put(row.rowNum,
+                        new ExcelException(ExcelExceptionTypes.RESOURCE_EXISTS_ERROR, row.nameAddress, cause));
+            } else {
+                newRows.add(row);
+            }
+        }
+        return newRows;
+    }
+
+    /***
+     * Write the {@link Resource} of every new row with
+     * {@link ResourceManager#addResourcesAndRelations(List)}. Each resource
+     * that was rolled back with its chunk is reported as a
+     * {@link ExcelExceptionTypes#RESOURCE_NOT_SAVED} against its name cell.
+     * 
+     * @param newRows
+     *            {@link List} of the rows whose {@link Resource} should be
+     *            added
+     * @param rowExceptions
+     *            {@link SortedMap} of row number to the {@link ExcelException}
+     *            for that row. Rows that could not be saved are added here.
+     */
+    private void addResources(List<ResourceRow> newRows, SortedMap<Integer, ExcelException> rowExceptions) {
+        if (newRows.isEmpty()) {
+            return;
+        }
+        List<Resource> newResources = new ArrayList<Resource>(newRows.size());
+        Map<Resource, ResourceRow> rowsByResource = new IdentityHashMap<Resource, ResourceRow>();
+        for (ResourceRow row : newRows) {
+            newResources.add(row.resource);
+            rowsByResource.put(row.resource, row);
+        }
+        for (Resource failedResource : resourceManager.addResourcesAndRelations(newResources)) {
+            ResourceRow row = rowsByResource.get(failedResource);
+            rowExceptions.put(row.rowNum,
+                    new ExcelException(ExcelExceptionTypes.RESOURCE_NOT_SAVED, row.nameAddress, null));
+        }
+    }
+
+    /***
+     * Attempts to extract a {@link String} from the {@link SheetCell}
      * 
      * @param cell
-     *            the {@link Cell} to extract the value from
+     *            the {@link SheetCell} to extract the value from
      * @return {@link String} containing the cell's string value
      * @throws ExcelException
-     *             if the cell is not a {@link Cell#CELL_TYPE_STRING}
+     *             if the cell does not hold a string
      */
-    private String extractCellString(Cell cell) throws ExcelException {
-        if (cell.getCellType() == Cell.CELL_TYPE_STRING) {
-            return cell.getStringCellValue();
+    private String extractCellString(SheetCell cell) throws ExcelException {
+        if (cell.isString()) {
+            return cell.getStringValue();
         }
         throw new ExcelException(ExcelExceptionTypes.NOT_A_STRING, cell.getAddress(), null);
     }
@@ -254,58 +604,97 @@ public class BulkUploadManager {
      * Extract a delimited list from a cell using the {@code DELIMITER} constant
      * 
      * @param cell
-     *            {@link Cell} that contains the list to be extracted
+     *            {@link SheetCell} that contains the list to be extracted
      * @return {@link String}[ ] containing the values of the list not including
      *         the delimiter.
      * @throws ExcelException
      *             when the cell cannot be read as a string using
-     *             {@link BulkUploadManager#extractCellString(Cell)}
+     *             {@link BulkUploadManager#extractCellString(SheetCell)}
      * @throws NullPointerException
      *             when cell is null
      */
-    private String[] extractDelimitedList(Cell cell) throws ExcelException {
+    private String[] extractDelimitedList(SheetCell cell) throws ExcelException {
         checkNotNull(cell, "Cell cannot be null");
         String contents = extractCellString(cell);
         return contents.split(Constants.DELIMITER);
     }
 
     /***
-     * Extract the categories and difficulties from the delimited list within
-     * the specified cell. {@code ex: CatA:1;CatB:2;CatC:1;}
+     * Extract the category names and difficulties from the delimited list
+     * within the specified cell. {@code ex: CatA:1;CatB:2;CatC:1;}
      * 
      * @param cell
      *            the cell containing the list of category:difficulty pairs
-     * @return {@link List}<{@link Category}> of categories extracted from the
-     *         cell. Also sets the local {@code resourceDifficultyForCategory}
-     *         map.
+     * @return {@link Map} of category name to difficulty, in the order they
+     *         appear in the cell
      * @throws ExcelException
      *             when there is an error extracting the values from the cell.
      */
-    private List<Category> extractCategories(Cell cell) throws ExcelException {
-        resourceDifficultyForCategory = new HashMap<>();
-        List<Category> categories = new ArrayList<Category>();
+    private Map<String, Integer> extractCategoryDifficulties(SheetCell cell) throws ExcelException {
+        Map<String, Integer> difficultyForCategoryName = new LinkedHashMap<>();
         String[] categoryDifficultyPairs = extractDelimitedList(cell);
         for (String pair : categoryDifficultyPairs) {
-            Category newCategory = new Category();
             String[] splitPair = pair.split(":");
             if (splitPair.length != 2) {
                 throw new ExcelException(ExcelExceptionTypes.CATEGORY_DIFFICULTY_PAIR, cell.getAddress(), null);
             }
+            String categoryName = StringUtils.trim(splitPair[0]);
+            if (categoryName.isEmpty()) {
+                throw new ExcelException(ExcelExceptionTypes.CATEGORY_NAME, cell.getAddress(), null);
+            }
+            int difficulty;
             try {
-                String categoryName = StringUtils.trim(splitPair[0]);
-                if (categoryName.isEmpty()) {
-                    throw new ExcelException(ExcelExceptionTypes.CATEGORY_NAME, cell.getAddress(), null);
-                }
-                newCategory = categoryDAO.getByName(categoryName);
-                categories.add(newCategory);
-                String categoryDifficulty = StringUtils.trim(splitPair[1]);
-                resourceDifficultyForCategory.put(newCategory.getId(), Integer.parseInt(categoryDifficulty));
-            } catch (DAOException e) {
-                throw new ExcelException(ExcelExceptionTypes.CATEGORY_NAME, cell.getAddress(), e);
+                difficulty = Integer.parseInt(StringUtils.trim(splitPair[1]));
             } catch (NumberFormatException e) {
                 throw new ExcelException(ExcelExceptionTypes.CATEGORY_DIFFICULTY_NOT_AN_INTEGER, cell.getAddress(), e);
             }
+            if (difficulty < MIN_DIFFICULTY_LEVEL || difficulty > MAX_DIFFICULTY_LEVEL) {
+                throw new ExcelException(ExcelExceptionTypes.CATEGORY_DIFFICULTY, cell.getAddress(), null);
+            }
+            difficultyForCategoryName.put(categoryName, difficulty);
+        }
+        return difficultyForCategoryName;
+    }
+
+    /***
+     * The values read from one spreadsheet row, kept together with the
+     * addresses of the cells they came from so that problems found after
+     * parsing can still be reported against the right cell.
+     */
+    static class ResourceRow {
+        private final int rowNum;
+        private String name;
+        private CellAddress nameAddress;
+        private String description;
+        private URL link;
+        private String typeName;
+        private CellAddress typeAddress;
+        private Map<String, Integer> difficultyForCategoryName = new LinkedHashMap<>();
+        private CellAddress categoriesAddress;
+        private Resource resource;
+
+        private ResourceRow(int rowNum) {
+            this.rowNum = rowNum;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getDescription() {
+            return description;
+        }
+
+        URL getLink() {
+            return link;
+        }
+
+        String getTypeName() {
+            return typeName;
+        }
+
+        Map<String, Integer> getDifficultyForCategoryName() {
+            return difficultyForCategoryName;
         }
-        return categories;
     }
 }
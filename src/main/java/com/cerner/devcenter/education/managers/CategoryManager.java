@@ -2,7 +2,11 @@ package com.cerner.devcenter.education.managers;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.Range;
 import org.apache.commons.lang3.StringUtils;
@@ -15,6 +19,11 @@ import com.cerner.devcenter.education.admin.CategoryDAO;
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.TrendingCategory;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
+import com.cerner.devcenter.education.trending.TrendingCount;
+import com.cerner.devcenter.education.trending.TrendingTracker;
 
 /**
  *
@@ -38,10 +47,10 @@ public class CategoryManager {
     private static final String INVALID_CATEGORY_DESCRIPTION = "Category description cannot be null/blank/empty";
     private static final String INVALID_DIFFICULTY_LEVEL = "difficultyLevel must be on a scale of 1-5";
     private static final String INVALID_SEARCH = "Search cannot be null, empty, or blank.";
+    private static final String INVALID_TRENDING_LIMIT = "Number of trending categories must be positive.";
 
     private static final String ERROR_ADDING_CATEGORY = "Error encountered while adding category";
     private static final String ERROR_RETRIEVING_CATEGORY_BY_ID = "Error retrieving category by its id.";
-    private static final String ERROR_RETRIEVING_ALL_CATEGORIES = "Error retrieving all categories from the data source";
     private static final String ERROR_DELETING_CATEGORY = "Error deleting category from the data source using its id";
     private static final String ERROR_RETRIEVING_SEARCH_CATEGORIES = "Error retrieving searched categories from the database";
     private static final String ERROR_RETRIEVING_CATEGORY_BY_NAME = "Error retrieving category with the provided category name";
@@ -51,9 +60,15 @@ public class CategoryManager {
 
     @Autowired
     private CategoryDAO categoryDAO;
+    @Autowired
+    private UserRecommendationCache recommendationCache;
+    @Autowired
+    private ReferenceDataStore referenceData;
+    @Autowired(required = false)
+    private TrendingTracker trendingTracker;
 
     /**
-     * Add new category
+     * Add new category and publishes it in the reference data.
      *
      * @param category
      *            a {@link Category} object to be added. Can't be null
@@ -76,7 +91,9 @@ public class CategoryManager {
         Range<Integer> desiredDifficultyLevelRange = Range.between(MIN_DIFFICULTY_LEVEL, MAX_DIFFICULTY_LEVEL);
         checkArgument(desiredDifficultyLevelRange.contains(category.getDifficultyLevel()), INVALID_DIFFICULTY_LEVEL);
         try {
-            return categoryDAO.addCategory(category);
+            final Category addedCategory = categoryDAO.addCategory(category);
+            referenceData.refreshCategories();
+            return addedCategory;
         } catch (DAOException dAOException) {
             LOGGER.error(ERROR_ADDING_CATEGORY, dAOException);
             throw new ManagerException(ERROR_ADDING_CATEGORY, dAOException);
@@ -107,24 +124,55 @@ public class CategoryManager {
     }
 
     /**
-     * This method retrieves a list of all categories.
+     * This method retrieves a list of all categories from the in-memory
+     * reference data, without querying the data source.
      *
-     * @return a {@link List} of all {@link Category}
-     * @throws ManagerException
-     *             when a manager is not able to access the data source and
-     *             catches {@link DAOException}.
+     * @return an unmodifiable {@link List} of all {@link Category}
      */
     public List<Category> getAllCategories() {
-        try {
-            return categoryDAO.getAllCategoryList();
-        } catch (DAOException daoException) {
-            LOGGER.error("Error retrieving all categories from the data source", daoException);
-            throw new ManagerException(ERROR_RETRIEVING_ALL_CATEGORIES, daoException);
+        return referenceData.getSnapshot().getCategories();
+    }
+
+    /**
+     * Retrieves the categories whose resources were completed the most over
+     * the trending window, from the {@link TrendingTracker} and the in-memory
+     * reference data, without querying the data source.
+     *
+     * @param limit
+     *            the maximum number of categories to return. Must be positive.
+     * @return a {@link List} of at most limit {@link TrendingCategory}, the
+     *         most completed first. Empty when no tracker is configured or it
+     *         is not ready yet.
+     * @throws IllegalArgumentException
+     *             when limit is not positive
+     */
+    public List<TrendingCategory> getTrendingCategories(final int limit) {
+        checkArgument(limit > 0, INVALID_TRENDING_LIMIT);
+        if (trendingTracker == null) {
+            return Collections.emptyList();
+        }
+        final List<TrendingCount> trendingCounts = trendingTracker.getTrendingCategories(limit);
+        if (trendingCounts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Map<Integer, Category> categoriesById = new HashMap<>();
+        for (final Category category : referenceData.getSnapshot().getCategories()) {
+            categoriesById.put(category.getId(), category);
+        }
+        final List<TrendingCategory> trendingCategories = new ArrayList<>(trendingCounts.size());
+        for (final TrendingCount trendingCount : trendingCounts) {
+            final Category category = categoriesById.get(trendingCount.getId());
+            if (category != null) {
+                trendingCategories.add(new TrendingCategory(category, trendingCount.getCount()));
+            }
         }
+        return trendingCategories;
     }
 
     /**
-     * Delete a {@link Category} corresponding to passed categoryId.
+     * Delete a {@link Category} corresponding to passed categoryId, removes it
+     * from the reference data and drops the cached recommendations of the
+     * users interested in it.
      *
      * @param categoryId
      *            represents the id of the category to be retrieved. Must be a
@@ -139,6 +187,8 @@ public class CategoryManager {
         checkArgument(categoryId > 0, INVALID_CATEGORY_ID);
         try {
             categoryDAO.deleteCategory(categoryId);
+            referenceData.refreshCategories();
+            recommendationCache.invalidateCategories(Collections.singleton(categoryId));
         } catch (DAOException daoException) {
             throw new ManagerException(ERROR_DELETING_CATEGORY, daoException);
         }
@@ -18,6 +18,10 @@ import com.cerner.devcenter.education.dao.CompletedUserResourceDAO;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.CompletedResource;
 import com.cerner.devcenter.education.models.CompletedUserResource;
+import com.cerner.devcenter.education.recommendation.CoCompletionIndex;
+import com.cerner.devcenter.education.recommendation.RecommendationEngine;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
+import com.cerner.devcenter.education.trending.TrendingTracker;
 
 /**
  * Manager class that acts as a Service between the controller class and
@@ -45,10 +49,23 @@ public class CompletedUserResourceManager {
 
     @Autowired
     private CompletedUserResourceDAO completedUserResourceDAO;
+    @Autowired
+    private UserRecommendationCache recommendationCache;
+    @Autowired(required = false)
+    private RecommendationEngine recommendationEngine;
+    @Autowired(required = false)
+    private CoCompletionIndex coCompletionIndex;
+    @Autowired(required = false)
+    private TrendingTracker trendingTracker;
 
     /**
      * Adds the {@link CompletedUserResource} data to the
-     * completed_user_resource table in the database.
+     * completed_user_resource table in the database and drops the user's
+     * cached recommendations, which must no longer include the resource. The
+     * {@link RecommendationEngine}, when one is configured, is told about the
+     * completion as well, and so are the {@link CoCompletionIndex} and the
+     * {@link TrendingTracker} once the completion has been added, as they
+     * count every completion they are told about.
      *
      * @param completedUserResource
      *            a {@link CompletedUserResource} object. Must not be null.
@@ -63,9 +80,26 @@ public class CompletedUserResourceManager {
             throws ManagerException {
         checkNotNull(completedUserResource, COMPLETED_RESOURCE_NOT_NULL_ERROR_MESSAGE);
         try {
-            return completedUserResourceDAO.addCompletedUserResourceRating(completedUserResource.getUserId(),
-                    completedUserResource.getResourceId(), completedUserResource.getCompletedRating(),
-                    completedUserResource.getCompletionDate());
+            final boolean added = completedUserResourceDAO.addCompletedUserResourceRating(
+                    completedUserResource.getUserId(), completedUserResource.getResourceId(),
+                    completedUserResource.getCompletedRating(), completedUserResource.getCompletionDate());
+            if (recommendationEngine != null) {
+                recommendationEngine.resourceCompleted(
+                        completedUserResource.getUserId(),
+                        completedUserResource.getResourceId());
+            }
+            if (added && coCompletionIndex != null) {
+                coCompletionIndex.resourceCompleted(
+                        completedUserResource.getUserId(),
+                        completedUserResource.getResourceId());
+            }
+            if (added && trendingTracker != null) {
+                trendingTracker.resourceCompleted(
+                        completedUserResource.getResourceId(),
+                        completedUserResource.getCompletionDate());
+            }
+            recommendationCache.invalidateUser(completedUserResource.getUserId());
+            return added;
         } catch (final DAOException daoException) {
             LOGGER.error(String.format(ERROR_ADDING_COMPLETION_EXCEPTION_ERROR_MESSAGE,
                     completedUserResource.getResourceId(), completedUserResource.getUserId(), daoException));
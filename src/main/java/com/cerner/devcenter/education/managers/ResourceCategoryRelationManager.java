@@ -1,6 +1,7 @@
 package com.cerner.devcenter.education.managers;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -16,7 +17,13 @@ import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.admin.ResourceCategoryRelationDAO;
 import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.KeysetPage;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
+import com.cerner.devcenter.education.search.ResourceFacetIndex;
+import com.cerner.devcenter.education.search.ResourceFacetQuery;
+import com.cerner.devcenter.education.search.ResourceFacets;
+import com.cerner.devcenter.education.utils.Constants;
 
 /**
  * <code>Manager</code> that acts as a <code>Service</code> between the
@@ -36,9 +43,19 @@ public class ResourceCategoryRelationManager {
     private static final String INALID_CATEGORY_ID = "The category id should be greater than 0.";
     private static final String INALID_PAGE_NUMBER = "The category id should be greater than 0.";
     private static final String INALID_RESOURCE_PAGE = "The category id should be greater than 0.";
+    private static final String INVALID_RESOURCE_TYPE_ID = "Resource Type ID must be 0 (for all types) or a positive integer.";
+    private static final String INVALID_AFTER_RESOURCE_ID = "Resource ID to read after cannot be negative.";
+    private static final String INVALID_RESOURCES_PER_PAGE = "Resources Per Page must be between 1 and " + Constants.MAX_PAGE_SIZE + ".";
+    private static final String INVALID_FACET_LIMIT = "Limit must be between 0 and " + Constants.MAX_PAGE_SIZE + ".";
+    private static final String FACET_QUERY_NULL_ERROR_MESSAGE = "Resource facet query cannot be null.";
+    private static final String FACET_INDEX_UNAVAILABLE_ERROR_MESSAGE = "Resource facet index is not available";
 
     @Autowired
     ResourceCategoryRelationDAO resourceCategoryRelationDAO;
+    @Autowired
+    ReferenceDataStore referenceData;
+    @Autowired(required = false)
+    ResourceFacetIndex resourceFacetIndex;
 
     /**
      * Retrieves a {@link List} of {@link ResourceCategoryRelation} based on the
@@ -117,6 +134,208 @@ public class ResourceCategoryRelationManager {
         }
     }
 
+    /**
+     * Retrieves the page of {@link ResourceCategoryRelation
+     * ResourceCategoryRelations} of a category that follows the given resource
+     * id, ordered by resource id. The page is read by seeking past the resource
+     * id, so deep pages cost as much as the first one.
+     * <p>
+     * The approximate total is counted by
+     * {@link #getApproximateResourceCount(int, int)} and does not cost a
+     * query.
+     *
+     * @param categoryId
+     *            the id of the category (must be greater than 0).
+     * @param resourceTypeId
+     *            the id of the resource type, or 0 for all types (cannot be
+     *            negative).
+     * @param afterResourceId
+     *            the resource id of the last resource on the previous page, or
+     *            0 for the first page (cannot be negative).
+     * @param resourcesPerPage
+     *            the number of resources on a page (must be between 1 and
+     *            {@link Constants#MAX_PAGE_SIZE}).
+     * @return the {@link KeysetPage} of {@link ResourceCategoryRelation
+     *         ResourceCategoryRelations}, never <code>null</code>.
+     * @throws IllegalArgumentException
+     *             when any of the arguments is out of range.
+     * @throws ManagerException
+     *             when the resources cannot be retrieved.
+     */
+    public KeysetPage<ResourceCategoryRelation> getResourcesByCategoryIdAfter(
+            final int categoryId,
+            final int resourceTypeId,
+            final int afterResourceId,
+            final int resourcesPerPage) {
+        checkArgument(categoryId > 0, INALID_CATEGORY_ID);
+        checkArgument(resourceTypeId >= 0, INVALID_RESOURCE_TYPE_ID);
+        checkArgument(afterResourceId >= 0, INVALID_AFTER_RESOURCE_ID);
+        checkArgument(resourcesPerPage > 0 && resourcesPerPage <= Constants.MAX_PAGE_SIZE,
+                INVALID_RESOURCES_PER_PAGE);
+        final List<ResourceCategoryRelation> relations;
+        try {
+            // One extra row tells whether there is a next page without a count.
+            if (resourceTypeId == 0) {
+                relations = resourceCategoryRelationDAO.getResourcesAndDifficultyLevelByCategoryIdAfter(categoryId,
+                        afterResourceId, resourcesPerPage + 1);
+            } else {
+                relations = resourceCategoryRelationDAO.getResourcesByCategoryIdAndTypeIdAfter(categoryId,
+                        resourceTypeId, afterResourceId, resourcesPerPage + 1);
+            }
+        } catch (final DAOException daoException) {
+            throw new ManagerException("Error retrieving resources for a particular category", daoException);
+        }
+        Integer nextAfter = null;
+        List<ResourceCategoryRelation> page = relations;
+        if (relations.size() > resourcesPerPage) {
+            page = relations.subList(0, resourcesPerPage);
+            nextAfter = page.get(resourcesPerPage - 1).getResourceId();
+        }
+        return new KeysetPage<>(page, nextAfter, getApproximateResourceCount(categoryId, resourceTypeId));
+    }
+
+    /**
+     * Retrieves the page of {@link ResourceCategoryRelation
+     * ResourceCategoryRelations} and average ratings of the resources that
+     * follow the given resource id, for the admin listing of every resource.
+     * A page holds every relation of resourcesPerPage resources, so it can
+     * hold more relations than resourcesPerPage.
+     * <p>
+     * The approximate total is the number of relations counted in the
+     * categories of the {@link ReferenceDataStore} and does not cost a query.
+     *
+     * @param afterResourceId
+     *            the resource id of the last resource on the previous page, or
+     *            0 for the first page (cannot be negative).
+     * @param resourcesPerPage
+     *            the number of resources on a page (must be between 1 and
+     *            {@link Constants#MAX_PAGE_SIZE}).
+     * @return the {@link KeysetPage} of {@link ResourceCategoryRelation
+     *         ResourceCategoryRelations}, never <code>null</code>.
+     * @throws IllegalArgumentException
+     *             when any of the arguments is out of range.
+     * @throws ManagerException
+     *             when the resources cannot be retrieved.
+     */
+    public KeysetPage<ResourceCategoryRelation> getResourcesForAllCategoriesAfter(
+            final int afterResourceId,
+            final int resourcesPerPage) {
+        checkArgument(afterResourceId >= 0, INVALID_AFTER_RESOURCE_ID);
+        checkArgument(resourcesPerPage > 0 && resourcesPerPage <= Constants.MAX_PAGE_SIZE,
+                INVALID_RESOURCES_PER_PAGE);
+        final List<ResourceCategoryRelation> relations;
+        try {
+            relations = resourceCategoryRelationDAO.getResourcesAndAverageRatingsAfter(afterResourceId,
+                    resourcesPerPage + 1);
+        } catch (final DAOException daoException) {
+            throw new ManagerException(GET_ALL_RESOURCES_ERROR_MESSAGE, daoException);
+        }
+        Integer nextAfter = null;
+        List<ResourceCategoryRelation> page = relations;
+        int resources = 0;
+        int previousResourceId = 0;
+        for (int index = 0; index < relations.size(); index++) {
+            final int resourceId = relations.get(index).getResourceId();
+            if (resourceId != previousResourceId && ++resources > resourcesPerPage) {
+                page = relations.subList(0, index);
+                nextAfter = previousResourceId;
+                break;
+            }
+            previousResourceId = resourceId;
+        }
+        int approximateTotal = 0;
+        for (final Category category : referenceData.getSnapshot().getCategories()) {
+            approximateTotal += category.getResourcesCount();
+        }
+        return new KeysetPage<>(page, nextAfter, approximateTotal);
+    }
+
+    /**
+     * Returns the number of resources of a category as counted in the
+     * categories of the {@link ReferenceDataStore}, without a query. The count
+     * is kept up to date by every change to the relations of the category.
+     *
+     * @param categoryId
+     *            the id of the category (must be greater than 0).
+     * @return the number of resources of the category, 0 when the category is
+     *         unknown.
+     * @throws IllegalArgumentException
+     *             when categoryId is not greater than 0.
+     */
+    public int getApproximateResourceCountByCategoryId(final int categoryId) {
+        checkArgument(categoryId > 0, INALID_CATEGORY_ID);
+        for (final Category category : referenceData.getSnapshot().getCategories()) {
+            if (category.getId() == categoryId) {
+                return category.getResourcesCount();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the number of resources of a category and resource type from the
+     * {@link ResourceFacetIndex}, without a query. Until the index is built,
+     * the number of resources of the category is returned for every type.
+     *
+     * @param categoryId
+     *            the id of the category (must be greater than 0).
+     * @param resourceTypeId
+     *            the id of the resource type, or 0 for all types (cannot be
+     *            negative).
+     * @return the number of resources of the category and type, 0 when the
+     *         category is unknown.
+     * @throws IllegalArgumentException
+     *             when categoryId is not greater than 0 or resourceTypeId is
+     *             negative.
+     */
+    public int getApproximateResourceCount(final int categoryId, final int resourceTypeId) {
+        checkArgument(categoryId > 0, INALID_CATEGORY_ID);
+        checkArgument(resourceTypeId >= 0, INVALID_RESOURCE_TYPE_ID);
+        if (resourceFacetIndex == null || !resourceFacetIndex.isReady()) {
+            return getApproximateResourceCountByCategoryId(categoryId);
+        }
+        final List<Integer> resourceTypeIds = resourceTypeId == 0 ? Collections.<Integer> emptyList()
+                : Collections.singletonList(resourceTypeId);
+        return resourceFacetIndex.count(new ResourceFacetQuery(Collections.singletonList(categoryId), null,
+                resourceTypeIds, null, null));
+    }
+
+    /**
+     * Finds the resources matching any combination of categories, difficulty
+     * levels, resource types, tags and statuses in the
+     * {@link ResourceFacetIndex}, with the number of resources for every value
+     * of every dimension, without a query.
+     *
+     * @param query
+     *            the {@link ResourceFacetQuery} to answer (cannot be
+     *            <code>null</code>).
+     * @param afterResourceId
+     *            the resource id of the last resource on the previous page, or
+     *            0 for the first page (cannot be negative).
+     * @param limit
+     *            the number of resource ids on a page, 0 to only count (must be
+     *            between 0 and {@link Constants#MAX_PAGE_SIZE}).
+     * @return the {@link ResourceFacets} of the query, never <code>null</code>.
+     * @throws IllegalArgumentException
+     *             when query is <code>null</code> or afterResourceId or limit
+     *             is out of range.
+     * @throws ManagerException
+     *             when the facet index is disabled or has not been built yet.
+     */
+    public ResourceFacets getResourceFacets(final ResourceFacetQuery query, final int afterResourceId,
+            final int limit) {
+        checkArgument(query != null, FACET_QUERY_NULL_ERROR_MESSAGE);
+        checkArgument(afterResourceId >= 0, INVALID_AFTER_RESOURCE_ID);
+        checkArgument(limit >= 0 && limit <= Constants.MAX_PAGE_SIZE, INVALID_FACET_LIMIT);
+        try {
+            checkState(resourceFacetIndex != null && resourceFacetIndex.isReady(),
+                    FACET_INDEX_UNAVAILABLE_ERROR_MESSAGE);
+            return resourceFacetIndex.search(query, afterResourceId, limit);
+        } catch (final IllegalStateException illegalStateException) {
+            throw new ManagerException(FACET_INDEX_UNAVAILABLE_ERROR_MESSAGE, illegalStateException);
+        }
+    }
+
     /**
      * Retrieves a {@link List} of all {@link ResourceCategoryRelation
      * ResourceCategoryRelations}
@@ -140,7 +359,11 @@ public class ResourceCategoryRelationManager {
     /**
      * Retrieves a {@link List} of all {@link ResourceCategoryRelation
      * ResourceCategoryRelations} with the specified category name and
-     * difficulty level.
+     * difficulty level. The category name is matched without regard to case
+     * against the categories in the {@link ReferenceDataStore}, the matching
+     * resources are found in the {@link ResourceFacetIndex}, and only their
+     * rows are read from the database. Until the index is built, the
+     * resources are searched in the database instead.
      *
      * @param categoryName
      *            a name used to identify a specific
@@ -175,8 +398,12 @@ public class ResourceCategoryRelationManager {
         checkArgument(difficultyLevel > 0, INVALID_RESOURCE_LEVEL_ERROR_MESSAGE);
         List<ResourceCategoryRelation> listOfResourceCategoryRelation = new ArrayList<>();
         try {
-            listOfResourceCategoryRelation = resourceCategoryRelationDAO
-                    .searchResourcesByCategoryNameAndDifficultyLevel(categoryName, difficultyLevel);
+            if (resourceFacetIndex != null && resourceFacetIndex.isReady()) {
+                listOfResourceCategoryRelation = searchFacetIndex(categoryName, difficultyLevel);
+            } else {
+                listOfResourceCategoryRelation = resourceCategoryRelationDAO
+                        .searchResourcesByCategoryNameAndDifficultyLevel(categoryName, difficultyLevel);
+            }
         } catch (final DAOException daoException) {
             throw new ManagerException(SEARCH_ERROR_MESSAGE, daoException);
         }
@@ -187,4 +414,22 @@ public class ResourceCategoryRelationManager {
         }
         return listOfResourceCategoryRelation;
     }
-}
\ No newline at end of file
+
+    private List<ResourceCategoryRelation> searchFacetIndex(final String categoryName, final int difficultyLevel)
+            throws DAOException {
+        final List<ResourceCategoryRelation> relations = new ArrayList<>();
+        for (final Category category : referenceData.getSnapshot().getCategories()) {
+            if (!StringUtils.equalsIgnoreCase(category.getName(), categoryName)) {
+                continue;
+            }
+            final List<Integer> resourceIds = resourceFacetIndex.getResourceIds(new ResourceFacetQuery(
+                    Collections.singletonList(category.getId()), Collections.singletonList(difficultyLevel), null,
+                    null, null));
+            if (!resourceIds.isEmpty()) {
+                relations.addAll(resourceCategoryRelationDAO.getResourcesAndAverageRatingsByIds(category.getId(),
+                        difficultyLevel, resourceIds));
+            }
+        }
+        return relations;
+    }
+}
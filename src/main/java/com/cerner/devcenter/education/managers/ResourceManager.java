@@ -4,10 +4,16 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.net.URL;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 
 import javax.naming.NamingException;
 
@@ -16,6 +22,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 import com.cerner.devcenter.education.admin.CategoryResourceRelationDAO;
@@ -28,13 +38,22 @@ import com.cerner.devcenter.education.exceptions.ItemAlreadyExistsException;
 import com.cerner.devcenter.education.exceptions.ResourceIdNotFoundException;
 import com.cerner.devcenter.education.exceptions.CategoryIdNotFoundException;
 import com.cerner.devcenter.education.helpers.HttpURLValidator;
-import com.cerner.devcenter.education.helpers.RoundToHigherIntHelper;
 import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.RelatedResource;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceRequest;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
+import com.cerner.devcenter.education.models.TrendingResource;
+import com.cerner.devcenter.education.recommendation.CoCompletedResource;
+import com.cerner.devcenter.education.recommendation.CoCompletionIndex;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
+import com.cerner.devcenter.education.search.ResourceAutocompleteIndex;
+import com.cerner.devcenter.education.trending.TrendingCount;
+import com.cerner.devcenter.education.trending.TrendingTracker;
 import com.cerner.devcenter.education.user.UserDetails;
 import com.cerner.devcenter.education.user.UserProfileDetails;
+import com.cerner.devcenter.education.utils.Constants;
 import com.google.common.base.Preconditions;
 
 /**
@@ -55,8 +74,15 @@ public class ResourceManager {
     private static final String RESOURCE_EXISTS_ERROR = "Resource {0} already exists in resource table";
     private static final String CATEGORY_RELATION_ERROR = "Error adding resource and its relation to a particular category";
     private static final String INSERT_RESOURCE_FAILURE = "Error while adding a resource";
+    private static final String INSERT_RESOURCES_FAILURE = "Error while adding a batch of resources and their category relations";
+    private static final String RESOURCE_LIST_INVALID = "Resource list cannot be null or empty";
+    private static final String RESOURCE_NAMES_INVALID = "Resource names cannot be null or empty";
 
     private static final String RESOURCE_ID_NOT_POSITIVE = "Resource Id must be positive";
+    private static final String RELATED_RESOURCES_LIMIT_NOT_POSITIVE = "Number of related resources must be positive";
+    private static final String RELATED_RESOURCES_ERROR = "Error retrieving the resources related to a resource";
+    private static final String TRENDING_RESOURCES_LIMIT_NOT_POSITIVE = "Number of trending resources must be positive";
+    private static final String TRENDING_RESOURCES_ERROR = "Error retrieving the trending resources";
     private static final String RESOURCE_NAME_INVALID = "Resource name is invalid";
     private static final String RESOURCE_LINK_NULL = "Resource Link can not be null";
     private static final String RESOURCE_TYPE_NULL = "Resource Type can not be null";
@@ -85,6 +111,20 @@ public class ResourceManager {
     ResourceCategoryRelationDAO resourceCategoryRelationDAO;
     @Autowired
     ResourceRequestDAO resourceRequestDAO;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    ResourceAutocompleteIndex autocompleteIndex;
+    @Autowired
+    UserRecommendationCache recommendationCache;
+    @Autowired
+    ReferenceDataStore referenceData;
+    @Autowired
+    UserDetails userDetails;
+    @Autowired(required = false)
+    CoCompletionIndex coCompletionIndex;
+    @Autowired(required = false)
+    TrendingTracker trendingTracker;
 
     public ResourceManager() {
         i18nBundle = ResourceBundle.getBundle("i18n", Locale.getDefault());
@@ -121,11 +161,55 @@ public class ResourceManager {
             for (final Category category : resource.getCategories()) {
                 categoryResourceRelationDAO.addMappingsToDB(resource, category);
             }
+            autocompleteIndex.add(resource);
+            recommendationCache.invalidateCategories(getCategoryIds(Collections.singletonList(resource)));
+            referenceData.refreshCategories();
         } catch (final DAOException dAOException) {
             throw new ManagerException(CATEGORY_RELATION_ERROR, dAOException);
         }
     }
 
+    /**
+     * Adds many {@link Resource} objects and their relations with
+     * {@link Category} using JDBC batches, in one transaction. A list that
+     * cannot be written is rolled back and logged. The written resources are
+     * added to the {@link ResourceAutocompleteIndex} and the category resource
+     * counts are refreshed. Callers bound the size of the list, such as the
+     * chunks of a bulk upload. Duplicate names are expected to have been
+     * filtered out already with {@link #getExistingResourceNames(Collection)}.
+     *
+     * @param resources
+     *            {@link List} of {@link Resource} to add. Cannot be null or
+     *            empty. Each written resource has its new id set.
+     * @return the given {@link List} of {@link Resource} objects when they
+     *         could not be written. Empty when every resource was written.
+     * @throws IllegalArgumentException
+     *             when resources is null or empty
+     */
+    public List<Resource> addResourcesAndRelations(final List<Resource> resources) {
+        checkArgument(resources != null && !resources.isEmpty(), RESOURCE_LIST_INVALID);
+        try {
+            transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                @Override
+                protected void doInTransactionWithoutResult(final TransactionStatus transactionStatus) {
+                    try {
+                        resourceDAO.addResources(resources);
+                        categoryResourceRelationDAO.addMappingsToDB(resources);
+                    } catch (final DAOException daoException) {
+                        throw new ManagerException(INSERT_RESOURCES_FAILURE, daoException);
+                    }
+                }
+            });
+        } catch (final ManagerException | TransactionException exception) {
+            LOGGER.error(INSERT_RESOURCES_FAILURE, exception);
+            return resources;
+        }
+        autocompleteIndex.addAll(resources);
+        recommendationCache.invalidateCategories(getCategoryIds(resources));
+        referenceData.refreshCategories();
+        return Collections.emptyList();
+    }
+
     /**
      * Adds a resource and any relations it has with categories.
      *
@@ -188,6 +272,9 @@ public class ResourceManager {
                 throw new ManagerException(CATEGORY_RELATION_ERROR, daoException);
             }
         }
+        autocompleteIndex.add(resource);
+        recommendationCache.invalidateCategories(resource.getResourceDifficultyForCategory().keySet());
+        referenceData.refreshCategories();
         return resource;
     }
 
@@ -224,6 +311,9 @@ public class ResourceManager {
         checkArgument(resourceId > 0, RESOURCE_ID_NOT_POSITIVE);
         try {
             resourceDAO.deleteById(resourceId);
+            autocompleteIndex.remove(resourceId);
+            recommendationCache.invalidateResource(resourceId);
+            referenceData.refreshCategories();
         } catch (final DAOException daoException) {
             throw new ManagerException("Error deleting resource using its ID", daoException);
         }
@@ -249,32 +339,6 @@ public class ResourceManager {
         }
     }
 
-    /**
-     * Calculates total number of pages required for displaying resources per
-     * particular category
-     *
-     * @param categoryId
-     *            The ID used to uniquely identify a category, it must be
-     *            greater than zero.
-     * @param resourceLimit
-     *            Maximum number of resources could be visible per page.
-     * @return number of pages required to display resources for particular
-     *         category.
-     * @throws ManagerException
-     *             when there is an error accessing data and
-     *             {@link DAOException} is caught.
-     */
-    public int getPageCountForResourcesByCategoryId(final int categoryId, final int resourceLimit)
-            throws ManagerException {
-        checkArgument(categoryId > 0, "Category Id must be greater than zero");
-        try {
-            final int resourcesCount = resourceDAO.getResourceCountByCategoryId(categoryId);
-            return RoundToHigherIntHelper.roundToHigherInt(resourcesCount, resourceLimit);
-        } catch (final DAOException daoException) {
-            throw new ManagerException("Error retrieving number of resources for a particular category", daoException);
-        }
-    }
-
     /**
      * Get the resource repository.
      *
@@ -327,11 +391,111 @@ public class ResourceManager {
     }
 
     /**
-     * This method retrieves a list of resources based on search string.
+     * Retrieves the available resources completed by the learners who
+     * completed a resource, from the {@link CoCompletionIndex}.
+     *
+     * @param resourceId
+     *            a unique id used to find a specific {@link Resource}. Must be
+     *            positive.
+     * @param limit
+     *            the maximum number of related resources to return. Must be
+     *            positive.
+     * @return a {@link List} of at most limit {@link RelatedResource}, most
+     *         related first. Empty when no index is configured, it has not
+     *         been built yet or nobody who completed the resource completed
+     *         an available one.
+     * @throws IllegalArgumentException
+     *             when resourceId or limit is not positive
+     * @throws ManagerException
+     *             when the related resources cannot be read from the data
+     *             source
+     */
+    public List<RelatedResource> getRelatedResources(final int resourceId, final int limit) {
+        checkArgument(resourceId > 0, RESOURCE_ID_NOT_POSITIVE);
+        checkArgument(limit > 0, RELATED_RESOURCES_LIMIT_NOT_POSITIVE);
+        if (coCompletionIndex == null) {
+            return Collections.emptyList();
+        }
+        final List<CoCompletedResource> coCompletedResources = coCompletionIndex.getRelatedResources(resourceId);
+        if (coCompletedResources.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Set<Integer> relatedResourceIds = new LinkedHashSet<>();
+        for (final CoCompletedResource coCompletedResource : coCompletedResources) {
+            relatedResourceIds.add(coCompletedResource.getResourceId());
+        }
+        final Map<Integer, Resource> availableResources;
+        try {
+            availableResources = resourceDAO.getAvailableResourcesByIds(relatedResourceIds);
+        } catch (final DAOException daoException) {
+            throw new ManagerException(RELATED_RESOURCES_ERROR, daoException);
+        }
+        final List<RelatedResource> relatedResources = new ArrayList<>();
+        for (final CoCompletedResource coCompletedResource : coCompletedResources) {
+            final Resource resource = availableResources.get(coCompletedResource.getResourceId());
+            if (resource != null) {
+                relatedResources.add(new RelatedResource(resource, coCompletedResource.getCoCompletionCount()));
+                if (relatedResources.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return relatedResources;
+    }
+
+    /**
+     * Retrieves the available resources completed the most over the trending
+     * window, from the {@link TrendingTracker}.
+     *
+     * @param limit
+     *            the maximum number of trending resources to return. Must be
+     *            positive.
+     * @return a {@link List} of at most limit {@link TrendingResource}, the
+     *         most completed first. Empty when no tracker is configured or it
+     *         is not ready yet.
+     * @throws IllegalArgumentException
+     *             when limit is not positive
+     * @throws ManagerException
+     *             when the trending resources cannot be read from the data
+     *             source
+     */
+    public List<TrendingResource> getTrendingResources(final int limit) {
+        checkArgument(limit > 0, TRENDING_RESOURCES_LIMIT_NOT_POSITIVE);
+        if (trendingTracker == null) {
+            return Collections.emptyList();
+        }
+        final List<TrendingCount> trendingCounts = trendingTracker.getTrendingResources(limit);
+        if (trendingCounts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Set<Integer> trendingResourceIds = new LinkedHashSet<>();
+        for (final TrendingCount trendingCount : trendingCounts) {
+            trendingResourceIds.add(trendingCount.getId());
+        }
+        final Map<Integer, Resource> availableResources;
+        try {
+            availableResources = resourceDAO.getAvailableResourcesByIds(trendingResourceIds);
+        } catch (final DAOException daoException) {
+            throw new ManagerException(TRENDING_RESOURCES_ERROR, daoException);
+        }
+        final List<TrendingResource> trendingResources = new ArrayList<>(trendingCounts.size());
+        for (final TrendingCount trendingCount : trendingCounts) {
+            final Resource resource = availableResources.get(trendingCount.getId());
+            if (resource != null) {
+                trendingResources.add(new TrendingResource(resource, trendingCount.getCount()));
+            }
+        }
+        return trendingResources;
+    }
+
+    /**
+     * This method retrieves a list of resources based on search string, best
+     * match first. At most {@link Constants#SEARCH_RESULT_LIMIT} resources are
+     * returned.
      *
      * @param search
      *            {@link String} user entered to search in the resources
-     * @return a {@link List} of all {@link Resource}
+     * @return a ranked {@link List} of matching {@link Resource}
      * @throws ManagerException
      *             when a manager is not able to access the data source and
      *             catches {@link DAOException}
@@ -344,12 +508,31 @@ public class ResourceManager {
                 i18nBundle.getString("com.cerner.devcenter.education.search.invalid"));
 
         try {
-            return resourceDAO.getSearchedResources(search);
+            return resourceDAO.getSearchedResources(search, Constants.SEARCH_RESULT_LIMIT);
         } catch (final DAOException daoException) {
             throw new ManagerException("Error retrieving searched resources from the database", daoException);
         }
     }
 
+    /**
+     * Returns autocomplete suggestions for the search from the in-memory
+     * {@link ResourceAutocompleteIndex}, without querying the database. A
+     * resource is suggested when the search is the start of its name or of a
+     * word in its name.
+     *
+     * @param search
+     *            {@link String} the user has typed so far. Cannot be null or
+     *            empty.
+     * @return a {@link List} of at most {@link Constants#AUTOFILL_SIZE}
+     *         available {@link Resource} objects, closest name first.
+     * @throws IllegalArgumentException
+     *             when search string is empty or null
+     */
+    public List<Resource> getAutocompleteSuggestions(final String search) {
+        checkArgument(StringUtils.isNotEmpty(search), i18nBundle.getString(Constants.SEARCH_INVALID_I18N));
+        return autocompleteIndex.getSuggestions(search, Constants.AUTOFILL_SIZE);
+    }
+
     /***
      * This method checks if a resource exists in the database with the given
      * resource name.
@@ -376,6 +559,28 @@ public class ResourceManager {
         }
     }
 
+    /**
+     * Returns which of the given resource names already belong to a resource in
+     * the database, using a single query.
+     *
+     * @param resourceNames
+     *            {@link Collection} of resource names to check against the
+     *            database. Cannot be null or empty.
+     * @return {@link Set} of the names that already exist
+     * @throws IllegalArgumentException
+     *             if resourceNames is null or empty
+     * @throws ManagerException
+     *             if there is an error checking the database
+     */
+    public Set<String> getExistingResourceNames(final Collection<String> resourceNames) {
+        checkArgument(resourceNames != null && !resourceNames.isEmpty(), RESOURCE_NAMES_INVALID);
+        try {
+            return resourceDAO.getExistingResourceNames(resourceNames);
+        } catch (final DAOException daoException) {
+            throw new ManagerException("Error checking resource names against data", daoException);
+        }
+    }
+
     /**
      * This method retrieves a list of all resource requests.
      *
@@ -448,9 +653,8 @@ public class ResourceManager {
         checkArgument(StringUtils.isNotBlank(resourceType), RESOURCE_TYPE_EMPTY);
         checkArgument(StringUtils.isNotBlank(resourceOwner), RESOURCE_OWNER_ERROR_MESSAGE);
         try {
-            final UserDetails userDetail = new UserDetails();
-            final UserProfileDetails userProfileDetails = userDetail.getUserDetails(resourceOwner);
-            if (userProfileDetails == null || userProfileDetails.getUserId().equals(null)) {
+            final UserProfileDetails userProfileDetails = userDetails.getUserDetails(resourceOwner);
+            if (userProfileDetails == null || userProfileDetails.getUserId() == null) {
                 return false;
             } else {
                 resourceDAO.updateResource(
@@ -460,6 +664,8 @@ public class ResourceManager {
                         resourceDifficultyLevel,
                         resourceType,
                         resourceOwner);
+                autocompleteIndex.update(resourceDAO.getById(resourceId));
+                recommendationCache.invalidateResource(resourceId);
                 return true;
             }
         } catch (final DAOException daoException) {
@@ -468,4 +674,14 @@ public class ResourceManager {
             throw new ManagerException(EDIT_RESORUCE_ERROR, namingException);
         }
     }
+
+    private static Set<Integer> getCategoryIds(final Collection<Resource> resources) {
+        final Set<Integer> categoryIds = new HashSet<>();
+        for (final Resource resource : resources) {
+            for (final Category category : resource.getCategories()) {
+                categoryIds.add(category.getId());
+            }
+        }
+        return categoryIds;
+    }
 }
@@ -14,7 +14,11 @@ import org.springframework.stereotype.Service;
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.dao.ResourceRequestDAO;
+import com.cerner.devcenter.education.models.BulkResourceRequestResult;
+import com.cerner.devcenter.education.models.KeysetPage;
 import com.cerner.devcenter.education.models.ResourceRequest;
+import com.cerner.devcenter.education.models.ResourceRequestAction;
+import com.cerner.devcenter.education.utils.Constants;
 
 /**
  * This class manages the insertion of {@link ResourceRequest} objects.
@@ -28,9 +32,15 @@ public class ResourceRequestManager {
     private final static Logger LOGGER = LoggerFactory.getLogger(ResourceRequestManager.class);
     private static final String INVALID_REQUEST_IDS = "Request IDs array can't be null or empty.";
     private static final String ERROR_DELETING = "Error: unable to delete the resource request.";
+    private static final String ERROR_UPDATING_IN_BULK = "Error: unable to approve or reject the resource requests.";
+    private static final String INVALID_ACTION = "Action can't be null.";
+    private static final String TOO_MANY_REQUEST_IDS = "Request IDs array can't have more than "
+            + Constants.MAX_BULK_REQUEST_IDS + " elements.";
     private static final String USER_ID_NULL_ERROR = "UserId cannot be null";
     private static final String RESOURCE_REQUEST_DB_READ_ERROR_LOGGER_MESSAGE = "Error retrieving requested resources from the database";
     private static final String RESOURCE_REQUEST_DB_READ_ERROR = "Error retrieving all resource requests from the database";
+    private static final String INVALID_AFTER_REQUEST_ID = "Request ID to read after cannot be negative.";
+    private static final String INVALID_LIMIT = "Limit must be between 1 and " + Constants.MAX_PAGE_SIZE + ".";
 
     @Autowired
     private ResourceRequestDAO resourceRequestDAO;
@@ -61,21 +71,60 @@ public class ResourceRequestManager {
      *
      * @param requestIds
      *            Array that contains requestIds (can't be null or empty).
+     * @return a {@link List} of the ids of the deleted requests.
      * @throws IllegalArgumentException
      *             when Array of requestIds is empty or null
      * @throws ManagerException
      *             if there is an error deleting {@link ResourceRequest}.
      */
-    public void deleteResourceRequestsInBatch(final int[] requestIds) throws ManagerException {
+    public List<Integer> deleteResourceRequestsInBatch(final int[] requestIds) throws ManagerException {
         checkArgument(ArrayUtils.isNotEmpty(requestIds), INVALID_REQUEST_IDS);
         try {
-            resourceRequestDAO.deleteResourceRequests(requestIds);
+            return resourceRequestDAO.deleteResourceRequests(requestIds);
         } catch (final DAOException daoException) {
             LOGGER.error(ERROR_DELETING, daoException);
             throw new ManagerException(ERROR_DELETING, daoException);
         }
     }
 
+    /**
+     * Approves or rejects up to {@link Constants#MAX_BULK_REQUEST_IDS}
+     * {@link ResourceRequest resource requests} at once. Approving marks the
+     * requests as approved, rejecting deletes them; either way all the
+     * requests are changed by a single statement, so they are changed
+     * together or not at all.
+     *
+     * @param action
+     *            the {@link ResourceRequestAction} to take. Can't be null.
+     * @param requestIds
+     *            Array that contains requestIds (can't be null or empty, nor
+     *            longer than {@link Constants#MAX_BULK_REQUEST_IDS}).
+     * @return the {@link BulkResourceRequestResult} with the ids of the
+     *         requests that were changed.
+     * @throws IllegalArgumentException
+     *             when action is null or the Array of requestIds is empty,
+     *             null or too long
+     * @throws ManagerException
+     *             if there is an error changing the {@link ResourceRequest
+     *             resource requests}.
+     */
+    public BulkResourceRequestResult updateResourceRequestsInBulk(
+            final ResourceRequestAction action,
+            final int[] requestIds) throws ManagerException {
+        checkArgument(action != null, INVALID_ACTION);
+        checkArgument(ArrayUtils.isNotEmpty(requestIds), INVALID_REQUEST_IDS);
+        checkArgument(requestIds.length <= Constants.MAX_BULK_REQUEST_IDS, TOO_MANY_REQUEST_IDS);
+        try {
+            final List<Integer> affectedIds = action == ResourceRequestAction.Approve ? resourceRequestDAO
+                    .approveResourceRequests(requestIds) : resourceRequestDAO.deleteResourceRequests(requestIds);
+            LOGGER.info("{} {} of {} resource requests", action, affectedIds.size(), requestIds.length);
+            return new BulkResourceRequestResult(action, requestIds.length, affectedIds);
+        } catch (final DAOException daoException) {
+            LOGGER.error(ERROR_UPDATING_IN_BULK, daoException);
+            throw new ManagerException(ERROR_UPDATING_IN_BULK, daoException);
+        }
+    }
+
     /**
      * This method retrieves a list of all resource requests for the given user.
      *
@@ -95,4 +144,52 @@ public class ResourceRequestManager {
             throw new ManagerException(RESOURCE_REQUEST_DB_READ_ERROR, daoException);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the page of {@link ResourceRequest resource requests} that
+     * follows the given request id, ordered by id. The page is read by seeking
+     * past the request id, so deep pages cost as much as the first one.
+     *
+     * @param afterRequestId
+     *            the id of the last request on the previous page, or 0 for the
+     *            first page. Cannot be negative.
+     * @param limit
+     *            the number of requests on a page. Must be between 1 and
+     *            {@link Constants#MAX_PAGE_SIZE}.
+     * @param withApproximateTotal
+     *            <code>true</code> to also read the approximate number of
+     *            requests from the planner statistics, which costs one more
+     *            (cheap) query.
+     * @return the {@link KeysetPage} of {@link ResourceRequest resource
+     *         requests}, never <code>null</code>.
+     * @throws IllegalArgumentException
+     *             when afterRequestId is negative or limit is out of range.
+     * @throws ManagerException
+     *             when a manager is unable to access data through
+     *             {@link ResourceRequestDAO}.
+     */
+    public KeysetPage<ResourceRequest> getResourceRequestsAfter(
+            final int afterRequestId,
+            final int limit,
+            final boolean withApproximateTotal) throws ManagerException {
+        checkArgument(afterRequestId >= 0, INVALID_AFTER_REQUEST_ID);
+        checkArgument(limit > 0 && limit <= Constants.MAX_PAGE_SIZE, INVALID_LIMIT);
+        try {
+            // One extra row tells whether there is a next page without a count.
+            final List<ResourceRequest> requests = resourceRequestDAO.getResourceRequestsAfter(afterRequestId,
+                    limit + 1);
+            Integer nextAfter = null;
+            List<ResourceRequest> page = requests;
+            if (requests.size() > limit) {
+                page = requests.subList(0, limit);
+                nextAfter = page.get(limit - 1).getId();
+            }
+            final Integer approximateTotal = withApproximateTotal ? resourceRequestDAO
+                    .getApproximateResourceRequestCount() : null;
+            return new KeysetPage<>(page, nextAfter, approximateTotal);
+        } catch (final DAOException daoException) {
+            LOGGER.error(RESOURCE_REQUEST_DB_READ_ERROR_LOGGER_MESSAGE, daoException);
+            throw new ManagerException(RESOURCE_REQUEST_DB_READ_ERROR, daoException);
+        }
+    }
+}
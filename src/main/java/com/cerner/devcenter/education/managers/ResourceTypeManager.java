@@ -15,6 +15,7 @@ import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.admin.ResourceTypeDAO;
 import com.cerner.devcenter.education.exceptions.DuplicateResourceTypeFoundException;
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
 
 /**
  * This class is used as a connects or links between the controller classes and
@@ -31,6 +32,9 @@ public class ResourceTypeManager {
     @Autowired
     ResourceTypeDAO resourceTypeDAO;
 
+    @Autowired
+    ReferenceDataStore referenceData;
+
     public ResourceTypeManager() {
         i18nBundle = ResourceBundle.getBundle("i18n", Locale.getDefault());
     }
@@ -55,7 +59,7 @@ public class ResourceTypeManager {
     }
 
     /**
-     * Adds a resourceType.
+     * Adds a resourceType and publishes it in the reference data.
      *
      * @param resourceTypeName
      *            a {@link String} object is the name of the resource type
@@ -72,7 +76,9 @@ public class ResourceTypeManager {
             if (checkIfResourceTypeAlreadyExists(resourceTypeName)) {
                 throw new DuplicateResourceTypeFoundException("Resource Type already exists in the database.");
             }
-            return resourceTypeDAO.addResourceType(resourceTypeName);
+            final ResourceType addedResourceType = resourceTypeDAO.addResourceType(resourceTypeName);
+            referenceData.refreshResourceTypes();
+            return addedResourceType;
         } catch (DAOException e) {
             throw new ManagerException("Error adding resource type", e);
         }
@@ -121,19 +127,12 @@ public class ResourceTypeManager {
     }
 
     /**
-     * This method retrieves a list of all resource types.
+     * This method retrieves a list of all resource types from the in-memory
+     * reference data, without querying the data source.
      *
-     * @return a {@link List} of all {@link ResourceType}
-     * 
-     * @throws ManagerException
-     *             when a manager is not able to access the data source and
-     *             catches {@link DAOException}.
+     * @return an unmodifiable {@link List} of all {@link ResourceType}
      */
     public List<ResourceType> getAllResourceTypes() {
-        try {
-            return resourceTypeDAO.getAllResourceTypes();
-        } catch (DAOException e) {
-            throw new ManagerException("Error retrieving all resource types from the data source", e);
-        }
+        return referenceData.getSnapshot().getResourceTypes();
     }
 }
@@ -0,0 +1,57 @@
+package com.cerner.devcenter.education.managers;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.util.CellAddress;
+
+/***
+ * The address and value of one spreadsheet cell, read either from a
+ * {@link Cell} of a loaded workbook or from the streamed sheet XML of an .xlsx
+ * file. Every column of the bulk upload sheet is text, so only string values
+ * are kept; any other kind of cell has a null value.
+ */
+final class SheetCell {
+
+    private final CellAddress address;
+    private final String stringValue;
+
+    /***
+     * @param address
+     *            {@link CellAddress} of the cell
+     * @param stringValue
+     *            {@link String} value of the cell, or null when the cell does
+     *            not hold a string
+     */
+    SheetCell(CellAddress address, String stringValue) {
+        this.address = address;
+        this.stringValue = stringValue;
+    }
+
+    /***
+     * Create a {@link SheetCell} from a {@link Cell} of a loaded workbook.
+     *
+     * @param cell
+     *            the {@link Cell} to read
+     * @return {@link SheetCell} holding the cell's address and, for a
+     *         {@link Cell#CELL_TYPE_STRING} cell, its value
+     */
+    static SheetCell fromCell(Cell cell) {
+        String value = cell.getCellType() == Cell.CELL_TYPE_STRING ? cell.getStringCellValue() : null;
+        return new SheetCell(cell.getAddress(), value);
+    }
+
+    CellAddress getAddress() {
+        return address;
+    }
+
+    int getColumnIndex() {
+        return address.getColumn();
+    }
+
+    boolean isString() {
+        return stringValue != null;
+    }
+
+    String getStringValue() {
+        return stringValue;
+    }
+}
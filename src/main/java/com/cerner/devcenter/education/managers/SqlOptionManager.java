@@ -41,27 +41,20 @@ public class SqlOptionManager implements OptionManager {
      */
     @Override
     public TreeMap<Integer, String> getSkillOptions() {
-        Connection connection = null;
-        Statement statement = null;
-        ResultSet results = null;
-
-        try {
-            connection = dataSource.getConnection();
-            statement = connection.createStatement();
-            results = statement.executeQuery(SELECTSKILLOPTIONS);
-            
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet results = statement.executeQuery(SELECTSKILLOPTIONS)) {
             checkNotNull(results);
-            
-            while(results.next()) {
+
+            while (results.next()) {
                 int value = Integer.parseInt(results.getString("value"));
                 String description = results.getString("description");
                 skillOptions.put(value, description);
             }
-        }
-        catch (SQLException e) {
+        } catch (SQLException e) {
             LOGGER.error("Database Exception while pulling Skill Options", e);
         }
-        
+
         return skillOptions;
     }
 
@@ -70,38 +63,20 @@ public class SqlOptionManager implements OptionManager {
      */
     @Override
     public TreeMap<Integer, String> getRelevanceOptions() {
-        Connection connection = null;
-        Statement statement = null;
-        ResultSet results = null;
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet results = statement.executeQuery(SELECTRELOPTIONS)) {
+            checkNotNull(results);
 
-        try {
-            connection = dataSource.getConnection();
-            statement = connection.createStatement();
-            
-            results = statement.executeQuery(SELECTRELOPTIONS);
-            
-            checkNotNull(results);        
-            
-            while(results.next()) {
+            while (results.next()) {
                 int value = Integer.parseInt(results.getString("value"));
                 String description = results.getString("description");
                 relevanceOptions.put(value, description);
             }
-        }
-        catch (SQLException sqlEx) {
+        } catch (SQLException sqlEx) {
             LOGGER.error("Database Exception while pulling Relevance Options", sqlEx);
         }
-        finally {
-            try {
-        	    results.close();
-         	    statement.close();
-        	    connection.close();
-            }
-            catch (SQLException sqlEx) {
-                LOGGER.error("Database exception while closing connection", sqlEx);
-            }
-        }
-        
+
         return relevanceOptions;
     }
 }
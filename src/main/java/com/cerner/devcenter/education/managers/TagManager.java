@@ -4,7 +4,6 @@ import static com.cerner.devcenter.education.utils.TagNameVerifier.verifyTagName
 import static com.cerner.devcenter.education.utils.TagNameVerifier.verifyTagNameCollectionArgument;
 import static com.google.common.base.Preconditions.checkArgument;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -23,6 +22,7 @@ import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.admin.ResourceTagRelationDAO;
 import com.cerner.devcenter.education.admin.TagDAO;
 import com.cerner.devcenter.education.models.Tag;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
 import com.cerner.devcenter.education.utils.Constants;
 
 /**
@@ -40,26 +40,20 @@ public class TagManager {
     private TagDAO tagDAO;
     @Autowired
     private ResourceTagRelationDAO resourceTagRelationDAO;
+    @Autowired
+    private ReferenceDataStore referenceData;
 
     private static ResourceBundle i18nBundle = ResourceBundle.getBundle("i18n", Locale.getDefault());
     private static final String ERROR_RETRIEVING_SEARCHED_TAGS_MESSAGE = "Error retrieving searched tags from the database";
-    private static final String ERROR_RETRIEVING_ALL_TAGS_MESSAGE = "Error retrieving tags from the data source";
 
     /**
-     * Used to retrieve a list of all {@link Tag}.
+     * Used to retrieve a list of all {@link Tag} from the in-memory reference
+     * data, without querying the data source.
      *
-     * @return a {@link List} of {@link Tag}
-     * 
-     * @throws ManagerException
-     *             when a manager is not able to access the data source and
-     *             catches {@link DAOException}.
+     * @return an unmodifiable {@link List} of {@link Tag}
      */
     public List<Tag> getAllTags() {
-        try {
-            return tagDAO.getAllTags();
-        } catch (DAOException e) {
-            throw new ManagerException(ERROR_RETRIEVING_ALL_TAGS_MESSAGE, e);
-        }
+        return referenceData.getSnapshot().getTags();
     }
 
     /**
@@ -88,7 +82,10 @@ public class TagManager {
 
     /**
      * Given a set of tagNames, this method adds all of them to the specified
-     * resource.
+     * resource. Tags that do not exist yet are created and published in the
+     * reference data. The tags and the relations are written in a single
+     * statement, so concurrent calls with the same new tag names do not
+     * conflict.
      * 
      * @param tagNameSet
      *            A set of {@link String} objects. Each tag name becomes
@@ -105,85 +102,23 @@ public class TagManager {
      */
     public void addTagsToResource(final Set<String> tagNameSet, final int resourceID) throws ManagerException {
         verifyTagNameCollectionArgument(tagNameSet);
-        addMissingTags(tagNameSet);
-
-        List<Tag> tagsToAddToResource;
-        try {
-            tagsToAddToResource = tagDAO.getTagsWithNameInCollection(tagNameSet);
-        } catch (DAOException daoException) {
-            throw new ManagerException(Constants.ERROR_FINDING_TAGS_BY_NAME, daoException);
-        }
 
+        List<Tag> addedTags;
         try {
-            resourceTagRelationDAO.addTagsToResource(resourceID, tagsToAddToResource);
+            addedTags = resourceTagRelationDAO.addTagsToResourceByName(resourceID, tagNameSet);
         } catch (DAOException daoException) {
             throw new ManagerException(Constants.ERROR_ADDING_TAG_RESOURCE_RELTN, daoException);
         }
-    }
 
-    /**
-     * Given a collection of Strings representing tag names, this method will
-     * add a tag with that name to the database provided that a tag with that
-     * name (ignoring case) does not already exist.
-     * 
-     * @param tagNames
-     *            A collection of String objects. The collection cannot be empty
-     *            or null. The collection cannot contain Strings which are
-     *            empty, null, or blank.
-     * @throws IllegalArgumentException
-     *             When the provided collection is empty or null, or when the
-     *             collection contains elements that are null, blank, or empty.
-     * @throws ManagerException
-     *             When there is an error searching the database for matching
-     *             tags.
-     */
-    private void addMissingTags(final Collection<String> tagNames) throws ManagerException {
-        verifyTagNameCollectionArgument(tagNames);
-        List<String> missingTags = getMissingTagNames(tagNames);
-        if (!missingTags.isEmpty()) {
-            addMultipleTags(missingTags);
-        }
-    }
-
-    /**
-     * Given a collection of strings, this method returns the strings in that
-     * set which are not currently represented by a tag object in the database.
-     * 
-     * @param tagNames
-     *            A collection of Strings. The collection cannot be empty or
-     *            null, or contain elements that are empty, blank, or null.
-     * @return A list of Strings, all of which were not matched to a tag name.
-     * @throws IllegalArgumentException
-     *             When the provided collection is empty or null, or when the
-     *             collection contains elements that are null, blank, or empty.
-     * @throws ManagerException
-     *             When there is an error searching the database for matching
-     *             tags.
-     */
-    private List<String> getMissingTagNames(final Collection<String> tagNames) throws ManagerException {
-        verifyTagNameCollectionArgument(tagNames);
-        List<Tag> existingTags;
-        try {
-            existingTags = tagDAO.getTagsWithNameInCollection(tagNames);
-        } catch (DAOException daoException) {
-            throw new ManagerException(Constants.ERROR_FINDING_TAGS_BY_NAME, daoException);
-        }
-        Set<String> existingTagNames = new HashSet<String>(existingTags.size());
-        for (Tag tag : existingTags) {
-            existingTagNames.add(tag.getTagName().toLowerCase());
-        }
-        List<String> missingTagNames = new ArrayList<String>();
-        for (String tagName : tagNames) {
-            if (!existingTagNames.contains(tagName.toLowerCase())) {
-                missingTagNames.add(tagName);
-            }
+        if (!new HashSet<Tag>(referenceData.getSnapshot().getTags()).containsAll(addedTags)) {
+            referenceData.refreshTags();
         }
-        return missingTagNames;
     }
 
     /**
      * Adds a tag to the database with the specified name, assuming a tag with
-     * that name has not already been added.
+     * that name has not already been added, and publishes it in the reference
+     * data.
      * 
      * @param tagName
      *            A {@link String} that is the name of the tag to be added.
@@ -199,6 +134,7 @@ public class TagManager {
 
         try {
             tagDAO.addTagToDB(tagName);
+            referenceData.refreshTags();
         } catch (DAOException daoException) {
             LOGGER.error(Constants.ERROR_ADDING_TAG_TO_DB, daoException);
             throw new ManagerException(Constants.ERROR_ADDING_TAG_TO_DB, daoException);
@@ -225,6 +161,7 @@ public class TagManager {
 
         try {
             tagDAO.batchAddTags(tagNames);
+            referenceData.refreshTags();
         } catch (DAOException daoException) {
             LOGGER.error(Constants.ERROR_ADDING_TAG_TO_DB, daoException);
             throw new ManagerException(Constants.ERROR_ADDING_TAG_TO_DB, daoException);
@@ -16,6 +16,7 @@ import com.cerner.devcenter.education.dao.UserInterestedCategoryDAO;
 import com.cerner.devcenter.education.exceptions.DuplicateUserInterestedCategoryException;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.UserInterestedCategory;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
 import com.google.common.base.Preconditions;
 
 /**
@@ -30,6 +31,8 @@ import com.google.common.base.Preconditions;
 public class UserInterestedCategoryManager {
     @Autowired
     UserInterestedCategoryDAO userInterestedCategoryDAO;
+    @Autowired
+    UserRecommendationCache recommendationCache;
 
     private static final String INVALID_USER_INTERESTED_CATEGORY = "User Interested Category cannot be null.";
     private static final String INVALID_USER_ID = "UserID cannot be null, blank, or empty.";
@@ -66,11 +69,13 @@ public class UserInterestedCategoryManager {
             if (checkIfCategoryAlreadyExistsAsInterestedForUser(userInterestedCategory)) {
                 throw new DuplicateUserInterestedCategoryException(ERROR_CATEGORY_ALREADY_ADDED);
             }
-            return userInterestedCategoryDAO.addUserInterestedCategory(
+            final boolean added = userInterestedCategoryDAO.addUserInterestedCategory(
                     userInterestedCategory.getUserID(),
                     userInterestedCategory.getCategory(),
                     userInterestedCategory.getSkillLevel(),
                     userInterestedCategory.getInterestLevel());
+            recommendationCache.invalidateUser(userInterestedCategory.getUserID());
+            return added;
         } catch (DAOException e) {
             throw new ManagerException(ERROR_ADDING_INTERESTED_CATEGORY, e);
         }
@@ -91,11 +96,13 @@ public class UserInterestedCategoryManager {
     public boolean updateUserInterestedCategory(UserInterestedCategory userInterestedCategory) {
         Preconditions.checkArgument(userInterestedCategory != null, INVALID_USER_INTERESTED_CATEGORY);
         try {
-            return userInterestedCategoryDAO.updateUserInterestedCategory(
+            final boolean updated = userInterestedCategoryDAO.updateUserInterestedCategory(
                     userInterestedCategory.getUserID(),
                     userInterestedCategory.getCategory(),
                     userInterestedCategory.getSkillLevel(),
                     userInterestedCategory.getInterestLevel());
+            recommendationCache.invalidateUser(userInterestedCategory.getUserID());
+            return updated;
         } catch (DAOException e) {
             throw new ManagerException(ERROR_ADDING_INTERESTED_CATEGORY, e);
         }
@@ -156,9 +163,11 @@ public class UserInterestedCategoryManager {
     public boolean deleteUserInterestedCategory(UserInterestedCategory userInterestedCategory) {
         checkArgument(userInterestedCategory != null, INVALID_USER_INTERESTED_CATEGORY);
         try {
-            return userInterestedCategoryDAO.deleteUserInterestedCategory(
+            final boolean deleted = userInterestedCategoryDAO.deleteUserInterestedCategory(
                     userInterestedCategory.getUserID(),
                     userInterestedCategory.getCategory().getId());
+            recommendationCache.invalidateUser(userInterestedCategory.getUserID());
+            return deleted;
         } catch (DAOException daoException) {
             throw new ManagerException(ERROR_DELETING_CATEGORY_BY_ID, daoException);
         }
@@ -173,8 +182,8 @@ public class UserInterestedCategoryManager {
      * @param categoryIds
      *            Array that contains Category ID (can't be <code>null</code> or
      *            empty).
-     * @return a {@link Boolean} value, true if {@link UserInterestedCategory}
-     *         is deleted else false.
+     * @return a {@link Boolean} value, true if at least one
+     *         {@link UserInterestedCategory} is deleted else false.
      * @throws IllegalArgumentException
      *             <ul>
      *             <li>when <b>userId</b> is <code>null</code> or empty</li>
@@ -188,7 +197,13 @@ public class UserInterestedCategoryManager {
         checkArgument(StringUtils.isNotBlank(userId), INVALID_USER_ID);
         checkArgument(ArrayUtils.isNotEmpty(categoryIds), INVALID_CATEGORY_IDS);
         try {
-            return userInterestedCategoryDAO.deleteUserInterestedCategoryInBatch(userId, categoryIds);
+            final List<Integer> deletedCategoryIds = userInterestedCategoryDAO.deleteUserInterestedCategoryInBatch(
+                    userId, categoryIds);
+            if (deletedCategoryIds.isEmpty()) {
+                return false;
+            }
+            recommendationCache.invalidateUser(userId);
+            return true;
         } catch (DAOException daoException) {
             String daoExceptionMessage = ERROR_DELETING_CATEGORIES;
             LOGGER.error(daoExceptionMessage, daoException);
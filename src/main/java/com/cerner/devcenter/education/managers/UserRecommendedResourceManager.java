@@ -19,6 +19,9 @@ import com.cerner.devcenter.education.dao.UserRecommendedResourceDAO;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.UserInterestedCategory;
 import com.cerner.devcenter.education.models.UserRecommendedResource;
+import com.cerner.devcenter.education.recommendation.RecommendationEngine;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache.Recommendations;
 import com.cerner.devcenter.education.utils.Constants;
 
 /**
@@ -43,13 +46,19 @@ public class UserRecommendedResourceManager {
     UserRecommendedResourceDAO userRecommendedResourceDAO;
     @Autowired
     UserInterestedCategoryManager userInterestedCategoryManager;
+    @Autowired
+    UserRecommendationCache recommendationCache;
+    @Autowired(required = false)
+    RecommendationEngine recommendationEngine;
 
     /**
      * Retrieves a list from the database and creates a top ten list of
      * recommended resources to the user by using the user id of that level and
      * looking into users skill level and interest level for a category. Sorts the
      * list so that the resources from categories that the user is most interested
-     * in are at the beginning of the returned list.
+     * in are at the beginning of the returned list. The list is cached per user
+     * in the {@link UserRecommendationCache} until it expires or is
+     * invalidated.
      *
      * @param userId
      *            a {@link String} that is the user id of the user for whom we
@@ -63,9 +72,12 @@ public class UserRecommendedResourceManager {
      *            an {@link Integer} representing the minimum number of ratings
      *            before a resource can be considered to be rated. Cannot be
      *            negative.
-     * @return a {@link List} of {@link UserRecommendedResource} object
+     * @return an unmodifiable {@link List} of {@link UserRecommendedResource}
+     *         object
      * @throws IllegalArgumentException
      *             When the user ID is null, empty, or blank.
+     * @throws ManagerException
+     *             when a DAOException is thrown while performing a query.
      * @throws SQLException
      *             when there is an error in the query
      */
@@ -76,19 +88,61 @@ public class UserRecommendedResourceManager {
         checkArgument(StringUtils.isNotBlank(userId), INVALID_USER_ID_ERROR_MESSAGE);
         checkArgument(minimumRatingRequired >= 0, INVALID_MINIMUM_RATING_REQUIRED_ERROR_MESSAGE);
         checkArgument(minimumNumberOfRatingsRequired >= 0, INVALID_NUMBER_OF_RATINGS_REQUIRED_ERROR_MESSAGE);
+        return recommendationCache.get(
+                userId,
+                minimumRatingRequired,
+                minimumNumberOfRatingsRequired,
+                new UserRecommendationCache.Loader() {
+                    @Override
+                    public Recommendations load() {
+                        return loadRecommendedResources(userId, minimumRatingRequired, minimumNumberOfRatingsRequired);
+                    }
+                });
+    }
+
+    /**
+     * Computes the top ten recommended resources of a user, along with the
+     * ids of the categories the user is interested in, for the
+     * {@link UserRecommendationCache}. The candidate resources are computed by
+     * the {@link RecommendationEngine} when one is configured and ready, and
+     * read from the database otherwise.
+     *
+     * @throws ManagerException
+     *             when a DAOException is thrown while performing a query.
+     */
+    private Recommendations loadRecommendedResources(
+            final String userId,
+            final double minimumRatingRequired,
+            final int minimumNumberOfRatingsRequired) {
         try {
-            final List<UserRecommendedResource> recommendedResourcesFromDB = userRecommendedResourceDAO
-                    .getRecommendedResourcesForTheUser(userId, minimumRatingRequired, minimumNumberOfRatingsRequired);
+            final List<UserRecommendedResource> recommendedResourcesFromDB;
+            final List<UserInterestedCategory> userInterestedCategories;
+            if (recommendationEngine != null && recommendationEngine.isReady()) {
+                userInterestedCategories = userInterestedCategoryManager.getUserInterestedCategoriesById(userId);
+                recommendedResourcesFromDB = recommendationEngine.getRecommendedResources(
+                        userId,
+                        userInterestedCategories,
+                        minimumRatingRequired,
+                        minimumNumberOfRatingsRequired,
+                        MAX_RESOURCES_TO_RECOMMEND);
+            } else {
+                recommendedResourcesFromDB = userRecommendedResourceDAO.getRecommendedResourcesForTheUser(
+                        userId,
+                        minimumRatingRequired,
+                        minimumNumberOfRatingsRequired);
+                userInterestedCategories = userInterestedCategoryManager.getUserInterestedCategoriesById(userId);
+            }
             List<UserRecommendedResource> finalRecommendedResources = new ArrayList<>();
             if (!recommendedResourcesFromDB.isEmpty()) {
                 final Map<Integer, List<UserRecommendedResource>> recommendedResourcesByCategory = getRecommendedResourcesByCategory(
                         recommendedResourcesFromDB);
                 finalRecommendedResources = findTopTenResources(
-                        recommendedResourcesFromDB,
                         recommendedResourcesByCategory,
-                        userId);
+                        userInterestedCategories);
             }
-            return finalRecommendedResources;
+            return new Recommendations(
+                    finalRecommendedResources,
+                    createMapForUserInterestedCategoryInterestLevel(userInterestedCategories).keySet());
         } catch (final DAOException e) {
             throw new ManagerException(Constants.ERROR_RETRIEVING_RECOMMENDED_RESOURCES, e);
         }
@@ -179,8 +233,14 @@ public class UserRecommendedResourceManager {
             final List<UserRecommendedResource> allMatchingResources,
             final Map<Integer, List<UserRecommendedResource>> resourcesByCategoryId,
             final String userId) {
-        final List<UserInterestedCategory> userInterestedCategories = userInterestedCategoryManager
-                .getUserInterestedCategoriesById(userId);
+        return findTopTenResources(
+                resourcesByCategoryId,
+                userInterestedCategoryManager.getUserInterestedCategoriesById(userId));
+    }
+
+    private List<UserRecommendedResource> findTopTenResources(
+            final Map<Integer, List<UserRecommendedResource>> resourcesByCategoryId,
+            final List<UserInterestedCategory> userInterestedCategories) {
         final Map<Integer, Integer> interestLevelByUserInterestedCategoryId = createMapForUserInterestedCategoryInterestLevel(
                 userInterestedCategories);
         final double totalCountOfInterestLevel = findTotalCountOfInterestLevel(
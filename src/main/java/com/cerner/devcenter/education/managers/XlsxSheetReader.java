@@ -0,0 +1,216 @@
+package com.cerner.devcenter.education.managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/***
+ * Reads the first sheet of an .xlsx file one row at a time with POI's event
+ * API ({@link XSSFReader}) instead of loading the whole workbook. Only the
+ * current row and the shared strings table are held in memory, so large
+ * uploads do not grow the heap with the number of rows.
+ * <p>
+ * Cells are reported the same way the usermodel reports them: a cell is a
+ * string only when it holds a shared or inline string and no formula, and
+ * cells that exist in the XML without a value are still reported.
+ */
+final class XlsxSheetReader {
+
+    /***
+     * Receives the rows of the sheet in the order they appear in the file.
+     */
+    interface RowHandler {
+
+        /***
+         * @param rowNum
+         *            0-based index of the row
+         * @param cells
+         *            {@link List} of the {@link SheetCell} present in the row,
+         *            in column order. Empty when the row has no cells.
+         */
+        void handleRow(int rowNum, List<SheetCell> cells);
+    }
+
+    private XlsxSheetReader() {
+    }
+
+    /***
+     * Stream the rows of the first sheet of the given .xlsx file to the
+     * handler.
+     *
+     * @param file
+     *            {@link File} holding an .xlsx workbook. It is opened read
+     *            only and is not modified.
+     * @param rowHandler
+     *            {@link RowHandler} to receive each row
+     * @throws IOException
+     *             when the file cannot be read
+     * @throws OpenXML4JException
+     *             when the file is not a valid OOXML package or has no sheet
+     * @throws SAXException
+     *             when the sheet XML cannot be parsed
+     */
+    static void readFirstSheet(File file, RowHandler rowHandler)
+            throws IOException, OpenXML4JException, SAXException {
+        OPCPackage opcPackage = OPCPackage.open(file, PackageAccess.READ);
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new InvalidFormatException("Workbook does not contain any sheets");
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader xmlReader = newXMLReader();
+                xmlReader.setContentHandler(new SheetHandler(sharedStrings, rowHandler));
+                xmlReader.parse(new InputSource(sheet));
+            }
+        } finally {
+            opcPackage.revert();
+        }
+    }
+
+    private static XMLReader newXMLReader() throws SAXException {
+        try {
+            return SAXHelper.newXMLReader();
+        } catch (ParserConfigurationException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    /***
+     * SAX handler for the <code>sheetData</code> of a worksheet part.
+     */
+    private static class SheetHandler extends DefaultHandler {
+        private static final String ROW = "row";
+        private static final String CELL = "c";
+        private static final String VALUE = "v";
+        private static final String FORMULA = "f";
+        private static final String INLINE_STRING = "is";
+        private static final String TEXT = "t";
+        private static final String PHONETIC_RUN = "rPh";
+        private static final String REFERENCE_ATTRIBUTE = "r";
+        private static final String TYPE_ATTRIBUTE = "t";
+        private static final String SHARED_STRING_TYPE = "s";
+        private static final String INLINE_STRING_TYPE = "inlineStr";
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final RowHandler rowHandler;
+        private final StringBuilder text = new StringBuilder();
+
+        private List<SheetCell> cells;
+        private int rowNum = -1;
+        private int column;
+        private String cellType;
+        private boolean cellHasFormula;
+        private boolean collectingText;
+        private boolean inInlineString;
+        private boolean inPhoneticRun;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, RowHandler rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+            case ROW:
+                String rowReference = attributes.getValue(REFERENCE_ATTRIBUTE);
+                rowNum = rowReference != null ? Integer.parseInt(rowReference) - 1 : rowNum + 1;
+                column = -1;
+                cells = new ArrayList<SheetCell>();
+                break;
+            case CELL:
+                String cellReference = attributes.getValue(REFERENCE_ATTRIBUTE);
+                column = cellReference != null ? new CellReference(cellReference).getCol() : column + 1;
+                cellType = attributes.getValue(TYPE_ATTRIBUTE);
+                cellHasFormula = false;
+                text.setLength(0);
+                break;
+            case FORMULA:
+                cellHasFormula = true;
+                break;
+            case VALUE:
+                collectingText = !inInlineString;
+                break;
+            case INLINE_STRING:
+                inInlineString = true;
+                break;
+            case PHONETIC_RUN:
+                inPhoneticRun = true;
+                break;
+            case TEXT:
+                collectingText = inInlineString && !inPhoneticRun;
+                break;
+            default:
+                break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+            case ROW:
+                rowHandler.handleRow(rowNum, cells);
+                cells = null;
+                break;
+            case CELL:
+                cells.add(new SheetCell(new CellAddress(rowNum, column), stringValue()));
+                break;
+            case VALUE:
+            case TEXT:
+                collectingText = false;
+                break;
+            case INLINE_STRING:
+                inInlineString = false;
+                break;
+            case PHONETIC_RUN:
+                inPhoneticRun = false;
+                break;
+            default:
+                break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collectingText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        private String stringValue() {
+            if (cellHasFormula) {
+                return null;
+            }
+            if (SHARED_STRING_TYPE.equals(cellType)) {
+                return text.length() == 0 ? null : sharedStrings.getEntryAt(Integer.parseInt(text.toString()));
+            }
+            if (INLINE_STRING_TYPE.equals(cellType)) {
+                return text.toString();
+            }
+            return null;
+        }
+    }
+}
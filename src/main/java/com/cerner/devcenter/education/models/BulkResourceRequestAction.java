@@ -0,0 +1,64 @@
+package com.cerner.devcenter.education.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.apache.commons.lang3.ArrayUtils;
+
+/**
+ * Represents a request body for approving or rejecting many
+ * {@link ResourceRequest resource requests} at once.
+ */
+public class BulkResourceRequestAction {
+
+    private static final String ACTION_NULL_ERROR_MESSAGE = "Action cannot be null";
+    private static final String REQUEST_IDS_EMPTY_ERROR_MESSAGE = "Request IDs cannot be null or empty";
+
+    private ResourceRequestAction action;
+    private int[] requestIds;
+
+    /**
+     * Sets the action to take on the resource requests.
+     *
+     * @param action
+     *            a {@link ResourceRequestAction}. Cannot be null.
+     * @throws IllegalArgumentException
+     *             when action is null.
+     */
+    public void setAction(final ResourceRequestAction action) {
+        checkArgument(action != null, ACTION_NULL_ERROR_MESSAGE);
+        this.action = action;
+    }
+
+    /**
+     * Gets the action to take on the resource requests.
+     *
+     * @return the {@link ResourceRequestAction}, or null if it has not yet been
+     *         set.
+     */
+    public ResourceRequestAction getAction() {
+        return action;
+    }
+
+    /**
+     * Sets the ids of the resource requests.
+     *
+     * @param requestIds
+     *            an array of resource request ids. Cannot be null or empty.
+     * @throws IllegalArgumentException
+     *             when requestIds is null or empty.
+     */
+    public void setRequestIds(final int[] requestIds) {
+        checkArgument(ArrayUtils.isNotEmpty(requestIds), REQUEST_IDS_EMPTY_ERROR_MESSAGE);
+        this.requestIds = requestIds;
+    }
+
+    /**
+     * Gets the ids of the resource requests.
+     *
+     * @return an array of resource request ids, or null if it has not yet been
+     *         set.
+     */
+    public int[] getRequestIds() {
+        return requestIds;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cerner.devcenter.education.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of approving or rejecting many {@link ResourceRequest resource
+ * requests} at once: which of the requested ids were actually changed. Ids
+ * that did not exist, or were already approved, are not in the affected ids.
+ */
+public class BulkResourceRequestResult {
+
+    private static final String ACTION_NULL_ERROR_MESSAGE = "Action cannot be null";
+    private static final String INVALID_REQUESTED_COUNT_ERROR_MESSAGE = "Requested count cannot be negative";
+    private static final String AFFECTED_IDS_NULL_ERROR_MESSAGE = "Affected IDs cannot be null";
+
+    private final ResourceRequestAction action;
+    private final int requestedCount;
+    private final List<Integer> affectedIds;
+
+    /**
+     * Creates a result.
+     *
+     * @param action
+     *            the {@link ResourceRequestAction} that was taken. Cannot be
+     *            null.
+     * @param requestedCount
+     *            the number of ids that were asked for. Cannot be negative.
+     * @param affectedIds
+     *            the ids of the resource requests that were changed. Cannot be
+     *            null.
+     * @throws IllegalArgumentException
+     *             when action or affectedIds is null or requestedCount is
+     *             negative.
+     */
+    public BulkResourceRequestResult(
+            final ResourceRequestAction action,
+            final int requestedCount,
+            final List<Integer> affectedIds) {
+        checkArgument(action != null, ACTION_NULL_ERROR_MESSAGE);
+        checkArgument(requestedCount >= 0, INVALID_REQUESTED_COUNT_ERROR_MESSAGE);
+        checkArgument(affectedIds != null, AFFECTED_IDS_NULL_ERROR_MESSAGE);
+        this.action = action;
+        this.requestedCount = requestedCount;
+        this.affectedIds = Collections.unmodifiableList(affectedIds);
+    }
+
+    /**
+     * @return the {@link ResourceRequestAction} that was taken.
+     */
+    public ResourceRequestAction getAction() {
+        return action;
+    }
+
+    /**
+     * @return the number of ids that were asked for.
+     */
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+
+    /**
+     * @return an unmodifiable {@link List} of the ids of the resource requests
+     *         that were changed, in no particular order.
+     */
+    public List<Integer> getAffectedIds() {
+        return affectedIds;
+    }
+
+    /**
+     * @return the number of resource requests that were changed.
+     */
+    public int getAffectedCount() {
+        return affectedIds.size();
+    }
+}
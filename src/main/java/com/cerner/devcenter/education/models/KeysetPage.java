@@ -0,0 +1,78 @@
+package com.cerner.devcenter.education.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a listing that is read by seeking past the id of the last item
+ * of the previous page instead of skipping an offset, so every page costs the
+ * same regardless of how deep it is.
+ * <p>
+ * The id to read the next page after is <code>null</code> on the last page.
+ * The approximate total is <code>null</code> when it was not requested; it is
+ * read from maintained summaries or planner statistics and can lag behind the
+ * listing itself.
+ *
+ * @param <T>
+ *            the type of the items on the page.
+ */
+public class KeysetPage<T> {
+
+    private static final String ITEMS_NULL_ERROR_MESSAGE = "Items cannot be null";
+    private static final String INVALID_NEXT_AFTER_ERROR_MESSAGE = "Next after id must be greater than 0";
+    private static final String INVALID_APPROXIMATE_TOTAL_ERROR_MESSAGE = "Approximate total cannot be negative";
+
+    private final List<T> items;
+    private final Integer nextAfter;
+    private final Integer approximateTotal;
+
+    /**
+     * Creates a page.
+     *
+     * @param items
+     *            the items on the page, in listing order. Cannot be null.
+     * @param nextAfter
+     *            the id to read the next page after, or <code>null</code> when
+     *            this is the last page. Must be greater than 0 when set.
+     * @param approximateTotal
+     *            the approximate number of items in the whole listing, or
+     *            <code>null</code> when it was not requested. Cannot be
+     *            negative.
+     * @throws IllegalArgumentException
+     *             when items is null, nextAfter is not greater than 0 or
+     *             approximateTotal is negative.
+     */
+    public KeysetPage(final List<T> items, final Integer nextAfter, final Integer approximateTotal) {
+        checkArgument(items != null, ITEMS_NULL_ERROR_MESSAGE);
+        checkArgument(nextAfter == null || nextAfter > 0, INVALID_NEXT_AFTER_ERROR_MESSAGE);
+        checkArgument(approximateTotal == null || approximateTotal >= 0, INVALID_APPROXIMATE_TOTAL_ERROR_MESSAGE);
+        this.items = Collections.unmodifiableList(items);
+        this.nextAfter = nextAfter;
+        this.approximateTotal = approximateTotal;
+    }
+
+    /**
+     * @return an unmodifiable {@link List} of the items on the page.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return the id to read the next page after, or <code>null</code> when
+     *         this is the last page.
+     */
+    public Integer getNextAfter() {
+        return nextAfter;
+    }
+
+    /**
+     * @return the approximate number of items in the whole listing, or
+     *         <code>null</code> when it was not requested.
+     */
+    public Integer getApproximateTotal() {
+        return approximateTotal;
+    }
+}
@@ -0,0 +1,115 @@
+package com.cerner.devcenter.education.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An available {@link Resource} in one of its {@link Category categories},
+ * with its difficulty level in that category and the running count and sum of
+ * its completion ratings and the number of times its link was clicked. One row
+ * of the catalog the in-memory recommendation engine is built from.
+ */
+public class RecommendableResource {
+
+    private static final String RESOURCE_NULL_ERROR_MESSAGE = "Resource cannot be null";
+    private static final String CATEGORY_NULL_ERROR_MESSAGE = "Category cannot be null";
+    private static final String INVALID_RATING_COUNT_ERROR_MESSAGE = "Rating count cannot be negative";
+    private static final String INVALID_CLICK_COUNT_ERROR_MESSAGE = "Click count cannot be negative";
+
+    private final Resource resource;
+    private final Category category;
+    private final int difficultyLevel;
+    private final int ratingCount;
+    private final long ratingSum;
+    private final long clickCount;
+
+    /**
+     * Creates a catalog row of a resource that was never clicked.
+     *
+     * @param resource
+     *            the {@link Resource}. Cannot be null.
+     * @param category
+     *            the {@link Category} the resource is in. Cannot be null.
+     * @param difficultyLevel
+     *            the difficulty level of the resource in the category
+     * @param ratingCount
+     *            the number of completion ratings of the resource. Cannot be
+     *            negative; 0 when it has no ratings.
+     * @param ratingSum
+     *            the sum of the completion ratings of the resource
+     * @throws IllegalArgumentException
+     *             when resource or category is null or ratingCount is
+     *             negative.
+     */
+    public RecommendableResource(
+            final Resource resource,
+            final Category category,
+            final int difficultyLevel,
+            final int ratingCount,
+            final long ratingSum) {
+        this(resource, category, difficultyLevel, ratingCount, ratingSum, 0);
+    }
+
+    /**
+     * Creates a catalog row.
+     *
+     * @param resource
+     *            the {@link Resource}. Cannot be null.
+     * @param category
+     *            the {@link Category} the resource is in. Cannot be null.
+     * @param difficultyLevel
+     *            the difficulty level of the resource in the category
+     * @param ratingCount
+     *            the number of completion ratings of the resource. Cannot be
+     *            negative; 0 when it has no ratings.
+     * @param ratingSum
+     *            the sum of the completion ratings of the resource
+     * @param clickCount
+     *            the number of times the link of the resource was clicked.
+     *            Cannot be negative.
+     * @throws IllegalArgumentException
+     *             when resource or category is null or ratingCount or
+     *             clickCount is negative.
+     */
+    public RecommendableResource(
+            final Resource resource,
+            final Category category,
+            final int difficultyLevel,
+            final int ratingCount,
+            final long ratingSum,
+            final long clickCount) {
+        checkArgument(resource != null, RESOURCE_NULL_ERROR_MESSAGE);
+        checkArgument(category != null, CATEGORY_NULL_ERROR_MESSAGE);
+        checkArgument(ratingCount >= 0, INVALID_RATING_COUNT_ERROR_MESSAGE);
+        checkArgument(clickCount >= 0, INVALID_CLICK_COUNT_ERROR_MESSAGE);
+        this.resource = resource;
+        this.category = category;
+        this.difficultyLevel = difficultyLevel;
+        this.ratingCount = ratingCount;
+        this.ratingSum = ratingSum;
+        this.clickCount = clickCount;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public int getDifficultyLevel() {
+        return difficultyLevel;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public long getClickCount() {
+        return clickCount;
+    }
+}
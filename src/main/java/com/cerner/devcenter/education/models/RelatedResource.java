@@ -0,0 +1,41 @@
+package com.cerner.devcenter.education.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link Resource} completed by learners who also completed another
+ * resource, with the number of learners who completed both.
+ */
+public class RelatedResource {
+
+    private static final String RESOURCE_NULL_ERROR_MESSAGE = "Resource cannot be null";
+    private static final String INVALID_CO_COMPLETION_COUNT_ERROR_MESSAGE = "Co-completion count must be greater than 0";
+
+    private final Resource resource;
+    private final int coCompletionCount;
+
+    /**
+     * @param resource
+     *            the related {@link Resource}. Cannot be null.
+     * @param coCompletionCount
+     *            the number of learners who completed both resources. Must be
+     *            greater than 0.
+     * @throws IllegalArgumentException
+     *             when resource is null or coCompletionCount is not greater
+     *             than 0.
+     */
+    public RelatedResource(final Resource resource, final int coCompletionCount) {
+        checkArgument(resource != null, RESOURCE_NULL_ERROR_MESSAGE);
+        checkArgument(coCompletionCount > 0, INVALID_CO_COMPLETION_COUNT_ERROR_MESSAGE);
+        this.resource = resource;
+        this.coCompletionCount = coCompletionCount;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public int getCoCompletionCount() {
+        return coCompletionCount;
+    }
+}
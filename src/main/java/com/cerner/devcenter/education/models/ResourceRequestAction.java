@@ -0,0 +1,18 @@
+package com.cerner.devcenter.education.models;
+
+/**
+ * The decision an admin takes on {@link ResourceRequest resource requests}.
+ * <li>{@link #Approve}</li>
+ * <li>{@link #Reject}</li>
+ */
+public enum ResourceRequestAction {
+    /**
+     * {@link ResourceRequest} is marked as approved
+     */
+    Approve,
+    /**
+     * {@link ResourceRequest} is removed, as when it is deleted from the
+     * manage requests page
+     */
+    Reject;
+}
@@ -3,10 +3,10 @@ package com.cerner.devcenter.education.models;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -71,21 +71,19 @@ public class SkillResourceExtractor implements ResourceExtractor
         // Sort categories based on rating value
         Map<Integer, Integer> sortCategories = skillEvaluator.sortCategories(categoryRatingMap);
         
-        // Get resources from database for qualified categories
-        Map<Integer, List<Resource>> outputResourceMap = new LinkedHashMap<Integer, List<Resource>>(maxCategories);
-        
-        int categoryCounter = 0;
+        // Get resources from database for qualified categories, in rating order
+        List<Integer> qualifiedCategoryIds = new ArrayList<Integer>(maxCategories);
         
         for(Integer categoryId : sortCategories.keySet())
         {
-            if(categoryCounter == maxCategories)
+            if(qualifiedCategoryIds.size() == maxCategories)
             {
                 break;
             }
-            outputResourceMap.put(categoryId, resourceDao.getResourcesByCategoryId(categoryId));
-            categoryCounter++;
+            qualifiedCategoryIds.add(categoryId);
         }
-
-        return outputResourceMap;
+        
+        // One query for all qualified categories; the map keeps their order
+        return resourceDao.getResourcesByCategoryIds(qualifiedCategoryIds);
     }
 }
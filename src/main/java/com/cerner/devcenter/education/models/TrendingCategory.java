@@ -0,0 +1,41 @@
+package com.cerner.devcenter.education.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link Category} whose resources were completed recently, with the number
+ * of times they were completed in the trending window.
+ */
+public class TrendingCategory {
+
+    private static final String CATEGORY_NULL_ERROR_MESSAGE = "Category cannot be null";
+    private static final String INVALID_COMPLETION_COUNT_ERROR_MESSAGE = "Completion count must be greater than 0";
+
+    private final Category category;
+    private final long completionCount;
+
+    /**
+     * @param category
+     *            the trending {@link Category}. Cannot be null.
+     * @param completionCount
+     *            the number of times resources of the category were completed
+     *            in the trending window. Must be greater than 0.
+     * @throws IllegalArgumentException
+     *             when category is null or completionCount is not greater
+     *             than 0.
+     */
+    public TrendingCategory(final Category category, final long completionCount) {
+        checkArgument(category != null, CATEGORY_NULL_ERROR_MESSAGE);
+        checkArgument(completionCount > 0, INVALID_COMPLETION_COUNT_ERROR_MESSAGE);
+        this.category = category;
+        this.completionCount = completionCount;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public long getCompletionCount() {
+        return completionCount;
+    }
+}
@@ -0,0 +1,41 @@
+package com.cerner.devcenter.education.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@link Resource} completed recently, with the number of times it was
+ * completed in the trending window.
+ */
+public class TrendingResource {
+
+    private static final String RESOURCE_NULL_ERROR_MESSAGE = "Resource cannot be null";
+    private static final String INVALID_COMPLETION_COUNT_ERROR_MESSAGE = "Completion count must be greater than 0";
+
+    private final Resource resource;
+    private final long completionCount;
+
+    /**
+     * @param resource
+     *            the trending {@link Resource}. Cannot be null.
+     * @param completionCount
+     *            the number of times the resource was completed in the
+     *            trending window. Must be greater than 0.
+     * @throws IllegalArgumentException
+     *             when resource is null or completionCount is not greater
+     *             than 0.
+     */
+    public TrendingResource(final Resource resource, final long completionCount) {
+        checkArgument(resource != null, RESOURCE_NULL_ERROR_MESSAGE);
+        checkArgument(completionCount > 0, INVALID_COMPLETION_COUNT_ERROR_MESSAGE);
+        this.resource = resource;
+        this.completionCount = completionCount;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public long getCompletionCount() {
+        return completionCount;
+    }
+}
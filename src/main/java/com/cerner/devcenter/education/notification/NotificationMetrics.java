@@ -0,0 +1,128 @@
+package com.cerner.devcenter.education.notification;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of a {@link ResourceNotificationDispatcher}'s
+ * gauges and counters. Exposes plain getters so it can be returned directly as
+ * JSON.
+ */
+public class NotificationMetrics {
+
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final int pendingMessages;
+    private final long submittedCount;
+    private final long droppedCount;
+    private final long digestCount;
+    private final long sentMessageCount;
+    private final long sentRecipientCount;
+    private final long retryCount;
+    private final long failedMessageCount;
+    private final long lookupFailureCount;
+    private final LatencyHistogram.Snapshot sendLatency;
+
+    /**
+     * @param queueDepth
+     *            number of added resources waiting to be collected into a
+     *            digest
+     * @param queueCapacity
+     *            configured capacity of the resource queue
+     * @param pendingMessages
+     *            number of messages queued for sending or waiting to be
+     *            retried
+     * @param submittedCount
+     *            total number of resources accepted into the queue
+     * @param droppedCount
+     *            total number of resources rejected because the queue was full
+     * @param digestCount
+     *            total number of digests built from the queue
+     * @param sentMessageCount
+     *            total number of messages sent
+     * @param sentRecipientCount
+     *            total number of recipients across all sent messages
+     * @param retryCount
+     *            total number of send attempts that were retried
+     * @param failedMessageCount
+     *            total number of messages given up on after the last attempt
+     * @param lookupFailureCount
+     *            total number of resources whose subscribers could not be read
+     * @param sendLatency
+     *            snapshot of the send-latency histogram, one observation per
+     *            attempt
+     */
+    public NotificationMetrics(
+            final int queueDepth,
+            final int queueCapacity,
+            final int pendingMessages,
+            final long submittedCount,
+            final long droppedCount,
+            final long digestCount,
+            final long sentMessageCount,
+            final long sentRecipientCount,
+            final long retryCount,
+            final long failedMessageCount,
+            final long lookupFailureCount,
+            final LatencyHistogram.Snapshot sendLatency) {
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.pendingMessages = pendingMessages;
+        this.submittedCount = submittedCount;
+        this.droppedCount = droppedCount;
+        this.digestCount = digestCount;
+        this.sentMessageCount = sentMessageCount;
+        this.sentRecipientCount = sentRecipientCount;
+        this.retryCount = retryCount;
+        this.failedMessageCount = failedMessageCount;
+        this.lookupFailureCount = lookupFailureCount;
+        this.sendLatency = sendLatency;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getPendingMessages() {
+        return pendingMessages;
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public long getDigestCount() {
+        return digestCount;
+    }
+
+    public long getSentMessageCount() {
+        return sentMessageCount;
+    }
+
+    public long getSentRecipientCount() {
+        return sentRecipientCount;
+    }
+
+    public long getRetryCount() {
+        return retryCount;
+    }
+
+    public long getFailedMessageCount() {
+        return failedMessageCount;
+    }
+
+    public long getLookupFailureCount() {
+        return lookupFailureCount;
+    }
+
+    public LatencyHistogram.Snapshot getSendLatency() {
+        return sendLatency;
+    }
+}
@@ -0,0 +1,543 @@
+package com.cerner.devcenter.education.notification;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.UserSubscriptionDAO;
+import com.cerner.devcenter.education.models.Learner;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.google.common.collect.Lists;
+
+/**
+ * Sends the "new resource" emails to subscribed learners off the request
+ * thread. Adding a resource only puts it on a bounded queue; the subscriber
+ * lookup and the SMTP conversation happen in the background.
+ * <p>
+ * The dispatcher supports:
+ * <ul>
+ * <li>a bounded queue of added resources; when it is full new resources are
+ * dropped and counted instead of blocking the caller</li>
+ * <li>coalescing: resources added within the digest window are collected into
+ * one digest, so a learner subscribed to several of them gets one email
+ * listing all of them</li>
+ * <li>recipient chunking: learners who get the same digest share a message,
+ * sent to them as BCC in batches of at most the configured size</li>
+ * <li>a pool of sender threads, with failed sends retried with exponential
+ * backoff up to a maximum number of attempts</li>
+ * <li>metrics (see {@link NotificationMetrics}) including queue depth and a
+ * send-latency histogram</li>
+ * </ul>
+ * {@link #init()} and {@link #close()} are meant to be used as the Spring
+ * init-method and destroy-method of the bean.
+ */
+public class ResourceNotificationDispatcher implements MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceNotificationDispatcher.class);
+
+    private static final String MAIL_SENDER_NULL_ERROR_MESSAGE = "Mail sender cannot be null";
+    private static final String TEMPLATE_MESSAGE_NULL_ERROR_MESSAGE = "Template message cannot be null";
+    private static final String USER_SUBSCRIPTION_DAO_NULL_ERROR_MESSAGE = "User subscription DAO cannot be null";
+    private static final String RESOURCE_NULL_ERROR_MESSAGE = "Resource object cannot be null";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String NEGATIVE_DURATION_ERROR_MESSAGE = "Windows, backoffs and timeouts cannot be negative";
+    private static final String DISPATCHER_NOT_INITIALIZED_ERROR_MESSAGE = "Notification dispatcher has not been initialized";
+    private static final String DISPATCHER_ALREADY_INITIALIZED_ERROR_MESSAGE = "Notification dispatcher has already been initialized";
+    private static final String QUEUE_FULL_MESSAGE = "Notification queue is full or closed, dropping notification for resource {}";
+    private static final String LOOKUP_FAILED_MESSAGE = "Error retrieving subscribers of resource {}";
+    private static final String SEND_RETRY_MESSAGE = "Error sending notification to {} recipients, attempt {} of {}, retrying in {} ms";
+    private static final String SEND_FAILED_MESSAGE = "Giving up sending notification to {} recipients after {} attempts";
+    private static final String COLLECTOR_ERROR_MESSAGE = "Error building notification digest";
+    private static final String SHUTDOWN_TIMEOUT_MESSAGE = "Notification dispatcher closed with {} resources and {} messages still pending";
+    private static final String COLLECTOR_THREAD_NAME = "notification-collector";
+    private static final String SENDER_THREAD_NAME = "notification-sender-";
+    private static final String MESSAGE_PART1 = "email.message.part1";
+    private static final String MESSAGE_PART2 = "email.message.part2";
+    private static final String MESSAGE_PART3 = "email.message.part3";
+    private static final String DIGEST_SUBJECT = "email.digest.subject";
+    private static final String LINE_SEPARATOR = "\n\n";
+    private static final String MESSAGE_ENCODING = "UTF-8";
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    private static final int DEFAULT_SENDER_THREADS = 2;
+    private static final long DEFAULT_DIGEST_WINDOW_MILLIS = 5000;
+    private static final int DEFAULT_MAXIMUM_DIGEST_SIZE = 50;
+    private static final int DEFAULT_MAXIMUM_RECIPIENTS_PER_MESSAGE = 50;
+    private static final int DEFAULT_MAXIMUM_ATTEMPTS = 4;
+    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 1000;
+    private static final long DEFAULT_MAXIMUM_BACKOFF_MILLIS = 60000;
+    private static final long DEFAULT_SHUTDOWN_TIMEOUT_MILLIS = 10000;
+    private static final long COLLECTOR_POLL_MILLIS = 100;
+
+    private static ResourceBundle i18nBundle = ResourceBundle.getBundle("i18n", Locale.getDefault());
+
+    private JavaMailSender mailSender;
+    private SimpleMailMessage templateMessage;
+    private UserSubscriptionDAO userSubscriptionDAO;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private int senderThreads = DEFAULT_SENDER_THREADS;
+    private long digestWindowMillis = DEFAULT_DIGEST_WINDOW_MILLIS;
+    private int maximumDigestSize = DEFAULT_MAXIMUM_DIGEST_SIZE;
+    private int maximumRecipientsPerMessage = DEFAULT_MAXIMUM_RECIPIENTS_PER_MESSAGE;
+    private int maximumAttempts = DEFAULT_MAXIMUM_ATTEMPTS;
+    private long initialBackoffMillis = DEFAULT_INITIAL_BACKOFF_MILLIS;
+    private long maximumBackoffMillis = DEFAULT_MAXIMUM_BACKOFF_MILLIS;
+    private long shutdownTimeoutMillis = DEFAULT_SHUTDOWN_TIMEOUT_MILLIS;
+
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong digestCount = new AtomicLong();
+    private final AtomicLong sentMessageCount = new AtomicLong();
+    private final AtomicLong sentRecipientCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong failedMessageCount = new AtomicLong();
+    private final AtomicLong lookupFailureCount = new AtomicLong();
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+
+    private volatile BlockingQueue<Resource> queue;
+    private volatile boolean running;
+    private Thread collector;
+    private ScheduledThreadPoolExecutor senders;
+
+    /**
+     * Validates the configuration and starts the collector thread and the
+     * sender pool.
+     *
+     * @throws IllegalArgumentException
+     *             when a collaborator has not been set.
+     * @throws IllegalStateException
+     *             when the dispatcher has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(queue == null, DISPATCHER_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(mailSender != null, MAIL_SENDER_NULL_ERROR_MESSAGE);
+        checkArgument(templateMessage != null, TEMPLATE_MESSAGE_NULL_ERROR_MESSAGE);
+        checkArgument(userSubscriptionDAO != null, USER_SUBSCRIPTION_DAO_NULL_ERROR_MESSAGE);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        senders = new ScheduledThreadPoolExecutor(senderThreads, new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, SENDER_THREAD_NAME + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        collector = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                collect();
+            }
+        }, COLLECTOR_THREAD_NAME);
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    /**
+     * Stops accepting resources, builds digests for the resources still on the
+     * queue and waits up to the shutdown timeout for the pending messages,
+     * including their retries, to finish before stopping the sender pool.
+     */
+    public void close() {
+        final Thread collectorThread;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            collectorThread = collector;
+        }
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        try {
+            collectorThread.join(shutdownTimeoutMillis);
+            while (pendingMessages.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(COLLECTOR_POLL_MILLIS / 10);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty() || pendingMessages.get() > 0) {
+            LOGGER.warn(SHUTDOWN_TIMEOUT_MESSAGE, queue.size(), pendingMessages.get());
+        }
+        collectorThread.interrupt();
+        senders.shutdownNow();
+    }
+
+    /**
+     * Queues a notification for a newly added resource without blocking.
+     *
+     * @param resource
+     *            the {@link Resource} that was added; it must already have its
+     *            id, type, description and link set. Cannot be null.
+     * @return true when the resource was queued, false when the queue is full
+     *         or the dispatcher is shutting down and the notification was
+     *         dropped.
+     * @throws IllegalArgumentException
+     *             when the resource is null.
+     * @throws IllegalStateException
+     *             when the dispatcher has not been initialized.
+     */
+    public boolean submit(final Resource resource) {
+        checkArgument(resource != null, RESOURCE_NULL_ERROR_MESSAGE);
+        final BlockingQueue<Resource> resourceQueue = queue;
+        checkState(resourceQueue != null, DISPATCHER_NOT_INITIALIZED_ERROR_MESSAGE);
+        if (!running || !resourceQueue.offer(resource)) {
+            droppedCount.incrementAndGet();
+            LOGGER.warn(QUEUE_FULL_MESSAGE, resource.getResourceId());
+            return false;
+        }
+        submittedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the dispatcher's gauges and counters.
+     *
+     * @return a {@link NotificationMetrics}, never null.
+     */
+    @Override
+    public NotificationMetrics getMetrics() {
+        final BlockingQueue<Resource> resourceQueue = queue;
+        return new NotificationMetrics(
+                resourceQueue == null ? 0 : resourceQueue.size(),
+                queueCapacity,
+                pendingMessages.get(),
+                submittedCount.get(),
+                droppedCount.get(),
+                digestCount.get(),
+                sentMessageCount.get(),
+                sentRecipientCount.get(),
+                retryCount.get(),
+                failedMessageCount.get(),
+                lookupFailureCount.get(),
+                sendLatency.snapshot());
+    }
+
+    /**
+     * Collector loop: waits for a resource, keeps collecting until the digest
+     * window closes or the digest is full, then hands the digest off. Once the
+     * dispatcher is closing the remaining resources are drained without
+     * waiting.
+     */
+    private void collect() {
+        while (running || !queue.isEmpty()) {
+            try {
+                final Resource first = queue.poll(COLLECTOR_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                final List<Resource> digest = new ArrayList<>();
+                digest.add(first);
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(digestWindowMillis);
+                while (digest.size() < maximumDigestSize) {
+                    final long remaining = deadline - System.nanoTime();
+                    final Resource next = running && remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    digest.add(next);
+                }
+                dispatchDigest(digest);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final RuntimeException e) {
+                LOGGER.error(COLLECTOR_ERROR_MESSAGE, e);
+            }
+        }
+    }
+
+    /**
+     * Looks up the subscribers of every resource in the digest and queues one
+     * message per distinct set of resources, split into BCC batches.
+     *
+     * @param digest
+     *            the resources collected in one window
+     */
+    private void dispatchDigest(final List<Resource> digest) {
+        digestCount.incrementAndGet();
+        final Map<String, BitSet> resourcesByEmail = new LinkedHashMap<>();
+        for (int i = 0; i < digest.size(); i++) {
+            final List<Learner> learners;
+            try {
+                learners = userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(digest.get(i));
+            } catch (final DAOException e) {
+                lookupFailureCount.incrementAndGet();
+                LOGGER.error(LOOKUP_FAILED_MESSAGE, digest.get(i).getResourceId(), e);
+                continue;
+            }
+            for (final Learner learner : learners) {
+                BitSet resources = resourcesByEmail.get(learner.getEmailId());
+                if (resources == null) {
+                    resources = new BitSet(digest.size());
+                    resourcesByEmail.put(learner.getEmailId(), resources);
+                }
+                resources.set(i);
+            }
+        }
+        final Map<BitSet, Set<String>> emailsByResources = new LinkedHashMap<>();
+        for (final Map.Entry<String, BitSet> entry : resourcesByEmail.entrySet()) {
+            Set<String> emails = emailsByResources.get(entry.getValue());
+            if (emails == null) {
+                emails = new LinkedHashSet<>();
+                emailsByResources.put(entry.getValue(), emails);
+            }
+            emails.add(entry.getKey());
+        }
+        for (final Map.Entry<BitSet, Set<String>> entry : emailsByResources.entrySet()) {
+            final List<Resource> resources = new ArrayList<>();
+            for (int i = entry.getKey().nextSetBit(0); i >= 0; i = entry.getKey().nextSetBit(i + 1)) {
+                resources.add(digest.get(i));
+            }
+            final String subject = buildSubject(resources);
+            final String body = buildBody(resources);
+            for (final List<String> recipients : Lists.partition(new ArrayList<>(entry.getValue()),
+                    maximumRecipientsPerMessage)) {
+                pendingMessages.incrementAndGet();
+                senders.execute(new SendTask(subject, body, recipients));
+            }
+        }
+    }
+
+    private static String buildSubject(final List<Resource> resources) {
+        if (resources.size() == 1) {
+            return resources.get(0).getDescription();
+        }
+        return MessageFormat.format(i18nBundle.getString(DIGEST_SUBJECT), resources.size());
+    }
+
+    private static String buildBody(final List<Resource> resources) {
+        final StringBuilder body = new StringBuilder();
+        for (final Resource resource : resources) {
+            if (body.length() > 0) {
+                body.append(LINE_SEPARATOR);
+            }
+            body.append(i18nBundle.getString(MESSAGE_PART1)).append(resource.getResourceType().getResourceType())
+                    .append(' ').append(i18nBundle.getString(MESSAGE_PART2)).append(' ')
+                    .append(resource.getDescription()).append(' ').append(i18nBundle.getString(MESSAGE_PART3))
+                    .append(resource.getResourceLink());
+        }
+        return body.toString();
+    }
+
+    private long backoffMillis(final int attempt) {
+        long backoff = initialBackoffMillis;
+        for (int i = 1; i < attempt && backoff < maximumBackoffMillis; i++) {
+            backoff *= 2;
+        }
+        return Math.min(backoff, maximumBackoffMillis);
+    }
+
+    /**
+     * One message with its BCC recipients. Each run is one send attempt; a
+     * failed attempt reschedules the same task after a backoff.
+     */
+    private final class SendTask implements Runnable {
+        private final String subject;
+        private final String body;
+        private final List<String> recipients;
+        private int attempt;
+
+        private SendTask(final String subject, final String body, final List<String> recipients) {
+            this.subject = subject;
+            this.body = body;
+            this.recipients = Collections.unmodifiableList(new ArrayList<>(recipients));
+        }
+
+        @Override
+        public void run() {
+            attempt++;
+            final long start = System.nanoTime();
+            try {
+                final MimeMessage message = mailSender.createMimeMessage();
+                final MimeMessageHelper helper = new MimeMessageHelper(message, false, MESSAGE_ENCODING);
+                helper.setFrom(templateMessage.getFrom());
+                helper.setTo(templateMessage.getFrom());
+                helper.setBcc(recipients.toArray(new String[recipients.size()]));
+                helper.setSubject(subject);
+                helper.setText(body);
+                mailSender.send(message);
+                sendLatency.record(System.nanoTime() - start);
+                sentMessageCount.incrementAndGet();
+                sentRecipientCount.addAndGet(recipients.size());
+                pendingMessages.decrementAndGet();
+            } catch (final MailSendException e) {
+                sendLatency.record(System.nanoTime() - start);
+                if (attempt < maximumAttempts && !senders.isShutdown()) {
+                    final long backoff = backoffMillis(attempt);
+                    retryCount.incrementAndGet();
+                    LOGGER.warn(SEND_RETRY_MESSAGE, recipients.size(), attempt, maximumAttempts, backoff, e);
+                    senders.schedule(this, backoff, TimeUnit.MILLISECONDS);
+                } else {
+                    giveUp(e);
+                }
+            } catch (final MailException | MessagingException e) {
+                giveUp(e);
+            }
+        }
+
+        private void giveUp(final Exception cause) {
+            failedMessageCount.incrementAndGet();
+            pendingMessages.decrementAndGet();
+            LOGGER.error(SEND_FAILED_MESSAGE, recipients.size(), attempt, cause);
+        }
+    }
+
+    /**
+     * @param mailSender
+     *            the {@link JavaMailSender} used to send the emails. Cannot be
+     *            null.
+     */
+    public void setMailSender(final JavaMailSender mailSender) {
+        checkArgument(mailSender != null, MAIL_SENDER_NULL_ERROR_MESSAGE);
+        this.mailSender = mailSender;
+    }
+
+    /**
+     * @param templateMessage
+     *            the {@link SimpleMailMessage} holding the from address. Cannot
+     *            be null.
+     */
+    public void setTemplateMessage(final SimpleMailMessage templateMessage) {
+        checkArgument(templateMessage != null, TEMPLATE_MESSAGE_NULL_ERROR_MESSAGE);
+        this.templateMessage = templateMessage;
+    }
+
+    /**
+     * @param userSubscriptionDAO
+     *            the {@link UserSubscriptionDAO} used to find the subscribers
+     *            of a resource. Cannot be null.
+     */
+    public void setUserSubscriptionDAO(final UserSubscriptionDAO userSubscriptionDAO) {
+        checkArgument(userSubscriptionDAO != null, USER_SUBSCRIPTION_DAO_NULL_ERROR_MESSAGE);
+        this.userSubscriptionDAO = userSubscriptionDAO;
+    }
+
+    /**
+     * @param queueCapacity
+     *            the maximum number of added resources waiting to be
+     *            collected. Must be greater than 0.
+     */
+    public void setQueueCapacity(final int queueCapacity) {
+        checkArgument(queueCapacity > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Queue capacity");
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param senderThreads
+     *            the number of threads sending messages. Must be greater than
+     *            0.
+     */
+    public void setSenderThreads(final int senderThreads) {
+        checkArgument(senderThreads > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Sender threads");
+        this.senderThreads = senderThreads;
+    }
+
+    /**
+     * @param digestWindowMillis
+     *            how long after the first resource of a digest other resources
+     *            are collected into it; 0 sends every resource on its own.
+     *            Cannot be negative.
+     */
+    public void setDigestWindowMillis(final long digestWindowMillis) {
+        checkArgument(digestWindowMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE);
+        this.digestWindowMillis = digestWindowMillis;
+    }
+
+    /**
+     * @param maximumDigestSize
+     *            the maximum number of resources in one digest. Must be greater
+     *            than 0.
+     */
+    public void setMaximumDigestSize(final int maximumDigestSize) {
+        checkArgument(maximumDigestSize > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum digest size");
+        this.maximumDigestSize = maximumDigestSize;
+    }
+
+    /**
+     * @param maximumRecipientsPerMessage
+     *            the maximum number of BCC recipients of one message. Must be
+     *            greater than 0.
+     */
+    public void setMaximumRecipientsPerMessage(final int maximumRecipientsPerMessage) {
+        checkArgument(maximumRecipientsPerMessage > 0, POSITIVE_VALUE_ERROR_MESSAGE,
+                "Maximum recipients per message");
+        this.maximumRecipientsPerMessage = maximumRecipientsPerMessage;
+    }
+
+    /**
+     * @param maximumAttempts
+     *            the number of times a message is tried before it is given up
+     *            on. Must be greater than 0.
+     */
+    public void setMaximumAttempts(final int maximumAttempts) {
+        checkArgument(maximumAttempts > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum attempts");
+        this.maximumAttempts = maximumAttempts;
+    }
+
+    /**
+     * @param initialBackoffMillis
+     *            the delay before the first retry; it doubles for every further
+     *            retry. Cannot be negative.
+     */
+    public void setInitialBackoffMillis(final long initialBackoffMillis) {
+        checkArgument(initialBackoffMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE);
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    /**
+     * @param maximumBackoffMillis
+     *            the upper bound of the delay between retries. Cannot be
+     *            negative.
+     */
+    public void setMaximumBackoffMillis(final long maximumBackoffMillis) {
+        checkArgument(maximumBackoffMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE);
+        this.maximumBackoffMillis = maximumBackoffMillis;
+    }
+
+    /**
+     * @param shutdownTimeoutMillis
+     *            how long {@link #close()} waits for pending messages. Cannot
+     *            be negative.
+     */
+    public void setShutdownTimeoutMillis(final long shutdownTimeoutMillis) {
+        checkArgument(shutdownTimeoutMillis >= 0, NEGATIVE_DURATION_ERROR_MESSAGE);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+}
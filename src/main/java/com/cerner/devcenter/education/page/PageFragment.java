@@ -0,0 +1,56 @@
+package com.cerner.devcenter.education.page;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * One independently loaded part of a page, such as a widget, loaded by a
+ * {@link PageFragmentLoader}. A fragment loads the model entries it renders
+ * and has a fallback, the entries of its empty widget, used when the load
+ * fails or does not finish in time.
+ */
+public abstract class PageFragment {
+
+    private static final String NAME_INVALID_ERROR_MESSAGE = "Fragment name cannot be null, empty or whitespace.";
+    private static final String FALLBACK_NULL_ERROR_MESSAGE = "Fragment fallback cannot be null";
+
+    private final String name;
+    private final Map<String, Object> fallback;
+
+    /**
+     * @param name
+     *            the name of the fragment, used in logs. Cannot be null, empty
+     *            or blank.
+     * @param fallback
+     *            the model entries of the empty widget shown when the fragment
+     *            cannot be loaded. Cannot be null.
+     */
+    protected PageFragment(final String name, final Map<String, Object> fallback) {
+        checkArgument(StringUtils.isNotBlank(name), NAME_INVALID_ERROR_MESSAGE);
+        checkArgument(fallback != null, FALLBACK_NULL_ERROR_MESSAGE);
+        this.name = name;
+        this.fallback = Collections.unmodifiableMap(new HashMap<>(fallback));
+    }
+
+    /**
+     * Loads the model entries of the fragment. Runs on a loader thread, so it
+     * must only use state captured when the fragment was created, not the
+     * request or the session.
+     *
+     * @return the model entries of the fragment, never null.
+     */
+    public abstract Map<String, Object> load();
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, Object> getFallback() {
+        return fallback;
+    }
+}
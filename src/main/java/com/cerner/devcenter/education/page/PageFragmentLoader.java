@@ -0,0 +1,278 @@
+package com.cerner.devcenter.education.page;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+
+/**
+ * Loads the independent fragments of a page concurrently, so the page takes
+ * as long as its slowest fragment instead of the sum of all of them.
+ * <p>
+ * The loader supports:
+ * <ul>
+ * <li>a bounded pool of loader threads with a bounded queue; when both are
+ * full a fragment is loaded on the request thread instead of being
+ * dropped</li>
+ * <li>a per-fragment timeout, counted from the moment the page starts
+ * loading; a fragment that does not finish in time is cancelled and replaced
+ * by its fallback</li>
+ * <li>graceful degradation: a fragment that throws is replaced by its
+ * fallback, the entries of its empty widget, and the rest of the page is still
+ * shown</li>
+ * <li>metrics (see {@link PageFragmentMetrics}) including fragment and page
+ * latency histograms</li>
+ * </ul>
+ * {@link #init()} and {@link #close()} are meant to be used as the Spring
+ * init-method and destroy-method of the bean.
+ */
+public class PageFragmentLoader implements MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PageFragmentLoader.class);
+
+    private static final String FRAGMENTS_NULL_ERROR_MESSAGE = "Page fragments cannot be null";
+    private static final String FRAGMENT_NULL_ERROR_MESSAGE = "Page fragment cannot be null";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String LOADER_NOT_INITIALIZED_ERROR_MESSAGE = "Page fragment loader has not been initialized";
+    private static final String LOADER_ALREADY_INITIALIZED_ERROR_MESSAGE = "Page fragment loader has already been initialized";
+    private static final String FRAGMENT_NULL_MODEL_MESSAGE = "Page fragment {} returned no model, showing its fallback";
+    private static final String FRAGMENT_TIMEOUT_MESSAGE = "Page fragment {} did not load within {} ms, showing its fallback";
+    private static final String FRAGMENT_FAILED_MESSAGE = "Page fragment {} failed to load, showing its fallback";
+    private static final String FRAGMENT_REJECTED_MESSAGE = "Page fragment loader is saturated, loading fragment {} on the request thread";
+    private static final String LOADER_THREAD_NAME = "page-fragment-loader-";
+
+    private static final int DEFAULT_MAXIMUM_THREADS = 8;
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+    private static final long DEFAULT_FRAGMENT_TIMEOUT_MILLIS = 2000;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    private int maximumThreads = DEFAULT_MAXIMUM_THREADS;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private long fragmentTimeoutMillis = DEFAULT_FRAGMENT_TIMEOUT_MILLIS;
+
+    private final AtomicLong pageCount = new AtomicLong();
+    private final AtomicLong fragmentCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final LatencyHistogram fragmentLatency = new LatencyHistogram();
+    private final LatencyHistogram pageLatency = new LatencyHistogram();
+
+    private volatile ThreadPoolExecutor executor;
+
+    /**
+     * Validates the configuration and starts the loader pool. Loader threads
+     * are started on demand and stop after a minute without work.
+     *
+     * @throws IllegalStateException
+     *             when the loader has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(executor == null, LOADER_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                maximumThreads,
+                maximumThreads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, LOADER_THREAD_NAME
+                                + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    /**
+     * Stops the loader pool, interrupting fragments still loading.
+     */
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads the fragments concurrently and merges their model entries, in the
+     * order of the fragments. A fragment that fails, returns null or does not
+     * finish within the fragment timeout contributes its fallback instead.
+     *
+     * @param fragments
+     *            the {@link PageFragment fragments} of the page. Cannot be
+     *            null or contain null.
+     * @return the merged model entries of all fragments, never null.
+     * @throws IllegalStateException
+     *             when the loader has not been initialized.
+     */
+    public Map<String, Object> loadAll(final List<? extends PageFragment> fragments) {
+        checkArgument(fragments != null, FRAGMENTS_NULL_ERROR_MESSAGE);
+        for (final PageFragment fragment : fragments) {
+            checkArgument(fragment != null, FRAGMENT_NULL_ERROR_MESSAGE);
+        }
+        final ThreadPoolExecutor pool = executor;
+        checkState(pool != null, LOADER_NOT_INITIALIZED_ERROR_MESSAGE);
+        final long startNanos = System.nanoTime();
+        final long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(fragmentTimeoutMillis);
+
+        final List<Future<Map<String, Object>>> futures = new ArrayList<>(fragments.size());
+        final List<PageFragment> rejectedFragments = new ArrayList<>();
+        for (final PageFragment fragment : fragments) {
+            try {
+                futures.add(pool.submit(new Callable<Map<String, Object>>() {
+                    @Override
+                    public Map<String, Object> call() {
+                        return loadTimed(fragment);
+                    }
+                }));
+            } catch (final RejectedExecutionException rejectedExecutionException) {
+                rejectedCount.incrementAndGet();
+                LOGGER.warn(FRAGMENT_REJECTED_MESSAGE, fragment.getName());
+                futures.add(null);
+                rejectedFragments.add(fragment);
+            }
+        }
+        final Map<PageFragment, Map<String, Object>> rejectedModels = new HashMap<>();
+        for (final PageFragment fragment : rejectedFragments) {
+            rejectedModels.put(fragment, loadInline(fragment));
+        }
+
+        final Map<String, Object> model = new HashMap<>();
+        for (int i = 0; i < fragments.size(); i++) {
+            final PageFragment fragment = fragments.get(i);
+            final Future<Map<String, Object>> future = futures.get(i);
+            final Map<String, Object> fragmentModel = future == null
+                    ? rejectedModels.get(fragment)
+                    : await(fragment, future, deadlineNanos);
+            model.putAll(fragmentModel);
+        }
+        pageCount.incrementAndGet();
+        pageLatency.record(System.nanoTime() - startNanos);
+        return model;
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the loader's gauges and counters.
+     *
+     * @return a {@link PageFragmentMetrics}, never null.
+     */
+    @Override
+    public PageFragmentMetrics getMetrics() {
+        final ThreadPoolExecutor pool = executor;
+        return new PageFragmentMetrics(
+                pool == null ? 0 : pool.getActiveCount(),
+                pool == null ? 0 : pool.getQueue().size(),
+                maximumThreads,
+                fragmentTimeoutMillis,
+                pageCount.get(),
+                fragmentCount.get(),
+                timeoutCount.get(),
+                failureCount.get(),
+                rejectedCount.get(),
+                fragmentLatency.snapshot(),
+                pageLatency.snapshot());
+    }
+
+    private Map<String, Object> await(
+            final PageFragment fragment,
+            final Future<Map<String, Object>> future,
+            final long deadlineNanos) {
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException timeoutException) {
+            future.cancel(true);
+            timeoutCount.incrementAndGet();
+            LOGGER.warn(FRAGMENT_TIMEOUT_MESSAGE, fragment.getName(), fragmentTimeoutMillis);
+        } catch (final ExecutionException executionException) {
+            failureCount.incrementAndGet();
+            LOGGER.error(FRAGMENT_FAILED_MESSAGE, fragment.getName(), executionException.getCause());
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        return fragment.getFallback();
+    }
+
+    private Map<String, Object> loadInline(final PageFragment fragment) {
+        try {
+            return loadTimed(fragment);
+        } catch (final RuntimeException runtimeException) {
+            failureCount.incrementAndGet();
+            LOGGER.error(FRAGMENT_FAILED_MESSAGE, fragment.getName(), runtimeException);
+            return fragment.getFallback();
+        }
+    }
+
+    private Map<String, Object> loadTimed(final PageFragment fragment) {
+        final long startNanos = System.nanoTime();
+        try {
+            final Map<String, Object> fragmentModel = fragment.load();
+            if (fragmentModel == null) {
+                LOGGER.warn(FRAGMENT_NULL_MODEL_MESSAGE, fragment.getName());
+                return fragment.getFallback();
+            }
+            return fragmentModel;
+        } finally {
+            fragmentCount.incrementAndGet();
+            fragmentLatency.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * @param maximumThreads
+     *            the maximum number of fragments loaded at once across all
+     *            requests. Each load typically holds a database connection, so
+     *            size it against the connection pool. Must be greater than 0.
+     */
+    public void setMaximumThreads(final int maximumThreads) {
+        checkArgument(maximumThreads > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum threads");
+        this.maximumThreads = maximumThreads;
+    }
+
+    /**
+     * @param queueCapacity
+     *            the maximum number of fragments waiting for a loader thread;
+     *            beyond it fragments are loaded on the request thread. Must be
+     *            greater than 0.
+     */
+    public void setQueueCapacity(final int queueCapacity) {
+        checkArgument(queueCapacity > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Queue capacity");
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param fragmentTimeoutMillis
+     *            how long a page waits for its fragments before showing the
+     *            fallback of those not loaded yet. Must be greater than 0.
+     */
+    public void setFragmentTimeoutMillis(final long fragmentTimeoutMillis) {
+        checkArgument(fragmentTimeoutMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Fragment timeout");
+        this.fragmentTimeoutMillis = fragmentTimeoutMillis;
+    }
+}
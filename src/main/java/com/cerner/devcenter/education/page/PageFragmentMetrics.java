@@ -0,0 +1,120 @@
+package com.cerner.devcenter.education.page;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of the {@link PageFragmentLoader}'s gauges and
+ * counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class PageFragmentMetrics {
+
+    private final int activeThreads;
+    private final int queuedFragments;
+    private final int maximumThreads;
+    private final long fragmentTimeoutMillis;
+    private final long pageCount;
+    private final long fragmentCount;
+    private final long timeoutCount;
+    private final long failureCount;
+    private final long rejectedCount;
+    private final LatencyHistogram.Snapshot fragmentLatency;
+    private final LatencyHistogram.Snapshot pageLatency;
+
+    /**
+     * @param activeThreads
+     *            number of fragments being loaded right now
+     * @param queuedFragments
+     *            number of fragments waiting for a loader thread
+     * @param maximumThreads
+     *            configured maximum number of loader threads
+     * @param fragmentTimeoutMillis
+     *            configured time a page waits for its fragments
+     * @param pageCount
+     *            total number of pages loaded
+     * @param fragmentCount
+     *            total number of fragment loads that ran, whether they
+     *            finished in time or not
+     * @param timeoutCount
+     *            total number of fragments replaced by their fallback because
+     *            they did not finish in time
+     * @param failureCount
+     *            total number of fragments replaced by their fallback because
+     *            they failed
+     * @param rejectedCount
+     *            total number of fragments loaded on the request thread because
+     *            the loader was saturated
+     * @param fragmentLatency
+     *            snapshot of the fragment-latency histogram
+     * @param pageLatency
+     *            snapshot of the page-latency histogram, from the first
+     *            fragment started to the last one merged
+     */
+    public PageFragmentMetrics(
+            final int activeThreads,
+            final int queuedFragments,
+            final int maximumThreads,
+            final long fragmentTimeoutMillis,
+            final long pageCount,
+            final long fragmentCount,
+            final long timeoutCount,
+            final long failureCount,
+            final long rejectedCount,
+            final LatencyHistogram.Snapshot fragmentLatency,
+            final LatencyHistogram.Snapshot pageLatency) {
+        this.activeThreads = activeThreads;
+        this.queuedFragments = queuedFragments;
+        this.maximumThreads = maximumThreads;
+        this.fragmentTimeoutMillis = fragmentTimeoutMillis;
+        this.pageCount = pageCount;
+        this.fragmentCount = fragmentCount;
+        this.timeoutCount = timeoutCount;
+        this.failureCount = failureCount;
+        this.rejectedCount = rejectedCount;
+        this.fragmentLatency = fragmentLatency;
+        this.pageLatency = pageLatency;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public int getQueuedFragments() {
+        return queuedFragments;
+    }
+
+    public int getMaximumThreads() {
+        return maximumThreads;
+    }
+
+    public long getFragmentTimeoutMillis() {
+        return fragmentTimeoutMillis;
+    }
+
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    public long getFragmentCount() {
+        return fragmentCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public LatencyHistogram.Snapshot getFragmentLatency() {
+        return fragmentLatency;
+    }
+
+    public LatencyHistogram.Snapshot getPageLatency() {
+        return pageLatency;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A resource completed by learners who also completed a given resource, as
+ * found by the {@link CoCompletionIndex}.
+ */
+public class CoCompletedResource {
+
+    private static final String INVALID_RESOURCE_ID_ERROR_MESSAGE = "Resource Id cannot be negative";
+    private static final String INVALID_CO_COMPLETION_COUNT_ERROR_MESSAGE = "Co-completion count must be greater than 0";
+    private static final String INVALID_SIMILARITY_ERROR_MESSAGE = "Similarity must be between 0 and 1";
+
+    private final int resourceId;
+    private final int coCompletionCount;
+    private final double similarity;
+
+    /**
+     * @param resourceId
+     *            the id of the related resource. Cannot be negative.
+     * @param coCompletionCount
+     *            the number of learners who completed both resources. Must be
+     *            greater than 0.
+     * @param similarity
+     *            the cosine similarity of the two resources over their
+     *            learners, between 0 and 1.
+     * @throws IllegalArgumentException
+     *             when any argument is out of range.
+     */
+    public CoCompletedResource(final int resourceId, final int coCompletionCount, final double similarity) {
+        checkArgument(resourceId >= 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        checkArgument(coCompletionCount > 0, INVALID_CO_COMPLETION_COUNT_ERROR_MESSAGE);
+        checkArgument(similarity >= 0 && similarity <= 1, INVALID_SIMILARITY_ERROR_MESSAGE);
+        this.resourceId = resourceId;
+        this.coCompletionCount = coCompletionCount;
+        this.similarity = similarity;
+    }
+
+    public int getResourceId() {
+        return resourceId;
+    }
+
+    public int getCoCompletionCount() {
+        return coCompletionCount;
+    }
+
+    public double getSimilarity() {
+        return similarity;
+    }
+}
@@ -0,0 +1,793 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.CompletedUserResourceDAO;
+import com.cerner.devcenter.education.models.CompletedResource;
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.LongIntHashMap;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.google.common.base.Throwables;
+
+/**
+ * Item-to-item index of the resources completed by the same learners, read
+ * from the completed_user_resource table: for every resource it keeps the
+ * resources most similar to it, with the number of learners who completed
+ * both. Resources are ranked by the cosine similarity of their learners,
+ * <code>both / sqrt(completedFirst * completedSecond)</code>, so resources
+ * everybody completes do not crowd out the ones specific to a resource.
+ * <p>
+ * The index is rebuilt in the background right away and then every rebuild
+ * period:
+ * <ul>
+ * <li>the completions are read page by page, a bounded number of users at a
+ * time and only the most recently completed resources of each user, so the
+ * rows held while reading do not grow with the table</li>
+ * <li>resources are split into shards by id, each counted by its own worker
+ * thread into a {@link LongIntHashMap} keyed by the pair of resource ids, so
+ * the workers share nothing and need no merge; while the workers count a
+ * page, the next page is read</li>
+ * <li>with more than one pass, the completions are read once per pass and
+ * each pass counts only its share of the shards, which divides the memory
+ * taken by the pair counts by the number of passes</li>
+ * <li>each shard then keeps only the most similar resources of each of its
+ * resources</li>
+ * </ul>
+ * Between rebuilds, {@link #resourceCompleted(String, int)} adds a new
+ * completion in the background: the counts of the pairs it forms with the
+ * other resources of the learner are increased, and pairs not kept by the
+ * last rebuild are added while a resource has room for more related
+ * resources. The next rebuild corrects whatever this leaves out. A completion
+ * recorded while a rebuild is reading may be counted twice until the next
+ * rebuild.
+ * <p>
+ * The index is an immutable snapshot replaced as a whole, so reads take no
+ * lock. Rebuild, update and request counts and latencies are exposed through
+ * {@link #getMetrics()}. {@link #init()} and {@link #close()} are meant to be
+ * used as the Spring init-method and destroy-method of the bean.
+ */
+public class CoCompletionIndex implements MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoCompletionIndex.class);
+
+    private static final String COMPLETED_USER_RESOURCE_DAO_NULL_ERROR_MESSAGE = "Completed user resource DAO cannot be null";
+    private static final String USER_ID_INVALID_ERROR_MESSAGE = "User Id cannot be null, empty or whitespace.";
+    private static final String INVALID_RESOURCE_ID_ERROR_MESSAGE = "Resource Id cannot be negative";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String INDEX_ALREADY_INITIALIZED_ERROR_MESSAGE = "Co-completion index has already been initialized";
+    private static final String REBUILD_INTERRUPTED_ERROR_MESSAGE = "Co-completion index rebuild was interrupted";
+    private static final String INDEX_DISABLED_MESSAGE = "Co-completion index is disabled, no related resources are shown";
+    private static final String REBUILT_MESSAGE = "Indexed {} completions of {} users: {} resources with {} related resources";
+    private static final String REBUILD_FAILED_MESSAGE = "Error rebuilding the co-completion index";
+    private static final String UPDATE_FAILED_MESSAGE = "Error adding the completion of resource {} by user {} to the co-completion index";
+    private static final String UPDATE_REJECTED_MESSAGE = "Co-completion index is closed, skipping the completion of resource {} by user {}";
+    private static final String INDEX_THREAD_NAME = "co-completion-index";
+    private static final String WORKER_THREAD_NAME = "co-completion-index-worker-";
+    private static final String FIRST_USER_ID = "";
+
+    private static final long DEFAULT_REBUILD_PERIOD_MILLIS = 3600000;
+    private static final int DEFAULT_PASSES = 1;
+    private static final int DEFAULT_USERS_PER_PAGE = 1000;
+    private static final int DEFAULT_MAXIMUM_COMPLETIONS_PER_USER = 200;
+    private static final int DEFAULT_MAXIMUM_RELATED_RESOURCES = 50;
+    private static final int[] NO_RESOURCES = new int[0];
+
+    private CompletedUserResourceDAO completedUserResourceDAO;
+    private boolean enabled = true;
+    private long rebuildPeriodMillis = DEFAULT_REBUILD_PERIOD_MILLIS;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int passes = DEFAULT_PASSES;
+    private int usersPerPage = DEFAULT_USERS_PER_PAGE;
+    private int maximumCompletionsPerUser = DEFAULT_MAXIMUM_COMPLETIONS_PER_USER;
+    private int maximumRelatedResources = DEFAULT_MAXIMUM_RELATED_RESOURCES;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong updateFailureCount = new AtomicLong();
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private final AtomicLong rebuildFailureCount = new AtomicLong();
+    private final LatencyHistogram requestLatency = new LatencyHistogram();
+    private final LatencyHistogram rebuildLatency = new LatencyHistogram();
+
+    // Serializes rebuilds and updates, which both replace the snapshot.
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+    private volatile long lastRebuildTimeMillis;
+    private volatile long lastRebuildUserCount;
+    private volatile long lastRebuildCompletionCount;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Validates the configuration and, when the index is enabled, builds it in
+     * the background right away and then every rebuild period. Until the
+     * first build succeeds the index is not {@link #isReady() ready}.
+     *
+     * @throws IllegalArgumentException
+     *             when the DAO has not been set.
+     * @throws IllegalStateException
+     *             when the index has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(scheduler == null, INDEX_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(completedUserResourceDAO != null, COMPLETED_USER_RESOURCE_DAO_NULL_ERROR_MESSAGE);
+        if (!enabled) {
+            LOGGER.info(INDEX_DISABLED_MESSAGE);
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, INDEX_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    rebuild();
+                } catch (final DAOException | RuntimeException exception) {
+                    LOGGER.error(REBUILD_FAILED_MESSAGE, exception);
+                }
+            }
+        }, 0, rebuildPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the scheduled rebuilds and the pending updates.
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads every completion from the database and replaces the index.
+     *
+     * @throws DAOException
+     *             when the completions cannot be read; the index then keeps
+     *             its previous state.
+     * @throws IllegalStateException
+     *             when the rebuild is interrupted.
+     */
+    public void rebuild() throws DAOException {
+        synchronized (writeLock) {
+            final long start = System.nanoTime();
+            try {
+                snapshot = build(start);
+                rebuildCount.incrementAndGet();
+                lastRebuildTimeMillis = System.currentTimeMillis();
+            } catch (final DAOException | RuntimeException exception) {
+                rebuildFailureCount.incrementAndGet();
+                throw exception;
+            } finally {
+                rebuildLatency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private Snapshot build(final long readStartNanos) throws DAOException {
+        final int shards = threads * passes;
+        final LongIntHashMap completerCounts = new LongIntHashMap();
+        final List<Row[]> rows = new ArrayList<>();
+        long userCount = 0;
+        long completionCount = 0;
+        final ExecutorService workers = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger threadNumber = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, WORKER_THREAD_NAME + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            for (int pass = 0; pass < passes; pass++) {
+                final List<ShardCounter> counters = new ArrayList<>(threads);
+                for (int worker = 0; worker < threads; worker++) {
+                    counters.add(new ShardCounter(shards, pass * threads + worker));
+                }
+                List<Future<Void>> counting = Collections.emptyList();
+                String afterUserId = FIRST_USER_ID;
+                while (true) {
+                    final Map<String, int[]> page = completedUserResourceDAO
+                            .getRecentlyCompletedResourceIdsByUserAfter(afterUserId, usersPerPage,
+                                    maximumCompletionsPerUser);
+                    awaitAll(counting);
+                    if (page.isEmpty()) {
+                        break;
+                    }
+                    final Collection<int[]> completedResourceIds = page.values();
+                    if (pass == 0) {
+                        for (final int[] userResourceIds : completedResourceIds) {
+                            for (final int resourceId : userResourceIds) {
+                                completerCounts.increment(resourceId, 1);
+                            }
+                            userCount++;
+                            completionCount += userResourceIds.length;
+                        }
+                    }
+                    final List<Future<Void>> submitted = new ArrayList<>(threads);
+                    for (final ShardCounter counter : counters) {
+                        submitted.add(workers.submit(new Callable<Void>() {
+                            @Override
+                            public Void call() {
+                                counter.count(completedResourceIds);
+                                return null;
+                            }
+                        }));
+                    }
+                    counting = submitted;
+                    afterUserId = lastKey(page);
+                }
+                final List<Future<Row[]>> selecting = new ArrayList<>(threads);
+                for (final ShardCounter counter : counters) {
+                    selecting.add(workers.submit(new Callable<Row[]>() {
+                        @Override
+                        public Row[] call() {
+                            return counter.selectRelatedResources(completerCounts, maximumRelatedResources);
+                        }
+                    }));
+                }
+                for (final Future<Row[]> shardRows : selecting) {
+                    rows.add(await(shardRows));
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        final Snapshot built = Snapshot.merge(rows, completerCounts, readStartNanos);
+        lastRebuildUserCount = userCount;
+        lastRebuildCompletionCount = completionCount;
+        LOGGER.info(REBUILT_MESSAGE, completionCount, userCount, built.rows.length, built.relatedResourceCount);
+        return built;
+    }
+
+    private static String lastKey(final Map<String, int[]> page) {
+        String last = null;
+        for (final String userId : page.keySet()) {
+            last = userId;
+        }
+        return last;
+    }
+
+    private static void awaitAll(final List<Future<Void>> futures) {
+        for (final Future<Void> future : futures) {
+            await(future);
+        }
+    }
+
+    private static <T> T await(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (final ExecutionException executionException) {
+            throw Throwables.propagate(executionException.getCause());
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(REBUILD_INTERRUPTED_ERROR_MESSAGE, interruptedException);
+        }
+    }
+
+    /**
+     * @return true once the index has been built, so related resources can be
+     *         looked up.
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Looks up the resources completed by the learners who completed a
+     * resource.
+     *
+     * @param resourceId
+     *            the id of the resource. Cannot be negative.
+     * @return the related resources, most similar first, then the ones
+     *         completed together most often, then by id. Empty when the
+     *         index is not built yet or nobody who completed the resource
+     *         completed another one.
+     * @throws IllegalArgumentException
+     *             when the resource id is negative.
+     */
+    public List<CoCompletedResource> getRelatedResources(final int resourceId) {
+        checkArgument(resourceId >= 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        final Snapshot current = snapshot;
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        final long start = System.nanoTime();
+        try {
+            final Row row = current.row(resourceId);
+            if (row == null) {
+                return Collections.emptyList();
+            }
+            final List<CoCompletedResource> related = new ArrayList<>(row.relatedResourceIds.length);
+            for (int index = 0; index < row.relatedResourceIds.length; index++) {
+                final Row relatedRow = current.row(row.relatedResourceIds[index]);
+                related.add(new CoCompletedResource(row.relatedResourceIds[index], row.coCompletionCounts[index],
+                        similarity(row.coCompletionCounts[index], row.completerCount,
+                                relatedRow == null ? 0 : relatedRow.completerCount)));
+            }
+            Collections.sort(related, RELATED_RESOURCE_ORDER);
+            return related;
+        } finally {
+            requestCount.incrementAndGet();
+            requestLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds a completion to the index in the background. Does nothing when the
+     * index is not scheduled.
+     *
+     * @param userId
+     *            the id of the user who completed the resource. Cannot be
+     *            null, empty or whitespace.
+     * @param resourceId
+     *            the id of the completed resource. Cannot be negative.
+     * @throws IllegalArgumentException
+     *             when the user id is blank or the resource id is negative.
+     */
+    public void resourceCompleted(final String userId, final int resourceId) {
+        checkArgument(StringUtils.isNotBlank(userId), USER_ID_INVALID_ERROR_MESSAGE);
+        checkArgument(resourceId >= 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        final ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current == null) {
+            return;
+        }
+        final long completedNanos = System.nanoTime();
+        try {
+            current.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        addCompletion(userId, resourceId, completedNanos);
+                    } catch (final DAOException | RuntimeException exception) {
+                        updateFailureCount.incrementAndGet();
+                        LOGGER.error(UPDATE_FAILED_MESSAGE, resourceId, userId, exception);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException rejectedExecutionException) {
+            LOGGER.warn(UPDATE_REJECTED_MESSAGE, resourceId, userId);
+        }
+    }
+
+    /**
+     * Adds a completion to the index, counting the pairs it forms with the
+     * other resources most recently completed by the user. Skipped when the
+     * index is not built yet, or was built from completions read after this
+     * one was recorded and so already counts it.
+     */
+    void addCompletion(final String userId, final int resourceId, final long completedNanos) throws DAOException {
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            if (current == null || completedNanos - current.readStartNanos < 0) {
+                return;
+            }
+            final List<CompletedResource> completed = completedUserResourceDAO
+                    .getMostRecentlyCompletedResources(userId, maximumCompletionsPerUser);
+            final int[] otherResourceIds = new int[completed.size()];
+            int others = 0;
+            for (final CompletedResource completedResource : completed) {
+                if (completedResource.getResourceId() != resourceId) {
+                    otherResourceIds[others++] = completedResource.getResourceId();
+                }
+            }
+            snapshot = current.withCompletion(resourceId, Arrays.copyOf(otherResourceIds, others),
+                    maximumRelatedResources);
+            updateCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return a point-in-time {@link CoCompletionIndexMetrics} snapshot.
+     */
+    @Override
+    public CoCompletionIndexMetrics getMetrics() {
+        final Snapshot current = snapshot;
+        return new CoCompletionIndexMetrics(
+                enabled,
+                current != null,
+                current == null ? 0 : current.rows.length,
+                current == null ? 0 : current.relatedResourceCount,
+                threads,
+                passes,
+                rebuildPeriodMillis,
+                lastRebuildTimeMillis,
+                lastRebuildUserCount,
+                lastRebuildCompletionCount,
+                rebuildCount.get(),
+                rebuildFailureCount.get(),
+                updateCount.get(),
+                updateFailureCount.get(),
+                requestCount.get(),
+                rebuildLatency.snapshot(),
+                requestLatency.snapshot());
+    }
+
+    /**
+     * @param completedUserResourceDAO
+     *            the {@link CompletedUserResourceDAO} the completions are read
+     *            from. Cannot be null.
+     */
+    public void setCompletedUserResourceDAO(final CompletedUserResourceDAO completedUserResourceDAO) {
+        checkArgument(completedUserResourceDAO != null, COMPLETED_USER_RESOURCE_DAO_NULL_ERROR_MESSAGE);
+        this.completedUserResourceDAO = completedUserResourceDAO;
+    }
+
+    /**
+     * @param enabled
+     *            false to never build the index, so no related resources are
+     *            shown.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param rebuildPeriodMillis
+     *            the delay between two rebuilds, which bounds how long
+     *            completions left out by the background updates take to show.
+     *            Must be greater than 0.
+     */
+    public void setRebuildPeriodMillis(final long rebuildPeriodMillis) {
+        checkArgument(rebuildPeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Rebuild period");
+        this.rebuildPeriodMillis = rebuildPeriodMillis;
+    }
+
+    /**
+     * @param threads
+     *            the number of worker threads counting the pairs during a
+     *            rebuild, by default the number of processors. Must be
+     *            greater than 0.
+     */
+    public void setThreads(final int threads) {
+        checkArgument(threads > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Threads");
+        this.threads = threads;
+    }
+
+    /**
+     * @param passes
+     *            the number of times the completions are read during a
+     *            rebuild, each pass counting a share of the resources. More
+     *            passes take more time and less memory. Must be greater than
+     *            0.
+     */
+    public void setPasses(final int passes) {
+        checkArgument(passes > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Passes");
+        this.passes = passes;
+    }
+
+    /**
+     * @param usersPerPage
+     *            the number of users whose completions are read at a time.
+     *            Must be greater than 0.
+     */
+    public void setUsersPerPage(final int usersPerPage) {
+        checkArgument(usersPerPage > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Users per page");
+        this.usersPerPage = usersPerPage;
+    }
+
+    /**
+     * @param maximumCompletionsPerUser
+     *            the number of most recent completions of each user that are
+     *            counted. The pairs of a user grow with the square of this
+     *            number. Must be greater than 0.
+     */
+    public void setMaximumCompletionsPerUser(final int maximumCompletionsPerUser) {
+        checkArgument(maximumCompletionsPerUser > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum completions per user");
+        this.maximumCompletionsPerUser = maximumCompletionsPerUser;
+    }
+
+    /**
+     * @param maximumRelatedResources
+     *            the number of related resources kept for each resource. Must
+     *            be greater than 0.
+     */
+    public void setMaximumRelatedResources(final int maximumRelatedResources) {
+        checkArgument(maximumRelatedResources > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum related resources");
+        this.maximumRelatedResources = maximumRelatedResources;
+    }
+
+    /**
+     * The cosine similarity of two resources over their learners, at most 1
+     * even when background updates left the counts slightly off.
+     */
+    static double similarity(final int coCompletionCount, final int completerCount, final int otherCompleterCount) {
+        if (completerCount == 0 || otherCompleterCount == 0) {
+            return 0;
+        }
+        return Math.min(1, coCompletionCount / Math.sqrt((double) completerCount * otherCompleterCount));
+    }
+
+    private static long pair(final int resourceId, final int otherResourceId) {
+        return ((long) resourceId << 32) | (otherResourceId & 0xFFFFFFFFL);
+    }
+
+    private static final Comparator<CoCompletedResource> RELATED_RESOURCE_ORDER = new Comparator<CoCompletedResource>() {
+        @Override
+        public int compare(final CoCompletedResource first, final CoCompletedResource second) {
+            final int bySimilarity = Double.compare(second.getSimilarity(), first.getSimilarity());
+            if (bySimilarity != 0) {
+                return bySimilarity;
+            }
+            if (first.getCoCompletionCount() != second.getCoCompletionCount()) {
+                return second.getCoCompletionCount() > first.getCoCompletionCount() ? 1 : -1;
+            }
+            return first.getResourceId() < second.getResourceId() ? -1
+                    : first.getResourceId() == second.getResourceId() ? 0 : 1;
+        }
+    };
+
+    /**
+     * Counts the pairs whose first resource belongs to one shard. Used by one
+     * worker thread at a time.
+     */
+    private static final class ShardCounter {
+
+        private final int shards;
+        private final int shard;
+        private final LongIntHashMap pairCounts = new LongIntHashMap();
+
+        private ShardCounter(final int shards, final int shard) {
+            this.shards = shards;
+            this.shard = shard;
+        }
+
+        private void count(final Collection<int[]> completedResourceIds) {
+            for (final int[] userResourceIds : completedResourceIds) {
+                for (final int resourceId : userResourceIds) {
+                    if (resourceId % shards != shard) {
+                        continue;
+                    }
+                    for (final int otherResourceId : userResourceIds) {
+                        if (otherResourceId != resourceId) {
+                            pairCounts.increment(pair(resourceId, otherResourceId), 1);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Keeps the most similar resources of each resource of the shard,
+         * including the resources of the shard that share no learner.
+         *
+         * @return the rows of the resources of the shard, by resource id.
+         */
+        private Row[] selectRelatedResources(final LongIntHashMap completerCounts, final int maximum) {
+            final long[] pairs = pairCounts.keys();
+            Arrays.sort(pairs);
+            final List<Row> rows = new ArrayList<>();
+            int first = 0;
+            while (first < pairs.length) {
+                final int resourceId = (int) (pairs[first] >>> 32);
+                int end = first;
+                while (end < pairs.length && (int) (pairs[end] >>> 32) == resourceId) {
+                    end++;
+                }
+                final int completerCount = completerCounts.get(resourceId);
+                final List<CoCompletedResource> candidates = new ArrayList<>(end - first);
+                for (int index = first; index < end; index++) {
+                    final int otherResourceId = (int) pairs[index];
+                    final int coCompletionCount = pairCounts.get(pairs[index]);
+                    candidates.add(new CoCompletedResource(otherResourceId, coCompletionCount,
+                            similarity(coCompletionCount, completerCount, completerCounts.get(otherResourceId))));
+                }
+                Collections.sort(candidates, RELATED_RESOURCE_ORDER);
+                rows.add(Row.of(resourceId, completerCount,
+                        candidates.subList(0, Math.min(maximum, candidates.size()))));
+                first = end;
+            }
+            return rows.toArray(new Row[rows.size()]);
+        }
+    }
+
+    /**
+     * The number of learners of a resource and its related resources, sorted
+     * by id, with the number of learners who completed both. Immutable.
+     */
+    private static final class Row {
+
+        private final int resourceId;
+        private final int completerCount;
+        private final int[] relatedResourceIds;
+        private final int[] coCompletionCounts;
+
+        private Row(
+                final int resourceId,
+                final int completerCount,
+                final int[] relatedResourceIds,
+                final int[] coCompletionCounts) {
+            this.resourceId = resourceId;
+            this.completerCount = completerCount;
+            this.relatedResourceIds = relatedResourceIds;
+            this.coCompletionCounts = coCompletionCounts;
+        }
+
+        private static Row of(final int resourceId, final int completerCount, final List<CoCompletedResource> related) {
+            final List<CoCompletedResource> byId = new ArrayList<>(related);
+            Collections.sort(byId, new Comparator<CoCompletedResource>() {
+                @Override
+                public int compare(final CoCompletedResource first, final CoCompletedResource second) {
+                    return first.getResourceId() < second.getResourceId() ? -1
+                            : first.getResourceId() == second.getResourceId() ? 0 : 1;
+                }
+            });
+            final int[] relatedResourceIds = new int[byId.size()];
+            final int[] coCompletionCounts = new int[byId.size()];
+            for (int index = 0; index < byId.size(); index++) {
+                relatedResourceIds[index] = byId.get(index).getResourceId();
+                coCompletionCounts[index] = byId.get(index).getCoCompletionCount();
+            }
+            return new Row(resourceId, completerCount, relatedResourceIds, coCompletionCounts);
+        }
+
+        /**
+         * @return a copy of the row with the count of the pair with another
+         *         resource increased, adding the pair while there is room.
+         */
+        private Row withCoCompletion(final int otherResourceId, final int maximum) {
+            final int index = Arrays.binarySearch(relatedResourceIds, otherResourceId);
+            if (index >= 0) {
+                final int[] counts = coCompletionCounts.clone();
+                counts[index]++;
+                return new Row(resourceId, completerCount, relatedResourceIds, counts);
+            }
+            if (relatedResourceIds.length >= maximum) {
+                return this;
+            }
+            final int insertion = -index - 1;
+            final int[] ids = new int[relatedResourceIds.length + 1];
+            final int[] counts = new int[ids.length];
+            System.arraycopy(relatedResourceIds, 0, ids, 0, insertion);
+            System.arraycopy(coCompletionCounts, 0, counts, 0, insertion);
+            ids[insertion] = otherResourceId;
+            counts[insertion] = 1;
+            System.arraycopy(relatedResourceIds, insertion, ids, insertion + 1, relatedResourceIds.length - insertion);
+            System.arraycopy(coCompletionCounts, insertion, counts, insertion + 1, coCompletionCounts.length - insertion);
+            return new Row(resourceId, completerCount, ids, counts);
+        }
+
+        private Row withCompleter() {
+            return new Row(resourceId, completerCount + 1, relatedResourceIds, coCompletionCounts);
+        }
+    }
+
+    /**
+     * The rows of every resource that has been completed, sorted by resource
+     * id. Immutable; updates return a new snapshot sharing the unchanged rows.
+     */
+    private static final class Snapshot {
+
+        private final int[] resourceIds;
+        private final Row[] rows;
+        private final long relatedResourceCount;
+        private final long readStartNanos;
+
+        private Snapshot(final int[] resourceIds, final Row[] rows, final long readStartNanos) {
+            this.resourceIds = resourceIds;
+            this.rows = rows;
+            this.readStartNanos = readStartNanos;
+            long related = 0;
+            for (final Row row : rows) {
+                related += row.relatedResourceIds.length;
+            }
+            this.relatedResourceCount = related;
+        }
+
+        /**
+         * Merges the rows of every shard, adding empty rows for the resources
+         * whose learners completed nothing else.
+         */
+        private static Snapshot merge(
+                final List<Row[]> shardRows,
+                final LongIntHashMap completerCounts,
+                final long readStartNanos) {
+            final long[] completedResourceIds = completerCounts.keys();
+            Arrays.sort(completedResourceIds);
+            final Row[] merged = new Row[completedResourceIds.length];
+            final int[] resourceIds = new int[completedResourceIds.length];
+            for (int index = 0; index < completedResourceIds.length; index++) {
+                resourceIds[index] = (int) completedResourceIds[index];
+            }
+            for (final Row[] rows : shardRows) {
+                for (final Row row : rows) {
+                    merged[Arrays.binarySearch(resourceIds, row.resourceId)] = row;
+                }
+            }
+            for (int index = 0; index < merged.length; index++) {
+                if (merged[index] == null) {
+                    merged[index] = new Row(resourceIds[index], completerCounts.get(resourceIds[index]),
+                            NO_RESOURCES, NO_RESOURCES);
+                }
+            }
+            return new Snapshot(resourceIds, merged, readStartNanos);
+        }
+
+        private Row row(final int resourceId) {
+            final int index = Arrays.binarySearch(resourceIds, resourceId);
+            return index < 0 ? null : rows[index];
+        }
+
+        /**
+         * @return a copy of the snapshot with one more learner of a resource
+         *         and one more co-completion of each pair it forms with the
+         *         other resources of that learner.
+         */
+        private Snapshot withCompletion(final int resourceId, final int[] otherResourceIds, final int maximum) {
+            final int[] missing = new int[otherResourceIds.length + 1];
+            int missingCount = 0;
+            for (final int id : concat(resourceId, otherResourceIds)) {
+                if (Arrays.binarySearch(resourceIds, id) < 0) {
+                    missing[missingCount++] = id;
+                }
+            }
+            Arrays.sort(missing, 0, missingCount);
+            final int[] ids = new int[resourceIds.length + missingCount];
+            final Row[] updated = new Row[ids.length];
+            int from = 0;
+            int next = 0;
+            for (int index = 0; index < ids.length; index++) {
+                if (next < missingCount && (from == resourceIds.length || missing[next] < resourceIds[from])) {
+                    ids[index] = missing[next];
+                    updated[index] = new Row(missing[next], 0, NO_RESOURCES, NO_RESOURCES);
+                    next++;
+                } else {
+                    ids[index] = resourceIds[from];
+                    updated[index] = rows[from];
+                    from++;
+                }
+            }
+            final int index = Arrays.binarySearch(ids, resourceId);
+            Row row = updated[index].withCompleter();
+            for (final int otherResourceId : otherResourceIds) {
+                row = row.withCoCompletion(otherResourceId, maximum);
+                final int otherIndex = Arrays.binarySearch(ids, otherResourceId);
+                updated[otherIndex] = updated[otherIndex].withCoCompletion(resourceId, maximum);
+            }
+            updated[index] = row;
+            return new Snapshot(ids, updated, readStartNanos);
+        }
+
+        private static int[] concat(final int resourceId, final int[] otherResourceIds) {
+            final int[] all = new int[otherResourceIds.length + 1];
+            all[0] = resourceId;
+            System.arraycopy(otherResourceIds, 0, all, 1, otherResourceIds.length);
+            return all;
+        }
+    }
+}
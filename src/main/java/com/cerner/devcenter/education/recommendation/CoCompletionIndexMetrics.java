@@ -0,0 +1,173 @@
+package com.cerner.devcenter.education.recommendation;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of a {@link CoCompletionIndex}'s gauges and
+ * counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class CoCompletionIndexMetrics {
+
+    private final boolean enabled;
+    private final boolean ready;
+    private final int resourceCount;
+    private final long relatedResourceCount;
+    private final int threads;
+    private final int passes;
+    private final long rebuildPeriodMillis;
+    private final long lastRebuildTimeMillis;
+    private final long lastRebuildUserCount;
+    private final long lastRebuildCompletionCount;
+    private final long rebuildCount;
+    private final long rebuildFailureCount;
+    private final long updateCount;
+    private final long updateFailureCount;
+    private final long requestCount;
+    private final LatencyHistogram.Snapshot rebuildLatency;
+    private final LatencyHistogram.Snapshot requestLatency;
+
+    /**
+     * @param enabled
+     *            whether the index is configured to be built
+     * @param ready
+     *            whether the index has been built
+     * @param resourceCount
+     *            number of completed resources in the index
+     * @param relatedResourceCount
+     *            number of related resources kept over all resources
+     * @param threads
+     *            configured number of worker threads of a rebuild
+     * @param passes
+     *            configured number of passes over the completions of a
+     *            rebuild
+     * @param rebuildPeriodMillis
+     *            configured delay between two rebuilds
+     * @param lastRebuildTimeMillis
+     *            time of the last successful rebuild, in milliseconds since
+     *            the epoch, or 0 when the index has not been built
+     * @param lastRebuildUserCount
+     *            number of users read by the last successful rebuild
+     * @param lastRebuildCompletionCount
+     *            number of completions counted by the last successful rebuild
+     * @param rebuildCount
+     *            total number of successful rebuilds
+     * @param rebuildFailureCount
+     *            total number of rebuilds that failed
+     * @param updateCount
+     *            total number of completions added between rebuilds
+     * @param updateFailureCount
+     *            total number of completions that could not be added
+     * @param requestCount
+     *            total number of related resource lookups
+     * @param rebuildLatency
+     *            snapshot of the rebuild-latency histogram, one observation
+     *            per rebuild
+     * @param requestLatency
+     *            snapshot of the request-latency histogram, one observation
+     *            per lookup
+     */
+    public CoCompletionIndexMetrics(
+            final boolean enabled,
+            final boolean ready,
+            final int resourceCount,
+            final long relatedResourceCount,
+            final int threads,
+            final int passes,
+            final long rebuildPeriodMillis,
+            final long lastRebuildTimeMillis,
+            final long lastRebuildUserCount,
+            final long lastRebuildCompletionCount,
+            final long rebuildCount,
+            final long rebuildFailureCount,
+            final long updateCount,
+            final long updateFailureCount,
+            final long requestCount,
+            final LatencyHistogram.Snapshot rebuildLatency,
+            final LatencyHistogram.Snapshot requestLatency) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.resourceCount = resourceCount;
+        this.relatedResourceCount = relatedResourceCount;
+        this.threads = threads;
+        this.passes = passes;
+        this.rebuildPeriodMillis = rebuildPeriodMillis;
+        this.lastRebuildTimeMillis = lastRebuildTimeMillis;
+        this.lastRebuildUserCount = lastRebuildUserCount;
+        this.lastRebuildCompletionCount = lastRebuildCompletionCount;
+        this.rebuildCount = rebuildCount;
+        this.rebuildFailureCount = rebuildFailureCount;
+        this.updateCount = updateCount;
+        this.updateFailureCount = updateFailureCount;
+        this.requestCount = requestCount;
+        this.rebuildLatency = rebuildLatency;
+        this.requestLatency = requestLatency;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getResourceCount() {
+        return resourceCount;
+    }
+
+    public long getRelatedResourceCount() {
+        return relatedResourceCount;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getPasses() {
+        return passes;
+    }
+
+    public long getRebuildPeriodMillis() {
+        return rebuildPeriodMillis;
+    }
+
+    public long getLastRebuildTimeMillis() {
+        return lastRebuildTimeMillis;
+    }
+
+    public long getLastRebuildUserCount() {
+        return lastRebuildUserCount;
+    }
+
+    public long getLastRebuildCompletionCount() {
+        return lastRebuildCompletionCount;
+    }
+
+    public long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    public long getRebuildFailureCount() {
+        return rebuildFailureCount;
+    }
+
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    public long getUpdateFailureCount() {
+        return updateFailureCount;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public LatencyHistogram.Snapshot getRebuildLatency() {
+        return rebuildLatency;
+    }
+
+    public LatencyHistogram.Snapshot getRequestLatency() {
+        return requestLatency;
+    }
+}
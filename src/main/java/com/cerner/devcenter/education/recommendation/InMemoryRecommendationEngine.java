@@ -0,0 +1,752 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.RecommendationCatalogDAO;
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.RecommendableResource;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.UserInterestedCategory;
+import com.cerner.devcenter.education.models.UserRecommendedResource;
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.google.common.base.Ticker;
+import com.google.common.primitives.Ints;
+
+/**
+ * A {@link RecommendationEngine} that holds the catalog and the completed
+ * resources of every user in memory and ranks resources the same way as the
+ * recommendation query, without a round trip to the database.
+ * <p>
+ * The catalog is an immutable snapshot, rebuilt from the database every
+ * refresh period:
+ * <ul>
+ * <li>resources are numbered densely in the order of their average rating,
+ * highest first and unrated last, then of their click count, highest first,
+ * then of their id, and their rating counts, rating sums and click counts are
+ * kept in arrays indexed by that number</li>
+ * <li>every category keeps, per difficulty level, the sorted array of the
+ * numbers of its resources, so the resources within a user's skill window are
+ * already in ranking order and only need to be merged</li>
+ * </ul>
+ * The completed resources of each user are a {@link BitSet} of resource ids.
+ * They are updated right away through {@link #resourceCompleted(String, int)},
+ * including while a refresh is running. A bit set is never changed once
+ * published, so requests read it without locking. They are loaded in full with
+ * the first catalog and then every reconcile period, which drops completions
+ * removed from the database and picks up any a partial read missed; in
+ * between, a refresh only reads the completions dated since the previous
+ * read, so completions recorded on other nodes are still seen after the next
+ * refresh.
+ * <p>
+ * Catalog changes, such as new, edited or deleted resources and new ratings,
+ * are seen after the next refresh; the cached recommendations are dropped when
+ * a refresh finds that the catalog changed. Click counts change all the time,
+ * so they are left out of that check and a reordering they cause is seen as
+ * the cached recommendations expire. Request and refresh counts and
+ * latencies are exposed through {@link #getMetrics()}. {@link #init()} and
+ * {@link #close()} are meant to be used as the Spring init-method and
+ * destroy-method of the bean.
+ */
+public class InMemoryRecommendationEngine implements RecommendationEngine, MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryRecommendationEngine.class);
+
+    private static final String CATALOG_DAO_NULL_ERROR_MESSAGE = "Recommendation catalog DAO cannot be null";
+    private static final String RECOMMENDATION_CACHE_NULL_ERROR_MESSAGE = "Recommendation cache cannot be null";
+    private static final String USER_ID_INVALID_ERROR_MESSAGE = "User Id cannot be null, empty or whitespace.";
+    private static final String INTERESTED_CATEGORIES_NULL_ERROR_MESSAGE = "Interested categories cannot be null";
+    private static final String INTERESTED_CATEGORY_NULL_ERROR_MESSAGE = "Interested categories cannot contain null or a null category";
+    private static final String INVALID_MINIMUM_RATING_REQUIRED_ERROR_MESSAGE = "The minimum rating required should be non-negative";
+    private static final String INVALID_NUMBER_OF_RATINGS_REQUIRED_ERROR_MESSAGE = "The minimum number of ratings required should be non-negative";
+    private static final String INVALID_RESOURCE_ID_ERROR_MESSAGE = "Resource Id cannot be negative";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String ENGINE_NOT_READY_ERROR_MESSAGE = "Recommendation engine has not loaded its catalog";
+    private static final String ENGINE_ALREADY_INITIALIZED_ERROR_MESSAGE = "Recommendation engine has already been initialized";
+    private static final String ENGINE_DISABLED_MESSAGE = "In-memory recommendation engine is disabled, recommendations are read from the database";
+    private static final String REFRESHED_MESSAGE = "Loaded {} resources in {} categories and the completed resources of {} users";
+    private static final String CAUGHT_UP_MESSAGE = "Loaded {} resources in {} categories and the new completions of {} users";
+    private static final String REFRESH_FAILED_MESSAGE = "Error refreshing the recommendation catalog";
+    private static final String ENGINE_THREAD_NAME = "recommendation-engine-refresh";
+    private static final String TICKER_NULL_ERROR_MESSAGE = "Ticker cannot be null";
+
+    private static final long DEFAULT_REFRESH_PERIOD_MILLIS = 60000;
+    private static final long DEFAULT_RECONCILE_PERIOD_MILLIS = 3600000;
+    // Completions are dated by the node that records them before they are
+    // committed, so each read of the new completions goes back this far before
+    // the previous one, for late commits and nodes whose clock is behind.
+    private static final long COMPLETION_DATE_OVERLAP_SECONDS = 300;
+    private static final int MINIMUM_DIFFICULTY_LEVEL = 1;
+    private static final int MAXIMUM_DIFFICULTY_LEVEL = 5;
+    private static final int MAXIMUM_IGNORED_INTEREST_LEVEL = 2;
+    private static final BitSet NO_COMPLETED_RESOURCES = new BitSet();
+
+    private RecommendationCatalogDAO catalogDAO;
+    private UserRecommendationCache recommendationCache;
+    private boolean enabled = true;
+    private long refreshPeriodMillis = DEFAULT_REFRESH_PERIOD_MILLIS;
+    private long reconcilePeriodMillis = DEFAULT_RECONCILE_PERIOD_MILLIS;
+    private Ticker ticker = Ticker.systemTicker();
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong refreshFailureCount = new AtomicLong();
+    private final AtomicLong reconcileCount = new AtomicLong();
+    private final LatencyHistogram requestLatency = new LatencyHistogram();
+    private final LatencyHistogram refreshLatency = new LatencyHistogram();
+
+    private final Object refreshLock = new Object();
+    private final Object completionLock = new Object();
+    private volatile Catalog catalog;
+    private volatile ConcurrentMap<String, BitSet> completedResourceIdsByUser = new ConcurrentHashMap<>();
+    private volatile long lastRefreshTimeMillis;
+    private volatile long lastReconcileTimeMillis;
+    // When the completions were last read, in seconds since the epoch, and
+    // when they were last read in full, by the ticker; guarded by refreshLock.
+    private long lastCompletionReadSeconds;
+    private long lastReconcileNanos;
+    // Completions recorded since the running refresh started reading, guarded by completionLock.
+    private List<Completion> completionsDuringRefresh;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Validates the configuration and, when the engine is enabled, loads the
+     * catalog in the background right away and then every refresh period.
+     * Until the first load succeeds the engine is not {@link #isReady()
+     * ready}.
+     *
+     * @throws IllegalArgumentException
+     *             when a collaborator has not been set.
+     * @throws IllegalStateException
+     *             when the engine has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(scheduler == null, ENGINE_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(catalogDAO != null, CATALOG_DAO_NULL_ERROR_MESSAGE);
+        checkArgument(recommendationCache != null, RECOMMENDATION_CACHE_NULL_ERROR_MESSAGE);
+        if (!enabled) {
+            LOGGER.info(ENGINE_DISABLED_MESSAGE);
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, ENGINE_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    refresh();
+                } catch (final DAOException | RuntimeException exception) {
+                    LOGGER.error(REFRESH_FAILED_MESSAGE, exception);
+                }
+            }
+        }, 0, refreshPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the scheduled refreshes.
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the catalog from the database and replaces the one held in memory.
+     * On the first refresh and once the reconcile period has passed, also
+     * reads the completed resources of every user and replaces the ones held
+     * in memory, keeping completions recorded while they are read; otherwise
+     * only adds the completions dated since the previous read. Drops all
+     * cached recommendations when the catalog has changed since the previous
+     * refresh.
+     *
+     * @throws DAOException
+     *             when the catalog or the completed resources cannot be read;
+     *             the engine then keeps its previous state.
+     */
+    public void refresh() throws DAOException {
+        synchronized (refreshLock) {
+            refreshCatalog();
+        }
+    }
+
+    private void refreshCatalog() throws DAOException {
+        final long start = System.nanoTime();
+        final long readSeconds = System.currentTimeMillis() / 1000;
+        final boolean reconcile = catalog == null
+                || ticker.read() - lastReconcileNanos >= TimeUnit.MILLISECONDS.toNanos(reconcilePeriodMillis);
+        if (reconcile) {
+            synchronized (completionLock) {
+                completionsDuringRefresh = new ArrayList<>();
+            }
+        }
+        try {
+            final Catalog refreshed = Catalog.build(catalogDAO.getRecommendableResources());
+            final Catalog previous = catalog;
+            final Map<String, BitSet> completed;
+            if (reconcile) {
+                completed = catalogDAO.getCompletedResourceIdsByUser();
+                synchronized (completionLock) {
+                    for (final Completion completion : completionsDuringRefresh) {
+                        BitSet completedResourceIds = completed.get(completion.userId);
+                        if (completedResourceIds == null) {
+                            completedResourceIds = new BitSet();
+                            completed.put(completion.userId, completedResourceIds);
+                        }
+                        completedResourceIds.set(completion.resourceId);
+                    }
+                    completedResourceIdsByUser = new ConcurrentHashMap<>(completed);
+                    catalog = refreshed;
+                }
+                lastReconcileNanos = ticker.read();
+                reconcileCount.incrementAndGet();
+                lastReconcileTimeMillis = System.currentTimeMillis();
+                LOGGER.debug(REFRESHED_MESSAGE, refreshed.resources.length, refreshed.categories.size(),
+                        completed.size());
+            } else {
+                completed = catalogDAO.getCompletedResourceIdsByUserSince(
+                        lastCompletionReadSeconds - COMPLETION_DATE_OVERLAP_SECONDS);
+                synchronized (completionLock) {
+                    for (final Map.Entry<String, BitSet> newCompletions : completed.entrySet()) {
+                        addCompletions(newCompletions.getKey(), newCompletions.getValue());
+                    }
+                    catalog = refreshed;
+                }
+                LOGGER.debug(CAUGHT_UP_MESSAGE, refreshed.resources.length, refreshed.categories.size(),
+                        completed.size());
+            }
+            lastCompletionReadSeconds = readSeconds;
+            refreshCount.incrementAndGet();
+            lastRefreshTimeMillis = System.currentTimeMillis();
+            if (previous != null && previous.checksum != refreshed.checksum) {
+                recommendationCache.invalidateAll();
+            }
+        } catch (final DAOException | RuntimeException exception) {
+            refreshFailureCount.incrementAndGet();
+            throw exception;
+        } finally {
+            synchronized (completionLock) {
+                completionsDuringRefresh = null;
+            }
+            refreshLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Publishes a new bit set for the user when some of the resource ids are
+     * not already completed. Must be called holding completionLock.
+     */
+    private void addCompletions(final String userId, final BitSet resourceIds) {
+        final BitSet completed = completedResourceIdsByUser.get(userId);
+        if (completed == null) {
+            completedResourceIdsByUser.put(userId, resourceIds);
+            return;
+        }
+        final BitSet missing = (BitSet) resourceIds.clone();
+        missing.andNot(completed);
+        if (!missing.isEmpty()) {
+            final BitSet updated = (BitSet) completed.clone();
+            updated.or(missing);
+            completedResourceIdsByUser.put(userId, updated);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return catalog != null;
+    }
+
+    @Override
+    public List<UserRecommendedResource> getRecommendedResources(
+            final String userId,
+            final List<UserInterestedCategory> interestedCategories,
+            final double minimumRatingRequired,
+            final int minimumNumberOfRatingsRequired,
+            final int maximumPerCategory) {
+        checkArgument(StringUtils.isNotBlank(userId), USER_ID_INVALID_ERROR_MESSAGE);
+        checkArgument(interestedCategories != null, INTERESTED_CATEGORIES_NULL_ERROR_MESSAGE);
+        checkArgument(minimumRatingRequired >= 0, INVALID_MINIMUM_RATING_REQUIRED_ERROR_MESSAGE);
+        checkArgument(minimumNumberOfRatingsRequired >= 0, INVALID_NUMBER_OF_RATINGS_REQUIRED_ERROR_MESSAGE);
+        checkArgument(maximumPerCategory > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum per category");
+        final Catalog current = catalog;
+        checkState(current != null, ENGINE_NOT_READY_ERROR_MESSAGE);
+        final long start = System.nanoTime();
+        try {
+            BitSet completed = completedResourceIdsByUser.get(userId);
+            if (completed == null) {
+                completed = NO_COMPLETED_RESOURCES;
+            }
+            final List<CategoryCandidates> candidates = new ArrayList<>();
+            for (final UserInterestedCategory interestedCategory : interestedCategories) {
+                checkArgument(interestedCategory != null && interestedCategory.getCategory() != null,
+                        INTERESTED_CATEGORY_NULL_ERROR_MESSAGE);
+                if (interestedCategory.getInterestLevel() <= MAXIMUM_IGNORED_INTEREST_LEVEL) {
+                    continue;
+                }
+                final CategoryResources categoryResources = current.categories
+                        .get(interestedCategory.getCategory().getId());
+                if (categoryResources == null) {
+                    continue;
+                }
+                final CategoryCandidates categoryCandidates = current.pick(categoryResources, interestedCategory,
+                        completed, minimumRatingRequired, minimumNumberOfRatingsRequired, maximumPerCategory);
+                if (categoryCandidates != null) {
+                    candidates.add(categoryCandidates);
+                }
+            }
+            Collections.sort(candidates, current.categoryOrder(minimumRatingRequired, minimumNumberOfRatingsRequired));
+            final List<UserRecommendedResource> recommendedResources = new ArrayList<>();
+            for (final CategoryCandidates categoryCandidates : candidates) {
+                recommendedResources.addAll(categoryCandidates.resources);
+            }
+            return recommendedResources;
+        } finally {
+            requestCount.incrementAndGet();
+            requestLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void resourceCompleted(final String userId, final int resourceId) {
+        checkArgument(StringUtils.isNotBlank(userId), USER_ID_INVALID_ERROR_MESSAGE);
+        checkArgument(resourceId >= 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        synchronized (completionLock) {
+            final BitSet completed = completedResourceIdsByUser.get(userId);
+            final BitSet updated = completed == null ? new BitSet() : (BitSet) completed.clone();
+            updated.set(resourceId);
+            completedResourceIdsByUser.put(userId, updated);
+            if (completionsDuringRefresh != null) {
+                completionsDuringRefresh.add(new Completion(userId, resourceId));
+            }
+        }
+    }
+
+    /**
+     * @return a point-in-time {@link RecommendationEngineMetrics} snapshot.
+     */
+    @Override
+    public RecommendationEngineMetrics getMetrics() {
+        final Catalog current = catalog;
+        return new RecommendationEngineMetrics(
+                enabled,
+                current != null,
+                current == null ? 0 : current.resources.length,
+                current == null ? 0 : current.categories.size(),
+                completedResourceIdsByUser.size(),
+                refreshPeriodMillis,
+                lastRefreshTimeMillis,
+                refreshCount.get(),
+                refreshFailureCount.get(),
+                reconcilePeriodMillis,
+                lastReconcileTimeMillis,
+                reconcileCount.get(),
+                requestCount.get(),
+                refreshLatency.snapshot(),
+                requestLatency.snapshot());
+    }
+
+    /**
+     * @param catalogDAO
+     *            the {@link RecommendationCatalogDAO} the catalog is read
+     *            from. Cannot be null.
+     */
+    public void setCatalogDAO(final RecommendationCatalogDAO catalogDAO) {
+        checkArgument(catalogDAO != null, CATALOG_DAO_NULL_ERROR_MESSAGE);
+        this.catalogDAO = catalogDAO;
+    }
+
+    /**
+     * @param recommendationCache
+     *            the {@link UserRecommendationCache} that is emptied when the
+     *            catalog changes. Cannot be null.
+     */
+    public void setRecommendationCache(final UserRecommendationCache recommendationCache) {
+        checkArgument(recommendationCache != null, RECOMMENDATION_CACHE_NULL_ERROR_MESSAGE);
+        this.recommendationCache = recommendationCache;
+    }
+
+    /**
+     * @param enabled
+     *            false to never load the catalog, so recommendations are
+     *            always read from the database.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param refreshPeriodMillis
+     *            the delay between two loads of the catalog, which bounds how
+     *            long catalog changes take to show up in recommendations. Must
+     *            be greater than 0.
+     */
+    public void setRefreshPeriodMillis(final long refreshPeriodMillis) {
+        checkArgument(refreshPeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Refresh period");
+        this.refreshPeriodMillis = refreshPeriodMillis;
+    }
+
+    /**
+     * @param reconcilePeriodMillis
+     *            the delay after which a refresh reads the completed resources
+     *            of every user again instead of only the new ones, which bounds
+     *            how long completions removed from the database stay in
+     *            memory. Must be greater than 0.
+     */
+    public void setReconcilePeriodMillis(final long reconcilePeriodMillis) {
+        checkArgument(reconcilePeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Reconcile period");
+        this.reconcilePeriodMillis = reconcilePeriodMillis;
+    }
+
+    /**
+     * @param ticker
+     *            the {@link Ticker} the reconcile period is measured with.
+     *            Cannot be null.
+     */
+    void setTicker(final Ticker ticker) {
+        checkArgument(ticker != null, TICKER_NULL_ERROR_MESSAGE);
+        this.ticker = ticker;
+    }
+
+    /**
+     * Orders resources by average rating, highest first and unrated last,
+     * comparing the rating sums and counts exactly.
+     *
+     * @return a negative number when the first resource is rated higher, a
+     *         positive number when it is rated lower and 0 when both have the
+     *         same average rating or no ratings.
+     */
+    static int compareAverageRatings(
+            final int ratingCount,
+            final long ratingSum,
+            final int otherRatingCount,
+            final long otherRatingSum) {
+        if (ratingCount == 0) {
+            return otherRatingCount == 0 ? 0 : 1;
+        }
+        if (otherRatingCount == 0) {
+            return -1;
+        }
+        return Long.compare(otherRatingSum * ratingCount, ratingSum * otherRatingCount);
+    }
+
+    /**
+     * An immutable snapshot of the recommendable resources.
+     */
+    private static final class Catalog {
+
+        private final Resource[] resources;
+        private final int[] resourceIds;
+        private final int[] ratingCounts;
+        private final long[] ratingSums;
+        private final long[] clickCounts;
+        private final double[] averageRatings;
+        private final Map<Integer, CategoryResources> categories;
+        private final long checksum;
+
+        private Catalog(
+                final Resource[] resources,
+                final int[] ratingCounts,
+                final long[] ratingSums,
+                final long[] clickCounts,
+                final Map<Integer, CategoryResources> categories,
+                final long checksum) {
+            this.resources = resources;
+            this.ratingCounts = ratingCounts;
+            this.ratingSums = ratingSums;
+            this.clickCounts = clickCounts;
+            this.categories = categories;
+            this.checksum = checksum;
+            resourceIds = new int[resources.length];
+            averageRatings = new double[resources.length];
+            for (int index = 0; index < resources.length; index++) {
+                resourceIds[index] = resources[index].getResourceId();
+                averageRatings[index] = ratingCounts[index] == 0 ? Double.NaN
+                        : ratingSums[index] / (double) ratingCounts[index];
+            }
+        }
+
+        private static Catalog build(final List<RecommendableResource> rows) {
+            final Map<Integer, RecommendableResource> rowsByResourceId = new HashMap<>();
+            long checksum = rows.size();
+            for (final RecommendableResource row : rows) {
+                if (!rowsByResourceId.containsKey(row.getResource().getResourceId())) {
+                    rowsByResourceId.put(row.getResource().getResourceId(), row);
+                }
+                checksum += hash(row);
+            }
+            final List<RecommendableResource> ranked = new ArrayList<>(rowsByResourceId.values());
+            Collections.sort(ranked, new Comparator<RecommendableResource>() {
+                @Override
+                public int compare(final RecommendableResource first, final RecommendableResource second) {
+                    final int byRating = compareAverageRatings(first.getRatingCount(), first.getRatingSum(),
+                            second.getRatingCount(), second.getRatingSum());
+                    if (byRating != 0) {
+                        return byRating;
+                    }
+                    final int byClicks = Long.compare(second.getClickCount(), first.getClickCount());
+                    return byClicks != 0 ? byClicks
+                            : Integer.compare(first.getResource().getResourceId(), second.getResource().getResourceId());
+                }
+            });
+            final Resource[] resources = new Resource[ranked.size()];
+            final int[] ratingCounts = new int[ranked.size()];
+            final long[] ratingSums = new long[ranked.size()];
+            final long[] clickCounts = new long[ranked.size()];
+            final Map<Integer, Integer> indexByResourceId = new HashMap<>();
+            for (int index = 0; index < resources.length; index++) {
+                final RecommendableResource row = ranked.get(index);
+                resources[index] = row.getResource();
+                ratingCounts[index] = row.getRatingCount();
+                ratingSums[index] = row.getRatingSum();
+                clickCounts[index] = row.getClickCount();
+                indexByResourceId.put(row.getResource().getResourceId(), index);
+            }
+
+            final Map<Integer, Category> categoriesById = new LinkedHashMap<>();
+            final Map<Integer, List<List<Integer>>> indexesByCategoryId = new HashMap<>();
+            for (final RecommendableResource row : rows) {
+                final int categoryId = row.getCategory().getId();
+                List<List<Integer>> indexesByDifficulty = indexesByCategoryId.get(categoryId);
+                if (indexesByDifficulty == null) {
+                    categoriesById.put(categoryId, row.getCategory());
+                    indexesByDifficulty = new ArrayList<>();
+                    for (int level = MINIMUM_DIFFICULTY_LEVEL; level <= MAXIMUM_DIFFICULTY_LEVEL; level++) {
+                        indexesByDifficulty.add(new ArrayList<Integer>());
+                    }
+                    indexesByCategoryId.put(categoryId, indexesByDifficulty);
+                }
+                indexesByDifficulty.get(row.getDifficultyLevel() - MINIMUM_DIFFICULTY_LEVEL)
+                        .add(indexByResourceId.get(row.getResource().getResourceId()));
+            }
+            final Map<Integer, CategoryResources> categories = new HashMap<>();
+            for (final Map.Entry<Integer, Category> category : categoriesById.entrySet()) {
+                final List<List<Integer>> indexesByDifficulty = indexesByCategoryId.get(category.getKey());
+                final int[][] resourceIndexesByDifficulty = new int[indexesByDifficulty.size()][];
+                for (int level = 0; level < resourceIndexesByDifficulty.length; level++) {
+                    resourceIndexesByDifficulty[level] = sortedDistinct(indexesByDifficulty.get(level));
+                }
+                categories.put(category.getKey(), new CategoryResources(category.getValue(),
+                        resourceIndexesByDifficulty));
+            }
+            return new Catalog(resources, ratingCounts, ratingSums, clickCounts, categories, checksum);
+        }
+
+        /**
+         * Picks the first resources of a category within the skill window of
+         * the user, in the order of the recommendation query: resources that
+         * are not rated below the minimum rating first, then by number, so by
+         * average rating, click count and id, then by difficulty level.
+         *
+         * @return the {@link CategoryCandidates}, or null when the user has
+         *         completed every resource of the category within the window.
+         */
+        private CategoryCandidates pick(
+                final CategoryResources categoryResources,
+                final UserInterestedCategory interestedCategory,
+                final BitSet completed,
+                final double minimumRatingRequired,
+                final int minimumNumberOfRatingsRequired,
+                final int maximumPerCategory) {
+            final int lowestLevel = Math.max(MINIMUM_DIFFICULTY_LEVEL, interestedCategory.getSkillLevel() - 1);
+            final int highestLevel = Math.min(MAXIMUM_DIFFICULTY_LEVEL, interestedCategory.getSkillLevel() + 1);
+            if (lowestLevel > highestLevel) {
+                return null;
+            }
+            final int[][] buckets = Arrays.copyOfRange(categoryResources.resourceIndexesByDifficulty,
+                    lowestLevel - MINIMUM_DIFFICULTY_LEVEL, highestLevel - MINIMUM_DIFFICULTY_LEVEL + 1);
+            final int[] positions = new int[buckets.length];
+            final List<UserRecommendedResource> picked = new ArrayList<>();
+            int headIndex = -1;
+            for (int pass = 0; pass < 2 && picked.size() < maximumPerCategory; pass++) {
+                final boolean penalized = pass == 1;
+                Arrays.fill(positions, 0);
+                while (picked.size() < maximumPerCategory) {
+                    int nextBucket = -1;
+                    int nextIndex = Integer.MAX_VALUE;
+                    for (int bucket = 0; bucket < buckets.length; bucket++) {
+                        final int[] indexes = buckets[bucket];
+                        while (positions[bucket] < indexes.length && (completed.get(resourceIds[indexes[positions[bucket]]])
+                                || isPenalized(indexes[positions[bucket]], minimumRatingRequired,
+                                        minimumNumberOfRatingsRequired) != penalized)) {
+                            positions[bucket]++;
+                        }
+                        if (positions[bucket] < indexes.length && indexes[positions[bucket]] < nextIndex) {
+                            nextIndex = indexes[positions[bucket]];
+                            nextBucket = bucket;
+                        }
+                    }
+                    if (nextBucket < 0) {
+                        break;
+                    }
+                    positions[nextBucket]++;
+                    if (headIndex < 0) {
+                        headIndex = nextIndex;
+                    }
+                    picked.add(new UserRecommendedResource(resources[nextIndex], categoryResources.category,
+                            lowestLevel + nextBucket, interestedCategory.getInterestLevel()));
+                }
+            }
+            return headIndex < 0 ? null
+                    : new CategoryCandidates(categoryResources.category.getId(),
+                            interestedCategory.getInterestLevel(), headIndex, picked);
+        }
+
+        /**
+         * Orders categories by their first resource in the order of the
+         * recommendation query: by interest level, highest first, then
+         * resources that are not rated below the minimum rating first, then by
+         * average rating, then by click count, then by category id.
+         */
+        private Comparator<CategoryCandidates> categoryOrder(
+                final double minimumRatingRequired,
+                final int minimumNumberOfRatingsRequired) {
+            return new Comparator<CategoryCandidates>() {
+                @Override
+                public int compare(final CategoryCandidates first, final CategoryCandidates second) {
+                    if (first.interestLevel != second.interestLevel) {
+                        return Integer.compare(second.interestLevel, first.interestLevel);
+                    }
+                    final boolean firstPenalized = isPenalized(first.headIndex, minimumRatingRequired,
+                            minimumNumberOfRatingsRequired);
+                    final boolean secondPenalized = isPenalized(second.headIndex, minimumRatingRequired,
+                            minimumNumberOfRatingsRequired);
+                    if (firstPenalized != secondPenalized) {
+                        return firstPenalized ? 1 : -1;
+                    }
+                    final int byRating = compareAverageRatings(ratingCounts[first.headIndex],
+                            ratingSums[first.headIndex], ratingCounts[second.headIndex],
+                            ratingSums[second.headIndex]);
+                    if (byRating != 0) {
+                        return byRating;
+                    }
+                    final int byClicks = Long.compare(clickCounts[second.headIndex], clickCounts[first.headIndex]);
+                    return byClicks != 0 ? byClicks : Integer.compare(first.categoryId, second.categoryId);
+                }
+            };
+        }
+
+        /**
+         * @return true when the resource has more than the minimum number of
+         *         ratings and an average rating below the minimum rating, so it
+         *         is ranked after the other resources of its category.
+         */
+        private boolean isPenalized(
+                final int index,
+                final double minimumRatingRequired,
+                final int minimumNumberOfRatingsRequired) {
+            return ratingCounts[index] > minimumNumberOfRatingsRequired
+                    && averageRatings[index] < minimumRatingRequired;
+        }
+
+        private static int[] sortedDistinct(final List<Integer> indexes) {
+            final int[] sorted = Ints.toArray(indexes);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int position = 0; position < sorted.length; position++) {
+                if (distinct == 0 || sorted[position] != sorted[distinct - 1]) {
+                    sorted[distinct++] = sorted[position];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+
+        /**
+         * Hashes every field of a row the recommendations depend on, except
+         * its click count, so that the sum of the hashes of all rows changes
+         * when any of them does.
+         */
+        private static long hash(final RecommendableResource row) {
+            long hash = Arrays.hashCode(new Object[] {
+                    row.getResource().getResourceId(),
+                    row.getResource().getResourceName(),
+                    String.valueOf(row.getResource().getResourceLink()),
+                    row.getResource().getDescription(),
+                    row.getCategory().getId(),
+                    row.getCategory().getName(),
+                    row.getCategory().getDescription(),
+                    row.getDifficultyLevel(),
+                    row.getRatingCount(),
+                    row.getRatingSum() });
+            hash *= 0x9E3779B97F4A7C15L;
+            return hash ^ (hash >>> 29);
+        }
+    }
+
+    /**
+     * The resources of a category, numbered as in the {@link Catalog} and
+     * sorted per difficulty level.
+     */
+    private static final class CategoryResources {
+
+        private final Category category;
+        private final int[][] resourceIndexesByDifficulty;
+
+        private CategoryResources(final Category category, final int[][] resourceIndexesByDifficulty) {
+            this.category = category;
+            this.resourceIndexesByDifficulty = resourceIndexesByDifficulty;
+        }
+    }
+
+    /**
+     * The resources picked for a user in one category.
+     */
+    private static final class CategoryCandidates {
+
+        private final int categoryId;
+        private final int interestLevel;
+        private final int headIndex;
+        private final List<UserRecommendedResource> resources;
+
+        private CategoryCandidates(
+                final int categoryId,
+                final int interestLevel,
+                final int headIndex,
+                final List<UserRecommendedResource> resources) {
+            this.categoryId = categoryId;
+            this.interestLevel = interestLevel;
+            this.headIndex = headIndex;
+            this.resources = resources;
+        }
+    }
+
+    private static final class Completion {
+
+        private final String userId;
+        private final int resourceId;
+
+        private Completion(final String userId, final int resourceId) {
+            this.userId = userId;
+            this.resourceId = resourceId;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
+import com.cerner.devcenter.education.dao.ResourceRatingSummaryDAO;
+
+/**
+ * Periodically checks the per-resource rating counts and sums in
+ * resource_rating_summary against the ratings in completed_user_resource and
+ * rebuilds them when they have drifted, for example after ratings were
+ * changed directly in the database.
+ * <p>
+ * The cached recommendations that contain a repaired resource are dropped, so
+ * they are ranked with the corrected average ratings. {@link #init()} and
+ * {@link #close()} are meant to be used as the Spring init-method and
+ * destroy-method of the bean.
+ */
+public class RatingSummaryReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RatingSummaryReconciler.class);
+
+    private static final String RATING_SUMMARY_DAO_NULL_ERROR_MESSAGE = "Rating summary DAO cannot be null";
+    private static final String TRANSACTION_TEMPLATE_NULL_ERROR_MESSAGE = "Transaction template cannot be null";
+    private static final String RECOMMENDATION_CACHE_NULL_ERROR_MESSAGE = "Recommendation cache cannot be null";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String RECONCILER_ALREADY_INITIALIZED_ERROR_MESSAGE = "Rating summary reconciler has already been initialized";
+    private static final String REBUILD_FAILED_ERROR_MESSAGE = "Error rebuilding the rating summaries";
+    private static final String DRIFT_DETECTED_MESSAGE = "Rating summaries of {} resources have drifted, rebuilding: {}";
+    private static final String REBUILT_MESSAGE = "Rebuilt {} rating summaries";
+    private static final String RECONCILE_FAILED_MESSAGE = "Error reconciling the rating summaries";
+    private static final String RECONCILER_THREAD_NAME = "rating-summary-reconciler";
+
+    private static final long DEFAULT_PERIOD_MILLIS = 3600000;
+
+    private ResourceRatingSummaryDAO ratingSummaryDAO;
+    private TransactionTemplate transactionTemplate;
+    private UserRecommendationCache recommendationCache;
+    private long periodMillis = DEFAULT_PERIOD_MILLIS;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Validates the configuration and schedules {@link #reconcile()} to run
+     * every period, starting one period from now.
+     *
+     * @throws IllegalArgumentException
+     *             when a collaborator has not been set.
+     * @throws IllegalStateException
+     *             when the reconciler has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(scheduler == null, RECONCILER_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(ratingSummaryDAO != null, RATING_SUMMARY_DAO_NULL_ERROR_MESSAGE);
+        checkArgument(transactionTemplate != null, TRANSACTION_TEMPLATE_NULL_ERROR_MESSAGE);
+        checkArgument(recommendationCache != null, RECOMMENDATION_CACHE_NULL_ERROR_MESSAGE);
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, RECONCILER_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reconcile();
+                } catch (final DAOException | RuntimeException exception) {
+                    LOGGER.error(RECONCILE_FAILED_MESSAGE, exception);
+                }
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the scheduled reconciliation.
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Rebuilds the rating summaries when any of them differs from the stored
+     * ratings, and drops the cached recommendations that contain the resources
+     * whose summary was wrong.
+     *
+     * @return the number of resources whose summary had drifted.
+     * @throws DAOException
+     *             when the summaries cannot be compared with the ratings.
+     * @throws ManagerException
+     *             when the summaries cannot be rebuilt.
+     */
+    public int reconcile() throws DAOException {
+        final List<Integer> driftedResourceIds = ratingSummaryDAO.getResourceIdsWithDriftedRatingSummary();
+        if (driftedResourceIds.isEmpty()) {
+            return 0;
+        }
+        LOGGER.warn(DRIFT_DETECTED_MESSAGE, driftedResourceIds.size(), driftedResourceIds);
+        final Integer rebuilt = transactionTemplate.execute(new TransactionCallback<Integer>() {
+            @Override
+            public Integer doInTransaction(final TransactionStatus transactionStatus) {
+                try {
+                    return ratingSummaryDAO.rebuildRatingSummaries();
+                } catch (final DAOException daoException) {
+                    throw new ManagerException(REBUILD_FAILED_ERROR_MESSAGE, daoException);
+                }
+            }
+        });
+        LOGGER.info(REBUILT_MESSAGE, rebuilt);
+        for (final Integer resourceId : driftedResourceIds) {
+            recommendationCache.invalidateResource(resourceId);
+        }
+        return driftedResourceIds.size();
+    }
+
+    /**
+     * @param ratingSummaryDAO
+     *            the {@link ResourceRatingSummaryDAO} that checks and rebuilds
+     *            the summaries. Cannot be null.
+     */
+    public void setRatingSummaryDAO(final ResourceRatingSummaryDAO ratingSummaryDAO) {
+        checkArgument(ratingSummaryDAO != null, RATING_SUMMARY_DAO_NULL_ERROR_MESSAGE);
+        this.ratingSummaryDAO = ratingSummaryDAO;
+    }
+
+    /**
+     * @param transactionTemplate
+     *            the {@link TransactionTemplate} the rebuild runs in. Cannot be
+     *            null.
+     */
+    public void setTransactionTemplate(final TransactionTemplate transactionTemplate) {
+        checkArgument(transactionTemplate != null, TRANSACTION_TEMPLATE_NULL_ERROR_MESSAGE);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * @param recommendationCache
+     *            the {@link UserRecommendationCache} whose entries are dropped
+     *            for repaired resources. Cannot be null.
+     */
+    public void setRecommendationCache(final UserRecommendationCache recommendationCache) {
+        checkArgument(recommendationCache != null, RECOMMENDATION_CACHE_NULL_ERROR_MESSAGE);
+        this.recommendationCache = recommendationCache;
+    }
+
+    /**
+     * @param periodMillis
+     *            the delay between two reconciliations. Must be greater than
+     *            0.
+     */
+    public void setPeriodMillis(final long periodMillis) {
+        checkArgument(periodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Reconcile period");
+        this.periodMillis = periodMillis;
+    }
+}
@@ -0,0 +1,101 @@
+package com.cerner.devcenter.education.recommendation;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of a {@link UserRecommendationCache}'s gauges
+ * and counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class RecommendationCacheMetrics {
+
+    private final long size;
+    private final int maximumEntries;
+    private final long timeToLiveSeconds;
+    private final long hitCount;
+    private final long missCount;
+    private final long invalidationCount;
+    private final long evictionCount;
+    private final LatencyHistogram.Snapshot recomputeLatency;
+
+    /**
+     * @param size
+     *            number of users whose recommendations are cached
+     * @param maximumEntries
+     *            configured maximum number of cached users
+     * @param timeToLiveSeconds
+     *            configured time after which cached recommendations are
+     *            recomputed
+     * @param hitCount
+     *            total number of requests answered from the cache
+     * @param missCount
+     *            total number of requests that recomputed the recommendations
+     * @param invalidationCount
+     *            total number of invalidations by user, category, resource or
+     *            of the whole cache
+     * @param evictionCount
+     *            total number of entries dropped because they expired or the
+     *            cache was full
+     * @param recomputeLatency
+     *            snapshot of the recompute-latency histogram, one observation
+     *            per miss
+     */
+    public RecommendationCacheMetrics(
+            final long size,
+            final int maximumEntries,
+            final long timeToLiveSeconds,
+            final long hitCount,
+            final long missCount,
+            final long invalidationCount,
+            final long evictionCount,
+            final LatencyHistogram.Snapshot recomputeLatency) {
+        this.size = size;
+        this.maximumEntries = maximumEntries;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.invalidationCount = invalidationCount;
+        this.evictionCount = evictionCount;
+        this.recomputeLatency = recomputeLatency;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getMaximumEntries() {
+        return maximumEntries;
+    }
+
+    public long getTimeToLiveSeconds() {
+        return timeToLiveSeconds;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the fraction of requests answered from the cache, or 0 when
+     *         there have been no requests.
+     */
+    public double getHitRatio() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : hitCount / (double) requestCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public LatencyHistogram.Snapshot getRecomputeLatency() {
+        return recomputeLatency;
+    }
+}
@@ -0,0 +1,72 @@
+package com.cerner.devcenter.education.recommendation;
+
+import java.util.List;
+
+import com.cerner.devcenter.education.models.UserInterestedCategory;
+import com.cerner.devcenter.education.models.UserRecommendedResource;
+
+/**
+ * Computes the candidate resources the home page recommendations are picked
+ * from without querying the database, as an alternative to
+ * {@link com.cerner.devcenter.education.dao.UserRecommendedResourceDAO#getRecommendedResourcesForTheUser(String, double, int)}.
+ * The {@link com.cerner.devcenter.education.managers.UserRecommendedResourceManager}
+ * uses an engine when one is configured and {@link #isReady() ready}, and the
+ * recommendation query otherwise.
+ */
+public interface RecommendationEngine {
+
+    /**
+     * @return true when the engine can answer
+     *         {@link #getRecommendedResources(String, List, double, int, int)}.
+     */
+    boolean isReady();
+
+    /**
+     * Returns the resources the recommendation query would return for the
+     * user, in the same order, keeping only the first resources of each
+     * category.
+     *
+     * @param userId
+     *            the id of the user. Cannot be null, empty or blank.
+     * @param interestedCategories
+     *            the {@link UserInterestedCategory categories the user is
+     *            interested in}, with their skill and interest levels. Cannot
+     *            be null.
+     * @param minimumRatingRequired
+     *            the minimum average rating a resource needs to be ranked
+     *            above resources without enough ratings. Cannot be negative.
+     * @param minimumNumberOfRatingsRequired
+     *            the minimum number of ratings before a resource is
+     *            considered rated. Cannot be negative.
+     * @param maximumPerCategory
+     *            the maximum number of resources returned per category. Must
+     *            be greater than 0.
+     * @return a {@link List} of {@link UserRecommendedResource}, grouped by
+     *         category, with the categories in the order of their first
+     *         resource in the recommendation query.
+     * @throws IllegalArgumentException
+     *             when an argument is invalid.
+     * @throws IllegalStateException
+     *             when the engine is not ready.
+     */
+    List<UserRecommendedResource> getRecommendedResources(
+            String userId,
+            List<UserInterestedCategory> interestedCategories,
+            double minimumRatingRequired,
+            int minimumNumberOfRatingsRequired,
+            int maximumPerCategory);
+
+    /**
+     * Records that a user has completed a resource, so it is no longer
+     * recommended to them. Must be called after the completion is stored.
+     *
+     * @param userId
+     *            the id of the user. Cannot be null, empty or blank.
+     * @param resourceId
+     *            the id of the completed resource. Cannot be negative.
+     * @throws IllegalArgumentException
+     *             when userId is null, empty or blank or resourceId is
+     *             negative.
+     */
+    void resourceCompleted(String userId, int resourceId);
+}
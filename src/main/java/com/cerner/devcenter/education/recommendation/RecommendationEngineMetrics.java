@@ -0,0 +1,160 @@
+package com.cerner.devcenter.education.recommendation;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of an {@link InMemoryRecommendationEngine}'s
+ * gauges and counters. Exposes plain getters so it can be returned directly as
+ * JSON.
+ */
+public class RecommendationEngineMetrics {
+
+    private final boolean enabled;
+    private final boolean ready;
+    private final int resourceCount;
+    private final int categoryCount;
+    private final int userCount;
+    private final long refreshPeriodMillis;
+    private final long lastRefreshTimeMillis;
+    private final long refreshCount;
+    private final long refreshFailureCount;
+    private final long reconcilePeriodMillis;
+    private final long lastReconcileTimeMillis;
+    private final long reconcileCount;
+    private final long requestCount;
+    private final LatencyHistogram.Snapshot refreshLatency;
+    private final LatencyHistogram.Snapshot requestLatency;
+
+    /**
+     * @param enabled
+     *            whether the engine is configured to load the catalog
+     * @param ready
+     *            whether the catalog has been loaded, so recommendations are
+     *            computed in memory
+     * @param resourceCount
+     *            number of resources in the loaded catalog
+     * @param categoryCount
+     *            number of categories in the loaded catalog
+     * @param userCount
+     *            number of users whose completed resources are held
+     * @param refreshPeriodMillis
+     *            configured delay between two loads of the catalog
+     * @param lastRefreshTimeMillis
+     *            time of the last successful load, in milliseconds since the
+     *            epoch, or 0 when the catalog has not been loaded
+     * @param refreshCount
+     *            total number of successful loads
+     * @param refreshFailureCount
+     *            total number of loads that failed
+     * @param reconcilePeriodMillis
+     *            configured delay between two loads of the completed resources
+     *            of every user
+     * @param lastReconcileTimeMillis
+     *            time of the last successful load of the completed resources of
+     *            every user, in milliseconds since the epoch, or 0 when they
+     *            have not been loaded
+     * @param reconcileCount
+     *            total number of successful loads of the completed resources of
+     *            every user; the other loads only read the new completions
+     * @param requestCount
+     *            total number of recommendations computed in memory
+     * @param refreshLatency
+     *            snapshot of the load-latency histogram, one observation per
+     *            load
+     * @param requestLatency
+     *            snapshot of the request-latency histogram, one observation
+     *            per computed recommendation
+     */
+    public RecommendationEngineMetrics(
+            final boolean enabled,
+            final boolean ready,
+            final int resourceCount,
+            final int categoryCount,
+            final int userCount,
+            final long refreshPeriodMillis,
+            final long lastRefreshTimeMillis,
+            final long refreshCount,
+            final long refreshFailureCount,
+            final long reconcilePeriodMillis,
+            final long lastReconcileTimeMillis,
+            final long reconcileCount,
+            final long requestCount,
+            final LatencyHistogram.Snapshot refreshLatency,
+            final LatencyHistogram.Snapshot requestLatency) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.resourceCount = resourceCount;
+        this.categoryCount = categoryCount;
+        this.userCount = userCount;
+        this.refreshPeriodMillis = refreshPeriodMillis;
+        this.lastRefreshTimeMillis = lastRefreshTimeMillis;
+        this.refreshCount = refreshCount;
+        this.refreshFailureCount = refreshFailureCount;
+        this.reconcilePeriodMillis = reconcilePeriodMillis;
+        this.lastReconcileTimeMillis = lastReconcileTimeMillis;
+        this.reconcileCount = reconcileCount;
+        this.requestCount = requestCount;
+        this.refreshLatency = refreshLatency;
+        this.requestLatency = requestLatency;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getResourceCount() {
+        return resourceCount;
+    }
+
+    public int getCategoryCount() {
+        return categoryCount;
+    }
+
+    public int getUserCount() {
+        return userCount;
+    }
+
+    public long getRefreshPeriodMillis() {
+        return refreshPeriodMillis;
+    }
+
+    public long getLastRefreshTimeMillis() {
+        return lastRefreshTimeMillis;
+    }
+
+    public long getRefreshCount() {
+        return refreshCount;
+    }
+
+    public long getRefreshFailureCount() {
+        return refreshFailureCount;
+    }
+
+    public long getReconcilePeriodMillis() {
+        return reconcilePeriodMillis;
+    }
+
+    public long getLastReconcileTimeMillis() {
+        return lastReconcileTimeMillis;
+    }
+
+    public long getReconcileCount() {
+        return reconcileCount;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public LatencyHistogram.Snapshot getRefreshLatency() {
+        return refreshLatency;
+    }
+
+    public LatencyHistogram.Snapshot getRequestLatency() {
+        return requestLatency;
+    }
+}
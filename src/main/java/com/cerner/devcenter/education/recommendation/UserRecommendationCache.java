@@ -0,0 +1,376 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.cerner.devcenter.education.models.UserRecommendedResource;
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * Caches the home page recommendations of each user, so the recommendation
+ * query only runs when they may have changed instead of on every page view.
+ * <p>
+ * Entries are dropped:
+ * <ul>
+ * <li>when they are older than the time to live, which bounds how stale the
+ * average ratings used for ranking can get</li>
+ * <li>by user, when the user completes a resource or changes their interested
+ * categories</li>
+ * <li>by category, for every user interested in a category in which a resource
+ * was added or which was deleted</li>
+ * <li>by resource, for every user who was recommended a resource that was
+ * edited or deleted</li>
+ * <li>least recently used first when the cache is full</li>
+ * </ul>
+ * An invalidation that happens while recommendations are being recomputed
+ * keeps the recomputed recommendations out of the cache, so they are
+ * recomputed again on the next request.
+ * <p>
+ * Each cached entry is indexed by the categories and resources it depends on,
+ * so invalidating a category or resource only visits the entries of the users
+ * it affects. An entry leaves the index when it leaves the cache, whatever the
+ * reason.
+ * <p>
+ * Hit and miss counts and a recompute-latency histogram are exposed through
+ * {@link #getMetrics()}. {@link #init()} is meant to be used as the Spring
+ * init-method of the bean.
+ */
+public class UserRecommendationCache implements MetricsProvider {
+
+    private static final String USER_ID_INVALID_ERROR_MESSAGE = "User Id cannot be null, empty or whitespace.";
+    private static final String LOADER_NULL_ERROR_MESSAGE = "Recommendation loader cannot be null";
+    private static final String RECOMMENDATIONS_NULL_ERROR_MESSAGE = "Loaded recommendations cannot be null";
+    private static final String IDS_NULL_ERROR_MESSAGE = "Ids cannot be null";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String CACHE_NOT_INITIALIZED_ERROR_MESSAGE = "Recommendation cache has not been initialized";
+    private static final String CACHE_ALREADY_INITIALIZED_ERROR_MESSAGE = "Recommendation cache has already been initialized";
+
+    private static final long DEFAULT_TIME_TO_LIVE_SECONDS = 300;
+    private static final int DEFAULT_MAXIMUM_ENTRIES = 10000;
+
+    private long timeToLiveSeconds = DEFAULT_TIME_TO_LIVE_SECONDS;
+    private int maximumEntries = DEFAULT_MAXIMUM_ENTRIES;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final LatencyHistogram recomputeLatency = new LatencyHistogram();
+
+    private final SetMultimap<Integer, Entry> entriesByCategoryId = Multimaps
+            .synchronizedSetMultimap(HashMultimap.<Integer, Entry> create());
+    private final SetMultimap<Integer, Entry> entriesByResourceId = Multimaps
+            .synchronizedSetMultimap(HashMultimap.<Integer, Entry> create());
+
+    private volatile Cache<String, Entry> entries;
+
+    /**
+     * Computes the recommendations of a user on a cache miss.
+     */
+    public interface Loader {
+        /**
+         * @return the {@link Recommendations} of the user. Cannot be null.
+         */
+        Recommendations load();
+    }
+
+    /**
+     * The recommendations of a user and the categories they depend on.
+     */
+    public static class Recommendations {
+
+        private final List<UserRecommendedResource> resources;
+        private final Set<Integer> categoryIds;
+
+        /**
+         * @param resources
+         *            the recommended resources, in display order. Cannot be
+         *            null.
+         * @param categoryIds
+         *            the ids of the categories the user is interested in; a
+         *            change to a resource in one of them invalidates the
+         *            recommendations. Cannot be null.
+         */
+        public Recommendations(final List<UserRecommendedResource> resources, final Collection<Integer> categoryIds) {
+            checkArgument(resources != null, RECOMMENDATIONS_NULL_ERROR_MESSAGE);
+            checkArgument(categoryIds != null, IDS_NULL_ERROR_MESSAGE);
+            this.resources = Collections.unmodifiableList(new ArrayList<>(resources));
+            this.categoryIds = ImmutableSet.copyOf(categoryIds);
+        }
+
+        public List<UserRecommendedResource> getResources() {
+            return resources;
+        }
+
+        public Set<Integer> getCategoryIds() {
+            return categoryIds;
+        }
+    }
+
+    /**
+     * Builds the cache.
+     *
+     * @throws IllegalStateException
+     *             when the cache has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(entries == null, CACHE_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        entries = CacheBuilder.newBuilder()
+                .expireAfterWrite(timeToLiveSeconds, TimeUnit.SECONDS)
+                .maximumSize(maximumEntries)
+                .recordStats()
+                .removalListener(new RemovalListener<String, Entry>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<String, Entry> notification) {
+                        unindex(notification.getValue());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the cached recommendations of a user, computing and caching them
+     * with the loader when they are not cached, have expired, or were computed
+     * with different rating thresholds.
+     *
+     * @param userId
+     *            the id of the user. Cannot be null, empty or blank.
+     * @param minimumRatingRequired
+     *            the minimum rating the recommendations are computed with
+     * @param minimumNumberOfRatingsRequired
+     *            the minimum number of ratings the recommendations are
+     *            computed with
+     * @param loader
+     *            the {@link Loader} that computes the recommendations. Cannot
+     *            be null.
+     * @return an unmodifiable {@link List} of {@link UserRecommendedResource}.
+     * @throws IllegalArgumentException
+     *             when userId is null, empty or blank or loader is null.
+     * @throws IllegalStateException
+     *             when the cache has not been initialized.
+     */
+    public List<UserRecommendedResource> get(
+            final String userId,
+            final double minimumRatingRequired,
+            final int minimumNumberOfRatingsRequired,
+            final Loader loader) {
+        checkArgument(StringUtils.isNotBlank(userId), USER_ID_INVALID_ERROR_MESSAGE);
+        checkArgument(loader != null, LOADER_NULL_ERROR_MESSAGE);
+        final Cache<String, Entry> cache = getEntries();
+        final Entry cached = cache.getIfPresent(userId);
+        if (cached != null && cached.isComputedWith(minimumRatingRequired, minimumNumberOfRatingsRequired)) {
+            hitCount.incrementAndGet();
+            return cached.recommendations.getResources();
+        }
+        missCount.incrementAndGet();
+        final long invalidationsBeforeLoad = invalidationCount.get();
+        final long start = System.nanoTime();
+        final Recommendations recommendations;
+        try {
+            recommendations = loader.load();
+        } finally {
+            recomputeLatency.record(System.nanoTime() - start);
+        }
+        checkArgument(recommendations != null, RECOMMENDATIONS_NULL_ERROR_MESSAGE);
+        final Entry entry = new Entry(userId, minimumRatingRequired, minimumNumberOfRatingsRequired,
+                recommendations);
+        if (invalidationCount.get() == invalidationsBeforeLoad) {
+            index(entry);
+            cache.put(userId, entry);
+            if (invalidationCount.get() != invalidationsBeforeLoad) {
+                cache.asMap().remove(userId, entry);
+                unindex(entry);
+            }
+        }
+        return recommendations.getResources();
+    }
+
+    /**
+     * Drops the cached recommendations of a user.
+     *
+     * @param userId
+     *            the id of the user. Cannot be null, empty or blank.
+     * @throws IllegalArgumentException
+     *             when userId is null, empty or blank.
+     */
+    public void invalidateUser(final String userId) {
+        checkArgument(StringUtils.isNotBlank(userId), USER_ID_INVALID_ERROR_MESSAGE);
+        invalidationCount.incrementAndGet();
+        getEntries().invalidate(userId);
+    }
+
+    /**
+     * Drops the cached recommendations of every user interested in one of the
+     * categories.
+     *
+     * @param categoryIds
+     *            the ids of the changed categories. Cannot be null.
+     * @throws IllegalArgumentException
+     *             when categoryIds is null.
+     */
+    public void invalidateCategories(final Collection<Integer> categoryIds) {
+        checkArgument(categoryIds != null, IDS_NULL_ERROR_MESSAGE);
+        if (categoryIds.isEmpty()) {
+            return;
+        }
+        invalidationCount.incrementAndGet();
+        final Cache<String, Entry> cache = getEntries();
+        for (final Integer categoryId : categoryIds) {
+            remove(cache, indexed(entriesByCategoryId, categoryId));
+        }
+    }
+
+    /**
+     * Drops the cached recommendations of every user who was recommended the
+     * resource.
+     *
+     * @param resourceId
+     *            the id of the changed resource.
+     */
+    public void invalidateResource(final int resourceId) {
+        invalidationCount.incrementAndGet();
+        remove(getEntries(), indexed(entriesByResourceId, resourceId));
+    }
+
+    /**
+     * Drops all cached recommendations.
+     */
+    public void invalidateAll() {
+        invalidationCount.incrementAndGet();
+        getEntries().invalidateAll();
+    }
+
+    /**
+     * @return a point-in-time {@link RecommendationCacheMetrics} snapshot.
+     * @throws IllegalStateException
+     *             when the cache has not been initialized.
+     */
+    @Override
+    public RecommendationCacheMetrics getMetrics() {
+        final Cache<String, Entry> cache = getEntries();
+        return new RecommendationCacheMetrics(
+                cache.size(),
+                maximumEntries,
+                timeToLiveSeconds,
+                hitCount.get(),
+                missCount.get(),
+                invalidationCount.get(),
+                cache.stats().evictionCount(),
+                recomputeLatency.snapshot());
+    }
+
+    /**
+     * @param timeToLiveSeconds
+     *            how long recommendations are cached before they are
+     *            recomputed. Must be greater than 0.
+     */
+    public void setTimeToLiveSeconds(final long timeToLiveSeconds) {
+        checkArgument(timeToLiveSeconds > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Time to live");
+        this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+
+    /**
+     * @param maximumEntries
+     *            the maximum number of users whose recommendations are cached.
+     *            Must be greater than 0.
+     */
+    public void setMaximumEntries(final int maximumEntries) {
+        checkArgument(maximumEntries > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum entries");
+        this.maximumEntries = maximumEntries;
+    }
+
+    private Cache<String, Entry> getEntries() {
+        final Cache<String, Entry> cache = entries;
+        checkState(cache != null, CACHE_NOT_INITIALIZED_ERROR_MESSAGE);
+        return cache;
+    }
+
+    /**
+     * Adds an entry to the category and resource indexes. An entry is indexed
+     * before it is put in the cache, so an invalidation never misses an entry
+     * it can see in the cache.
+     */
+    private void index(final Entry entry) {
+        for (final Integer categoryId : entry.recommendations.getCategoryIds()) {
+            entriesByCategoryId.put(categoryId, entry);
+        }
+        for (final Integer resourceId : entry.resourceIds) {
+            entriesByResourceId.put(resourceId, entry);
+        }
+    }
+
+    private void unindex(final Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (final Integer categoryId : entry.recommendations.getCategoryIds()) {
+            entriesByCategoryId.remove(categoryId, entry);
+        }
+        for (final Integer resourceId : entry.resourceIds) {
+            entriesByResourceId.remove(resourceId, entry);
+        }
+    }
+
+    private static List<Entry> indexed(final SetMultimap<Integer, Entry> index, final Integer id) {
+        synchronized (index) {
+            return ImmutableList.copyOf(index.get(id));
+        }
+    }
+
+    private static void remove(final Cache<String, Entry> cache, final List<Entry> indexed) {
+        for (final Entry entry : indexed) {
+            cache.asMap().remove(entry.userId, entry);
+        }
+    }
+
+    private static final class Entry {
+        private final String userId;
+        private final double minimumRatingRequired;
+        private final int minimumNumberOfRatingsRequired;
+        private final Recommendations recommendations;
+        private final Set<Integer> resourceIds;
+
+        private Entry(
+                final String userId,
+                final double minimumRatingRequired,
+                final int minimumNumberOfRatingsRequired,
+                final Recommendations recommendations) {
+            this.userId = userId;
+            this.minimumRatingRequired = minimumRatingRequired;
+            this.minimumNumberOfRatingsRequired = minimumNumberOfRatingsRequired;
+            this.recommendations = recommendations;
+            final Set<Integer> ids = new HashSet<>();
+            for (final UserRecommendedResource recommended : recommendations.getResources()) {
+                if (recommended != null && recommended.getResource() != null) {
+                    ids.add(recommended.getResource().getResourceId());
+                }
+            }
+            this.resourceIds = ImmutableSet.copyOf(ids);
+        }
+
+        private boolean isComputedWith(final double minimumRatingRequired, final int minimumNumberOfRatingsRequired) {
+            return Double.compare(this.minimumRatingRequired, minimumRatingRequired) == 0
+                    && this.minimumNumberOfRatingsRequired == minimumNumberOfRatingsRequired;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.cerner.devcenter.education.reference;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cerner.devcenter.education.admin.CategoryDifficultySummaryDAO;
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
+
+/**
+ * Periodically checks the per-category resource counts and difficulty
+ * histograms in category_difficulty_summary against the relations in
+ * category_resource_reltn and rebuilds them when they have drifted, for
+ * example after relations were changed directly in the database.
+ * <p>
+ * The categories in the {@link ReferenceDataStore} are reloaded after a
+ * repair, so category listings show the corrected counts. {@link #init()} and
+ * {@link #close()} are meant to be used as the Spring init-method and
+ * destroy-method of the bean.
+ */
+public class CategorySummaryReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CategorySummaryReconciler.class);
+
+    private static final String DIFFICULTY_SUMMARY_DAO_NULL_ERROR_MESSAGE = "Category difficulty summary DAO cannot be null";
+    private static final String TRANSACTION_TEMPLATE_NULL_ERROR_MESSAGE = "Transaction template cannot be null";
+    private static final String REFERENCE_DATA_NULL_ERROR_MESSAGE = "Reference data store cannot be null";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String RECONCILER_ALREADY_INITIALIZED_ERROR_MESSAGE = "Category summary reconciler has already been initialized";
+    private static final String REBUILD_FAILED_ERROR_MESSAGE = "Error rebuilding the category difficulty summaries";
+    private static final String DRIFT_DETECTED_MESSAGE = "Difficulty summaries of {} categories have drifted, rebuilding: {}";
+    private static final String REBUILT_MESSAGE = "Rebuilt {} category difficulty summaries";
+    private static final String RECONCILE_FAILED_MESSAGE = "Error reconciling the category difficulty summaries";
+    private static final String RECONCILER_THREAD_NAME = "category-summary-reconciler";
+
+    private static final long DEFAULT_PERIOD_MILLIS = 3600000;
+
+    private CategoryDifficultySummaryDAO difficultySummaryDAO;
+    private TransactionTemplate transactionTemplate;
+    private ReferenceDataStore referenceData;
+    private long periodMillis = DEFAULT_PERIOD_MILLIS;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Validates the configuration and schedules {@link #reconcile()} to run
+     * every period, starting one period from now.
+     *
+     * @throws IllegalArgumentException
+     *             when a collaborator has not been set.
+     * @throws IllegalStateException
+     *             when the reconciler has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(scheduler == null, RECONCILER_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(difficultySummaryDAO != null, DIFFICULTY_SUMMARY_DAO_NULL_ERROR_MESSAGE);
+        checkArgument(transactionTemplate != null, TRANSACTION_TEMPLATE_NULL_ERROR_MESSAGE);
+        checkArgument(referenceData != null, REFERENCE_DATA_NULL_ERROR_MESSAGE);
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, RECONCILER_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reconcile();
+                } catch (final DAOException | RuntimeException exception) {
+                    LOGGER.error(RECONCILE_FAILED_MESSAGE, exception);
+                }
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the scheduled reconciliation.
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Rebuilds the difficulty summaries when any of them differs from the
+     * stored relations, and reloads the categories of the reference data.
+     *
+     * @return the number of categories whose summary had drifted.
+     * @throws DAOException
+     *             when the summaries cannot be compared with the relations.
+     * @throws ManagerException
+     *             when the summaries cannot be rebuilt or the categories
+     *             cannot be reloaded.
+     */
+    public int reconcile() throws DAOException {
+        final List<Integer> driftedCategoryIds = difficultySummaryDAO.getCategoryIdsWithDriftedDifficultySummary();
+        if (driftedCategoryIds.isEmpty()) {
+            return 0;
+        }
+        LOGGER.warn(DRIFT_DETECTED_MESSAGE, driftedCategoryIds.size(), driftedCategoryIds);
+        final Integer rebuilt = transactionTemplate.execute(new TransactionCallback<Integer>() {
+            @Override
+            public Integer doInTransaction(final TransactionStatus transactionStatus) {
+                try {
+                    return difficultySummaryDAO.rebuildDifficultySummaries();
+                } catch (final DAOException daoException) {
+                    throw new ManagerException(REBUILD_FAILED_ERROR_MESSAGE, daoException);
+                }
+            }
+        });
+        LOGGER.info(REBUILT_MESSAGE, rebuilt);
+        referenceData.refreshCategories();
+        return driftedCategoryIds.size();
+    }
+
+    /**
+     * @param difficultySummaryDAO
+     *            the {@link CategoryDifficultySummaryDAO} that checks and
+     *            rebuilds the summaries. Cannot be null.
+     */
+    public void setDifficultySummaryDAO(final CategoryDifficultySummaryDAO difficultySummaryDAO) {
+        checkArgument(difficultySummaryDAO != null, DIFFICULTY_SUMMARY_DAO_NULL_ERROR_MESSAGE);
+        this.difficultySummaryDAO = difficultySummaryDAO;
+    }
+
+    /**
+     * @param transactionTemplate
+     *            the {@link TransactionTemplate} the rebuild runs in. Cannot be
+     *            null.
+     */
+    public void setTransactionTemplate(final TransactionTemplate transactionTemplate) {
+        checkArgument(transactionTemplate != null, TRANSACTION_TEMPLATE_NULL_ERROR_MESSAGE);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * @param referenceData
+     *            the {@link ReferenceDataStore} whose categories are reloaded
+     *            after a repair. Cannot be null.
+     */
+    public void setReferenceData(final ReferenceDataStore referenceData) {
+        checkArgument(referenceData != null, REFERENCE_DATA_NULL_ERROR_MESSAGE);
+        this.referenceData = referenceData;
+    }
+
+    /**
+     * @param periodMillis
+     *            the delay between two reconciliations. Must be greater than
+     *            0.
+     */
+    public void setPeriodMillis(final long periodMillis) {
+        checkArgument(periodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Reconcile period");
+        this.periodMillis = periodMillis;
+    }
+}
@@ -0,0 +1,149 @@
+package com.cerner.devcenter.education.reference;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.models.Tag;
+
+/**
+ * Immutable, versioned snapshot of the reference data shown on most pages:
+ * the categories, resource types, tags and skill options. A change produces a
+ * new snapshot with the next version that shares the unchanged parts with the
+ * previous one.
+ * <p>
+ * The lists and the map cannot be modified. The model objects in them are
+ * shared by every reader and must not be modified either.
+ */
+public final class ReferenceData {
+
+    private static final String CATEGORIES_NULL_ERROR_MESSAGE = "Categories cannot be null";
+    private static final String RESOURCE_TYPES_NULL_ERROR_MESSAGE = "Resource types cannot be null";
+    private static final String TAGS_NULL_ERROR_MESSAGE = "Tags cannot be null";
+    private static final String SKILL_OPTIONS_NULL_ERROR_MESSAGE = "Skill options cannot be null";
+
+    /**
+     * The snapshot with version 0 that contains no reference data.
+     */
+    public static final ReferenceData EMPTY = new ReferenceData(0, Collections.<Category> emptyList(),
+            Collections.<ResourceType> emptyList(), Collections.<Tag> emptyList(),
+            Collections.unmodifiableSortedMap(new TreeMap<Integer, String>()));
+
+    private final long version;
+    private final List<Category> categories;
+    private final List<ResourceType> resourceTypes;
+    private final List<Tag> tags;
+    private final SortedMap<Integer, String> skillOptions;
+
+    private ReferenceData(
+            final long version,
+            final List<Category> categories,
+            final List<ResourceType> resourceTypes,
+            final List<Tag> tags,
+            final SortedMap<Integer, String> skillOptions) {
+        this.version = version;
+        this.categories = categories;
+        this.resourceTypes = resourceTypes;
+        this.tags = tags;
+        this.skillOptions = skillOptions;
+    }
+
+    /**
+     * @return the version of the snapshot, incremented by every change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return an unmodifiable {@link List} of every {@link Category}.
+     */
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    /**
+     * @return an unmodifiable {@link List} of every {@link ResourceType}.
+     */
+    public List<ResourceType> getResourceTypes() {
+        return resourceTypes;
+    }
+
+    /**
+     * @return an unmodifiable {@link List} of every {@link Tag}.
+     */
+    public List<Tag> getTags() {
+        return tags;
+    }
+
+    /**
+     * @return an unmodifiable {@link SortedMap} of the skill option
+     *         descriptions by value.
+     */
+    public SortedMap<Integer, String> getSkillOptions() {
+        return skillOptions;
+    }
+
+    /**
+     * @param categories
+     *            the new categories. Cannot be null.
+     * @return the next version of the snapshot, holding a copy of the
+     *         categories.
+     * @throws IllegalArgumentException
+     *             when categories is null.
+     */
+    public ReferenceData withCategories(final List<Category> categories) {
+        checkArgument(categories != null, CATEGORIES_NULL_ERROR_MESSAGE);
+        return new ReferenceData(version + 1, copyOf(categories), resourceTypes, tags, skillOptions);
+    }
+
+    /**
+     * @param resourceTypes
+     *            the new resource types. Cannot be null.
+     * @return the next version of the snapshot, holding a copy of the
+     *         resource types.
+     * @throws IllegalArgumentException
+     *             when resourceTypes is null.
+     */
+    public ReferenceData withResourceTypes(final List<ResourceType> resourceTypes) {
+        checkArgument(resourceTypes != null, RESOURCE_TYPES_NULL_ERROR_MESSAGE);
+        return new ReferenceData(version + 1, categories, copyOf(resourceTypes), tags, skillOptions);
+    }
+
+    /**
+     * @param tags
+     *            the new tags. Cannot be null.
+     * @return the next version of the snapshot, holding a copy of the tags.
+     * @throws IllegalArgumentException
+     *             when tags is null.
+     */
+    public ReferenceData withTags(final List<Tag> tags) {
+        checkArgument(tags != null, TAGS_NULL_ERROR_MESSAGE);
+        return new ReferenceData(version + 1, categories, resourceTypes, copyOf(tags), skillOptions);
+    }
+
+    /**
+     * @param skillOptions
+     *            the new skill option descriptions by value. Cannot be null.
+     * @return the next version of the snapshot, holding a copy of the skill
+     *         options.
+     * @throws IllegalArgumentException
+     *             when skillOptions is null.
+     */
+    public ReferenceData withSkillOptions(final Map<Integer, String> skillOptions) {
+        checkArgument(skillOptions != null, SKILL_OPTIONS_NULL_ERROR_MESSAGE);
+        return new ReferenceData(version + 1, categories, resourceTypes, tags,
+                Collections.unmodifiableSortedMap(new TreeMap<>(skillOptions)));
+    }
+
+    private static <T> List<T> copyOf(final List<T> list) {
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+}
@@ -0,0 +1,219 @@
+package com.cerner.devcenter.education.reference;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cerner.devcenter.education.admin.CategoryDAO;
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
+import com.cerner.devcenter.education.admin.ResourceTypeDAO;
+import com.cerner.devcenter.education.admin.TagDAO;
+import com.cerner.devcenter.education.dao.SkillOptionsDAO;
+
+/**
+ * Holds the current {@link ReferenceData} snapshot so the categories, resource
+ * types, tags and skill options are read from memory instead of with a full
+ * table query on every page.
+ * <p>
+ * Reads return the current snapshot without locking. The managers that add,
+ * edit or delete reference data call the matching refresh method after the
+ * change is written; it reloads that part from the database and publishes a
+ * new snapshot (copy-on-write). Refreshes are serialized, so a refresh that
+ * starts after a change always publishes it.
+ * <p>
+ * {@link #init()} is meant to be used as the Spring init-method of the bean.
+ */
+public class ReferenceDataStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceDataStore.class);
+
+    private static final String CATEGORY_DAO_NULL_ERROR_MESSAGE = "Category DAO cannot be null";
+    private static final String RESOURCE_TYPE_DAO_NULL_ERROR_MESSAGE = "Resource type DAO cannot be null";
+    private static final String TAG_DAO_NULL_ERROR_MESSAGE = "Tag DAO cannot be null";
+    private static final String SKILL_OPTIONS_DAO_NULL_ERROR_MESSAGE = "Skill options DAO cannot be null";
+    private static final String LOAD_CATEGORIES_FAILED_MESSAGE = "Error loading categories into the reference data";
+    private static final String LOAD_RESOURCE_TYPES_FAILED_MESSAGE = "Error loading resource types into the reference data";
+    private static final String LOAD_TAGS_FAILED_MESSAGE = "Error loading tags into the reference data";
+    private static final String LOAD_SKILL_OPTIONS_FAILED_MESSAGE = "Error loading skill options into the reference data";
+    private static final String PUBLISHED_MESSAGE = "Published reference data version {}";
+
+    private CategoryDAO categoryDAO;
+    private ResourceTypeDAO resourceTypeDAO;
+    private TagDAO tagDAO;
+    private SkillOptionsDAO skillOptionsDAO;
+
+    private final Object writeLock = new Object();
+    private volatile ReferenceData snapshot = ReferenceData.EMPTY;
+
+    /**
+     * Loads all reference data.
+     *
+     * @throws IllegalArgumentException
+     *             when a DAO has not been set.
+     * @throws ManagerException
+     *             when the reference data cannot be read and catches
+     *             {@link DAOException}.
+     */
+    public void init() {
+        checkArgument(categoryDAO != null, CATEGORY_DAO_NULL_ERROR_MESSAGE);
+        checkArgument(resourceTypeDAO != null, RESOURCE_TYPE_DAO_NULL_ERROR_MESSAGE);
+        checkArgument(tagDAO != null, TAG_DAO_NULL_ERROR_MESSAGE);
+        checkArgument(skillOptionsDAO != null, SKILL_OPTIONS_DAO_NULL_ERROR_MESSAGE);
+        reload();
+    }
+
+    /**
+     * Replaces all reference data with a single new snapshot read from the
+     * database.
+     *
+     * @throws ManagerException
+     *             when the reference data cannot be read and catches
+     *             {@link DAOException}.
+     */
+    public void reload() {
+        synchronized (writeLock) {
+            ReferenceData next = snapshot;
+            try {
+                next = next.withCategories(categoryDAO.getAllCategoryList());
+            } catch (final DAOException daoException) {
+                throw new ManagerException(LOAD_CATEGORIES_FAILED_MESSAGE, daoException);
+            }
+            try {
+                next = next.withResourceTypes(resourceTypeDAO.getAllResourceTypes());
+            } catch (final DAOException daoException) {
+                throw new ManagerException(LOAD_RESOURCE_TYPES_FAILED_MESSAGE, daoException);
+            }
+            try {
+                next = next.withTags(tagDAO.getAllTags());
+            } catch (final DAOException daoException) {
+                throw new ManagerException(LOAD_TAGS_FAILED_MESSAGE, daoException);
+            }
+            try {
+                next = next.withSkillOptions(skillOptionsDAO.getSkillOptions());
+            } catch (final DAOException daoException) {
+                throw new ManagerException(LOAD_SKILL_OPTIONS_FAILED_MESSAGE, daoException);
+            }
+            publish(next);
+        }
+    }
+
+    /**
+     * @return the current {@link ReferenceData} snapshot.
+     */
+    public ReferenceData getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Reloads the categories and publishes them in a new snapshot.
+     *
+     * @throws ManagerException
+     *             when the categories cannot be read and catches
+     *             {@link DAOException}.
+     */
+    public void refreshCategories() {
+        synchronized (writeLock) {
+            try {
+                publish(snapshot.withCategories(categoryDAO.getAllCategoryList()));
+            } catch (final DAOException daoException) {
+                throw new ManagerException(LOAD_CATEGORIES_FAILED_MESSAGE, daoException);
+            }
+        }
+    }
+
+    /**
+     * Reloads the resource types and publishes them in a new snapshot.
+     *
+     * @throws ManagerException
+     *             when the resource types cannot be read and catches
+     *             {@link DAOException}.
+     */
+    public void refreshResourceTypes() {
+        synchronized (writeLock) {
+            try {
+                publish(snapshot.withResourceTypes(resourceTypeDAO.getAllResourceTypes()));
+            } catch (final DAOException daoException) {
+                throw new ManagerException(LOAD_RESOURCE_TYPES_FAILED_MESSAGE, daoException);
+            }
+        }
+    }
+
+    /**
+     * Reloads the tags and publishes them in a new snapshot.
+     *
+     * @throws ManagerException
+     *             when the tags cannot be read and catches {@link DAOException}.
+     */
+    public void refreshTags() {
+        synchronized (writeLock) {
+            try {
+                publish(snapshot.withTags(tagDAO.getAllTags()));
+            } catch (final DAOException daoException) {
+                throw new ManagerException(LOAD_TAGS_FAILED_MESSAGE, daoException);
+            }
+        }
+    }
+
+    /**
+     * Reloads the skill options and publishes them in a new snapshot.
+     *
+     * @throws ManagerException
+     *             when the skill options cannot be read and catches
+     *             {@link DAOException}.
+     */
+    public void refreshSkillOptions() {
+        synchronized (writeLock) {
+            try {
+                publish(snapshot.withSkillOptions(skillOptionsDAO.getSkillOptions()));
+            } catch (final DAOException daoException) {
+                throw new ManagerException(LOAD_SKILL_OPTIONS_FAILED_MESSAGE, daoException);
+            }
+        }
+    }
+
+    /**
+     * @param categoryDAO
+     *            the {@link CategoryDAO} categories are read with. Cannot be
+     *            null.
+     */
+    public void setCategoryDAO(final CategoryDAO categoryDAO) {
+        checkArgument(categoryDAO != null, CATEGORY_DAO_NULL_ERROR_MESSAGE);
+        this.categoryDAO = categoryDAO;
+    }
+
+    /**
+     * @param resourceTypeDAO
+     *            the {@link ResourceTypeDAO} resource types are read with.
+     *            Cannot be null.
+     */
+    public void setResourceTypeDAO(final ResourceTypeDAO resourceTypeDAO) {
+        checkArgument(resourceTypeDAO != null, RESOURCE_TYPE_DAO_NULL_ERROR_MESSAGE);
+        this.resourceTypeDAO = resourceTypeDAO;
+    }
+
+    /**
+     * @param tagDAO
+     *            the {@link TagDAO} tags are read with. Cannot be null.
+     */
+    public void setTagDAO(final TagDAO tagDAO) {
+        checkArgument(tagDAO != null, TAG_DAO_NULL_ERROR_MESSAGE);
+        this.tagDAO = tagDAO;
+    }
+
+    /**
+     * @param skillOptionsDAO
+     *            the {@link SkillOptionsDAO} skill options are read with.
+     *            Cannot be null.
+     */
+    public void setSkillOptionsDAO(final SkillOptionsDAO skillOptionsDAO) {
+        checkArgument(skillOptionsDAO != null, SKILL_OPTIONS_DAO_NULL_ERROR_MESSAGE);
+        this.skillOptionsDAO = skillOptionsDAO;
+    }
+
+    private void publish(final ReferenceData next) {
+        snapshot = next;
+        LOGGER.debug(PUBLISHED_MESSAGE, next.getVersion());
+    }
+}
@@ -0,0 +1,429 @@
+package com.cerner.devcenter.education.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
+import com.cerner.devcenter.education.admin.ResourceDAO;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceStatus;
+import com.cerner.devcenter.education.utils.Constants;
+
+/**
+ * In-memory autocomplete index over the names of the available resources. A
+ * resource matches a search when the search is a prefix of its name, or of the
+ * part of its name starting at any word, ignoring case. So "sec" suggests
+ * "Spring Security".
+ * <p>
+ * Suggestions are ranked the way {@link
+ * com.cerner.devcenter.education.helpers.FuzzyRanker#forResources(String)}
+ * ranks them: by the Levenshtein distance of the name from the search. For a
+ * prefix match that distance is the number of characters in the name beyond
+ * the search, so ranking only needs the name length and no distance is
+ * computed per query. Ties are broken by name and then id.
+ * <p>
+ * The index keeps:
+ * <ul>
+ * <li>every word start of every name in a sorted concurrent set, so the
+ * matches for a search are one contiguous range found in logarithmic
+ * time</li>
+ * <li>the top suggestions for every one and two character search, which would
+ * otherwise match a large part of the index. They are computed on the first
+ * search that needs them and dropped when a resource with a word starting
+ * with that search changes</li>
+ * </ul>
+ * Searches read the index without locking. Changes are applied in place one
+ * resource at a time, so adding, editing or deleting a resource costs a few
+ * sorted set operations per word of its name rather than a rebuild of the
+ * index. A search running during a change can see the resource before or
+ * after the change.
+ * <p>
+ * {@link #init()} is meant to be used as the Spring init-method of the bean.
+ */
+public class ResourceAutocompleteIndex {
+
+    private static final String RESOURCE_DAO_NULL_ERROR_MESSAGE = "Resource DAO cannot be null";
+    private static final String MAXIMUM_SUGGESTIONS_INVALID = "Maximum suggestions must be greater than 0";
+    private static final String LIMIT_INVALID = "Limit must be between 1 and the maximum number of suggestions";
+    private static final String RESOURCE_NULL_ERROR_MESSAGE = "Resource cannot be null";
+    private static final String RESOURCES_NULL_ERROR_MESSAGE = "Resources cannot be null";
+    private static final String RESOURCE_ID_INVALID = "Resource id must be greater than 0";
+    private static final String LOAD_FAILED_MESSAGE = "Error loading available resources into the autocomplete index";
+    private static final int PRECOMPUTED_PREFIX_LENGTH = 2;
+
+    private ResourceDAO resourceDAO;
+    private volatile int maximumSuggestions = Constants.AUTOFILL_SIZE;
+
+    private final Object writeLock = new Object();
+    private volatile Contents contents = new Contents();
+
+    /**
+     * Loads the available resources into the index.
+     *
+     * @throws IllegalArgumentException
+     *             when the resource DAO has not been set.
+     * @throws ManagerException
+     *             when the resources cannot be read and catches
+     *             {@link DAOException}.
+     */
+    public void init() {
+        checkArgument(resourceDAO != null, RESOURCE_DAO_NULL_ERROR_MESSAGE);
+        reload();
+    }
+
+    /**
+     * Replaces the content of the index with the available resources read from
+     * the database.
+     *
+     * @throws ManagerException
+     *             when the resources cannot be read and catches
+     *             {@link DAOException}.
+     */
+    public void reload() {
+        final List<Resource> resources;
+        try {
+            resources = resourceDAO.getAvailableResources();
+        } catch (final DAOException daoException) {
+            throw new ManagerException(LOAD_FAILED_MESSAGE, daoException);
+        }
+        final Contents loaded = new Contents();
+        for (final Resource resource : resources) {
+            loaded.put(resource);
+        }
+        synchronized (writeLock) {
+            contents = loaded;
+        }
+    }
+
+    /**
+     * Returns the best matching resources for the search, best match first.
+     *
+     * @param search
+     *            the text typed so far. Case and surrounding whitespace are
+     *            ignored; a blank search has no suggestions.
+     * @param limit
+     *            the maximum number of suggestions. Must be between 1 and the
+     *            configured maximum number of suggestions.
+     * @return a {@link List} of at most limit {@link Resource} objects, never
+     *         null.
+     * @throws IllegalArgumentException
+     *             when search is null or limit is out of range.
+     */
+    public List<Resource> getSuggestions(final String search, final int limit) {
+        checkArgument(search != null, Constants.SEARCH_INVALID_ERROR_MESSAGE);
+        final int maximum = maximumSuggestions;
+        checkArgument(limit > 0 && limit <= maximum, LIMIT_INVALID);
+        final String normalizedSearch = normalize(search);
+        if (normalizedSearch.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Resource> suggestions = contents.getSuggestions(normalizedSearch, maximum);
+        return suggestions.size() > limit ? suggestions.subList(0, limit) : suggestions;
+    }
+
+    /**
+     * Adds the resources that are Available to the index, replacing any
+     * resource with the same id. Resources with any other status are ignored.
+     *
+     * @param resources
+     *            the added {@link Resource} objects, with their ids set.
+     *            Cannot be null.
+     * @throws IllegalArgumentException
+     *             when resources or one of them is null.
+     */
+    public void addAll(final Collection<Resource> resources) {
+        checkArgument(resources != null, RESOURCES_NULL_ERROR_MESSAGE);
+        final List<Resource> available = new ArrayList<>();
+        for (final Resource resource : resources) {
+            checkArgument(resource != null, RESOURCE_NULL_ERROR_MESSAGE);
+            if (isAvailable(resource)) {
+                available.add(resource);
+            }
+        }
+        if (available.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            for (final Resource resource : available) {
+                contents.put(resource);
+            }
+        }
+    }
+
+    /**
+     * Adds the resource to the index when it is Available.
+     *
+     * @param resource
+     *            the added {@link Resource}, with its id set. Cannot be null.
+     * @throws IllegalArgumentException
+     *             when resource is null.
+     */
+    public void add(final Resource resource) {
+        checkArgument(resource != null, RESOURCE_NULL_ERROR_MESSAGE);
+        addAll(Collections.singletonList(resource));
+    }
+
+    /**
+     * Brings the index up to date with an edited resource: an Available
+     * resource is added or replaced, a resource with any other status is
+     * removed.
+     *
+     * @param resource
+     *            the edited {@link Resource}, with its status set. Cannot be
+     *            null.
+     * @throws IllegalArgumentException
+     *             when resource is null.
+     */
+    public void update(final Resource resource) {
+        checkArgument(resource != null, RESOURCE_NULL_ERROR_MESSAGE);
+        synchronized (writeLock) {
+            if (isAvailable(resource)) {
+                contents.put(resource);
+            } else {
+                contents.remove(resource.getResourceId());
+            }
+        }
+    }
+
+    /**
+     * Removes a deleted resource from the index.
+     *
+     * @param resourceId
+     *            the id of the deleted resource. Must be greater than 0.
+     * @throws IllegalArgumentException
+     *             when resourceId is not positive.
+     */
+    public void remove(final int resourceId) {
+        checkArgument(resourceId > 0, RESOURCE_ID_INVALID);
+        synchronized (writeLock) {
+            contents.remove(resourceId);
+        }
+    }
+
+    /**
+     * @return the number of indexed resources.
+     */
+    public int size() {
+        return contents.resourcesById.size();
+    }
+
+    /**
+     * @param resourceDAO
+     *            the {@link ResourceDAO} used to load the available
+     *            resources. Cannot be null.
+     */
+    public void setResourceDAO(final ResourceDAO resourceDAO) {
+        checkArgument(resourceDAO != null, RESOURCE_DAO_NULL_ERROR_MESSAGE);
+        this.resourceDAO = resourceDAO;
+    }
+
+    /**
+     * @param maximumSuggestions
+     *            the largest number of suggestions a search can ask for. Must
+     *            be greater than 0.
+     */
+    public void setMaximumSuggestions(final int maximumSuggestions) {
+        checkArgument(maximumSuggestions > 0, MAXIMUM_SUGGESTIONS_INVALID);
+        synchronized (writeLock) {
+            this.maximumSuggestions = maximumSuggestions;
+            contents.clearShortPrefixSuggestions();
+        }
+    }
+
+    private static boolean isAvailable(final Resource resource) {
+        return ResourceStatus.Available.toString().equals(resource.getResourceStatus());
+    }
+
+    private static String normalize(final String text) {
+        return StringUtils.trimToEmpty(text).toLowerCase();
+    }
+
+    /**
+     * The part of the normalized name of a resource starting at one of its
+     * words. Entries are ordered by that text and then by resource id.
+     */
+    private static final class Entry {
+        private final Resource resource;
+        private final int resourceId;
+        private final String name;
+        private final int offset;
+
+        private Entry(final Resource resource, final int resourceId, final String name, final int offset) {
+            this.resource = resource;
+            this.resourceId = resourceId;
+            this.name = name;
+            this.offset = offset;
+        }
+
+        private boolean startsWith(final String search) {
+            return name.startsWith(search, offset);
+        }
+    }
+
+    private static final Comparator<Entry> ENTRY_ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(final Entry first, final Entry second) {
+            final int result = compareSuffixes(first.name, first.offset, second.name, second.offset);
+            return result != 0 ? result : Integer.compare(first.resourceId, second.resourceId);
+        }
+    };
+
+    private static final Comparator<Entry> RANK_ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(final Entry first, final Entry second) {
+            int result = Integer.compare(first.name.length(), second.name.length());
+            if (result == 0) {
+                result = first.name.compareTo(second.name);
+            }
+            return result != 0 ? result : Integer.compare(first.resourceId, second.resourceId);
+        }
+    };
+
+    /**
+     * The entries of the index and the suggestions computed for short
+     * searches. Writes happen under the write lock of the index; reads do not
+     * lock.
+     * <p>
+     * A short search caches its suggestions and then checks that no change
+     * happened while it was computing them. A change bumps the version before
+     * dropping the cached suggestions it affects, so suggestions computed from
+     * stale entries are either dropped by the change or by the search itself.
+     */
+    private static final class Contents {
+        private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>(ENTRY_ORDER);
+        private final ConcurrentMap<Integer, List<Entry>> resourcesById = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, List<Resource>> shortPrefixSuggestions = new ConcurrentHashMap<>();
+        private volatile long version;
+
+        private void put(final Resource resource) {
+            final String name = normalize(resource.getResourceName());
+            final List<Entry> added = new ArrayList<>();
+            for (int offset = 0; offset < name.length(); offset++) {
+                if (isWordStart(name, offset)) {
+                    added.add(new Entry(resource, resource.getResourceId(), name, offset));
+                }
+            }
+            final List<Entry> removed = resourcesById.put(resource.getResourceId(), added);
+            if (removed != null) {
+                entries.removeAll(removed);
+            }
+            entries.addAll(added);
+            version++;
+            if (removed != null) {
+                dropShortPrefixSuggestions(removed);
+            }
+            dropShortPrefixSuggestions(added);
+        }
+
+        private void remove(final int resourceId) {
+            final List<Entry> removed = resourcesById.remove(resourceId);
+            if (removed == null) {
+                return;
+            }
+            entries.removeAll(removed);
+            version++;
+            dropShortPrefixSuggestions(removed);
+        }
+
+        private void clearShortPrefixSuggestions() {
+            version++;
+            shortPrefixSuggestions.clear();
+        }
+
+        private void dropShortPrefixSuggestions(final List<Entry> changed) {
+            for (final Entry entry : changed) {
+                final int available = entry.name.length() - entry.offset;
+                for (int length = 1; length <= Math.min(PRECOMPUTED_PREFIX_LENGTH, available); length++) {
+                    shortPrefixSuggestions.remove(entry.name.substring(entry.offset, entry.offset + length));
+                }
+            }
+        }
+
+        private List<Resource> getSuggestions(final String search, final int maximumSuggestions) {
+            if (search.length() > PRECOMPUTED_PREFIX_LENGTH) {
+                return select(search, maximumSuggestions);
+            }
+            final List<Resource> cached = shortPrefixSuggestions.get(search);
+            if (cached != null) {
+                return cached;
+            }
+            final long versionBefore = version;
+            final List<Resource> suggestions = select(search, maximumSuggestions);
+            shortPrefixSuggestions.put(search, suggestions);
+            if (version != versionBefore) {
+                shortPrefixSuggestions.remove(search, suggestions);
+            }
+            return suggestions;
+        }
+
+        /**
+         * Returns the best ranked resources with a word starting with the
+         * search, keeping at most maximumSuggestions candidates in a heap. A
+         * resource with several matching words is taken once.
+         */
+        private List<Resource> select(final String search, final int maximumSuggestions) {
+            final PriorityQueue<Entry> worstFirst = new PriorityQueue<>(maximumSuggestions + 1,
+                    Collections.reverseOrder(RANK_ORDER));
+            final Set<Integer> selected = new HashSet<>();
+            final Entry from = new Entry(null, Integer.MIN_VALUE, search, 0);
+            for (final Entry candidate : entries.tailSet(from)) {
+                if (!candidate.startsWith(search)) {
+                    break;
+                }
+                if (selected.contains(candidate.resourceId)) {
+                    continue;
+                }
+                if (worstFirst.size() < maximumSuggestions) {
+                    worstFirst.add(candidate);
+                    selected.add(candidate.resourceId);
+                } else if (RANK_ORDER.compare(candidate, worstFirst.peek()) < 0) {
+                    selected.remove(worstFirst.poll().resourceId);
+                    worstFirst.add(candidate);
+                    selected.add(candidate.resourceId);
+                }
+            }
+            final List<Entry> ranked = new ArrayList<>(worstFirst);
+            Collections.sort(ranked, RANK_ORDER);
+            final List<Resource> suggestions = new ArrayList<>(ranked.size());
+            for (final Entry entry : ranked) {
+                suggestions.add(entry.resource);
+            }
+            return Collections.unmodifiableList(suggestions);
+        }
+    }
+
+    private static boolean isWordStart(final String name, final int offset) {
+        return offset == 0
+                || (Character.isLetterOrDigit(name.charAt(offset)) && !Character.isLetterOrDigit(name
+                        .charAt(offset - 1)));
+    }
+
+    private static int compareSuffixes(final String first, final int firstOffset, final String second,
+            final int secondOffset) {
+        final int firstLength = first.length() - firstOffset;
+        final int secondLength = second.length() - secondOffset;
+        final int length = Math.min(firstLength, secondLength);
+        for (int i = 0; i < length; i++) {
+            final char firstChar = first.charAt(firstOffset + i);
+            final char secondChar = second.charAt(secondOffset + i);
+            if (firstChar != secondChar) {
+                return firstChar - secondChar;
+            }
+        }
+        return firstLength - secondLength;
+    }
+}
@@ -0,0 +1,708 @@
+package com.cerner.devcenter.education.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.ResourceFacetDAO;
+import com.cerner.devcenter.education.dao.ResourceFacetDAO.ResourceFacetHandler;
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.cerner.devcenter.education.utils.StripedCounter;
+
+/**
+ * In-memory index of the resources by category, difficulty level, resource
+ * type, tag and status, answering any combination of filters over them
+ * together with the facet counts of every dimension in one call, without a
+ * query per combination or a count query per listing.
+ * <p>
+ * Resources are numbered densely in resource id order, and every facet value
+ * has a posting list: a {@link BitSet} of the resources that have it. Since a
+ * resource has a difficulty level per category, there is also a posting list
+ * per category and difficulty level pair, so filtering by both matches the
+ * level the resource has in that category. A {@link ResourceFacetQuery} is
+ * answered by a union of the posting lists of the selected values of each
+ * dimension and an intersection across the dimensions, a word at a time.
+ * Since bits are in resource id order, a page of the matches after a resource
+ * id is read by seeking to the first bit past it.
+ * <p>
+ * Facet counts ignore the filter of their own dimension. They are counted by
+ * walking the resources matching the other dimensions and adding up the values
+ * each has, kept per resource in arrays next to the posting lists, so every
+ * dimension costs one pass over its candidates however many values it has.
+ * <p>
+ * The index is an immutable snapshot, read from the resource,
+ * category_resource_reltn and tag_resource_reltn tables in the background
+ * right away and then every rebuild period, so queries take no lock and a
+ * change to the resources shows after at most one rebuild period. Until it is
+ * first built the index is not {@link #isReady() ready}. Counts and latencies
+ * are exposed through {@link #getMetrics()}. {@link #init()} and
+ * {@link #close()} are meant to be used as the Spring init-method and
+ * destroy-method of the bean.
+ */
+public class ResourceFacetIndex implements MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceFacetIndex.class);
+
+    private static final String RESOURCE_FACET_DAO_NULL_ERROR_MESSAGE = "Resource facet DAO cannot be null";
+    private static final String QUERY_NULL_ERROR_MESSAGE = "Resource facet query cannot be null";
+    private static final String INVALID_AFTER_RESOURCE_ID_ERROR_MESSAGE = "Resource Id to read after cannot be negative";
+    private static final String INVALID_LIMIT_ERROR_MESSAGE = "Limit cannot be negative";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String INDEX_ALREADY_INITIALIZED_ERROR_MESSAGE = "Resource facet index has already been initialized";
+    private static final String INDEX_NOT_READY_ERROR_MESSAGE = "Resource facet index has not been built yet";
+    private static final String INDEX_DISABLED_MESSAGE = "Resource facet index is disabled, resources are not filtered by facets";
+    private static final String REBUILT_MESSAGE = "Rebuilt the resource facet index with {} resources and {} posting lists";
+    private static final String REBUILD_FAILED_MESSAGE = "Error rebuilding the resource facet index, retrying in {} ms";
+    private static final String INDEX_THREAD_NAME = "resource-facet-index";
+
+    private static final long DEFAULT_REBUILD_PERIOD_MILLIS = 60000;
+
+    private ResourceFacetDAO resourceFacetDAO;
+    private boolean enabled = true;
+    private long rebuildPeriodMillis = DEFAULT_REBUILD_PERIOD_MILLIS;
+
+    private final StripedCounter queryCount = new StripedCounter();
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private final AtomicLong rebuildFailureCount = new AtomicLong();
+    private final LatencyHistogram rebuildLatency = new LatencyHistogram();
+    private final LatencyHistogram queryLatency = new LatencyHistogram();
+
+    private final Object rebuildLock = new Object();
+    private volatile Snapshot snapshot;
+    private volatile long lastRebuildTimeMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Validates the configuration and, when the index is enabled, builds it in
+     * the background right away and then every rebuild period.
+     *
+     * @throws IllegalArgumentException
+     *             when the DAO has not been set.
+     * @throws IllegalStateException
+     *             when the index has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(scheduler == null, INDEX_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(resourceFacetDAO != null, RESOURCE_FACET_DAO_NULL_ERROR_MESSAGE);
+        if (!enabled) {
+            LOGGER.info(INDEX_DISABLED_MESSAGE);
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, INDEX_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    rebuild();
+                } catch (final DAOException | RuntimeException exception) {
+                    LOGGER.error(REBUILD_FAILED_MESSAGE, rebuildPeriodMillis, exception);
+                }
+            }
+        }, 0, rebuildPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the scheduled rebuilds.
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the facet values of every resource and replaces the index with
+     * them.
+     *
+     * @throws DAOException
+     *             when the facet values cannot be read; the previous index is
+     *             then kept.
+     */
+    void rebuild() throws DAOException {
+        synchronized (rebuildLock) {
+            final long start = System.nanoTime();
+            try {
+                final SnapshotBuilder builder = new SnapshotBuilder();
+                resourceFacetDAO.readResources(builder);
+                resourceFacetDAO.readCategories(builder);
+                resourceFacetDAO.readTags(builder);
+                final Snapshot rebuilt = new Snapshot(builder.rowsByResourceId);
+                snapshot = rebuilt;
+                lastRebuildTimeMillis = System.currentTimeMillis();
+                rebuildCount.incrementAndGet();
+                LOGGER.debug(REBUILT_MESSAGE, rebuilt.resourceIds.length, rebuilt.postingListCount());
+            } catch (final DAOException | RuntimeException exception) {
+                rebuildFailureCount.incrementAndGet();
+                throw exception;
+            } finally {
+                rebuildLatency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * @return true once the index has been built.
+     */
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Finds the resources matching a combination of filters and counts the
+     * values of every dimension among them.
+     *
+     * @param query
+     *            the {@link ResourceFacetQuery} to answer. Cannot be null.
+     * @param afterResourceId
+     *            the resource id of the last resource on the previous page, or
+     *            0 for the first page. Cannot be negative.
+     * @param limit
+     *            the maximum number of resource ids returned; 0 to only count.
+     *            Cannot be negative.
+     * @return the {@link ResourceFacets} of the query, never null.
+     * @throws IllegalArgumentException
+     *             when query is null or afterResourceId or limit is negative.
+     * @throws IllegalStateException
+     *             when the index has not been built yet.
+     */
+    public ResourceFacets search(final ResourceFacetQuery query, final int afterResourceId, final int limit) {
+        checkArgument(query != null, QUERY_NULL_ERROR_MESSAGE);
+        checkArgument(afterResourceId >= 0, INVALID_AFTER_RESOURCE_ID_ERROR_MESSAGE);
+        checkArgument(limit >= 0, INVALID_LIMIT_ERROR_MESSAGE);
+        final Snapshot current = snapshot;
+        checkState(current != null, INDEX_NOT_READY_ERROR_MESSAGE);
+        final long start = System.nanoTime();
+        try {
+            return current.search(query, afterResourceId, limit);
+        } finally {
+            queryCount.increment();
+            queryLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Counts the resources matching a combination of filters, without the
+     * facet counts.
+     *
+     * @param query
+     *            the {@link ResourceFacetQuery} to count. Cannot be null.
+     * @return the number of matching resources.
+     * @throws IllegalArgumentException
+     *             when query is null.
+     * @throws IllegalStateException
+     *             when the index has not been built yet.
+     */
+    public int count(final ResourceFacetQuery query) {
+        checkArgument(query != null, QUERY_NULL_ERROR_MESSAGE);
+        final Snapshot current = snapshot;
+        checkState(current != null, INDEX_NOT_READY_ERROR_MESSAGE);
+        final long start = System.nanoTime();
+        try {
+            return current.count(query);
+        } finally {
+            queryCount.increment();
+            queryLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Finds the ids of every resource matching a combination of filters,
+     * without the facet counts.
+     *
+     * @param query
+     *            the {@link ResourceFacetQuery} to answer. Cannot be null.
+     * @return the matching resource ids in ascending order, never null.
+     * @throws IllegalArgumentException
+     *             when query is null.
+     * @throws IllegalStateException
+     *             when the index has not been built yet.
+     */
+    public List<Integer> getResourceIds(final ResourceFacetQuery query) {
+        checkArgument(query != null, QUERY_NULL_ERROR_MESSAGE);
+        final Snapshot current = snapshot;
+        checkState(current != null, INDEX_NOT_READY_ERROR_MESSAGE);
+        final long start = System.nanoTime();
+        try {
+            return current.resourceIds(query);
+        } finally {
+            queryCount.increment();
+            queryLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return a point-in-time {@link ResourceFacetIndexMetrics} snapshot.
+     */
+    @Override
+    public ResourceFacetIndexMetrics getMetrics() {
+        final Snapshot current = snapshot;
+        return new ResourceFacetIndexMetrics(
+                enabled,
+                current != null,
+                rebuildPeriodMillis,
+                current == null ? 0 : current.resourceIds.length,
+                current == null ? 0 : current.postingListCount(),
+                current == null ? 0 : current.postingListBytes(),
+                lastRebuildTimeMillis,
+                rebuildCount.get(),
+                rebuildFailureCount.get(),
+                queryCount.sum(),
+                rebuildLatency.snapshot(),
+                queryLatency.snapshot());
+    }
+
+    /**
+     * @param resourceFacetDAO
+     *            the {@link ResourceFacetDAO} the facet values are read with.
+     *            Cannot be null.
+     */
+    public void setResourceFacetDAO(final ResourceFacetDAO resourceFacetDAO) {
+        checkArgument(resourceFacetDAO != null, RESOURCE_FACET_DAO_NULL_ERROR_MESSAGE);
+        this.resourceFacetDAO = resourceFacetDAO;
+    }
+
+    /**
+     * @param enabled
+     *            false to never build the index, so listings fall back to the
+     *            counts of the categories.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param rebuildPeriodMillis
+     *            the delay between two rebuilds, which bounds how long a
+     *            change to the resources takes to show. Must be greater than
+     *            0.
+     */
+    public void setRebuildPeriodMillis(final long rebuildPeriodMillis) {
+        checkArgument(rebuildPeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Rebuild period");
+        this.rebuildPeriodMillis = rebuildPeriodMillis;
+    }
+
+    /**
+     * The facet values of one resource while the index is read.
+     */
+    private static final class ResourceRow {
+
+        private final int resourceTypeId;
+        private final String status;
+        private final List<int[]> placements = new ArrayList<>();
+        private final List<Integer> tagIds = new ArrayList<>();
+
+        private ResourceRow(final int resourceTypeId, final String status) {
+            this.resourceTypeId = resourceTypeId;
+            this.status = status;
+        }
+    }
+
+    /**
+     * Collects the rows read by the DAO. Categories and tags of a resource
+     * missing from the resource table, such as one added while the tables are
+     * read, are skipped until the next rebuild.
+     */
+    private static final class SnapshotBuilder implements ResourceFacetHandler {
+
+        private final TreeMap<Integer, ResourceRow> rowsByResourceId = new TreeMap<>();
+
+        @Override
+        public void resource(final int resourceId, final int resourceTypeId, final String status) {
+            rowsByResourceId.put(resourceId, new ResourceRow(resourceTypeId, status));
+        }
+
+        @Override
+        public void category(final int resourceId, final int categoryId, final int difficultyLevel) {
+            final ResourceRow row = rowsByResourceId.get(resourceId);
+            if (row != null) {
+                row.placements.add(new int[] { categoryId, difficultyLevel });
+            }
+        }
+
+        @Override
+        public void tag(final int resourceId, final int tagId) {
+            final ResourceRow row = rowsByResourceId.get(resourceId);
+            if (row != null) {
+                row.tagIds.add(tagId);
+            }
+        }
+    }
+
+    /**
+     * Immutable state of the index. Resource i has id resourceIds[i]; its
+     * categories and difficulty levels are the pairs placementCategoryIds[i][j]
+     * and placementLevels[i][j], sorted by category and then level.
+     */
+    private static final class Snapshot {
+
+        private final int[] resourceIds;
+        private final int[] resourceTypeIds;
+        private final String[] statuses;
+        private final int[][] placementCategoryIds;
+        private final int[][] placementLevels;
+        private final int[][] tagIds;
+        private final BitSet allResources;
+        private final Map<Integer, BitSet> categoryPostings = new HashMap<>();
+        private final Map<Integer, BitSet> levelPostings = new HashMap<>();
+        private final Map<Long, BitSet> placementPostings = new HashMap<>();
+        private final Map<Integer, BitSet> resourceTypePostings = new HashMap<>();
+        private final Map<Integer, BitSet> tagPostings = new HashMap<>();
+        private final Map<String, BitSet> statusPostings = new HashMap<>();
+
+        private Snapshot(final TreeMap<Integer, ResourceRow> rowsByResourceId) {
+            final int size = rowsByResourceId.size();
+            resourceIds = new int[size];
+            resourceTypeIds = new int[size];
+            statuses = new String[size];
+            placementCategoryIds = new int[size][];
+            placementLevels = new int[size][];
+            tagIds = new int[size][];
+            allResources = new BitSet(size);
+            allResources.set(0, size);
+            int resource = 0;
+            for (final Map.Entry<Integer, ResourceRow> entry : rowsByResourceId.entrySet()) {
+                final ResourceRow row = entry.getValue();
+                resourceIds[resource] = entry.getKey();
+                resourceTypeIds[resource] = row.resourceTypeId;
+                statuses[resource] = row.status;
+                post(resourceTypePostings, row.resourceTypeId, resource, size);
+                post(statusPostings, row.status, resource, size);
+                indexPlacements(resource, row.placements, size);
+                indexTags(resource, row.tagIds, size);
+                resource++;
+            }
+        }
+
+        private void indexPlacements(final int resource, final List<int[]> placements, final int size) {
+            Collections.sort(placements, new Comparator<int[]>() {
+                @Override
+                public int compare(final int[] first, final int[] second) {
+                    final int result = Integer.compare(first[0], second[0]);
+                    return result != 0 ? result : Integer.compare(first[1], second[1]);
+                }
+            });
+            final int[] categoryIds = new int[placements.size()];
+            final int[] levels = new int[placements.size()];
+            int count = 0;
+            for (final int[] placement : placements) {
+                if (count > 0 && categoryIds[count - 1] == placement[0] && levels[count - 1] == placement[1]) {
+                    continue;
+                }
+                categoryIds[count] = placement[0];
+                levels[count] = placement[1];
+                count++;
+                post(categoryPostings, placement[0], resource, size);
+                post(levelPostings, placement[1], resource, size);
+                post(placementPostings, placementKey(placement[0], placement[1]), resource, size);
+            }
+            placementCategoryIds[resource] = Arrays.copyOf(categoryIds, count);
+            placementLevels[resource] = Arrays.copyOf(levels, count);
+        }
+
+        private void indexTags(final int resource, final List<Integer> resourceTagIds, final int size) {
+            final int[] sorted = new int[resourceTagIds.size()];
+            for (int index = 0; index < sorted.length; index++) {
+                sorted[index] = resourceTagIds.get(index);
+            }
+            Arrays.sort(sorted);
+            int count = 0;
+            for (final int tagId : sorted) {
+                if (count > 0 && sorted[count - 1] == tagId) {
+                    continue;
+                }
+                sorted[count++] = tagId;
+                post(tagPostings, tagId, resource, size);
+            }
+            tagIds[resource] = Arrays.copyOf(sorted, count);
+        }
+
+        private ResourceFacets search(final ResourceFacetQuery query, final int afterResourceId, final int limit) {
+            final BitSet placement = placementFilter(query);
+            final BitSet resourceType = union(resourceTypePostings, query.resourceTypeIds());
+            final BitSet tag = union(tagPostings, query.tagIds());
+            final BitSet status = unionStatuses(query.statuses());
+            final BitSet matches = intersect(placement, resourceType, tag, status);
+            final BitSet matchesWithoutPlacement = intersect(resourceType, tag, status);
+
+            final int position = Arrays.binarySearch(resourceIds, afterResourceId);
+            int resource = matches.nextSetBit(position >= 0 ? position + 1 : -position - 1);
+            int last = -1;
+            final List<Integer> page = new ArrayList<>();
+            while (resource >= 0 && page.size() < limit) {
+                page.add(resourceIds[resource]);
+                last = resource;
+                resource = matches.nextSetBit(resource + 1);
+            }
+            final Integer nextAfter = resource >= 0 && last >= 0 ? resourceIds[last] : null;
+
+            return new ResourceFacets(
+                    matches.cardinality(),
+                    Collections.unmodifiableList(page),
+                    nextAfter,
+                    countCategories(matchesWithoutPlacement, query),
+                    countDifficultyLevels(matchesWithoutPlacement, query),
+                    countResourceTypes(intersect(placement, tag, status)),
+                    countTags(intersect(placement, resourceType, status)),
+                    countStatuses(intersect(placement, resourceType, tag)));
+        }
+
+        private int count(final ResourceFacetQuery query) {
+            return matches(query).cardinality();
+        }
+
+        private List<Integer> resourceIds(final ResourceFacetQuery query) {
+            final BitSet matches = matches(query);
+            final List<Integer> ids = new ArrayList<>(matches.cardinality());
+            for (int resource = matches.nextSetBit(0); resource >= 0; resource = matches.nextSetBit(resource + 1)) {
+                ids.add(resourceIds[resource]);
+            }
+            return Collections.unmodifiableList(ids);
+        }
+
+        private BitSet matches(final ResourceFacetQuery query) {
+            return intersect(placementFilter(query), union(resourceTypePostings, query.resourceTypeIds()),
+                    union(tagPostings, query.tagIds()), unionStatuses(query.statuses()));
+        }
+
+        /**
+         * @return the resources with one of the selected difficulty levels in
+         *         one of the selected categories, or null when neither is
+         *         filtered.
+         */
+        private BitSet placementFilter(final ResourceFacetQuery query) {
+            final int[] categoryIds = query.categoryIds();
+            final int[] levels = query.difficultyLevels();
+            if (levels.length == 0) {
+                return union(categoryPostings, categoryIds);
+            }
+            if (categoryIds.length == 0) {
+                return union(levelPostings, levels);
+            }
+            final BitSet result = new BitSet(resourceIds.length);
+            for (final int categoryId : categoryIds) {
+                for (final int level : levels) {
+                    final BitSet posting = placementPostings.get(placementKey(categoryId, level));
+                    if (posting != null) {
+                        result.or(posting);
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Counts the categories of the resources, only through the selected
+         * difficulty levels when they are filtered.
+         */
+        private Map<Integer, Integer> countCategories(final BitSet candidates, final ResourceFacetQuery query) {
+            final boolean filterLevels = query.difficultyLevels().length > 0;
+            final Map<Integer, int[]> counts = new HashMap<>();
+            for (int resource = candidates.nextSetBit(0); resource >= 0; resource = candidates
+                    .nextSetBit(resource + 1)) {
+                final int[] categoryIds = placementCategoryIds[resource];
+                final int[] levels = placementLevels[resource];
+                for (int index = 0; index < categoryIds.length; index++) {
+                    if (filterLevels && !query.hasDifficultyLevel(levels[index])) {
+                        continue;
+                    }
+                    increment(counts, categoryIds[index]);
+                    // Pairs are sorted by category, so skip the other levels
+                    // of the same category.
+                    while (index + 1 < categoryIds.length && categoryIds[index + 1] == categoryIds[index]) {
+                        index++;
+                    }
+                }
+            }
+            return toSortedCounts(counts);
+        }
+
+        /**
+         * Counts the difficulty levels of the resources, only in the selected
+         * categories when they are filtered. A level a resource has in several
+         * categories is counted once.
+         */
+        private Map<Integer, Integer> countDifficultyLevels(final BitSet candidates, final ResourceFacetQuery query) {
+            final boolean filterCategories = query.categoryIds().length > 0;
+            final Map<Integer, int[]> counts = new HashMap<>();
+            for (int resource = candidates.nextSetBit(0); resource >= 0; resource = candidates
+                    .nextSetBit(resource + 1)) {
+                final int[] categoryIds = placementCategoryIds[resource];
+                final int[] levels = placementLevels[resource];
+                for (int index = 0; index < levels.length; index++) {
+                    if (filterCategories && !query.hasCategoryId(categoryIds[index])) {
+                        continue;
+                    }
+                    if (!countedBefore(categoryIds, levels, index, query, filterCategories)) {
+                        increment(counts, levels[index]);
+                    }
+                }
+            }
+            return toSortedCounts(counts);
+        }
+
+        private static boolean countedBefore(final int[] categoryIds, final int[] levels, final int index,
+                final ResourceFacetQuery query, final boolean filterCategories) {
+            for (int previous = 0; previous < index; previous++) {
+                if (levels[previous] == levels[index]
+                        && (!filterCategories || query.hasCategoryId(categoryIds[previous]))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Map<Integer, Integer> countResourceTypes(final BitSet candidates) {
+            final Map<Integer, int[]> counts = new HashMap<>();
+            for (int resource = candidates.nextSetBit(0); resource >= 0; resource = candidates
+                    .nextSetBit(resource + 1)) {
+                increment(counts, resourceTypeIds[resource]);
+            }
+            return toSortedCounts(counts);
+        }
+
+        private Map<Integer, Integer> countTags(final BitSet candidates) {
+            final Map<Integer, int[]> counts = new HashMap<>();
+            for (int resource = candidates.nextSetBit(0); resource >= 0; resource = candidates
+                    .nextSetBit(resource + 1)) {
+                for (final int tagId : tagIds[resource]) {
+                    increment(counts, tagId);
+                }
+            }
+            return toSortedCounts(counts);
+        }
+
+        private Map<String, Integer> countStatuses(final BitSet candidates) {
+            final Map<String, int[]> counts = new HashMap<>();
+            for (int resource = candidates.nextSetBit(0); resource >= 0; resource = candidates
+                    .nextSetBit(resource + 1)) {
+                increment(counts, statuses[resource]);
+            }
+            return toSortedCounts(counts);
+        }
+
+        /**
+         * @return the union of the posting lists of the values, or null when
+         *         there are no values, so the dimension is not filtered.
+         */
+        private BitSet union(final Map<Integer, BitSet> postings, final int[] values) {
+            if (values.length == 0) {
+                return null;
+            }
+            final BitSet result = new BitSet(resourceIds.length);
+            for (final int value : values) {
+                final BitSet posting = postings.get(value);
+                if (posting != null) {
+                    result.or(posting);
+                }
+            }
+            return result;
+        }
+
+        private BitSet unionStatuses(final String[] values) {
+            if (values.length == 0) {
+                return null;
+            }
+            final BitSet result = new BitSet(resourceIds.length);
+            for (final String value : values) {
+                final BitSet posting = statusPostings.get(value);
+                if (posting != null) {
+                    result.or(posting);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return the intersection of the filters that are not null, or every
+         *         resource when they all are. The result must not be changed.
+         */
+        private BitSet intersect(final BitSet... filters) {
+            BitSet result = null;
+            for (final BitSet filter : filters) {
+                if (filter == null) {
+                    continue;
+                }
+                if (result == null) {
+                    result = (BitSet) filter.clone();
+                } else {
+                    result.and(filter);
+                }
+            }
+            return result == null ? allResources : result;
+        }
+
+        private int postingListCount() {
+            return categoryPostings.size() + levelPostings.size() + placementPostings.size()
+                    + resourceTypePostings.size() + tagPostings.size() + statusPostings.size();
+        }
+
+        private long postingListBytes() {
+            long bytes = 0;
+            for (final Map<?, BitSet> postings : Arrays.<Map<?, BitSet>> asList(categoryPostings, levelPostings,
+                    placementPostings, resourceTypePostings, tagPostings, statusPostings)) {
+                for (final BitSet posting : postings.values()) {
+                    bytes += posting.size() / Byte.SIZE;
+                }
+            }
+            return bytes;
+        }
+
+        private static <K> void post(final Map<K, BitSet> postings, final K value, final int resource,
+                final int size) {
+            BitSet posting = postings.get(value);
+            if (posting == null) {
+                posting = new BitSet(size);
+                postings.put(value, posting);
+            }
+            posting.set(resource);
+        }
+
+        private static long placementKey(final int categoryId, final int difficultyLevel) {
+            return ((long) categoryId << Integer.SIZE) | (difficultyLevel & 0xFFFFFFFFL);
+        }
+
+        private static <K> void increment(final Map<K, int[]> counts, final K value) {
+            final int[] count = counts.get(value);
+            if (count == null) {
+                counts.put(value, new int[] { 1 });
+            } else {
+                count[0]++;
+            }
+        }
+
+        private static <K extends Comparable<K>> Map<K, Integer> toSortedCounts(final Map<K, int[]> counts) {
+            final Map<K, Integer> sorted = new TreeMap<>();
+            for (final Map.Entry<K, int[]> entry : counts.entrySet()) {
+                sorted.put(entry.getKey(), entry.getValue()[0]);
+            }
+            return Collections.unmodifiableMap(sorted);
+        }
+    }
+}
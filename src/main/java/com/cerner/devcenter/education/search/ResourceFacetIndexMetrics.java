@@ -0,0 +1,128 @@
+package com.cerner.devcenter.education.search;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of a {@link ResourceFacetIndex}'s gauges and
+ * counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class ResourceFacetIndexMetrics {
+
+    private final boolean enabled;
+    private final boolean ready;
+    private final long rebuildPeriodMillis;
+    private final int resourceCount;
+    private final int postingListCount;
+    private final long postingListBytes;
+    private final long lastRebuildTimeMillis;
+    private final long rebuildCount;
+    private final long rebuildFailureCount;
+    private final long queryCount;
+    private final LatencyHistogram.Snapshot rebuildLatency;
+    private final LatencyHistogram.Snapshot queryLatency;
+
+    /**
+     * @param enabled
+     *            whether the index is configured to be built
+     * @param ready
+     *            whether the index has been built at least once
+     * @param rebuildPeriodMillis
+     *            configured delay between two rebuilds
+     * @param resourceCount
+     *            number of indexed resources
+     * @param postingListCount
+     *            number of posting lists, one per facet value and one per
+     *            category and difficulty level pair
+     * @param postingListBytes
+     *            approximate memory held by the posting lists, in bytes
+     * @param lastRebuildTimeMillis
+     *            time of the last successful rebuild, in milliseconds since
+     *            the epoch, or 0 when the index has not been built
+     * @param rebuildCount
+     *            total number of successful rebuilds
+     * @param rebuildFailureCount
+     *            total number of rebuilds that failed
+     * @param queryCount
+     *            total number of queries answered
+     * @param rebuildLatency
+     *            snapshot of the rebuild-latency histogram, one observation
+     *            per rebuild
+     * @param queryLatency
+     *            snapshot of the query-latency histogram, one observation per
+     *            query
+     */
+    public ResourceFacetIndexMetrics(
+            final boolean enabled,
+            final boolean ready,
+            final long rebuildPeriodMillis,
+            final int resourceCount,
+            final int postingListCount,
+            final long postingListBytes,
+            final long lastRebuildTimeMillis,
+            final long rebuildCount,
+            final long rebuildFailureCount,
+            final long queryCount,
+            final LatencyHistogram.Snapshot rebuildLatency,
+            final LatencyHistogram.Snapshot queryLatency) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.rebuildPeriodMillis = rebuildPeriodMillis;
+        this.resourceCount = resourceCount;
+        this.postingListCount = postingListCount;
+        this.postingListBytes = postingListBytes;
+        this.lastRebuildTimeMillis = lastRebuildTimeMillis;
+        this.rebuildCount = rebuildCount;
+        this.rebuildFailureCount = rebuildFailureCount;
+        this.queryCount = queryCount;
+        this.rebuildLatency = rebuildLatency;
+        this.queryLatency = queryLatency;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getRebuildPeriodMillis() {
+        return rebuildPeriodMillis;
+    }
+
+    public int getResourceCount() {
+        return resourceCount;
+    }
+
+    public int getPostingListCount() {
+        return postingListCount;
+    }
+
+    public long getPostingListBytes() {
+        return postingListBytes;
+    }
+
+    public long getLastRebuildTimeMillis() {
+        return lastRebuildTimeMillis;
+    }
+
+    public long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    public long getRebuildFailureCount() {
+        return rebuildFailureCount;
+    }
+
+    public long getQueryCount() {
+        return queryCount;
+    }
+
+    public LatencyHistogram.Snapshot getRebuildLatency() {
+        return rebuildLatency;
+    }
+
+    public LatencyHistogram.Snapshot getQueryLatency() {
+        return queryLatency;
+    }
+}
@@ -0,0 +1,182 @@
+package com.cerner.devcenter.education.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.cerner.devcenter.education.models.ResourceStatus;
+import com.google.common.primitives.Ints;
+
+/**
+ * Immutable combination of filters over the facets of the resources, answered
+ * by a {@link ResourceFacetIndex}. A resource matches a dimension when it has
+ * any of the values selected for it, and matches the query when it matches
+ * every dimension. A dimension with no values selected does not filter.
+ * <p>
+ * A resource has a difficulty level per category, so the categories and
+ * difficulty levels are matched together: a resource matches both when it has
+ * one of the difficulty levels in one of the categories.
+ */
+public class ResourceFacetQuery {
+
+    /**
+     * The query matching every resource.
+     */
+    public static final ResourceFacetQuery ALL = new ResourceFacetQuery(null, null, null, null, null);
+
+    private static final String NULL_VALUE_ERROR_MESSAGE = "%s cannot contain null";
+
+    private final int[] categoryIds;
+    private final int[] difficultyLevels;
+    private final int[] resourceTypeIds;
+    private final int[] tagIds;
+    private final String[] statuses;
+
+    /**
+     * @param categoryIds
+     *            the ids of the categories to match, or null or empty not to
+     *            filter by category.
+     * @param difficultyLevels
+     *            the difficulty levels to match, or null or empty not to
+     *            filter by difficulty level.
+     * @param resourceTypeIds
+     *            the ids of the resource types to match, or null or empty not
+     *            to filter by type.
+     * @param tagIds
+     *            the ids of the tags to match, or null or empty not to filter
+     *            by tag.
+     * @param statuses
+     *            the {@link ResourceStatus statuses} to match, or null or empty
+     *            not to filter by status.
+     * @throws IllegalArgumentException
+     *             when one of the collections contains null.
+     */
+    public ResourceFacetQuery(
+            final Collection<Integer> categoryIds,
+            final Collection<Integer> difficultyLevels,
+            final Collection<Integer> resourceTypeIds,
+            final Collection<Integer> tagIds,
+            final Collection<ResourceStatus> statuses) {
+        this.categoryIds = toSortedArray(categoryIds, "Category ids");
+        this.difficultyLevels = toSortedArray(difficultyLevels, "Difficulty levels");
+        this.resourceTypeIds = toSortedArray(resourceTypeIds, "Resource type ids");
+        this.tagIds = toSortedArray(tagIds, "Tag ids");
+        final SortedSet<String> statusNames = new TreeSet<>();
+        for (final ResourceStatus status : statuses == null ? Collections.<ResourceStatus> emptyList() : statuses) {
+            checkArgument(status != null, NULL_VALUE_ERROR_MESSAGE, "Statuses");
+            statusNames.add(status.toString());
+        }
+        this.statuses = statusNames.toArray(new String[statusNames.size()]);
+    }
+
+    /**
+     * @return the ids of the categories to match, sorted, empty when the
+     *         categories are not filtered.
+     */
+    public int[] getCategoryIds() {
+        return categoryIds.clone();
+    }
+
+    /**
+     * @return the difficulty levels to match, sorted, empty when the
+     *         difficulty levels are not filtered.
+     */
+    public int[] getDifficultyLevels() {
+        return difficultyLevels.clone();
+    }
+
+    /**
+     * @return the ids of the resource types to match, sorted, empty when the
+     *         types are not filtered.
+     */
+    public int[] getResourceTypeIds() {
+        return resourceTypeIds.clone();
+    }
+
+    /**
+     * @return the ids of the tags to match, sorted, empty when the tags are
+     *         not filtered.
+     */
+    public int[] getTagIds() {
+        return tagIds.clone();
+    }
+
+    /**
+     * @return the names of the statuses to match, sorted, empty when the
+     *         statuses are not filtered.
+     */
+    public String[] getStatuses() {
+        return statuses.clone();
+    }
+
+    boolean hasCategoryId(final int categoryId) {
+        return Arrays.binarySearch(categoryIds, categoryId) >= 0;
+    }
+
+    boolean hasDifficultyLevel(final int difficultyLevel) {
+        return Arrays.binarySearch(difficultyLevels, difficultyLevel) >= 0;
+    }
+
+    int[] categoryIds() {
+        return categoryIds;
+    }
+
+    int[] difficultyLevels() {
+        return difficultyLevels;
+    }
+
+    int[] resourceTypeIds() {
+        return resourceTypeIds;
+    }
+
+    int[] tagIds() {
+        return tagIds;
+    }
+
+    String[] statuses() {
+        return statuses;
+    }
+
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof ResourceFacetQuery)) {
+            return false;
+        }
+        final ResourceFacetQuery other = (ResourceFacetQuery) object;
+        return Arrays.equals(categoryIds, other.categoryIds) && Arrays.equals(difficultyLevels, other.difficultyLevels)
+                && Arrays.equals(resourceTypeIds, other.resourceTypeIds) && Arrays.equals(tagIds, other.tagIds)
+                && Arrays.equals(statuses, other.statuses);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(new int[] { Arrays.hashCode(categoryIds), Arrays.hashCode(difficultyLevels),
+                Arrays.hashCode(resourceTypeIds), Arrays.hashCode(tagIds), Arrays.hashCode(statuses) });
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceFacetQuery [categoryIds=" + Arrays.toString(categoryIds) + ", difficultyLevels="
+                + Arrays.toString(difficultyLevels) + ", resourceTypeIds=" + Arrays.toString(resourceTypeIds)
+                + ", tagIds=" + Arrays.toString(tagIds) + ", statuses=" + Arrays.toString(statuses) + "]";
+    }
+
+    private static int[] toSortedArray(final Collection<Integer> values, final String name) {
+        if (values == null) {
+            return new int[0];
+        }
+        final SortedSet<Integer> sorted = new TreeSet<>();
+        for (final Integer value : values) {
+            checkArgument(value != null, NULL_VALUE_ERROR_MESSAGE, name);
+            sorted.add(value);
+        }
+        return Ints.toArray(sorted);
+    }
+}
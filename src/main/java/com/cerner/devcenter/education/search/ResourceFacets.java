@@ -0,0 +1,98 @@
+package com.cerner.devcenter.education.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable answer of a {@link ResourceFacetIndex} to a
+ * {@link ResourceFacetQuery}: the number of matching resources, a page of their
+ * ids, and the facet counts of every dimension. Exposes plain getters so it
+ * can be returned directly as JSON.
+ * <p>
+ * The count of a facet value is the number of resources that match the filters
+ * of the other dimensions and have that value, ignoring the filter of its own
+ * dimension, so it is the number of resources the query would match if that
+ * value were selected instead. Values with no matching resource are left out.
+ */
+public class ResourceFacets {
+
+    private final int total;
+    private final List<Integer> resourceIds;
+    private final Integer nextAfter;
+    private final Map<Integer, Integer> categoryCounts;
+    private final Map<Integer, Integer> difficultyLevelCounts;
+    private final Map<Integer, Integer> resourceTypeCounts;
+    private final Map<Integer, Integer> tagCounts;
+    private final Map<String, Integer> statusCounts;
+
+    /**
+     * @param total
+     *            the number of resources matching the query
+     * @param resourceIds
+     *            the ids of the matching resources on the requested page, in
+     *            ascending order
+     * @param nextAfter
+     *            the resource id to read the next page after, or
+     *            <code>null</code> when this is the last page
+     * @param categoryCounts
+     *            the number of resources per category id
+     * @param difficultyLevelCounts
+     *            the number of resources per difficulty level
+     * @param resourceTypeCounts
+     *            the number of resources per resource type id
+     * @param tagCounts
+     *            the number of resources per tag id
+     * @param statusCounts
+     *            the number of resources per status name
+     */
+    public ResourceFacets(
+            final int total,
+            final List<Integer> resourceIds,
+            final Integer nextAfter,
+            final Map<Integer, Integer> categoryCounts,
+            final Map<Integer, Integer> difficultyLevelCounts,
+            final Map<Integer, Integer> resourceTypeCounts,
+            final Map<Integer, Integer> tagCounts,
+            final Map<String, Integer> statusCounts) {
+        this.total = total;
+        this.resourceIds = resourceIds;
+        this.nextAfter = nextAfter;
+        this.categoryCounts = categoryCounts;
+        this.difficultyLevelCounts = difficultyLevelCounts;
+        this.resourceTypeCounts = resourceTypeCounts;
+        this.tagCounts = tagCounts;
+        this.statusCounts = statusCounts;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<Integer> getResourceIds() {
+        return resourceIds;
+    }
+
+    public Integer getNextAfter() {
+        return nextAfter;
+    }
+
+    public Map<Integer, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public Map<Integer, Integer> getDifficultyLevelCounts() {
+        return difficultyLevelCounts;
+    }
+
+    public Map<Integer, Integer> getResourceTypeCounts() {
+        return resourceTypeCounts;
+    }
+
+    public Map<Integer, Integer> getTagCounts() {
+        return tagCounts;
+    }
+
+    public Map<String, Integer> getStatusCounts() {
+        return statusCounts;
+    }
+}
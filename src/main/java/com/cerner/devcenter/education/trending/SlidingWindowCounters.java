@@ -0,0 +1,189 @@
+package com.cerner.devcenter.education.trending;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.cerner.devcenter.education.utils.StripedCounter;
+
+/**
+ * Counts events per id over a sliding window of time buckets. Every id has a
+ * ring buffer with one slot per bucket of the window; a slot holds the
+ * {@link StripedCounter} of the bucket it was last used for, and is taken
+ * over by the next bucket that maps to it once its own bucket has slid out of
+ * the window. The count of an id is the sum of the slots whose bucket is still
+ * in the window, so old events expire without any sweep.
+ * <p>
+ * {@link #add(int, long, long)} takes no lock: it finds the ring of the id,
+ * installs a fresh counter in the slot with a compare-and-set when the slot
+ * still holds an older bucket, and adds to the counter. Concurrent adds to
+ * the same id and bucket go to the stripes of the same counter.
+ * <p>
+ * Rings are kept for every id that was ever counted, so memory grows with the
+ * number of ids, not with the number of events.
+ */
+class SlidingWindowCounters {
+
+    private static final String INVALID_WINDOW_BUCKETS_ERROR_MESSAGE = "Window buckets must be greater than 0";
+    private static final String INVALID_BUCKET_ERROR_MESSAGE = "Bucket cannot be negative";
+    private static final String INVALID_LIMIT_ERROR_MESSAGE = "Limit must be greater than 0";
+    private static final String COUNTERS_NULL_ERROR_MESSAGE = "Counters cannot be null";
+
+    private static final Comparator<TrendingCount> TRENDING_ORDER = new Comparator<TrendingCount>() {
+        @Override
+        public int compare(final TrendingCount first, final TrendingCount second) {
+            final int byCount = Long.compare(second.getCount(), first.getCount());
+            return byCount != 0 ? byCount : Integer.compare(first.getId(), second.getId());
+        }
+    };
+
+    private final int windowBuckets;
+    private final ConcurrentMap<Integer, AtomicReferenceArray<Bucket>> rings = new ConcurrentHashMap<>();
+
+    /**
+     * @param windowBuckets
+     *            the number of buckets in the window, the current one
+     *            included. Must be greater than 0.
+     */
+    SlidingWindowCounters(final int windowBuckets) {
+        checkArgument(windowBuckets > 0, INVALID_WINDOW_BUCKETS_ERROR_MESSAGE);
+        this.windowBuckets = windowBuckets;
+    }
+
+    /**
+     * Adds events of an id to a bucket. Events of a bucket whose slot has
+     * already been taken over by a later bucket are dropped, as they have slid
+     * out of the window.
+     *
+     * @param id
+     *            the id the events are counted for.
+     * @param bucket
+     *            the time bucket of the events. Cannot be negative.
+     * @param count
+     *            the number of events.
+     * @return false when the events were dropped.
+     */
+    boolean add(final int id, final long bucket, final long count) {
+        checkArgument(bucket >= 0, INVALID_BUCKET_ERROR_MESSAGE);
+        AtomicReferenceArray<Bucket> ring = rings.get(id);
+        if (ring == null) {
+            final AtomicReferenceArray<Bucket> created = new AtomicReferenceArray<>(windowBuckets);
+            ring = rings.putIfAbsent(id, created);
+            if (ring == null) {
+                ring = created;
+            }
+        }
+        final int slot = (int) (bucket % windowBuckets);
+        while (true) {
+            final Bucket current = ring.get(slot);
+            if (current != null && current.bucket == bucket) {
+                current.counter.add(count);
+                return true;
+            }
+            if (current != null && current.bucket > bucket) {
+                return false;
+            }
+            final Bucket next = new Bucket(bucket);
+            if (ring.compareAndSet(slot, current, next)) {
+                next.counter.add(count);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds every event counted by other counters to these ones, bucket by
+     * bucket.
+     *
+     * @param other
+     *            the counters to add. Cannot be null.
+     */
+    void addAll(final SlidingWindowCounters other) {
+        checkArgument(other != null, COUNTERS_NULL_ERROR_MESSAGE);
+        for (final Map.Entry<Integer, AtomicReferenceArray<Bucket>> entry : other.rings.entrySet()) {
+            final AtomicReferenceArray<Bucket> ring = entry.getValue();
+            for (int slot = 0; slot < ring.length(); slot++) {
+                final Bucket bucket = ring.get(slot);
+                if (bucket != null) {
+                    add(entry.getKey(), bucket.bucket, bucket.counter.sum());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param id
+     *            the id to count.
+     * @param currentBucket
+     *            the newest bucket of the window.
+     * @return the number of events of the id in the window ending with
+     *         currentBucket.
+     */
+    long count(final int id, final long currentBucket) {
+        final AtomicReferenceArray<Bucket> ring = rings.get(id);
+        return ring == null ? 0 : count(ring, currentBucket);
+    }
+
+    /**
+     * @return the number of ids that have been counted.
+     */
+    int size() {
+        return rings.size();
+    }
+
+    /**
+     * Ranks the ids by their number of events in the window.
+     *
+     * @param currentBucket
+     *            the newest bucket of the window.
+     * @param limit
+     *            the maximum number of ids to return. Must be greater than 0.
+     * @return at most limit ids with events in the window, the most events
+     *         first, then by id.
+     */
+    List<TrendingCount> top(final long currentBucket, final int limit) {
+        checkArgument(limit > 0, INVALID_LIMIT_ERROR_MESSAGE);
+        final PriorityQueue<TrendingCount> top = new PriorityQueue<>(limit + 1,
+                Collections.reverseOrder(TRENDING_ORDER));
+        for (final Map.Entry<Integer, AtomicReferenceArray<Bucket>> entry : rings.entrySet()) {
+            final long count = count(entry.getValue(), currentBucket);
+            if (count > 0) {
+                top.add(new TrendingCount(entry.getKey(), count));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        final List<TrendingCount> ranked = new ArrayList<>(top);
+        Collections.sort(ranked, TRENDING_ORDER);
+        return ranked;
+    }
+
+    private long count(final AtomicReferenceArray<Bucket> ring, final long currentBucket) {
+        long count = 0;
+        for (int slot = 0; slot < windowBuckets; slot++) {
+            final Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.bucket <= currentBucket && bucket.bucket > currentBucket - windowBuckets) {
+                count += bucket.counter.sum();
+            }
+        }
+        return count;
+    }
+
+    private static final class Bucket {
+        private final long bucket;
+        private final StripedCounter counter = new StripedCounter();
+
+        private Bucket(final long bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.cerner.devcenter.education.trending;
+
+/**
+ * The number of completions of a resource, or of the resources of a
+ * category, in the trending window of the {@link TrendingTracker}.
+ */
+public class TrendingCount {
+
+    private final int id;
+    private final long count;
+
+    /**
+     * @param id
+     *            the id of the resource or category.
+     * @param count
+     *            the number of completions in the window.
+     */
+    public TrendingCount(final int id, final long count) {
+        this.id = id;
+        this.count = count;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
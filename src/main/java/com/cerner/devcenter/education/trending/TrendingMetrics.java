@@ -0,0 +1,192 @@
+package com.cerner.devcenter.education.trending;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of a {@link TrendingTracker}'s gauges and
+ * counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class TrendingMetrics {
+
+    private final boolean enabled;
+    private final boolean ready;
+    private final int bucketSeconds;
+    private final int windowBuckets;
+    private final long rankPeriodMillis;
+    private final int resourceCount;
+    private final int categoryCount;
+    private final long seededCompletionCount;
+    private final long lastSeedTimeMillis;
+    private final long lastRankTimeMillis;
+    private final long completionCount;
+    private final long droppedCompletionCount;
+    private final long seedCount;
+    private final long seedFailureCount;
+    private final long rankCount;
+    private final long categoryLoadFailureCount;
+    private final long requestCount;
+    private final LatencyHistogram.Snapshot seedLatency;
+    private final LatencyHistogram.Snapshot rankLatency;
+
+    /**
+     * @param enabled
+     *            whether the tracker is configured to count completions
+     * @param ready
+     *            whether the counters have been seeded and ranked
+     * @param bucketSeconds
+     *            configured length of a time bucket in seconds
+     * @param windowBuckets
+     *            configured number of buckets in the window
+     * @param rankPeriodMillis
+     *            configured delay between two rankings
+     * @param resourceCount
+     *            number of resources with a counter
+     * @param categoryCount
+     *            number of categories with a counter
+     * @param seededCompletionCount
+     *            number of completions read from the database by the seeding
+     * @param lastSeedTimeMillis
+     *            time the counters were seeded, in milliseconds since the
+     *            epoch, or 0 when they have not been seeded
+     * @param lastRankTimeMillis
+     *            time of the last ranking, in milliseconds since the epoch,
+     *            or 0 when nothing has been ranked
+     * @param completionCount
+     *            total number of completions counted since startup
+     * @param droppedCompletionCount
+     *            total number of completions too old for the window
+     * @param seedCount
+     *            total number of successful seedings
+     * @param seedFailureCount
+     *            total number of seedings that failed
+     * @param rankCount
+     *            total number of rankings
+     * @param categoryLoadFailureCount
+     *            total number of failed reads of the categories of the
+     *            resources
+     * @param requestCount
+     *            total number of trending resource and category lookups
+     * @param seedLatency
+     *            snapshot of the seed-latency histogram, one observation per
+     *            seeding
+     * @param rankLatency
+     *            snapshot of the rank-latency histogram, one observation per
+     *            ranking
+     */
+    public TrendingMetrics(
+            final boolean enabled,
+            final boolean ready,
+            final int bucketSeconds,
+            final int windowBuckets,
+            final long rankPeriodMillis,
+            final int resourceCount,
+            final int categoryCount,
+            final long seededCompletionCount,
+            final long lastSeedTimeMillis,
+            final long lastRankTimeMillis,
+            final long completionCount,
+            final long droppedCompletionCount,
+            final long seedCount,
+            final long seedFailureCount,
+            final long rankCount,
+            final long categoryLoadFailureCount,
+            final long requestCount,
+            final LatencyHistogram.Snapshot seedLatency,
+            final LatencyHistogram.Snapshot rankLatency) {
+        this.enabled = enabled;
+        this.ready = ready;
+        this.bucketSeconds = bucketSeconds;
+        this.windowBuckets = windowBuckets;
+        this.rankPeriodMillis = rankPeriodMillis;
+        this.resourceCount = resourceCount;
+        this.categoryCount = categoryCount;
+        this.seededCompletionCount = seededCompletionCount;
+        this.lastSeedTimeMillis = lastSeedTimeMillis;
+        this.lastRankTimeMillis = lastRankTimeMillis;
+        this.completionCount = completionCount;
+        this.droppedCompletionCount = droppedCompletionCount;
+        this.seedCount = seedCount;
+        this.seedFailureCount = seedFailureCount;
+        this.rankCount = rankCount;
+        this.categoryLoadFailureCount = categoryLoadFailureCount;
+        this.requestCount = requestCount;
+        this.seedLatency = seedLatency;
+        this.rankLatency = rankLatency;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public int getWindowBuckets() {
+        return windowBuckets;
+    }
+
+    public long getRankPeriodMillis() {
+        return rankPeriodMillis;
+    }
+
+    public int getResourceCount() {
+        return resourceCount;
+    }
+
+    public int getCategoryCount() {
+        return categoryCount;
+    }
+
+    public long getSeededCompletionCount() {
+        return seededCompletionCount;
+    }
+
+    public long getLastSeedTimeMillis() {
+        return lastSeedTimeMillis;
+    }
+
+    public long getLastRankTimeMillis() {
+        return lastRankTimeMillis;
+    }
+
+    public long getCompletionCount() {
+        return completionCount;
+    }
+
+    public long getDroppedCompletionCount() {
+        return droppedCompletionCount;
+    }
+
+    public long getSeedCount() {
+        return seedCount;
+    }
+
+    public long getSeedFailureCount() {
+        return seedFailureCount;
+    }
+
+    public long getRankCount() {
+        return rankCount;
+    }
+
+    public long getCategoryLoadFailureCount() {
+        return categoryLoadFailureCount;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public LatencyHistogram.Snapshot getSeedLatency() {
+        return seedLatency;
+    }
+
+    public LatencyHistogram.Snapshot getRankLatency() {
+        return rankLatency;
+    }
+}
@@ -0,0 +1,521 @@
+package com.cerner.devcenter.education.trending;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.TrendingDAO;
+import com.cerner.devcenter.education.dao.TrendingDAO.CompletionCountHandler;
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.cerner.devcenter.education.utils.StripedCounter;
+
+/**
+ * Tracks the resources and categories completed the most over a sliding
+ * window, by default the last week in hourly buckets, for the trending widget
+ * of the home page.
+ * <p>
+ * Completions are counted in memory by {@link SlidingWindowCounters}, one per
+ * resource and one per category, as {@link #resourceCompleted(int, long)}
+ * reports them. Recording a completion takes no lock and reads nothing from
+ * the database once the categories of the resource are known, so it can be
+ * called on the request thread. The categories of every resource are read at
+ * startup and then every category refresh period; the categories of a
+ * resource missing from them are read in the background the first time it is
+ * completed.
+ * <p>
+ * So a restart does not reset the trending resources, the counters are seeded
+ * in the background from the completions the completed_user_resource table
+ * holds for the window, up to the second the tracker was initialized. Seeding
+ * is retried every rank period until it succeeds, and adds nothing until both
+ * the resource and the category counts have been read. Completions recorded
+ * while seeding are counted right away, so none are lost or counted twice.
+ * <p>
+ * Every rank period, the most completed resources and categories are ranked
+ * into an immutable snapshot, so reads take no lock and do not walk the
+ * counters. Counts and latencies are exposed through {@link #getMetrics()}.
+ * {@link #init()} and {@link #close()} are meant to be used as the Spring
+ * init-method and destroy-method of the bean.
+ */
+public class TrendingTracker implements MetricsProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TrendingTracker.class);
+
+    private static final String TRENDING_DAO_NULL_ERROR_MESSAGE = "Trending DAO cannot be null";
+    private static final String INVALID_RESOURCE_ID_ERROR_MESSAGE = "Resource Id cannot be negative";
+    private static final String INVALID_COMPLETION_DATE_ERROR_MESSAGE = "Completion date cannot be negative";
+    private static final String INVALID_LIMIT_ERROR_MESSAGE = "Limit must be greater than 0";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String TRACKER_ALREADY_INITIALIZED_ERROR_MESSAGE = "Trending tracker has already been initialized";
+    private static final String TRACKER_DISABLED_MESSAGE = "Trending tracker is disabled, no trending resources are shown";
+    private static final String SEEDED_MESSAGE = "Seeded the trending counters with {} completions since {}";
+    private static final String SEED_FAILED_MESSAGE = "Error seeding the trending counters, retrying in {} ms";
+    private static final String CATEGORIES_FAILED_MESSAGE = "Error reading the categories of the resources";
+    private static final String RESOURCE_CATEGORIES_FAILED_MESSAGE = "Error reading the categories of resource {}, its completion is not counted for them";
+    private static final String RESOURCE_CATEGORIES_REJECTED_MESSAGE = "Trending tracker is closed, skipping the categories of resource {}";
+    private static final String RANK_FAILED_MESSAGE = "Error ranking the trending resources";
+    private static final String TRACKER_THREAD_NAME = "trending-tracker";
+
+    private static final int DEFAULT_BUCKET_SECONDS = 3600;
+    private static final int DEFAULT_WINDOW_BUCKETS = 168;
+    private static final long DEFAULT_RANK_PERIOD_MILLIS = 60000;
+    private static final long DEFAULT_CATEGORY_REFRESH_PERIOD_MILLIS = 3600000;
+    private static final int DEFAULT_MAXIMUM_TRENDING = 20;
+    private static final int[] NO_CATEGORIES = new int[0];
+
+    private TrendingDAO trendingDAO;
+    private boolean enabled = true;
+    private int bucketSeconds = DEFAULT_BUCKET_SECONDS;
+    private int windowBuckets = DEFAULT_WINDOW_BUCKETS;
+    private long rankPeriodMillis = DEFAULT_RANK_PERIOD_MILLIS;
+    private long categoryRefreshPeriodMillis = DEFAULT_CATEGORY_REFRESH_PERIOD_MILLIS;
+    private int maximumTrending = DEFAULT_MAXIMUM_TRENDING;
+
+    private final StripedCounter completionCount = new StripedCounter();
+    private final StripedCounter droppedCompletionCount = new StripedCounter();
+    private final AtomicLong seedCount = new AtomicLong();
+    private final AtomicLong seedFailureCount = new AtomicLong();
+    private final AtomicLong rankCount = new AtomicLong();
+    private final AtomicLong categoryLoadFailureCount = new AtomicLong();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final LatencyHistogram seedLatency = new LatencyHistogram();
+    private final LatencyHistogram rankLatency = new LatencyHistogram();
+
+    private volatile SlidingWindowCounters resourceCounters;
+    private volatile SlidingWindowCounters categoryCounters;
+    private volatile ConcurrentHashMap<Integer, int[]> categoryIdsByResourceId;
+    private volatile Ranking ranking;
+    private volatile boolean seeded;
+    private volatile long seedBeforeSeconds;
+    private volatile long seededCompletionCount;
+    private volatile long lastSeedTimeMillis;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Validates the configuration and, when the tracker is enabled, starts
+     * counting completions and schedules the seeding, the ranking and the
+     * category refreshes in the background. Until the counters are seeded the
+     * tracker is not {@link #isReady() ready}.
+     *
+     * @throws IllegalArgumentException
+     *             when the DAO has not been set.
+     * @throws IllegalStateException
+     *             when the tracker has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(scheduler == null, TRACKER_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        checkArgument(trendingDAO != null, TRENDING_DAO_NULL_ERROR_MESSAGE);
+        if (!enabled) {
+            LOGGER.info(TRACKER_DISABLED_MESSAGE);
+            return;
+        }
+        start(System.currentTimeMillis() / 1000);
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, TRACKER_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    refreshCategories();
+                } catch (final DAOException | RuntimeException exception) {
+                    categoryLoadFailureCount.incrementAndGet();
+                    LOGGER.error(CATEGORIES_FAILED_MESSAGE, exception);
+                }
+            }
+        }, 0, categoryRefreshPeriodMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                if (!seeded) {
+                    try {
+                        seed();
+                    } catch (final DAOException | RuntimeException exception) {
+                        LOGGER.error(SEED_FAILED_MESSAGE, rankPeriodMillis, exception);
+                    }
+                }
+                try {
+                    rank(System.currentTimeMillis() / 1000);
+                } catch (final RuntimeException exception) {
+                    LOGGER.error(RANK_FAILED_MESSAGE, exception);
+                }
+            }
+        }, 0, rankPeriodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts counting completions, to be seeded with the ones recorded before
+     * a time.
+     *
+     * @param seedBeforeSeconds
+     *            the time, in seconds since the epoch, before which
+     *            completions are seeded from the database.
+     */
+    void start(final long seedBeforeSeconds) {
+        this.seedBeforeSeconds = seedBeforeSeconds;
+        categoryCounters = new SlidingWindowCounters(windowBuckets);
+        resourceCounters = new SlidingWindowCounters(windowBuckets);
+    }
+
+    /**
+     * Stops the scheduled seeding, ranking and category refreshes.
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads the categories of every resource, replacing the ones read before.
+     *
+     * @throws DAOException
+     *             when the categories cannot be read; the previous ones are
+     *             then kept.
+     */
+    void refreshCategories() throws DAOException {
+        categoryIdsByResourceId = new ConcurrentHashMap<>(trendingDAO.getCategoryIdsByResourceId());
+    }
+
+    /**
+     * Adds the completions of the window recorded before the tracker was
+     * initialized to the counters. The counts are read into counters of their
+     * own first, so a failure adds nothing and seeding can be retried.
+     *
+     * @throws DAOException
+     *             when the completions cannot be counted.
+     */
+    void seed() throws DAOException {
+        final long start = System.nanoTime();
+        try {
+            final long fromSeconds = Math.max(0,
+                    (seedBeforeSeconds / bucketSeconds - windowBuckets + 1) * bucketSeconds);
+            final SlidingWindowCounters seedResourceCounters = new SlidingWindowCounters(windowBuckets);
+            final SlidingWindowCounters seedCategoryCounters = new SlidingWindowCounters(windowBuckets);
+            final long[] completions = new long[1];
+            trendingDAO.countResourceCompletions(fromSeconds, seedBeforeSeconds, bucketSeconds,
+                    new CompletionCountHandler() {
+                        @Override
+                        public void count(final int id, final long bucket, final long count) {
+                            seedResourceCounters.add(id, bucket, count);
+                            completions[0] += count;
+                        }
+                    });
+            trendingDAO.countCategoryCompletions(fromSeconds, seedBeforeSeconds, bucketSeconds,
+                    new CompletionCountHandler() {
+                        @Override
+                        public void count(final int id, final long bucket, final long count) {
+                            seedCategoryCounters.add(id, bucket, count);
+                        }
+                    });
+            resourceCounters.addAll(seedResourceCounters);
+            categoryCounters.addAll(seedCategoryCounters);
+            seededCompletionCount = completions[0];
+            lastSeedTimeMillis = System.currentTimeMillis();
+            seeded = true;
+            seedCount.incrementAndGet();
+            LOGGER.info(SEEDED_MESSAGE, completions[0], fromSeconds);
+        } catch (final DAOException | RuntimeException exception) {
+            seedFailureCount.incrementAndGet();
+            throw exception;
+        } finally {
+            seedLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Ranks the most completed resources and categories of the window ending
+     * at a time, replacing the trending snapshot.
+     *
+     * @param nowSeconds
+     *            the end of the window, in seconds since the epoch.
+     */
+    void rank(final long nowSeconds) {
+        final long start = System.nanoTime();
+        try {
+            final long currentBucket = nowSeconds / bucketSeconds;
+            ranking = new Ranking(
+                    Collections.unmodifiableList(resourceCounters.top(currentBucket, maximumTrending)),
+                    Collections.unmodifiableList(categoryCounters.top(currentBucket, maximumTrending)),
+                    System.currentTimeMillis());
+            rankCount.incrementAndGet();
+        } finally {
+            rankLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return true once the counters have been seeded and ranked, so the
+     *         trending resources cover the whole window.
+     */
+    public boolean isReady() {
+        return seeded && ranking != null;
+    }
+
+    /**
+     * Counts a completion of a resource for the resource and its categories.
+     * Does nothing when the tracker is not initialized. A completion whose
+     * time bucket has already been taken over by a later one is dropped. When
+     * the categories of the resource are not known yet, the completion is
+     * counted for them in the background.
+     *
+     * @param resourceId
+     *            the id of the completed resource. Cannot be negative.
+     * @param completionDateSeconds
+     *            the completion date, in seconds since the epoch. Cannot be
+     *            negative.
+     * @throws IllegalArgumentException
+     *             when the resource id or the completion date is negative.
+     */
+    public void resourceCompleted(final int resourceId, final long completionDateSeconds) {
+        checkArgument(resourceId >= 0, INVALID_RESOURCE_ID_ERROR_MESSAGE);
+        checkArgument(completionDateSeconds >= 0, INVALID_COMPLETION_DATE_ERROR_MESSAGE);
+        final SlidingWindowCounters resources = resourceCounters;
+        if (resources == null) {
+            return;
+        }
+        final long bucket = completionDateSeconds / bucketSeconds;
+        if (!resources.add(resourceId, bucket, 1)) {
+            droppedCompletionCount.increment();
+            return;
+        }
+        completionCount.increment();
+        final Map<Integer, int[]> categories = categoryIdsByResourceId;
+        final int[] categoryIds = categories == null ? null : categories.get(resourceId);
+        if (categoryIds != null) {
+            addCategoryCompletions(categoryIds, bucket);
+            return;
+        }
+        final ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        countCategories(resourceId, bucket);
+                    } catch (final DAOException | RuntimeException exception) {
+                        categoryLoadFailureCount.incrementAndGet();
+                        LOGGER.error(RESOURCE_CATEGORIES_FAILED_MESSAGE, resourceId, exception);
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException rejectedExecutionException) {
+            LOGGER.warn(RESOURCE_CATEGORIES_REJECTED_MESSAGE, resourceId);
+        }
+    }
+
+    /**
+     * Counts a completion of a resource for its categories, reading them from
+     * the database and remembering them when they were not read with the
+     * categories of the other resources.
+     *
+     * @throws DAOException
+     *             when the categories of the resource cannot be read.
+     */
+    void countCategories(final int resourceId, final long bucket) throws DAOException {
+        ConcurrentHashMap<Integer, int[]> categories = categoryIdsByResourceId;
+        if (categories == null) {
+            categories = new ConcurrentHashMap<>();
+            categoryIdsByResourceId = categories;
+        }
+        int[] categoryIds = categories.get(resourceId);
+        if (categoryIds == null) {
+            categoryIds = trendingDAO.getCategoryIdsOfResource(resourceId);
+            if (categoryIds.length == 0) {
+                categoryIds = NO_CATEGORIES;
+            }
+            categories.put(resourceId, categoryIds);
+        }
+        addCategoryCompletions(categoryIds, bucket);
+    }
+
+    private void addCategoryCompletions(final int[] categoryIds, final long bucket) {
+        for (final int categoryId : categoryIds) {
+            categoryCounters.add(categoryId, bucket, 1);
+        }
+    }
+
+    /**
+     * @param limit
+     *            the maximum number of resources to return. Must be greater
+     *            than 0.
+     * @return at most limit resources, the most completed in the window
+     *         first, as of the last ranking. Empty until the tracker is
+     *         {@link #isReady() ready}.
+     * @throws IllegalArgumentException
+     *             when limit is not greater than 0.
+     */
+    public List<TrendingCount> getTrendingResources(final int limit) {
+        checkArgument(limit > 0, INVALID_LIMIT_ERROR_MESSAGE);
+        requestCount.incrementAndGet();
+        final Ranking current = ranking;
+        return seeded && current != null ? head(current.resources, limit) : Collections.<TrendingCount> emptyList();
+    }
+
+    /**
+     * @param limit
+     *            the maximum number of categories to return. Must be greater
+     *            than 0.
+     * @return at most limit categories, the ones whose resources were
+     *         completed the most in the window first, as of the last ranking.
+     *         Empty until the tracker is {@link #isReady() ready}.
+     * @throws IllegalArgumentException
+     *             when limit is not greater than 0.
+     */
+    public List<TrendingCount> getTrendingCategories(final int limit) {
+        checkArgument(limit > 0, INVALID_LIMIT_ERROR_MESSAGE);
+        requestCount.incrementAndGet();
+        final Ranking current = ranking;
+        return seeded && current != null ? head(current.categories, limit) : Collections.<TrendingCount> emptyList();
+    }
+
+    private static List<TrendingCount> head(final List<TrendingCount> ranked, final int limit) {
+        return ranked.size() <= limit ? ranked : ranked.subList(0, limit);
+    }
+
+    /**
+     * @return a point-in-time {@link TrendingMetrics} snapshot.
+     */
+    @Override
+    public TrendingMetrics getMetrics() {
+        final SlidingWindowCounters resources = resourceCounters;
+        final SlidingWindowCounters categories = categoryCounters;
+        final Ranking current = ranking;
+        return new TrendingMetrics(
+                enabled,
+                isReady(),
+                bucketSeconds,
+                windowBuckets,
+                rankPeriodMillis,
+                resources == null ? 0 : resources.size(),
+                categories == null ? 0 : categories.size(),
+                seededCompletionCount,
+                lastSeedTimeMillis,
+                current == null ? 0 : current.rankTimeMillis,
+                completionCount.sum(),
+                droppedCompletionCount.sum(),
+                seedCount.get(),
+                seedFailureCount.get(),
+                rankCount.get(),
+                categoryLoadFailureCount.get(),
+                requestCount.get(),
+                seedLatency.snapshot(),
+                rankLatency.snapshot());
+    }
+
+    /**
+     * @param trendingDAO
+     *            the {@link TrendingDAO} the completions and categories are
+     *            read from. Cannot be null.
+     */
+    public void setTrendingDAO(final TrendingDAO trendingDAO) {
+        checkArgument(trendingDAO != null, TRENDING_DAO_NULL_ERROR_MESSAGE);
+        this.trendingDAO = trendingDAO;
+    }
+
+    /**
+     * @param enabled
+     *            false to never count completions, so no trending resources
+     *            are shown.
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param bucketSeconds
+     *            the length of a time bucket in seconds, by which the window
+     *            slides. Must be greater than 0.
+     */
+    public void setBucketSeconds(final int bucketSeconds) {
+        checkArgument(bucketSeconds > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Bucket seconds");
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    /**
+     * @param windowBuckets
+     *            the number of buckets in the window, the current one
+     *            included. Every tracked resource and category keeps one
+     *            counter per bucket. Must be greater than 0.
+     */
+    public void setWindowBuckets(final int windowBuckets) {
+        checkArgument(windowBuckets > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Window buckets");
+        this.windowBuckets = windowBuckets;
+    }
+
+    /**
+     * @param rankPeriodMillis
+     *            the delay between two rankings, which bounds how long a
+     *            completion takes to show in the trending resources. Must be
+     *            greater than 0.
+     */
+    public void setRankPeriodMillis(final long rankPeriodMillis) {
+        checkArgument(rankPeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Rank period");
+        this.rankPeriodMillis = rankPeriodMillis;
+    }
+
+    /**
+     * @param categoryRefreshPeriodMillis
+     *            the delay between two reads of the categories of every
+     *            resource, which bounds how long a resource moved to another
+     *            category keeps being counted for the old one. Must be
+     *            greater than 0.
+     */
+    public void setCategoryRefreshPeriodMillis(final long categoryRefreshPeriodMillis) {
+        checkArgument(categoryRefreshPeriodMillis > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Category refresh period");
+        this.categoryRefreshPeriodMillis = categoryRefreshPeriodMillis;
+    }
+
+    /**
+     * @param maximumTrending
+     *            the number of resources and of categories kept by a ranking.
+     *            Must be greater than 0.
+     */
+    public void setMaximumTrending(final int maximumTrending) {
+        checkArgument(maximumTrending > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum trending");
+        this.maximumTrending = maximumTrending;
+    }
+
+    /**
+     * The most completed resources and categories as of a ranking.
+     */
+    private static final class Ranking {
+
+        private final List<TrendingCount> resources;
+        private final List<TrendingCount> categories;
+        private final long rankTimeMillis;
+
+        private Ranking(final List<TrendingCount> resources, final List<TrendingCount> categories,
+                final long rankTimeMillis) {
+            this.resources = resources;
+            this.categories = categories;
+            this.rankTimeMillis = rankTimeMillis;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.cerner.devcenter.education.user;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.naming.NamingException;
+import javax.naming.directory.SearchResult;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.cerner.devcenter.education.authentication.LdapReader;
+import com.google.common.collect.Iterables;
+
+/**
+ * {@link UserProfileDirectory} that searches LDAP on the pooled search
+ * connections of {@link LdapReader}'s connection manager. Several users are looked up
+ * with one OR-filter search per {@link #setMaximumIdsPerSearch(int) chunk} of
+ * ids.
+ */
+public class LdapUserProfileDirectory implements UserProfileDirectory {
+
+    public static final String DEFAULT_SEARCH_BASE = "OU=Office Locations,DC=northamerica,DC=cerner,DC=net";
+    private static final int DEFAULT_MAXIMUM_IDS_PER_SEARCH = 50;
+    private static final String USER_ID_INVALID_ERROR_MESSAGE = "User Id cannot be null, empty or whitespace.";
+    private static final String USER_IDS_NULL_ERROR_MESSAGE = "User Ids cannot be null";
+    private static final String SEARCH_BASE_INVALID_ERROR_MESSAGE = "Search base cannot be null, empty or whitespace.";
+    private static final String MAXIMUM_IDS_PER_SEARCH_INVALID_ERROR_MESSAGE = "Maximum ids per search must be greater than 0";
+
+    private String searchBase = DEFAULT_SEARCH_BASE;
+    private int maximumIdsPerSearch = DEFAULT_MAXIMUM_IDS_PER_SEARCH;
+
+    @Override
+    public UserProfileDetails find(final String userId) throws NamingException {
+        checkArgument(StringUtils.isNotBlank(userId), USER_ID_INVALID_ERROR_MESSAGE);
+        final LdapReader ldapReader = LdapReader.getInstance();
+        final SearchResult searchResult = ldapReader.getSearchResults(searchBase, userId);
+        if (searchResult == null) {
+            return null;
+        }
+        return ldapReader.getUserDetails(searchResult.getAttributes());
+    }
+
+    @Override
+    public List<UserProfileDetails> findAll(final Collection<String> userIds) throws NamingException {
+        checkArgument(userIds != null, USER_IDS_NULL_ERROR_MESSAGE);
+        final LdapReader ldapReader = LdapReader.getInstance();
+        final List<UserProfileDetails> users = new ArrayList<>();
+        for (final List<String> chunk : Iterables.partition(userIds, maximumIdsPerSearch)) {
+            for (final SearchResult searchResult : ldapReader.getSearchResults(searchBase, chunk)) {
+                users.add(ldapReader.getUserDetails(searchResult.getAttributes()));
+            }
+        }
+        return users;
+    }
+
+    /**
+     * @param searchBase
+     *            the base the users are searched under. Cannot be null, empty
+     *            or blank.
+     */
+    public void setSearchBase(final String searchBase) {
+        checkArgument(StringUtils.isNotBlank(searchBase), SEARCH_BASE_INVALID_ERROR_MESSAGE);
+        this.searchBase = searchBase;
+    }
+
+    /**
+     * @param maximumIdsPerSearch
+     *            the maximum number of ids put in the OR-filter of one search,
+     *            which bounds the size of the filter sent to the server. Must
+     *            be greater than 0.
+     */
+    public void setMaximumIdsPerSearch(final int maximumIdsPerSearch) {
+        checkArgument(maximumIdsPerSearch > 0, MAXIMUM_IDS_PER_SEARCH_INVALID_ERROR_MESSAGE);
+        this.maximumIdsPerSearch = maximumIdsPerSearch;
+    }
+}
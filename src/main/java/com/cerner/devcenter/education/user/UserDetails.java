@@ -1,46 +1,354 @@
 package com.cerner.devcenter.education.user;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import javax.naming.NamingException;
-import javax.naming.directory.SearchResult;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.cerner.devcenter.education.admin.DAOException;
-import com.cerner.devcenter.education.authentication.LdapReader;
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
  * Extracts the userDetails from LDAP when a valid userID is provided.
- * 
+ * <p>
+ * Looked up users are cached by userID so pages that need the details of a
+ * user (login, adding a user, editing a resource owner) do not search LDAP on
+ * every request:
+ * <ul>
+ * <li>users that were found are kept for the time to live, which bounds how
+ * stale a changed title or department can get</li>
+ * <li>userIDs that were not found are kept for a shorter time, so repeated
+ * lookups of an unknown or mistyped userID do not reach LDAP either</li>
+ * <li>the least recently used users are dropped first when the cache is
+ * full</li>
+ * </ul>
+ * {@link #getUserDetails(Collection)} resolves all the userIDs that are not
+ * cached with one OR-filter search. Hit and miss counts and a lookup-latency
+ * histogram are exposed through {@link #getMetrics()}. {@link #init()} is
+ * meant to be used as the Spring init-method of the bean.
+ *
  * @author Nikhil Agrawal (na044293)
  */
-public class UserDetails {
+public class UserDetails implements MetricsProvider {
     private final static Logger LOGGER = LoggerFactory.getLogger(UserDetails.class);
-    private final String BASE = "OU=Office Locations,DC=northamerica,DC=cerner,DC=net";
-    private LdapReader ldapReader;
+
+    private static final String USER_NOT_FOUND_ERROR_MESSAGE = "Error: User {} Not Found in database";
+    private static final String USER_ID_INVALID_ERROR_MESSAGE = "User Id cannot be null, empty or whitespace.";
+    private static final String USER_IDS_NULL_ERROR_MESSAGE = "User Ids cannot be null";
+    private static final String USER_NULL_ERROR_MESSAGE = "User cannot be null";
+    private static final String DIRECTORY_NULL_ERROR_MESSAGE = "User profile directory cannot be null";
+    private static final String TICKER_NULL_ERROR_MESSAGE = "Ticker cannot be null";
+    private static final String POSITIVE_VALUE_ERROR_MESSAGE = "%s must be greater than 0";
+    private static final String CACHE_NOT_INITIALIZED_ERROR_MESSAGE = "User details cache has not been initialized";
+    private static final String CACHE_ALREADY_INITIALIZED_ERROR_MESSAGE = "User details cache has already been initialized";
+
+    private static final long DEFAULT_TIME_TO_LIVE_SECONDS = 900;
+    private static final long DEFAULT_UNKNOWN_USER_TIME_TO_LIVE_SECONDS = 60;
+    private static final int DEFAULT_MAXIMUM_ENTRIES = 5000;
+
+    private UserProfileDirectory directory = new LdapUserProfileDirectory();
+    private long timeToLiveSeconds = DEFAULT_TIME_TO_LIVE_SECONDS;
+    private long unknownUserTimeToLiveSeconds = DEFAULT_UNKNOWN_USER_TIME_TO_LIVE_SECONDS;
+    private int maximumEntries = DEFAULT_MAXIMUM_ENTRIES;
+    private Ticker ticker = Ticker.systemTicker();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong unknownUserHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong directoryLookupCount = new AtomicLong();
+    private final LatencyHistogram lookupLatency = new LatencyHistogram();
+
+    private volatile Cache<String, Entry> entries;
 
     public UserDetails() {}
 
     /**
-     * Extracts the user details from the LDAP
-     * 
-     * @param userID a {@link String} object which will be used to extract user details
-     * 
-     * @return {@link UserProfileDetails} with details of user with given userID
+     * Builds the cache.
+     *
+     * @throws IllegalStateException
+     *             when the cache has already been initialized.
+     */
+    public synchronized void init() {
+        checkState(entries == null, CACHE_ALREADY_INITIALIZED_ERROR_MESSAGE);
+        entries = CacheBuilder.newBuilder()
+                .expireAfterWrite(timeToLiveSeconds, TimeUnit.SECONDS)
+                .maximumSize(maximumEntries)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Extracts the user details from the cache, or from the LDAP when they
+     * are not cached
+     *
+     * @param userID a {@link String} object which will be used to extract user details.
+     *            Cannot be null, empty or blank.
+     *
+     * @return {@link UserProfileDetails} with details of user with given userID, or
+     *         <code>null</code> when userID not found in LDAP
      * @throws NamingException when LDAP search fails
-     * @throws DAOException when userID not found in LDAP
+     * @throws IllegalArgumentException when userID is null, empty or blank
+     * @throws IllegalStateException when the cache has not been initialized
      */
     public UserProfileDetails getUserDetails(String userID) throws NamingException {
-        ldapReader = LdapReader.getInstance();
-        String error = "Error: User Not Found in database";
-        SearchResult searchResult =
-                        ldapReader.getSearchResults(ldapReader.getDirContext(), BASE, userID);
-        if (searchResult == null) {
-            LOGGER.error(error);
-            return null;
+        checkArgument(StringUtils.isNotBlank(userID), USER_ID_INVALID_ERROR_MESSAGE);
+        final Cache<String, Entry> cache = getEntries();
+        final String key = keyOf(userID);
+        final Entry cached = getFresh(cache, key);
+        if (cached != null) {
+            return cached.user;
+        }
+        missCount.incrementAndGet();
+        directoryLookupCount.incrementAndGet();
+        final long start = System.nanoTime();
+        final UserProfileDetails user;
+        try {
+            user = directory.find(userID);
+        } finally {
+            lookupLatency.record(System.nanoTime() - start);
+        }
+        cache.put(key, newEntry(user));
+        if (user == null) {
+            LOGGER.error(USER_NOT_FOUND_ERROR_MESSAGE, userID);
         }
-        UserProfileDetails user = ldapReader.getUserDetails(searchResult.getAttributes());
         return user;
     }
 
+    /**
+     * Extracts the details of several users, searching the LDAP once for all
+     * the users that are not cached.
+     *
+     * @param userIDs
+     *            the userIDs whose details are extracted. Cannot be null or
+     *            contain null, empty or blank userIDs.
+     * @return a {@link Map} from userID to {@link UserProfileDetails} in the
+     *         order of userIDs. UserIDs not found in LDAP are left out.
+     * @throws NamingException
+     *             when LDAP search fails
+     * @throws IllegalArgumentException
+     *             when userIDs is null or contains a null, empty or blank
+     *             userID
+     * @throws IllegalStateException
+     *             when the cache has not been initialized
+     */
+    public Map<String, UserProfileDetails> getUserDetails(Collection<String> userIDs) throws NamingException {
+        checkArgument(userIDs != null, USER_IDS_NULL_ERROR_MESSAGE);
+        final Cache<String, Entry> cache = getEntries();
+        final Map<String, Entry> resolved = new HashMap<>();
+        final Map<String, String> missing = new LinkedHashMap<>();
+        for (final String userID : userIDs) {
+            checkArgument(StringUtils.isNotBlank(userID), USER_ID_INVALID_ERROR_MESSAGE);
+            final String key = keyOf(userID);
+            if (resolved.containsKey(key) || missing.containsKey(key)) {
+                continue;
+            }
+            final Entry cached = getFresh(cache, key);
+            if (cached != null) {
+                resolved.put(key, cached);
+            } else {
+                missing.put(key, userID);
+            }
+        }
+        if (!missing.isEmpty()) {
+            missCount.addAndGet(missing.size());
+            directoryLookupCount.incrementAndGet();
+            final long start = System.nanoTime();
+            final Collection<UserProfileDetails> found;
+            try {
+                found = directory.findAll(missing.values());
+            } finally {
+                lookupLatency.record(System.nanoTime() - start);
+            }
+            for (final UserProfileDetails user : found) {
+                final String key = keyOf(user.getUserId());
+                if (missing.containsKey(key)) {
+                    final Entry entry = newEntry(user);
+                    cache.put(key, entry);
+                    resolved.put(key, entry);
+                }
+            }
+            for (final Map.Entry<String, String> unresolved : missing.entrySet()) {
+                if (!resolved.containsKey(unresolved.getKey())) {
+                    cache.put(unresolved.getKey(), newEntry(null));
+                    LOGGER.error(USER_NOT_FOUND_ERROR_MESSAGE, unresolved.getValue());
+                }
+            }
+        }
+        final Map<String, UserProfileDetails> users = new LinkedHashMap<>();
+        for (final String userID : userIDs) {
+            final Entry entry = resolved.get(keyOf(userID));
+            if (entry != null && entry.user != null) {
+                users.put(userID, entry.user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Caches the details of a user that were read outside the directory, such
+     * as on the connection of the user's login, so they are not searched in
+     * LDAP until they expire.
+     *
+     * @param user
+     *            the {@link UserProfileDetails} of the user. Cannot be null.
+     * @throws IllegalArgumentException
+     *             when user is null
+     * @throws IllegalStateException
+     *             when the cache has not been initialized
+     */
+    public void put(UserProfileDetails user) {
+        checkArgument(user != null, USER_NULL_ERROR_MESSAGE);
+        getEntries().put(keyOf(user.getUserId()), newEntry(user));
+    }
+
+    /**
+     * Drops the cached details of a user, so they are searched in LDAP the
+     * next time they are needed.
+     *
+     * @param userID
+     *            the userID of the user. Cannot be null, empty or blank.
+     * @throws IllegalArgumentException
+     *             when userID is null, empty or blank
+     */
+    public void invalidate(String userID) {
+        checkArgument(StringUtils.isNotBlank(userID), USER_ID_INVALID_ERROR_MESSAGE);
+        getEntries().invalidate(keyOf(userID));
+    }
+
+    /**
+     * @return a point-in-time {@link UserProfileCacheMetrics} snapshot.
+     * @throws IllegalStateException
+     *             when the cache has not been initialized.
+     */
+    @Override
+    public UserProfileCacheMetrics getMetrics() {
+        final Cache<String, Entry> cache = getEntries();
+        return new UserProfileCacheMetrics(
+                cache.size(),
+                maximumEntries,
+                timeToLiveSeconds,
+                unknownUserTimeToLiveSeconds,
+                hitCount.get(),
+                unknownUserHitCount.get(),
+                missCount.get(),
+                directoryLookupCount.get(),
+                cache.stats().evictionCount(),
+                lookupLatency.snapshot());
+    }
+
+    /**
+     * @param directory
+     *            the {@link UserProfileDirectory} users that are not cached are
+     *            looked up in. Cannot be null.
+     */
+    public void setDirectory(final UserProfileDirectory directory) {
+        checkArgument(directory != null, DIRECTORY_NULL_ERROR_MESSAGE);
+        this.directory = directory;
+    }
+
+    /**
+     * @param timeToLiveSeconds
+     *            how long the details of a user are cached before they are
+     *            searched in LDAP again. Must be greater than 0.
+     */
+    public void setTimeToLiveSeconds(final long timeToLiveSeconds) {
+        checkArgument(timeToLiveSeconds > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Time to live");
+        this.timeToLiveSeconds = timeToLiveSeconds;
+    }
+
+    /**
+     * @param unknownUserTimeToLiveSeconds
+     *            how long a userID that was not found is remembered as unknown.
+     *            Must be greater than 0; values above the time to live have
+     *            the effect of the time to live.
+     */
+    public void setUnknownUserTimeToLiveSeconds(final long unknownUserTimeToLiveSeconds) {
+        checkArgument(unknownUserTimeToLiveSeconds > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Unknown user time to live");
+        this.unknownUserTimeToLiveSeconds = unknownUserTimeToLiveSeconds;
+    }
+
+    /**
+     * @param maximumEntries
+     *            the maximum number of cached userIDs, found or not. Must be
+     *            greater than 0.
+     */
+    public void setMaximumEntries(final int maximumEntries) {
+        checkArgument(maximumEntries > 0, POSITIVE_VALUE_ERROR_MESSAGE, "Maximum entries");
+        this.maximumEntries = maximumEntries;
+    }
+
+    /**
+     * @param ticker
+     *            the {@link Ticker} expiry is measured with. Cannot be null.
+     */
+    void setTicker(final Ticker ticker) {
+        checkArgument(ticker != null, TICKER_NULL_ERROR_MESSAGE);
+        this.ticker = ticker;
+    }
+
+    private Cache<String, Entry> getEntries() {
+        final Cache<String, Entry> cache = entries;
+        checkState(cache != null, CACHE_NOT_INITIALIZED_ERROR_MESSAGE);
+        return cache;
+    }
+
+    /**
+     * Returns the cached entry of a userID and counts it as a hit, or returns
+     * <code>null</code> when it is not cached or is an unknown userID whose
+     * shorter time to live has passed.
+     */
+    private Entry getFresh(final Cache<String, Entry> cache, final String key) {
+        final Entry cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.user != null) {
+            hitCount.incrementAndGet();
+            return cached;
+        }
+        if (ticker.read() - cached.createdAtNanos >= TimeUnit.SECONDS.toNanos(unknownUserTimeToLiveSeconds)) {
+            cache.asMap().remove(key, cached);
+            return null;
+        }
+        unknownUserHitCount.incrementAndGet();
+        return cached;
+    }
+
+    private Entry newEntry(final UserProfileDetails user) {
+        return new Entry(user, ticker.read());
+    }
+
+    /**
+     * UserIDs are matched case-insensitively by LDAP, so they are cached the
+     * same way.
+     */
+    private static String keyOf(final String userID) {
+        return userID.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        private final UserProfileDetails user;
+        private final long createdAtNanos;
+
+        private Entry(final UserProfileDetails user, final long createdAtNanos) {
+            this.user = user;
+            this.createdAtNanos = createdAtNanos;
+        }
+    }
 }
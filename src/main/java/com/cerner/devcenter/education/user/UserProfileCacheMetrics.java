@@ -0,0 +1,121 @@
+package com.cerner.devcenter.education.user;
+
+import com.cerner.devcenter.education.utils.LatencyHistogram;
+
+/**
+ * Immutable, point-in-time view of the {@link UserDetails} cache's gauges and
+ * counters. Exposes plain getters so it can be returned directly as JSON.
+ */
+public class UserProfileCacheMetrics {
+
+    private final long size;
+    private final int maximumEntries;
+    private final long timeToLiveSeconds;
+    private final long unknownUserTimeToLiveSeconds;
+    private final long hitCount;
+    private final long unknownUserHitCount;
+    private final long missCount;
+    private final long directoryLookupCount;
+    private final long evictionCount;
+    private final LatencyHistogram.Snapshot lookupLatency;
+
+    /**
+     * @param size
+     *            number of cached userIDs, found or not
+     * @param maximumEntries
+     *            configured maximum number of cached userIDs
+     * @param timeToLiveSeconds
+     *            configured time after which the details of a user are
+     *            searched again
+     * @param unknownUserTimeToLiveSeconds
+     *            configured time after which a userID that was not found is
+     *            searched again
+     * @param hitCount
+     *            total number of users answered from the cache
+     * @param unknownUserHitCount
+     *            total number of userIDs answered as not found from the cache
+     * @param missCount
+     *            total number of userIDs that had to be searched
+     * @param directoryLookupCount
+     *            total number of directory lookups; a batch lookup counts once
+     *            however many userIDs it searches
+     * @param evictionCount
+     *            total number of entries dropped because they expired or the
+     *            cache was full
+     * @param lookupLatency
+     *            snapshot of the lookup-latency histogram, one observation per
+     *            directory lookup
+     */
+    public UserProfileCacheMetrics(
+            final long size,
+            final int maximumEntries,
+            final long timeToLiveSeconds,
+            final long unknownUserTimeToLiveSeconds,
+            final long hitCount,
+            final long unknownUserHitCount,
+            final long missCount,
+            final long directoryLookupCount,
+            final long evictionCount,
+            final LatencyHistogram.Snapshot lookupLatency) {
+        this.size = size;
+        this.maximumEntries = maximumEntries;
+        this.timeToLiveSeconds = timeToLiveSeconds;
+        this.unknownUserTimeToLiveSeconds = unknownUserTimeToLiveSeconds;
+        this.hitCount = hitCount;
+        this.unknownUserHitCount = unknownUserHitCount;
+        this.missCount = missCount;
+        this.directoryLookupCount = directoryLookupCount;
+        this.evictionCount = evictionCount;
+        this.lookupLatency = lookupLatency;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getMaximumEntries() {
+        return maximumEntries;
+    }
+
+    public long getTimeToLiveSeconds() {
+        return timeToLiveSeconds;
+    }
+
+    public long getUnknownUserTimeToLiveSeconds() {
+        return unknownUserTimeToLiveSeconds;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getUnknownUserHitCount() {
+        return unknownUserHitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the fraction of userIDs answered from the cache, found or not,
+     *         or 0 when there have been no requests.
+     */
+    public double getHitRatio() {
+        final long answeredCount = hitCount + unknownUserHitCount;
+        final long requestCount = answeredCount + missCount;
+        return requestCount == 0 ? 0 : answeredCount / (double) requestCount;
+    }
+
+    public long getDirectoryLookupCount() {
+        return directoryLookupCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public LatencyHistogram.Snapshot getLookupLatency() {
+        return lookupLatency;
+    }
+}
@@ -0,0 +1,38 @@
+package com.cerner.devcenter.education.user;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.naming.NamingException;
+
+/**
+ * Looks up {@link UserProfileDetails} in the directory the users are kept in.
+ * {@link UserDetails} caches what it returns.
+ */
+public interface UserProfileDirectory {
+
+    /**
+     * Looks up a single user.
+     *
+     * @param userId
+     *            the id of the user. Cannot be null, empty or blank.
+     * @return the {@link UserProfileDetails} of the user, or <code>null</code>
+     *         when there is no such user.
+     * @throws NamingException
+     *             when the directory search fails.
+     */
+    UserProfileDetails find(String userId) throws NamingException;
+
+    /**
+     * Looks up several users with as few searches as possible.
+     *
+     * @param userIds
+     *            the ids of the users. Cannot be null.
+     * @return a {@link List} of the {@link UserProfileDetails} of the users
+     *         that were found, in no particular order. Users that are not
+     *         found are left out.
+     * @throws NamingException
+     *             when the directory search fails.
+     */
+    List<UserProfileDetails> findAll(Collection<String> userIds) throws NamingException;
+}
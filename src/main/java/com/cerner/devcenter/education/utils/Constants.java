@@ -24,6 +24,9 @@ public final class Constants {
     public static final String RESOURCE_NAME_INVALID = "Resource name is invalid";
     public static final String RESOURCE_REQUIREDSKILLLEVEL_INVALID = "Required skill level of Resource is Invalid";
     public static final int AUTOFILL_SIZE = 10;
+    public static final int SEARCH_RESULT_LIMIT = 100;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BULK_REQUEST_IDS = 10000;
     // Constants for UserController
     public static final String MESSAGE = "message";
     public static final String INVALID_USER_ID = "User ID is invalid. Please re-enter";
@@ -143,6 +146,18 @@ public final class Constants {
      * </pre>
      */
     public static final String UPLOAD_RESOURCE_EXISTS_ERROR_I18N = "bulkUpload.cell.resourceAlreadyExistsMessage";
+    /***
+     * <pre>
+     * "The resource in cell {0} could not be saved. Try uploading it again."
+     * </pre>
+     */
+    public static final String UPLOAD_RESOURCE_NOT_SAVED_ERROR_I18N = "bulkUpload.cell.resourceNotSavedMessage";
+    /***
+     * <pre>
+     * "The resource types and categories could not be read, so some resources were not added. Try uploading the file again."
+     * </pre>
+     */
+    public static final String UPLOAD_NAME_LOOKUP_ERROR_I18N = "bulkUpload.nameLookupErrorMessage";
 
     // Constants for UserRecommendedResourceDAO
     public static final String USER_ID_NULL = "The specified User ID is null.";
@@ -190,9 +205,6 @@ public final class Constants {
     // constants for TagController
     public static final String ADD_TAGS_TO_RESOURCE_REQUEST_NULL = "The object representing the request for adding tags to the resource is null.";
 
-    // constants for QueryExpanderUtils
-    public static final String NUMBER_OF_PLACEHOLDERS_MUST_BE_POSITIVE = "The number of placeholders to expand the query for must be positive.";
-
     // Constants for CategoryController
     public static final String ID_INVALID_ERROR_MESSAGE = "The ID is invalid.";
     public static final String SEARCH_INVALID_ERROR_MESSAGE = "Search string cannot be null or empty.";
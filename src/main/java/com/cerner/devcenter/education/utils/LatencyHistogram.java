@@ -0,0 +1,194 @@
+package com.cerner.devcenter.education.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-bucket, lock-free latency histogram. Latencies are recorded in
+ * nanoseconds and grouped into exponentially sized buckets measured in
+ * microseconds, which keeps recording to a couple of atomic increments and
+ * makes the histogram cheap enough to sit on hot paths such as connection
+ * acquisition.
+ * <p>
+ * Percentiles reported by {@link Snapshot} are approximate: they are the upper
+ * bound of the bucket that contains the requested rank.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_MICROS = { 10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 25000,
+            50000, 100000, 250000, 500000, 1000000, 2500000, 5000000, 10000000, Long.MAX_VALUE };
+    private static final String NEGATIVE_LATENCY_ERROR_MESSAGE = "Latency cannot be negative";
+    private static final String INVALID_PERCENTILE_ERROR_MESSAGE = "Percentile must be between 0 and 100";
+    private static final String OVERFLOW_BUCKET_LABEL = "+Inf";
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MICROS.length);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a single latency observation.
+     *
+     * @param latencyNanos
+     *            the observed latency in nanoseconds. Cannot be negative.
+     * @throws IllegalArgumentException
+     *             when the latency is negative.
+     */
+    public void record(final long latencyNanos) {
+        checkArgument(latencyNanos >= 0, NEGATIVE_LATENCY_ERROR_MESSAGE);
+        bucketCounts.incrementAndGet(bucketIndex(TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        count.incrementAndGet();
+        totalNanos.addAndGet(latencyNanos);
+        long currentMax = maxNanos.get();
+        while (latencyNanos > currentMax && !maxNanos.compareAndSet(currentMax, latencyNanos)) {
+            currentMax = maxNanos.get();
+        }
+    }
+
+    /**
+     * Takes a point-in-time copy of the histogram. Concurrent recordings may
+     * make the copy very slightly inconsistent (e.g. the count may be ahead of
+     * the buckets by an observation or two), which is acceptable for metrics.
+     *
+     * @return a {@link Snapshot} of the histogram, never null.
+     */
+    public Snapshot snapshot() {
+        final long[] counts = new long[BUCKET_UPPER_BOUNDS_MICROS.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts.get(i);
+        }
+        return new Snapshot(counts, count.get(), totalNanos.get(), maxNanos.get());
+    }
+
+    private static int bucketIndex(final long latencyMicros) {
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MICROS.length; i++) {
+            if (latencyMicros <= BUCKET_UPPER_BOUNDS_MICROS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_UPPER_BOUNDS_MICROS.length - 1;
+    }
+
+    /**
+     * Immutable view of a {@link LatencyHistogram} at a point in time. All
+     * getters are exposed so the snapshot serializes directly to JSON.
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private Snapshot(final long[] counts, final long count, final long totalNanos, final long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * @return the number of recorded observations.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the mean latency in milliseconds, or 0 when nothing has been
+         *         recorded.
+         */
+        public double getMeanMillis() {
+            return count == 0 ? 0 : toMillis(totalNanos / (double) count);
+        }
+
+        /**
+         * @return the largest recorded latency in milliseconds.
+         */
+        public double getMaxMillis() {
+            return toMillis(maxNanos);
+        }
+
+        /**
+         * @return the approximate median latency in milliseconds.
+         */
+        public double getP50Millis() {
+            return getPercentileMillis(50);
+        }
+
+        /**
+         * @return the approximate 95th percentile latency in milliseconds.
+         */
+        public double getP95Millis() {
+            return getPercentileMillis(95);
+        }
+
+        /**
+         * @return the approximate 99th percentile latency in milliseconds.
+         */
+        public double getP99Millis() {
+            return getPercentileMillis(99);
+        }
+
+        /**
+         * Returns the number of observations per bucket, keyed by the bucket's
+         * upper bound in microseconds (the last bucket is labelled "+Inf").
+         *
+         * @return an unmodifiable, ordered {@link Map} of bucket label to
+         *         count.
+         */
+        public Map<String, Long> getBuckets() {
+            final Map<String, Long> buckets = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                final String label = BUCKET_UPPER_BOUNDS_MICROS[i] == Long.MAX_VALUE ? OVERFLOW_BUCKET_LABEL
+                        : "le_" + BUCKET_UPPER_BOUNDS_MICROS[i] + "us";
+                buckets.put(label, counts[i]);
+            }
+            return Collections.unmodifiableMap(buckets);
+        }
+
+        /**
+         * Returns the approximate latency at the given percentile.
+         *
+         * @param percentile
+         *            a value between 0 and 100 inclusive.
+         * @return the upper bound, in milliseconds, of the bucket holding the
+         *         requested rank. For the overflow bucket the recorded maximum
+         *         is returned. Returns 0 when nothing has been recorded.
+         * @throws IllegalArgumentException
+         *             when the percentile is outside 0 to 100.
+         */
+        public double getPercentileMillis(final double percentile) {
+            checkArgument(percentile >= 0 && percentile <= 100, INVALID_PERCENTILE_ERROR_MESSAGE);
+            long observed = 0;
+            for (int i = 0; i < counts.length; i++) {
+                observed += counts[i];
+            }
+            if (observed == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(observed * percentile / 100.0));
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= rank) {
+                    if (BUCKET_UPPER_BOUNDS_MICROS[i] == Long.MAX_VALUE) {
+                        return getMaxMillis();
+                    }
+                    return BUCKET_UPPER_BOUNDS_MICROS[i] / 1000.0;
+                }
+            }
+            return getMaxMillis();
+        }
+
+        private static double toMillis(final double nanos) {
+            return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.cerner.devcenter.education.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * An open-addressing hash map from primitive <code>long</code> keys to
+ * positive <code>int</code> counts, for counting many small keys, such as
+ * pairs of ids, without boxing each key and count into objects. A key and its
+ * count take 12 bytes plus the free slots kept by the load factor, against
+ * about 60 bytes in a {@link java.util.HashMap HashMap&lt;Long, Integer&gt;}.
+ * <p>
+ * Counts only grow, so a slot with a count of 0 is free and no key needs to be
+ * reserved. The map is not thread-safe.
+ */
+public class LongIntHashMap {
+
+    private static final String INVALID_DELTA_ERROR_MESSAGE = "Delta must be greater than 0";
+    private static final String INVALID_EXPECTED_SIZE_ERROR_MESSAGE = "Expected size cannot be negative";
+    private static final int MINIMUM_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private int[] counts;
+    private int size;
+    private int resizeThreshold;
+
+    public LongIntHashMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize
+     *            the number of keys the map is sized for before it needs to
+     *            grow. Cannot be negative.
+     */
+    public LongIntHashMap(final int expectedSize) {
+        checkArgument(expectedSize >= 0, INVALID_EXPECTED_SIZE_ERROR_MESSAGE);
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < MAXIMUM_CAPACITY && capacity / 2 < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Adds to the count of a key, adding the key when it is not in the map.
+     *
+     * @param key
+     *            the key whose count is increased.
+     * @param delta
+     *            the amount to add to the count. Must be greater than 0.
+     * @return the new count of the key.
+     * @throws IllegalArgumentException
+     *             when delta is not greater than 0.
+     */
+    public int increment(final long key, final int delta) {
+        checkArgument(delta > 0, INVALID_DELTA_ERROR_MESSAGE);
+        int slot = slot(key);
+        while (counts[slot] != 0) {
+            if (keys[slot] == key) {
+                counts[slot] += delta;
+                return counts[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        counts[slot] = delta;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return delta;
+    }
+
+    /**
+     * @param key
+     *            the key to look up.
+     * @return the count of the key, or 0 when the key is not in the map.
+     */
+    public int get(final long key) {
+        int slot = slot(key);
+        while (counts[slot] != 0) {
+            if (keys[slot] == key) {
+                return counts[slot];
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return 0;
+    }
+
+    /**
+     * @return the number of keys in the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a new array with the keys of the map, in no particular order.
+     */
+    public long[] keys() {
+        final long[] copy = new long[size];
+        int index = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (counts[slot] != 0) {
+                copy[index++] = keys[slot];
+            }
+        }
+        return copy;
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        counts = new int[capacity];
+        resizeThreshold = capacity == MAXIMUM_CAPACITY ? Integer.MAX_VALUE : capacity / 2;
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final int[] oldCounts = counts;
+        allocate(oldKeys.length << 1);
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldCounts[oldSlot] != 0) {
+                int slot = slot(oldKeys[oldSlot]);
+                while (counts[slot] != 0) {
+                    slot = (slot + 1) & (keys.length - 1);
+                }
+                keys[slot] = oldKeys[oldSlot];
+                counts[slot] = oldCounts[oldSlot];
+            }
+        }
+    }
+
+    private int slot(final long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) hash & (keys.length - 1);
+    }
+}
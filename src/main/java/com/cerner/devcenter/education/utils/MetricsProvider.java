@@ -0,0 +1,15 @@
+package com.cerner.devcenter.education.utils;
+
+/**
+ * A component whose runtime metrics are exposed as JSON by the
+ * {@link com.cerner.devcenter.education.controllers.MetricsController}. The
+ * name it is exposed under is given by the {@link MetricsRegistry}.
+ */
+public interface MetricsProvider {
+
+    /**
+     * @return a point-in-time snapshot of the metrics of the component, which
+     *         is serialized to JSON as is. Never null.
+     */
+    Object getMetrics();
+}
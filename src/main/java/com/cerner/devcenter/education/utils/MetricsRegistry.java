@@ -0,0 +1,59 @@
+package com.cerner.devcenter.education.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Names the {@link MetricsProvider MetricsProviders} whose metrics are exposed
+ * at /app/metrics/{name}. The providers are configured on the bean in
+ * survey-servlet.xml, so a new component is exposed by adding it there.
+ */
+public class MetricsRegistry {
+
+    private static final String PROVIDERS_NULL_ERROR_MESSAGE = "Metrics providers cannot be null";
+    private static final String NAME_INVALID_ERROR_MESSAGE = "Metrics name cannot be null, empty or whitespace.";
+
+    private volatile Map<String, MetricsProvider> providers = ImmutableMap.of();
+
+    /**
+     * Returns the metrics of the provider registered under a name.
+     *
+     * @param name
+     *            the name of the metrics. Cannot be null, empty or blank.
+     * @return a point-in-time snapshot of the metrics, or null when no
+     *         provider is registered under the name.
+     * @throws IllegalArgumentException
+     *             when name is null, empty or blank.
+     */
+    public Object getMetrics(final String name) {
+        checkArgument(StringUtils.isNotBlank(name), NAME_INVALID_ERROR_MESSAGE);
+        final MetricsProvider provider = providers.get(name);
+        return provider == null ? null : provider.getMetrics();
+    }
+
+    /**
+     * @return the names the providers are registered under.
+     */
+    public Set<String> getNames() {
+        return providers.keySet();
+    }
+
+    /**
+     * @param providers
+     *            the {@link MetricsProvider MetricsProviders} by the name
+     *            their metrics are exposed under. Cannot be null or hold null
+     *            names or providers.
+     * @throws IllegalArgumentException
+     *             when providers is null.
+     */
+    public void setProviders(final Map<String, MetricsProvider> providers) {
+        checkArgument(providers != null, PROVIDERS_NULL_ERROR_MESSAGE);
+        this.providers = ImmutableMap.copyOf(providers);
+    }
+}
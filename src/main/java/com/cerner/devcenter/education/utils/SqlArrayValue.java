@@ -0,0 +1,152 @@
+package com.cerner.devcenter.education.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+
+/**
+ * Binds a collection as a single SQL array parameter, so that an IN-list can
+ * be written as <code>column = ANY(?)</code> (or <code>= ANY(:name)</code>
+ * with a {@link org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate})
+ * instead of one placeholder per element.
+ * <p>
+ * The SQL text then stays the same whatever the number of elements, so the
+ * driver and the database can reuse one prepared statement and its plan for
+ * every call instead of preparing and planning a new statement for each list
+ * length. Pass the value wherever a query argument is expected:
+ *
+ * <pre>
+ * jdbcTemplate.query("SELECT ... WHERE id = ANY(?)", rowMapper, SqlArrayValue.ofIntegers(ids));
+ * </pre>
+ *
+ * Instances are immutable and can be shared between threads.
+ */
+public final class SqlArrayValue extends AbstractSqlTypeValue {
+
+    private static final String INTEGER_ELEMENT_TYPE = "int4";
+    private static final String BIGINT_ELEMENT_TYPE = "int8";
+    private static final String TEXT_ELEMENT_TYPE = "text";
+    private static final String VALUES_NULL_ERROR_MESSAGE = "Array values cannot be null";
+    private static final String VALUE_NULL_ERROR_MESSAGE = "Array values cannot contain null";
+
+    private final String elementType;
+    private final Object[] elements;
+
+    private SqlArrayValue(final String elementType, final Object[] elements) {
+        this.elementType = elementType;
+        this.elements = elements;
+    }
+
+    /**
+     * Creates an <code>integer[]</code> parameter.
+     *
+     * @param values
+     *            the elements of the array. Cannot be null or contain null,
+     *            may be empty.
+     * @return a {@link SqlArrayValue} holding a copy of the values.
+     * @throws IllegalArgumentException
+     *             when values is null or contains null.
+     */
+    public static SqlArrayValue ofIntegers(final Collection<Integer> values) {
+        return new SqlArrayValue(INTEGER_ELEMENT_TYPE, toElements(values));
+    }
+
+    /**
+     * Creates an <code>integer[]</code> parameter from a primitive array, such
+     * as the ids posted by a form.
+     *
+     * @param values
+     *            the elements of the array. Cannot be null, may be empty.
+     * @return a {@link SqlArrayValue} holding a copy of the values.
+     * @throws IllegalArgumentException
+     *             when values is null.
+     */
+    public static SqlArrayValue ofInts(final int[] values) {
+        checkArgument(values != null, VALUES_NULL_ERROR_MESSAGE);
+        return new SqlArrayValue(INTEGER_ELEMENT_TYPE, ArrayUtils.toObject(values));
+    }
+
+    /**
+     * Creates a <code>bigint[]</code> parameter from a primitive array, such
+     * as counts added up in memory.
+     *
+     * @param values
+     *            the elements of the array. Cannot be null, may be empty.
+     * @return a {@link SqlArrayValue} holding a copy of the values.
+     * @throws IllegalArgumentException
+     *             when values is null.
+     */
+    public static SqlArrayValue ofLongs(final long[] values) {
+        checkArgument(values != null, VALUES_NULL_ERROR_MESSAGE);
+        return new SqlArrayValue(BIGINT_ELEMENT_TYPE, ArrayUtils.toObject(values));
+    }
+
+    /**
+     * Creates a <code>text[]</code> parameter. A <code>text[]</code> compares
+     * with <code>character varying</code> columns without a cast.
+     *
+     * @param values
+     *            the elements of the array. Cannot be null or contain null,
+     *            may be empty.
+     * @return a {@link SqlArrayValue} holding a copy of the values.
+     * @throws IllegalArgumentException
+     *             when values is null or contains null.
+     */
+    public static SqlArrayValue ofStrings(final Collection<String> values) {
+        return new SqlArrayValue(TEXT_ELEMENT_TYPE, toElements(values));
+    }
+
+    @Override
+    protected Object createTypeValue(final Connection connection, final int sqlType, final String typeName)
+            throws SQLException {
+        return connection.createArrayOf(elementType, elements);
+    }
+
+    public String getElementType() {
+        return elementType;
+    }
+
+    /**
+     * @return the number of elements in the array.
+     */
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SqlArrayValue)) {
+            return false;
+        }
+        final SqlArrayValue otherValue = (SqlArrayValue) other;
+        return elementType.equals(otherValue.elementType) && Arrays.equals(elements, otherValue.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * elementType.hashCode() + Arrays.hashCode(elements);
+    }
+
+    @Override
+    public String toString() {
+        return elementType + Arrays.toString(elements);
+    }
+
+    private static Object[] toElements(final Collection<?> values) {
+        checkArgument(values != null, VALUES_NULL_ERROR_MESSAGE);
+        final Object[] elements = values.toArray();
+        for (final Object element : elements) {
+            checkArgument(element != null, VALUE_NULL_ERROR_MESSAGE);
+        }
+        return elements;
+    }
+}
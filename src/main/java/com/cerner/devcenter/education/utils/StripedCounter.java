@@ -0,0 +1,106 @@
+package com.cerner.devcenter.education.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A counter many threads can add to at once without waiting on each other,
+ * for Java 7 which has no <code>java.util.concurrent.atomic.LongAdder</code>.
+ * <p>
+ * Like a <code>LongAdder</code>, the counter starts as a single
+ * compare-and-set value, which is all an uncontended counter needs. The first
+ * time two threads collide on it, the counter grows stripes: one cell per
+ * processor, each on its own cache line, and every thread from then on adds
+ * to the cell picked by its thread id. Threads on different cells never touch
+ * the same cache line, so adds scale with the number of processors instead of
+ * serializing on one value. {@link #sum()} adds the value and the cells up;
+ * it is exact when no add is in progress.
+ */
+public class StripedCounter {
+
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+    // Longs per 64 byte cache line, so two cells never share a line.
+    private static final int CELL_SPACING = 8;
+
+    private static final AtomicLongFieldUpdater<StripedCounter> BASE = AtomicLongFieldUpdater
+            .newUpdater(StripedCounter.class, "base");
+    private static final AtomicReferenceFieldUpdater<StripedCounter, AtomicLongArray> CELLS = AtomicReferenceFieldUpdater
+            .newUpdater(StripedCounter.class, AtomicLongArray.class, "cells");
+
+    private volatile long base;
+    private volatile AtomicLongArray cells;
+
+    /**
+     * Adds 1 to the counter.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Adds to the counter.
+     *
+     * @param delta
+     *            the amount to add, which may be negative.
+     */
+    public void add(final long delta) {
+        AtomicLongArray stripes = cells;
+        if (stripes == null) {
+            final long current = base;
+            if (BASE.compareAndSet(this, current, current + delta)) {
+                return;
+            }
+            CELLS.compareAndSet(this, null, new AtomicLongArray(STRIPES * CELL_SPACING));
+            stripes = cells;
+        }
+        stripes.getAndAdd(stripe() * CELL_SPACING, delta);
+    }
+
+    /**
+     * @return the sum of everything added to the counter.
+     */
+    public long sum() {
+        long sum = base;
+        final AtomicLongArray stripes = cells;
+        if (stripes != null) {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                sum += stripes.get(stripe * CELL_SPACING);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of everything added to the counter and sets it back to
+     * 0. The value and each cell are swapped with 0 atomically, so every add
+     * is counted by exactly one call, either this one or a later one, even
+     * while other threads are adding.
+     *
+     * @return the sum of everything added since the previous reset.
+     */
+    public long sumThenReset() {
+        long sum = BASE.getAndSet(this, 0);
+        final AtomicLongArray stripes = cells;
+        if (stripes != null) {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                sum += stripes.getAndSet(stripe * CELL_SPACING, 0);
+            }
+        }
+        return sum;
+    }
+
+    private static int stripe() {
+        long hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) hash & (STRIPES - 1);
+    }
+
+    private static int stripes(final int processors) {
+        int stripes = 1;
+        while (stripes < processors) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
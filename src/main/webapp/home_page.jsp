@@ -22,6 +22,9 @@
             <div class="row">
                 <%@include file="completed_resources_widget.jsp"%>
             </div>
+            <div class="row">
+                <%@include file="trending_widget.jsp"%>
+            </div>
         </div>
         <div class="col-xs-8">
             <div class="row">
@@ -84,7 +87,7 @@
                         <c:forEach items="${recommendedResources}" var="eachResource" varStatus="status">
                             <tr id="${eachResource.resource.resourceId}">
                                 <td>${eachResource.resource.resourceName}</td>
-                                <td><a href='${eachResource.resource.resourceLink.toString()}' target="_blank">${eachResource.resource.resourceLink.toString()}</a></td>
+                                <td><a class="tracked-resource-link" data-resourceid="${eachResource.resource.resourceId}" href='${eachResource.resource.resourceLink.toString()}' target="_blank">${eachResource.resource.resourceLink.toString()}</a></td>
                                 <td>${eachResource.difficultyLevel}</td>
                                 <td>${eachResource.category.name}</td>
                                 <td>
@@ -82,13 +82,15 @@
                             </table>
                             <c:if test="${pagecount >1}">
                                 <input id="pagecount" type="hidden" value="${pagecount}">
+                                <input id="nextafter" type="hidden" value="${nextafter}">
+                                <input id="after" type="hidden" name="after" value="">
                                 <table class="paginationtable">
                                     <tr>
                                         <td><input type="button" id="previouspage" value="&larr;"
                                             <c:if test="${pagenumber==1}">disabled="disabled"</c:if> onclick="changeToPreviousPage()"></td>
                                         <td><form:input type="submit" id="currentpage" name="pagenumber" path="" value="${pagenumber}"/></td>
                                         <td><input type="button" id="nextpage" value="&rarr;"
-                                            <c:if test="${pagenumber==pagecount}">disabled="disabled"</c:if> onclick="changeToNextPage()"></td>
+                                            <c:if test="${pagenumber==pagecount || empty nextafter}">disabled="disabled"</c:if> onclick="changeToNextPage()"></td>
                                         <td>
                                             <select id="page_select" onchange="changePage(this.value)">
                                                 <c:forEach begin="1" end="${pagecount}" varStatus="loop">
@@ -75,16 +75,18 @@ function dataValueCategory(item) {
 }
 
 /**
- * Assigns the String to label and value property of a new object.
+ * Assigns the String to label and value property of a new object, and the id
+ * of the resource to its id property.
  * 
  * @param item
  *            value assigned to a new object.
- * @returns Object with {label, value} attributes.
+ * @returns Object with {label, value, id} attributes.
  */
 function dataValueResource(item) {
     return {
         label : item.resourceName,
-        value : item.resourceName
+        value : item.resourceName,
+        id : item.resourceId
     }
 }
 
@@ -131,7 +133,7 @@ function clearTable() {
  */
 function addRecommendedResources(response, newTableBody) {
     for (var i = 0; i < response.length; i++) {
-        newTableBody.append('<tr id="' + response[i].resource.resourceId + '"><td>' + response[i].resource.resourceName + '</td><td><a href="' + response[i].resource.resourceLink
+        newTableBody.append('<tr id="' + response[i].resource.resourceId + '"><td>' + response[i].resource.resourceName + '</td><td><a class="tracked-resource-link" data-resourceid="' + response[i].resource.resourceId + '" href="' + response[i].resource.resourceLink
                 + '" target="_blank">' + response[i].resource.resourceLink + '</a></td><td>' + response[i].difficultyLevel + '</td><td>' + response[i].category.name
                 + '</td><td><button id="completeButton" type="button" data-resourceid="' + response[i].resource.resourceId + '"' + 'data-resource="' + response[i].resource.resourceName + '"'
                 + 'data-category="' + response[i].category.name + '"' + 'data-toggle="modal" data-target="#completeModal">'
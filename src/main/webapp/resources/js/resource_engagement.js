@@ -0,0 +1,44 @@
+/**
+ * Counts a click on the link of a resource shown by the search, the category
+ * listings or the recommendations. Links marked with the class
+ * 'tracked-resource-link' and a 'data-resourceid' attribute are counted when
+ * clicked, and so are the resources picked from the search autocomplete. The
+ * handlers are bound once even when this script is included more than once.
+ */
+$(document).off("click.resourceEngagement").on("click.resourceEngagement", ".tracked-resource-link", function() {
+    recordResourceClick($(this).data("resourceid"));
+});
+
+$(document).off("autocompleteselect.resourceEngagement").on("autocompleteselect.resourceEngagement",
+        "#searchAutoComplete", function(event, ui) {
+            recordResourceClick(ui.item.id);
+        });
+
+/**
+ * Makes an AJAX POST call counting a click on the link of a resource. The
+ * response is ignored, so a failure never gets in the way of the user.
+ *
+ * @param resourceId
+ *            the id of the clicked resource. Nothing is counted when it is
+ *            not a positive number.
+ */
+function recordResourceClick(resourceId) {
+    resourceId = parseInt(resourceId);
+    if (!(resourceId > 0)) {
+        return;
+    }
+    var csrfToken = $("meta[name='_csrf']").attr("content");
+    var csrfHeader = $("meta[name='_csrf_header']").attr("content");
+    $.ajax({
+        type : "POST",
+        url : "/EvaluationFramework/app/resource/click",
+        data : {
+            id : resourceId
+        },
+        beforeSend : function(xhr) {
+            if (csrfHeader && csrfToken) {
+                xhr.setRequestHeader(csrfHeader, csrfToken);
+            }
+        }
+    });
+}
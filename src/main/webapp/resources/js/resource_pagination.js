@@ -1,6 +1,5 @@
 function changePage(pageNumber) {
-    document.getElementById("currentpage").value = pageNumber;
-    document.getElementById("currentpage").click();
+    submitPage(pageNumber, "");
 }
 
 function changeToPreviousPage() {
@@ -10,5 +9,12 @@ function changeToPreviousPage() {
 
 function changeToNextPage() {
     var currentPageNumber = parseInt(document.getElementById("currentpage").value);
-    changePage(++currentPageNumber);
+    // Seeks past the last resource shown instead of skipping the earlier pages.
+    submitPage(++currentPageNumber, document.getElementById("nextafter").value);
+}
+
+function submitPage(pageNumber, after) {
+    document.getElementById("after").value = after;
+    document.getElementById("currentpage").value = pageNumber;
+    document.getElementById("currentpage").click();
 }
\ No newline at end of file
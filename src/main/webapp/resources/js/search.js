@@ -141,15 +141,17 @@ function dataValueCategory(item) {
 }
 
 /**
- * Assigns the String to label and value property of a new object.
+ * Assigns the String to label and value property of a new object, and the id
+ * of the resource to its id property.
  * 
  * @param item
  *            value assigned to a new object.
- * @returns Object with {label, value} attributes.
+ * @returns Object with {label, value, id} attributes.
  */
 function dataValueResource(item) {
     return {
         label : item.resourceName,
-        value : item.resourceName
+        value : item.resourceName,
+        id : item.resourceId
     }
 }
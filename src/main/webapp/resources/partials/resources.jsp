@@ -13,7 +13,7 @@
 		<tbody>
 			<tr ng-repeat="resource in resources">
 				<td><label>{{resource.description}}</label></td>
-				<td><label>{{resource.resourceLink}}</label></td>
+				<td><a class="tracked-resource-link" data-resourceid="{{resource.resourceId}}" ng-href="{{resource.resourceLink}}" target="_blank">{{resource.resourceLink}}</a></td>
 				<td><label>{{resource.requiredSkillLevel}}</label></td>
 			</tr>
 		</tbody>
@@ -0,0 +1,39 @@
+<div class="widget-wrapper">
+    <div class="widget-header">
+        <h2><fmt:message key="homepage.trending.widget.title" /></h2>
+    </div>
+    <div class="widget-body well">
+        <c:if test="${trendingResources.isEmpty() }">
+            <div class="widget-message">
+                <span>${trendingWidgetMessage }</span>
+            </div>
+        </c:if>
+        <c:if test="${!trendingResources.isEmpty() }">
+            <table id="trendingResourcesTable" class="table table-striped table-hover">
+                <thead class="table-header">
+                    <tr>
+                        <th scope="col"><fmt:message key="common.tableHeader.name" /></th>
+                        <th scope="col"><fmt:message key="homepage.trending.widget.tableHeader.completions" /></th>
+                    </tr>
+                </thead>
+                <tbody>
+                    <c:forEach items="${trendingResources}" var="trendingResource">
+                        <tr data-resourceId="${trendingResource.resource.resourceId}">
+                            <td><a href="${trendingResource.resource.resourceLink}" target="_blank">${trendingResource.resource.resourceName}</a></td>
+                            <td>${trendingResource.completionCount}</td>
+                        </tr>
+                    </c:forEach>
+                </tbody>
+            </table>
+        </c:if>
+    </div>
+    <div class="widget-footer">
+        <c:if test="${!trendingCategories.isEmpty() }">
+            <span><fmt:message key="homepage.trending.widget.label.categories" />
+                <c:forEach items="${trendingCategories}" var="trendingCategory" varStatus="status">
+                    ${trendingCategory.category.name}<c:if test="${!status.last }">, </c:if>
+                </c:forEach>
+            </span>
+        </c:if>
+    </div>
+</div>
@@ -6,13 +6,17 @@ import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -40,9 +44,8 @@ import com.cerner.devcenter.education.models.Category;
  */
 public class CategoryDAOImplTest {
 
-    private static final String GET_MAX_ID_QUERY = "SELECT MAX(id) FROM category";
     private static final String DELETE_CATEGORY_QUERY = "DELETE FROM category WHERE id=?";
-    private static final String INSERT_CATEGORY_QUERY = "INSERT INTO category (name, description, difficulty_level) VALUES(?,?,?)";
+    private static final String INSERT_CATEGORY_QUERY = "INSERT INTO category (name, description, difficulty_level) VALUES(?,?,?) RETURNING id";
     private static final String QUERY_UPDATE_CATEGORY = "UPDATE category SET name = ?, description = ? WHERE id = ?";
 
     private static final int VALID_CATEGORY_ID = 5;
@@ -59,6 +62,7 @@ public class CategoryDAOImplTest {
     private static final String EXPECTED_MSG_NULL_CATEGORY = "Category cannot be null";
     private static final String EXPECTED_MSG_ZERO_CATEGORY_ID = "Category id cannot be zero";
     private static final String EXPECTED_MSG_NULL_CATEGORY_NAME = "Category name cannot be empty";
+    private static final String EXPECTED_MSG_INVALID_CATEGORY_NAMES = "Category names cannot be null or empty";
     private static final String EXPECTED_MSG_NULL_CATEGORY_DESCRIPTION = "Category description cannot be empty";
     private static final String EXPECTED_MSG_INVALID_DIFFICULTY_LEVEL = "difficultyLevel must be on a scale of 1-5";
 
@@ -97,9 +101,8 @@ public class CategoryDAOImplTest {
         categoryIds = new ArrayList<>();
         categoryRowMapper = categoryDAOImpl.new CategoryRowMapper();
         categoryDAOImpl.new CategoriesByIdsResultExtractor();
-        when(jdbcTemplate.queryForObject(GET_MAX_ID_QUERY, Integer.class)).thenReturn(VALID_CATEGORY_ID);
-        when(jdbcTemplate.update(INSERT_CATEGORY_QUERY, VALID_CATEGORY_NAME, VALID_CATEGORY_DESCRIPTION,
-                VALID_DIFFICULTY_LEVEL)).thenReturn(1);
+        when(jdbcTemplate.queryForObject(INSERT_CATEGORY_QUERY, Integer.class, VALID_CATEGORY_NAME,
+                VALID_CATEGORY_DESCRIPTION, VALID_DIFFICULTY_LEVEL)).thenReturn(VALID_CATEGORY_ID);
         when(resultSet.getInt(CATEGORY_ID)).thenReturn(VALID_CATEGORY_ID);
         when(resultSet.getString(CATEGORY_DESCRIPTION)).thenReturn(VALID_CATEGORY_DESCRIPTION);
         when(resultSet.getString(CATEGORY_NAME)).thenReturn(VALID_CATEGORY_NAME);
@@ -219,22 +222,7 @@ public class CategoryDAOImplTest {
     /**
      * This function tests {@link CategoryDAOImpl#addCategory(Category)}
      * functionality and expects {@link DAOException} when
-     * {@link JdbcTemplate#queryForObject(String, Class)} throws
-     * {@link DataAccessException}.
-     *
-     * @throws DAOException
-     */
-    @Test(expected = DAOException.class)
-    public void testAddCategoryWhenJdbcTemplateOfPrivateMethodThrowsDataAccessException() throws DAOException {
-        category.setDifficultyLevel(VALID_DIFFICULTY_LEVEL);
-        when(jdbcTemplate.queryForObject(GET_MAX_ID_QUERY, Integer.class)).thenThrow(dataAccessException);
-        categoryDAOImpl.addCategory(category);
-    }
-
-    /**
-     * This function tests {@link CategoryDAOImpl#addCategory(Category)}
-     * functionality and expects {@link DAOException} when
-     * {@link JdbcTemplate#update(String, Object...)} throws
+     * {@link JdbcTemplate#queryForObject(String, Class, Object...)} throws
      * {@link DataAccessException}
      *
      * @throws DAOException
@@ -242,8 +230,8 @@ public class CategoryDAOImplTest {
     @Test(expected = DAOException.class)
     public void testAddCategoryWhenJdbcTemplateThrowsDataAccessException() throws DAOException {
         category.setDifficultyLevel(VALID_DIFFICULTY_LEVEL);
-        when(jdbcTemplate.update(INSERT_CATEGORY_QUERY, VALID_CATEGORY_NAME, VALID_CATEGORY_DESCRIPTION,
-                VALID_DIFFICULTY_LEVEL))
+        when(jdbcTemplate.queryForObject(INSERT_CATEGORY_QUERY, Integer.class, VALID_CATEGORY_NAME,
+                VALID_CATEGORY_DESCRIPTION, VALID_DIFFICULTY_LEVEL))
                 .thenThrow(dataAccessException);
         categoryDAOImpl.addCategory(category);
     }
@@ -261,6 +249,9 @@ public class CategoryDAOImplTest {
         assertEquals(VALID_CATEGORY_NAME, newCategory.getName());
         assertEquals(VALID_CATEGORY_DESCRIPTION, newCategory.getDescription());
         assertEquals(VALID_CATEGORY_ID, newCategory.getId());
+        verify(jdbcTemplate, times(1)).queryForObject(INSERT_CATEGORY_QUERY, Integer.class, VALID_CATEGORY_NAME,
+                VALID_CATEGORY_DESCRIPTION, VALID_DIFFICULTY_LEVEL);
+        verifyNoMoreInteractions(jdbcTemplate);
     }
 
     /**
@@ -547,4 +538,48 @@ public class CategoryDAOImplTest {
         assertEquals(VALID_CATEGORY_NAME, newCategory.getName());
         assertEquals(VALID_CATEGORY_DESCRIPTION, newCategory.getDescription());
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that {@link CategoryDAOImpl#getByNames(Collection)} maps every
+     * returned category by its name.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetByNames() throws DAOException {
+        when(namedParameterJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class),
+                any(CategoryRowMapper.class))).thenReturn(categories);
+        final Map<String, Category> categoriesByName = categoryDAOImpl.getByNames(Arrays.asList(VALID_CATEGORY_NAME));
+        assertEquals(1, categoriesByName.size());
+        assertEquals(category, categoriesByName.get(VALID_CATEGORY_NAME));
+    }
+
+    /**
+     * This function tests {@link CategoryDAOImpl#getByNames(Collection)} and
+     * expects {@link IllegalArgumentException} when the names are empty.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetByNamesWithEmptyNames() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(EXPECTED_MSG_INVALID_CATEGORY_NAMES);
+        categoryDAOImpl.getByNames(new ArrayList<String>());
+    }
+
+    /**
+     * This function tests {@link CategoryDAOImpl#getByNames(Collection)} and
+     * expects {@link DAOException} when the query throws
+     * {@link DataAccessException}.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetByNamesWhenQueryThrowsDataAccessException() throws DAOException {
+        when(namedParameterJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class),
+                any(CategoryRowMapper.class))).thenThrow(dataAccessException);
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage(ERROR_GETTING_BY_NAME);
+        categoryDAOImpl.getByNames(Arrays.asList(VALID_CATEGORY_NAME));
+    }
+}
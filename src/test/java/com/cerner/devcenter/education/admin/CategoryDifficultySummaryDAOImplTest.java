@@ -0,0 +1,83 @@
+package com.cerner.devcenter.education.admin;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests the functionalities of {@link CategoryDifficultySummaryDAOImpl}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CategoryDifficultySummaryDAOImplTest {
+
+    private static final String LOCK_CATEGORY_RESOURCE_RELTN_QUERY = "LOCK TABLE category_resource_reltn IN SHARE MODE";
+    private static final List<Integer> DRIFTED_CATEGORY_IDS = Arrays.asList(1, 4);
+    private static final int REBUILT_COUNT = 2;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @InjectMocks
+    private CategoryDifficultySummaryDAOImpl difficultySummaryDAO;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DataAccessException dataAccessException;
+
+    /**
+     * Verifies that the ids of the drifted categories are returned.
+     */
+    @Test
+    public void testGetCategoryIdsWithDriftedDifficultySummary() throws DAOException {
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class))).thenReturn(DRIFTED_CATEGORY_IDS);
+        assertEquals(DRIFTED_CATEGORY_IDS, difficultySummaryDAO.getCategoryIdsWithDriftedDifficultySummary());
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testGetCategoryIdsWithDriftedDifficultySummaryWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class))).thenThrow(dataAccessException);
+        difficultySummaryDAO.getCategoryIdsWithDriftedDifficultySummary();
+    }
+
+    /**
+     * Verifies that the relations are locked before the summaries are rebuilt
+     * and that the number of corrected summaries is returned.
+     */
+    @Test
+    public void testRebuildDifficultySummaries() throws DAOException {
+        when(jdbcTemplate.update(anyString())).thenReturn(REBUILT_COUNT);
+        assertEquals(REBUILT_COUNT, difficultySummaryDAO.rebuildDifficultySummaries());
+        final InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(LOCK_CATEGORY_RESOURCE_RELTN_QUERY);
+        inOrder.verify(jdbcTemplate).update(anyString());
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testRebuildDifficultySummariesWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        when(jdbcTemplate.update(anyString())).thenThrow(dataAccessException);
+        difficultySummaryDAO.rebuildDifficultySummaries();
+    }
+}
@@ -1,15 +1,25 @@
 package com.cerner.devcenter.education.admin;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -48,8 +58,29 @@ public class CategoryResourceRelationDAOImplTest {
     private final static Integer GET_ID_CATEGORY = 1;
     private final static Integer NEGATIVE_ID = -1;
     private final static Integer ZERO_ID = 0;
-    private static final String INSERT_CATEGORY_RESOURCE_QUERY = "INSERT INTO category_resource_reltn (category_id, resource_id) VALUES(?,?)";
-    private final static String DELETE_CATEGORY_RESOURCE_QUERY = "DELETE FROM category_resource_reltn WHERE resource_id=?";
+    private static final String DIFFICULTY_HISTOGRAM = "COUNT(resource_id) AS resource_count, COUNT(CASE WHEN difficulty_level = 1 THEN 1 END) AS skill_level_1, "
+            + "COUNT(CASE WHEN difficulty_level = 2 THEN 1 END) AS skill_level_2, COUNT(CASE WHEN difficulty_level = 3 THEN 1 END) AS skill_level_3, "
+            + "COUNT(CASE WHEN difficulty_level = 4 THEN 1 END) AS skill_level_4, COUNT(CASE WHEN difficulty_level = 5 THEN 1 END) AS skill_level_5";
+    private static final String ADD_RELATIONS_TO_SUMMARY = "INSERT INTO category_difficulty_summary (category_id, resource_count, skill_level_1, skill_level_2, skill_level_3, skill_level_4, skill_level_5) "
+            + "SELECT category_id, " + DIFFICULTY_HISTOGRAM + " FROM added WHERE category_id IN (SELECT id FROM category) GROUP BY category_id "
+            + "ON CONFLICT (category_id) DO UPDATE SET resource_count = category_difficulty_summary.resource_count + EXCLUDED.resource_count, "
+            + "skill_level_1 = category_difficulty_summary.skill_level_1 + EXCLUDED.skill_level_1, "
+            + "skill_level_2 = category_difficulty_summary.skill_level_2 + EXCLUDED.skill_level_2, "
+            + "skill_level_3 = category_difficulty_summary.skill_level_3 + EXCLUDED.skill_level_3, "
+            + "skill_level_4 = category_difficulty_summary.skill_level_4 + EXCLUDED.skill_level_4, "
+            + "skill_level_5 = category_difficulty_summary.skill_level_5 + EXCLUDED.skill_level_5";
+    private static final String INSERT_CATEGORY_RESOURCE_QUERY = "WITH added AS (INSERT INTO category_resource_reltn (category_id, resource_id) VALUES(?,?) "
+            + "RETURNING category_id, resource_id, difficulty_level) " + ADD_RELATIONS_TO_SUMMARY;
+    private final static String DELETE_CATEGORY_RESOURCE_QUERY = "WITH removed AS (DELETE FROM category_resource_reltn WHERE resource_id=? "
+            + "RETURNING category_id, resource_id, difficulty_level) UPDATE category_difficulty_summary s SET "
+            + "resource_count = s.resource_count - r.resource_count, skill_level_1 = s.skill_level_1 - r.skill_level_1, "
+            + "skill_level_2 = s.skill_level_2 - r.skill_level_2, skill_level_3 = s.skill_level_3 - r.skill_level_3, "
+            + "skill_level_4 = s.skill_level_4 - r.skill_level_4, skill_level_5 = s.skill_level_5 - r.skill_level_5 "
+            + "FROM (SELECT category_id, " + DIFFICULTY_HISTOGRAM + " FROM removed GROUP BY category_id) r "
+            + "WHERE s.category_id = r.category_id";
+    private static final String INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY = "WITH added AS (INSERT INTO category_resource_reltn (category_id, resource_id, difficulty_level) VALUES(?,?,?) "
+            + "RETURNING category_id, resource_id, difficulty_level) " + ADD_RELATIONS_TO_SUMMARY;
+    private final static Integer DIFFICULTY_LEVEL = 3;
 
     /**
      * Sets the up.
@@ -257,4 +288,52 @@ public class CategoryResourceRelationDAOImplTest {
         when(jdbcTemplate.update(DELETE_CATEGORY_RESOURCE_QUERY, GET_ID_RESOURCE)).thenThrow(dataAccessEx);
         categoryResourceDAOImpl.deleteById(GET_ID_RESOURCE);
     }
+
+    /**
+     * Verifies that {@link CategoryResourceRelationDAOImpl#addMappingsToDB(List)}
+     * writes one row per category of every resource, with its difficulty, in a
+     * single batch.
+     *
+     * @throws DAOException
+     */
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testAddMappingsToDBForResourceList() throws DAOException {
+        final Map<Integer, Integer> difficultyForCategory = new HashMap<>();
+        difficultyForCategory.put(GET_ID_CATEGORY, DIFFICULTY_LEVEL);
+        resource.setResourceDifficultyForCategory(difficultyForCategory);
+
+        categoryResourceDAOImpl.addMappingsToDB(Arrays.asList(resource));
+
+        final ArgumentCaptor<List> batchArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY), batchArgs.capture());
+        assertEquals(1, batchArgs.getValue().size());
+        assertArrayEquals(new Object[] { GET_ID_CATEGORY, GET_ID_RESOURCE, DIFFICULTY_LEVEL },
+                (Object[]) batchArgs.getValue().get(0));
+    }
+
+    /**
+     * Verifies that {@link CategoryResourceRelationDAOImpl#addMappingsToDB(List)}
+     * throws {@link IllegalArgumentException} when the list is empty.
+     *
+     * @throws DAOException
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddMappingsToDBForEmptyResourceList() throws DAOException {
+        categoryResourceDAOImpl.addMappingsToDB(Collections.<Resource> emptyList());
+    }
+
+    /**
+     * Verifies that {@link CategoryResourceRelationDAOImpl#addMappingsToDB(List)}
+     * throws {@link DAOException} when the batch insert fails.
+     *
+     * @throws DAOException
+     */
+    @Test(expected = DAOException.class)
+    public void testAddMappingsToDBForResourceListDAOException() throws DAOException {
+        resource.setResourceDifficultyForCategory(Collections.singletonMap(GET_ID_CATEGORY, DIFFICULTY_LEVEL));
+        when(jdbcTemplate.batchUpdate(eq(INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY), anyListOf(Object[].class)))
+                .thenThrow(dataAccessEx);
+        categoryResourceDAOImpl.addMappingsToDB(Arrays.asList(resource));
+    }
 }
@@ -0,0 +1,218 @@
+package com.cerner.devcenter.education.admin;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import com.cerner.devcenter.education.utils.SqlArrayValue;
+
+/**
+ * Measures how well prepared statements and their plans are reused for an
+ * IN-list query, first with one placeholder per element (the SQL text changes
+ * with every list length) and then with the list bound as a single array
+ * through {@link SqlArrayValue} (the SQL text never changes).
+ * <p>
+ * The JDBC driver only keeps a server-side prepared statement, and so its
+ * plan, for as long as the same {@link PreparedStatement} is reused, so the
+ * benchmark keeps a per-connection LRU cache of prepared statements keyed by
+ * SQL text, as a statement-caching pool or a newer driver would. A cache hit
+ * is an execution that reuses an already prepared statement and plan; a miss
+ * parses and plans the query again.
+ * <p>
+ * The benchmark needs a PostgreSQL database. Everything is created in a
+ * scratch schema which is dropped afterwards, so it can be pointed at a
+ * development database:
+ *
+ * <pre>
+ * java -cp ... InListPlanCacheBenchmark jdbc:postgresql://localhost:5432/continue_education postgres postgres 5000 300
+ * </pre>
+ *
+ * The arguments are the JDBC url, user, password, number of queries per run
+ * and maximum list length.
+ */
+public class InListPlanCacheBenchmark {
+
+    private static final int DEFAULT_QUERIES = 5000;
+    private static final int DEFAULT_MAXIMUM_LIST_LENGTH = 300;
+    private static final int TAGS = 10000;
+    private static final int STATEMENT_CACHE_SIZE = 256;
+    private static final long SEED = 42;
+    private static final String SCHEMA = "in_list_plan_cache_benchmark";
+    private static final String EXPANDED_QUERY = "SELECT tag_id, tag_name FROM tag WHERE lower(tag_name) in (%s)";
+    private static final String ARRAY_QUERY = "SELECT tag_id, tag_name FROM tag WHERE lower(tag_name) = ANY(?)";
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        String user = args[1];
+        String password = args[2];
+        int queries = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_QUERIES;
+        int maximumListLength = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_MAXIMUM_LIST_LENGTH;
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, user, password, true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        try {
+            createTables(jdbcTemplate);
+            System.out.printf("Generated %d tags, list lengths 1..%d, statement cache of %d%n", TAGS,
+                    maximumListLength, STATEMENT_CACHE_SIZE);
+            Connection connection = dataSource.getConnection();
+
+            report("expanded", connection, jdbcTemplate, queries, maximumListLength, new Query() {
+                @Override
+                public String sql(List<String> names) {
+                    StringBuilder placeholders = new StringBuilder("?");
+                    for (int i = 1; i < names.size(); i++) {
+                        placeholders.append(",?");
+                    }
+                    return String.format(EXPANDED_QUERY, placeholders);
+                }
+
+                @Override
+                public void bind(PreparedStatement statement, List<String> names) throws SQLException {
+                    for (int i = 0; i < names.size(); i++) {
+                        statement.setString(i + 1, names.get(i));
+                    }
+                }
+            });
+            report("array", connection, jdbcTemplate, queries, maximumListLength, new Query() {
+                @Override
+                public String sql(List<String> names) {
+                    return ARRAY_QUERY;
+                }
+
+                @Override
+                public void bind(PreparedStatement statement, List<String> names) throws SQLException {
+                    SqlArrayValue.ofStrings(names).setTypeValue(statement, 1, SqlTypeValue.TYPE_UNKNOWN, null);
+                }
+            });
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    private interface Query {
+        String sql(List<String> names);
+
+        void bind(PreparedStatement statement, List<String> names) throws SQLException;
+    }
+
+    /**
+     * Per-connection LRU cache of prepared statements keyed by SQL text.
+     */
+    private static class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+
+        private static final long serialVersionUID = 1L;
+
+        StatementCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() <= STATEMENT_CACHE_SIZE) {
+                return false;
+            }
+            try {
+                eldest.getValue().close();
+            } catch (SQLException sqlException) {
+                throw new IllegalStateException(sqlException);
+            }
+            return true;
+        }
+
+        void closeAll() throws SQLException {
+            for (PreparedStatement statement : values()) {
+                statement.close();
+            }
+            clear();
+        }
+    }
+
+    private static void createTables(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA + ", public");
+        jdbcTemplate.execute("CREATE TABLE tag (tag_id serial PRIMARY KEY, tag_name character varying(50) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO tag(tag_name) SELECT 'Tag-' || i FROM generate_series(1, ?) AS i", TAGS);
+        jdbcTemplate.execute("CREATE INDEX tag_lower_name_idx ON tag (lower(tag_name))");
+        jdbcTemplate.execute("ANALYZE tag");
+    }
+
+    private static void report(
+            String mode,
+            Connection connection,
+            JdbcTemplate jdbcTemplate,
+            int queries,
+            int maximumListLength,
+            Query query) throws Exception {
+        Random random = new Random(SEED);
+        StatementCache cache = new StatementCache();
+        Set<String> distinctQueries = new HashSet<>();
+        long[] latencies = new long[queries];
+        long hits = 0;
+        long rows = 0;
+        int serverPreparedStatements;
+        try {
+            for (int i = 0; i < queries; i++) {
+                List<String> names = randomNames(random, 1 + random.nextInt(maximumListLength));
+                long start = System.nanoTime();
+                String sql = query.sql(names);
+                PreparedStatement statement = cache.get(sql);
+                if (statement == null) {
+                    statement = connection.prepareStatement(sql);
+                    cache.put(sql, statement);
+                } else {
+                    hits++;
+                }
+                query.bind(statement, names);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                    }
+                }
+                latencies[i] = System.nanoTime() - start;
+                distinctQueries.add(sql);
+            }
+            serverPreparedStatements = jdbcTemplate.queryForObject("SELECT count(*) FROM pg_prepared_statements",
+                    Integer.class);
+        } finally {
+            cache.closeAll();
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-9s %5d queries, %4d distinct SQL texts, %4d server-prepared, hit rate %5.1f%%,"
+                + " %6.1f rows/query, p50 %7.2f ms, p99 %7.2f ms, max %7.2f ms%n", mode, queries,
+                distinctQueries.size(), serverPreparedStatements, 100.0 * hits / queries, rows / (double) queries,
+                toMillis(percentile(latencies, 50)), toMillis(percentile(latencies, 99)),
+                toMillis(latencies[latencies.length - 1]));
+    }
+
+    private static List<String> randomNames(Random random, int length) {
+        List<String> names = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            names.add("tag-" + (1 + random.nextInt(TAGS)));
+        }
+        return names;
+    }
+
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -12,6 +13,7 @@ import java.net.URL;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -34,6 +36,7 @@ import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * This class exists to test the {@link ResourceCategoryRelationDAOImpl} class.
@@ -49,6 +52,7 @@ public class ResourceCategoryRelationDAOImplTest {
     private static final int VALID_RESOURCE_ID = 3;
     private static final int RESOURCE_LIMIT = 10;
     private static final int OFFSET = 10;
+    private static final int AFTER_RESOURCE_ID = 120;
     private static final int VALID_DIFFICULTY_LEVEL = 3;
     private static final int NEGATIVE_ID = -3;
     private static final int GET_ID_RESOURCE = 1;
@@ -64,7 +68,19 @@ public class ResourceCategoryRelationDAOImplTest {
     private static final String VALID_RESOURCE_TYPE_NAME = "YouTube";
     private static final String VALID_RESOURCE_OWNER = "Owner";
 
-    private static final String INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY = "INSERT into category_resource_reltn (category_id, resource_id, difficulty_level) VALUES(?,?,?)";
+    private static final String DIFFICULTY_HISTOGRAM = "COUNT(resource_id) AS resource_count, COUNT(CASE WHEN difficulty_level = 1 THEN 1 END) AS skill_level_1, "
+            + "COUNT(CASE WHEN difficulty_level = 2 THEN 1 END) AS skill_level_2, COUNT(CASE WHEN difficulty_level = 3 THEN 1 END) AS skill_level_3, "
+            + "COUNT(CASE WHEN difficulty_level = 4 THEN 1 END) AS skill_level_4, COUNT(CASE WHEN difficulty_level = 5 THEN 1 END) AS skill_level_5";
+    private static final String ADD_RELATIONS_TO_SUMMARY = "INSERT INTO category_difficulty_summary (category_id, resource_count, skill_level_1, skill_level_2, skill_level_3, skill_level_4, skill_level_5) "
+            + "SELECT category_id, " + DIFFICULTY_HISTOGRAM + " FROM added WHERE category_id IN (SELECT id FROM category) GROUP BY category_id "
+            + "ON CONFLICT (category_id) DO UPDATE SET resource_count = category_difficulty_summary.resource_count + EXCLUDED.resource_count, "
+            + "skill_level_1 = category_difficulty_summary.skill_level_1 + EXCLUDED.skill_level_1, "
+            + "skill_level_2 = category_difficulty_summary.skill_level_2 + EXCLUDED.skill_level_2, "
+            + "skill_level_3 = category_difficulty_summary.skill_level_3 + EXCLUDED.skill_level_3, "
+            + "skill_level_4 = category_difficulty_summary.skill_level_4 + EXCLUDED.skill_level_4, "
+            + "skill_level_5 = category_difficulty_summary.skill_level_5 + EXCLUDED.skill_level_5";
+    private static final String INSERT_CATEGORY_RESOURCE_DIFFICULTY_QUERY = "WITH added AS (INSERT into category_resource_reltn (category_id, resource_id, difficulty_level) VALUES(?,?,?) "
+            + "RETURNING category_id, resource_id, difficulty_level) " + ADD_RELATIONS_TO_SUMMARY;
 
     private static final String RETRIVING_RESOURCES_ERROR_MESSAGE = "Error while retrieving all resources and their corresponding average ratings for a particular category";
     private static final String INVALID_CATEGORY_NAME_ERROR_MESSAGE = "Category Name can't be blank/empty/null";
@@ -714,4 +730,124 @@ public class ResourceCategoryRelationDAOImplTest {
                 resourceCategoryRelationDAOImpl
                         .searchResourcesByCategoryNameAndDifficultyLevel(VALID_CATEGORY_NAME, VALID_DIFFICULTY_LEVEL));
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesAndDifficultyLevelByCategoryIdAfter(int, int, int)}
+     * seeks past the given resource id instead of skipping an offset.
+     */
+    @Test
+    public void testGetResourcesAndDifficultyLevelByCategoryIdAfter() throws DAOException {
+        final List<ResourceCategoryRelation> relations = Collections.singletonList(resourceCategory);
+        when(jdbcTemplate.query(anyString(), any(ResourceCategoryRelationRowMapper.class), eq(VALID_CATEGORY_ID),
+                eq(AFTER_RESOURCE_ID), eq(RESOURCE_LIMIT))).thenReturn(relations);
+        assertEquals(relations, resourceCategoryRelationDAOImpl
+                .getResourcesAndDifficultyLevelByCategoryIdAfter(VALID_CATEGORY_ID, AFTER_RESOURCE_ID, RESOURCE_LIMIT));
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesAndDifficultyLevelByCategoryIdAfter(int, int, int)}
+     * to throw {@link IllegalArgumentException} when the resource id to read
+     * after is negative.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourcesAndDifficultyLevelByCategoryIdAfterWhenAfterIsNegative() throws DAOException {
+        resourceCategoryRelationDAOImpl.getResourcesAndDifficultyLevelByCategoryIdAfter(VALID_CATEGORY_ID, NEGATIVE_ID,
+                RESOURCE_LIMIT);
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesByCategoryIdAndTypeIdAfter(int, int, int, int)}
+     * seeks past the given resource id within the resource type.
+     */
+    @Test
+    public void testGetResourcesByCategoryIdAndTypeIdAfter() throws DAOException {
+        final List<ResourceCategoryRelation> relations = Collections.singletonList(resourceCategory);
+        when(jdbcTemplate.query(anyString(), any(ResourceCategoryRelationRowMapper.class), eq(VALID_CATEGORY_ID),
+                eq(VALID_RESOURCE_TYPE_ID), eq(AFTER_RESOURCE_ID), eq(RESOURCE_LIMIT))).thenReturn(relations);
+        assertEquals(relations, resourceCategoryRelationDAOImpl.getResourcesByCategoryIdAndTypeIdAfter(
+                VALID_CATEGORY_ID, VALID_RESOURCE_TYPE_ID, AFTER_RESOURCE_ID, RESOURCE_LIMIT));
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesByCategoryIdAndTypeIdAfter(int, int, int, int)}
+     * to throw {@link DAOException} when {@link JdbcTemplate} throws
+     * {@link DataAccessException}.
+     */
+    @Test(expected = DAOException.class)
+    public void testGetResourcesByCategoryIdAndTypeIdAfterWhenDatabaseFails() throws DAOException {
+        when(jdbcTemplate.query(anyString(), any(ResourceCategoryRelationRowMapper.class), anyInt(), anyInt(),
+                anyInt(), anyInt())).thenThrow(dataAccessException);
+        resourceCategoryRelationDAOImpl.getResourcesByCategoryIdAndTypeIdAfter(VALID_CATEGORY_ID,
+                VALID_RESOURCE_TYPE_ID, AFTER_RESOURCE_ID, RESOURCE_LIMIT);
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesAndAverageRatingsAfter(int, int)}
+     * seeks past the given resource id.
+     */
+    @Test
+    public void testGetResourcesAndAverageRatingsAfter() throws DAOException {
+        final List<ResourceCategoryRelation> relations = Collections.singletonList(resourceCategory);
+        when(jdbcTemplate.query(anyString(), any(ResourceCategoryRelationAndAverageRatingRowMapper.class),
+                eq(AFTER_RESOURCE_ID), eq(RESOURCE_LIMIT))).thenReturn(relations);
+        assertEquals(relations,
+                resourceCategoryRelationDAOImpl.getResourcesAndAverageRatingsAfter(AFTER_RESOURCE_ID, RESOURCE_LIMIT));
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesAndAverageRatingsAfter(int, int)}
+     * to throw {@link IllegalArgumentException} when the limit is 0.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourcesAndAverageRatingsAfterWhenLimitIsZero() throws DAOException {
+        resourceCategoryRelationDAOImpl.getResourcesAndAverageRatingsAfter(AFTER_RESOURCE_ID, 0);
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesAndAverageRatingsByIds(int, int, java.util.Collection)}
+     * reads the given resources of the category and difficulty level.
+     */
+    @Test
+    public void testGetResourcesAndAverageRatingsByIds() throws DAOException {
+        final List<ResourceCategoryRelation> relations = Collections.singletonList(resourceCategory);
+        final List<Integer> resourceIds = Arrays.asList(VALID_RESOURCE_ID, GET_ID_RESOURCE);
+        when(jdbcTemplate.query(anyString(), any(ResourceCategoryRelationAndAverageRatingRowMapper.class),
+                eq(VALID_CATEGORY_ID), eq(VALID_DIFFICULTY_LEVEL), eq(SqlArrayValue.ofIntegers(resourceIds))))
+                        .thenReturn(relations);
+        assertEquals(relations, resourceCategoryRelationDAOImpl.getResourcesAndAverageRatingsByIds(VALID_CATEGORY_ID,
+                VALID_DIFFICULTY_LEVEL, resourceIds));
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesAndAverageRatingsByIds(int, int, java.util.Collection)}
+     * to throw {@link IllegalArgumentException} when no resource ids are
+     * given.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourcesAndAverageRatingsByIdsWhenIdsAreEmpty() throws DAOException {
+        resourceCategoryRelationDAOImpl.getResourcesAndAverageRatingsByIds(VALID_CATEGORY_ID, VALID_DIFFICULTY_LEVEL,
+                Collections.<Integer> emptyList());
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationDAOImpl#getResourcesAndAverageRatingsByIds(int, int, java.util.Collection)}
+     * to throw a {@link DAOException} when there's an error in retrieving from
+     * the database.
+     */
+    @Test(expected = DAOException.class)
+    public void testGetResourcesAndAverageRatingsByIdsThrowsException() throws DAOException {
+        when(jdbcTemplate.query(anyString(), any(ResourceCategoryRelationAndAverageRatingRowMapper.class), anyInt(),
+                anyInt(), any(SqlArrayValue.class))).thenThrow(dataAccessException);
+        resourceCategoryRelationDAOImpl.getResourcesAndAverageRatingsByIds(VALID_CATEGORY_ID, VALID_DIFFICULTY_LEVEL,
+                Arrays.asList(VALID_RESOURCE_ID));
+    }
+}
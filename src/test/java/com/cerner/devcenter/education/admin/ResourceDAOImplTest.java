@@ -1,12 +1,16 @@
 package com.cerner.devcenter.education.admin;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
@@ -14,26 +18,36 @@ import java.net.URL;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import java.util.Set;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.dao.DataAccessException;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 
 import com.cerner.devcenter.education.admin.ResourceDAOImpl.ResourceRowMapper;
+import com.cerner.devcenter.education.admin.ResourceDAOImpl.ResourceWithStatusRowMapper;
 import com.cerner.devcenter.education.helpers.HttpURLValidator;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceStatus;
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 /**
  * This class exists to test the {@link ResourceDAOImpl} class.
@@ -51,10 +65,8 @@ import com.cerner.devcenter.education.models.ResourceType;
 @RunWith(MockitoJUnitRunner.class)
 public class ResourceDAOImplTest {
 
-    private static final String GET_MAX_ID_QUERY = "SELECT MAX(resource_id) FROM resource";
-    private static final String INSERT_RESOURCE = "INSERT INTO resource (description, name, link, type_id, resource_owner, status) VALUES(?,?,?,?,?,?::status)";
+    private static final String INSERT_RESOURCE = "INSERT INTO resource (description, name, link, type_id, resource_owner, status) VALUES(?,?,?,?,?,?::status) RETURNING resource_id";
     private static final String INSERT_RESOURCE_QUERY = "INSERT INTO resource (description, name, link, type_id, resource_owner) VALUES(?,?,?,?,?)";
-    private static final String RESOURCE_COUNT_QUERY = "SELECT count(*) FROM resource r INNER JOIN category_resource_reltn c on r.resource_id=c.resource_id WHERE c.category_id=?";
     private static final String GET_RESOURCE_DESCRIPTION_BY_ID_QUERY = "SELECT description FROM resource WHERE resource_id = ?";
     private static final String EDIT_RESOURCE_QUERY = "SELECT type_id FROM type WHERE type_name=?";
 
@@ -69,7 +81,8 @@ public class ResourceDAOImplTest {
     private static final String WRONG_URL = "wrongurl//.com";
     private static final int CATEGORY_ID = 5;
     private static final URL STATIC_URL;
-    private static final String EMPTY_RESULT_ERROR_MESSAGE = "Error: the specified query did not return any results";
+    private static final String DATA_RETRIEVAL_ERROR_MESSAGE = "Error retrieving data from database";
+    private static final int SEARCH_LIMIT = 100;
     private static final int MAX_RESOURCE_NUMBER = 5;
     private static final int VALID_RESOURCE_TYPE_ID = 4;
     private static final String VALID_RESOURCE_TYPE_NAME = "EBook";
@@ -99,6 +112,11 @@ public class ResourceDAOImplTest {
     private static final String INVALID_ID = "The id is invalid";
     private static final String RESOURCE_STATUS_NULL_ERROR_MESSAGE = "Resource status cannot be null";
     private static final String RESOURCE_STATUS_INVALID = "Resource status must be Available/Pending/Deleted";
+    private static final String RESOURCE_NAMES_INVALID = "Resource names cannot be null or empty";
+    private static final String RESOURCE_LIST_INVALID = "Resource list cannot be null or empty";
+    private static final String RESERVE_RESOURCE_IDS = "SELECT nextval('resource_resource_id_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_RESOURCE_WITH_ID = "INSERT INTO resource (resource_id, description, name, link, type_id, resource_owner, status) VALUES(?,?,?,?,?,?,?::status)";
+    private static final String NEW_RESOURCE_NAME = "new resource name";
 
     private Resource resource;
     private ResourceDAOImpl.ResourceRowMapper resourceMapper;
@@ -122,6 +140,8 @@ public class ResourceDAOImplTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
     @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Mock
     private CategoryResourceRelationDAO categoryResourceRelationDAO;
     @Mock
     private DataAccessException dataAccessException;
@@ -141,7 +161,16 @@ public class ResourceDAOImplTest {
         resourceMapper = new ResourceRowMapper();
         newListOfResource = new ArrayList<>();
         newListOfResource.add(resource);
-        when(jdbcTemplate.queryForObject(GET_MAX_ID_QUERY, Integer.class)).thenReturn(VALID_RESOURCE_ID);
+        when(
+                jdbcTemplate.queryForObject(
+                        INSERT_RESOURCE,
+                        Integer.class,
+                        VALID_RESOURCE_DESCRIPTION,
+                        VALID_RESOURCE_NAME,
+                        STATIC_URL.toString(),
+                        VALID_RESOURCE_TYPE.getResourceTypeId(),
+                        VALID_RESOURCE_OWNER,
+                        VALID_RESOURCE_STATUS)).thenReturn(VALID_RESOURCE_ID);
         when(
                 jdbcTemplate.update(
                         INSERT_RESOURCE_QUERY,
@@ -194,30 +223,33 @@ public class ResourceDAOImplTest {
     }
 
     /**
-     * This function tests {@link ResourceDAOImpl#getSearchedResources(String)}
-     * functionality and expects {@link DAOException} when there is error trying
-     * to get all the resources from database.
+     * This function tests
+     * {@link ResourceDAOImpl#getSearchedResources(String, int)} functionality
+     * and expects {@link DAOException} when there is error trying to get the
+     * resources from database.
      */
     @Test
     public void testGetSearchedResourcesThrowsException() throws DAOException {
-        doThrow(EmptyResultDataAccessException.class)
-                .when(jdbcTemplate)
-                .query(anyString(), any(ResourceRowMapper.class), anyString(), anyString());
+        doThrow(dataAccessException)
+                .when(namedParameterJdbcTemplate)
+                .query(anyString(), any(MapSqlParameterSource.class), any(ResourceRowMapper.class));
         expectedException.expect(DAOException.class);
-        expectedException.expectMessage(EMPTY_RESULT_ERROR_MESSAGE);
-        resourceDAOImpl.getSearchedResources(VALID_RESOURCE_NAME);
+        expectedException.expectMessage(DATA_RETRIEVAL_ERROR_MESSAGE);
+        resourceDAOImpl.getSearchedResources(VALID_RESOURCE_NAME, SEARCH_LIMIT);
     }
 
     /**
-     * This function tests {@link ResourceDAOImpl#getSearchedResources(String)}
-     * functionality for valid query for returned input.
+     * This function tests
+     * {@link ResourceDAOImpl#getSearchedResources(String, int)} functionality
+     * for valid query for returned input.
      */
     @Test
     public void testGetSearchedResourcesValidQueryForRows() throws DAOException {
         final List<Resource> resourcesList = createTestResources();
-        when(jdbcTemplate.query(anyString(), any(ResourceRowMapper.class), anyString(), anyString()))
-                .thenReturn(resourcesList);
-        final List<Resource> resultResourcesList = resourceDAOImpl.getSearchedResources(VALID_RESOURCE_NAME);
+        when(namedParameterJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class),
+                any(ResourceRowMapper.class))).thenReturn(resourcesList);
+        final List<Resource> resultResourcesList = resourceDAOImpl.getSearchedResources(VALID_RESOURCE_NAME,
+                SEARCH_LIMIT);
         assertEquals(resourcesList.size(), resultResourcesList.size());
         for (int i = 0; i < resourcesList.size(); i++) {
             final Resource expectedResource = resourcesList.get(i);
@@ -230,40 +262,95 @@ public class ResourceDAOImplTest {
     }
 
     /**
-     * This function tests {@link ResourceDAOImpl#getSearchedResources(String)}
-     * functionality for valid query when result is empty.
+     * This function tests
+     * {@link ResourceDAOImpl#getSearchedResources(String, int)} functionality
+     * for valid query when result is empty.
      */
     @Test
     public void testGetSearchedResourcesValidQueryForEmpty() throws DAOException {
         final List<Resource> resourcesList = Collections.emptyList();
-        when(jdbcTemplate.query(anyString(), any(ResourceRowMapper.class), anyString(), anyString()))
-                .thenReturn(resourcesList);
-        final List<Resource> resultResourcesList = resourceDAOImpl.getSearchedResources(VALID_RESOURCE_NAME);
+        when(namedParameterJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class),
+                any(ResourceRowMapper.class))).thenReturn(resourcesList);
+        final List<Resource> resultResourcesList = resourceDAOImpl.getSearchedResources(VALID_RESOURCE_NAME,
+                SEARCH_LIMIT);
         assertEquals(0, resultResourcesList.size());
     }
 
     /**
-     * This function tests {@link ResourceDAOImpl#getSearchedResources(String)}
-     * functionality and expects {@link IllegalArgumentException} when search
-     * string is empty.
+     * This function tests
+     * {@link ResourceDAOImpl#getSearchedResources(String, int)} binds the
+     * lower-cased search, a substring pattern with the LIKE wildcards in the
+     * search escaped, and the limit.
+     */
+    @Test
+    public void testGetSearchedResourcesBindsEscapedPatternAndLimit() throws DAOException {
+        final ArgumentCaptor<MapSqlParameterSource> parameters = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        when(namedParameterJdbcTemplate.query(anyString(), parameters.capture(), any(ResourceRowMapper.class)))
+                .thenReturn(Collections.<Resource> emptyList());
+        resourceDAOImpl.getSearchedResources("C_Sharp 100%", SEARCH_LIMIT);
+        assertEquals("c_sharp 100%", parameters.getValue().getValue("search"));
+        assertEquals("%c\\_sharp 100\\%%", parameters.getValue().getValue("pattern"));
+        assertEquals(SEARCH_LIMIT, parameters.getValue().getValue("limit"));
+    }
+
+    /**
+     * This function tests
+     * {@link ResourceDAOImpl#getSearchedResources(String, int)} functionality
+     * and expects {@link IllegalArgumentException} when search string is
+     * empty.
      */
     @Test
     public void testGetSearchedResourcesForEmpty() throws DAOException {
         expectedException.expect(IllegalArgumentException.class);
         expectedException.expectMessage(INVALID_STRING);
-        resourceDAOImpl.getSearchedResources("");
+        resourceDAOImpl.getSearchedResources("", SEARCH_LIMIT);
     }
 
     /**
-     * This function tests {@link ResourceDAOImpl#getSearchedResources(String)}
-     * functionality and expects {@link IllegalArgumentException} when search
-     * string is null.
+     * This function tests
+     * {@link ResourceDAOImpl#getSearchedResources(String, int)} functionality
+     * and expects {@link IllegalArgumentException} when search string is null.
      */
     @Test
     public void testGetSearchedResourcesForNull() throws DAOException {
         expectedException.expect(IllegalArgumentException.class);
         expectedException.expectMessage(INVALID_STRING);
-        resourceDAOImpl.getSearchedResources(null);
+        resourceDAOImpl.getSearchedResources(null, SEARCH_LIMIT);
+    }
+
+    /**
+     * This function tests
+     * {@link ResourceDAOImpl#getSearchedResources(String, int)} functionality
+     * and expects {@link IllegalArgumentException} when the limit is not
+     * positive.
+     */
+    @Test
+    public void testGetSearchedResourcesForZeroLimit() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        resourceDAOImpl.getSearchedResources(VALID_RESOURCE_NAME, 0);
+    }
+
+    /**
+     * This function tests {@link ResourceDAOImpl#getAvailableResources()}
+     * returns the rows of the query.
+     */
+    @Test
+    public void testGetAvailableResources() throws DAOException {
+        final List<Resource> resourcesList = createTestResources();
+        when(jdbcTemplate.query(anyString(), any(ResourceRowMapper.class))).thenReturn(resourcesList);
+        assertEquals(resourcesList, resourceDAOImpl.getAvailableResources());
+    }
+
+    /**
+     * This function tests {@link ResourceDAOImpl#getAvailableResources()}
+     * expects {@link DAOException} when the query fails.
+     */
+    @Test
+    public void testGetAvailableResourcesThrowsException() throws DAOException {
+        when(jdbcTemplate.query(anyString(), any(ResourceRowMapper.class))).thenThrow(dataAccessException);
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage(DATA_RETRIEVAL_ERROR_MESSAGE);
+        resourceDAOImpl.getAvailableResources();
     }
 
     /**
@@ -302,6 +389,19 @@ public class ResourceDAOImplTest {
         assertEquals(VALID_RESOURCE_TYPE.getResourceType(), newResource.getResourceType().getResourceType());
     }
 
+    /**
+     * Verifies that {@link ResourceWithStatusRowMapper} also maps the status of
+     * the resource.
+     */
+    @Test
+    public void testMapRowWithStatus() throws SQLException {
+        when(resultSet.getString("status")).thenReturn(VALID_RESOURCE_STATUS);
+        newResource = new ResourceWithStatusRowMapper().mapRow(resultSet, 1);
+        assertEquals(VALID_RESOURCE_ID, newResource.getResourceId());
+        assertEquals(VALID_RESOURCE_NAME, newResource.getResourceName());
+        assertEquals(VALID_RESOURCE_STATUS, newResource.getResourceStatus());
+    }
+
     /**
      * this function tests {@link ResourceRowMapper#mapRow(ResultSet, int)}
      * functionality and expects {@link MalformedURLException} when url returned
@@ -391,34 +491,18 @@ public class ResourceDAOImplTest {
                 VALID_RESOURCE_OWNER, VALID_RESOURCE_STATUS);
     }
 
-    /**
-     * This function tests
-     * {@link ResourceDAOImpl#addResource(String, String, URL, ResourceType, String, String)}
-     * and expects {@link DAOException} when
-     * {@link JdbcTemplate#queryForObject(String, Class)} throws
-     * {@link DataAccessException}.
-     */
-    @Test
-    public void testAddResourceToDBWhenJdbcTemplateOfPrivateMethodThrowsDataAccessException() throws DAOException {
-        expectedException.expect(DAOException.class);
-        expectedException.expectMessage(ERROR_ADDING_RESOURCE);
-        when(jdbcTemplate.queryForObject(GET_MAX_ID_QUERY, Integer.class)).thenThrow(dataAccessException);
-        resourceDAOImpl.addResource(VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME, STATIC_URL, VALID_RESOURCE_TYPE,
-                VALID_RESOURCE_OWNER, VALID_RESOURCE_STATUS);
-    }
-
     /**
      * This function tests
      * {@link ResourceDAOImpl#addResource(String, String, URL, ResourceType, String, String)}
      * functionality and expects {@link DAOException} when
-     * {@link JdbcTemplate#update(String, Object...)} throws
+     * {@link JdbcTemplate#queryForObject(String, Class, Object...)} throws
      * {@link DataAccessException}
      */
     @Test
     public void testAddResourceToDBWhenJdbcTemplateThrowsDataAccessException() throws DAOException {
         expectedException.expect(DAOException.class);
         expectedException.expectMessage(ERROR_ADDING_RESOURCE);
-        when(jdbcTemplate.update(INSERT_RESOURCE, VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME,
+        when(jdbcTemplate.queryForObject(INSERT_RESOURCE, Integer.class, VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME,
                 STATIC_URL.toString(), VALID_RESOURCE_TYPE.getResourceTypeId(), VALID_RESOURCE_OWNER,
                 VALID_RESOURCE_STATUS)).thenThrow(dataAccessException);
         resourceDAOImpl.addResource(VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME, STATIC_URL, VALID_RESOURCE_TYPE,
@@ -435,6 +519,7 @@ public class ResourceDAOImplTest {
         final int actualId = resourceDAOImpl.addResource(VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME, STATIC_URL,
                 VALID_RESOURCE_TYPE, VALID_RESOURCE_OWNER, VALID_RESOURCE_STATUS);
         assertEquals(VALID_RESOURCE_ID, actualId);
+        verifyNoMoreInteractions(jdbcTemplate);
     }
 
     /***
@@ -640,63 +725,131 @@ public class ResourceDAOImplTest {
     }
 
     /**
-     * Helper method to initialize a list of {@link Resource}.
+     * This function tests
+     * {@link ResourceDAOImpl#getResourcesByCategoryIds(Collection)} and
+     * expects {@link IllegalArgumentException} when the ids are empty.
      */
-    private List<Resource> createTestResources() {
-        final List<Resource> resources = new ArrayList<>();
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourcesByCategoryIdsWhenIdsAreEmpty() throws DAOException {
+        resourceDAOImpl.getResourcesByCategoryIds(Collections.<Integer> emptyList());
+    }
 
-        for (int i = 0; i < MAX_RESOURCE_NUMBER; i++) {
-            resources.add(
-                    new Resource(
-                            VALID_RESOURCE_ID + i,
-                            STATIC_URL,
-                            VALID_RESOURCE_DESCRIPTION + i,
-                            VALID_RESOURCE_TYPE));
+    /**
+     * This function tests
+     * {@link ResourceDAOImpl#getResourcesByCategoryIds(Collection)} and
+     * expects {@link IllegalArgumentException} when an id is not positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourcesByCategoryIdsWhenIdIsZero() throws DAOException {
+        resourceDAOImpl.getResourcesByCategoryIds(Arrays.asList(CATEGORY_ID, 0));
+    }
+
+    /**
+     * This function tests
+     * {@link ResourceDAOImpl#getResourcesByCategoryIds(Collection)} and
+     * expects {@link DAOException} when
+     * {@link JdbcTemplate#query(String, RowCallbackHandler, Object...)} throws
+     * {@link DataAccessException}.
+     */
+    @Test(expected = DAOException.class)
+    public void testGetResourcesByCategoryIdsWhenJdbcTemplateThrowsDataAccessException() throws DAOException {
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class),
+                anyObject());
+        resourceDAOImpl.getResourcesByCategoryIds(Arrays.asList(CATEGORY_ID));
+    }
+
+    /**
+     * This function verifies that
+     * {@link ResourceDAOImpl#getResourcesByCategoryIds(Collection)} reads the
+     * resources of every category with one query, the ids bound as one array,
+     * and groups them by category in the order the ids were given, with an
+     * empty list for a category without resources.
+     */
+    @Test
+    public void testGetResourcesByCategoryIdsGroupsByCategory() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> handler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        final Map<Integer, List<Resource>> resourcesByCategoryId = resourceDAOImpl
+                .getResourcesByCategoryIds(Arrays.asList(3, 7, 1, 3));
+        verify(jdbcTemplate).query(anyString(), handler.capture(),
+                eq(SqlArrayValue.ofIntegers(Arrays.asList(3, 7, 1))));
+        when(resultSet.getInt("category_id")).thenReturn(3, 1, 3);
+        for (int row = 0; row < 3; row++) {
+            handler.getValue().processRow(resultSet);
         }
-        return resources;
+        assertEquals(Arrays.asList(3, 7, 1), new ArrayList<>(resourcesByCategoryId.keySet()));
+        assertEquals(2, resourcesByCategoryId.get(3).size());
+        assertEquals(VALID_RESOURCE_NAME, resourcesByCategoryId.get(3).get(0).getResourceName());
+        assertEquals(Collections.emptyList(), resourcesByCategoryId.get(7));
+        assertEquals(1, resourcesByCategoryId.get(1).size());
     }
 
     /**
-     * Verifies that {@link ResourceDAOImpl#getResourceCountByCategoryId(int)}
-     * expects {@link IllegalArgumentException} when Category Id is negative.
+     * This function tests
+     * {@link ResourceDAOImpl#getAvailableResourcesByIds(Collection)} and
+     * expects {@link IllegalArgumentException} when the ids are empty.
      */
     @Test(expected = IllegalArgumentException.class)
-    public void testGetResourceCountByCategoryIdWhenIdIsNegative() throws DAOException {
-        resourceDAOImpl.getResourceCountByCategoryId(-1);
+    public void testGetAvailableResourcesByIdsWhenIdsAreEmpty() throws DAOException {
+        resourceDAOImpl.getAvailableResourcesByIds(Collections.<Integer> emptyList());
     }
 
     /**
-     * Verifies that {@link ResourceDAOImpl#getResourceCountByCategoryId(int)}
-     * expects {@link IllegalArgumentException} when Category Id is zero.
+     * This function tests
+     * {@link ResourceDAOImpl#getAvailableResourcesByIds(Collection)} and
+     * expects {@link IllegalArgumentException} when an id is not positive.
      */
     @Test(expected = IllegalArgumentException.class)
-    public void testGetResourceCountByCategoryIdWhenIdIsZero() throws DAOException {
-        resourceDAOImpl.getResourceCountByCategoryId(0);
+    public void testGetAvailableResourcesByIdsWhenIdIsZero() throws DAOException {
+        resourceDAOImpl.getAvailableResourcesByIds(Arrays.asList(VALID_RESOURCE_ID, 0));
     }
 
     /**
-     * Verifies {@link ResourceDAOImpl#getResourceCountByCategoryId(int)}
+     * This function tests
+     * {@link ResourceDAOImpl#getAvailableResourcesByIds(Collection)} and
      * expects {@link DAOException} when
-     * {@link JdbcTemplate#queryForObject(String, Class, Object...)} } throws
-     * {@link DataAccessException} .
+     * {@link JdbcTemplate#query(String, RowMapper, Object...)} throws
+     * {@link DataAccessException}.
      */
     @Test(expected = DAOException.class)
-    public void testGetResourceCountByCategoryIdWhenJdbcTemplateThrowsDataAccessException() throws DAOException {
-        when(jdbcTemplate.queryForObject(anyString(), any(Class.class), anyInt())).thenThrow(dataAccessException);
-        resourceDAOImpl.getResourceCountByCategoryId(CATEGORY_ID);
+    public void testGetAvailableResourcesByIdsWhenJdbcTemplateThrowsDataAccessException() throws DAOException {
+        when(jdbcTemplate.query(anyString(), any(ResourceRowMapper.class), anyObject()))
+                .thenThrow(dataAccessException);
+        resourceDAOImpl.getAvailableResourcesByIds(Arrays.asList(VALID_RESOURCE_ID));
     }
 
     /**
-     * Verifies {@link ResourceDAOImpl#getResourceCountByCategoryId(int)} and
-     * expects {@link DAOException} when
-     * {@link JdbcTemplate#queryForObject(String, Class, Object...)} throws
-     * {@link DataAccessException} .
+     * This function verifies that
+     * {@link ResourceDAOImpl#getAvailableResourcesByIds(Collection)} reads the
+     * resources with one query, the ids bound as one array, and maps them by
+     * id.
      */
     @Test
-    public void testGetResourceCountByCategoryIdIfQueryIsExecuted() throws DAOException {
-        when(jdbcTemplate.queryForObject(RESOURCE_COUNT_QUERY, Integer.class, CATEGORY_ID)).thenReturn(20);
-        resourceDAOImpl.getResourceCountByCategoryId(CATEGORY_ID);
-        verify(jdbcTemplate).queryForObject(anyString(), any(Class.class), anyInt());
+    public void testGetAvailableResourcesByIds() throws DAOException {
+        final List<Resource> resources = createTestResources();
+        final List<Integer> resourceIds = Arrays.asList(VALID_RESOURCE_ID + 1, VALID_RESOURCE_ID);
+        when(jdbcTemplate.query(anyString(), any(ResourceRowMapper.class),
+                eq(SqlArrayValue.ofIntegers(resourceIds)))).thenReturn(resources.subList(0, 2));
+        final Map<Integer, Resource> resourcesById = resourceDAOImpl.getAvailableResourcesByIds(resourceIds);
+        assertEquals(2, resourcesById.size());
+        assertSame(resources.get(0), resourcesById.get(VALID_RESOURCE_ID));
+        assertSame(resources.get(1), resourcesById.get(VALID_RESOURCE_ID + 1));
+    }
+
+    /**
+     * Helper method to initialize a list of {@link Resource}.
+     */
+    private List<Resource> createTestResources() {
+        final List<Resource> resources = new ArrayList<>();
+
+        for (int i = 0; i < MAX_RESOURCE_NUMBER; i++) {
+            resources.add(
+                    new Resource(
+                            VALID_RESOURCE_ID + i,
+                            STATIC_URL,
+                            VALID_RESOURCE_DESCRIPTION + i,
+                            VALID_RESOURCE_TYPE));
+        }
+        return resources;
     }
 
     /**
@@ -1077,4 +1230,142 @@ public class ResourceDAOImplTest {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that {@link ResourceDAOImpl#getExistingResourceNames(Collection)}
+     * returns the names found by the query.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetExistingResourceNames() throws DAOException {
+        when(namedParameterJdbcTemplate.queryForList(anyString(), any(MapSqlParameterSource.class),
+                eq(String.class))).thenReturn(Arrays.asList(VALID_RESOURCE_NAME));
+        final Set<String> existingNames = resourceDAOImpl.getExistingResourceNames(Arrays.asList(
+                VALID_RESOURCE_NAME,
+                NEW_RESOURCE_NAME));
+        assertEquals(Collections.singleton(VALID_RESOURCE_NAME), existingNames);
+    }
+
+    /**
+     * Verifies that {@link ResourceDAOImpl#getExistingResourceNames(Collection)}
+     * throws {@link IllegalArgumentException} when the names are empty.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetExistingResourceNamesWithEmptyNames() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RESOURCE_NAMES_INVALID);
+        resourceDAOImpl.getExistingResourceNames(Collections.<String> emptyList());
+    }
+
+    /**
+     * Verifies that {@link ResourceDAOImpl#getExistingResourceNames(Collection)}
+     * throws {@link DAOException} when the query fails.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetExistingResourceNamesWhenQueryFails() throws DAOException {
+        when(namedParameterJdbcTemplate.queryForList(anyString(), any(MapSqlParameterSource.class),
+                eq(String.class))).thenThrow(dataAccessException);
+        expectedException.expect(DAOException.class);
+        resourceDAOImpl.getExistingResourceNames(Arrays.asList(VALID_RESOURCE_NAME));
+    }
+
+    /**
+     * Verifies that {@link ResourceDAOImpl#addResources(List)} reserves one id
+     * per resource, inserts them in a single batch and sets the reserved ids
+     * on the resources.
+     *
+     * @throws DAOException
+     */
+    @Test
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testAddResources() throws DAOException {
+        final List<Resource> resources = Arrays.asList(
+                createNewResource(VALID_RESOURCE_NAME),
+                createNewResource(NEW_RESOURCE_NAME));
+        when(jdbcTemplate.queryForList(RESERVE_RESOURCE_IDS, Integer.class, resources.size())).thenReturn(
+                Arrays.asList(VALID_RESOURCE_ID, VALID_RESOURCE_ID + 1));
+
+        resourceDAOImpl.addResources(resources);
+
+        final ArgumentCaptor<List> batchArgs = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(INSERT_RESOURCE_WITH_ID), batchArgs.capture());
+        assertEquals(resources.size(), batchArgs.getValue().size());
+        final Object[] firstRow = (Object[]) batchArgs.getValue().get(0);
+        assertEquals(VALID_RESOURCE_ID, firstRow[0]);
+        assertEquals(VALID_RESOURCE_NAME, firstRow[2]);
+        assertEquals(VALID_RESOURCE_OWNER, firstRow[5]);
+        assertEquals(VALID_RESOURCE_ID, resources.get(0).getResourceId());
+        assertEquals(VALID_RESOURCE_ID + 1, resources.get(1).getResourceId());
+    }
+
+    /**
+     * Verifies that {@link ResourceDAOImpl#addResources(List)} throws
+     * {@link DAOException} and leaves the resource ids unset when the batch
+     * insert fails.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testAddResourcesWhenBatchFails() throws DAOException {
+        final Resource newResource = createNewResource(VALID_RESOURCE_NAME);
+        when(jdbcTemplate.queryForList(RESERVE_RESOURCE_IDS, Integer.class, 1)).thenReturn(
+                Arrays.asList(VALID_RESOURCE_ID));
+        when(jdbcTemplate.batchUpdate(eq(INSERT_RESOURCE_WITH_ID), anyListOf(Object[].class))).thenThrow(
+                dataAccessException);
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage(ERROR_ADDING_RESOURCE);
+        try {
+            resourceDAOImpl.addResources(Arrays.asList(newResource));
+        } finally {
+            assertEquals(0, newResource.getResourceId());
+        }
+    }
+
+    /**
+     * Verifies that {@link ResourceDAOImpl#addResources(List)} throws
+     * {@link IllegalArgumentException} when the list is empty.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testAddResourcesWithEmptyList() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RESOURCE_LIST_INVALID);
+        resourceDAOImpl.addResources(Collections.<Resource> emptyList());
+    }
+
+    /**
+     * Verifies that {@link ResourceDAOImpl#addResources(List)} validates every
+     * resource before touching the database.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testAddResourcesWithBlankOwner() throws DAOException {
+        final Resource newResource = createNewResource(VALID_RESOURCE_NAME);
+        newResource.setResourceOwner(BLANK_STRING);
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RESOURCE_OWNER_ERROR_MESSAGE);
+        try {
+            resourceDAOImpl.addResources(Arrays.asList(newResource));
+        } finally {
+            verifyNoMoreInteractions(jdbcTemplate);
+        }
+    }
+
+    private static Resource createNewResource(final String name) {
+        final Resource newResource = new Resource();
+        newResource.setResourceName(name);
+        newResource.setDescription(VALID_RESOURCE_DESCRIPTION);
+        newResource.setResourceLink(STATIC_URL);
+        newResource.setResourceType(VALID_RESOURCE_TYPE);
+        newResource.setResourceOwner(VALID_RESOURCE_OWNER);
+        newResource.setResourceStatus(VALID_RESOURCE_STATUS);
+        return newResource;
+    }
+}
@@ -0,0 +1,241 @@
+package com.cerner.devcenter.education.admin;
+
+import java.util.Arrays;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cerner.devcenter.education.dao.ResourceRequestDAOImpl;
+
+/**
+ * Measures the latency of page 1 and of a deep page of the resource listings,
+ * first with the <code>LIMIT/OFFSET</code> queries and then with the keyset
+ * queries that seek past the last id of the previous page:
+ * <ul>
+ * <li>the resources of a category
+ * ({@link ResourceCategoryRelationDAOImpl#getResourcesAndDifficultyLevelByCategoryId(int, int, int)}
+ * against
+ * {@link ResourceCategoryRelationDAOImpl#getResourcesAndDifficultyLevelByCategoryIdAfter(int, int, int)})</li>
+ * <li>the admin listing of every resource
+ * ({@link ResourceCategoryRelationDAOImpl#getResourcesAndAverageRatingsAfter(int, int)})</li>
+ * <li>the resource requests
+ * ({@link ResourceRequestDAOImpl#getResourceRequestsAfter(int, int)})</li>
+ * </ul>
+ * The offset queries get slower linearly with the page number while the
+ * keyset queries stay flat.
+ * <p>
+ * The benchmark needs a PostgreSQL database. Everything is created in a
+ * scratch schema which is dropped afterwards, so it can be pointed at a
+ * development database:
+ *
+ * <pre>
+ * java -cp ... ResourcePaginationBenchmark jdbc:postgresql://localhost:5432/continue_education postgres postgres 100000 1000 200
+ * </pre>
+ *
+ * The arguments are the JDBC url, user, password, number of resources, the
+ * deep page number and number of reads per run.
+ */
+public class ResourcePaginationBenchmark {
+
+    private static final int DEFAULT_RESOURCES = 100000;
+    private static final int DEFAULT_DEEP_PAGE = 1000;
+    private static final int DEFAULT_READS = 200;
+    private static final int WARMUP_READS = 20;
+    private static final int PAGE_SIZE = 20;
+    private static final int CATEGORY_ID = 1;
+    private static final String SCHEMA = "resource_pagination_benchmark";
+    private static final String OFFSET_ADMIN_QUERY = "SELECT r.resource_id, r.description as resource_description, r.link,"
+            + " r.name as resource_name, r.type_id, r.resource_owner, rt.type_name as resource_type_name, ct.id, ct.name as category_name, ct.description as category_description,"
+            + " ctr.difficulty_level, rs.rating_sum::numeric / NULLIF(rs.rating_count, 0) as avg_rating"
+            + " FROM resource r INNER JOIN category_resource_reltn ctr on r.resource_id = ctr.resource_id"
+            + " INNER JOIN category ct on ct.id = ctr.category_id INNER JOIN type rt on r.type_id = rt.type_id"
+            + " LEFT JOIN resource_rating_summary rs on r.resource_id = rs.resource_id"
+            + " ORDER BY r.resource_id, ct.id LIMIT ? OFFSET ?";
+    private static final String OFFSET_REQUESTS_QUERY = "SELECT id, user_id, category_name, resource_name, is_approved"
+            + " FROM resource_request ORDER BY id LIMIT ? OFFSET ?";
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        String user = args[1];
+        String password = args[2];
+        int resources = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RESOURCES;
+        int deepPage = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_DEEP_PAGE;
+        int reads = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_READS;
+        if (deepPage < 2 || (long) deepPage * PAGE_SIZE > resources) {
+            throw new IllegalArgumentException("The deep page must be after page 1 and within the generated resources");
+        }
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, user, password, true);
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        final ResourceCategoryRelationDAOImpl relationDAO = new ResourceCategoryRelationDAOImpl();
+        ReflectionTestUtils.setField(relationDAO, "jdbcTemplate", jdbcTemplate);
+        final ResourceRequestDAOImpl requestDAO = new ResourceRequestDAOImpl();
+        ReflectionTestUtils.setField(requestDAO, "jdbcTemplate", jdbcTemplate);
+        try {
+            createTables(jdbcTemplate, resources);
+            System.out.printf("Generated %d resources and resource requests, %d per page, deep page %d%n", resources,
+                    PAGE_SIZE, deepPage);
+            final int deepOffset = (deepPage - 1) * PAGE_SIZE;
+            final int deepAfter = jdbcTemplate.queryForObject("SELECT resource_id FROM category_resource_reltn"
+                    + " WHERE category_id = ? ORDER BY resource_id LIMIT 1 OFFSET ?", Integer.class, CATEGORY_ID,
+                    deepOffset - 1);
+            final int deepRequestAfter = jdbcTemplate.queryForObject(
+                    "SELECT id FROM resource_request ORDER BY id LIMIT 1 OFFSET ?", Integer.class, deepOffset - 1);
+
+            report("category-offset", 1, reads, new Read() {
+                @Override
+                public int run() throws DAOException {
+                    return relationDAO.getResourcesAndDifficultyLevelByCategoryId(CATEGORY_ID, PAGE_SIZE, 0).size();
+                }
+            });
+            report("category-offset", deepPage, reads, new Read() {
+                @Override
+                public int run() throws DAOException {
+                    return relationDAO.getResourcesAndDifficultyLevelByCategoryId(CATEGORY_ID, PAGE_SIZE, deepOffset)
+                            .size();
+                }
+            });
+            report("category-keyset", 1, reads, new Read() {
+                @Override
+                public int run() throws DAOException {
+                    return relationDAO.getResourcesAndDifficultyLevelByCategoryIdAfter(CATEGORY_ID, 0, PAGE_SIZE)
+                            .size();
+                }
+            });
+            report("category-keyset", deepPage, reads, new Read() {
+                @Override
+                public int run() throws DAOException {
+                    return relationDAO.getResourcesAndDifficultyLevelByCategoryIdAfter(CATEGORY_ID, deepAfter,
+                            PAGE_SIZE).size();
+                }
+            });
+
+            report("admin-offset", 1, reads, new Read() {
+                @Override
+                public int run() {
+                    return jdbcTemplate.queryForList(OFFSET_ADMIN_QUERY, PAGE_SIZE, 0).size();
+                }
+            });
+            report("admin-offset", deepPage, reads, new Read() {
+                @Override
+                public int run() {
+                    return jdbcTemplate.queryForList(OFFSET_ADMIN_QUERY, PAGE_SIZE, deepOffset).size();
+                }
+            });
+            report("admin-keyset", 1, reads, new Read() {
+                @Override
+                public int run() throws DAOException {
+                    return relationDAO.getResourcesAndAverageRatingsAfter(0, PAGE_SIZE).size();
+                }
+            });
+            report("admin-keyset", deepPage, reads, new Read() {
+                @Override
+                public int run() throws DAOException {
+                    return relationDAO.getResourcesAndAverageRatingsAfter(deepAfter, PAGE_SIZE).size();
+                }
+            });
+
+            report("requests-offset", 1, reads, new Read() {
+                @Override
+                public int run() {
+                    return jdbcTemplate.queryForList(OFFSET_REQUESTS_QUERY, PAGE_SIZE, 0).size();
+                }
+            });
+            report("requests-offset", deepPage, reads, new Read() {
+                @Override
+                public int run() {
+                    return jdbcTemplate.queryForList(OFFSET_REQUESTS_QUERY, PAGE_SIZE, deepOffset).size();
+                }
+            });
+            report("requests-keyset", 1, reads, new Read() {
+                @Override
+                public int run() throws DAOException {
+                    return requestDAO.getResourceRequestsAfter(0, PAGE_SIZE).size();
+                }
+            });
+            report("requests-keyset", deepPage, reads, new Read() {
+                @Override
+                public int run() throws DAOException {
+                    return requestDAO.getResourceRequestsAfter(deepRequestAfter, PAGE_SIZE).size();
+                }
+            });
+            System.out.printf("Approximate resource request count: %d%n",
+                    requestDAO.getApproximateResourceRequestCount());
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    private interface Read {
+        int run() throws Exception;
+    }
+
+    private static void createTables(JdbcTemplate jdbcTemplate, int resources) {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA + ", public");
+        jdbcTemplate.execute("CREATE TABLE type (type_id integer PRIMARY KEY, type_name character varying(30) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO type VALUES (1, 'EBook'), (2, 'Video'), (3, 'Website')");
+        jdbcTemplate.execute("CREATE TABLE category (id integer PRIMARY KEY, name character varying(100) NOT NULL,"
+                + " description character varying(250) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO category VALUES (1, 'Java', 'Java resources'), (2, 'Testing', 'Testing resources')");
+        jdbcTemplate.execute("CREATE TABLE resource (resource_id integer PRIMARY KEY, name character varying(255) NOT NULL,"
+                + " link character varying(255) NOT NULL, description character varying(200) NOT NULL,"
+                + " type_id integer NOT NULL REFERENCES type(type_id), resource_owner character varying(8) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE category_resource_reltn (resource_id integer, category_id integer,"
+                + " difficulty_level integer DEFAULT 1)");
+        jdbcTemplate.execute("CREATE TABLE resource_rating_summary (resource_id integer PRIMARY KEY,"
+                + " rating_count integer DEFAULT 0 NOT NULL, rating_sum bigint DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE resource_request (id serial PRIMARY KEY, user_id character varying(8) NOT NULL,"
+                + " category_name character varying(255) NOT NULL, resource_name character varying(255) NOT NULL,"
+                + " is_approved boolean DEFAULT false NOT NULL)");
+
+        jdbcTemplate.update("INSERT INTO resource SELECT i, 'Resource ' || i, 'http://www.example.com/resources/' || i,"
+                + " 'Description of resource ' || i, 1 + i % 3, 'AB' || lpad((i % 1000000)::text, 6, '0')"
+                + " FROM generate_series(1, ?) AS i", resources);
+        // Every resource is in the first category, every third one in the
+        // second as well, so the admin listing has more relations than
+        // resources.
+        jdbcTemplate.update("INSERT INTO category_resource_reltn SELECT i, 1, 1 + i % 5 FROM generate_series(1, ?) AS i",
+                resources);
+        jdbcTemplate.update("INSERT INTO category_resource_reltn SELECT i, 2, 1 + i % 5 FROM generate_series(3, ?, 3) AS i",
+                resources);
+        jdbcTemplate.update("INSERT INTO resource_rating_summary SELECT i, 1 + i % 7, 3 * (1 + i % 7)"
+                + " FROM generate_series(1, ?) AS i", resources);
+        jdbcTemplate.update("INSERT INTO resource_request (user_id, category_name, resource_name)"
+                + " SELECT 'AB' || lpad((i % 1000000)::text, 6, '0'), 'Java', 'Requested resource ' || i"
+                + " FROM generate_series(1, ?) AS i", resources);
+        jdbcTemplate.execute("CREATE INDEX category_resource_reltn_category_id_resource_id_idx ON category_resource_reltn"
+                + " (category_id, resource_id)");
+        jdbcTemplate.execute("CREATE INDEX category_resource_reltn_resource_id_idx ON category_resource_reltn (resource_id)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static void report(String mode, int page, int reads, Read read) throws Exception {
+        for (int i = 0; i < WARMUP_READS; i++) {
+            read.run();
+        }
+        long[] latencies = new long[reads];
+        long rows = 0;
+        for (int i = 0; i < reads; i++) {
+            long start = System.nanoTime();
+            rows += read.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-16s page %5d, %5d reads, %5.1f rows/read, p50 %8.2f ms, p99 %8.2f ms, max %8.2f ms%n",
+                mode, page, reads, rows / (double) reads, toMillis(percentile(latencies, 50)),
+                toMillis(percentile(latencies, 99)), toMillis(latencies[latencies.length - 1]));
+    }
+
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
@@ -0,0 +1,155 @@
+package com.cerner.devcenter.education.admin;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Measures resource search latency against a generated resource table, first
+ * with the old unindexed <code>ILIKE '%term%'</code> query and then with
+ * {@link ResourceDAOImpl#getSearchedResources(String, int)} once the search
+ * indexes from sql/schema/resource.sql are in place.
+ * <p>
+ * The benchmark needs a PostgreSQL database with the pg_trgm extension
+ * available. Everything is created in a scratch schema which is dropped
+ * afterwards, so it can be pointed at a development database:
+ *
+ * <pre>
+ * java -cp ... ResourceSearchBenchmark jdbc:postgresql://localhost:5432/continue_education postgres postgres 100000 500
+ * </pre>
+ *
+ * The arguments are the JDBC url, user, password, number of resources and
+ * number of searches per run.
+ */
+public class ResourceSearchBenchmark {
+
+    private static final int DEFAULT_RESOURCES = 100000;
+    private static final int DEFAULT_SEARCHES = 500;
+    private static final int WARMUP_SEARCHES = 50;
+    private static final String SCHEMA = "resource_search_benchmark";
+    private static final String[] WORDS = { "java", "spring", "hibernate", "postgres", "testing", "mockito", "junit",
+            "javascript", "angular", "react", "docker", "kubernetes", "security", "oauth", "design", "patterns",
+            "concurrency", "streams", "collections", "generics", "performance", "tuning", "profiling", "memory",
+            "garbage", "collection", "networking", "http", "rest", "soap", "xml", "json", "maven", "gradle", "git",
+            "agile", "scrum", "kanban", "leadership", "communication", "algorithms", "graphs", "sorting", "caching",
+            "logging", "monitoring", "cloud", "linux", "shell", "python" };
+    private static final List<String> SEARCHES = Arrays.asList("java", "spring security", "perf", "garbage collection",
+            "docker", "kubern", "design patterns", "json", "tuning memory", "git");
+    private static final String OLD_SEARCH_QUERY = "SELECT r.*, rt.type_name FROM resource r INNER JOIN type rt on r.type_id = rt.type_id"
+            + " where (lower(r.name) ILIKE ? OR lower(r.description) ILIKE ?) AND r.status = 'Available'";
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        String user = args[1];
+        String password = args[2];
+        int resources = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RESOURCES;
+        int searches = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_SEARCHES;
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, user, password, true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        ResourceDAOImpl resourceDAO = new ResourceDAOImpl();
+        ReflectionTestUtils.setField(resourceDAO, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(resourceDAO, "namedParameterJdbcTemplate", new NamedParameterJdbcTemplate(
+                dataSource));
+        try {
+            createTables(jdbcTemplate, resources);
+            System.out.printf("Generated %d resources%n", resources);
+
+            final JdbcTemplate template = jdbcTemplate;
+            report("ilike-seqscan", searches, new Search() {
+                @Override
+                public int run(String term) {
+                    return template.queryForList(OLD_SEARCH_QUERY, "%" + term + "%", "%" + term + "%").size();
+                }
+            });
+
+            createIndexes(jdbcTemplate);
+            final ResourceDAOImpl dao = resourceDAO;
+            report("ranked-indexed", searches, new Search() {
+                @Override
+                public int run(String term) throws DAOException {
+                    return dao.getSearchedResources(term, 100).size();
+                }
+            });
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    private interface Search {
+        int run(String term) throws Exception;
+    }
+
+    private static void createTables(JdbcTemplate jdbcTemplate, int resources) {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA + ", public");
+        jdbcTemplate.execute("CREATE TYPE status AS ENUM ('Available', 'Pending', 'Deleted')");
+        jdbcTemplate.execute("CREATE TABLE type (type_id integer PRIMARY KEY, type_name character varying(30) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO type VALUES (1, 'EBook'), (2, 'Video'), (3, 'Website')");
+        jdbcTemplate.execute("CREATE TABLE resource (resource_id integer PRIMARY KEY, name character varying(255) NOT NULL,"
+                + " link character varying(255) NOT NULL, description character varying(200) NOT NULL,"
+                + " type_id integer NOT NULL REFERENCES type(type_id), resource_owner character varying(8) NOT NULL,"
+                + " status status DEFAULT 'Available' NOT NULL)");
+
+        StringBuilder words = new StringBuilder("ARRAY[");
+        for (int i = 0; i < WORDS.length; i++) {
+            words.append(i == 0 ? "'" : ",'").append(WORDS[i]).append('\'');
+        }
+        words.append(']');
+        jdbcTemplate.update("INSERT INTO resource SELECT i,"
+                + " initcap(w[1 + (i * 7) % " + WORDS.length + "]) || ' ' || w[1 + (i * 13) % " + WORDS.length
+                + "] || ' ' || i,"
+                + " 'http://www.example.com/resources/' || i,"
+                + " 'A guide to ' || w[1 + (i * 17) % " + WORDS.length + "] || ' and ' || w[1 + (i * 31) % "
+                + WORDS.length + "] || ' for ' || w[1 + (i * 3) % " + WORDS.length + "] || ' developers',"
+                + " 1 + i % 3, 'AB' || lpad((i % 1000000)::text, 6, '0'),"
+                + " (CASE WHEN i % 20 = 0 THEN 'Pending' ELSE 'Available' END)::status"
+                + " FROM generate_series(1, ?) AS i, (SELECT " + words + " AS w) AS vocabulary", resources);
+        jdbcTemplate.execute("ANALYZE resource");
+    }
+
+    private static void createIndexes(JdbcTemplate jdbcTemplate) {
+        long start = System.nanoTime();
+        jdbcTemplate.execute("CREATE INDEX resource_search_vector_idx ON resource"
+                + " USING gin (to_tsvector('english', name || ' ' || description))");
+        jdbcTemplate.execute("CREATE INDEX resource_name_trgm_idx ON resource USING gin (lower(name) gin_trgm_ops)");
+        jdbcTemplate.execute("CREATE INDEX resource_description_trgm_idx ON resource"
+                + " USING gin (lower(description) gin_trgm_ops)");
+        jdbcTemplate.execute("ANALYZE resource");
+        System.out.printf("Built search indexes in %d ms%n", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void report(String mode, int searches, Search search) throws Exception {
+        for (int i = 0; i < WARMUP_SEARCHES; i++) {
+            search.run(SEARCHES.get(i % SEARCHES.size()));
+        }
+        long[] latencies = new long[searches];
+        long rows = 0;
+        for (int i = 0; i < searches; i++) {
+            long start = System.nanoTime();
+            rows += search.run(SEARCHES.get(i % SEARCHES.size()));
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-15s %5d searches, %7.1f rows/search, p50 %8.2f ms, p99 %8.2f ms, max %8.2f ms%n", mode,
+                searches, rows / (double) searches, toMillis(percentile(latencies, 50)),
+                toMillis(percentile(latencies, 99)), toMillis(latencies[latencies.length - 1]));
+    }
+
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
@@ -0,0 +1,190 @@
+package com.cerner.devcenter.education.admin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cerner.devcenter.education.models.Tag;
+
+/**
+ * Tags resources from many connections at once with
+ * {@link ResourceTagRelationDAOImpl#addTagsToResourceByName(int, java.util.Collection)},
+ * using overlapping new tag names in different cases, and checks that no call
+ * fails on the tag_tag_name unique index, every tag is created once and every
+ * resource ends up with all of its tags.
+ * <p>
+ * The test needs a PostgreSQL 9.5 or later database and is skipped unless one
+ * is given. Everything is created in a scratch schema which is dropped
+ * afterwards:
+ *
+ * <pre>
+ * mvn test -Dtest=ResourceTagRelationConcurrencyTest -Dtest.postgres.url=jdbc:postgresql://localhost:5432/continue_education -Dtest.postgres.user=postgres -Dtest.postgres.password=postgres
+ * </pre>
+ */
+public class ResourceTagRelationConcurrencyTest {
+
+    private static final String URL_PROPERTY = "test.postgres.url";
+    private static final String SCHEMA = "resource_tag_relation_concurrency_test";
+    private static final int THREADS = 16;
+    private static final int RESOURCES = 4;
+    private static final int ROUNDS = 20;
+    private static final List<String> SHARED_TAG_NAMES = Arrays.asList("Java", "Spring", "Docker", "Concurrency");
+
+    private static String url;
+    private static String user;
+    private static String password;
+
+    @BeforeClass
+    public static void createTables() {
+        url = System.getProperty(URL_PROPERTY);
+        assumeTrue(StringUtils.isNotBlank(url));
+        user = System.getProperty("test.postgres.user");
+        password = System.getProperty("test.postgres.password");
+
+        final SingleConnectionDataSource dataSource = newDataSource();
+        try {
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+            jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+            jdbcTemplate.execute("CREATE TABLE resource (resource_id integer PRIMARY KEY)");
+            jdbcTemplate.update("INSERT INTO resource SELECT i FROM generate_series(1, ?) AS i", RESOURCES);
+            jdbcTemplate.execute("CREATE TABLE tag (tag_id serial PRIMARY KEY, tag_name character varying(255) NOT NULL,"
+                    + " CHECK(TRIM(tag_name) <> ''))");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX tag_tag_name ON tag (LOWER(tag_name))");
+            jdbcTemplate.execute("CREATE TABLE tag_resource_reltn ("
+                    + "tag_id integer NOT NULL REFERENCES tag(tag_id) ON DELETE CASCADE,"
+                    + " resource_id integer NOT NULL REFERENCES resource(resource_id) ON DELETE CASCADE,"
+                    + " PRIMARY KEY (tag_id, resource_id))");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @AfterClass
+    public static void dropTables() {
+        if (StringUtils.isBlank(url)) {
+            return;
+        }
+        final SingleConnectionDataSource dataSource = newDataSource();
+        try {
+            new JdbcTemplate(dataSource).execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    /**
+     * Verifies that simultaneous calls, each on its own connection, creating
+     * the same new tags for the same and for different resources all succeed
+     * and agree on a single tag per name.
+     */
+    @Test
+    public void testSimultaneousTagging() throws Exception {
+        final CyclicBarrier roundStarted = new CyclicBarrier(THREADS);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<Map<String, Integer>>> taggers = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                final int thread = i;
+                taggers.add(executor.submit(new Callable<Map<String, Integer>>() {
+                    @Override
+                    public Map<String, Integer> call() throws Exception {
+                        return tag(thread, roundStarted);
+                    }
+                }));
+            }
+
+            final Map<String, Integer> tagIdsByName = new HashMap<>();
+            for (final Future<Map<String, Integer>> tagger : taggers) {
+                for (final Map.Entry<String, Integer> tagId : tagger.get(60, TimeUnit.SECONDS).entrySet()) {
+                    final Integer previousId = tagIdsByName.put(tagId.getKey(), tagId.getValue());
+                    if (previousId != null) {
+                        assertEquals(previousId, tagId.getValue());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final SingleConnectionDataSource dataSource = newDataSource();
+        try {
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+            final int tagsPerResource = SHARED_TAG_NAMES.size() + ROUNDS * THREADS / RESOURCES;
+            assertEquals(SHARED_TAG_NAMES.size() + ROUNDS * THREADS,
+                    jdbcTemplate.queryForObject("SELECT count(*) FROM tag", Integer.class).intValue());
+            assertEquals(RESOURCES * tagsPerResource,
+                    jdbcTemplate.queryForObject("SELECT count(*) FROM tag_resource_reltn", Integer.class).intValue());
+            for (int resourceId = 1; resourceId <= RESOURCES; resourceId++) {
+                assertEquals(tagsPerResource, jdbcTemplate.queryForObject(
+                        "SELECT count(*) FROM tag_resource_reltn WHERE resource_id = ?", Integer.class, resourceId)
+                        .intValue());
+            }
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    /**
+     * Tags resource <code>thread % RESOURCES + 1</code> once per round, with
+     * the shared names in a case of its own and a name only this thread uses
+     * in that round, and returns the tag ID it got for each lower-cased name.
+     */
+    private static Map<String, Integer> tag(final int thread, final CyclicBarrier roundStarted) throws Exception {
+        final SingleConnectionDataSource dataSource = newDataSource();
+        try {
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+            final ResourceTagRelationDAOImpl resourceTagRelationDAO = new ResourceTagRelationDAOImpl();
+            ReflectionTestUtils.setField(resourceTagRelationDAO, "jdbcTemplate", jdbcTemplate);
+
+            final int resourceId = thread % RESOURCES + 1;
+            final Map<String, Integer> tagIdsByName = new HashMap<>();
+            for (int round = 0; round < ROUNDS; round++) {
+                final List<String> tagNames = new ArrayList<>();
+                for (final String sharedName : SHARED_TAG_NAMES) {
+                    tagNames.add(thread % 2 == 0 ? sharedName.toUpperCase(Locale.ROOT) : " " + sharedName + " ");
+                }
+                final String ownName = "Tag-" + round + "-" + thread;
+                tagNames.add(ownName);
+                tagNames.add(ownName.toLowerCase(Locale.ROOT));
+
+                roundStarted.await(30, TimeUnit.SECONDS);
+                final List<Tag> tags = resourceTagRelationDAO.addTagsToResourceByName(resourceId, tagNames);
+                assertEquals(SHARED_TAG_NAMES.size() + 1, tags.size());
+                for (final Tag tag : tags) {
+                    tagIdsByName.put(tag.getTagName().toLowerCase(Locale.ROOT), tag.getTagId());
+                }
+            }
+            return tagIdsByName;
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static SingleConnectionDataSource newDataSource() {
+        return new SingleConnectionDataSource(url, user, password, true);
+    }
+}
@@ -1,9 +1,17 @@
 package com.cerner.devcenter.education.admin;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -18,10 +26,12 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import com.cerner.devcenter.education.admin.TagDAOImpl.TagRowMapper;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceType;
 import com.cerner.devcenter.education.models.Tag;
 import com.cerner.devcenter.education.utils.Constants;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * Tests the functionality of the {@link ResourceTagRelationDAOImpl} class.
@@ -206,4 +216,57 @@ public class ResourceTagRelationDAOImplTest {
         tagList.add(invalidMockTag);
         resourceTagRelationDAO.addTagsToResource(VALID_RESOURCE_ID, tagList);
     }
+
+    /**
+     * Tests the {@link ResourceTagRelationDAOImpl#addTagsToResourceByName(int,
+     * Collection)} method. Ensures the trimmed names and the resource ID are
+     * bound to the single upsert statement and the returned tags are passed
+     * back.
+     */
+    @Test
+    public void testAddTagsToResourceByName() throws DAOException {
+        when(mockJdbcTemplate.query(anyString(), any(TagRowMapper.class), anyVararg())).thenReturn(tagList);
+        assertEquals(tagList, resourceTagRelationDAO.addTagsToResourceByName(VALID_RESOURCE_ID,
+                Arrays.asList(" " + VALID_TAG_NAME + " ", "Ponies")));
+        verify(mockJdbcTemplate).query(anyString(), any(TagRowMapper.class),
+                eq(SqlArrayValue.ofStrings(Arrays.asList(VALID_TAG_NAME, "Ponies"))), eq(VALID_RESOURCE_ID));
+    }
+
+    /**
+     * Tests the {@link ResourceTagRelationDAOImpl#addTagsToResourceByName(int,
+     * Collection)} method. Ensures a {@link IllegalArgumentException} is
+     * thrown with the expected message when the resource ID is not positive.
+     */
+    @Test
+    public void testAddTagsToResourceByNameWithNegativeIDResource() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(Constants.RESOURCE_ID_MUST_BE_POSITIVE);
+        resourceTagRelationDAO.addTagsToResourceByName(NEGATIVE_RESOURCE_ID, Arrays.asList(VALID_TAG_NAME));
+    }
+
+    /**
+     * Tests the {@link ResourceTagRelationDAOImpl#addTagsToResourceByName(int,
+     * Collection)} method. Ensures a {@link IllegalArgumentException} is
+     * thrown with the expected message when the names contain a blank name.
+     */
+    @Test
+    public void testAddTagsToResourceByNameWithBlankName() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(Constants.TAG_NAME_CANNOT_BE_BLANK_OR_EMPTY);
+        resourceTagRelationDAO.addTagsToResourceByName(VALID_RESOURCE_ID, Arrays.asList(VALID_TAG_NAME, BLANK_STRING));
+    }
+
+    /**
+     * Tests the {@link ResourceTagRelationDAOImpl#addTagsToResourceByName(int,
+     * Collection)} method. Ensures a {@link DAOException} is thrown when the
+     * statement fails.
+     */
+    @Test
+    public void testAddTagsToResourceByNameQueryError() throws DAOException {
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage(Constants.ERROR_ADDING_TAG_RESOURCE_RELTN);
+        when(mockJdbcTemplate.query(anyString(), any(TagRowMapper.class), anyVararg()))
+                .thenThrow(mockDataAccessException);
+        resourceTagRelationDAO.addTagsToResourceByName(VALID_RESOURCE_ID, Arrays.asList(VALID_TAG_NAME));
+    }
 }
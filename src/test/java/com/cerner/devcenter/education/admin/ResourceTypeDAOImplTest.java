@@ -10,7 +10,10 @@ import static org.mockito.Mockito.when;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -26,6 +29,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import com.cerner.devcenter.education.admin.ResourceDAOImpl.ResourceRowMapper;
 import com.cerner.devcenter.education.admin.ResourceTypeDAOImpl.ResourceTypeRowMapper;
 import com.cerner.devcenter.education.models.ResourceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 
 /**
  * For testing the {@link ResourceTypeDAOImpl}.
@@ -41,14 +46,15 @@ public class ResourceTypeDAOImplTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
     @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    @Mock
     private DataAccessException dataAccessException;
     @Mock
     private ResultSet resultSet;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
-    private static final String GET_MAX_ID_QUERY = "SELECT MAX(type_id) FROM type";
-    private static final String INSERT_RESOURCE_TYPE_QUERY = "INSERT INTO type (type_name) VALUES(?)";
+    private static final String INSERT_RESOURCE_TYPE_QUERY = "INSERT INTO type (type_name) VALUES(?) RETURNING type_id";
     private static final int VALID_TYPE_ID = 5;
     private static final String VALID_TYPE_NAME = "Online Classroom";
     private static final int NEGATIVE_TYPE_ID = -9;
@@ -56,6 +62,7 @@ public class ResourceTypeDAOImplTest {
     private static final int MAX_TYPE_NUMBER = 9;
     private static final String ERROR_GETTING_BY_NAME = "Error while extracting type by its name";
     private static final String ERROR_EMPTY_NAME = "The name for resource type is invalid because it is either null or empty.";
+    private static final String ERROR_EMPTY_NAMES = "The names for resource types cannot be null or empty.";
     private static final String ERROR_INVALID_RESOURCE_ID = "The id for resource type is invalid because it is less than or equal to zero";
 
     private ResourceType resourceType;
@@ -69,8 +76,8 @@ public class ResourceTypeDAOImplTest {
         resourceTypeMapper = new ResourceTypeRowMapper();
         newListOfResourceTypes = new ArrayList<>();
         newListOfResourceTypes.add(resourceType);
-        when(jdbcTemplate.queryForObject(GET_MAX_ID_QUERY, Integer.class)).thenReturn(VALID_TYPE_ID);
-        when(jdbcTemplate.update(INSERT_RESOURCE_TYPE_QUERY, VALID_TYPE_ID, VALID_TYPE_NAME)).thenReturn(1);
+        when(jdbcTemplate.queryForObject(INSERT_RESOURCE_TYPE_QUERY, Integer.class, VALID_TYPE_NAME))
+                .thenReturn(VALID_TYPE_ID);
         when(resultSet.getInt("type_id")).thenReturn(VALID_TYPE_ID);
         when(resultSet.getString("type_name")).thenReturn(VALID_TYPE_NAME);
     }
@@ -227,7 +234,7 @@ public class ResourceTypeDAOImplTest {
     /**
      * This function tests {@link ResourceTypeDAOImpl#addResourceType(String)}
      * functionality and expects {@link DAOException} when
-     * {@link JdbcTemplate#update(String, Object...)} throws
+     * {@link JdbcTemplate#queryForObject(String, Class, Object...)} throws
      * {@link DataAccessException}
      * 
      * @throws DAOException
@@ -236,7 +243,8 @@ public class ResourceTypeDAOImplTest {
     public void testAddResourceTypeToDBWhenJdbcTemplateThrowsDataAccessException() throws DAOException {
         expectedException.expect(DAOException.class);
         expectedException.expectMessage("Error while adding resource to the database");
-        when(jdbcTemplate.update(INSERT_RESOURCE_TYPE_QUERY, VALID_TYPE_NAME)).thenThrow(dataAccessException);
+        when(jdbcTemplate.queryForObject(INSERT_RESOURCE_TYPE_QUERY, Integer.class, VALID_TYPE_NAME))
+                .thenThrow(dataAccessException);
         resourceTypeDAOImpl.addResourceType(VALID_TYPE_NAME);
     }
 
@@ -287,4 +295,42 @@ public class ResourceTypeDAOImplTest {
         }
         return resourceTypes;
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that {@link ResourceTypeDAOImpl#getByNames(Collection)} maps
+     * every returned type by its name.
+     */
+    @Test
+    public void testGetByNames() throws DAOException {
+        when(namedParameterJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class),
+                any(ResourceTypeRowMapper.class))).thenReturn(newListOfResourceTypes);
+        Map<String, ResourceType> typesByName = resourceTypeDAOImpl.getByNames(Arrays.asList(VALID_TYPE_NAME));
+        assertEquals(1, typesByName.size());
+        assertEquals(resourceType, typesByName.get(VALID_TYPE_NAME));
+    }
+
+    /**
+     * This function tests {@link ResourceTypeDAOImpl#getByNames(Collection)}
+     * and expects {@link IllegalArgumentException} when the names are empty.
+     */
+    @Test
+    public void testGetByNamesWithEmptyNames() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(ERROR_EMPTY_NAMES);
+        resourceTypeDAOImpl.getByNames(new ArrayList<String>());
+    }
+
+    /**
+     * This function tests {@link ResourceTypeDAOImpl#getByNames(Collection)}
+     * and expects {@link DAOException} when the query throws
+     * {@link DataAccessException}.
+     */
+    @Test
+    public void testGetByNamesWhenQueryThrowsDataAccessException() throws DAOException {
+        when(namedParameterJdbcTemplate.query(anyString(), any(MapSqlParameterSource.class),
+                any(ResourceTypeRowMapper.class))).thenThrow(dataAccessException);
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage(ERROR_GETTING_BY_NAME);
+        resourceTypeDAOImpl.getByNames(Arrays.asList(VALID_TYPE_NAME));
+    }
+}
@@ -7,12 +7,15 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +39,7 @@ import com.cerner.devcenter.education.admin.ResourceDAOImpl.ResourceRowMapper;
 import com.cerner.devcenter.education.admin.TagDAOImpl.TagRowMapper;
 import com.cerner.devcenter.education.models.Tag;
 import com.cerner.devcenter.education.utils.Constants;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * Exists to test the {@link TagDAOImpl} class.
@@ -495,6 +499,21 @@ public class TagDAOImplTest {
         tagDAOImpl.getTagsWithNameInCollection(tagNameList);
     }
 
+    /**
+     * Verifies that {@link TagDAOImpl#getTagsWithNameInCollection(Collection)}
+     * binds the lower-cased, trimmed names as a single array parameter.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetTagsWithNameInCollectionBindsNamesAsArray() throws DAOException {
+        when(jdbcTemplate.query(anyString(), any(TagRowMapper.class), anyVararg())).thenReturn(newListOfTags);
+        final List<Tag> tags = tagDAOImpl.getTagsWithNameInCollection(Arrays.asList(" Commits ", "GIT"));
+        assertEquals(newListOfTags, tags);
+        verify(jdbcTemplate).query(eq("SELECT tag_id, tag_name FROM tag WHERE lower(tag_name) = ANY(?)"),
+                any(TagRowMapper.class), eq(SqlArrayValue.ofStrings(Arrays.asList("commits", "git"))));
+    }
+
     /**
      * Tests {@link TagDAOImpl#getTagsWithNameInCollection(Collection)} when an
      * error occurs. Expects a {@link DAOException} to be thrown.
@@ -0,0 +1,104 @@
+package com.cerner.devcenter.education.authentication;
+
+import java.util.Properties;
+
+import javax.naming.Context;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.sdk.LDAPException;
+
+/**
+ * In-process LDAP server holding user entries with the same attributes as the
+ * office directory, for tests that bind and search over a real connection.
+ * Users are bound by their DN and password; a service account can bind as
+ * {@link #SERVICE_ACCOUNT_DN}.
+ */
+public class EmbeddedLdapServer {
+
+    public static final String DOMAIN = "DC=northamerica,DC=cerner,DC=net";
+    public static final String SEARCH_BASE = "OU=Office Locations," + DOMAIN;
+    public static final String SERVICE_ACCOUNT_DN = "cn=Directory Manager";
+    public static final String SERVICE_ACCOUNT_PASSWORD = "service-secret";
+
+    private final InMemoryDirectoryServer server;
+
+    /**
+     * Creates the server with the domain and the office locations unit; users
+     * are added with {@link #addUser(String, String, String)} before or after
+     * {@link #start()}.
+     *
+     * @throws LDAPException
+     *             when the server cannot be created.
+     */
+    public EmbeddedLdapServer() throws LDAPException {
+        final InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(DOMAIN);
+        config.setSchema(null);
+        config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("default", 0));
+        config.addAdditionalBindCredentials(SERVICE_ACCOUNT_DN, SERVICE_ACCOUNT_PASSWORD);
+        server = new InMemoryDirectoryServer(config);
+        server.add("dn: " + DOMAIN, "objectClass: top", "objectClass: domain", "dc: northamerica");
+        server.add("dn: " + SEARCH_BASE, "objectClass: top", "objectClass: organizationalUnit",
+                "ou: Office Locations");
+    }
+
+    public void start() throws LDAPException {
+        server.startListening();
+    }
+
+    public void shutDown() {
+        server.shutDown(true);
+    }
+
+    /**
+     * Drops every client connection, as a server restart or a firewall
+     * timeout would.
+     */
+    public void closeAllClientConnections() {
+        server.closeAllClientConnections(false);
+    }
+
+    public void addUser(final String userId, final String name, final String password) throws LDAPException {
+        server.add(
+                "dn: " + getUserDn(userId),
+                "objectClass: top",
+                "objectClass: user",
+                "uid: " + userId,
+                "cn: " + name,
+                "title: Software Engineer",
+                "sAMAccountName: " + userId,
+                "mail: " + userId + "@cerner.com",
+                "department: Dev Center",
+                "extensionAttribute6: Manager",
+                "extensionAttribute11: Project",
+                "userPassword: " + password);
+    }
+
+    public String getUserDn(final String userId) {
+        return "uid=" + userId + "," + SEARCH_BASE;
+    }
+
+    /**
+     * @return the connection properties of the server, as read from
+     *         connection.properties, without a principal.
+     */
+    public Properties getConnectionProperties() {
+        final Properties connectionProperties = new Properties();
+        connectionProperties.setProperty(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
+        connectionProperties.setProperty(Context.PROVIDER_URL, "ldap://localhost:" + server.getListenPort());
+        connectionProperties.setProperty(Context.SECURITY_AUTHENTICATION, "simple");
+        return connectionProperties;
+    }
+
+    /**
+     * @return the connection properties with the principal and credentials of
+     *         a user, as built at login.
+     */
+    public Properties getBindEnvironment(final String userId, final String password) {
+        final Properties environment = getConnectionProperties();
+        environment.setProperty(Context.SECURITY_PRINCIPAL, getUserDn(userId));
+        environment.setProperty(Context.SECURITY_CREDENTIALS, password);
+        return environment;
+    }
+}
@@ -1,5 +1,6 @@
 package com.cerner.devcenter.education.authentication;
 
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -19,6 +20,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import com.cerner.devcenter.education.user.UserProfileDetails;
+
 /**
  * @author AC034492
  * This is the test class for LdapAuthenticationProvider which will return a UsernamePasswordAuthenticationToken when successfully Authenticated
@@ -90,5 +93,27 @@ public class LdapAuthenticationProviderTest {
 
     }
 
+    /**
+     * Test that the user profile read at login is kept in the details of the returned token
+     * @throws Exception
+     */
+    @Test
+    public void testAuthenticateKeepsUserProfile() throws Exception {
+
+        LdapReader ldapReader = Mockito.mock(LdapReader.class);
+        LdapAuthenticator ldapAuth = Mockito.mock(LdapAuthenticator.class);
+        UserCredentials user = new UserCredentials("myid", "pwd");
+        UserProfileDetails profile = new UserProfileDetails("Name", "Role", "myid", "Email", "Department", "Manager",
+                "Project");
+
+        Authentication token = new UsernamePasswordAuthenticationToken("myid", "pwd");
+
+        Mockito.when(ldapReader.readProperties("connection")).thenReturn(connectionProperties);
+        Mockito.when(ldapAuth.authenticateUser(user, connectionProperties)).thenReturn(1);
+        Mockito.when(ldapAuth.getUserProfile()).thenReturn(profile);
+
+        assertSame(profile, authProvider.authenticate(token, user, ldapReader, ldapAuth).getDetails());
+
+    }
 
 }
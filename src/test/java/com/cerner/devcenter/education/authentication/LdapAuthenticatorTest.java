@@ -1,14 +1,16 @@
 package com.cerner.devcenter.education.authentication;
 
 import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.powermock.api.easymock.PowerMock.createMock;
 import static org.powermock.api.easymock.PowerMock.replayAll;
 
 import java.util.Properties;
 
 import javax.naming.NamingException;
-import javax.naming.directory.InitialDirContext;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -17,6 +19,9 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.powermock.reflect.Whitebox;
 
+import com.cerner.devcenter.education.user.LdapUserProfileDirectory;
+import com.cerner.devcenter.education.user.UserProfileDetails;
+
 
 /**
  * @author AC034492
@@ -26,7 +31,7 @@ import org.powermock.reflect.Whitebox;
 @PrepareForTest(LdapAuthenticator.class)
 public class LdapAuthenticatorTest {
 
-    AuthenticatorService _authenticator;
+    LdapAuthenticator _authenticator;
     public static Properties connectionProperties;
 
     /**
@@ -55,10 +60,11 @@ public class LdapAuthenticatorTest {
 
         LdapReader ldapreader = createMock(LdapReader.class);
         Whitebox.setInternalState(LdapReader.class, "instance", ldapreader);
-        expect(ldapreader.getDirContext()).andThrow(new NamingException());
-        expect(ldapreader.createDirContext(connectionProperties)).andThrow(new NamingException());
+        ldapreader.authenticate(connectionProperties, LdapUserProfileDirectory.DEFAULT_SEARCH_BASE, "name");
+        expectLastCall().andThrow(new NamingException());
         replayAll(ldapreader);
         assertEquals(2, _authenticator.authenticateUser(new UserCredentials("name", "********"), connectionProperties));
+        assertNull(_authenticator.getUserProfile());
 
     }
 
@@ -67,9 +73,13 @@ public class LdapAuthenticatorTest {
 
         LdapReader ldapreader = createMock(LdapReader.class);
         Whitebox.setInternalState(LdapReader.class, "instance", ldapreader);
-        expect(ldapreader.createDirContext(connectionProperties)).andReturn(new InitialDirContext());
+        UserProfileDetails profile = new UserProfileDetails("Name", "Role", "AC034492", "Email", "Department",
+                "Manager", "Project");
+        expect(ldapreader.authenticate(connectionProperties, LdapUserProfileDirectory.DEFAULT_SEARCH_BASE, "AC034492"))
+                .andReturn(profile);
         replayAll(ldapreader);
         assertEquals(1, _authenticator.authenticateUser(new UserCredentials("AC034492", "********"), connectionProperties));
+        assertSame(profile, _authenticator.getUserProfile());
 
     }
 
@@ -0,0 +1,135 @@
+package com.cerner.devcenter.education.authentication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.AuthenticationException;
+import javax.naming.NamingException;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchResult;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.cerner.devcenter.education.user.UserProfileDetails;
+
+/**
+ * Logs hundreds of users in at once against an {@link EmbeddedLdapServer},
+ * each looking up their own profile right after the bind, and checks that no
+ * login sees another user's connection and the pools stay within their bounds.
+ */
+public class LdapConnectionManagerConcurrencyTest {
+
+    private static final int USER_COUNT = 300;
+    private static final int WRONG_PASSWORD_EVERY = 10;
+    private static final int MAXIMUM_CONCURRENT_BINDS = 20;
+    private static final int MAXIMUM_SEARCH_CONNECTIONS = 5;
+    private static final String PASSWORD_PREFIX = "secret-";
+
+    private static EmbeddedLdapServer server;
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        server = new EmbeddedLdapServer();
+        for (int i = 0; i < USER_COUNT; i++) {
+            server.addUser(userId(i), "User,Number" + i, PASSWORD_PREFIX + i);
+        }
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.shutDown();
+    }
+
+    /**
+     * Verifies that simultaneous logins each succeed or fail on their own
+     * credentials, find their own profile, and never open more search
+     * connections than the pool allows.
+     */
+    @Test
+    public void testSimultaneousLogins() throws Exception {
+        final LdapConnectionManager connectionManager = new LdapConnectionManager();
+        connectionManager.setConnectionProperties(server.getConnectionProperties());
+        connectionManager.setSearchPrincipal(EmbeddedLdapServer.SERVICE_ACCOUNT_DN);
+        connectionManager.setSearchCredentials(EmbeddedLdapServer.SERVICE_ACCOUNT_PASSWORD);
+        connectionManager.setMaximumConcurrentBinds(MAXIMUM_CONCURRENT_BINDS);
+        connectionManager.setMaximumSearchConnections(MAXIMUM_SEARCH_CONNECTIONS);
+        connectionManager.setAcquireTimeoutMillis(TimeUnit.SECONDS.toMillis(30));
+        connectionManager.init();
+
+        final LdapReader ldapReader = LdapReader.getInstance();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(USER_COUNT);
+        final List<Future<UserProfileDetails>> logins = new ArrayList<>();
+        try {
+            for (int i = 0; i < USER_COUNT; i++) {
+                final String userId = userId(i);
+                final String password = isWrongPassword(i) ? "wrong" : PASSWORD_PREFIX + i;
+                logins.add(executor.submit(new Callable<UserProfileDetails>() {
+                    @Override
+                    public UserProfileDetails call() throws Exception {
+                        start.await();
+                        try {
+                            connectionManager.bind(server.getBindEnvironment(userId, password));
+                        } catch (final AuthenticationException authenticationException) {
+                            return null;
+                        }
+                        final SearchResult searchResult = connectionManager
+                                .search(new LdapConnectionManager.SearchOperation<SearchResult>() {
+                                    @Override
+                                    public SearchResult run(final DirContext dirContext) throws NamingException {
+                                        return ldapReader.getSearchResults(dirContext,
+                                                EmbeddedLdapServer.SEARCH_BASE, userId);
+                                    }
+                                });
+                        return ldapReader.getUserDetails(searchResult.getAttributes());
+                    }
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < USER_COUNT; i++) {
+                final UserProfileDetails user = logins.get(i).get(60, TimeUnit.SECONDS);
+                if (isWrongPassword(i)) {
+                    assertEquals(null, user);
+                } else {
+                    assertNotNull(user);
+                    assertEquals(userId(i), user.getUserId());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            connectionManager.close();
+        }
+
+        final LdapConnectionMetrics metrics = connectionManager.getMetrics();
+        final int wrongPasswordCount = USER_COUNT / WRONG_PASSWORD_EVERY;
+        assertEquals(USER_COUNT - wrongPasswordCount, metrics.getBindCount());
+        assertEquals(wrongPasswordCount, metrics.getBindFailureCount());
+        assertEquals(USER_COUNT - wrongPasswordCount, metrics.getSearchCount());
+        assertEquals(0, metrics.getAcquireTimeoutCount());
+        assertEquals(0, metrics.getActiveBinds());
+        assertEquals(0, metrics.getActiveSearchConnections());
+        assertTrue(metrics.getCreatedCount() <= MAXIMUM_SEARCH_CONNECTIONS);
+    }
+
+    private static boolean isWrongPassword(final int index) {
+        return index % WRONG_PASSWORD_EVERY == 0;
+    }
+
+    private static String userId(final int index) {
+        return String.format("AB%06d", index);
+    }
+}
@@ -0,0 +1,320 @@
+package com.cerner.devcenter.education.authentication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.AuthenticationException;
+import javax.naming.Context;
+import javax.naming.NamingException;
+import javax.naming.ServiceUnavailableException;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests {@link LdapConnectionManager} against an {@link EmbeddedLdapServer}.
+ */
+public class LdapConnectionManagerTest {
+
+    private static final String USER_ID = "AB012345";
+    private static final String PASSWORD = "secret";
+
+    private static EmbeddedLdapServer server;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private LdapConnectionManager connectionManager;
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        server = new EmbeddedLdapServer();
+        server.addUser(USER_ID, "Doe,Jane", PASSWORD);
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.shutDown();
+    }
+
+    @Before
+    public void setUp() {
+        connectionManager = new LdapConnectionManager();
+        connectionManager.setConnectionProperties(server.getConnectionProperties());
+    }
+
+    @After
+    public void tearDown() {
+        connectionManager.close();
+    }
+
+    /**
+     * Verifies that a user binds with the right password and the bind is
+     * counted.
+     */
+    @Test
+    public void testBind() throws NamingException {
+        connectionManager.init();
+        connectionManager.bind(server.getBindEnvironment(USER_ID, PASSWORD));
+        final LdapConnectionMetrics metrics = connectionManager.getMetrics();
+        assertEquals(1, metrics.getBindCount());
+        assertEquals(0, metrics.getActiveBinds());
+        assertEquals(1, metrics.getBindLatency().getCount());
+    }
+
+    /**
+     * Verifies that a bind with the wrong password fails and is counted as a
+     * failure.
+     */
+    @Test
+    public void testBindWithWrongPassword() throws NamingException {
+        connectionManager.init();
+        try {
+            connectionManager.bind(server.getBindEnvironment(USER_ID, "wrong"));
+            fail("Expected the bind to fail");
+        } catch (final AuthenticationException expected) {
+            assertEquals(1, connectionManager.getMetrics().getBindFailureCount());
+            assertEquals(0, connectionManager.getMetrics().getBindCount());
+        }
+    }
+
+    /**
+     * Verifies that a login runs its operation on the context it bound, so the
+     * user is read without a search account, and that it is counted as a bind
+     * and not as a search.
+     */
+    @Test
+    public void testBindWithOperation() throws NamingException {
+        connectionManager.init();
+        final Attributes attributes = connectionManager.bind(server.getBindEnvironment(USER_ID, PASSWORD), readUser());
+        assertEquals(USER_ID, attributes.get("sAMAccountName").get());
+        final LdapConnectionMetrics metrics = connectionManager.getMetrics();
+        assertEquals(1, metrics.getBindCount());
+        assertEquals(0, metrics.getSearchCount());
+        assertEquals(0, metrics.getCreatedCount());
+    }
+
+    /**
+     * Verifies that the operation of a login with the wrong password is not
+     * run.
+     */
+    @Test
+    public void testBindWithOperationAndWrongPassword() throws NamingException {
+        connectionManager.init();
+        try {
+            connectionManager.bind(server.getBindEnvironment(USER_ID, "wrong"),
+                    new LdapConnectionManager.SearchOperation<Attributes>() {
+                        @Override
+                        public Attributes run(final DirContext dirContext) {
+                            fail("Expected the operation not to run");
+                            return null;
+                        }
+                    });
+            fail("Expected the bind to fail");
+        } catch (final AuthenticationException expected) {
+            assertEquals(1, connectionManager.getMetrics().getBindFailureCount());
+        }
+    }
+
+    /**
+     * Expects {@link NamingException} when searching without a search account,
+     * even after a user logged in, and verifies that the login did not leave
+     * its credentials behind for searches.
+     */
+    @Test
+    public void testSearchWithoutSearchAccount() throws NamingException {
+        connectionManager.init();
+        connectionManager.bind(server.getBindEnvironment(USER_ID, PASSWORD));
+        assertNull(connectionManager.getSearchEnvironment());
+        expectedException.expect(NamingException.class);
+        expectedException.expectMessage("No LDAP search account is configured");
+        connectionManager.search(readUser());
+    }
+
+    /**
+     * Verifies that searches reuse one pooled connection.
+     */
+    @Test
+    public void testSearchReusesConnection() throws NamingException {
+        useSearchAccount();
+        connectionManager.init();
+        assertNotNull(connectionManager.search(readUser()));
+        assertNotNull(connectionManager.search(readUser()));
+        final LdapConnectionMetrics metrics = connectionManager.getMetrics();
+        assertEquals(2, metrics.getSearchCount());
+        assertEquals(1, metrics.getCreatedCount());
+        assertEquals(1, metrics.getIdleSearchConnections());
+        assertEquals(0, metrics.getActiveSearchConnections());
+        assertEquals(2, metrics.getSearchAcquireLatency().getCount());
+    }
+
+    /**
+     * Verifies that searches use the search account and not the credentials of
+     * the last login, with the connect and read timeouts set.
+     */
+    @Test
+    public void testSearchWithSearchAccount() throws NamingException {
+        useSearchAccount();
+        connectionManager.setConnectTimeoutMillis(1234);
+        connectionManager.setReadTimeoutMillis(5678);
+        connectionManager.init();
+        connectionManager.bind(server.getBindEnvironment(USER_ID, PASSWORD));
+        assertNotNull(connectionManager.search(readUser()));
+        final Properties searchEnvironment = connectionManager.getSearchEnvironment();
+        assertEquals(EmbeddedLdapServer.SERVICE_ACCOUNT_DN, searchEnvironment.getProperty(Context.SECURITY_PRINCIPAL));
+        assertEquals("1234", searchEnvironment.getProperty(LdapConnectionManager.CONNECT_TIMEOUT_PROPERTY));
+        assertEquals("5678", searchEnvironment.getProperty(LdapConnectionManager.READ_TIMEOUT_PROPERTY));
+    }
+
+    /**
+     * Verifies that the connect and read timeouts are also set when the
+     * connection properties are read from the connection properties file.
+     */
+    @Test
+    public void testSearchEnvironmentFromPropertiesFileHasTimeouts() {
+        final LdapConnectionManager fileConfiguredManager = new LdapConnectionManager();
+        fileConfiguredManager.setSearchPrincipal(EmbeddedLdapServer.SERVICE_ACCOUNT_DN);
+        fileConfiguredManager.setSearchCredentials(EmbeddedLdapServer.SERVICE_ACCOUNT_PASSWORD);
+        fileConfiguredManager.init();
+        try {
+            final Properties searchEnvironment = fileConfiguredManager.getSearchEnvironment();
+            assertNotNull(searchEnvironment.getProperty(Context.PROVIDER_URL));
+            assertEquals("3000", searchEnvironment.getProperty(LdapConnectionManager.CONNECT_TIMEOUT_PROPERTY));
+            assertEquals("5000", searchEnvironment.getProperty(LdapConnectionManager.READ_TIMEOUT_PROPERTY));
+        } finally {
+            fileConfiguredManager.close();
+        }
+    }
+
+    /**
+     * Verifies that housekeeping closes connections idle for longer than the
+     * idle timeout.
+     */
+    @Test
+    public void testHousekeepingEvictsIdleConnections() throws Exception {
+        connectionManager.setIdleTimeoutMillis(1);
+        useSearchAccount();
+        connectionManager.init();
+        connectionManager.search(readUser());
+        Thread.sleep(10);
+        connectionManager.runHousekeeping();
+        final LdapConnectionMetrics metrics = connectionManager.getMetrics();
+        assertEquals(0, metrics.getIdleSearchConnections());
+        assertEquals(1, metrics.getDestroyedCount());
+    }
+
+    /**
+     * Verifies that a pooled connection dropped by the server fails its health
+     * check and is replaced by a new one.
+     */
+    @Test
+    public void testSearchReplacesBrokenConnection() throws NamingException {
+        connectionManager.setValidationIntervalMillis(0);
+        useSearchAccount();
+        connectionManager.init();
+        connectionManager.search(readUser());
+        server.closeAllClientConnections();
+        assertNotNull(connectionManager.search(readUser()));
+        final LdapConnectionMetrics metrics = connectionManager.getMetrics();
+        assertEquals(1, metrics.getValidationFailureCount());
+        assertEquals(2, metrics.getCreatedCount());
+    }
+
+    /**
+     * Expects {@link ServiceUnavailableException} when every search connection
+     * stays in use for longer than the acquire timeout.
+     */
+    @Test
+    public void testSearchTimesOutWhenPoolIsExhausted() throws Exception {
+        connectionManager.setMaximumSearchConnections(1);
+        connectionManager.setAcquireTimeoutMillis(50);
+        useSearchAccount();
+        connectionManager.init();
+        final CountDownLatch searching = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Void> slowSearch = executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    return connectionManager.search(new LdapConnectionManager.SearchOperation<Void>() {
+                        @Override
+                        public Void run(final DirContext dirContext) throws NamingException {
+                            searching.countDown();
+                            try {
+                                release.await();
+                            } catch (final InterruptedException interruptedException) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return null;
+                        }
+                    });
+                }
+            });
+            assertTrue(searching.await(5, TimeUnit.SECONDS));
+            try {
+                connectionManager.search(readUser());
+                fail("Expected the search to time out");
+            } catch (final ServiceUnavailableException expected) {
+                assertEquals(1, connectionManager.getMetrics().getAcquireTimeoutCount());
+            }
+            release.countDown();
+            slowSearch.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Expects {@link IllegalStateException} when binding before the manager
+     * has been initialized.
+     */
+    @Test
+    public void testBindBeforeInit() throws NamingException {
+        expectedException.expect(IllegalStateException.class);
+        connectionManager.bind(server.getBindEnvironment(USER_ID, PASSWORD));
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the maximum number of
+     * search connections is not positive.
+     */
+    @Test
+    public void testSetMaximumSearchConnectionsWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        connectionManager.setMaximumSearchConnections(0);
+    }
+
+    private void useSearchAccount() {
+        connectionManager.setSearchPrincipal(EmbeddedLdapServer.SERVICE_ACCOUNT_DN);
+        connectionManager.setSearchCredentials(EmbeddedLdapServer.SERVICE_ACCOUNT_PASSWORD);
+    }
+
+    private static LdapConnectionManager.SearchOperation<Attributes> readUser() {
+        return new LdapConnectionManager.SearchOperation<Attributes>() {
+            @Override
+            public Attributes run(final DirContext dirContext) throws NamingException {
+                return dirContext.getAttributes(server.getUserDn(USER_ID));
+            }
+        };
+    }
+}
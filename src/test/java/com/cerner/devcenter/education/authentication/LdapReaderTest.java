@@ -1,10 +1,19 @@
 package com.cerner.devcenter.education.authentication;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.naming.Context;
 import javax.naming.NamingEnumeration;
@@ -20,6 +29,7 @@ import javax.naming.directory.SearchResult;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import com.cerner.devcenter.education.user.UserProfileDetails;
@@ -54,16 +64,45 @@ public class LdapReaderTest {
     }
 
     /**
-     * Test for getDirContext method
+     * Test that getInstance returns the same instance from concurrent callers
      * 
      * @throws Exception
      */
     @Test
-    public void getDirContextTest() throws Exception {
+    public void getInstanceTest() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<LdapReader>> readers = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            readers.add(executor.submit(new Callable<LdapReader>() {
+                @Override
+                public LdapReader call() {
+                    return LdapReader.getInstance();
+                }
+            }));
+        }
+        for (Future<LdapReader> reader : readers) {
+            assertSame(ldapReader, reader.get());
+        }
+        executor.shutdown();
 
-        InitialDirContext dir = new InitialDirContext();
-        ldapReader.createDirContext(expected);
-        assertFalse(dir.equals(ldapReader.getDirContext()));
+    }
+
+    /**
+     * Test that authenticate fails when no connection manager is configured
+     * 
+     * @throws NamingException
+     */
+    @Test(expected = NamingException.class)
+    public void authenticateTestWithoutConnectionManager() throws NamingException {
+
+        LdapConnectionManager connectionManager = ldapReader.getConnectionManager();
+        ldapReader.setConnectionManager(null);
+        try {
+            ldapReader.authenticate(expected);
+        } finally {
+            ldapReader.setConnectionManager(connectionManager);
+        }
 
     }
 
@@ -149,6 +188,52 @@ public class LdapReaderTest {
 
     }
 
+    /**
+     * Test that several UserIds are searched with a single OR-filter search, with the filter
+     * characters in the UserIds escaped
+     * 
+     * @throws NamingException
+     */
+    @Test
+    public void getSearchResultsForSeveralUsersTest() throws NamingException {
+
+        DirContext dir = Mockito.mock(DirContext.class);
+        NamingEnumeration<SearchResult> results = Mockito.mock(NamingEnumeration.class);
+        SearchResult searchResult = Mockito.mock(SearchResult.class);
+        ArgumentCaptor<String> filter = ArgumentCaptor.forClass(String.class);
+
+        Mockito.when(dir.search(Mockito.any(String.class), filter.capture(),
+                        Mockito.any(SearchControls.class))).thenReturn(results);
+        Mockito.when(results.hasMore()).thenReturn(true, false);
+        Mockito.when(results.next()).thenReturn(searchResult);
+
+        assertEquals(Arrays.asList(searchResult),
+                        ldapReader.getSearchResults(dir, SEARCH_BASE, Arrays.asList("testId", "test*)")));
+        assertEquals("(&(objectClass=user)(|(sAMAccountName=testId)(sAMAccountName=test\\2a\\29)))",
+                        filter.getValue());
+        Mockito.verify(dir, Mockito.times(1)).search(Mockito.any(String.class), Mockito.any(String.class),
+                        Mockito.any(SearchControls.class));
+        Mockito.verify(results).close();
+
+    }
+
+    @Test
+    public void getSearchResultsForNoUsersTest() throws NamingException {
+
+        DirContext dir = Mockito.mock(DirContext.class);
+
+        assertTrue(ldapReader.getSearchResults(dir, SEARCH_BASE, Collections.<String> emptyList()).isEmpty());
+        Mockito.verifyZeroInteractions(dir);
+
+    }
+
+    @Test(expected = NamingException.class)
+    public void getSearchResultsForSeveralUsersTestWhenDirContextIsNull() throws NamingException {
+
+        ldapReader.getSearchResults(null, SEARCH_BASE, Arrays.asList("testId"));
+
+    }
+
     @Test(expected = NamingException.class)
     public void getSearchResultsTestWhenDirContextIsNull() throws NamingException {
 
@@ -71,6 +71,7 @@ public class BulkUploadControllerTest {
         userInfo = new UserProfileDetails("test first, test last", "ADMIN", "test", "test@cerner.com", "Dev Academy",
                 "test manager", "Education Evaluation");
         when(session.getAttribute(USER_DETAILS)).thenReturn(userInfo);
+        when(request.getSession()).thenReturn(session);
         when(userManager.isAdminUser(userInfo.getUserId())).thenReturn(true);
     }
 
@@ -128,7 +129,7 @@ public class BulkUploadControllerTest {
     @Test
     public void testUploadResourcesWithErrors() throws IOException {
         messageHandler.addError(TEST_MESSAGE);
-        when(bulkUploadManager.addExcelDataSafely(mpFile)).thenReturn(messageHandler);
+        when(bulkUploadManager.addExcelDataSafely(mpFile, userInfo.getUserId())).thenReturn(messageHandler);
         assertEquals(MessageHandler.buildMessageHTML(messageHandler.getErrorMessages(), ERROR_MESSAGES),
                 bulkUploadController.uploadResources(mpFile, request).getModel().get(ERROR_MESSAGES));
     }
@@ -141,7 +142,7 @@ public class BulkUploadControllerTest {
     @Test
     public void testUploadResourcesWithWarnings() throws IOException {
         messageHandler.addWarning(TEST_MESSAGE);
-        when(bulkUploadManager.addExcelDataSafely(mpFile)).thenReturn(messageHandler);
+        when(bulkUploadManager.addExcelDataSafely(mpFile, userInfo.getUserId())).thenReturn(messageHandler);
         assertEquals(MessageHandler.buildMessageHTML(messageHandler.getWarningMessages(), WARNING_MESSAGES),
                 bulkUploadController.uploadResources(mpFile, request).getModel().get(WARNING_MESSAGES));
     }
@@ -156,7 +157,7 @@ public class BulkUploadControllerTest {
         messageHandler.addWarning(TEST_MESSAGE);
         messageHandler.addError(i18nBundle.getString(UPLOAD_ERROR_MESSAGE));
         messageHandler.addSuccess(i18nBundle.getString(UPLOAD_SUCCESS_MESSAGE));
-        when(bulkUploadManager.addExcelDataSafely(mpFile)).thenReturn(messageHandler);
+        when(bulkUploadManager.addExcelDataSafely(mpFile, userInfo.getUserId())).thenReturn(messageHandler);
         assertEquals(MessageHandler.buildMessageHTML(messageHandler.getWarningMessages(), WARNING_MESSAGES),
                 bulkUploadController.uploadResources(mpFile, request).getModel().get(WARNING_MESSAGES));
         assertEquals(MessageHandler.buildMessageHTML(messageHandler.getErrorMessages(), ERROR_MESSAGES),
@@ -174,7 +175,7 @@ public class BulkUploadControllerTest {
     public void testUploadResourcesSuccess() throws IOException {
         when(mpFile.isEmpty()).thenReturn(false);
         messageHandler.addSuccess(i18nBundle.getString(UPLOAD_SUCCESS_MESSAGE));
-        when(bulkUploadManager.addExcelDataSafely(mpFile)).thenReturn(messageHandler);
+        when(bulkUploadManager.addExcelDataSafely(mpFile, userInfo.getUserId())).thenReturn(messageHandler);
         assertEquals(MessageHandler.buildMessageHTML(messageHandler.getSuccessMessages(), SUCCESS_MESSAGES),
                 bulkUploadController.uploadResources(mpFile, request).getModel().get(SUCCESS_MESSAGES));
     }
@@ -1,10 +1,13 @@
 package com.cerner.devcenter.education.controllers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
@@ -36,7 +39,10 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.powermock.reflect.Whitebox;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -46,20 +52,27 @@ import org.springframework.web.servlet.ModelAndView;
 
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
-import com.cerner.devcenter.education.authentication.LdapReader;
+import com.cerner.devcenter.education.engagement.ResourceEngagementTracker;
 import com.cerner.devcenter.education.exceptions.DuplicateUserInterestedCategoryException;
 import com.cerner.devcenter.education.managers.CategoryManager;
 import com.cerner.devcenter.education.managers.CompletedUserResourceManager;
+import com.cerner.devcenter.education.managers.LearnerManager;
 import com.cerner.devcenter.education.managers.ResourceManager;
 import com.cerner.devcenter.education.managers.UserInterestedCategoryManager;
+import com.cerner.devcenter.education.managers.UserManager;
 import com.cerner.devcenter.education.managers.UserRecommendedResourceManager;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.CompletedResource;
 import com.cerner.devcenter.education.models.CompletedUserResource;
+import com.cerner.devcenter.education.models.Learner;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.UserInterestedCategory;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
+import com.cerner.devcenter.education.models.TrendingCategory;
+import com.cerner.devcenter.education.models.TrendingResource;
 import com.cerner.devcenter.education.models.UserRecommendedResource;
+import com.cerner.devcenter.education.page.PageFragmentLoader;
+import com.cerner.devcenter.education.user.UserDetails;
 import com.cerner.devcenter.education.user.UserProfileDetails;
 import com.cerner.devcenter.education.utils.AuthenticationStatusUtil;
 import com.cerner.devcenter.education.utils.CompletionRating;
@@ -104,6 +117,8 @@ public class HomeControllerTest {
 
     private static final String HOME_PAGE = "home_page";
     private static final String LOGIN_REDIRECT = "redirect:/login";
+    private static final String LOGIN_FORCE_REDIRECT = "redirect:/login_force";
+    private static final String HOME_REDIRECT = "redirect:/app/home_page";
     private static final String SEARCH = "search";
 
     private static final String USER_DETAILS = "userDetails";
@@ -138,6 +153,10 @@ public class HomeControllerTest {
     private static final String NO_RECOMMENDED_RESOURCES = "com.cerner.devcenter.education.controllers.noRecommendedResource";
     private static final String NO_COMPLETED_RESOURCES = "homepage.completedResources.widget.message.noCompletedResources";
     private static final String COMPLETED_RESOURCES_RETRIEVAL_FAILURE = "homepage.completedResources.widget.message.errorCompletedResources";
+    private static final String TRENDING_RESOURCES = "trendingResources";
+    private static final String TRENDING_CATEGORIES = "trendingCategories";
+    private static final String TRENDING_WIDGET_MESSAGE = "trendingWidgetMessage";
+    private static final String TRENDING_RETRIEVAL_FAILURE = "homepage.trending.widget.message.errorTrending";
     private static final String CATEGORY_LIST_RETURNED_EMPTY = "com.cerner.devcenter.education.controllers.noCategoriesReturned";
     private static final String GET_REQUEST_ERROR = "resources.getAllRequests.error";
     private static final String NO_RESOURCE_FOUND = "No resources found";
@@ -196,7 +215,7 @@ public class HomeControllerTest {
     @InjectMocks
     private HomeController homeController;
     @Mock
-    private LdapReader ldapReader;
+    private UserDetails userDetails;
     @Mock
     private HttpServletRequest request;
     @Mock
@@ -223,9 +242,17 @@ public class HomeControllerTest {
     private Appender mockAppender;
     @Mock
     private UserProfileDetails mockUserProfileDetails;
+    @Mock
+    private ResourceEngagementTracker engagementTracker;
+    @Mock
+    private UserManager userManager;
+    @Mock
+    private LearnerManager learnerManager;
     @Captor
     private ArgumentCaptor captorLoggingEvent;
 
+    private PageFragmentLoader pageFragmentLoader;
+
     @BeforeClass
     public static void onlyOnce() throws MalformedURLException {
         validResourceUrl = new URL(VALID_URL);
@@ -263,15 +290,19 @@ public class HomeControllerTest {
         listOfCategories.add(category);
         userInterestedTopic = new UserInterestedCategory(user.getUserId(), category, 4, 3);
         when(session.getAttribute(USER_DETAILS)).thenReturn(user);
+        pageFragmentLoader = new PageFragmentLoader();
+        pageFragmentLoader.init();
+        Whitebox.setInternalState(homeController, "pageFragmentLoader", pageFragmentLoader);
 
     }
 
     /**
-     * Removes the mockAppender added
+     * Removes the mockAppender added and stops the page fragment loader
      */
     @After
     public void tearDown() {
         LogManager.getRootLogger().removeAppender(mockAppender);
+        pageFragmentLoader.close();
     }
 
     /**
@@ -294,6 +325,54 @@ public class HomeControllerTest {
         assertEquals(LOGIN_REDIRECT, testModelView.getViewName());
     }
 
+    /**
+     * Invoke {@link HomeController#welcomePage(HttpServletRequest)} function
+     * when the logged in user is not found in LDAP, expects a forced redirect
+     * to the login page.
+     *
+     * @throws DAOException
+     *             when there is an error getting the user details from the
+     *             database
+     * @throws NamingException
+     *             when the user is not authenticated
+     */
+    @Test
+    public void testWelcomePageWhenUserNotFound() throws NamingException, DAOException {
+        when(status.isLoggedIn()).thenReturn(true);
+        SecurityContextHolder.getContext().setAuthentication(token);
+        when(userDetails.getUserDetails(token.getName())).thenReturn(null);
+        final ModelAndView testModelView = homeController.welcomePage(request);
+        assertEquals(LOGIN_FORCE_REDIRECT, testModelView.getViewName());
+    }
+
+    /**
+     * Invoke {@link HomeController#welcomePage(HttpServletRequest)} function
+     * when the user details were read at login, expects them to be used and
+     * cached without searching LDAP, so a login works without a search
+     * account.
+     *
+     * @throws DAOException
+     *             when there is an error getting the user details from the
+     *             database
+     * @throws NamingException
+     *             when the user is not authenticated
+     */
+    @Test
+    public void testWelcomePageWithUserReadAtLogin() throws NamingException, DAOException {
+        when(status.isLoggedIn()).thenReturn(true);
+        when(request.getSession(true)).thenReturn(session);
+        when(learnerManager.isPresent(any(Learner.class))).thenReturn(true);
+        final UsernamePasswordAuthenticationToken loginToken = new UsernamePasswordAuthenticationToken(
+                USER.getUserId(), "pwd", new ArrayList<GrantedAuthority>());
+        loginToken.setDetails(USER);
+        SecurityContextHolder.getContext().setAuthentication(loginToken);
+        final ModelAndView testModelView = homeController.welcomePage(request);
+        assertEquals(HOME_REDIRECT, testModelView.getViewName());
+        verify(userDetails).put(USER);
+        verify(userDetails, never()).getUserDetails(USER.getUserId());
+        verify(session).setAttribute("userDetails", USER);
+    }
+
     /**
      * Expects
      * {@link HomeController#showHomePage(HttpServletRequest, ModelAndView, HttpSession)}
@@ -383,6 +462,7 @@ public class HomeControllerTest {
                 .thenReturn(VALID_TOP_CATEGORY);
         final ModelAndView newModel = homeController.showHomePage(request, MODEL, session);
         assertEquals(newModel.getModel().get(RECOMMENDED_RESOURCES), LIST_OF_RECOMMENDED_RESOURCES);
+        verify(engagementTracker).resourceViewed(VALID_RESOURCE_ID);
     }
 
     /**
@@ -596,6 +676,137 @@ public class HomeControllerTest {
                 I18N_BUNDLE.getString("com.cerner.devcenter.education.controllers.errorRetrievingCategories"));
     }
 
+    /**
+     * Expects
+     * {@link HomeController#showHomePage(HttpServletRequest, ModelAndView, HttpSession)}
+     * to show the home page with an empty {@link Category} {@link List} and an
+     * error message when {@link CategoryManager#getAllCategories()} takes
+     * longer than the fragment timeout, while the other widgets are still
+     * loaded.
+     *
+     * @throws NamingException
+     *             when the user is not authenticated
+     * @throws SQLException
+     *             when there is an error with the query
+     */
+    @Test
+    public void testShowHomePageModelWhenCategoryManagerIsTooSlow() throws SQLException, NamingException {
+        pageFragmentLoader.close();
+        pageFragmentLoader = new PageFragmentLoader();
+        pageFragmentLoader.setFragmentTimeoutMillis(200);
+        pageFragmentLoader.init();
+        Whitebox.setInternalState(homeController, "pageFragmentLoader", pageFragmentLoader);
+        when(status.isLoggedIn()).thenReturn(true);
+        when(session.getAttribute("userDetails")).thenReturn(USER);
+        when(
+                userRecommendedResourceManager.getRecommendedResourcesByUserId(
+                        VALID_USER_ID,
+                        MINIMUM_RATING_REQUIRED_FOR_RESOURCE_TO_BE_RANKED_HIGHER_THAN_NEW_RESOURCES,
+                        MINIMUM_NUMBER_OF_RATINGS_BEFORE_RESOURCE_IS_RANKED)).thenReturn(listOfRecommendResourceUser);
+        when(session.getAttribute("userInterestedCategories")).thenReturn(userInterestedCategories);
+        when(categoryManager.getAllCategories()).thenAnswer(new Answer<List<Category>>() {
+            @Override
+            public List<Category> answer(final InvocationOnMock invocation) throws InterruptedException {
+                Thread.sleep(5000);
+                return listOfCategories;
+            }
+        });
+        final ModelAndView newModel = homeController.showHomePage(request, MODEL, session);
+
+        assertEquals(HOME_PAGE, newModel.getViewName());
+        assertEquals(listOfRecommendResourceUser, newModel.getModel().get(RECOMMENDED_RESOURCES));
+        assertEquals(Collections.<Category>emptyList(), newModel.getModel().get(ALL_CATEGORIES));
+        assertEquals(
+                I18N_BUNDLE.getString("com.cerner.devcenter.education.controllers.errorRetrievingCategories"),
+                newModel.getModel().get(CATEGORY_ERROR));
+        assertEquals(1, pageFragmentLoader.getMetrics().getTimeoutCount());
+    }
+
+    /**
+     * Expects
+     * {@link HomeController#showHomePage(HttpServletRequest, ModelAndView, HttpSession)}
+     * to show the home page with the completed resources widget empty when
+     * {@link CompletedUserResourceManager#getMostRecentlyCompletedResources(String, int)}
+     * fails with an unexpected exception.
+     *
+     * @throws NamingException
+     *             when the user is not authenticated
+     * @throws SQLException
+     *             when there is an error with the query
+     */
+    @Test
+    public void testShowHomePageModelWhenCompletedResourcesFailUnexpectedly() throws SQLException, NamingException {
+        when(status.isLoggedIn()).thenReturn(true);
+        when(session.getAttribute("userDetails")).thenReturn(USER);
+        when(session.getAttribute("userInterestedCategories")).thenReturn(userInterestedCategories);
+        when(categoryManager.getAllCategories()).thenReturn(listOfCategories);
+        when(mockCompletedUserResourceManager.getMostRecentlyCompletedResources(
+                VALID_USER_ID,
+                NUMBER_OF_COMPLETED_RESOURCES_TO_RETURN)).thenThrow(new IllegalStateException());
+        final ModelAndView newModel = homeController.showHomePage(request, MODEL, session);
+
+        assertEquals(HOME_PAGE, newModel.getViewName());
+        assertEquals(listOfCategories, newModel.getModel().get(ALL_CATEGORIES));
+        assertEquals(Collections.<CompletedResource>emptyList(), newModel.getModel().get(COMPLETED_RESOURCES));
+        assertEquals(
+                I18N_BUNDLE.getString(COMPLETED_RESOURCES_RETRIEVAL_FAILURE),
+                newModel.getModel().get(CR_WIDGET_MESSAGE));
+        assertEquals(1, pageFragmentLoader.getMetrics().getFailureCount());
+    }
+
+    /**
+     * Expects
+     * {@link HomeController#showHomePage(HttpServletRequest, ModelAndView, HttpSession)}
+     * to show the resources and categories trending this week in the trending
+     * widget.
+     *
+     * @throws NamingException
+     *             when the user is not authenticated
+     * @throws SQLException
+     *             when there is an error with the query
+     */
+    @Test
+    public void testShowHomePageModelWithTrendingResources() throws SQLException, NamingException {
+        when(status.isLoggedIn()).thenReturn(true);
+        when(session.getAttribute("userInterestedCategories")).thenReturn(userInterestedCategories);
+        final List<TrendingResource> trendingResources = Collections.singletonList(new TrendingResource(resource, 7));
+        final List<TrendingCategory> trendingCategories = Collections.singletonList(new TrendingCategory(category, 9));
+        when(resourceManager.getTrendingResources(5)).thenReturn(trendingResources);
+        when(categoryManager.getTrendingCategories(3)).thenReturn(trendingCategories);
+        final ModelAndView newModel = homeController.showHomePage(request, new ModelAndView(), session);
+
+        assertEquals(HOME_PAGE, newModel.getViewName());
+        assertEquals(trendingResources, newModel.getModel().get(TRENDING_RESOURCES));
+        assertEquals(trendingCategories, newModel.getModel().get(TRENDING_CATEGORIES));
+        assertFalse(newModel.getModel().containsKey(TRENDING_WIDGET_MESSAGE));
+    }
+
+    /**
+     * Expects
+     * {@link HomeController#showHomePage(HttpServletRequest, ModelAndView, HttpSession)}
+     * to show the trending widget empty with a retrieval failure message when
+     * {@link ResourceManager#getTrendingResources(int)} throws a
+     * {@link ManagerException}.
+     *
+     * @throws NamingException
+     *             when the user is not authenticated
+     * @throws SQLException
+     *             when there is an error with the query
+     */
+    @Test
+    public void testShowHomePageModelWhenTrendingResourcesFail() throws SQLException, NamingException {
+        when(status.isLoggedIn()).thenReturn(true);
+        when(session.getAttribute("userInterestedCategories")).thenReturn(userInterestedCategories);
+        when(resourceManager.getTrendingResources(5)).thenThrow(managerException);
+        final ModelAndView newModel = homeController.showHomePage(request, new ModelAndView(), session);
+
+        assertEquals(HOME_PAGE, newModel.getViewName());
+        assertEquals(Collections.<TrendingResource> emptyList(), newModel.getModel().get(TRENDING_RESOURCES));
+        assertEquals(
+                I18N_BUNDLE.getString(TRENDING_RETRIEVAL_FAILURE),
+                newModel.getModel().get(TRENDING_WIDGET_MESSAGE));
+    }
+
     /**
      * Expects
      * {@link HomeController#showHomePage(HttpServletRequest, ModelAndView, HttpSession)}
@@ -1358,6 +1569,28 @@ public class HomeControllerTest {
 
     }
 
+    /**
+     * Expects {@link HomeController#filterRecommendedResources(int)} to count
+     * the returned recommended resources as viewed.
+     *
+     * @throws SQLException
+     *             when there is an error with the query
+     */
+    @Test
+    public void testFilterRecommendedResourcesCountsViews() throws SQLException {
+        when(categoryManager.getCategoryById(VALID_CATEGORY_ID)).thenReturn(CATEGORY);
+        when(session.getAttribute(USER_DETAILS)).thenReturn(user);
+        when(session.getAttribute("userInterestedCategories")).thenReturn(new ArrayList<Category>());
+        when(
+                userRecommendedResourceManager.getRecommendedResourcesByUserIdAndCategories(
+                        VALID_USER_ID,
+                        Collections.singletonList(CATEGORY),
+                        MINIMUM_RATING_REQUIRED_FOR_RESOURCE_TO_BE_RANKED_HIGHER_THAN_NEW_RESOURCES,
+                        MINIMUM_NUMBER_OF_RATINGS_BEFORE_RESOURCE_IS_RANKED)).thenReturn(LIST_OF_RECOMMENDED_RESOURCES);
+        homeController.filterRecommendedResources(VALID_CATEGORY_ID);
+        verify(engagementTracker).resourceViewed(VALID_RESOURCE_ID);
+    }
+
     /**
      * Expects {@link HomeController#filterRecommendedResources(int)} to log the
      * error message when the {@link ManagerException} is thrown by
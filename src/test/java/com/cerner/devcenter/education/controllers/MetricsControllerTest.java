@@ -0,0 +1,144 @@
+package com.cerner.devcenter.education.controllers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpSession;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.cerner.devcenter.education.managers.UserManager;
+import com.cerner.devcenter.education.user.UserProfileDetails;
+import com.cerner.devcenter.education.utils.AuthenticationStatusUtil;
+import com.cerner.devcenter.education.utils.MetricsProvider;
+import com.cerner.devcenter.education.utils.MetricsRegistry;
+
+/**
+ * This class tests the functionality of {@link MetricsController} for each of
+ * the metrics names configured in survey-servlet.xml and for a name that is
+ * not registered.
+ */
+@RunWith(Parameterized.class)
+public class MetricsControllerTest {
+
+    private static final String USER_DETAILS = "userDetails";
+    private static final String USER_ID = "AB123456";
+    private static final String UNKNOWN_NAME = "unknown";
+    private static final String[] REGISTERED_NAMES = { "connectionPool", "notifications", "recommendations",
+            "userProfiles", "ldap", "pageFragments", "recommendationEngine", "coCompletionIndex", "trending",
+            "engagement", "facets" };
+
+    @InjectMocks
+    private MetricsController metricsController;
+    @Mock
+    private AuthenticationStatusUtil status;
+    @Mock
+    private UserManager userManager;
+    @Spy
+    private MetricsRegistry metricsRegistry = new MetricsRegistry();
+    @Mock
+    private HttpSession session;
+    @Mock
+    private UserProfileDetails userProfileDetails;
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final String name;
+    private final Map<String, Object> metricsByName = new HashMap<>();
+
+    public MetricsControllerTest(final String name) {
+        this.name = name;
+    }
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> names() {
+        final Object[][] names = new Object[REGISTERED_NAMES.length + 1][];
+        for (int index = 0; index < REGISTERED_NAMES.length; index++) {
+            names[index] = new Object[] { REGISTERED_NAMES[index] };
+        }
+        names[REGISTERED_NAMES.length] = new Object[] { UNKNOWN_NAME };
+        return Arrays.asList(names);
+    }
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(status.isLoggedIn()).thenReturn(true);
+        when(session.getAttribute(USER_DETAILS)).thenReturn(userProfileDetails);
+        when(userProfileDetails.getUserId()).thenReturn(USER_ID);
+        final Map<String, MetricsProvider> providers = new HashMap<>();
+        for (final String registeredName : REGISTERED_NAMES) {
+            final Object metrics = new Object();
+            final MetricsProvider provider = mock(MetricsProvider.class);
+            when(provider.getMetrics()).thenReturn(metrics);
+            providers.put(registeredName, provider);
+            metricsByName.put(registeredName, metrics);
+        }
+        metricsRegistry.setProviders(providers);
+    }
+
+    /**
+     * Verifies that an admin receives the metrics registered under the name,
+     * or NOT_FOUND when there are none.
+     */
+    @Test
+    public void testGetMetricsForAdmin() {
+        when(userManager.isAdminUser(USER_ID)).thenReturn(true);
+        final ResponseEntity<Object> response = metricsController.getMetrics(name, session);
+        final Object metrics = metricsByName.get(name);
+        assertEquals(metrics == null ? HttpStatus.NOT_FOUND : HttpStatus.OK, response.getStatusCode());
+        assertSame(metrics, response.getBody());
+    }
+
+    /**
+     * Verifies that a non admin user is refused the metrics, without learning
+     * whether the name is registered.
+     */
+    @Test
+    public void testGetMetricsForNonAdmin() {
+        when(userManager.isAdminUser(USER_ID)).thenReturn(false);
+        final ResponseEntity<Object> response = metricsController.getMetrics(name, session);
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    /**
+     * Verifies that a user who is not logged in is refused the metrics.
+     */
+    @Test
+    public void testGetMetricsWhenNotLoggedIn() {
+        when(status.isLoggedIn()).thenReturn(false);
+        final ResponseEntity<Object> response = metricsController.getMetrics(name, session);
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    /**
+     * Verifies that a null session is rejected.
+     */
+    @Test
+    public void testGetMetricsWithNullSession() {
+        expectedException.expect(IllegalArgumentException.class);
+        metricsController.getMetrics(name, null);
+    }
+}
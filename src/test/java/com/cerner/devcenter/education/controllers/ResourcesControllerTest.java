@@ -5,10 +5,12 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
-import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
@@ -19,6 +21,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -37,6 +40,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.servlet.ModelAndView;
@@ -44,6 +49,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
+import com.cerner.devcenter.education.engagement.ResourceEngagementTracker;
 import com.cerner.devcenter.education.exceptions.CategoryIdNotFoundException;
 import com.cerner.devcenter.education.exceptions.DuplicateResourceTypeFoundException;
 import com.cerner.devcenter.education.exceptions.ResourceIdNotFoundException;
@@ -55,15 +61,22 @@ import com.cerner.devcenter.education.managers.ResourceRequestManager;
 import com.cerner.devcenter.education.managers.ResourceTypeManager;
 import com.cerner.devcenter.education.managers.TagManager;
 import com.cerner.devcenter.education.managers.UserManager;
+import com.cerner.devcenter.education.models.BulkResourceRequestAction;
+import com.cerner.devcenter.education.models.BulkResourceRequestResult;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.CategoryResourceForm;
+import com.cerner.devcenter.education.models.KeysetPage;
+import com.cerner.devcenter.education.models.RelatedResource;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
 import com.cerner.devcenter.education.models.ResourceRequest;
+import com.cerner.devcenter.education.models.ResourceRequestAction;
 import com.cerner.devcenter.education.models.ResourceStatus;
 import com.cerner.devcenter.education.models.ResourceType;
 import com.cerner.devcenter.education.models.Tag;
 import com.cerner.devcenter.education.models.User;
+import com.cerner.devcenter.education.search.ResourceFacetQuery;
+import com.cerner.devcenter.education.search.ResourceFacets;
 import com.cerner.devcenter.education.user.UserProfileDetails;
 import com.cerner.devcenter.education.utils.AuthenticationStatusUtil;
 import com.cerner.devcenter.education.utils.Constants;
@@ -109,6 +122,12 @@ public class ResourcesControllerTest {
     private static final String USER_NULL_ERROR_MESSAGE = "user cannot be null";
     private static final String MANAGE_RESOURCE = "manage_resources";
     private static final String LOGIN_REDIRECT = "redirect:/login";
+    private static final String NEXT_AFTER = "nextafter";
+    private static final String PAGE_COUNT = "pagecount";
+    private static final String RESOURCE_WITH_DIFFICULTY = "resourceWithDifficulty";
+    private static final int AFTER_RESOURCE_ID = 30;
+    private static final int NEXT_AFTER_RESOURCE_ID = 57;
+    private static final int APPROXIMATE_RESOURCE_COUNT = 95;
     private static final String ERROR_DELETING_RESOURCE_REQUESTS = "Error: unable to delete the resource request.";
     private static final String REQUEST_RESOURCE_PAGE = "request_resource";
     private static final String VALID_CATEGORY_NAME = "Java";
@@ -197,6 +216,8 @@ public class ResourcesControllerTest {
     private ModelAndView model;
     @Mock
     private EmailManager emailManager;
+    @Mock
+    private ResourceEngagementTracker engagementTracker;
 
     private MockMvc mockMvc;
     private Resource resource;
@@ -591,6 +612,19 @@ public class ResourcesControllerTest {
                 .andExpect(jsonPath("$[0].description", is(VALID_RESOURCE_DESCRIPTION)));
     }
 
+    /**
+     * {@link ResourcesController#findResources(Integer)} Verify that the
+     * resources of the category are counted as viewed.
+     */
+    @Test
+    public void testFindResourcesCountsViews() {
+        listOfResources = new ArrayList<Resource>();
+        listOfResources.add(resource);
+        when(resourceManager.getResourcesByCategoryId(VALID_CATEGORY_ID)).thenReturn(listOfResources);
+        resourcesController.findResources(VALID_CATEGORY_ID);
+        verify(engagementTracker).resourcesViewed(listOfResources);
+    }
+
     /**
      * {@link ResourcesController#findResources(Integer)} Verify that when
      * {@link ManagerException} is thrown at lower level, the method would also
@@ -666,7 +700,7 @@ public class ResourcesControllerTest {
     public void testShowResourcesWhenZeroCategoryIdSelected() {
         final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(0,
                 VALID_SELECTED_RESOURCE_TYPE_ID);
-        resourcesController.showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE);
+        resourcesController.showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE, null);
     }
 
     /**
@@ -678,7 +712,7 @@ public class ResourcesControllerTest {
     public void testShowResourcesWhenResourceTypeSelectedIsAny() {
         final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(VALID_SELECTED_CATEGORY_ID, 0);
         assertEquals(RESOURCES, resourcesController
-                .showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE).getViewName());
+                .showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE, null).getViewName());
     }
 
     /**
@@ -690,7 +724,7 @@ public class ResourcesControllerTest {
         final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(VALID_SELECTED_CATEGORY_ID,
                 RESOURCE_TYPE_ID_SMALLER_THAN_ZERO);
         assertEquals(RESOURCES, resourcesController
-                .showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE).getViewName());
+                .showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE, null).getViewName());
     }
 
     /**
@@ -702,7 +736,7 @@ public class ResourcesControllerTest {
         final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(CATEGORY_ID_SMALLER_THAN_ZERO,
                 VALID_SELECTED_RESOURCE_TYPE_ID);
         assertEquals(RESOURCES, resourcesController
-                .showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE).getViewName());
+                .showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE, null).getViewName());
     }
 
     /**
@@ -714,7 +748,7 @@ public class ResourcesControllerTest {
     public void testShowResourcesWithZeroCategoryId() {
         final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(CATEGORY_ID_SMALLER_THAN_ZERO,
                 VALID_SELECTED_RESOURCE_TYPE_ID);
-        resourcesController.showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE);
+        resourcesController.showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE, null);
     }
 
     /**
@@ -727,7 +761,7 @@ public class ResourcesControllerTest {
         final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(VALID_SELECTED_CATEGORY_ID,
                 VALID_SELECTED_RESOURCE_TYPE_ID);
         final ModelAndView returnModel = resourcesController.showResources(categoryResourceMapper, PAGE_NUMBER,
-                RESOURCES_PER_PAGE);
+                RESOURCES_PER_PAGE, null);
         assertEquals("resources", returnModel.getViewName());
         assertEquals(i18nBundle.getString("com.cerner.devcenter.education.controllers.errorNoResource"),
                 returnModel.getModel().get(ERROR_MESSAGE));
@@ -867,7 +901,7 @@ public class ResourcesControllerTest {
     @Test
     public void testAutocompleteWhenGetSearchedResourcesReturnsEmpty() throws DAOException, MalformedURLException {
         final List<Resource> emptyResources = new ArrayList<>();
-        when(resourceManager.getSearchedResources(SEARCH)).thenReturn(emptyResources);
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(emptyResources);
         resourcesController.autocomplete(SEARCH);
         assertEquals(0, resourcesController.autocomplete(SEARCH).size());
     }
@@ -881,11 +915,32 @@ public class ResourcesControllerTest {
             throws DAOException, MalformedURLException {
         final List<Resource> resources = new ArrayList<>();
         resources.add(new Resource(1, staticURL, "google", "google"));
-        when(resourceManager.getSearchedResources(SEARCH)).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(resources);
         resourcesController.autocomplete(SEARCH);
         assertEquals(1, resourcesController.autocomplete(SEARCH).size());
     }
 
+    /**
+     * Tests {@link ResourcesController#autocomplete(String)} orders the
+     * equally near resources with the popularity order of the engagement
+     * tracker and counts the returned resources as viewed.
+     */
+    @Test
+    public void testAutocompleteOrdersByPopularityAndCountsViews() {
+        final Resource first = new Resource(1, staticURL, "google", "google");
+        final Resource second = new Resource(2, staticURL, "google", "google");
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(Arrays.asList(first, second));
+        when(engagementTracker.getPopularityOrder()).thenReturn(new Comparator<Resource>() {
+            @Override
+            public int compare(final Resource left, final Resource right) {
+                return Integer.compare(right.getResourceId(), left.getResourceId());
+            }
+        });
+        final List<Resource> suggestions = resourcesController.autocomplete(SEARCH);
+        assertEquals(Arrays.asList(second, first), suggestions);
+        verify(engagementTracker).resourcesViewed(suggestions);
+    }
+
     /**
      * Tests {@link ResourcesController#autocomplete(String)} auto-complete when
      * search returns ten resources.
@@ -903,7 +958,7 @@ public class ResourcesControllerTest {
         resources.add(new Resource(8, staticURL, "google8", "google"));
         resources.add(new Resource(9, staticURL, "google9", "google"));
         resources.add(new Resource(10, staticURL, "google10", "google"));
-        when(resourceManager.getSearchedResources(SEARCH)).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(resources);
         resourcesController.autocomplete(SEARCH);
         assertEquals(10, resourcesController.autocomplete(SEARCH).size());
     }
@@ -926,7 +981,7 @@ public class ResourcesControllerTest {
         resources.add(new Resource(8, staticURL, "google8", "google"));
         resources.add(new Resource(9, staticURL, "google9", "google"));
         resources.add(new Resource(10, staticURL, "google10", "google"));
-        when(resourceManager.getSearchedResources(SEARCH)).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(resources);
         final List<Resource> actualResources = resourcesController.autocomplete(SEARCH);
         assertTrue("google:google1"
                 .equals(actualResources.get(0).getResourceName() + ":" + actualResources.get(0).getDescription()));
@@ -950,7 +1005,7 @@ public class ResourcesControllerTest {
         resources.add(new Resource(8, staticURL, "google8", "google"));
         resources.add(new Resource(9, staticURL, "google9", "google"));
         resources.add(new Resource(10, staticURL, "google10", "google"));
-        when(resourceManager.getSearchedResources(SEARCH)).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(resources);
         final List<Resource> actualResources = resourcesController.autocomplete(SEARCH);
         assertTrue("google:google10"
                 .equals(actualResources.get(9).getResourceName() + ":" + actualResources.get(9).getDescription()));
@@ -975,7 +1030,7 @@ public class ResourcesControllerTest {
         resources.add(new Resource(9, staticURL, "google9", "google"));
         resources.add(new Resource(10, staticURL, "google10", "google"));
         resources.add(new Resource(11, staticURL, "google11", "google"));
-        when(resourceManager.getSearchedResources(SEARCH)).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(resources);
         resourcesController.autocomplete(SEARCH);
         assertEquals(Constants.AUTOFILL_SIZE, resourcesController.autocomplete(SEARCH).size());
     }
@@ -999,7 +1054,7 @@ public class ResourcesControllerTest {
         resources.add(new Resource(9, staticURL, "google9", "google"));
         resources.add(new Resource(10, staticURL, "google10", "google"));
         resources.add(new Resource(11, staticURL, "google11", "google"));
-        when(resourceManager.getSearchedResources(SEARCH)).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(resources);
         final List<Resource> actualResources = resourcesController.autocomplete(SEARCH);
         assertTrue("google:google1"
                 .equals(actualResources.get(0).getResourceName() + ":" + actualResources.get(0).getDescription()));
@@ -1024,7 +1079,7 @@ public class ResourcesControllerTest {
         resources.add(new Resource(9, staticURL, "google9", "google"));
         resources.add(new Resource(10, staticURL, "google10", "google"));
         resources.add(new Resource(11, staticURL, "google11", "google"));
-        when(resourceManager.getSearchedResources(SEARCH)).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions(SEARCH)).thenReturn(resources);
         final List<Resource> actualResources = resourcesController.autocomplete(SEARCH);
         assertTrue("google:google10"
                 .equals(actualResources.get(9).getResourceName() + ":" + actualResources.get(9).getDescription()));
@@ -1048,7 +1103,7 @@ public class ResourcesControllerTest {
         resources.add(new Resource(9, staticURL, "mobile", "dojo"));
         resources.add(new Resource(10, staticURL, "javascript", "java"));
 
-        when(resourceManager.getSearchedResources("java")).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions("java")).thenReturn(resources);
         final List<Resource> actualResources = resourcesController.autocomplete("java");
 
         // Distance for name -> 0, Distance for description -> 6
@@ -1101,7 +1156,7 @@ public class ResourcesControllerTest {
         resources.add(new Resource(9, staticURL, " mobile", "dojo"));
         resources.add(new Resource(10, staticURL, " javascript", "java"));
 
-        when(resourceManager.getSearchedResources(" ")).thenReturn(resources);
+        when(resourceManager.getAutocompleteSuggestions(" ")).thenReturn(resources);
         final List<Resource> actualResources = resourcesController.autocomplete(" ");
 
         // Distance for name -> 4, Distance for description -> 4
@@ -1833,4 +1888,241 @@ public class ResourcesControllerTest {
             throw illegalArgumentException;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that {@link ResourcesController#showResources} reads the page
+     * after the given resource id and takes the page count from the
+     * approximate total instead of counting the resources.
+     */
+    @Test
+    public void testShowResourcesWithAfter() {
+        final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(VALID_SELECTED_CATEGORY_ID,
+                VALID_SELECTED_RESOURCE_TYPE_ID);
+        when(resourceCategoryRelationManager.getResourcesByCategoryIdAfter(VALID_SELECTED_CATEGORY_ID,
+                VALID_SELECTED_RESOURCE_TYPE_ID, AFTER_RESOURCE_ID, RESOURCES_PER_PAGE))
+                        .thenReturn(new KeysetPage<>(listOfResourceCategoryRelations, NEXT_AFTER_RESOURCE_ID,
+                                APPROXIMATE_RESOURCE_COUNT));
+        final ModelAndView modelAndView = resourcesController.showResources(categoryResourceMapper, PAGE_NUMBER,
+                RESOURCES_PER_PAGE, AFTER_RESOURCE_ID);
+        assertEquals(RESOURCES, modelAndView.getViewName());
+        assertEquals(listOfResourceCategoryRelations, modelAndView.getModel().get(RESOURCE_WITH_DIFFICULTY));
+        assertEquals(NEXT_AFTER_RESOURCE_ID, modelAndView.getModel().get(NEXT_AFTER));
+        assertEquals(10, modelAndView.getModel().get(PAGE_COUNT));
+    }
+
+    /**
+     * Verifies that {@link ResourcesController#showResources} without a
+     * resource id to read after offers the last resource id of a full page to
+     * read the next page after.
+     */
+    @Test
+    public void testShowResourcesWithoutAfterOnFullPage() {
+        final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(VALID_SELECTED_CATEGORY_ID, 0);
+        when(resourceCategoryRelationManager.getResourcesAndDifficultyLevelByCategoryIdWithPagination(
+                VALID_SELECTED_CATEGORY_ID, 1, PAGE_NUMBER)).thenReturn(listOfResourceCategoryRelations);
+        when(resourceCategoryRelationManager.getApproximateResourceCount(VALID_SELECTED_CATEGORY_ID, 0))
+                .thenReturn(APPROXIMATE_RESOURCE_COUNT);
+        final ModelAndView modelAndView = resourcesController.showResources(categoryResourceMapper, PAGE_NUMBER, 1,
+                null);
+        assertEquals(VALID_RESOURCE_ID, modelAndView.getModel().get(NEXT_AFTER));
+        assertEquals(APPROXIMATE_RESOURCE_COUNT, modelAndView.getModel().get(PAGE_COUNT));
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} from
+     * {@link ResourcesController#showResources} when the resource id to read
+     * after is negative.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testShowResourcesWithNegativeAfter() {
+        final CategoryResourceForm categoryResourceMapper = new CategoryResourceForm(VALID_SELECTED_CATEGORY_ID,
+                VALID_SELECTED_RESOURCE_TYPE_ID);
+        resourcesController.showResources(categoryResourceMapper, PAGE_NUMBER, RESOURCES_PER_PAGE, -1);
+    }
+
+    /**
+     * Verifies that {@link ResourcesController#getResourcesPage(int, int)}
+     * returns the page of resources read after the given resource id.
+     */
+    @Test
+    public void testGetResourcesPage() {
+        final KeysetPage<ResourceCategoryRelation> page = new KeysetPage<>(listOfResourceCategoryRelations,
+                NEXT_AFTER_RESOURCE_ID, APPROXIMATE_RESOURCE_COUNT);
+        when(resourceCategoryRelationManager.getResourcesForAllCategoriesAfter(AFTER_RESOURCE_ID, RESOURCES_PER_PAGE))
+                .thenReturn(page);
+        final ResponseEntity<KeysetPage<ResourceCategoryRelation>> response = resourcesController
+                .getResourcesPage(AFTER_RESOURCE_ID, RESOURCES_PER_PAGE);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    /**
+     * Verifies that {@link ResourcesController#getResourcesPage(int, int)} is
+     * forbidden when the admin is not logged in.
+     */
+    @Test
+    public void testGetResourcesPageWhenNotLoggedIn() {
+        when(authenticationStatus.isLoggedIn()).thenReturn(false);
+        assertEquals(HttpStatus.FORBIDDEN,
+                resourcesController.getResourcesPage(AFTER_RESOURCE_ID, RESOURCES_PER_PAGE).getStatusCode());
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourcesController#getRequestsPage(int, int, boolean)} returns
+     * the page of resource requests read after the given request id.
+     */
+    @Test
+    public void testGetRequestsPage() {
+        final KeysetPage<ResourceRequest> page = new KeysetPage<>(Collections.singletonList(new ResourceRequest()),
+                null, null);
+        when(resourceRequestManager.getResourceRequestsAfter(AFTER_RESOURCE_ID, RESOURCES_PER_PAGE, true))
+                .thenReturn(page);
+        final ResponseEntity<KeysetPage<ResourceRequest>> response = resourcesController
+                .getRequestsPage(AFTER_RESOURCE_ID, RESOURCES_PER_PAGE, true);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourcesController#updateRequestsInBulk(BulkResourceRequestAction, HttpSession)}
+     * returns the result of approving the requests.
+     */
+    @Test
+    public void testUpdateRequestsInBulk() {
+        final BulkResourceRequestAction bulkAction = new BulkResourceRequestAction();
+        bulkAction.setAction(ResourceRequestAction.Approve);
+        bulkAction.setRequestIds(REQUEST_IDS);
+        final BulkResourceRequestResult result = new BulkResourceRequestResult(ResourceRequestAction.Approve,
+                REQUEST_IDS.length, Collections.<Integer> emptyList());
+        when(resourceRequestManager.updateResourceRequestsInBulk(ResourceRequestAction.Approve, REQUEST_IDS))
+                .thenReturn(result);
+        final ResponseEntity<BulkResourceRequestResult> response = resourcesController
+                .updateRequestsInBulk(bulkAction, session);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourcesController#updateRequestsInBulk(BulkResourceRequestAction, HttpSession)}
+     * is forbidden, and changes nothing, when the user is not logged in.
+     */
+    @Test
+    public void testUpdateRequestsInBulkWhenNotLoggedIn() {
+        when(authenticationStatus.isLoggedIn()).thenReturn(false);
+        assertEquals(HttpStatus.FORBIDDEN,
+                resourcesController.updateRequestsInBulk(new BulkResourceRequestAction(), session).getStatusCode());
+        verifyZeroInteractions(resourceRequestManager);
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourcesController#updateRequestsInBulk(BulkResourceRequestAction, HttpSession)}
+     * is forbidden, and changes nothing, when the user is not an admin.
+     */
+    @Test
+    public void testUpdateRequestsInBulkWhenNotAdmin() {
+        when(userManager.isAdminUser(userInfo.getUserId())).thenReturn(false);
+        assertEquals(HttpStatus.FORBIDDEN,
+                resourcesController.updateRequestsInBulk(new BulkResourceRequestAction(), session).getStatusCode());
+        verifyZeroInteractions(resourceRequestManager);
+    }
+
+    /**
+     * Verifies that a request for the related resources of a resource is
+     * mapped to {@link ResourcesController#getRelatedResources(int, int)},
+     * asks for 5 resources by default and returns them as JSON.
+     */
+    @Test
+    public void testGetRelatedResources() throws Exception {
+        when(resourceManager.getRelatedResources(VALID_RESOURCE_ID, 5))
+                .thenReturn(Arrays.asList(new RelatedResource(resource, 3)));
+        mockMvc.perform(get("/app/resource/related").param("id", String.valueOf(VALID_RESOURCE_ID))
+                .accept("application/json"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].resource.resourceId", is(VALID_RESOURCE_ID)))
+                .andExpect(jsonPath("$[0].coCompletionCount", is(3)));
+    }
+
+    /**
+     * Verifies that {@link ResourcesController#getRelatedResources(int, int)}
+     * returns no resources when they cannot be retrieved.
+     */
+    @Test
+    public void testGetRelatedResourcesWhenManagerThrowsManagerException() {
+        when(resourceManager.getRelatedResources(VALID_RESOURCE_ID, 10)).thenThrow(managerException);
+        assertEquals(Collections.emptyList(), resourcesController.getRelatedResources(VALID_RESOURCE_ID, 10));
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when more related resources are
+     * asked for than {@link ResourcesController#getRelatedResources(int, int)}
+     * returns.
+     */
+    @Test
+    public void testGetRelatedResourcesWhenLimitIsTooLarge() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Number of related resources must be between 1 and 20");
+        resourcesController.getRelatedResources(VALID_RESOURCE_ID, 21);
+    }
+
+    /**
+     * Verifies that a POST to /app/resource/click is mapped to
+     * {@link ResourcesController#resourceClicked(int)}, counts the click and
+     * answers with no content.
+     */
+    @Test
+    public void testResourceClicked() throws Exception {
+        mockMvc.perform(post("/app/resource/click").param("id", String.valueOf(VALID_RESOURCE_ID)))
+                .andExpect(status().isNoContent());
+        verify(engagementTracker).resourceClicked(VALID_RESOURCE_ID);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when a click is counted for a
+     * resource id of 0.
+     */
+    @Test
+    public void testResourceClickedWithZeroResourceId() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource Id must be greater than 0");
+        resourcesController.resourceClicked(0);
+    }
+
+    /**
+     * Verifies that {@link ResourcesController#getResourceFacets} passes the
+     * filters to the manager as one query and returns its facets.
+     */
+    @Test
+    public void testGetResourceFacets() {
+        final ResourceFacetQuery query = new ResourceFacetQuery(Arrays.asList(VALID_SELECTED_CATEGORY_ID),
+                Arrays.asList(2), null, null, Arrays.asList(ResourceStatus.Available));
+        final ResourceFacets facets = new ResourceFacets(1, Arrays.asList(VALID_RESOURCE_ID), null,
+                Collections.singletonMap(VALID_SELECTED_CATEGORY_ID, 1), Collections.singletonMap(2, 1),
+                Collections.<Integer, Integer> emptyMap(), Collections.<Integer, Integer> emptyMap(),
+                Collections.singletonMap(ResourceStatus.Available.toString(), 1));
+        when(resourceCategoryRelationManager.getResourceFacets(query, AFTER_RESOURCE_ID, RESOURCES_PER_PAGE))
+                .thenReturn(facets);
+        final ResponseEntity<ResourceFacets> response = resourcesController.getResourceFacets(
+                Arrays.asList(VALID_SELECTED_CATEGORY_ID), Arrays.asList(2), null, null,
+                Arrays.asList(ResourceStatus.Available), AFTER_RESOURCE_ID, RESOURCES_PER_PAGE);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(facets, response.getBody());
+    }
+
+    /**
+     * Verifies that {@link ResourcesController#getResourceFacets} answers
+     * SERVICE_UNAVAILABLE when the facet index has not been built yet.
+     */
+    @Test
+    public void testGetResourceFacetsWhenIndexNotReady() {
+        when(resourceCategoryRelationManager.getResourceFacets(ResourceFacetQuery.ALL, 0, RESOURCES_PER_PAGE))
+                .thenThrow(new ManagerException());
+        final ResponseEntity<ResourceFacets> response = resourcesController.getResourceFacets(null, null, null,
+                null, null, 0, RESOURCES_PER_PAGE);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+}
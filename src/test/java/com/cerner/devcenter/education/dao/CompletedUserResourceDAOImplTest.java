@@ -10,9 +10,15 @@ import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.log4j.Appender;
 import org.apache.log4j.Level;
@@ -34,6 +40,7 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 
 import com.cerner.devcenter.education.admin.DAOException;
@@ -82,7 +89,12 @@ public class CompletedUserResourceDAOImplTest {
     private static final String ERROR_GETTING_COUNT_OF_COMPLETED_RESOURCES_ERROR_MESSAGE = "Unable to get count of completed resources for the user: %s";
     private static final String ERROR_GETTING_CATEGORY_WITH_MOST_COMPLETED_RESOURCES_ERROR_MESSAGE = "Unable to retrieve name of category with the most number of completed resources for the user: %s";
 
-    private static final String ADD_COMPLETED_USER_RESOURCE = "INSERT INTO completed_user_resource (user_id, resource_id, completion_rating, completion_date) VALUES (?,?,?,?)";
+    private static final String ADD_COMPLETED_USER_RESOURCE = "WITH completed AS (INSERT INTO completed_user_resource (user_id, resource_id, completion_rating, completion_date) VALUES (?,?,?,?) "
+            + "RETURNING resource_id, completion_rating) "
+            + "INSERT INTO resource_rating_summary (resource_id, rating_count, rating_sum) "
+            + "SELECT resource_id, 1, completion_rating FROM completed "
+            + "ON CONFLICT (resource_id) DO UPDATE SET rating_count = resource_rating_summary.rating_count + EXCLUDED.rating_count, "
+            + "rating_sum = resource_rating_summary.rating_sum + EXCLUDED.rating_sum";
     private static final String GET_COUNT_OF_COMPLETED_RESOURCES_BY_USER_ID_QUERY = "SELECT COUNT(completion_rating) as count FROM completed_user_resource WHERE user_id = ?";
     private static final String GET_CATEGORY_NAME_WITH_MOST_COMPLETED_RESOURCES_BY_USER_ID_QUERY = "SELECT ct.name FROM completed_user_resource cr "
             + "INNER JOIN category_resource_reltn crt ON cr.resource_id = crt.resource_id "
@@ -412,6 +424,90 @@ public class CompletedUserResourceDAOImplTest {
         }
     }
 
+    /**
+     * Expects
+     * {@link CompletedUserResourceDAOImpl#getRecentlyCompletedResourceIdsByUserAfter(String, int, int)}
+     * to throw an {@link IllegalArgumentException} when the user id to read
+     * after is <code>null</code>.
+     */
+    @Test
+    public void testGetRecentlyCompletedResourceIdsByUserAfterWhenAfterUserIdIsNull() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("User ID to read after cannot be null");
+        completedUserResourceDAOImpl.getRecentlyCompletedResourceIdsByUserAfter(null, 10, 10);
+    }
+
+    /**
+     * Expects
+     * {@link CompletedUserResourceDAOImpl#getRecentlyCompletedResourceIdsByUserAfter(String, int, int)}
+     * to throw an {@link IllegalArgumentException} when the number of users
+     * is 0.
+     */
+    @Test
+    public void testGetRecentlyCompletedResourceIdsByUserAfterWhenNumberOfUsersIsZero() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Number of users must be greater than 0");
+        completedUserResourceDAOImpl.getRecentlyCompletedResourceIdsByUserAfter("", 0, 10);
+    }
+
+    /**
+     * Expects
+     * {@link CompletedUserResourceDAOImpl#getRecentlyCompletedResourceIdsByUserAfter(String, int, int)}
+     * to throw an {@link IllegalArgumentException} when the number of
+     * resources per user is 0.
+     */
+    @Test
+    public void testGetRecentlyCompletedResourceIdsByUserAfterWhenNumberOfResourcesIsZero() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Number of resources per user must be greater than 0");
+        completedUserResourceDAOImpl.getRecentlyCompletedResourceIdsByUserAfter("", 10, 0);
+    }
+
+    /**
+     * Expects
+     * {@link CompletedUserResourceDAOImpl#getRecentlyCompletedResourceIdsByUserAfter(String, int, int)}
+     * to throw a {@link DAOException} when
+     * {@link JdbcTemplate#query(String, RowCallbackHandler, Object...)} throws
+     * a {@link DataAccessException}.
+     */
+    @Test
+    public void testGetRecentlyCompletedResourceIdsByUserAfterWhenJdbcThrowsDataAccessException()
+            throws DAOException {
+        Mockito.doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class),
+                anyInt(), anyString(), anyInt());
+        expectedException.expect(DAOException.class);
+        expectedException.expectCause(Matchers.<Throwable>equalTo(dataAccessException));
+        expectedException.expectMessage("Unable to read the completed resources of the users after: " + VALID_USER_ID);
+        completedUserResourceDAOImpl.getRecentlyCompletedResourceIdsByUserAfter(VALID_USER_ID, 10, 5);
+    }
+
+    /**
+     * Verifies that
+     * {@link CompletedUserResourceDAOImpl#getRecentlyCompletedResourceIdsByUserAfter(String, int, int)}
+     * binds the number of resources per user, the user id to read after and
+     * the number of users, and keeps the users in the order they are read.
+     */
+    @Test
+    public void testGetRecentlyCompletedResourceIdsByUserAfter() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> handler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        final Map<String, int[]> resourceIdsByUser = completedUserResourceDAOImpl
+                .getRecentlyCompletedResourceIdsByUserAfter(VALID_USER_ID, 10, 5);
+        Mockito.verify(jdbcTemplate).query(anyString(), handler.capture(), Mockito.eq(5),
+                Mockito.eq(VALID_USER_ID), Mockito.eq(10));
+        final ResultSet resultSet = Mockito.mock(ResultSet.class);
+        final Array firstResourceIds = Mockito.mock(Array.class);
+        final Array secondResourceIds = Mockito.mock(Array.class);
+        when(resultSet.getString("user_Id")).thenReturn("ZZ000002", "ZZ000001");
+        when(resultSet.getArray("resource_ids")).thenReturn(firstResourceIds, secondResourceIds);
+        when(firstResourceIds.getArray()).thenReturn(new Integer[] { 3, 1 });
+        when(secondResourceIds.getArray()).thenReturn(new Integer[] { 2 });
+        handler.getValue().processRow(resultSet);
+        handler.getValue().processRow(resultSet);
+        assertEquals(Arrays.asList("ZZ000002", "ZZ000001"), new ArrayList<>(resourceIdsByUser.keySet()));
+        assertTrue(Arrays.equals(new int[] { 3, 1 }, resourceIdsByUser.get("ZZ000002")));
+        assertTrue(Arrays.equals(new int[] { 2 }, resourceIdsByUser.get("ZZ000001")));
+    }
+
     /**
      * Expects
      * {@link CompletedUserResourceDAOImpl#getMostRecentlyCompletedResources(String, int)}
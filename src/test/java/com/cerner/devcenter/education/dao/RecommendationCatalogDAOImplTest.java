@@ -0,0 +1,191 @@
+package com.cerner.devcenter.education.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.RecommendationCatalogDAOImpl.RecommendableResourceRowMapper;
+import com.cerner.devcenter.education.models.RecommendableResource;
+
+/**
+ * Tests the functionalities of {@link RecommendationCatalogDAOImpl}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RecommendationCatalogDAOImplTest {
+
+    private static final String USER_ID = "AB012345";
+    private static final String ANOTHER_USER_ID = "CD012345";
+    private static final long COMPLETION_DATE = 1500000000L;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @InjectMocks
+    private RecommendationCatalogDAOImpl catalogDAO;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DataAccessException dataAccessException;
+    @Mock
+    private ResultSet resultSet;
+    @Mock
+    private List<RecommendableResource> recommendableResources;
+
+    /**
+     * Verifies that the catalog rows read by the query are returned.
+     */
+    @Test
+    public void testGetRecommendableResources() throws DAOException {
+        when(jdbcTemplate.query(anyString(), any(RecommendableResourceRowMapper.class)))
+                .thenReturn(recommendableResources);
+        assertSame(recommendableResources, catalogDAO.getRecommendableResources());
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testGetRecommendableResourcesWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        when(jdbcTemplate.query(anyString(), any(RecommendableResourceRowMapper.class)))
+                .thenThrow(dataAccessException);
+        catalogDAO.getRecommendableResources();
+    }
+
+    /**
+     * Verifies that a row is mapped to a {@link RecommendableResource}, with
+     * its category, difficulty level, rating summary and click count.
+     */
+    @Test
+    public void testRecommendableResourceRowMapper() throws Exception {
+        when(resultSet.getInt("resource_id")).thenReturn(7);
+        when(resultSet.getString("link")).thenReturn("http://www.example.com");
+        when(resultSet.getString("resource_description")).thenReturn("Learn loops in java.");
+        when(resultSet.getString("resource_name")).thenReturn("Loops");
+        when(resultSet.getInt("id")).thenReturn(3);
+        when(resultSet.getString("category_name")).thenReturn("Java");
+        when(resultSet.getString("category_description")).thenReturn("Fundamentals of Java.");
+        when(resultSet.getInt("difficulty_level")).thenReturn(2);
+        when(resultSet.getInt("rating_count")).thenReturn(4);
+        when(resultSet.getLong("rating_sum")).thenReturn(13L);
+        when(resultSet.getLong("click_count")).thenReturn(21L);
+        final RecommendableResource row = new RecommendableResourceRowMapper().mapRow(resultSet, 0);
+        assertEquals(7, row.getResource().getResourceId());
+        assertEquals(new URL("http://www.example.com"), row.getResource().getResourceLink());
+        assertEquals(3, row.getCategory().getId());
+        assertEquals(2, row.getDifficultyLevel());
+        assertEquals(4, row.getRatingCount());
+        assertEquals(13L, row.getRatingSum());
+        assertEquals(21L, row.getClickCount());
+    }
+
+    /**
+     * Expects {@link SQLException} when the link of a resource is not a valid
+     * URL.
+     */
+    @Test
+    public void testRecommendableResourceRowMapperWithInvalidLink() throws SQLException {
+        expectedException.expect(SQLException.class);
+        when(resultSet.getString("link")).thenReturn("not a link");
+        new RecommendableResourceRowMapper().mapRow(resultSet, 0);
+    }
+
+    /**
+     * Verifies that the completed resources are read with one query and
+     * grouped into one bit set per user.
+     */
+    @Test
+    public void testGetCompletedResourceIdsByUser() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> handler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        final Map<String, BitSet> completedResourceIdsByUser = catalogDAO.getCompletedResourceIdsByUser();
+        verify(jdbcTemplate).query(anyString(), handler.capture());
+        when(resultSet.getString("user_id")).thenReturn(USER_ID, ANOTHER_USER_ID, USER_ID);
+        when(resultSet.getInt("resource_id")).thenReturn(3, 5, 64);
+        for (int row = 0; row < 3; row++) {
+            handler.getValue().processRow(resultSet);
+        }
+        assertEquals(2, completedResourceIdsByUser.size());
+        final BitSet completed = completedResourceIdsByUser.get(USER_ID);
+        assertEquals(2, completed.cardinality());
+        assertTrue(completed.get(3));
+        assertTrue(completed.get(64));
+        assertTrue(completedResourceIdsByUser.get(ANOTHER_USER_ID).get(5));
+    }
+
+    /**
+     * Verifies that no user is returned when nothing has been completed.
+     */
+    @Test
+    public void testGetCompletedResourceIdsByUserWhenNothingCompleted() throws DAOException {
+        assertEquals(Collections.emptyMap(), catalogDAO.getCompletedResourceIdsByUser());
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testGetCompletedResourceIdsByUserWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        catalogDAO.getCompletedResourceIdsByUser();
+    }
+
+    /**
+     * Verifies that the completions since a date are read with one query on
+     * the completion date and grouped into one bit set per user.
+     */
+    @Test
+    public void testGetCompletedResourceIdsByUserSince() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> handler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        final Map<String, BitSet> completedResourceIdsByUser = catalogDAO
+                .getCompletedResourceIdsByUserSince(COMPLETION_DATE);
+        verify(jdbcTemplate).query(anyString(), handler.capture(), eq(COMPLETION_DATE));
+        when(resultSet.getString("user_id")).thenReturn(USER_ID, USER_ID);
+        when(resultSet.getInt("resource_id")).thenReturn(3, 5);
+        for (int row = 0; row < 2; row++) {
+            handler.getValue().processRow(resultSet);
+        }
+        assertEquals(1, completedResourceIdsByUser.size());
+        final BitSet completed = completedResourceIdsByUser.get(USER_ID);
+        assertEquals(2, completed.cardinality());
+        assertTrue(completed.get(3));
+        assertTrue(completed.get(5));
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testGetCompletedResourceIdsByUserSinceWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), anyLong());
+        catalogDAO.getCompletedResourceIdsByUserSince(COMPLETION_DATE);
+    }
+}
@@ -0,0 +1,131 @@
+package com.cerner.devcenter.education.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
+
+/**
+ * Tests the functionalities of {@link ResourceEngagementDAOImpl}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceEngagementDAOImplTest {
+
+    private static final int[] RESOURCE_IDS = { 3, 7 };
+    private static final long[] VIEW_COUNTS = { 10, 4 };
+    private static final long[] CLICK_COUNTS = { 2, 0 };
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @InjectMocks
+    private ResourceEngagementDAOImpl engagementDAO;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DataAccessException dataAccessException;
+    @Mock
+    private ResultSet resultSet;
+
+    /**
+     * Verifies that the counts of a batch are added with one statement,
+     * bound as three arrays.
+     */
+    @Test
+    public void testAddEngagementCounts() throws DAOException {
+        when(jdbcTemplate.update(anyString(), eq(SqlArrayValue.ofInts(RESOURCE_IDS)),
+                eq(SqlArrayValue.ofLongs(VIEW_COUNTS)), eq(SqlArrayValue.ofLongs(CLICK_COUNTS)))).thenReturn(2);
+        assertEquals(2, engagementDAO.addEngagementCounts(RESOURCE_IDS, VIEW_COUNTS, CLICK_COUNTS));
+    }
+
+    /**
+     * Verifies that an empty batch does not reach the database.
+     */
+    @Test
+    public void testAddEngagementCountsWithEmptyBatch() throws DAOException {
+        assertEquals(0, engagementDAO.addEngagementCounts(new int[0], new long[0], new long[0]));
+        verifyZeroInteractions(jdbcTemplate);
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testAddEngagementCountsWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage("Error: unable to add the view and click counts of the resources.");
+        when(jdbcTemplate.update(anyString(), any(SqlArrayValue.class), any(SqlArrayValue.class),
+                any(SqlArrayValue.class))).thenThrow(dataAccessException);
+        engagementDAO.addEngagementCounts(RESOURCE_IDS, VIEW_COUNTS, CLICK_COUNTS);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the resource ids are null.
+     */
+    @Test
+    public void testAddEngagementCountsWithNullResourceIds() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource ids cannot be null");
+        engagementDAO.addEngagementCounts(null, VIEW_COUNTS, CLICK_COUNTS);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when there are fewer counts than
+     * resource ids.
+     */
+    @Test
+    public void testAddEngagementCountsWithMissingCounts() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("There must be one view and one click count per resource id");
+        engagementDAO.addEngagementCounts(RESOURCE_IDS, VIEW_COUNTS, new long[] { 1 });
+    }
+
+    /**
+     * Verifies that the click counts are read with one query into a map by
+     * resource id.
+     */
+    @Test
+    public void testGetClickCounts() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> rowHandler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        final Map<Integer, Long> clickCounts = engagementDAO.getClickCounts();
+        verify(jdbcTemplate).query(anyString(), rowHandler.capture());
+        when(resultSet.getInt("resource_id")).thenReturn(3);
+        when(resultSet.getLong("click_count")).thenReturn(12L);
+        rowHandler.getValue().processRow(resultSet);
+        assertEquals(1, clickCounts.size());
+        assertEquals(Long.valueOf(12), clickCounts.get(3));
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testGetClickCountsWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage("Error: unable to read the click counts of the resources.");
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        engagementDAO.getClickCounts();
+    }
+}
@@ -0,0 +1,161 @@
+package com.cerner.devcenter.education.dao;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.ResourceFacetDAO.ResourceFacetHandler;
+
+/**
+ * Tests the functionalities of {@link ResourceFacetDAOImpl}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceFacetDAOImplTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @InjectMocks
+    private ResourceFacetDAOImpl resourceFacetDAO;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DataAccessException dataAccessException;
+    @Mock
+    private ResultSet resultSet;
+
+    private final List<Object[]> rows = new ArrayList<>();
+    private final ResourceFacetHandler handler = new ResourceFacetHandler() {
+        @Override
+        public void resource(final int resourceId, final int resourceTypeId, final String status) {
+            rows.add(new Object[] { "resource", resourceId, resourceTypeId, status });
+        }
+
+        @Override
+        public void category(final int resourceId, final int categoryId, final int difficultyLevel) {
+            rows.add(new Object[] { "category", resourceId, categoryId, difficultyLevel });
+        }
+
+        @Override
+        public void tag(final int resourceId, final int tagId) {
+            rows.add(new Object[] { "tag", resourceId, tagId });
+        }
+    };
+
+    /**
+     * Verifies that the type and status of the resources are streamed to the
+     * handler row by row.
+     */
+    @Test
+    public void testReadResources() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> rowHandler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        resourceFacetDAO.readResources(handler);
+        verify(jdbcTemplate).query(anyString(), rowHandler.capture());
+        when(resultSet.getInt("resource_id")).thenReturn(3);
+        when(resultSet.getInt("type_id")).thenReturn(2);
+        when(resultSet.getString("status")).thenReturn("Available");
+        rowHandler.getValue().processRow(resultSet);
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[] { "resource", 3, 2, "Available" }, rows.get(0));
+    }
+
+    /**
+     * Verifies that the categories and difficulty levels of the resources are
+     * streamed to the handler row by row.
+     */
+    @Test
+    public void testReadCategories() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> rowHandler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        resourceFacetDAO.readCategories(handler);
+        verify(jdbcTemplate).query(anyString(), rowHandler.capture());
+        when(resultSet.getInt("resource_id")).thenReturn(3);
+        when(resultSet.getInt("category_id")).thenReturn(11);
+        when(resultSet.getInt("difficulty_level")).thenReturn(4);
+        rowHandler.getValue().processRow(resultSet);
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[] { "category", 3, 11, 4 }, rows.get(0));
+    }
+
+    /**
+     * Verifies that the tags of the resources are streamed to the handler row
+     * by row.
+     */
+    @Test
+    public void testReadTags() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> rowHandler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        resourceFacetDAO.readTags(handler);
+        verify(jdbcTemplate).query(anyString(), rowHandler.capture());
+        when(resultSet.getInt("resource_id")).thenReturn(3);
+        when(resultSet.getInt("tag_id")).thenReturn(8);
+        rowHandler.getValue().processRow(resultSet);
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[] { "tag", 3, 8 }, rows.get(0));
+    }
+
+    /**
+     * Verifies that a database error while reading the resources is wrapped in
+     * a {@link DAOException}.
+     */
+    @Test
+    public void testReadResourcesWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage("Error: unable to read the types and statuses of the resources.");
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        resourceFacetDAO.readResources(handler);
+    }
+
+    /**
+     * Verifies that a database error while reading the categories is wrapped
+     * in a {@link DAOException}.
+     */
+    @Test
+    public void testReadCategoriesWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage("Error: unable to read the categories of the resources.");
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        resourceFacetDAO.readCategories(handler);
+    }
+
+    /**
+     * Verifies that a database error while reading the tags is wrapped in a
+     * {@link DAOException}.
+     */
+    @Test
+    public void testReadTagsWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage("Error: unable to read the tags of the resources.");
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        resourceFacetDAO.readTags(handler);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the handler is null.
+     */
+    @Test
+    public void testReadResourcesWithNullHandler() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource facet handler cannot be null");
+        resourceFacetDAO.readResources(null);
+    }
+}
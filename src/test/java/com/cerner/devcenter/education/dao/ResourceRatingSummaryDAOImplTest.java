@@ -0,0 +1,85 @@
+package com.cerner.devcenter.education.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.cerner.devcenter.education.admin.DAOException;
+
+/**
+ * Tests the functionalities of {@link ResourceRatingSummaryDAOImpl}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceRatingSummaryDAOImplTest {
+
+    private static final String LOCK_COMPLETED_USER_RESOURCE_QUERY = "LOCK TABLE completed_user_resource IN SHARE MODE";
+    private static final List<Integer> DRIFTED_RESOURCE_IDS = Arrays.asList(2, 7);
+    private static final int REBUILT_COUNT = 2;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @InjectMocks
+    private ResourceRatingSummaryDAOImpl ratingSummaryDAO;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DataAccessException dataAccessException;
+
+    /**
+     * Verifies that the ids of the drifted resources are returned.
+     */
+    @Test
+    public void testGetResourceIdsWithDriftedRatingSummary() throws DAOException {
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class))).thenReturn(DRIFTED_RESOURCE_IDS);
+        assertEquals(DRIFTED_RESOURCE_IDS, ratingSummaryDAO.getResourceIdsWithDriftedRatingSummary());
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testGetResourceIdsWithDriftedRatingSummaryWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class))).thenThrow(dataAccessException);
+        ratingSummaryDAO.getResourceIdsWithDriftedRatingSummary();
+    }
+
+    /**
+     * Verifies that the ratings are locked before the summaries are rebuilt
+     * and that the number of corrected summaries is returned.
+     */
+    @Test
+    public void testRebuildRatingSummaries() throws DAOException {
+        when(jdbcTemplate.update(anyString())).thenReturn(REBUILT_COUNT);
+        assertEquals(REBUILT_COUNT, ratingSummaryDAO.rebuildRatingSummaries());
+        final InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(LOCK_COMPLETED_USER_RESOURCE_QUERY);
+        inOrder.verify(jdbcTemplate).update(anyString());
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testRebuildRatingSummariesWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        when(jdbcTemplate.update(anyString())).thenThrow(dataAccessException);
+        ratingSummaryDAO.rebuildRatingSummaries();
+    }
+}
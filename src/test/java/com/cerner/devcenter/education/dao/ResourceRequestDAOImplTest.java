@@ -12,6 +12,7 @@ import static org.mockito.Mockito.when;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -21,12 +22,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.dao.DataAccessException;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.models.ResourceRequest;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * Tests the {@link ResourceRequestDAOImpl} class.
@@ -38,12 +39,17 @@ import com.cerner.devcenter.education.models.ResourceRequest;
 public class ResourceRequestDAOImplTest {
 
     private static final String INSERT_RESOURCE_REQUEST_QUERY = "INSERT INTO resource_request (user_id, category_name, resource_name) VALUES (?,?,?)";
-    private static final String DELETE_RESOURCE_REQUESTS_IN_BATCH_QUERY = "DELETE FROM resource_request WHERE id = ?";
+    private static final String DELETE_RESOURCE_REQUESTS_QUERY = "DELETE FROM resource_request WHERE id = ANY(?) RETURNING id";
+    private static final String APPROVE_RESOURCE_REQUESTS_QUERY = "UPDATE resource_request SET is_approved = true WHERE id = ANY(?) AND NOT is_approved RETURNING id";
+    private static final String GET_RESOURCE_REQUESTS_AFTER_QUERY = "SELECT id, user_id, category_name, resource_name, is_approved FROM resource_request WHERE id > ? ORDER BY id LIMIT ?";
 
     private static final String VALID_USER_ID = "AA012345";
     private static final String VALID_CATEGORY_NAME = "Java";
     private static final String VALID_RESOURCE_NAME = "YouTube";
     private static final int[] REQUEST_IDS = new int[] { 1, 2, 3 };
+    private static final int AFTER_REQUEST_ID = 25;
+    private static final int PAGE_LIMIT = 20;
+    private static final int APPROXIMATE_REQUEST_COUNT = 640;
 
     private static final String EMPTY = "";
     private static final String BLANK = " ";
@@ -56,6 +62,7 @@ public class ResourceRequestDAOImplTest {
 
     private static final String RESOURCE_REQUEST_DB_INSERT_EXPECTED_MSG = "Error while adding resource request to the database.";
     private static final String RESOURCE_REQUEST_DB_READ_EXPECTED_MSG = "Error while retrieving all resource requests.";
+    private static final String RESOURCE_REQUEST_DB_APPROVE_ERROR_MSG = "Error while approving the resource requests.";
     private static final String RESOURCE_REQUEST_DB_DELETE_ERROR_MSG = "Error while deleting the resource request.";
 
     @InjectMocks
@@ -342,13 +349,13 @@ public class ResourceRequestDAOImplTest {
     /**
      * Expects {@link ResourceRequestDAOImpl#deleteResourceRequests(int[])} to
      * throw {@link DAOException} when
-     * {@link JdbcTemplate#batchUpdate(String, BatchPreparedStatementSetter)}
-     * throws {@link DataAccessException}.
+     * {@link JdbcTemplate#queryForList(String, Class, Object...)} throws
+     * {@link DataAccessException}.
      */
     @Test(expected = DAOException.class)
     public void testDeleteResourceRequests_ThrowsDataAccessException() throws DAOException {
-        when(jdbcTemplate.batchUpdate(eq(DELETE_RESOURCE_REQUESTS_IN_BATCH_QUERY),
-                any(BatchPreparedStatementSetter.class))).thenThrow(dataAccessException);
+        when(jdbcTemplate.queryForList(DELETE_RESOURCE_REQUESTS_QUERY, Integer.class,
+                SqlArrayValue.ofInts(REQUEST_IDS))).thenThrow(dataAccessException);
         try {
             resourceRequestDAOImpl.deleteResourceRequests(REQUEST_IDS);
         } catch (final DAOException e) {
@@ -359,14 +366,114 @@ public class ResourceRequestDAOImplTest {
 
     /**
      * Expects {@link ResourceRequestDAOImpl#deleteResourceRequests(int[])} to
-     * run successfully when no exception is thrown.
+     * delete every request in one statement, with the ids bound as one array,
+     * and return the ids that were deleted.
      */
     @Test
     public void testDeleteResourceRequests() throws DAOException {
-        when(jdbcTemplate.batchUpdate(eq(DELETE_RESOURCE_REQUESTS_IN_BATCH_QUERY),
-                any(BatchPreparedStatementSetter.class))).thenReturn(new int[] { 1 });
-        resourceRequestDAOImpl.deleteResourceRequests(REQUEST_IDS);
-        verify(jdbcTemplate, times(1)).batchUpdate(eq(DELETE_RESOURCE_REQUESTS_IN_BATCH_QUERY),
-                any(BatchPreparedStatementSetter.class));
+        when(jdbcTemplate.queryForList(DELETE_RESOURCE_REQUESTS_QUERY, Integer.class,
+                SqlArrayValue.ofInts(REQUEST_IDS))).thenReturn(Arrays.asList(3, 1));
+        assertEquals(Arrays.asList(3, 1), resourceRequestDAOImpl.deleteResourceRequests(REQUEST_IDS));
+        verify(jdbcTemplate, times(1)).queryForList(DELETE_RESOURCE_REQUESTS_QUERY, Integer.class,
+                SqlArrayValue.ofInts(REQUEST_IDS));
+    }
+
+    /**
+     * Expects {@link ResourceRequestDAOImpl#approveResourceRequests(int[])} to
+     * throw {@link IllegalArgumentException} when ids is empty.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testApproveResourceRequests_EmptyIds() throws DAOException {
+        try {
+            resourceRequestDAOImpl.approveResourceRequests(new int[0]);
+        } catch (final IllegalArgumentException e) {
+            assertEquals(INVALID_REQUEST_IDS_ERROR_MSG, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Expects {@link ResourceRequestDAOImpl#approveResourceRequests(int[])} to
+     * throw {@link DAOException} when
+     * {@link JdbcTemplate#queryForList(String, Class, Object...)} throws
+     * {@link DataAccessException}.
+     */
+    @Test(expected = DAOException.class)
+    public void testApproveResourceRequests_ThrowsDataAccessException() throws DAOException {
+        when(jdbcTemplate.queryForList(APPROVE_RESOURCE_REQUESTS_QUERY, Integer.class,
+                SqlArrayValue.ofInts(REQUEST_IDS))).thenThrow(dataAccessException);
+        try {
+            resourceRequestDAOImpl.approveResourceRequests(REQUEST_IDS);
+        } catch (final DAOException e) {
+            assertEquals(RESOURCE_REQUEST_DB_APPROVE_ERROR_MSG, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Expects {@link ResourceRequestDAOImpl#approveResourceRequests(int[])} to
+     * approve every request in one statement and return the ids that were
+     * approved.
+     */
+    @Test
+    public void testApproveResourceRequests() throws DAOException {
+        when(jdbcTemplate.queryForList(APPROVE_RESOURCE_REQUESTS_QUERY, Integer.class,
+                SqlArrayValue.ofInts(REQUEST_IDS))).thenReturn(Arrays.asList(2));
+        assertEquals(Arrays.asList(2), resourceRequestDAOImpl.approveResourceRequests(REQUEST_IDS));
+    }
+
+    /**
+     * Expects {@link ResourceRequestDAOImpl#getResourceRequestsAfter(int, int)}
+     * to seek past the given id and limit the number of requests.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetResourceRequestsAfter() throws DAOException {
+        when(jdbcTemplate.query(eq(GET_RESOURCE_REQUESTS_AFTER_QUERY), any(RowMapper.class), eq(AFTER_REQUEST_ID),
+                eq(PAGE_LIMIT))).thenReturn(requests);
+        assertSame(requests, resourceRequestDAOImpl.getResourceRequestsAfter(AFTER_REQUEST_ID, PAGE_LIMIT));
+    }
+
+    /**
+     * Expects {@link ResourceRequestDAOImpl#getResourceRequestsAfter(int, int)}
+     * to throw {@link IllegalArgumentException} when the limit is 0.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourceRequestsAfter_ZeroLimit() throws DAOException {
+        resourceRequestDAOImpl.getResourceRequestsAfter(AFTER_REQUEST_ID, 0);
+    }
+
+    /**
+     * Expects {@link ResourceRequestDAOImpl#getResourceRequestsAfter(int, int)}
+     * to throw {@link DAOException} when
+     * {@link JdbcTemplate#query(String, RowMapper, Object...)} throws
+     * {@link DataAccessException}.
+     */
+    @Test(expected = DAOException.class)
+    @SuppressWarnings("unchecked")
+    public void testGetResourceRequestsAfter_JdbcTemplateThrowsDataAccessException() throws DAOException {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(AFTER_REQUEST_ID), eq(PAGE_LIMIT)))
+                .thenThrow(dataAccessException);
+        resourceRequestDAOImpl.getResourceRequestsAfter(AFTER_REQUEST_ID, PAGE_LIMIT);
+    }
+
+    /**
+     * Expects {@link ResourceRequestDAOImpl#getApproximateResourceRequestCount()}
+     * to return the estimate read from the planner statistics.
+     */
+    @Test
+    public void testGetApproximateResourceRequestCount() throws DAOException {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(APPROXIMATE_REQUEST_COUNT);
+        assertEquals(APPROXIMATE_REQUEST_COUNT, resourceRequestDAOImpl.getApproximateResourceRequestCount());
+    }
+
+    /**
+     * Expects {@link ResourceRequestDAOImpl#getApproximateResourceRequestCount()}
+     * to throw {@link DAOException} when the estimate cannot be read.
+     */
+    @Test(expected = DAOException.class)
+    public void testGetApproximateResourceRequestCount_JdbcTemplateThrowsDataAccessException() throws DAOException {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenThrow(dataAccessException);
+        resourceRequestDAOImpl.getApproximateResourceRequestCount();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,218 @@
+package com.cerner.devcenter.education.dao;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.TrendingDAO.CompletionCountHandler;
+
+/**
+ * Tests the functionalities of {@link TrendingDAOImpl}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TrendingDAOImplTest {
+
+    private static final long FROM_SECONDS = 1000L;
+    private static final long TO_SECONDS = 5000L;
+    private static final int BUCKET_SECONDS = 3600;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @InjectMocks
+    private TrendingDAOImpl trendingDAO;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private DataAccessException dataAccessException;
+    @Mock
+    private ResultSet resultSet;
+
+    private final List<long[]> counts = new ArrayList<>();
+    private final CompletionCountHandler handler = new CompletionCountHandler() {
+        @Override
+        public void count(final int id, final long bucket, final long completions) {
+            counts.add(new long[] { id, bucket, completions });
+        }
+    };
+
+    /**
+     * Verifies that the resource completions are counted with the bucket
+     * length and the time range bound, and streamed to the handler row by
+     * row.
+     */
+    @Test
+    public void testCountResourceCompletions() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> rowHandler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        trendingDAO.countResourceCompletions(FROM_SECONDS, TO_SECONDS, BUCKET_SECONDS, handler);
+        verify(jdbcTemplate).query(anyString(), rowHandler.capture(), eq(BUCKET_SECONDS), eq(FROM_SECONDS),
+                eq(TO_SECONDS));
+        when(resultSet.getInt("id")).thenReturn(7, 9);
+        when(resultSet.getLong("bucket")).thenReturn(0L, 1L);
+        when(resultSet.getLong("completions")).thenReturn(3L, 5L);
+        rowHandler.getValue().processRow(resultSet);
+        rowHandler.getValue().processRow(resultSet);
+        assertEquals(2, counts.size());
+        assertArrayEquals(new long[] { 7, 0, 3 }, counts.get(0));
+        assertArrayEquals(new long[] { 9, 1, 5 }, counts.get(1));
+    }
+
+    /**
+     * Verifies that the category completions are counted with the bucket
+     * length and the time range bound.
+     */
+    @Test
+    public void testCountCategoryCompletions() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> rowHandler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        trendingDAO.countCategoryCompletions(FROM_SECONDS, TO_SECONDS, BUCKET_SECONDS, handler);
+        verify(jdbcTemplate).query(anyString(), rowHandler.capture(), eq(BUCKET_SECONDS), eq(FROM_SECONDS),
+                eq(TO_SECONDS));
+        when(resultSet.getInt("id")).thenReturn(2);
+        when(resultSet.getLong("bucket")).thenReturn(4L);
+        when(resultSet.getLong("completions")).thenReturn(11L);
+        rowHandler.getValue().processRow(resultSet);
+        assertArrayEquals(new long[] { 2, 4, 11 }, counts.get(0));
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testCountResourceCompletionsWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage("Error: unable to count the completions of the resources.");
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), anyInt(),
+                anyLong(), anyLong());
+        trendingDAO.countResourceCompletions(FROM_SECONDS, TO_SECONDS, BUCKET_SECONDS, handler);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the time range ends
+     * before it starts.
+     */
+    @Test
+    public void testCountResourceCompletionsWithInvalidRange() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("To seconds cannot be before from seconds");
+        trendingDAO.countResourceCompletions(TO_SECONDS, FROM_SECONDS, BUCKET_SECONDS, handler);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the bucket length is 0.
+     */
+    @Test
+    public void testCountCategoryCompletionsWithZeroBucketSeconds() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Bucket seconds must be greater than 0");
+        trendingDAO.countCategoryCompletions(FROM_SECONDS, TO_SECONDS, 0, handler);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the handler is null.
+     */
+    @Test
+    public void testCountResourceCompletionsWithNullHandler() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Completion count handler cannot be null");
+        trendingDAO.countResourceCompletions(FROM_SECONDS, TO_SECONDS, BUCKET_SECONDS, null);
+    }
+
+    /**
+     * Verifies that the categories of every resource are read with one query
+     * into one array per resource.
+     */
+    @Test
+    public void testGetCategoryIdsByResourceId() throws DAOException, SQLException {
+        final ArgumentCaptor<RowCallbackHandler> rowHandler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        final Map<Integer, int[]> categoryIdsByResourceId = trendingDAO.getCategoryIdsByResourceId();
+        verify(jdbcTemplate).query(anyString(), rowHandler.capture());
+        final Array categoryIds = mock(Array.class);
+        when(categoryIds.getArray()).thenReturn(new Integer[] { 3, 8 });
+        when(resultSet.getArray("category_ids")).thenReturn(categoryIds);
+        when(resultSet.getInt("resource_id")).thenReturn(12);
+        rowHandler.getValue().processRow(resultSet);
+        assertEquals(1, categoryIdsByResourceId.size());
+        assertArrayEquals(new int[] { 3, 8 }, categoryIdsByResourceId.get(12));
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}.
+     */
+    @Test
+    public void testGetCategoryIdsByResourceIdWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        doThrow(dataAccessException).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        trendingDAO.getCategoryIdsByResourceId();
+    }
+
+    /**
+     * Verifies that the categories of a resource are read by its id.
+     */
+    @Test
+    public void testGetCategoryIdsOfResource() throws DAOException {
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(12)))
+                .thenReturn(Arrays.asList(3, 8));
+        assertArrayEquals(new int[] { 3, 8 }, trendingDAO.getCategoryIdsOfResource(12));
+    }
+
+    /**
+     * Verifies that a resource in no category has no category ids.
+     */
+    @Test
+    public void testGetCategoryIdsOfResourceInNoCategory() throws DAOException {
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(12)))
+                .thenReturn(Collections.<Integer> emptyList());
+        assertEquals(0, trendingDAO.getCategoryIdsOfResource(12).length);
+    }
+
+    /**
+     * Verifies that a database error is wrapped in a {@link DAOException}
+     * naming the resource.
+     */
+    @Test
+    public void testGetCategoryIdsOfResourceWhenDatabaseFails() throws DAOException {
+        expectedException.expect(DAOException.class);
+        expectedException.expectMessage("Error: unable to read the categories of resource 12.");
+        when(jdbcTemplate.queryForList(anyString(), eq(Integer.class), eq(12))).thenThrow(dataAccessException);
+        trendingDAO.getCategoryIdsOfResource(12);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the resource id is 0.
+     */
+    @Test
+    public void testGetCategoryIdsOfResourceWithZeroResourceId() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource Id must be greater than 0");
+        trendingDAO.getCategoryIdsOfResource(0);
+    }
+}
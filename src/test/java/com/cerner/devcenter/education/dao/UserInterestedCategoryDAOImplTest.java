@@ -12,6 +12,7 @@ import static org.mockito.Mockito.when;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Before;
@@ -22,8 +23,8 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import com.cerner.devcenter.education.admin.DAOException;
@@ -31,6 +32,7 @@ import com.cerner.devcenter.education.admin.DataAccessException;
 import com.cerner.devcenter.education.dao.UserInterestedCategoryDAOImpl.UserInterestedCategoryRowMapper;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.UserInterestedCategory;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * Class that tests the functionality of {@link UserInterestedCategoryDAOImpl}
@@ -66,6 +68,7 @@ public class UserInterestedCategoryDAOImplTest {
     public static final int NEGATIVE_SKILL_LEVEL = -2;
     public static final int NEGATIVE_INTEREST_LEVEL = -3;
     private static final String DELETE_INTERESTED_CATEGORY_FOR_USER = "DELETE FROM user_interested_category WHERE user_id = ? and category_id = ?";
+    private static final String DELETE_INTERESTED_CATEGORIES_FOR_USER = "DELETE FROM user_interested_category WHERE user_id = ? and category_id = ANY(?) RETURNING category_id";
 
     private UserInterestedCategory userInterestedCategory;
     private UserInterestedCategory newUserInterestedCategory;
@@ -543,22 +546,25 @@ public class UserInterestedCategoryDAOImplTest {
     @Test
     public void testdeleteUserInterestedCategoryInBatchWhenThrowsManagerException() throws DAOException {
         expectedException.expect(DAOException.class);
-        doThrow(DAOException.class).when(jdbcTemplate).batchUpdate(
-                eq(DELETE_INTERESTED_CATEGORY_FOR_USER),
-                any(BatchPreparedStatementSetter.class));
+        when(jdbcTemplate.queryForList(DELETE_INTERESTED_CATEGORIES_FOR_USER, Integer.class, VALID_USER_ID,
+                SqlArrayValue.ofInts(categoryIds))).thenThrow(new DataRetrievalFailureException("Connection lost"));
         userInterestedCategoryDAOImpl.deleteUserInterestedCategoryInBatch(VALID_USER_ID, categoryIds);
     }
 
     /**
      * Test
      * {@link UserInterestedCategoryDAOImpl#deleteUserInterestedCategoryInBatch(String, int[])}
-     * with valid values and expects true.
+     * with valid values and expects the deleted category IDs, with all the
+     * category IDs bound as one array.
      * 
      * @throws DAOException
      */
     @Test
     public void testdeleteUserInterestedCategoryInBatchWithValidValues() throws DAOException {
-        assertTrue(userInterestedCategoryDAOImpl.deleteUserInterestedCategoryInBatch(VALID_USER_ID, categoryIds));
+        when(jdbcTemplate.queryForList(DELETE_INTERESTED_CATEGORIES_FOR_USER, Integer.class, VALID_USER_ID,
+                SqlArrayValue.ofInts(categoryIds))).thenReturn(Arrays.asList(2));
+        assertEquals(Arrays.asList(2),
+                userInterestedCategoryDAOImpl.deleteUserInterestedCategoryInBatch(VALID_USER_ID, categoryIds));
 
     }
 
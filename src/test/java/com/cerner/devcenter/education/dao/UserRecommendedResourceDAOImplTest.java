@@ -4,7 +4,10 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
@@ -12,6 +15,7 @@ import java.net.URL;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -20,6 +24,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -33,6 +38,7 @@ import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.UserRecommendedResource;
 import com.cerner.devcenter.education.utils.Constants;
+import com.cerner.devcenter.education.utils.SqlArrayValue;
 
 /**
  * Tests the functionality of {@link UserRecommendedResourceDAOImpl}.
@@ -503,6 +509,30 @@ public class UserRecommendedResourceDAOImplTest {
                         categoryList, VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED).size());
     }
 
+    /**
+     * Verifies that
+     * {@link UserRecommendedResourceDAO#getRecommendedResourcesForTheUserInCategories(String, List, double, int)}
+     * binds the category ids as a single array, so the query text is the same
+     * whatever the number of categories.
+     */
+    @Test
+    public void testGetRecommendedByCategoryBindsCategoryIdsAsArray() throws DAOException {
+        final List<Category> singleCategory = getTestCategoryList(1);
+        userRecommendedResourceDAOImpl.getRecommendedResourcesForTheUserInCategories(VALID_USER_ID, singleCategory,
+                VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED);
+        userRecommendedResourceDAOImpl.getRecommendedResourcesForTheUserInCategories(VALID_USER_ID, categoryList,
+                VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED);
+
+        final ArgumentCaptor<String> queries = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(2)).query(queries.capture(), any(UserRecommendedResourceRowMapper.class),
+                anyVararg());
+        assertEquals(queries.getAllValues().get(0), queries.getAllValues().get(1));
+        verify(jdbcTemplate).query(anyString(), any(UserRecommendedResourceRowMapper.class), eq(VALID_USER_ID),
+                eq(SqlArrayValue.ofIntegers(Arrays.asList(VALID_CATEGORY_ID, VALID_CATEGORY_ID + 1,
+                        VALID_CATEGORY_ID + 2, VALID_CATEGORY_ID + 3, VALID_CATEGORY_ID + 4))),
+                eq(VALID_MINIMUM_RATING_REQUIRED), eq(VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED));
+    }
+
     /**
      * Used to create a {@link List} of {@link Category} objects with the
      * specified length.
@@ -0,0 +1,281 @@
+package com.cerner.devcenter.education.datasource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+/**
+ * This class tests {@link PooledDataSource}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PooledDataSourceTest {
+
+    private static final int MAXIMUM_POOL_SIZE = 3;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 100;
+    private static final int CONCURRENT_BORROWERS = 16;
+    private static final int BORROWS_PER_THREAD = 200;
+    private static final String USERNAME = "reporting";
+    private static final String PASSWORD = "secret";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private DataSource targetDataSource;
+
+    private PooledDataSource pooledDataSource;
+    private final List<Connection> physicalConnections = new ArrayList<>();
+
+    @Before
+    public void setUp() throws SQLException {
+        when(targetDataSource.getConnection()).thenAnswer(new Answer<Connection>() {
+            @Override
+            public Connection answer(final InvocationOnMock invocation) throws SQLException {
+                final Connection connection = mock(Connection.class);
+                when(connection.isValid(anyInt())).thenReturn(true);
+                when(connection.getAutoCommit()).thenReturn(true);
+                synchronized (physicalConnections) {
+                    physicalConnections.add(connection);
+                }
+                return connection;
+            }
+        });
+        pooledDataSource = new PooledDataSource();
+        pooledDataSource.setTargetDataSource(targetDataSource);
+        pooledDataSource.setMinimumIdle(1);
+        pooledDataSource.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
+        pooledDataSource.setAcquireTimeoutMillis(ACQUIRE_TIMEOUT_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        pooledDataSource.close();
+    }
+
+    /**
+     * Verifies that the pool opens the minimum number of idle connections on
+     * {@link PooledDataSource#init()}.
+     */
+    @Test
+    public void testInitOpensMinimumIdleConnections() throws SQLException {
+        pooledDataSource.init();
+
+        verify(targetDataSource, times(1)).getConnection();
+        assertEquals(1, pooledDataSource.getMetrics().getIdleConnections());
+    }
+
+    /**
+     * Verifies that closing a borrowed connection returns the physical
+     * connection to the pool, so the next borrow reuses it.
+     */
+    @Test
+    public void testClosedConnectionIsReused() throws SQLException {
+        pooledDataSource.init();
+
+        final Connection first = pooledDataSource.getConnection();
+        first.close();
+        final Connection second = pooledDataSource.getConnection();
+        second.close();
+
+        assertEquals(1, physicalConnections.size());
+        verify(physicalConnections.get(0), never()).close();
+        assertNotSame(first, second);
+        assertEquals(2, pooledDataSource.getMetrics().getAcquiredCount());
+        assertEquals(2, pooledDataSource.getMetrics().getAcquireLatency().getCount());
+    }
+
+    /**
+     * Verifies that a proxy can no longer be used once it has been returned to
+     * the pool.
+     */
+    @Test
+    public void testReturnedConnectionCannotBeUsed() throws SQLException {
+        pooledDataSource.init();
+        final Connection connection = pooledDataSource.getConnection();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        expectedException.expect(SQLException.class);
+        connection.createStatement();
+    }
+
+    /**
+     * Verifies that borrowers time out once the maximum pool size is reached.
+     */
+    @Test
+    public void testGetConnectionTimesOutWhenPoolExhausted() throws SQLException {
+        pooledDataSource.init();
+        for (int i = 0; i < MAXIMUM_POOL_SIZE; i++) {
+            pooledDataSource.getConnection();
+        }
+
+        expectedException.expect(SQLTimeoutException.class);
+        try {
+            pooledDataSource.getConnection();
+        } finally {
+            assertEquals(1, pooledDataSource.getMetrics().getTimeoutCount());
+            assertEquals(MAXIMUM_POOL_SIZE, pooledDataSource.getMetrics().getActiveConnections());
+        }
+    }
+
+    /**
+     * Verifies that idle connections failing validation are discarded and
+     * replaced.
+     */
+    @Test
+    public void testInvalidIdleConnectionIsDiscarded() throws SQLException {
+        pooledDataSource.setValidationIntervalMillis(0);
+        pooledDataSource.init();
+        when(physicalConnections.get(0).isValid(anyInt())).thenReturn(false);
+
+        pooledDataSource.getConnection().close();
+
+        verify(physicalConnections.get(0)).close();
+        assertEquals(2, physicalConnections.size());
+        assertEquals(1, pooledDataSource.getMetrics().getValidationFailureCount());
+    }
+
+    /**
+     * Verifies that a connection returned within the validation interval is
+     * handed out again without a validation round trip.
+     */
+    @Test
+    public void testRecentlyReturnedConnectionIsNotValidated() throws SQLException {
+        pooledDataSource.init();
+
+        pooledDataSource.getConnection().close();
+        pooledDataSource.getConnection().close();
+
+        verify(physicalConnections.get(0), never()).isValid(anyInt());
+        assertEquals(0, pooledDataSource.getMetrics().getValidationFailureCount());
+    }
+
+    /**
+     * Verifies that a connection for other credentials comes straight from the
+     * target data source and is not pooled.
+     */
+    @Test
+    public void testGetConnectionWithCredentialsIsNotPooled() throws SQLException {
+        final Connection connection = mock(Connection.class);
+        when(targetDataSource.getConnection(USERNAME, PASSWORD)).thenReturn(connection);
+        pooledDataSource.init();
+
+        assertSame(connection, pooledDataSource.getConnection(USERNAME, PASSWORD));
+        assertEquals(0, pooledDataSource.getMetrics().getActiveConnections());
+    }
+
+    /**
+     * Verifies that uncommitted transactional state is rolled back before a
+     * connection is returned to the pool.
+     */
+    @Test
+    public void testReturnedConnectionIsRolledBack() throws SQLException {
+        pooledDataSource.init();
+        final Connection connection = pooledDataSource.getConnection();
+        when(physicalConnections.get(0).getAutoCommit()).thenReturn(false);
+
+        connection.close();
+
+        verify(physicalConnections.get(0)).rollback();
+        verify(physicalConnections.get(0)).setAutoCommit(true);
+    }
+
+    /**
+     * Verifies that connections held longer than the leak detection threshold
+     * are reported exactly once.
+     */
+    @Test
+    public void testLeakDetectionReportsHeldConnectionOnce() throws SQLException, InterruptedException {
+        pooledDataSource.setLeakDetectionThresholdMillis(1);
+        pooledDataSource.init();
+        pooledDataSource.getConnection();
+        Thread.sleep(10);
+
+        pooledDataSource.runHousekeeping();
+        pooledDataSource.runHousekeeping();
+
+        assertEquals(1, pooledDataSource.getMetrics().getLeakCount());
+    }
+
+    /**
+     * Verifies that the pool never opens more than the maximum number of
+     * physical connections while many threads borrow concurrently.
+     */
+    @Test
+    public void testConcurrentBorrowersNeverExceedMaximumPoolSize() throws Exception {
+        pooledDataSource.setAcquireTimeoutMillis(10000);
+        pooledDataSource.init();
+        final AtomicInteger concurrentlyHeld = new AtomicInteger();
+        final AtomicInteger maximumHeld = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_BORROWERS);
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_BORROWERS; i++) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws SQLException {
+                    for (int j = 0; j < BORROWS_PER_THREAD; j++) {
+                        try (Connection connection = pooledDataSource.getConnection()) {
+                            final int held = concurrentlyHeld.incrementAndGet();
+                            int currentMaximum = maximumHeld.get();
+                            while (held > currentMaximum && !maximumHeld.compareAndSet(currentMaximum, held)) {
+                                currentMaximum = maximumHeld.get();
+                            }
+                            concurrentlyHeld.decrementAndGet();
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (final Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertTrue(maximumHeld.get() <= MAXIMUM_POOL_SIZE);
+        assertTrue(physicalConnections.size() <= MAXIMUM_POOL_SIZE);
+        assertEquals(0, pooledDataSource.getMetrics().getActiveConnections());
+        assertEquals(CONCURRENT_BORROWERS * BORROWS_PER_THREAD, pooledDataSource.getMetrics().getAcquiredCount());
+    }
+
+    /**
+     * Verifies that the pool refuses to start when the minimum idle count is
+     * larger than the maximum pool size.
+     */
+    @Test
+    public void testInitWithMinimumIdleAboveMaximum() {
+        pooledDataSource.setMinimumIdle(MAXIMUM_POOL_SIZE + 1);
+        expectedException.expect(IllegalArgumentException.class);
+        pooledDataSource.init();
+    }
+}
@@ -0,0 +1,386 @@
+package com.cerner.devcenter.education.engagement;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.ResourceEngagementDAO;
+import com.cerner.devcenter.education.models.Resource;
+
+/**
+ * Tests {@link ResourceEngagementTracker} functionality. The tracker is
+ * started without its scheduler and flushed and reloaded by hand; the batches
+ * written to the DAO are recorded as rows of resource id, views and clicks.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceEngagementTrackerTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private ResourceEngagementDAO engagementDAO;
+
+    private ResourceEngagementTracker tracker;
+    private List<long[][]> batches;
+
+    @Before
+    public void setUp() throws DAOException {
+        batches = Collections.synchronizedList(new ArrayList<long[][]>());
+        doAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(final InvocationOnMock invocation) {
+                final int[] resourceIds = (int[]) invocation.getArguments()[0];
+                final long[] viewCounts = (long[]) invocation.getArguments()[1];
+                final long[] clickCounts = (long[]) invocation.getArguments()[2];
+                final long[][] batch = new long[resourceIds.length][];
+                for (int index = 0; index < resourceIds.length; index++) {
+                    batch[index] = new long[] { resourceIds[index], viewCounts[index], clickCounts[index] };
+                }
+                batches.add(batch);
+                return resourceIds.length;
+            }
+        }).when(engagementDAO).addEngagementCounts(any(int[].class), any(long[].class), any(long[].class));
+        tracker = new ResourceEngagementTracker();
+        tracker.setEngagementDAO(engagementDAO);
+    }
+
+    /**
+     * Verifies that the views and clicks are summed per resource and written
+     * in batches of at most the flush batch size, in resource id order.
+     */
+    @Test
+    public void testFlushWritesCountsInBatches() throws DAOException {
+        tracker.setFlushBatchSize(2);
+        tracker.start();
+        tracker.resourceViewed(7);
+        tracker.resourceViewed(3);
+        tracker.resourceViewed(3);
+        tracker.resourceClicked(3);
+        tracker.resourceClicked(5);
+
+        tracker.flush();
+
+        assertEquals(2, batches.size());
+        assertArrayEquals(new long[][] { { 3, 2, 1 }, { 5, 0, 1 } }, batches.get(0));
+        assertArrayEquals(new long[][] { { 7, 1, 0 } }, batches.get(1));
+        assertEquals(1, tracker.getClickCount(3));
+        assertEquals(0, tracker.getClickCount(7));
+        assertEquals(0, tracker.getMetrics().getPendingResourceCount());
+        assertEquals(3, tracker.getMetrics().getFlushedResourceCount());
+    }
+
+    /**
+     * Verifies that a flush with nothing counted does not reach the database.
+     */
+    @Test
+    public void testFlushWithNothingCounted() throws DAOException {
+        tracker.start();
+        tracker.flush();
+
+        assertTrue(batches.isEmpty());
+        assertEquals(1, tracker.getMetrics().getFlushCount());
+    }
+
+    /**
+     * Verifies that the counts of the batches that could not be written are
+     * written with the next flush, added to the ones counted meanwhile.
+     */
+    @Test
+    public void testFailedFlushKeepsUnwrittenCounts() throws DAOException {
+        tracker.setFlushBatchSize(1);
+        tracker.start();
+        tracker.resourceViewed(1);
+        tracker.resourceViewed(2);
+        final Answer<Integer> recordBatch = new Answer<Integer>() {
+            private boolean failed;
+
+            @Override
+            public Integer answer(final InvocationOnMock invocation) throws DAOException {
+                final int[] resourceIds = (int[]) invocation.getArguments()[0];
+                if (resourceIds[0] == 2 && !failed) {
+                    failed = true;
+                    throw new DAOException("Error writing counts");
+                }
+                batches.add(new long[][] { { resourceIds[0], ((long[]) invocation.getArguments()[1])[0],
+                        ((long[]) invocation.getArguments()[2])[0] } });
+                return 1;
+            }
+        };
+        doAnswer(recordBatch).when(engagementDAO).addEngagementCounts(any(int[].class), any(long[].class),
+                any(long[].class));
+        try {
+            tracker.flush();
+            fail("Expected DAOException");
+        } catch (final DAOException daoException) {
+            assertEquals(1, tracker.getMetrics().getFlushFailureCount());
+            assertEquals(1, tracker.getMetrics().getPendingResourceCount());
+        }
+        tracker.resourceViewed(2);
+
+        tracker.flush();
+
+        assertEquals(2, batches.size());
+        assertArrayEquals(new long[][] { { 1, 1, 0 } }, batches.get(0));
+        assertArrayEquals(new long[][] { { 2, 2, 0 } }, batches.get(1));
+    }
+
+    /**
+     * Verifies that no view is lost or counted twice while flushes read and
+     * reset the counters under many counting threads.
+     */
+    @Test
+    public void testFlushLosesNoCountsWhileCounting() throws Exception {
+        final int threads = 4;
+        final int viewsPerThread = 20000;
+        tracker.start();
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int view = 0; view < viewsPerThread; view++) {
+                        tracker.resourceViewed(1 + view % 5);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        while (done.getCount() > 0) {
+            tracker.flush();
+        }
+        tracker.flush();
+
+        long views = 0;
+        for (final long[][] batch : batches) {
+            for (final long[] row : batch) {
+                views += row[1];
+            }
+        }
+        assertEquals((long) threads * viewsPerThread, views);
+        assertEquals((long) threads * viewsPerThread, tracker.getMetrics().getViewCount());
+    }
+
+    /**
+     * Verifies that resources beyond the maximum number of tracked resources
+     * are dropped and counted as such, while the tracked ones are still
+     * counted.
+     */
+    @Test
+    public void testDropsResourcesWhenTrackedResourcesAreFull() throws DAOException {
+        tracker.setMaximumTrackedResources(2);
+        tracker.start();
+        tracker.resourceViewed(1);
+        tracker.resourceViewed(2);
+        tracker.resourceViewed(3);
+        tracker.resourceViewed(1);
+
+        final ResourceEngagementMetrics metrics = tracker.getMetrics();
+        assertEquals(2, metrics.getTrackedResourceCount());
+        assertEquals(3, metrics.getViewCount());
+        assertEquals(1, metrics.getDroppedCount());
+        tracker.flush();
+        assertArrayEquals(new long[][] { { 1, 2, 0 }, { 2, 1, 0 } }, batches.get(0));
+    }
+
+    /**
+     * Verifies that, once the maximum number of tracked resources is reached,
+     * a flush forgets the resources with nothing counted since the previous
+     * one to make room for new ones.
+     */
+    @Test
+    public void testFlushForgetsIdleResourcesWhenFull() throws DAOException {
+        tracker.setMaximumTrackedResources(2);
+        tracker.start();
+        tracker.resourceViewed(1);
+        tracker.resourceViewed(2);
+        tracker.flush();
+        tracker.resourceViewed(2);
+
+        tracker.flush();
+        tracker.resourceViewed(3);
+
+        assertEquals(2, tracker.getMetrics().getTrackedResourceCount());
+        assertEquals(0, tracker.getMetrics().getDroppedCount());
+        tracker.flush();
+        assertArrayEquals(new long[][] { { 3, 1, 0 } }, batches.get(2));
+    }
+
+    /**
+     * Verifies that a view or click is ignored when the tracker has not been
+     * started.
+     */
+    @Test
+    public void testResourceViewedBeforeStart() throws DAOException {
+        tracker.resourceViewed(1);
+        tracker.resourceClicked(1);
+        tracker.flush();
+
+        assertTrue(batches.isEmpty());
+        assertEquals(0, tracker.getMetrics().getViewCount());
+        assertEquals(0, tracker.getMetrics().getClickCount());
+    }
+
+    /**
+     * Verifies that the reloaded click counts order resources with the most
+     * clicks first and that an order keeps the counts it was created with.
+     */
+    @Test
+    public void testReloadAndPopularityOrder() throws DAOException, MalformedURLException {
+        final Map<Integer, Long> clickCounts = new HashMap<>();
+        clickCounts.put(2, 5L);
+        clickCounts.put(3, 9L);
+        when(engagementDAO.getClickCounts()).thenReturn(clickCounts);
+        assertFalse(tracker.isReady());
+        tracker.reload();
+        final Resource first = resource(1);
+        final Resource second = resource(2);
+        final Resource third = resource(3);
+        final List<Resource> resources = new ArrayList<>(Arrays.asList(first, second, third));
+
+        Collections.sort(resources, tracker.getPopularityOrder());
+
+        assertTrue(tracker.isReady());
+        assertEquals(Arrays.asList(third, second, first), resources);
+        assertEquals(9, tracker.getClickCount(3));
+        assertEquals(2, tracker.getMetrics().getClickedResourceCount());
+    }
+
+    /**
+     * Verifies that a failed reload keeps the previous click counts.
+     */
+    @Test
+    public void testFailedReloadKeepsClickCounts() throws DAOException {
+        when(engagementDAO.getClickCounts()).thenReturn(Collections.singletonMap(2, 5L))
+                .thenThrow(new DAOException("Error reading click counts"));
+        tracker.reload();
+        try {
+            tracker.reload();
+            fail("Expected DAOException");
+        } catch (final DAOException daoException) {
+            assertEquals(5, tracker.getClickCount(2));
+            assertEquals(1, tracker.getMetrics().getReloadFailureCount());
+        }
+    }
+
+    /**
+     * Verifies that closing the tracker writes the counts of the last flush
+     * period and stops counting.
+     */
+    @Test
+    public void testCloseFlushesPendingCounts() throws DAOException {
+        tracker.init();
+        tracker.resourceClicked(4);
+
+        tracker.close();
+        tracker.resourceClicked(4);
+
+        assertArrayEquals(new long[][] { { 4, 0, 1 } }, batches.get(0));
+        assertEquals(1, tracker.getMetrics().getClickCount());
+    }
+
+    /**
+     * Verifies that a disabled tracker never counts views and clicks.
+     */
+    @Test
+    public void testInitDisabled() {
+        tracker.setEnabled(false);
+        tracker.init();
+
+        tracker.resourceViewed(1);
+        tracker.close();
+
+        assertFalse(tracker.isReady());
+        assertFalse(tracker.getMetrics().isEnabled());
+        verifyZeroInteractions(engagementDAO);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the tracker is initialized
+     * without a DAO.
+     */
+    @Test
+    public void testInitWithoutDAO() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource engagement DAO cannot be null");
+        new ResourceEngagementTracker().init();
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when a view is counted for a
+     * resource id of 0.
+     */
+    @Test
+    public void testResourceViewedWithZeroResourceId() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource Id must be greater than 0");
+        tracker.resourceViewed(0);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the viewed resources are
+     * null.
+     */
+    @Test
+    public void testResourcesViewedWithNullResources() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resources cannot be null");
+        tracker.resourcesViewed(null);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the flush batch size is
+     * not greater than 0.
+     */
+    @Test
+    public void testSetFlushBatchSizeWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Flush batch size must be greater than 0");
+        tracker.setFlushBatchSize(0);
+    }
+
+    /**
+     * Verifies that the views of a list of resources are counted once each.
+     */
+    @Test
+    public void testResourcesViewed() throws DAOException, MalformedURLException {
+        tracker.start();
+        tracker.resourcesViewed(Arrays.asList(resource(1), resource(2)));
+        tracker.flush();
+
+        assertArrayEquals(new long[][] { { 1, 1, 0 }, { 2, 1, 0 } }, batches.get(0));
+        verify(engagementDAO).addEngagementCounts(any(int[].class), any(long[].class), any(long[].class));
+    }
+
+    private static Resource resource(final int resourceId) throws MalformedURLException {
+        return new Resource(resourceId, new URL("http://www.example.com/" + resourceId), "Description " + resourceId,
+                "Resource " + resourceId);
+    }
+}
@@ -0,0 +1,98 @@
+package com.cerner.devcenter.education.helpers;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.utils.Constants;
+
+/**
+ * Compares picking the closest {@link Constants#AUTOFILL_SIZE} candidates by
+ * sorting all of them with {@link ResourceNameSorter} or
+ * {@link StringDistanceSorter} with {@link FuzzyRanker#top(java.util.Collection, int)}.
+ *
+ * <pre>
+ * java -cp ... com.cerner.devcenter.education.helpers.FuzzyRankerBenchmark
+ * </pre>
+ */
+@SuppressWarnings("deprecation")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzyRankerBenchmark {
+
+    private static final String[] WORDS = { "java", "spring", "hibernate", "postgres", "testing", "mockito", "junit",
+            "javascript", "angular", "react", "docker", "kubernetes", "security", "oauth", "design", "patterns",
+            "concurrency", "streams", "collections", "generics", "performance", "tuning", "profiling", "memory" };
+
+    @Param({ "100", "1000", "10000" })
+    public int candidates;
+
+    @Param({ "java", "spring security" })
+    public String search;
+
+    private List<Resource> resources;
+    private List<String> names;
+
+    @Setup
+    public void setUp() throws Exception {
+        resources = new ArrayList<>(candidates);
+        names = new ArrayList<>(candidates);
+        final ResourceType type = new ResourceType(1, "EBook");
+        for (int i = 1; i <= candidates; i++) {
+            final String name = WORDS[(i * 7) % WORDS.length] + " " + WORDS[(i * 13) % WORDS.length] + " " + i;
+            resources.add(new Resource(i, new URL("http://www.example.com/resources/" + i), "A guide to " + name,
+                    name, type));
+            names.add(name);
+        }
+    }
+
+    @Benchmark
+    public List<Resource> resourceNameSorter() {
+        final List<Resource> sorted = new ArrayList<>(resources);
+        Collections.sort(sorted, new ResourceNameSorter(search));
+        return sorted.subList(0, Math.min(sorted.size(), Constants.AUTOFILL_SIZE));
+    }
+
+    @Benchmark
+    public List<Resource> fuzzyRankerForResources() {
+        return FuzzyRanker.forResources(search).top(resources, Constants.AUTOFILL_SIZE);
+    }
+
+    @Benchmark
+    public List<String> stringDistanceSorter() {
+        final List<String> sorted = new ArrayList<>(names);
+        Collections.sort(sorted, new StringDistanceSorter(search));
+        return sorted.subList(0, Math.min(sorted.size(), Constants.AUTOFILL_SIZE));
+    }
+
+    @Benchmark
+    public List<String> fuzzyRankerForStrings() {
+        return FuzzyRanker.forStrings(search).top(names, Constants.AUTOFILL_SIZE);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(FuzzyRankerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,196 @@
+package com.cerner.devcenter.education.helpers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.cerner.devcenter.education.models.Resource;
+
+/**
+ * Tests {@link FuzzyRanker} functionality.
+ */
+@SuppressWarnings("deprecation")
+public class FuzzyRankerTest {
+
+    private static final String URL = "http://www.example.com";
+    private static final String[] WORDS = { "java", "javascript", "jav", "spring", "sprint", "Java ", " JAVA",
+            "security", "docker", "dock", "", "j" };
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Verifies that resources are ranked by name distance and then by
+     * description distance, keeping the input order of ties.
+     */
+    @Test
+    public void testForResourcesRanksByNameThenDescription() throws MalformedURLException {
+        final Resource javascript = createResource(1, "javascript", "java");
+        final Resource first = createResource(2, "Java", "java tutorial");
+        final Resource second = createResource(3, " JAVA ", "java guide!!");
+        final Resource third = createResource(4, "java", "java tutorial");
+        final List<Resource> ranked = FuzzyRanker.forResources("java").rank(
+                Arrays.asList(javascript, first, second, third));
+        assertEquals(Arrays.asList(second, first, third, javascript), ranked);
+    }
+
+    /**
+     * Verifies that resources with the same name and description distances
+     * are ordered by the tie breaker, which does not override the distances.
+     */
+    @Test
+    public void testForResourcesWithTieBreaker() throws MalformedURLException {
+        final Resource javascript = createResource(1, "javascript", "java");
+        final Resource first = createResource(2, "Java", "java tutorial");
+        final Resource second = createResource(3, "java", "java tutorial");
+        final List<Resource> ranked = FuzzyRanker.forResources("java", new Comparator<Resource>() {
+            @Override
+            public int compare(final Resource left, final Resource right) {
+                return Integer.compare(right.getResourceId(), left.getResourceId());
+            }
+        }).rank(Arrays.asList(javascript, first, second));
+        assertEquals(Arrays.asList(second, first, javascript), ranked);
+    }
+
+    /**
+     * Verifies that strings with the same distance are ordered alphabetically.
+     */
+    @Test
+    public void testForStringsOrdersTiesAlphabetically() {
+        final List<String> ranked = FuzzyRanker.forStrings("dock").rank(Arrays.asList("docker", "duck", "deck", "dock"));
+        assertEquals(Arrays.asList("dock", "deck", "duck", "docker"), ranked);
+    }
+
+    /**
+     * Verifies that only the closest candidates are returned, closest first.
+     */
+    @Test
+    public void testTopReturnsClosestCandidates() {
+        final List<String> ranked = FuzzyRanker.forStrings("spring").top(
+                Arrays.asList("security", "sprint", "spring boot", "spring", "springs"), 3);
+        assertEquals(Arrays.asList("spring", "springs", "sprint"), ranked);
+        assertEquals(Arrays.asList("spring"), FuzzyRanker.forStrings("spring").top(Arrays.asList("spring"), 3));
+        assertTrue(FuzzyRanker.forStrings("spring").top(Collections.<String> emptyList(), 3).isEmpty());
+    }
+
+    /**
+     * Verifies that the results match sorting with {@link ResourceNameSorter}
+     * and {@link StringDistanceSorter} on random candidates for every limit.
+     */
+    @Test
+    public void testMatchesSorters() throws MalformedURLException {
+        final Random random = new Random(42);
+        for (int run = 0; run < 50; run++) {
+            final String search = randomNonBlankText(random);
+            final List<Resource> resources = new ArrayList<>();
+            final List<String> strings = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                resources.add(createResource(i + 1, randomNonBlankText(random), randomNonBlankText(random)));
+                strings.add(randomText(random));
+            }
+            final List<Resource> sortedResources = new ArrayList<>(resources);
+            Collections.sort(sortedResources, new ResourceNameSorter(search));
+            final List<String> sortedStrings = new ArrayList<>(strings);
+            Collections.sort(sortedStrings, new StringDistanceSorter(search));
+            for (int limit = 1; limit <= resources.size(); limit++) {
+                assertEquals(sortedResources.subList(0, limit), FuzzyRanker.forResources(search).top(resources, limit));
+                assertEquals(sortedStrings.subList(0, limit), FuzzyRanker.forStrings(search).top(strings, limit));
+            }
+        }
+    }
+
+    /**
+     * Verifies the bounded distance against
+     * {@link StringUtils#getLevenshteinDistance(CharSequence, CharSequence)}.
+     */
+    @Test
+    public void testBoundedDistance() {
+        final Random random = new Random(7);
+        for (int i = 0; i < 2000; i++) {
+            final String first = randomText(random);
+            final String second = randomText(random);
+            final int distance = StringUtils.getLevenshteinDistance(first, second);
+            final int threshold = random.nextInt(12);
+            final int expected = distance <= threshold ? distance : threshold + 1;
+            assertEquals(expected, FuzzyRanker.boundedDistance(first, second, threshold));
+        }
+        assertEquals(3, FuzzyRanker.boundedDistance("elephant", "hippo", 2));
+        assertEquals(1, FuzzyRanker.boundedDistance("frog", "fog", 1));
+        assertEquals(0, FuzzyRanker.boundedDistance("", "", 0));
+    }
+
+    /**
+     * Tests constructor when search is empty.
+     */
+    @Test
+    public void testForResourcesWithEmptySearch() {
+        expectedException.expect(IllegalArgumentException.class);
+        FuzzyRanker.forResources("");
+    }
+
+    /**
+     * Tests constructor when search is null.
+     */
+    @Test
+    public void testForStringsWithNullSearch() {
+        expectedException.expect(IllegalArgumentException.class);
+        FuzzyRanker.forStrings(null);
+    }
+
+    /**
+     * Tests {@link FuzzyRanker#top(java.util.Collection, int)} when the limit
+     * is not positive.
+     */
+    @Test
+    public void testTopWithInvalidLimit() {
+        expectedException.expect(IllegalArgumentException.class);
+        FuzzyRanker.forStrings("java").top(Arrays.asList("java"), 0);
+    }
+
+    /**
+     * Tests {@link FuzzyRanker#rank(java.util.Collection)} when a candidate
+     * has a null description.
+     */
+    @Test
+    public void testRankWithNullKey() throws MalformedURLException {
+        expectedException.expect(IllegalArgumentException.class);
+        final Resource resource = new Resource();
+        resource.setResourceName("java");
+        FuzzyRanker.forResources("java").rank(Arrays.asList(resource));
+    }
+
+    private static String randomText(final Random random) {
+        final StringBuilder text = new StringBuilder();
+        final int words = 1 + random.nextInt(2);
+        for (int i = 0; i < words; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String randomNonBlankText(final Random random) {
+        String text = randomText(random);
+        while (StringUtils.isBlank(text)) {
+            text = randomText(random);
+        }
+        return text;
+    }
+
+    private static Resource createResource(final int resourceId, final String name, final String description)
+            throws MalformedURLException {
+        return new Resource(resourceId, new URL(URL), description, name);
+    }
+}
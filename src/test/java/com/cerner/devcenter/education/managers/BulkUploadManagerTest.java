@@ -2,13 +2,19 @@ package com.cerner.devcenter.education.managers;
 
 import static com.cerner.devcenter.education.utils.MessageHandlerTestUtil.assertMessageHandlers;
 import static org.junit.Assert.assertEquals;
-import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.anyString;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -17,37 +23,49 @@ import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
 
 import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.util.CellAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.cerner.devcenter.education.admin.CategoryDAO;
 import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.admin.ResourceTypeDAO;
 import com.cerner.devcenter.education.exceptions.ExcelException;
 import com.cerner.devcenter.education.exceptions.ExcelExceptionTypes;
 import com.cerner.devcenter.education.exceptions.ItemAlreadyExistsException;
 import com.cerner.devcenter.education.exceptions.MultiExcelException;
+import com.cerner.devcenter.education.managers.BulkUploadManager.ResourceRow;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceStatus;
 import com.cerner.devcenter.education.models.ResourceType;
 import com.cerner.devcenter.education.utils.ExcelExceptionMatcher;
 import com.cerner.devcenter.education.utils.MessageHandler;
@@ -75,7 +93,6 @@ public class BulkUploadManagerTest {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
-    private Resource testResource;
     private Category testCategory;
     private ResourceType testType;
     private Row testRow;
@@ -90,7 +107,6 @@ public class BulkUploadManagerTest {
                     new ExcelException(ExcelExceptionTypes.CATEGORY_DIFFICULTY_NOT_AN_INTEGER, new CellAddress("E9"),
                             new NumberFormatException())));
     private MessageHandler messageHandler;
-    private Map<Integer, Integer> testDifficulties = new HashMap<>();
 
     private static final String UPLOAD_SUCCESS_I18N = "bulkUpload.successMessage";
     private static final int VALID_CATEGORY_ID = 1;
@@ -99,16 +115,21 @@ public class BulkUploadManagerTest {
     private static final int VALID_CATEGORY_DIFFICULTY = 1;
     private static final int VALID_TYPE_ID = 1;
     private static final String VALID_TYPE_NAME = "Youtube";
-    private static final int VALID_RESOURCE_ID = 1;
     private static final String VALID_RESOURCE_NAME = "Valid Upload Resource";
     private static final String VALID_RESOURCE_DESCRIPTION = "Test upload description";
     private static final String VALID_LINK_URL = "http://127.0.0.1";
     private static final String TEST_FILENAME = "test filename";
     private static final String TEST_CELL = "A1";
+    private static final String RESOURCE_TYPE_CELL = "D2";
+    private static final String CATEGORIES_CELL = "E2";
+    private static final String RESOURCE_OWNER = "AB123456";
+    private static final String NULL_OWNER_ERROR = "Resource owner cannot be null/empty/blank";
     private static final String RESOURCE_ALREADY_EXISTS_CELL = "A2";
+    private static final String RESOURCE_NAME_CELL = "A2";
     private static final String EXCEPTION_MESSAGE = "message";
     private static final String NULL_ROW_ERROR = "Row cannot be null";
     private static final String INVALID_FILE_TYPE = "NOT XLS";
+    private static final int UPLOAD_CHUNK_SIZE = 500;
 
     private static final MediaType XLS_MEDIA_TYPE = MediaType.MICROSOFT_EXCEL;
     private static final MediaType XLSX_MEDIA_TYPE = MediaType.OOXML_SHEET;
@@ -128,36 +149,44 @@ public class BulkUploadManagerTest {
         testType = new ResourceType(VALID_TYPE_ID, VALID_TYPE_NAME);
         validLink = new URL(VALID_LINK_URL);
 
-        testDifficulties.put(VALID_CATEGORY_ID, VALID_CATEGORY_DIFFICULTY);
-
-        testResource = new Resource(VALID_RESOURCE_ID, validLink, VALID_RESOURCE_DESCRIPTION, testType);
-        testResource.addCategory(testCategory);
-        testResource.setResourceDifficultyForCategory(testDifficulties);
-
         wbRows = WorkbookFactory.create(new FileInputStream(TEST_EXCEL_ROWS_LOCATION));
 
-        when(categoryDAO.getByName(anyString())).thenReturn(testCategory);
-        when(resourceTypeDAO.getByName(VALID_TYPE_NAME)).thenReturn(testType);
+        when(categoryDAO.getByNames(anyCollectionOf(String.class))).thenAnswer(new Answer<Map<String, Category>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map<String, Category> answer(InvocationOnMock invocation) {
+                Map<String, Category> categoriesByName = new HashMap<>();
+                for (String name : (Collection<String>) invocation.getArguments()[0]) {
+                    categoriesByName.put(name, testCategory);
+                }
+                return categoriesByName;
+            }
+        });
+        when(resourceTypeDAO.getByNames(anyCollectionOf(String.class)))
+                .thenReturn(Collections.singletonMap(VALID_TYPE_NAME, testType));
+        when(resourceManager.getExistingResourceNames(anyCollectionOf(String.class)))
+                .thenReturn(Collections.<String> emptySet());
         when(testFile.getContentType()).thenReturn(XLSX_MEDIA_TYPE.toString());
         when(testFile.getInputStream()).thenReturn(new FileInputStream(TEST_EXCEL_LOCATION));
         when(testFile.getOriginalFilename()).thenReturn(TEST_FILENAME);
-        doNothing().when(resourceManager).addResourceAndRelations(any(Resource.class));
+        when(resourceManager.addResourcesAndRelations(anyListOf(Resource.class)))
+                .thenReturn(Collections.<Resource> emptyList());
     }
 
     /***
-     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile)} returns
+     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile, String)} returns
      * a success message when there are no errors adding from the file
      */
     @Test
     public void testAddExcelDataSafely_NoExceptions() throws MultiExcelException, ExcelException {
         BulkUploadManager spyManager = spy(bulkUploadManager);
-        doNothing().when(spyManager).addExcelData(testFile);
+        doNothing().when(spyManager).addExcelData(testFile, RESOURCE_OWNER);
         messageHandler.addSuccess(i18nBundle.getString(UPLOAD_SUCCESS_I18N));
-        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile));
+        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile, RESOURCE_OWNER));
     }
 
     /***
-     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile)} returns
+     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile, String)} returns
      * 1 error message when only 1 error occurs while adding from the file
      */
     @Test
@@ -169,13 +198,13 @@ public class BulkUploadManagerTest {
         exceptions.add(testException);
         String expected = MessageFormat.format(i18nBundle.getString(testException.getExcelType().getI18NMessage()),
                 testException.getAddress());
-        doThrow(new MultiExcelException(exceptions)).when(spyManager).addExcelData(testFile);
+        doThrow(new MultiExcelException(exceptions)).when(spyManager).addExcelData(testFile, RESOURCE_OWNER);
         messageHandler.addError(expected);
-        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile));
+        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile, RESOURCE_OWNER));
     }
 
     /***
-     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile)} returns
+     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile, String)} returns
      * 4 error messages when there are 4 errors while adding from the file
      */
     @Test
@@ -188,12 +217,12 @@ public class BulkUploadManagerTest {
             messageHandler.addError(i18nMessage);
             exceptions.add(new ExcelException(ExcelExceptionTypes.CATEGORY, new CellAddress(TEST_CELL), null));
         }
-        doThrow(new MultiExcelException(exceptions)).when(spyManager).addExcelData(testFile);
-        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile));
+        doThrow(new MultiExcelException(exceptions)).when(spyManager).addExcelData(testFile, RESOURCE_OWNER);
+        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile, RESOURCE_OWNER));
     }
 
     /***
-     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile)} catches
+     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile, String)} catches
      * a single {@link ExcelException} thrown when adding resources from file
      */
     @Test
@@ -201,15 +230,15 @@ public class BulkUploadManagerTest {
         BulkUploadManager spyManager = spy(bulkUploadManager);
         ExcelException expectedExcelException = new ExcelException(ExcelExceptionTypes.FILE_TYPE_ERROR,
                 new CellAddress(TEST_CELL), null);
-        doThrow(expectedExcelException).when(spyManager).addExcelData(testFile);
+        doThrow(expectedExcelException).when(spyManager).addExcelData(testFile, RESOURCE_OWNER);
         messageHandler.addError(
                 MessageFormat.format(i18nBundle.getString(expectedExcelException.getExcelType().getI18NMessage()),
                         expectedExcelException.getAddress()));
-        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile));
+        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile, RESOURCE_OWNER));
     }
 
     /***
-     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile)}
+     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile, String)}
      * distinguishes {@link ExcelException} of the type
      * {@link ExcelExceptionTypes#RESOURCE_EXISTS_ERROR} as warnings.
      */
@@ -218,15 +247,15 @@ public class BulkUploadManagerTest {
         BulkUploadManager spyManager = spy(bulkUploadManager);
         ExcelException expectedExcelException = new ExcelException(ExcelExceptionTypes.RESOURCE_EXISTS_ERROR,
                 new CellAddress(TEST_CELL), null);
-        doThrow(new MultiExcelException(Arrays.asList(expectedExcelException))).when(spyManager).addExcelData(testFile);
+        doThrow(new MultiExcelException(Arrays.asList(expectedExcelException))).when(spyManager).addExcelData(testFile, RESOURCE_OWNER);
         messageHandler.addWarning(
                 MessageFormat.format(i18nBundle.getString(expectedExcelException.getExcelType().getI18NMessage()),
                         expectedExcelException.getAddress()));
-        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile));
+        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile, RESOURCE_OWNER));
     }
 
     /***
-     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile)} will
+     * Test {@link BulkUploadManager#addExcelDataSafely(MultipartFile, String)} will
      * return a messageHandler with both error and warning messages.
      */
     @Test
@@ -244,16 +273,16 @@ public class BulkUploadManagerTest {
                 resourceExistsException.getAddress());
         doThrow(new MultiExcelException(
                 Arrays.asList(resourceExistsException, rowErrorException, resourceExistsException, rowErrorException)))
-                        .when(spyManager).addExcelData(testFile);
+                        .when(spyManager).addExcelData(testFile, RESOURCE_OWNER);
         messageHandler.addWarning(resourceExistsMessage);
         messageHandler.addWarning(resourceExistsMessage);
         messageHandler.addError(rowErrorMessage);
         messageHandler.addError(rowErrorMessage);
-        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile));
+        assertMessageHandlers(messageHandler, spyManager.addExcelDataSafely(testFile, RESOURCE_OWNER));
     }
 
     /***
-     * Tests {@link BulkUploadManager#addExcelData(MultipartFile)} creates a
+     * Tests {@link BulkUploadManager#addExcelData(MultipartFile, String)} creates a
      * {@link List} of {@link ExcelException} that are caught from creating a
      * {@link Resource} from a bad {@link Row}
      */
@@ -263,50 +292,256 @@ public class BulkUploadManagerTest {
         expectedException.expect(MultiExcelException.class);
         expectedException.expect(new MultiExcelExceptionMatcher(rowExceptions));
         when(testFile.getInputStream()).thenReturn(new FileInputStream(TEST_EXCEL_ROWS_LOCATION));
-        bulkUploadManager.addExcelData(testFile);
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
     }
 
     /***
-     * Tests {@link BulkUploadManager#addExcelData(MultipartFile)} creates an
-     * {@link ExcelException} from a {@link ItemAlreadyExistsException} that is
-     * thrown when trying to add a {@link Resource} that already exists
+     * Tests {@link BulkUploadManager#addExcelData(MultipartFile, String)} reports
+     * a {@link ExcelExceptionTypes#RESOURCE_EXISTS_ERROR} for a resource whose
+     * name is already in the database, and does not try to add it
      */
     @Test
-    public void testAddExcelData_ItemAlreadyExistsException()
-            throws ItemAlreadyExistsException, MultiExcelException, ExcelException {
+    public void testAddExcelData_ItemAlreadyExistsException() throws MultiExcelException, ExcelException {
         expectedException.expect(MultiExcelException.class);
-        ItemAlreadyExistsException thrownException = new ItemAlreadyExistsException(EXCEPTION_MESSAGE);
         ExcelException expected = new ExcelException(ExcelExceptionTypes.RESOURCE_EXISTS_ERROR,
-                new CellAddress(RESOURCE_ALREADY_EXISTS_CELL), thrownException);
+                new CellAddress(RESOURCE_ALREADY_EXISTS_CELL), new ItemAlreadyExistsException(EXCEPTION_MESSAGE));
         expectedException.expect(new MultiExcelExceptionMatcher(Arrays.asList(expected)));
-        doThrow(thrownException).when(resourceManager).addResourceAndRelations(any(Resource.class));
-        bulkUploadManager.addExcelData(testFile);
+        when(resourceManager.getExistingResourceNames(anyCollectionOf(String.class)))
+                .thenAnswer(new Answer<Set<String>>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Set<String> answer(InvocationOnMock invocation) {
+                        return new HashSet<>((Collection<String>) invocation.getArguments()[0]);
+                    }
+                });
+        try {
+            bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+        } finally {
+            verify(resourceManager, never()).addResourcesAndRelations(anyListOf(Resource.class));
+        }
+    }
+
+    /***
+     * Tests {@link BulkUploadManager#addExcelData(MultipartFile, String)}
+     * reports the resource type cell when the type name does not exist
+     */
+    @Test
+    public void testAddExcelData_UnknownResourceType() throws MultiExcelException, ExcelException, DAOException {
+        expectedException.expect(MultiExcelException.class);
+        expectedException.expect(new MultiExcelExceptionMatcher(Arrays.asList(
+                new ExcelException(ExcelExceptionTypes.RESOURCE_TYPE, new CellAddress(RESOURCE_TYPE_CELL), null))));
+        when(resourceTypeDAO.getByNames(anyCollectionOf(String.class)))
+                .thenReturn(Collections.<String, ResourceType> emptyMap());
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+    }
+
+    /***
+     * Tests {@link BulkUploadManager#addExcelData(MultipartFile, String)}
+     * reports a single {@link ExcelExceptionTypes#NAME_LOOKUP_ERROR} for the
+     * upload, rather than an error per row, when the type lookup of every
+     * chunk throws a {@link DAOException}, and adds none of its rows
+     */
+    @Test
+    public void testAddExcelData_ResourceTypeLookupFails() throws Exception {
+        when(testFile.getInputStream()).thenReturn(writeWorkbook(new XSSFWorkbook(), UPLOAD_CHUNK_SIZE + 1));
+        when(resourceTypeDAO.getByNames(anyCollectionOf(String.class))).thenThrow(new DAOException());
+        try {
+            bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+            fail("Expected a MultiExcelException");
+        } catch (MultiExcelException e) {
+            assertEquals(1, e.getExceptionList().size());
+            assertEquals(ExcelExceptionTypes.NAME_LOOKUP_ERROR, e.getExceptionList().get(0).getExcelType());
+            assertEquals(TEST_FILENAME, e.getExceptionList().get(0).getFileName());
+        }
+        verify(resourceTypeDAO, times(2)).getByNames(anyCollectionOf(String.class));
+        verify(resourceManager, never()).addResourcesAndRelations(anyListOf(Resource.class));
+    }
+
+    /***
+     * Tests {@link BulkUploadManager#addExcelData(MultipartFile, String)}
+     * reports the categories cell when a category name does not exist
+     */
+    @Test
+    public void testAddExcelData_UnknownCategory() throws MultiExcelException, ExcelException, DAOException {
+        expectedException.expect(MultiExcelException.class);
+        expectedException.expect(new MultiExcelExceptionMatcher(Arrays.asList(
+                new ExcelException(ExcelExceptionTypes.CATEGORY_NAME, new CellAddress(CATEGORIES_CELL), null))));
+        when(categoryDAO.getByNames(anyCollectionOf(String.class)))
+                .thenReturn(Collections.<String, Category> emptyMap());
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+    }
+
+    /***
+     * Verify that {@link BulkUploadManager#addExcelData(MultipartFile, String)}
+     * resolves names and checks duplicates with one call each, and hands every
+     * new resource to a single batched write with the uploader as owner
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddExcelData_BatchesLookupsAndWrites() throws MultiExcelException, ExcelException, DAOException {
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+
+        verify(resourceTypeDAO, times(1)).getByNames(anyCollectionOf(String.class));
+        verify(categoryDAO, times(1)).getByNames(anyCollectionOf(String.class));
+        verify(resourceManager, times(1)).getExistingResourceNames(anyCollectionOf(String.class));
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(resourceManager, times(1)).addResourcesAndRelations(captor.capture());
+        for (Resource resource : (List<Resource>) captor.getValue()) {
+            assertEquals(RESOURCE_OWNER, resource.getResourceOwner());
+            assertEquals(ResourceStatus.Available.toString(), resource.getResourceStatus());
+            assertEquals(testType, resource.getResourceType());
+        }
+    }
+
+    /***
+     * Verify that {@link BulkUploadManager#addExcelData(MultipartFile, String)}
+     * adds a file with more rows than one chunk one chunk at a time, each with
+     * its own lookups and write
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddExcelData_AddsRowsInChunks() throws Exception {
+        when(testFile.getInputStream()).thenReturn(writeWorkbook(new XSSFWorkbook(), UPLOAD_CHUNK_SIZE + 1));
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+
+        verify(resourceTypeDAO, times(2)).getByNames(anyCollectionOf(String.class));
+        verify(categoryDAO, times(2)).getByNames(anyCollectionOf(String.class));
+        verify(resourceManager, times(2)).getExistingResourceNames(anyCollectionOf(String.class));
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(resourceManager, times(2)).addResourcesAndRelations(captor.capture());
+        assertEquals(UPLOAD_CHUNK_SIZE, captor.getAllValues().get(0).size());
+        assertEquals(1, captor.getAllValues().get(1).size());
+        assertEquals(VALID_RESOURCE_NAME + (UPLOAD_CHUNK_SIZE + 1),
+                ((List<Resource>) captor.getAllValues().get(1)).get(0).getResourceName());
+    }
+
+    /***
+     * Verify that {@link BulkUploadManager#addExcelData(MultipartFile, String)}
+     * reports a {@link ExcelExceptionTypes#RESOURCE_NOT_SAVED} against the name
+     * cell of each resource whose chunk could not be written
+     */
+    @Test
+    public void testAddExcelData_ReportsResourcesNotSaved() throws Exception {
+        when(testFile.getInputStream()).thenReturn(writeSingleRowWorkbook(new XSSFWorkbook(), VALID_RESOURCE_NAME));
+        when(resourceManager.addResourcesAndRelations(anyListOf(Resource.class)))
+                .thenAnswer(new Answer<List<Resource>>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public List<Resource> answer(InvocationOnMock invocation) {
+                        return new ArrayList<>((List<Resource>) invocation.getArguments()[0]);
+                    }
+                });
+        try {
+            bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+            fail("Expected a MultiExcelException");
+        } catch (MultiExcelException e) {
+            assertEquals(1, e.getExceptionList().size());
+            assertEquals(ExcelExceptionTypes.RESOURCE_NOT_SAVED, e.getExceptionList().get(0).getExcelType());
+            assertEquals(RESOURCE_NAME_CELL, e.getExceptionList().get(0).getAddress());
+        }
+    }
+
+    /***
+     * Verify that {@link BulkUploadManager#addExcelData(MultipartFile, String)}
+     * reports a {@link ExcelExceptionTypes#RESOURCE_NOT_SAVED} against the name
+     * cell of each resource whose chunk could not be checked for existing
+     * names, and does not try to add them
+     */
+    @Test
+    public void testAddExcelData_ReportsResourcesNotCheckedAsNotSaved() throws Exception {
+        when(testFile.getInputStream()).thenReturn(writeSingleRowWorkbook(new XSSFWorkbook(), VALID_RESOURCE_NAME));
+        when(resourceManager.getExistingResourceNames(anyCollectionOf(String.class)))
+                .thenThrow(new ManagerException());
+        try {
+            bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+            fail("Expected a MultiExcelException");
+        } catch (MultiExcelException e) {
+            assertEquals(1, e.getExceptionList().size());
+            assertEquals(ExcelExceptionTypes.RESOURCE_NOT_SAVED, e.getExceptionList().get(0).getExcelType());
+            assertEquals(RESOURCE_NAME_CELL, e.getExceptionList().get(0).getAddress());
+        }
+        verify(resourceManager, never()).addResourcesAndRelations(anyListOf(Resource.class));
+    }
+
+    /***
+     * Verify that an .xlsx file, which is streamed, and an .xls file, which is
+     * loaded with the HSSF usermodel, produce the same resources
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddExcelData_StreamedXlsxMatchesXls() throws Exception {
+        when(testFile.getInputStream()).thenReturn(writeSingleRowWorkbook(new XSSFWorkbook(), VALID_RESOURCE_NAME));
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+        when(testFile.getContentType()).thenReturn(XLS_MEDIA_TYPE.toString());
+        when(testFile.getInputStream()).thenReturn(writeSingleRowWorkbook(new HSSFWorkbook(), VALID_RESOURCE_NAME));
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(resourceManager, times(2)).addResourcesAndRelations(captor.capture());
+        Resource streamed = ((List<Resource>) captor.getAllValues().get(0)).get(0);
+        Resource loaded = ((List<Resource>) captor.getAllValues().get(1)).get(0);
+        assertEquals(VALID_RESOURCE_NAME, streamed.getResourceName());
+        assertEquals(loaded.getResourceName(), streamed.getResourceName());
+        assertEquals(loaded.getDescription(), streamed.getDescription());
+        assertEquals(loaded.getResourceLink(), streamed.getResourceLink());
+        assertEquals(loaded.getResourceType(), streamed.getResourceType());
+        assertEquals(loaded.getResourceDifficultyForCategory(), streamed.getResourceDifficultyForCategory());
+    }
+
+    /***
+     * Verify that a streamed .xlsx cell that is not a string is reported
+     * against its cell
+     */
+    @Test
+    public void testAddExcelData_StreamedXlsxNotAString() throws Exception {
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        when(testFile.getInputStream()).thenReturn(writeSingleRowWorkbook(workbook, null));
+        try {
+            bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
+            fail("Expected a MultiExcelException");
+        } catch (MultiExcelException e) {
+            assertEquals(1, e.getExceptionList().size());
+            assertEquals(ExcelExceptionTypes.NOT_A_STRING, e.getExceptionList().get(0).getExcelType());
+            assertEquals(RESOURCE_NAME_CELL, e.getExceptionList().get(0).getAddress());
+        }
+        verify(resourceManager, never()).addResourcesAndRelations(anyListOf(Resource.class));
+    }
+
+    /***
+     * Verify that {@link BulkUploadManager#addExcelData(MultipartFile, String)}
+     * rejects a blank resource owner
+     */
+    @Test
+    public void testAddExcelData_BlankOwner() throws MultiExcelException, ExcelException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(NULL_OWNER_ERROR);
+        bulkUploadManager.addExcelData(testFile, " ");
     }
 
     /***
      * Verify the happy path of
-     * {@link BulkUploadManager#addExcelData(MultipartFile)} when given an xlsx
+     * {@link BulkUploadManager#addExcelData(MultipartFile, String)} when given an xlsx
      * file type
      */
     @Test
     public void testAddExcelData_DataXlsxType() throws MultiExcelException, ExcelException {
-        bulkUploadManager.addExcelData(testFile);
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
     }
 
     /***
      * Verify the happy path of
-     * {@link BulkUploadManager#addExcelData(MultipartFile)} when given an xls
+     * {@link BulkUploadManager#addExcelData(MultipartFile, String)} when given an xls
      * file type
      */
     @Test
     public void testAddExcelData_DataXlsType() throws MultiExcelException, ExcelException {
         when(testFile.getContentType()).thenReturn(XLS_MEDIA_TYPE.toString());
-        bulkUploadManager.addExcelData(testFile);
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
     }
 
     /***
      * Verify the error when
-     * {@link BulkUploadManager#addExcelData(MultipartFile)} is given a non
+     * {@link BulkUploadManager#addExcelData(MultipartFile, String)} is given a non
      * XLS/XLSX file type
      */
     @Test
@@ -314,12 +549,12 @@ public class BulkUploadManagerTest {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.FILE_TYPE_ERROR));
         when(testFile.getContentType()).thenReturn(INVALID_FILE_TYPE);
-        bulkUploadManager.addExcelData(testFile);
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
     }
 
     /**
      * Tests the error return of
-     * {@link BulkUploadManager#addExcelData(MultipartFile)} when the file
+     * {@link BulkUploadManager#addExcelData(MultipartFile, String)} when the file
      * throws an {@link EncryptedDocumentException}
      */
     @Test
@@ -327,12 +562,12 @@ public class BulkUploadManagerTest {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.ENCRYPTED));
         when(testFile.getInputStream()).thenThrow(new EncryptedDocumentException(EXCEPTION_MESSAGE));
-        bulkUploadManager.addExcelData(testFile);
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
     }
 
     /**
      * Tests the error return of
-     * {@link BulkUploadManager#addExcelData(MultipartFile)} when the file
+     * {@link BulkUploadManager#addExcelData(MultipartFile, String)} when the file
      * throws an {@link IOException}
      */
     @Test
@@ -340,49 +575,49 @@ public class BulkUploadManagerTest {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.FILE_ERROR));
         when(testFile.getInputStream()).thenThrow(new IOException(EXCEPTION_MESSAGE));
-        bulkUploadManager.addExcelData(testFile);
+        bulkUploadManager.addExcelData(testFile, RESOURCE_OWNER);
     }
 
     /***
-     * Test that {@link BulkUploadManager#createResourceFromRow(Row)} will
+     * Test that {@link BulkUploadManager#parseRow(Row)} will
      * error with a null row.
      */
     @Test
-    public void testCreateResourceFromRow_NullRow() throws ExcelException {
+    public void testParseRow_NullRow() throws ExcelException {
         expectedException.expect(NullPointerException.class);
         expectedException.expectMessage(NULL_ROW_ERROR);
         testRow = null;
-        bulkUploadManager.createResourceFromRow(testRow);
+        bulkUploadManager.parseRow(testRow);
     }
 
     /***
      * Test the happy path for
-     * {@link BulkUploadManager#createResourceFromRow(Row)}
+     * {@link BulkUploadManager#parseRow(Row)}
      */
     @Test
-    public void testCreateResourceFromRow_Success() throws ExcelException {
+    public void testParseRow_Success() throws ExcelException {
         testRow = wbRows.getSheetAt(0).getRow(1);
-        Resource actual = bulkUploadManager.createResourceFromRow(testRow);
-        assertEquals(VALID_RESOURCE_NAME, actual.getResourceName());
+        ResourceRow actual = bulkUploadManager.parseRow(testRow);
+        assertEquals(VALID_RESOURCE_NAME, actual.getName());
         assertEquals(VALID_RESOURCE_DESCRIPTION, actual.getDescription());
-        assertEquals(validLink, actual.getResourceLink());
-        assertEquals(testType, actual.getResourceType());
-        assertEquals(testCategory, actual.getCategories().get(0));
-        assertEquals(testDifficulties, actual.getResourceDifficultyForCategory());
+        assertEquals(validLink, actual.getLink());
+        assertEquals(VALID_TYPE_NAME, actual.getTypeName());
+        assertEquals(Arrays.asList(VALID_CATEGORY_DIFFICULTY),
+                new ArrayList<Integer>(actual.getDifficultyForCategoryName().values()));
     }
 
     /***
      * Tests the private extractCellString function through
-     * {@link BulkUploadManager#createResourceFromRow(Row)} with the test
+     * {@link BulkUploadManager#parseRow(Row)} with the test
      * resource name that is a numeric value. Should throw an
      * {@link ExcelException}.
      */
     @Test
-    public void testCreateResourceFromRow_StringExtraction() throws ExcelException {
+    public void testParseRow_StringExtraction() throws ExcelException {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.NOT_A_STRING));
         testRow = wbRows.getSheetAt(0).getRow(2);
-        bulkUploadManager.createResourceFromRow(testRow);
+        bulkUploadManager.parseRow(testRow);
     }
 
     /***
@@ -390,46 +625,22 @@ public class BulkUploadManagerTest {
      * {@link ExcelException}
      */
     @Test
-    public void testCreateResourceFromRow_InvalidLink() throws ExcelException {
+    public void testParseRow_InvalidLink() throws ExcelException {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.LINK));
         testRow = wbRows.getSheetAt(0).getRow(3);
-        bulkUploadManager.createResourceFromRow(testRow);
-    }
-
-    /***
-     * Tests catching a {@link DAOException} when given an invalid Resource Type
-     */
-    @Test
-    public void testCreateResourceFromRow_InvalidResourceType() throws DAOException, ExcelException {
-        expectedException.expect(ExcelException.class);
-        expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.RESOURCE_TYPE));
-        when(resourceTypeDAO.getByName(VALID_TYPE_NAME)).thenThrow(new DAOException());
-        testRow = wbRows.getSheetAt(0).getRow(1);
-        bulkUploadManager.createResourceFromRow(testRow);
-    }
-
-    /***
-     * Tests catching a {@link DAOException} when given an invalid Category
-     */
-    @Test
-    public void testCreateResourceFromRow_InvalidCategory() throws ExcelException, DAOException {
-        expectedException.expect(ExcelException.class);
-        expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.CATEGORY_NAME));
-        when(categoryDAO.getByName(VALID_CATEGORY_NAME)).thenThrow(new DAOException());
-        testRow = wbRows.getSheetAt(0).getRow(1);
-        bulkUploadManager.createResourceFromRow(testRow);
+        bulkUploadManager.parseRow(testRow);
     }
 
     /***
      * Test throwing an {@link ExcelException} when required cells are skipped
      */
     @Test
-    public void testCreateResourceFromRow_SkippedCell() throws ExcelException {
+    public void testParseRow_SkippedCell() throws ExcelException {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.SKIPPED_CELL));
         testRow = wbRows.getSheetAt(0).getRow(5);
-        bulkUploadManager.createResourceFromRow(testRow);
+        bulkUploadManager.parseRow(testRow);
     }
 
     /***
@@ -437,11 +648,11 @@ public class BulkUploadManagerTest {
      * is less than 2
      */
     @Test
-    public void testCreateResourceFromRow_DifficultyPairOver2() throws ExcelException {
+    public void testParseRow_DifficultyPairOver2() throws ExcelException {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.CATEGORY_DIFFICULTY_PAIR));
         testRow = wbRows.getSheetAt(0).getRow(7);
-        bulkUploadManager.createResourceFromRow(testRow);
+        bulkUploadManager.parseRow(testRow);
     }
 
     /***
@@ -449,11 +660,11 @@ public class BulkUploadManagerTest {
      * is more than 2
      */
     @Test
-    public void testCreateResourceFromRow_DifficultyPairUnder2() throws ExcelException {
+    public void testParseRow_DifficultyPairUnder2() throws ExcelException {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.CATEGORY_DIFFICULTY_PAIR));
         testRow = wbRows.getSheetAt(0).getRow(7);
-        bulkUploadManager.createResourceFromRow(testRow);
+        bulkUploadManager.parseRow(testRow);
     }
 
     /***
@@ -461,10 +672,57 @@ public class BulkUploadManagerTest {
      * not a number
      */
     @Test
-    public void testCreateResourceFromRow_CategoryDifficultyNotNumber() throws ExcelException {
+    public void testParseRow_CategoryDifficultyNotNumber() throws ExcelException {
         expectedException.expect(ExcelException.class);
         expectedException.expect(new ExcelExceptionMatcher(ExcelExceptionTypes.CATEGORY_DIFFICULTY_NOT_AN_INTEGER));
         testRow = wbRows.getSheetAt(0).getRow(8);
-        bulkUploadManager.createResourceFromRow(testRow);
+        bulkUploadManager.parseRow(testRow);
+    }
+
+    /***
+     * Write a workbook with a header row and one resource row.
+     * 
+     * @param workbook
+     *            the empty {@link Workbook} to fill
+     * @param name
+     *            the resource name, or null to write a numeric name cell
+     * @return {@link ByteArrayInputStream} over the written workbook
+     */
+    private static ByteArrayInputStream writeSingleRowWorkbook(Workbook workbook, String name) throws IOException {
+        Row header = workbook.createSheet().createRow(0);
+        header.createCell(0).setCellValue("Name");
+        Row row = workbook.getSheetAt(0).createRow(1);
+        if (name == null) {
+            row.createCell(0).setCellValue(VALID_CATEGORY_ID);
+        } else {
+            row.createCell(0).setCellValue(name);
+        }
+        writeResourceCells(row);
+        return toInputStream(workbook);
+    }
+
+    private static ByteArrayInputStream writeWorkbook(Workbook workbook, int rowCount) throws IOException {
+        Row header = workbook.createSheet().createRow(0);
+        header.createCell(0).setCellValue("Name");
+        for (int i = 1; i <= rowCount; i++) {
+            Row row = workbook.getSheetAt(0).createRow(i);
+            row.createCell(0).setCellValue(VALID_RESOURCE_NAME + i);
+            writeResourceCells(row);
+        }
+        return toInputStream(workbook);
+    }
+
+    private static void writeResourceCells(Row row) {
+        row.createCell(1).setCellValue(VALID_RESOURCE_DESCRIPTION);
+        row.createCell(2).setCellValue(VALID_LINK_URL);
+        row.createCell(3).setCellValue(VALID_TYPE_NAME);
+        row.createCell(4).setCellValue(VALID_CATEGORY_NAME + ":" + VALID_CATEGORY_DIFFICULTY);
+    }
+
+    private static ByteArrayInputStream toInputStream(Workbook workbook) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.close();
+        return new ByteArrayInputStream(out.toByteArray());
     }
 }
@@ -0,0 +1,166 @@
+package com.cerner.devcenter.education.managers;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Compares the peak heap used to read a generated bulk upload sheet with the
+ * streaming {@link XlsxSheetReader} against loading it with the usermodel, as
+ * {@link BulkUploadManager} did for every file before.
+ * <p>
+ * Legacy .xls files cannot hold more than 65,536 rows, so the .xls run uses the
+ * largest sheet the format allows. For stable numbers run each mode in its own
+ * JVM with the same heap settings as the server, for example:
+ *
+ * <pre>
+ * java -Xmx1g -cp ... BulkUploadMemoryBenchmark 100000 xlsx-stream
+ * java -Xmx1g -cp ... BulkUploadMemoryBenchmark 100000 xlsx-usermodel
+ * java -Xmx1g -cp ... BulkUploadMemoryBenchmark 100000 xls-usermodel
+ * </pre>
+ *
+ * Without a mode all three are run in this JVM, one after another.
+ */
+public class BulkUploadMemoryBenchmark {
+
+    private static final int DEFAULT_ROWS = 100000;
+    private static final String XLSX_STREAM = "xlsx-stream";
+    private static final String XLSX_USERMODEL = "xlsx-usermodel";
+    private static final String XLS_USERMODEL = "xls-usermodel";
+    private static final int SXSSF_WINDOW = 100;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        String mode = args.length > 1 ? args[1] : null;
+
+        File xlsx = File.createTempFile("bulk-upload-benchmark", ".xlsx");
+        File xls = File.createTempFile("bulk-upload-benchmark", ".xls");
+        try {
+            int xlsRows = Math.min(rows, SpreadsheetVersion.EXCEL97.getLastRowIndex());
+            if (mode == null || !XLS_USERMODEL.equals(mode)) {
+                writeSheet(new SXSSFWorkbook(SXSSF_WINDOW), xlsx, rows);
+            }
+            if (mode == null || XLS_USERMODEL.equals(mode)) {
+                writeSheet(new HSSFWorkbook(), xls, xlsRows);
+            }
+            System.out.printf("Generated %d rows: .xlsx %d KB, .xls %d KB (%d rows)%n", rows, xlsx.length() / 1024,
+                    xls.length() / 1024, xlsRows);
+
+            if (mode == null || XLSX_STREAM.equals(mode)) {
+                report(XLSX_STREAM, xlsx);
+            }
+            if (mode == null || XLSX_USERMODEL.equals(mode)) {
+                report(XLSX_USERMODEL, xlsx);
+            }
+            if (mode == null || XLS_USERMODEL.equals(mode)) {
+                report(XLS_USERMODEL, xls);
+            }
+        } finally {
+            xlsx.delete();
+            xls.delete();
+        }
+    }
+
+    private static void writeSheet(Workbook workbook, File file, int rows) throws IOException {
+        Sheet sheet = workbook.createSheet();
+        Row header = sheet.createRow(0);
+        header.createCell(0).setCellValue("Name");
+        header.createCell(1).setCellValue("Description");
+        header.createCell(2).setCellValue("Link");
+        header.createCell(3).setCellValue("Type");
+        header.createCell(4).setCellValue("Categories");
+        for (int i = 1; i <= rows; i++) {
+            Row row = sheet.createRow(i);
+            row.createCell(0).setCellValue("Resource " + i);
+            row.createCell(1).setCellValue("Generated description for bulk upload resource number " + i);
+            row.createCell(2).setCellValue("http://www.example.com/resources/" + i);
+            row.createCell(3).setCellValue("EBook");
+            row.createCell(4).setCellValue("Java:" + (i % 5 + 1) + ";Testing:" + ((i + 2) % 5 + 1));
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            workbook.write(out);
+        }
+        if (workbook instanceof SXSSFWorkbook) {
+            ((SXSSFWorkbook) workbook).dispose();
+        }
+        workbook.close();
+    }
+
+    private static void report(String mode, File file) throws Exception {
+        System.gc();
+        long baseline = usedHeap();
+        resetPeakUsage();
+        long start = System.nanoTime();
+        int rows = XLSX_STREAM.equals(mode) ? readStreaming(file) : readUsermodel(file);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        long peak = peakUsage();
+        System.out.printf("%-15s %7d rows in %6d ms, peak heap above baseline %5d MB%n", mode, rows, elapsedMillis,
+                (peak - baseline) / BYTES_PER_MB);
+    }
+
+    private static int readStreaming(File file) throws Exception {
+        final int[] count = new int[1];
+        XlsxSheetReader.readFirstSheet(file, new XlsxSheetReader.RowHandler() {
+            @Override
+            public void handleRow(int rowNum, List<SheetCell> cells) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    private static int readUsermodel(File file) throws Exception {
+        int count = 0;
+        try (Workbook workbook = WorkbookFactory.create(file)) {
+            for (Row row : workbook.getSheetAt(0)) {
+                for (Cell cell : row) {
+                    SheetCell.fromCell(cell);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long usedHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static void resetPeakUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
@@ -3,10 +3,12 @@ package com.cerner.devcenter.education.managers;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -23,10 +25,12 @@ import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.CategoryDAO;
 import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.models.Category;
-
-import uk.org.lidalia.slf4jtest.LoggingEvent;
-import uk.org.lidalia.slf4jtest.TestLogger;
-import uk.org.lidalia.slf4jtest.TestLoggerFactory;
+import com.cerner.devcenter.education.models.TrendingCategory;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
+import com.cerner.devcenter.education.reference.ReferenceData;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
+import com.cerner.devcenter.education.trending.TrendingCount;
+import com.cerner.devcenter.education.trending.TrendingTracker;
 
 /**
  * Tests the functionalities of {@link CategoryManager}
@@ -45,6 +49,12 @@ public class CategoryManagerTest {
     private CategoryManager categoryManager;
     @Mock
     private CategoryDAO categoryDAO;
+    @Mock
+    private UserRecommendationCache recommendationCache;
+    @Mock
+    private ReferenceDataStore referenceData;
+    @Mock
+    private TrendingTracker trendingTracker;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
@@ -61,7 +71,6 @@ public class CategoryManagerTest {
     private static final String ERROR_ADDING_CATEGORY = "Error encountered while adding category";
     private static final String ERROR_RETRIEVING_CATEGORY_BY_NAME = "Error retrieving category with the provided category name";
     private static final String ERROR_RETRIEVING_CATEGORY_BY_ID = "Error retrieving category by its id";
-    private static final String ERROR_RETRIEVING_ALL_CATEGORIES = "Error retrieving all categories from the data source";
     private static final String ERROR_RETRIEVING_SEARCH_CATEGORIES = "Error retrieving searched categories from the database";
     private static final String ERROR_DELETING_CATEGORY = "Error deleting category from the data source using its id";
 
@@ -96,6 +105,7 @@ public class CategoryManagerTest {
         assertEquals(category.getName(), newCategory.getName());
         assertEquals(category.getDescription(), newCategory.getDescription());
         assertEquals(category.getId(), newCategory.getId());
+        verify(referenceData).refreshCategories();
     }
 
     /***
@@ -187,50 +197,54 @@ public class CategoryManagerTest {
     }
 
     /**
-     * Tests {@link CategoryManager#getAllCategories()} functionality, expects
-     * {@link ManagerException} when {@link CategoryDAO#getAllCategoriesListFromDB()}
-     * throws {@link DAOException}
+     * Tests {@link CategoryManager#getAllCategories()} returns the categories
+     * of the reference data without querying the data source
      */
     @Test
-    public void testGetAllCategoriesThrowsManagerException() throws DAOException {
-        expectedException.expect(ManagerException.class);
-        expectedException.expectMessage(ERROR_RETRIEVING_ALL_CATEGORIES);
-        when(categoryDAO.getAllCategoryList()).thenThrow(new DAOException());
-        categoryManager.getAllCategories();
+    public void testGetAllCategories() throws DAOException {
+        when(referenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withCategories(listCategory));
+        Category newCategory = categoryManager.getAllCategories().get(0);
+        assertEquals(VALID_CATEGORY_NAME, newCategory.getName());
+        assertEquals(VALID_CATEGORY_DESCRIPTION, newCategory.getDescription());
+        assertEquals(VALID_CATEGORY_ID, newCategory.getId());
     }
 
     /**
-     * Tests {@link CategoryManager#getAllCategories()} functionality, expects
-     * {@link ManagerException} and verifies log message when
-     * {@link CategoryDAO#getAllCategoriesListFromDB()} throws {@link DAOException}
+     * Tests {@link CategoryManager#getTrendingCategories(int)} keeps the order
+     * of the trending tracker and skips the categories missing from the
+     * reference data.
      */
     @Test
-    public void testGetAllCategoriesThrowsManagerExceptionVerifyLogMsg() throws DAOException {
-        doThrow(new DAOException()).when(categoryDAO).getAllCategoryList();
-        expectedException.expect(ManagerException.class);
-        expectedException.expectMessage("Error retrieving all categories from the data source");
-        TestLogger logger = TestLoggerFactory.getTestLogger(CategoryManager.class);
-        try {
-            categoryManager.getAllCategories();
-        } catch (ManagerException managerException) {
-            List<LoggingEvent> listevents = logger.getLoggingEvents();
-            assertEquals(uk.org.lidalia.slf4jext.Level.ERROR, listevents.get(0).getLevel());
-            assertEquals("Error retrieving all categories from the data source", listevents.get(0).getMessage());
-            throw new ManagerException(managerException.getMessage(), new DAOException());
-        }
+    public void testGetTrendingCategories() {
+        when(trendingTracker.getTrendingCategories(3)).thenReturn(
+                Arrays.asList(new TrendingCount(VALID_CATEGORY_ID, 9), new TrendingCount(VALID_CATEGORY_ID + 1, 4)));
+        when(referenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withCategories(listCategory));
+        List<TrendingCategory> trendingCategories = categoryManager.getTrendingCategories(3);
+        assertEquals(1, trendingCategories.size());
+        assertEquals(VALID_CATEGORY_ID, trendingCategories.get(0).getCategory().getId());
+        assertEquals(9, trendingCategories.get(0).getCompletionCount());
     }
 
     /**
-     * Tests {@link CategoryManager#getAllCategories()} returns a valid list of
-     * {@link Category} when successful
+     * Tests {@link CategoryManager#getTrendingCategories(int)} returns no
+     * categories without reading the reference data when nothing is trending
      */
     @Test
-    public void testGetAllCategories() throws DAOException {
-        when(categoryDAO.getAllCategoryList()).thenReturn(listCategory);
-        Category newCategory = categoryManager.getAllCategories().get(0);
-        assertEquals(VALID_CATEGORY_NAME, newCategory.getName());
-        assertEquals(VALID_CATEGORY_DESCRIPTION, newCategory.getDescription());
-        assertEquals(VALID_CATEGORY_ID, newCategory.getId());
+    public void testGetTrendingCategoriesWhenNoneAreTrending() {
+        when(trendingTracker.getTrendingCategories(3)).thenReturn(Collections.<TrendingCount> emptyList());
+        assertTrue(categoryManager.getTrendingCategories(3).isEmpty());
+        verify(referenceData, never()).getSnapshot();
+    }
+
+    /**
+     * Tests {@link CategoryManager#getTrendingCategories(int)} functionality,
+     * expects {@link IllegalArgumentException} when the limit is 0
+     */
+    @Test
+    public void testGetTrendingCategoriesWhenLimitIsZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Number of trending categories must be positive.");
+        categoryManager.getTrendingCategories(0);
     }
 
     /**
@@ -255,6 +269,19 @@ public class CategoryManagerTest {
         categoryManager.deleteCategoryById(0);
     }
 
+    /**
+     * Tests {@link CategoryManager#deleteCategoryById(int)} functionality,
+     * expects the category to be deleted and the cached recommendations of the
+     * users interested in it to be dropped
+     */
+    @Test
+    public void testDeleteCategoryById() throws DAOException {
+        categoryManager.deleteCategoryById(VALID_CATEGORY_ID);
+        verify(categoryDAO).deleteCategory(VALID_CATEGORY_ID);
+        verify(referenceData).refreshCategories();
+        verify(recommendationCache).invalidateCategories(Collections.singleton(VALID_CATEGORY_ID));
+    }
+
     /**
      * Tests {@link CategoryManager#deleteCategoryById(int)} functionality,
      * expects {@link ManagerException} when
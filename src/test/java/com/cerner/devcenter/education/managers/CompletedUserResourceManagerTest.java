@@ -4,6 +4,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
@@ -40,6 +45,10 @@ import com.cerner.devcenter.education.dao.CompletedUserResourceDAOImpl;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.CompletedResource;
 import com.cerner.devcenter.education.models.CompletedUserResource;
+import com.cerner.devcenter.education.recommendation.CoCompletionIndex;
+import com.cerner.devcenter.education.recommendation.RecommendationEngine;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
+import com.cerner.devcenter.education.trending.TrendingTracker;
 import com.cerner.devcenter.education.utils.CompletionRating;
 
 /**
@@ -91,6 +100,14 @@ public class CompletedUserResourceManagerTest {
     @Mock
     private CompletedUserResourceDAO completedUserResourceDAO;
     @Mock
+    private UserRecommendationCache recommendationCache;
+    @Mock
+    private RecommendationEngine recommendationEngine;
+    @Mock
+    private CoCompletionIndex coCompletionIndex;
+    @Mock
+    private TrendingTracker trendingTracker;
+    @Mock
     private DAOException daoException;
     @Mock
     private Appender mockAppender;
@@ -117,13 +134,19 @@ public class CompletedUserResourceManagerTest {
      * {@link CompletedUserResourceManager#addCompletedUserResourceRating(CompletedUserResource)}
      * when
      * {@link CompletedUserResourceDAO#addCompletedUserResourceRating(String, int, CompletionRating, long)}
-     * returns true.
+     * returns true. The user's cached recommendations are dropped and the
+     * recommendation engine, the co-completion index and the trending tracker
+     * are told about the completion.
      */
     @Test
     public void testAddCompletedUserResourceRatingValid() throws DAOException {
         when(completedUserResourceDAO.addCompletedUserResourceRating(VALID_USER_ID, VALID_RESOURCE_ID,
                 CompletionRating.SATISFIED, VALID_DATE)).thenReturn(true);
         assertTrue(completedUserResourceManager.addCompletedUserResourceRating(COMPLETED_USER_RESOURCE));
+        verify(recommendationEngine).resourceCompleted(VALID_USER_ID, VALID_RESOURCE_ID);
+        verify(coCompletionIndex).resourceCompleted(VALID_USER_ID, VALID_RESOURCE_ID);
+        verify(trendingTracker).resourceCompleted(VALID_RESOURCE_ID, VALID_DATE);
+        verify(recommendationCache).invalidateUser(VALID_USER_ID);
     }
 
     /**
@@ -131,13 +154,16 @@ public class CompletedUserResourceManagerTest {
      * {@link CompletedUserResourceManager#addCompletedUserResourceRating(CompletedUserResource)}
      * when
      * {@link CompletedUserResourceDAO#addCompletedUserResourceRating(String, int, CompletionRating, long)}
-     * returns false.
+     * returns false. The co-completion index and the trending tracker are not
+     * told about the completion.
      */
     @Test
     public void testAddCompletedUserResourceRatingInvalid() throws DAOException {
         when(completedUserResourceDAO.addCompletedUserResourceRating(VALID_USER_ID, VALID_RESOURCE_ID,
                 CompletionRating.SATISFIED, VALID_DATE)).thenReturn(false);
         assertFalse(completedUserResourceManager.addCompletedUserResourceRating(COMPLETED_USER_RESOURCE));
+        verify(coCompletionIndex, never()).resourceCompleted(anyString(), anyInt());
+        verify(trendingTracker, never()).resourceCompleted(anyInt(), anyLong());
     }
 
     /**
@@ -1,13 +1,22 @@
 package com.cerner.devcenter.education.managers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -20,8 +29,15 @@ import org.mockito.MockitoAnnotations;
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.admin.ResourceCategoryRelationDAO;
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.KeysetPage;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.reference.ReferenceData;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
+import com.cerner.devcenter.education.search.ResourceFacetIndex;
+import com.cerner.devcenter.education.search.ResourceFacetQuery;
+import com.cerner.devcenter.education.search.ResourceFacets;
 
 /**
  * This class is used to test {@link ResourceCategoryRelationManager} class.
@@ -37,6 +53,10 @@ public class ResourceCategoryRelationManagerTest {
     private ResourceCategoryRelationManager resourceCategoryRelationManager;
     @Mock
     private ResourceCategoryRelationDAO mockResourceCategoryRelationDAO;
+    @Mock
+    private ReferenceDataStore mockReferenceData;
+    @Mock
+    private ResourceFacetIndex mockResourceFacetIndex;
 
     private static final int VALID_CATEGORY_ID = 5;
     private static final int VALID_RESOURCE_ID = 3;
@@ -52,6 +72,11 @@ public class ResourceCategoryRelationManagerTest {
     private static final String VALID_RESOURCE_OWNER = "Owner";
     private static final double VALID_AVERAGE_RATING = 2.0;
     private static final int NEGATIVE_ID = -4;
+    private static final int OTHER_CATEGORY_ID = 7;
+    private static final int CATEGORY_RESOURCE_COUNT = 42;
+    private static final int OTHER_CATEGORY_RESOURCE_COUNT = 8;
+    private static final int AFTER_RESOURCE_ID = 20;
+    private static final int RESOURCES_PER_PAGE = 2;
 
     private static final String GET_ALL_RESOURCES_ERROR_MESSAGE = "Error retrieving all the resources";
     private static final String SEARCH_ERROR_MESSAGE = "Error searching for resource category relation by category name and difficulty level";
@@ -96,6 +121,13 @@ public class ResourceCategoryRelationManagerTest {
                         PAGE_NUMBER)).thenReturn(listOfResourceCategoryRelation);
         when(mockResourceCategoryRelationDAO.getAllResourcesAndAverageRatings())
                 .thenReturn(listOfResourceCategoryRelation);
+        final Category category = new Category(VALID_CATEGORY_ID, VALID_CATEGORY_NAME, VALID_CATEGORY_DESCRIPTION);
+        category.setResourcesCount(CATEGORY_RESOURCE_COUNT);
+        final Category otherCategory = new Category(OTHER_CATEGORY_ID, VALID_CATEGORY_NAME,
+                VALID_CATEGORY_DESCRIPTION);
+        otherCategory.setResourcesCount(OTHER_CATEGORY_RESOURCE_COUNT);
+        when(mockReferenceData.getSnapshot())
+                .thenReturn(ReferenceData.EMPTY.withCategories(Arrays.asList(category, otherCategory)));
     }
 
     /**
@@ -600,4 +632,254 @@ public class ResourceCategoryRelationManagerTest {
                 resourceCategoryRelationManager
                         .searchResourcesByCategoryNameAndDifficultyLevel(VALID_CATEGORY_NAME, VALID_DIFFICULTY_LEVEL));
     }
-}
\ No newline at end of file
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationManager#searchResourcesByCategoryNameAndDifficultyLevel(String, int)}
+     * to find the resources of every category with the name, whatever its
+     * case, in the facet index once it is built and to read only those
+     * resources from the database.
+     */
+    @Test
+    public void testSearchResourcesByCategoryNameAndDifficultyLevelFromFacetIndex() throws DAOException {
+        final List<Integer> resourceIds = Arrays.asList(VALID_RESOURCE_ID);
+        when(mockResourceFacetIndex.isReady()).thenReturn(true);
+        when(mockResourceFacetIndex.getResourceIds(new ResourceFacetQuery(Arrays.asList(VALID_CATEGORY_ID),
+                Arrays.asList(VALID_DIFFICULTY_LEVEL), null, null, null))).thenReturn(resourceIds);
+        when(mockResourceFacetIndex.getResourceIds(new ResourceFacetQuery(Arrays.asList(OTHER_CATEGORY_ID),
+                Arrays.asList(VALID_DIFFICULTY_LEVEL), null, null, null))).thenReturn(Collections.<Integer> emptyList());
+        when(mockResourceCategoryRelationDAO.getResourcesAndAverageRatingsByIds(VALID_CATEGORY_ID,
+                VALID_DIFFICULTY_LEVEL, resourceIds)).thenReturn(listOfResourceCategoryRelation);
+
+        assertEquals(listOfResourceCategoryRelation, resourceCategoryRelationManager
+                .searchResourcesByCategoryNameAndDifficultyLevel(VALID_CATEGORY_NAME.toUpperCase(),
+                        VALID_DIFFICULTY_LEVEL));
+        verify(mockResourceCategoryRelationDAO, never()).getResourcesAndAverageRatingsByIds(
+                eq(OTHER_CATEGORY_ID), anyInt(), anyCollectionOf(Integer.class));
+        verify(mockResourceCategoryRelationDAO, never()).searchResourcesByCategoryNameAndDifficultyLevel(anyString(),
+                anyInt());
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationManager#searchResourcesByCategoryNameAndDifficultyLevel(String, int)}
+     * to return an empty {@link List} without reading the database when no
+     * category has the name.
+     */
+    @Test
+    public void testSearchResourcesByCategoryNameAndDifficultyLevelFromFacetIndexWithUnknownName()
+            throws DAOException {
+        when(mockResourceFacetIndex.isReady()).thenReturn(true);
+        assertEquals(
+                emptyListOfResourceCategoryRelation,
+                resourceCategoryRelationManager
+                        .searchResourcesByCategoryNameAndDifficultyLevel("unknown", VALID_DIFFICULTY_LEVEL));
+        verifyZeroInteractions(mockResourceCategoryRelationDAO);
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationManager#getResourcesByCategoryIdAfter(int, int, int, int)}
+     * reads one resource more than a page to find out that there is a next
+     * page, and returns the last resource id of the page to read it after.
+     */
+    @Test
+    public void testGetResourcesByCategoryIdAfterWithNextPage() throws DAOException {
+        when(mockResourceCategoryRelationDAO.getResourcesAndDifficultyLevelByCategoryIdAfter(VALID_CATEGORY_ID,
+                AFTER_RESOURCE_ID, RESOURCES_PER_PAGE + 1)).thenReturn(relationsOfResources(21, 24, 30));
+        final KeysetPage<ResourceCategoryRelation> page = resourceCategoryRelationManager
+                .getResourcesByCategoryIdAfter(VALID_CATEGORY_ID, 0, AFTER_RESOURCE_ID, RESOURCES_PER_PAGE);
+        assertEquals(Arrays.asList(21, 24), resourceIdsOf(page));
+        assertEquals(Integer.valueOf(24), page.getNextAfter());
+        assertEquals(Integer.valueOf(CATEGORY_RESOURCE_COUNT), page.getApproximateTotal());
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationManager#getResourcesByCategoryIdAfter(int, int, int, int)}
+     * filters by resource type when one is given and has no next page when
+     * the last page is not full.
+     */
+    @Test
+    public void testGetResourcesByCategoryIdAfterWithResourceTypeOnLastPage() throws DAOException {
+        when(mockResourceCategoryRelationDAO.getResourcesByCategoryIdAndTypeIdAfter(VALID_CATEGORY_ID,
+                VALID_RESOURCE_TYPE_ID, AFTER_RESOURCE_ID, RESOURCES_PER_PAGE + 1))
+                        .thenReturn(relationsOfResources(21));
+        final KeysetPage<ResourceCategoryRelation> page = resourceCategoryRelationManager
+                .getResourcesByCategoryIdAfter(VALID_CATEGORY_ID, VALID_RESOURCE_TYPE_ID, AFTER_RESOURCE_ID,
+                        RESOURCES_PER_PAGE);
+        assertEquals(Arrays.asList(21), resourceIdsOf(page));
+        assertNull(page.getNextAfter());
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationManager#getResourcesByCategoryIdAfter(int, int, int, int)}
+     * to throw {@link IllegalArgumentException} when the resource id to read
+     * after is negative.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourcesByCategoryIdAfterWithNegativeAfter() {
+        resourceCategoryRelationManager.getResourcesByCategoryIdAfter(VALID_CATEGORY_ID, 0, NEGATIVE_ID,
+                RESOURCES_PER_PAGE);
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationManager#getResourcesByCategoryIdAfter(int, int, int, int)}
+     * to throw {@link ManagerException} when the DAO throws
+     * {@link DAOException}.
+     */
+    @Test(expected = ManagerException.class)
+    public void testGetResourcesByCategoryIdAfterWhenDAOFails() throws DAOException {
+        doThrow(DAOException.class).when(mockResourceCategoryRelationDAO)
+                .getResourcesAndDifficultyLevelByCategoryIdAfter(anyInt(), anyInt(), anyInt());
+        resourceCategoryRelationManager.getResourcesByCategoryIdAfter(VALID_CATEGORY_ID, 0, AFTER_RESOURCE_ID,
+                RESOURCES_PER_PAGE);
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationManager#getResourcesForAllCategoriesAfter(int, int)}
+     * keeps every relation of a resource on the same page and drops the
+     * relations of the extra resource that was read.
+     */
+    @Test
+    public void testGetResourcesForAllCategoriesAfterCutsAtResourceBoundary() throws DAOException {
+        when(mockResourceCategoryRelationDAO.getResourcesAndAverageRatingsAfter(AFTER_RESOURCE_ID,
+                RESOURCES_PER_PAGE + 1)).thenReturn(relationsOfResources(21, 21, 24, 30, 30));
+        final KeysetPage<ResourceCategoryRelation> page = resourceCategoryRelationManager
+                .getResourcesForAllCategoriesAfter(AFTER_RESOURCE_ID, RESOURCES_PER_PAGE);
+        assertEquals(Arrays.asList(21, 21, 24), resourceIdsOf(page));
+        assertEquals(Integer.valueOf(24), page.getNextAfter());
+        assertEquals(Integer.valueOf(CATEGORY_RESOURCE_COUNT + OTHER_CATEGORY_RESOURCE_COUNT),
+                page.getApproximateTotal());
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationManager#getResourcesForAllCategoriesAfter(int, int)}
+     * has no next page when no more resources than a page were read.
+     */
+    @Test
+    public void testGetResourcesForAllCategoriesAfterOnLastPage() throws DAOException {
+        when(mockResourceCategoryRelationDAO.getResourcesAndAverageRatingsAfter(AFTER_RESOURCE_ID,
+                RESOURCES_PER_PAGE + 1)).thenReturn(relationsOfResources(21, 24, 24));
+        final KeysetPage<ResourceCategoryRelation> page = resourceCategoryRelationManager
+                .getResourcesForAllCategoriesAfter(AFTER_RESOURCE_ID, RESOURCES_PER_PAGE);
+        assertEquals(Arrays.asList(21, 24, 24), resourceIdsOf(page));
+        assertNull(page.getNextAfter());
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationManager#getResourcesForAllCategoriesAfter(int, int)}
+     * to throw {@link IllegalArgumentException} when the page is larger than
+     * allowed.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourcesForAllCategoriesAfterWithTooLargePage() {
+        resourceCategoryRelationManager.getResourcesForAllCategoriesAfter(AFTER_RESOURCE_ID, 101);
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationManager#getApproximateResourceCountByCategoryId(int)}
+     * reads the count from the reference data and returns 0 for an unknown
+     * category.
+     */
+    @Test
+    public void testGetApproximateResourceCountByCategoryId() {
+        assertEquals(CATEGORY_RESOURCE_COUNT,
+                resourceCategoryRelationManager.getApproximateResourceCountByCategoryId(VALID_CATEGORY_ID));
+        assertEquals(0, resourceCategoryRelationManager.getApproximateResourceCountByCategoryId(99));
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationManager#getApproximateResourceCount(int, int)}
+     * counts the resources of the category and type in the facet index once it
+     * is built.
+     */
+    @Test
+    public void testGetApproximateResourceCountFromFacetIndex() {
+        when(mockResourceFacetIndex.isReady()).thenReturn(true);
+        when(mockResourceFacetIndex.count(new ResourceFacetQuery(Arrays.asList(VALID_CATEGORY_ID), null,
+                Arrays.asList(VALID_RESOURCE_TYPE_ID), null, null))).thenReturn(4);
+        when(mockResourceFacetIndex.count(new ResourceFacetQuery(Arrays.asList(VALID_CATEGORY_ID), null, null, null,
+                null))).thenReturn(9);
+        assertEquals(4,
+                resourceCategoryRelationManager.getApproximateResourceCount(VALID_CATEGORY_ID, VALID_RESOURCE_TYPE_ID));
+        assertEquals(9, resourceCategoryRelationManager.getApproximateResourceCount(VALID_CATEGORY_ID, 0));
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationManager#getApproximateResourceCount(int, int)}
+     * falls back to the count of the category in the reference data until the
+     * facet index is built.
+     */
+    @Test
+    public void testGetApproximateResourceCountBeforeFacetIndexIsBuilt() {
+        when(mockResourceFacetIndex.isReady()).thenReturn(false);
+        assertEquals(CATEGORY_RESOURCE_COUNT,
+                resourceCategoryRelationManager.getApproximateResourceCount(VALID_CATEGORY_ID, VALID_RESOURCE_TYPE_ID));
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceCategoryRelationManager#getResourceFacets(ResourceFacetQuery, int, int)}
+     * answers the query from the facet index.
+     */
+    @Test
+    public void testGetResourceFacets() {
+        final ResourceFacets facets = new ResourceFacets(0, Collections.<Integer> emptyList(), null, null, null,
+                null, null, null);
+        when(mockResourceFacetIndex.isReady()).thenReturn(true);
+        when(mockResourceFacetIndex.search(ResourceFacetQuery.ALL, AFTER_RESOURCE_ID, RESOURCES_PER_PAGE))
+                .thenReturn(facets);
+        assertSame(facets, resourceCategoryRelationManager.getResourceFacets(ResourceFacetQuery.ALL,
+                AFTER_RESOURCE_ID, RESOURCES_PER_PAGE));
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationManager#getResourceFacets(ResourceFacetQuery, int, int)}
+     * to throw {@link ManagerException} until the facet index is built.
+     */
+    @Test(expected = ManagerException.class)
+    public void testGetResourceFacetsBeforeFacetIndexIsBuilt() {
+        when(mockResourceFacetIndex.isReady()).thenReturn(false);
+        resourceCategoryRelationManager.getResourceFacets(ResourceFacetQuery.ALL, AFTER_RESOURCE_ID,
+                RESOURCES_PER_PAGE);
+    }
+
+    /**
+     * Expects
+     * {@link ResourceCategoryRelationManager#getResourceFacets(ResourceFacetQuery, int, int)}
+     * to throw {@link IllegalArgumentException} when the limit is larger than
+     * the maximum page size.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetResourceFacetsWithTooLargeLimit() {
+        resourceCategoryRelationManager.getResourceFacets(ResourceFacetQuery.ALL, AFTER_RESOURCE_ID, 101);
+    }
+
+    private static List<Integer> resourceIdsOf(final KeysetPage<ResourceCategoryRelation> page) {
+        final List<Integer> resourceIds = new ArrayList<>();
+        for (final ResourceCategoryRelation relation : page.getItems()) {
+            resourceIds.add(relation.getResourceId());
+        }
+        return resourceIds;
+    }
+
+    private List<ResourceCategoryRelation> relationsOfResources(final int... resourceIds) {
+        final List<ResourceCategoryRelation> relations = new ArrayList<>();
+        for (final int resourceId : resourceIds) {
+            relations.add(new ResourceCategoryRelation(resourceId, VALID_RESOURCE_NAME, staticURL, resourceType,
+                    VALID_DIFFICULTY_LEVEL, VALID_CATEGORY_ID, VALID_CATEGORY_NAME, VALID_RESOURCE_DESCRIPTION,
+                    VALID_CATEGORY_DESCRIPTION));
+        }
+        return relations;
+    }
+}
@@ -0,0 +1,240 @@
+package com.cerner.devcenter.education.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cerner.devcenter.education.admin.ResourceCategoryRelationDAO;
+import com.cerner.devcenter.education.admin.ResourceDAOImpl;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceCategoryRelation;
+import com.cerner.devcenter.education.models.ResourceStatus;
+import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
+import com.cerner.devcenter.education.search.ResourceAutocompleteIndex;
+
+/**
+ * Adds resources with
+ * {@link ResourceManager#addResourceCategoryRelationWithDifficultyLevel(Resource)}
+ * from many connections at once, through the real {@link ResourceDAOImpl} and
+ * the resource id sequence, and checks that every resource gets a distinct id,
+ * that the id is the row holding that resource, and that its category
+ * relations are written against that id and no other.
+ * <p>
+ * The test needs a PostgreSQL database and is skipped unless one is given.
+ * The resource table is created in a scratch schema which is dropped
+ * afterwards:
+ *
+ * <pre>
+ * mvn test -Dtest=ResourceManagerConcurrencyTest -Dtest.postgres.url=jdbc:postgresql://localhost:5432/continue_education -Dtest.postgres.user=postgres -Dtest.postgres.password=postgres
+ * </pre>
+ */
+public class ResourceManagerConcurrencyTest {
+
+    private static final String URL_PROPERTY = "test.postgres.url";
+    private static final String SCHEMA = "resource_manager_concurrency_test";
+    private static final int THREAD_COUNT = 16;
+    private static final int RESOURCES_PER_THREAD = 50;
+    private static final int CATEGORIES_PER_RESOURCE = 3;
+    private static final String RESOURCE_OWNER = "AB123456";
+    private static final ResourceType RESOURCE_TYPE = new ResourceType(1, "EBook");
+
+    private static String url;
+    private static String user;
+    private static String password;
+
+    private final ConcurrentMap<Integer, Set<Integer>> relationsByResourceId = new ConcurrentHashMap<>();
+
+    @BeforeClass
+    public static void createTables() {
+        url = System.getProperty(URL_PROPERTY);
+        assumeTrue(StringUtils.isNotBlank(url));
+        user = System.getProperty("test.postgres.user");
+        password = System.getProperty("test.postgres.password");
+
+        final SingleConnectionDataSource dataSource = newDataSource();
+        try {
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+            jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+            jdbcTemplate.execute("CREATE TYPE status AS ENUM ('Available', 'Pending', 'Deleted')");
+            jdbcTemplate.execute("CREATE TABLE resource (resource_id serial PRIMARY KEY,"
+                    + " name character varying(255) NOT NULL, link character varying(255) NOT NULL,"
+                    + " description character varying(200) NOT NULL, type_id integer NOT NULL,"
+                    + " resource_owner character varying(8) NOT NULL, status status DEFAULT 'Available' NOT NULL)");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    @AfterClass
+    public static void dropTables() {
+        if (StringUtils.isBlank(url)) {
+            return;
+        }
+        final SingleConnectionDataSource dataSource = newDataSource();
+        try {
+            new JdbcTemplate(dataSource).execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    /**
+     * Verifies that concurrent inserts, each on its own connection, never share
+     * an id and that each resource's relations reference its own id with
+     * exactly the categories it was created with.
+     */
+    @Test
+    public void testConcurrentAddResourceCategoryRelationWithDifficultyLevel() throws Exception {
+        final ResourceCategoryRelationDAO resourceCategoryRelationDAO = recordingRelationDAO();
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        final List<Future<List<Resource>>> futures = new ArrayList<>();
+        final Set<Integer> seenIds = new HashSet<>();
+        try {
+            for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                final int threadNumber = thread;
+                futures.add(executor.submit(new Callable<List<Resource>>() {
+                    @Override
+                    public List<Resource> call() throws Exception {
+                        return addResources(threadNumber, resourceCategoryRelationDAO, startSignal);
+                    }
+                }));
+            }
+            startSignal.countDown();
+
+            final SingleConnectionDataSource dataSource = newDataSource();
+            try {
+                final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+                for (final Future<List<Resource>> future : futures) {
+                    for (final Resource resource : future.get(60, TimeUnit.SECONDS)) {
+                        assertTrue(seenIds.add(resource.getResourceId()));
+                        assertEquals(resource.getResourceName(), jdbcTemplate.queryForObject(
+                                "SELECT name FROM resource WHERE resource_id = ?", String.class,
+                                resource.getResourceId()));
+                        assertEquals(
+                                resource.getResourceDifficultyForCategory().keySet(),
+                                relationsByResourceId.get(resource.getResourceId()));
+                    }
+                }
+            } finally {
+                dataSource.destroy();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(THREAD_COUNT * RESOURCES_PER_THREAD, seenIds.size());
+        assertEquals(THREAD_COUNT * RESOURCES_PER_THREAD, relationsByResourceId.size());
+    }
+
+    /**
+     * Adds this thread's resources through a {@link ResourceManager} whose
+     * {@link ResourceDAOImpl} has a connection of its own.
+     */
+    private static List<Resource> addResources(final int threadNumber,
+            final ResourceCategoryRelationDAO resourceCategoryRelationDAO, final CountDownLatch startSignal)
+            throws Exception {
+        final SingleConnectionDataSource dataSource = newDataSource();
+        try {
+            final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+            final ResourceDAOImpl resourceDAO = new ResourceDAOImpl();
+            ReflectionTestUtils.setField(resourceDAO, "jdbcTemplate", jdbcTemplate);
+            final ResourceManager resourceManager = new ResourceManager();
+            resourceManager.resourceDAO = resourceDAO;
+            resourceManager.resourceCategoryRelationDAO = resourceCategoryRelationDAO;
+            resourceManager.autocompleteIndex = mock(ResourceAutocompleteIndex.class);
+            resourceManager.recommendationCache = mock(UserRecommendationCache.class);
+            resourceManager.referenceData = mock(ReferenceDataStore.class);
+
+            startSignal.await();
+            final List<Resource> added = new ArrayList<>();
+            for (int i = 0; i < RESOURCES_PER_THREAD; i++) {
+                added.add(resourceManager.addResourceCategoryRelationWithDifficultyLevel(
+                        createResource(threadNumber, i)));
+            }
+            return added;
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    /**
+     * Returns a {@link ResourceCategoryRelationDAO} that records the category
+     * ids of the relations written for each resource id.
+     */
+    private ResourceCategoryRelationDAO recordingRelationDAO() throws Exception {
+        final ResourceCategoryRelationDAO resourceCategoryRelationDAO = mock(ResourceCategoryRelationDAO.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                final ResourceCategoryRelation relation = (ResourceCategoryRelation) invocation.getArguments()[0];
+                Set<Integer> categories = relationsByResourceId.get(relation.getResourceId());
+                if (categories == null) {
+                    relationsByResourceId.putIfAbsent(
+                            relation.getResourceId(),
+                            Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>()));
+                    categories = relationsByResourceId.get(relation.getResourceId());
+                }
+                categories.add(relation.getCategoryId());
+                return null;
+            }
+        }).when(resourceCategoryRelationDAO).addResourceCategoryRelationWithDifficultyLevel(
+                any(ResourceCategoryRelation.class));
+        return resourceCategoryRelationDAO;
+    }
+
+    private static Resource createResource(final int threadNumber, final int resourceNumber) throws Exception {
+        final Resource resource = new Resource();
+        resource.setResourceName("resource-" + threadNumber + "-" + resourceNumber);
+        resource.setDescription("description");
+        resource.setResourceLink(new URL("http://www.testURL.com/" + threadNumber + "/" + resourceNumber));
+        resource.setResourceType(RESOURCE_TYPE);
+        resource.setResourceOwner(RESOURCE_OWNER);
+        resource.setResourceStatus(ResourceStatus.Available.toString());
+        final Map<Integer, Integer> difficultyForCategory = new HashMap<>();
+        for (int category = 1; category <= CATEGORIES_PER_RESOURCE; category++) {
+            difficultyForCategory.put(threadNumber * CATEGORIES_PER_RESOURCE + category, category);
+        }
+        resource.setResourceDifficultyForCategory(difficultyForCategory);
+        return resource;
+    }
+
+    private static SingleConnectionDataSource newDataSource() {
+        return new SingleConnectionDataSource(url, user, password, true);
+    }
+}
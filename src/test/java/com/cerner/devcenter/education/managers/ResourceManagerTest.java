@@ -2,28 +2,32 @@ package com.cerner.devcenter.education.managers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
+import java.util.Set;
 import javax.naming.NamingException;
-import javax.naming.directory.Attributes;
-import javax.naming.directory.DirContext;
-import javax.naming.directory.InitialDirContext;
-import javax.naming.directory.SearchResult;
 
 import org.apache.log4j.Appender;
 import org.apache.log4j.LogManager;
@@ -37,31 +41,44 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.powermock.api.mockito.PowerMockito;
-import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.modules.junit4.PowerMockRunner;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.cerner.devcenter.education.admin.CategoryResourceRelationDAO;
 import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.admin.ResourceDAO;
 import com.cerner.devcenter.education.admin.ResourceCategoryRelationDAO;
-import com.cerner.devcenter.education.authentication.LdapReader;
 import com.cerner.devcenter.education.dao.ResourceRequestDAO;
 import com.cerner.devcenter.education.dao.ResourceRequestDAOImpl;
 import com.cerner.devcenter.education.exceptions.ItemAlreadyExistsException;
 import com.cerner.devcenter.education.exceptions.ResourceIdNotFoundException;
 import com.cerner.devcenter.education.exceptions.CategoryIdNotFoundException;
 import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.RelatedResource;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.ResourceRequest;
 import com.cerner.devcenter.education.models.ResourceStatus;
 import com.cerner.devcenter.education.models.ResourceCategoryRelation;
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.models.TrendingResource;
+import com.cerner.devcenter.education.recommendation.CoCompletedResource;
+import com.cerner.devcenter.education.recommendation.CoCompletionIndex;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
+import com.cerner.devcenter.education.search.ResourceAutocompleteIndex;
+import com.cerner.devcenter.education.trending.TrendingCount;
+import com.cerner.devcenter.education.trending.TrendingTracker;
 import com.cerner.devcenter.education.user.UserDetails;
 import com.cerner.devcenter.education.user.UserProfileDetails;
+import com.cerner.devcenter.education.utils.Constants;
 
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import uk.org.lidalia.slf4jtest.LoggingEvent;
 import uk.org.lidalia.slf4jtest.TestLogger;
 import uk.org.lidalia.slf4jtest.TestLoggerFactory;
@@ -76,7 +93,6 @@ import uk.org.lidalia.slf4jtest.TestLoggerFactory;
  * @author Rishabh Bhojak (RB048032)
  */
 @RunWith(PowerMockRunner.class)
-@PrepareForTest(LdapReader.class)
 public class ResourceManagerTest {
 
     @InjectMocks
@@ -98,23 +114,30 @@ public class ResourceManagerTest {
     @Mock
     private DAOException daoException;
     @Mock
-    private SearchResult searchResults;
+    private JdbcTemplate jdbcTemplate;
     @Mock
-    private Attributes attributes;
+    private TransactionTemplate transactionTemplate;
     @Mock
-    private JdbcTemplate jdbcTemplate;
+    private TransactionStatus transactionStatus;
+    @Mock
+    private ResourceAutocompleteIndex autocompleteIndex;
+    @Mock
+    private UserRecommendationCache recommendationCache;
+    @Mock
+    private ReferenceDataStore referenceData;
+    @Mock
+    private CoCompletionIndex coCompletionIndex;
+    @Mock
+    private TrendingTracker trendingTracker;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
     @Mock
     private Appender mockAppender;
     @Mock
-    private LdapReader reader;
-    @Mock
     private UserProfileDetails mockUser;
     @Mock
     private UserDetails mockUserDetail;
 
-    private DirContext dirContext;
     private Resource resource;
     private ResourceRequest resourceRequest;
     private UserProfileDetails user;
@@ -124,6 +147,7 @@ public class ResourceManagerTest {
     private Map<Integer, Integer> testResourceDifficultyForCategoryMap;
 
     private static final int VALID_RESOURCE_ID = 5;
+    private static final String RESOURCE_LIST_INVALID = "Resource list cannot be null or empty";
     private static final int RESOURCE_ID_SMALLER_THAN_ZERO = -1;
     private static URL STATIC_URL = null;
     private static final String VALID_RESOURCE_NAME = "name";
@@ -136,7 +160,6 @@ public class ResourceManagerTest {
     private static final int NEGATIVE_RESOURCE_ID = -2;
     private static final String DESCRIPTION = "test";
     private static final int VALID_CATEGORY_ID = 5;
-    private static final int RESOURCES_PER_PAGE = 10;
     private static final int MAX_CATEGORY_NUMBER = 5;
     private static final int VALID_DIFFICULTY_LEVEL = 1;
     private static final String VALID_CATEGORY_NAME = "java";
@@ -144,8 +167,6 @@ public class ResourceManagerTest {
     private static final String EMPTY_STRING = "";
     private static final String BLANK_STRING = " ";
     private static final String VALID_TYPE = "EBook";
-    private static final String TOKEN = "token";
-    private static final String BASE = "OU=Office Locations,DC=northamerica,DC=cerner,DC=net";
 
     private static final String RESOURCE_EXISTS_ERROR = "Resource {0} already exists in resource table";
     private static final String RESOURCE_CANNOT_BE_NULL = "Resource argument cannot be null";
@@ -179,7 +200,6 @@ public class ResourceManagerTest {
 
     @Before
     public void setup() throws MalformedURLException, DAOException, NamingException {
-        dirContext = new InitialDirContext();
         user = new UserProfileDetails("Name,Name", "Role", "TestId", "Email", "DevCenter", "Manager", "Project");
         MockitoAnnotations.initMocks(this);
         resource = new Resource(VALID_RESOURCE_ID, STATIC_URL, VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME);
@@ -332,6 +352,8 @@ public class ResourceManagerTest {
         resourceManager.addResourceAndRelations(mockResource);
         verify(categoryResourceRelationDAO, times(MAX_CATEGORY_NUMBER))
                 .addMappingsToDB(any(Resource.class), any(Category.class));
+        verify(autocompleteIndex).add(mockResource);
+        verify(referenceData).refreshCategories();
     }
 
     /**
@@ -391,6 +413,9 @@ public class ResourceManagerTest {
 
         resourceManager.deleteResource(VALID_RESOURCE_ID);
         verify(mockResourceDAO).deleteById(VALID_RESOURCE_ID);
+        verify(autocompleteIndex).remove(VALID_RESOURCE_ID);
+        verify(recommendationCache).invalidateResource(VALID_RESOURCE_ID);
+        verify(referenceData).refreshCategories();
     }
 
     /**
@@ -428,7 +453,11 @@ public class ResourceManagerTest {
     @Test(expected = ManagerException.class)
     public void testDeleteByIdDAOExceptionByResourceDAO() throws DAOException {
         doThrow(DAOException.class).when(mockResourceDAO).deleteById(VALID_RESOURCE_ID);
-        resourceManager.deleteResource(VALID_RESOURCE_ID);
+        try {
+            resourceManager.deleteResource(VALID_RESOURCE_ID);
+        } finally {
+            verify(autocompleteIndex, never()).remove(anyInt());
+        }
     }
 
     /**
@@ -524,6 +553,162 @@ public class ResourceManagerTest {
         expectedException.expectMessage("resourceId must be a positive number");
     }
 
+    /**
+     * Verifies {@link ResourceManager#getRelatedResources(int, int)} returns
+     * no resources without reading them when no {@link CoCompletionIndex} is
+     * configured.
+     */
+    @Test
+    public void testGetRelatedResourcesWithoutIndex() throws DAOException {
+        ReflectionTestUtils.setField(resourceManager, "coCompletionIndex", null);
+        assertEquals(Collections.emptyList(), resourceManager.getRelatedResources(VALID_RESOURCE_ID, 5));
+        verify(mockResourceDAO, never()).getAvailableResourcesByIds(anyListOf(Integer.class));
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getRelatedResources(int, int)} returns
+     * no resources without reading them when the index has no related
+     * resources.
+     */
+    @Test
+    public void testGetRelatedResourcesWhenNoneAreRelated() throws DAOException {
+        when(coCompletionIndex.getRelatedResources(VALID_RESOURCE_ID))
+                .thenReturn(Collections.<CoCompletedResource> emptyList());
+        assertEquals(Collections.emptyList(), resourceManager.getRelatedResources(VALID_RESOURCE_ID, 5));
+        verify(mockResourceDAO, never()).getAvailableResourcesByIds(anyListOf(Integer.class));
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getRelatedResources(int, int)} keeps the
+     * order of the index, skips the resources that are no longer available
+     * and returns at most limit resources.
+     */
+    @Test
+    public void testGetRelatedResources() throws DAOException {
+        final Resource first = new Resource(7, STATIC_URL, VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME);
+        final Resource second = new Resource(3, STATIC_URL, VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME);
+        final Resource third = new Resource(4, STATIC_URL, VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME);
+        when(coCompletionIndex.getRelatedResources(VALID_RESOURCE_ID)).thenReturn(Arrays.asList(
+                new CoCompletedResource(7, 4, 0.8),
+                new CoCompletedResource(9, 3, 0.7),
+                new CoCompletedResource(3, 2, 0.5),
+                new CoCompletedResource(4, 2, 0.4)));
+        final Map<Integer, Resource> availableResources = new HashMap<>();
+        availableResources.put(7, first);
+        availableResources.put(3, second);
+        availableResources.put(4, third);
+        when(mockResourceDAO.getAvailableResourcesByIds(new LinkedHashSet<>(Arrays.asList(7, 9, 3, 4))))
+                .thenReturn(availableResources);
+
+        final List<RelatedResource> relatedResources = resourceManager.getRelatedResources(VALID_RESOURCE_ID, 2);
+
+        assertEquals(2, relatedResources.size());
+        assertSame(first, relatedResources.get(0).getResource());
+        assertEquals(4, relatedResources.get(0).getCoCompletionCount());
+        assertSame(second, relatedResources.get(1).getResource());
+        assertEquals(2, relatedResources.get(1).getCoCompletionCount());
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getRelatedResources(int, int)} throws
+     * {@link ManagerException} when the resources cannot be read.
+     */
+    @Test
+    public void testGetRelatedResourcesWhenDAOThrowsDAOException() throws DAOException {
+        when(coCompletionIndex.getRelatedResources(VALID_RESOURCE_ID))
+                .thenReturn(Arrays.asList(new CoCompletedResource(7, 4, 0.8)));
+        when(mockResourceDAO.getAvailableResourcesByIds(anyListOf(Integer.class))).thenThrow(daoException);
+        expectedException.expect(ManagerException.class);
+        expectedException.expectMessage("Error retrieving the resources related to a resource");
+        resourceManager.getRelatedResources(VALID_RESOURCE_ID, 5);
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getRelatedResources(int, int)} throws
+     * {@link IllegalArgumentException} when the limit is not positive.
+     */
+    @Test
+    public void testGetRelatedResourcesWhenLimitIsZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Number of related resources must be positive");
+        resourceManager.getRelatedResources(VALID_RESOURCE_ID, 0);
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getTrendingResources(int)} returns no
+     * resources without reading them when no {@link TrendingTracker} is
+     * configured.
+     */
+    @Test
+    public void testGetTrendingResourcesWithoutTracker() throws DAOException {
+        ReflectionTestUtils.setField(resourceManager, "trendingTracker", null);
+        assertEquals(Collections.emptyList(), resourceManager.getTrendingResources(5));
+        verify(mockResourceDAO, never()).getAvailableResourcesByIds(anyListOf(Integer.class));
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getTrendingResources(int)} returns no
+     * resources without reading them when nothing is trending.
+     */
+    @Test
+    public void testGetTrendingResourcesWhenNoneAreTrending() throws DAOException {
+        when(trendingTracker.getTrendingResources(5)).thenReturn(Collections.<TrendingCount> emptyList());
+        assertEquals(Collections.emptyList(), resourceManager.getTrendingResources(5));
+        verify(mockResourceDAO, never()).getAvailableResourcesByIds(anyListOf(Integer.class));
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getTrendingResources(int)} keeps the
+     * order of the tracker and skips the resources that are no longer
+     * available.
+     */
+    @Test
+    public void testGetTrendingResources() throws DAOException {
+        final Resource first = new Resource(7, STATIC_URL, VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME);
+        final Resource second = new Resource(3, STATIC_URL, VALID_RESOURCE_DESCRIPTION, VALID_RESOURCE_NAME);
+        when(trendingTracker.getTrendingResources(5)).thenReturn(Arrays.asList(
+                new TrendingCount(7, 12),
+                new TrendingCount(9, 8),
+                new TrendingCount(3, 5)));
+        final Map<Integer, Resource> availableResources = new HashMap<>();
+        availableResources.put(7, first);
+        availableResources.put(3, second);
+        when(mockResourceDAO.getAvailableResourcesByIds(new LinkedHashSet<>(Arrays.asList(7, 9, 3))))
+                .thenReturn(availableResources);
+
+        final List<TrendingResource> trendingResources = resourceManager.getTrendingResources(5);
+
+        assertEquals(2, trendingResources.size());
+        assertSame(first, trendingResources.get(0).getResource());
+        assertEquals(12, trendingResources.get(0).getCompletionCount());
+        assertSame(second, trendingResources.get(1).getResource());
+        assertEquals(5, trendingResources.get(1).getCompletionCount());
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getTrendingResources(int)} throws
+     * {@link ManagerException} when the resources cannot be read.
+     */
+    @Test
+    public void testGetTrendingResourcesWhenDAOThrowsDAOException() throws DAOException {
+        when(trendingTracker.getTrendingResources(5)).thenReturn(Arrays.asList(new TrendingCount(7, 12)));
+        when(mockResourceDAO.getAvailableResourcesByIds(anyListOf(Integer.class))).thenThrow(daoException);
+        expectedException.expect(ManagerException.class);
+        expectedException.expectMessage("Error retrieving the trending resources");
+        resourceManager.getTrendingResources(5);
+    }
+
+    /**
+     * Verifies {@link ResourceManager#getTrendingResources(int)} throws
+     * {@link IllegalArgumentException} when the limit is not positive.
+     */
+    @Test
+    public void testGetTrendingResourcesWhenLimitIsZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Number of trending resources must be positive");
+        resourceManager.getTrendingResources(0);
+    }
+
     /**
      * Tests
      * {@link ResourceManager#addResourceCategoryRelationWithDifficultyLevel(Resource)}
@@ -734,59 +919,15 @@ public class ResourceManagerTest {
         resourceManager.getResourcesByCategoryId(0);
     }
 
-    /**
-     * Verifies
-     * {@link ResourceManager#getPageCountForResourcesByCategoryId(int, int)}
-     * when Id of {@link Category} is negative.
-     */
-    @Test(expected = IllegalArgumentException.class)
-    public void testgetPageCountForResourcesByCategoryId_WhenCategoryIdIsNegative() {
-        resourceManager.getPageCountForResourcesByCategoryId(-1, RESOURCES_PER_PAGE);
-    }
-
-    /**
-     * Verifies
-     * {@link ResourceManager#getPageCountForResourcesByCategoryId(int, int)}
-     * when Id of {@link Category} is zero.
-     */
-    @Test(expected = IllegalArgumentException.class)
-    public void testgetPageCountForResourcesByCategoryId_WhenCategoryIdIsZero() {
-        resourceManager.getPageCountForResourcesByCategoryId(0, RESOURCES_PER_PAGE);
-    }
-
-    /**
-     * Verifies
-     * {@link ResourceManager#getPageCountForResourcesByCategoryId(int, int)}
-     * produces correct output with valid input.
-     */
-    @Test
-    public void testgetPageCountForResourcesByCategoryIdWithValidInput() throws DAOException {
-        when(mockResourceDAO.getResourceCountByCategoryId(VALID_CATEGORY_ID)).thenReturn(38);
-        assertEquals(4, resourceManager.getPageCountForResourcesByCategoryId(VALID_CATEGORY_ID, RESOURCES_PER_PAGE));
-    }
-
-    /**
-     * Verifies
-     * {@link ResourceManager#getPageCountForResourcesByCategoryId(int, int)}
-     * expects {@link ManagerException} when
-     * {@link ResourceDAO#getResourceCountByCategoryId(int)} throws
-     * {@link DAOException}
-     */
-    @Test(expected = ManagerException.class)
-    public void testgetPageCountForResourcesByCategoryIdForManagerException() throws DAOException {
-        when(mockResourceDAO.getResourceCountByCategoryId(anyInt())).thenThrow(DAOException.class);
-        resourceManager.getPageCountForResourcesByCategoryId(VALID_CATEGORY_ID, RESOURCES_PER_PAGE);
-    }
-
     /**
      * Tests {@link ResourceManager#getSearchedResources(String)} functionality,
      * expects {@link ManagerException} when
-     * {@link ResourceDAO#getSearchedResources(String)} throws
+     * {@link ResourceDAO#getSearchedResources(String, int)} throws
      * {@link DAOException}.
      */
     @Test(expected = ManagerException.class)
     public void testGetSearchedResourcesThrowsManagerException() throws DAOException {
-        when(mockResourceDAO.getSearchedResources(VALID_RESOURCE_NAME)).thenThrow(new DAOException());
+        when(mockResourceDAO.getSearchedResources(VALID_RESOURCE_NAME, Constants.SEARCH_RESULT_LIMIT)).thenThrow(new DAOException());
         resourceManager.getSearchedResources(VALID_RESOURCE_NAME);
     }
 
@@ -796,7 +937,7 @@ public class ResourceManagerTest {
      */
     @Test
     public void testGetSearchedResourcesForValid() throws DAOException {
-        when(mockResourceDAO.getSearchedResources(VALID_RESOURCE_NAME)).thenReturn(listOfResources);
+        when(mockResourceDAO.getSearchedResources(VALID_RESOURCE_NAME, Constants.SEARCH_RESULT_LIMIT)).thenReturn(listOfResources);
         final Resource newResource = resourceManager.getSearchedResources(VALID_RESOURCE_NAME).get(0);
         assertEquals(VALID_RESOURCE_NAME, newResource.getResourceName());
         assertEquals(VALID_RESOURCE_DESCRIPTION, newResource.getDescription());
@@ -1257,14 +1398,18 @@ public class ResourceManagerTest {
      * to run successfully when no exceptions are thrown.
      */
     @Test
-    public void testEditResourceWithValidInputs() throws NamingException {
-        PowerMockito.mockStatic(LdapReader.class);
-        when(LdapReader.getInstance()).thenReturn(reader);
-        when(reader.getDirContext()).thenReturn(dirContext);
-        when(reader.getSearchResults(dirContext, BASE, TOKEN)).thenReturn(searchResults);
-        when(searchResults.getAttributes()).thenReturn(attributes);
-        when(reader.getUserDetails(attributes)).thenReturn(user);
-        resourceManager.editResource(
+    public void testEditResourceWithValidInputs() throws NamingException, DAOException {
+        when(mockUserDetail.getUserDetails(VALID_RESOURCE_OWNER)).thenReturn(user);
+        assertEquals(
+                true,
+                resourceManager.editResource(
+                        VALID_RESOURCE_ID,
+                        VALID_RESOURCE_NAME,
+                        STATIC_URL,
+                        VALID_DIFFICULTY_LEVEL,
+                        VALID_TYPE,
+                        VALID_RESOURCE_OWNER));
+        verify(mockResourceDAO).updateResource(
                 VALID_RESOURCE_ID,
                 VALID_RESOURCE_NAME,
                 STATIC_URL,
@@ -1280,12 +1425,7 @@ public class ResourceManagerTest {
      */
     @Test
     public void testEditResourceWithUserDetailsGetUserReturnsNull() throws NamingException {
-        PowerMockito.mockStatic(LdapReader.class);
-        when(LdapReader.getInstance()).thenReturn(reader);
-        when(reader.getDirContext()).thenReturn(dirContext);
-        when(reader.getSearchResults(dirContext, BASE, TOKEN)).thenReturn(searchResults);
-        when(searchResults.getAttributes()).thenReturn(attributes);
-        when(reader.getUserDetails(attributes)).thenReturn(user);
+        when(mockUserDetail.getUserDetails(VALID_RESOURCE_OWNER)).thenReturn(mockUser);
         when(mockUser.getUserId()).thenReturn(null);
         assertEquals(
                 false,
@@ -1305,12 +1445,7 @@ public class ResourceManagerTest {
      */
     @Test
     public void testEditResourceWithUserDetailsIsNull() throws NamingException {
-        PowerMockito.mockStatic(LdapReader.class);
-        when(LdapReader.getInstance()).thenReturn(reader);
-        when(reader.getDirContext()).thenReturn(dirContext);
-        when(reader.getSearchResults(dirContext, BASE, TOKEN)).thenReturn(searchResults);
-        when(searchResults.getAttributes()).thenReturn(attributes);
-        when(reader.getUserDetails(attributes)).thenReturn(null);
+        when(mockUserDetail.getUserDetails(VALID_RESOURCE_OWNER)).thenReturn(null);
         assertEquals(
                 false,
                 resourceManager.editResource(
@@ -1329,7 +1464,8 @@ public class ResourceManagerTest {
      * database.
      */
     @Test(expected = ManagerException.class)
-    public void testeditResourceDAOExceptionByResourceDAO() throws DAOException {
+    public void testeditResourceDAOExceptionByResourceDAO() throws DAOException, NamingException {
+        when(mockUserDetail.getUserDetails(VALID_RESOURCE_OWNER)).thenReturn(user);
         doThrow(DAOException.class).when(mockResourceDAO).updateResource(
                 VALID_RESOURCE_ID,
                 VALID_RESOURCE_NAME,
@@ -1411,4 +1547,110 @@ public class ResourceManagerTest {
         }
         return categoriesIDs;
     }
+
+    /**
+     * Verifies that {@link ResourceManager#addResourcesAndRelations(List)}
+     * writes the resources as given, in one transaction, and writes their
+     * relations after them. Chunking is left to the caller.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testAddResourcesAndRelationsWritesInOneTransaction() throws DAOException {
+        runTransactionCallbacks();
+
+        assertTrue(resourceManager.addResourcesAndRelations(listOfResources).isEmpty());
+
+        verify(transactionTemplate, times(1)).execute(any(TransactionCallback.class));
+        verify(mockResourceDAO).addResources(listOfResources);
+        verify(categoryResourceRelationDAO).addMappingsToDB(listOfResources);
+        verify(autocompleteIndex).addAll(listOfResources);
+        verify(referenceData).refreshCategories();
+    }
+
+    /**
+     * Verifies that {@link ResourceManager#addResourcesAndRelations(List)}
+     * returns the resources when they cannot be written.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testAddResourcesAndRelationsWhenDAOFails() throws DAOException {
+        runTransactionCallbacks();
+        doThrow(daoException).when(mockResourceDAO).addResources(anyListOf(Resource.class));
+        assertEquals(listOfResources, resourceManager.addResourcesAndRelations(listOfResources));
+        verify(categoryResourceRelationDAO, never()).addMappingsToDB(anyListOf(Resource.class));
+        verify(autocompleteIndex, never()).addAll(anyListOf(Resource.class));
+        verify(referenceData, never()).refreshCategories();
+    }
+
+    /**
+     * Verifies that {@link ResourceManager#getAutocompleteSuggestions(String)}
+     * answers from the {@link ResourceAutocompleteIndex} without querying
+     * {@link ResourceDAO}.
+     */
+    @Test
+    public void testGetAutocompleteSuggestions() {
+        when(autocompleteIndex.getSuggestions(VALID_RESOURCE_NAME, Constants.AUTOFILL_SIZE)).thenReturn(
+                listOfResources);
+        assertSame(listOfResources, resourceManager.getAutocompleteSuggestions(VALID_RESOURCE_NAME));
+        verifyZeroInteractions(mockResourceDAO);
+    }
+
+    /**
+     * Verifies that {@link ResourceManager#getAutocompleteSuggestions(String)}
+     * throws {@link IllegalArgumentException} for an empty search.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetAutocompleteSuggestionsForEmpty() {
+        resourceManager.getAutocompleteSuggestions(EMPTY_STRING);
+    }
+
+    /**
+     * Verifies that {@link ResourceManager#addResourcesAndRelations(List)}
+     * throws {@link IllegalArgumentException} when the list is empty.
+     */
+    @Test
+    public void testAddResourcesAndRelationsWithEmptyList() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(RESOURCE_LIST_INVALID);
+        resourceManager.addResourcesAndRelations(Collections.<Resource> emptyList());
+    }
+
+    /**
+     * Verifies that {@link ResourceManager#getExistingResourceNames(Collection)}
+     * returns the names found by {@link ResourceDAO}.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetExistingResourceNames() throws DAOException {
+        final List<String> names = Collections.singletonList(VALID_RESOURCE_NAME);
+        final Set<String> existingNames = Collections.singleton(VALID_RESOURCE_NAME);
+        when(mockResourceDAO.getExistingResourceNames(names)).thenReturn(existingNames);
+        assertSame(existingNames, resourceManager.getExistingResourceNames(names));
+    }
+
+    /**
+     * Verifies that {@link ResourceManager#getExistingResourceNames(Collection)}
+     * throws {@link ManagerException} when {@link ResourceDAO} fails.
+     *
+     * @throws DAOException
+     */
+    @Test
+    public void testGetExistingResourceNamesWhenDAOFails() throws DAOException {
+        final List<String> names = Collections.singletonList(VALID_RESOURCE_NAME);
+        when(mockResourceDAO.getExistingResourceNames(names)).thenThrow(daoException);
+        expectedException.expect(ManagerException.class);
+        resourceManager.getExistingResourceNames(names);
+    }
+
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any(TransactionCallback.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                return ((TransactionCallback<?>) invocation.getArguments()[0]).doInTransaction(transactionStatus);
+            }
+        });
+    }
 }
@@ -1,7 +1,10 @@
 package com.cerner.devcenter.education.managers;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -27,7 +30,11 @@ import com.cerner.devcenter.education.admin.DAOException;
 import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.dao.ResourceRequestDAO;
 import com.cerner.devcenter.education.dao.ResourceRequestDAOImpl;
+import com.cerner.devcenter.education.models.BulkResourceRequestResult;
+import com.cerner.devcenter.education.models.KeysetPage;
 import com.cerner.devcenter.education.models.ResourceRequest;
+import com.cerner.devcenter.education.models.ResourceRequestAction;
+import com.cerner.devcenter.education.utils.Constants;
 
 import uk.org.lidalia.slf4jtest.LoggingEvent;
 import uk.org.lidalia.slf4jtest.TestLogger;
@@ -51,6 +58,9 @@ public class ResourceRequestManagerTest {
     private static final String RESOURCE_REQUEST_DB_READ_ERROR = "Error retrieving all resource requests from the database";
     private static final String RESOURCE_REQUEST_DB_READ_LOGGER_MESSAGE = "Error retrieving requested resources from the database";
     private static final String USER_ID_NULL_ERROR = "UserId cannot be null";
+    private static final int AFTER_REQUEST_ID = 40;
+    private static final int PAGE_LIMIT = 2;
+    private static final int APPROXIMATE_REQUEST_COUNT = 1200;
 
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
@@ -200,6 +210,72 @@ public class ResourceRequestManagerTest {
         Mockito.verify(resourceRequestDAO, Mockito.times(1)).deleteResourceRequests(expectedRequestIds);
     }
 
+    /**
+     * Test
+     * {@link ResourceRequestManager#updateResourceRequestsInBulk(ResourceRequestAction, int[])}
+     * approving requests. Expects the ids approved by the DAO and no delete.
+     */
+    @Test
+    public void testUpdateResourceRequestsInBulkApprove() throws DAOException {
+        when(resourceRequestDAO.approveResourceRequests(REQUEST_IDS)).thenReturn(Arrays.asList(1, 3));
+        final BulkResourceRequestResult result = resourceRequestManager.updateResourceRequestsInBulk(
+                ResourceRequestAction.Approve, REQUEST_IDS);
+        assertEquals(ResourceRequestAction.Approve, result.getAction());
+        assertEquals(REQUEST_IDS.length, result.getRequestedCount());
+        assertEquals(Arrays.asList(1, 3), result.getAffectedIds());
+        verify(resourceRequestDAO, never()).deleteResourceRequests(REQUEST_IDS);
+    }
+
+    /**
+     * Test
+     * {@link ResourceRequestManager#updateResourceRequestsInBulk(ResourceRequestAction, int[])}
+     * rejecting requests. Expects the requests to be deleted.
+     */
+    @Test
+    public void testUpdateResourceRequestsInBulkReject() throws DAOException {
+        when(resourceRequestDAO.deleteResourceRequests(REQUEST_IDS)).thenReturn(Arrays.asList(1, 2, 3));
+        final BulkResourceRequestResult result = resourceRequestManager.updateResourceRequestsInBulk(
+                ResourceRequestAction.Reject, REQUEST_IDS);
+        assertEquals(3, result.getAffectedCount());
+        verify(resourceRequestDAO, never()).approveResourceRequests(REQUEST_IDS);
+    }
+
+    /**
+     * Test
+     * {@link ResourceRequestManager#updateResourceRequestsInBulk(ResourceRequestAction, int[])}
+     * with more request ids than allowed. Expects
+     * {@link IllegalArgumentException}.
+     */
+    @Test
+    public void testUpdateResourceRequestsInBulkWithTooManyRequestIds() {
+        expectedException.expect(IllegalArgumentException.class);
+        resourceRequestManager.updateResourceRequestsInBulk(ResourceRequestAction.Approve,
+                new int[Constants.MAX_BULK_REQUEST_IDS + 1]);
+    }
+
+    /**
+     * Test
+     * {@link ResourceRequestManager#updateResourceRequestsInBulk(ResourceRequestAction, int[])}
+     * with a null action. Expects {@link IllegalArgumentException}.
+     */
+    @Test
+    public void testUpdateResourceRequestsInBulkWithNullAction() {
+        expectedException.expect(IllegalArgumentException.class);
+        resourceRequestManager.updateResourceRequestsInBulk(null, REQUEST_IDS);
+    }
+
+    /**
+     * Test
+     * {@link ResourceRequestManager#updateResourceRequestsInBulk(ResourceRequestAction, int[])}
+     * when the DAO throws exception. Expects {@link ManagerException}.
+     */
+    @Test
+    public void testUpdateResourceRequestsInBulkWhenDAOThrowsException() throws DAOException {
+        doThrow(daoException).when(resourceRequestDAO).approveResourceRequests(REQUEST_IDS);
+        expectedException.expect(ManagerException.class);
+        resourceRequestManager.updateResourceRequestsInBulk(ResourceRequestAction.Approve, REQUEST_IDS);
+    }
+
     /**
      * Test
      * {@link ResourceRequestManager#getAllResourceRequestsOfUser(String)},
@@ -269,4 +345,73 @@ public class ResourceRequestManagerTest {
     public void testGetAllResourceRequestsOfUser() throws DAOException {
         assertEquals(listOfResourceRequests, resourceRequestManager.getAllResourceRequestsOfUser(USER_ID));
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that
+     * {@link ResourceRequestManager#getResourceRequestsAfter(int, int, boolean)}
+     * reads one request more than the page to find out that there is a next
+     * page, and includes the approximate total when asked for.
+     */
+    @Test
+    public void testGetResourceRequestsAfterWithNextPageAndTotal() throws DAOException {
+        when(resourceRequestDAO.getResourceRequestsAfter(AFTER_REQUEST_ID, PAGE_LIMIT + 1))
+                .thenReturn(requestsWithIds(41, 45, 46));
+        when(resourceRequestDAO.getApproximateResourceRequestCount()).thenReturn(APPROXIMATE_REQUEST_COUNT);
+        final KeysetPage<ResourceRequest> page = resourceRequestManager.getResourceRequestsAfter(AFTER_REQUEST_ID,
+                PAGE_LIMIT, true);
+        assertEquals(2, page.getItems().size());
+        assertEquals(45, page.getItems().get(1).getId());
+        assertEquals(Integer.valueOf(45), page.getNextAfter());
+        assertEquals(Integer.valueOf(APPROXIMATE_REQUEST_COUNT), page.getApproximateTotal());
+    }
+
+    /**
+     * Verifies that
+     * {@link ResourceRequestManager#getResourceRequestsAfter(int, int, boolean)}
+     * has no next page on the last page and does not read the approximate
+     * total unless asked for.
+     */
+    @Test
+    public void testGetResourceRequestsAfterOnLastPageWithoutTotal() throws DAOException {
+        when(resourceRequestDAO.getResourceRequestsAfter(AFTER_REQUEST_ID, PAGE_LIMIT + 1))
+                .thenReturn(requestsWithIds(41));
+        final KeysetPage<ResourceRequest> page = resourceRequestManager.getResourceRequestsAfter(AFTER_REQUEST_ID,
+                PAGE_LIMIT, false);
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextAfter());
+        assertNull(page.getApproximateTotal());
+        verify(resourceRequestDAO, never()).getApproximateResourceRequestCount();
+    }
+
+    /**
+     * Tests {@link ResourceRequestManager#getResourceRequestsAfter(int, int, boolean)}
+     * when the DAO throws {@link DAOException}.
+     */
+    @Test
+    public void testGetResourceRequestsAfterWhenDAOFails() throws DAOException {
+        expectedException.expect(ManagerException.class);
+        expectedException.expectMessage(RESOURCE_REQUEST_DB_READ_ERROR);
+        when(resourceRequestDAO.getResourceRequestsAfter(AFTER_REQUEST_ID, PAGE_LIMIT + 1)).thenThrow(daoException);
+        resourceRequestManager.getResourceRequestsAfter(AFTER_REQUEST_ID, PAGE_LIMIT, false);
+    }
+
+    /**
+     * Tests {@link ResourceRequestManager#getResourceRequestsAfter(int, int, boolean)}
+     * when the request id to read after is negative.
+     */
+    @Test
+    public void testGetResourceRequestsAfterWithNegativeAfter() {
+        expectedException.expect(IllegalArgumentException.class);
+        resourceRequestManager.getResourceRequestsAfter(-1, PAGE_LIMIT, false);
+    }
+
+    private static List<ResourceRequest> requestsWithIds(final int... ids) {
+        final List<ResourceRequest> requests = new ArrayList<>();
+        for (final int id : ids) {
+            final ResourceRequest request = new ResourceRequest();
+            request.setId(id);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -25,6 +26,8 @@ import com.cerner.devcenter.education.admin.ManagerException;
 import com.cerner.devcenter.education.admin.ResourceTypeDAO;
 import com.cerner.devcenter.education.exceptions.DuplicateResourceTypeFoundException;
 import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.reference.ReferenceData;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
 
 /**
  * Tests the functionalities of {@link ResourceTypeManager} class
@@ -39,6 +42,8 @@ public class ResourceTypeManagerTest {
     private ResourceTypeDAO mockResourceTypeDAO;
     @Mock
     private ResourceType mockResourceType;
+    @Mock
+    private ReferenceDataStore mockReferenceData;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
@@ -62,6 +67,8 @@ public class ResourceTypeManagerTest {
         // Mock ResourceTypeDAO
         when(mockResourceTypeDAO.getById(VALID_RESOURCE_TYPE_ID)).thenReturn(resourceType);
         when(mockResourceTypeDAO.addResourceType(resourceType.getResourceType())).thenReturn(mockResourceType);
+        // Mock ReferenceDataStore
+        when(mockReferenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY);
     }
 
     /**
@@ -72,6 +79,7 @@ public class ResourceTypeManagerTest {
     public void testAddResourceType() {
         assertEquals(mockResourceType.getResourceType(),
                 resourceTypeManager.addResourceType(VALID_RESOURCE_TYPE_NAME).getResourceType());
+        verify(mockReferenceData).refreshResourceTypes();
     }
 
     /**
@@ -121,7 +129,7 @@ public class ResourceTypeManagerTest {
      */
     @Test(expected = DuplicateResourceTypeFoundException.class)
     public void testAddResourceTypeThatAlreadyExists() throws DAOException {
-        when(mockResourceTypeDAO.getAllResourceTypes()).thenReturn(listOfResourceTypes);
+        when(mockReferenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withResourceTypes(listOfResourceTypes));
         resourceTypeManager.addResourceType(VALID_RESOURCE_TYPE_NAME);
     }
 
@@ -177,27 +185,14 @@ public class ResourceTypeManagerTest {
     }
 
     /**
-     * Tests {@link ResourceTypeManager#getAllResourceTypes()} functionality,
-     * expects {@link ManagerException} when
-     * {@link ResourceTypeDAO#getAllResourceTypes()} throws {@link DAOException}
-     * 
-     * @throws DAOException
-     */
-    @Test(expected = ManagerException.class)
-    public void testGetAllResourceTypesThrowsManagerException() throws DAOException {
-        when(mockResourceTypeDAO.getAllResourceTypes()).thenThrow(new DAOException());
-        resourceTypeManager.getAllResourceTypes();
-    }
-
-    /**
-     * Tests {@link ResourceTypeManager#getAllResourceTypes()} functionality is
-     * called by ResourceTypeManager
+     * Tests {@link ResourceTypeManager#getAllResourceTypes()} returns the
+     * resource types of the reference data
      * 
      * @throws DAOException
      */
     @Test
     public void testGetAllResourceTypes() throws DAOException {
-        when(mockResourceTypeDAO.getAllResourceTypes()).thenReturn(listOfResourceTypes);
+        when(mockReferenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withResourceTypes(listOfResourceTypes));
         ResourceType newResourceType = resourceTypeManager.getAllResourceTypes().get(0);
         assertEquals(VALID_RESOURCE_TYPE_ID, newResourceType.getResourceTypeId());
         assertEquals(VALID_RESOURCE_TYPE_NAME, newResourceType.getResourceType());
@@ -211,7 +206,7 @@ public class ResourceTypeManagerTest {
      */
     @Test
     public void testCheckIfResourceTypeAlreadyExists() throws DAOException {
-        when(mockResourceTypeDAO.getAllResourceTypes()).thenReturn(listOfResourceTypes);
+        when(mockReferenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withResourceTypes(listOfResourceTypes));
         ResourceType newResourceType = resourceTypeManager.getAllResourceTypes().get(0);
         assertTrue(resourceTypeManager.checkIfResourceTypeAlreadyExists(newResourceType.getResourceType()));
     }
@@ -4,7 +4,6 @@ import static com.cerner.devcenter.education.utils.TagTestUtil.createTestTags;
 import static com.cerner.devcenter.education.utils.TagTestUtil.getTagNameList;
 import static com.cerner.devcenter.education.utils.TagTestUtil.getTagNameSet;
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.doThrow;
@@ -16,20 +15,16 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
 import java.util.Set;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -40,6 +35,8 @@ import com.cerner.devcenter.education.admin.ResourceTagRelationDAO;
 import com.cerner.devcenter.education.admin.TagDAO;
 import com.cerner.devcenter.education.admin.TagDAOImpl;
 import com.cerner.devcenter.education.models.Tag;
+import com.cerner.devcenter.education.reference.ReferenceData;
+import com.cerner.devcenter.education.reference.ReferenceDataStore;
 import com.cerner.devcenter.education.utils.Constants;
 
 /**
@@ -60,10 +57,10 @@ public class TagManagerTest {
     private DAOException daoException;
     @Mock
     private ResourceTagRelationDAO resourceTagRelationDAO;
+    @Mock
+    private ReferenceDataStore referenceData;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
-    @Captor
-    private ArgumentCaptor<Collection> tagCollectionCaptor;
 
     private static ResourceBundle i18nBundle = ResourceBundle.getBundle("i18n", Locale.getDefault());
     private static final int VALID_TAG_ID = 5;
@@ -76,7 +73,6 @@ public class TagManagerTest {
     private static final String BLANK_STRING = "     ";
     private static final int TAG_ID_SMALLER_THAN_ZERO = -8;
     private static final String ERROR_RETRIEVING_SEARCHED_TAGS_MESSAGE = "Error retrieving searched tags from the database";
-    private static final String ERROR_RETRIEVING_ALL_TAGS_MESSAGE = "Error retrieving tags from the data source";
     private static final String OTHER_VALID_TAG_NAME = "DevCon 2016";
 
     private Tag tag;
@@ -93,35 +89,22 @@ public class TagManagerTest {
     }
 
     /**
-     * Tests {@link TagManager#getAllTags()} functionality, expects
-     * {@link ManagerException} when {@link TagDAO#getAllTags()} throws
-     * {@link DAOException}.
-     */
-    @Test
-    public void testGetAllTagsThrowsManagerException() throws DAOException {
-        expectedException.expect(ManagerException.class);
-        expectedException.expectMessage(ERROR_RETRIEVING_ALL_TAGS_MESSAGE);
-        when(mockTagDAO.getAllTags()).thenThrow(new DAOException());
-        mockTagManager.getAllTags();
-    }
-
-    /**
-     * Tests {@link TagManager#getAllTags()} when {@link TagDAO#getAllTags()}
-     * functionality returns empty.
+     * Tests {@link TagManager#getAllTags()} when the reference data contains
+     * no tags.
      */
     @Test
     public void testGetAllTagsTypesReturnsEmpty() throws DAOException {
-        when(mockTagDAO.getAllTags()).thenReturn(new ArrayList<Tag>());
+        when(referenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withTags(new ArrayList<Tag>()));
         assertEquals(mockTagManager.getAllTags().size(), 0);
     }
 
     /**
-     * Tests {@link TagManager#getAllTags()} functionality is called by
-     * {@link TagManager}.
+     * Tests {@link TagManager#getAllTags()} returns the tags of the reference
+     * data.
      */
     @Test
     public void testGetAllTags() throws DAOException {
-        when(mockTagDAO.getAllTags()).thenReturn(listOfTags);
+        when(referenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withTags(listOfTags));
         assertEquals(createTestTags(DEFAULT_TAG_LIST_SIZE), mockTagManager.getAllTags());
     }
 
@@ -236,6 +219,18 @@ public class TagManagerTest {
     @Test
     public void testAddTagValidInputNoErrors() throws DAOException {
         mockTagManager.addTag(VALID_TAG_NAME);
+        verify(referenceData).refreshTags();
+    }
+
+    /**
+     * Tests {@link TagManager#addMultipleTags(Collection)} publishes the added
+     * tags in the reference data.
+     */
+    @Test
+    public void testAddMultipleTagsRefreshesReferenceData() throws DAOException {
+        mockTagManager.addMultipleTags(tagNameList);
+        verify(mockTagDAO).batchAddTags(tagNameList);
+        verify(referenceData).refreshTags();
     }
 
     /**
@@ -381,19 +376,6 @@ public class TagManagerTest {
         mockTagManager.addTagsToResource(null, VALID_RESOURCE_ID);
     }
 
-    /**
-     * Tests {@link TagManager#addTagsToResource(Set, int)} when a
-     * {@link DAOException} is thrown while retrieving tag objects. Expects an
-     * {@link ManagerException} to be thrown.
-     */
-    @Test
-    public void testAddTagsToResourceErrorFindingTagsByName() throws DAOException {
-        expectedException.expect(ManagerException.class);
-        expectedException.expectMessage(Constants.ERROR_FINDING_TAGS_BY_NAME);
-        when(mockTagDAO.getTagsWithNameInCollection(any(List.class))).thenThrow(daoException);
-        mockTagManager.addTagsToResource(tagNameSet, VALID_RESOURCE_ID);
-    }
-
     /**
      * Tests {@link TagManager#addTagsToResource(Set, int)} when a
      * {@link DAOException} is thrown while adding to the tag/resource relation.
@@ -403,115 +385,51 @@ public class TagManagerTest {
     public void testAddTagsToResourceErrorAddingTagResourceRelation() throws DAOException {
         expectedException.expect(ManagerException.class);
         expectedException.expectMessage(Constants.ERROR_ADDING_TAG_RESOURCE_RELTN);
-        when(mockTagDAO.getTagsWithNameInCollection(any(List.class))).thenReturn(listOfTags);
-        doThrow(daoException).when(resourceTagRelationDAO).addTagsToResource(anyInt(), any(List.class));
-        mockTagManager.addTagsToResource(tagNameSet, VALID_RESOURCE_ID);
-    }
-
-    /**
-     * Tests {@link TagManager#getMissingTagNames(Collection)} when querying the
-     * database for tags with those names throws a {@link DAOException}. Expects
-     * a {@link ManagerException} to be thrown.
-     */
-    @Test
-    public void testGetMissingTagNamesErrorFindingTagsByName() throws DAOException {
-        expectedException.expect(ManagerException.class);
-        expectedException.expectMessage(Constants.ERROR_FINDING_TAGS_BY_NAME);
-        when(mockTagDAO.getTagsWithNameInCollection(any(List.class))).thenThrow(daoException);
+        when(resourceTagRelationDAO.addTagsToResourceByName(anyInt(), any(Collection.class))).thenThrow(daoException);
         mockTagManager.addTagsToResource(tagNameSet, VALID_RESOURCE_ID);
     }
 
     /**
-     * Tests {@link TagManager#getMissingTagNames(Collection)} when all but one
-     * tag name is not represented in the database.
-     */
-    @Test
-    public void testGetMissingTagNamesAllButOneTagMissing() throws DAOException {
-        listOfTags = createTestTags(1);
-        tagNameList = getTagNameList(5);
-        Collection<String> expectedReturn = tagNameList.subList(1, 5);
-        when(mockTagDAO.getTagsWithNameInCollection(any(Collection.class))).thenReturn(listOfTags);
-        mockTagManager.addTagsToResource(new HashSet<String>(tagNameList), VALID_RESOURCE_ID);
-        verify(mockTagDAO).batchAddTags(tagCollectionCaptor.capture());
-        assertTrue(CollectionUtils.isEqualCollection(expectedReturn, tagCollectionCaptor.getValue()));
-    }
-
-    /**
-     * Tests {@link TagManager#getMissingTagNames(Collection)} when every tag
-     * name is not represented in the database.
-     */
-    @Test
-    public void testGetMissingTagNamesAllTagsMissing() throws DAOException {
-        tagNameList = getTagNameList(5);
-        when(mockTagDAO.getTagsWithNameInCollection(any(Collection.class))).thenReturn(Collections.<Tag>emptyList());
-        mockTagManager.addTagsToResource(new HashSet<String>(tagNameList), VALID_RESOURCE_ID);
-        verify(mockTagDAO).batchAddTags(tagCollectionCaptor.capture());
-        assertTrue(CollectionUtils.isEqualCollection(tagNameList, tagCollectionCaptor.getValue()));
-    }
-
-    /**
-     * Tests {@link TagManager#getMissingTagNames(Collection)} when only one tag
-     * name is not represented in the database.
-     */
-    @Test
-    public void testGetMissingTagNamesOneTagMissing() throws DAOException {
-        listOfTags = createTestTags(4);
-        tagNameList = getTagNameList(5);
-        List<String> expectedReturn = tagNameList.subList(4, 5);
-        when(mockTagDAO.getTagsWithNameInCollection(any(Collection.class))).thenReturn(listOfTags);
-        mockTagManager.addTagsToResource(new HashSet<String>(tagNameList), VALID_RESOURCE_ID);
-        verify(mockTagDAO).batchAddTags(tagCollectionCaptor.capture());
-        assertTrue(CollectionUtils.isEqualCollection(expectedReturn, tagCollectionCaptor.getValue()));
-    }
-
-    /**
-     * Tests {@link TagManager#addMissingTags(Collection)} when there are no
-     * missing tags. Expects {@link TagDAO#batchAddTags(Collection)} to not be
-     * called.
+     * Tests {@link TagManager#addTagsToResource(Set, int)} when every tag
+     * already exists. Expects the tags and relations to be written in one
+     * call, without looking up or creating the tags separately, and the
+     * reference data not to be refreshed.
      */
     @Test
     public void testAddTagsToResourceNoTagsMissing() throws DAOException {
-        listOfTags = createTestTags(5);
-        tagNameList = getTagNameList(5);
-        when(mockTagDAO.getTagsWithNameInCollection(any(Collection.class))).thenReturn(listOfTags);
-        mockTagManager.addTagsToResource(new HashSet<String>(tagNameList), VALID_RESOURCE_ID);
+        when(referenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withTags(listOfTags));
+        when(resourceTagRelationDAO.addTagsToResourceByName(VALID_RESOURCE_ID, tagNameSet)).thenReturn(listOfTags);
+        mockTagManager.addTagsToResource(tagNameSet, VALID_RESOURCE_ID);
+        verify(resourceTagRelationDAO).addTagsToResourceByName(VALID_RESOURCE_ID, tagNameSet);
+        verify(mockTagDAO, never()).getTagsWithNameInCollection(any(Collection.class));
         verify(mockTagDAO, never()).batchAddTags(any(Collection.class));
+        verify(referenceData, never()).refreshTags();
     }
 
     /**
-     * Tests {@link TagManager#addMissingTags(Collection)} when there is one
-     * missing tag. Expects {@link TagDAO#batchAddTags(Collection)} to be called
-     * once.
+     * Tests {@link TagManager#addTagsToResource(Set, int)} when one tag was
+     * created. Expects the reference data to be refreshed once.
      */
     @Test
     public void testAddTagsToResourceOneTagMissing() throws DAOException {
-        when(mockTagDAO.getTagsWithNameInCollection(any(List.class))).thenReturn(listOfTags);
+        when(referenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withTags(listOfTags));
+        final List<Tag> addedTags = new ArrayList<Tag>(listOfTags);
+        addedTags.add(new Tag(DEFAULT_TAG_LIST_SIZE + 1, OTHER_VALID_TAG_NAME));
         tagNameSet.add(OTHER_VALID_TAG_NAME);
+        when(resourceTagRelationDAO.addTagsToResourceByName(VALID_RESOURCE_ID, tagNameSet)).thenReturn(addedTags);
         mockTagManager.addTagsToResource(tagNameSet, VALID_RESOURCE_ID);
-        verify(mockTagDAO, times(1)).batchAddTags(any(Collection.class));
+        verify(referenceData, times(1)).refreshTags();
     }
 
     /**
-     * Tests {@link TagManager#addMissingTags(Collection)} when every tag is
-     * missing. Expects {@link TagDAO#batchAddTags(Collection)} to be called
-     * once.
+     * Tests {@link TagManager#addTagsToResource(Set, int)} when every tag was
+     * created. Expects the reference data to be refreshed once.
      */
     @Test
     public void testAddTagsToResourceEveryTagMissing() throws DAOException {
-        when(mockTagDAO.getTagsWithNameInCollection(any(List.class))).thenReturn(Collections.<Tag>emptyList());
-        mockTagManager.addTagsToResource(tagNameSet, VALID_RESOURCE_ID);
-        verify(mockTagDAO, times(1)).batchAddTags(any(List.class));
-    }
-
-    /**
-     * Tests {@link TagManager#addMissingTags(Collection)} when only one tag is
-     * not missing. Expects {@link TagDAO#batchAddTags(Collection)} to be called
-     * once.
-     */
-    @Test
-    public void testAddTagsToResourceAllButOneTagMissing() throws DAOException {
-        when(mockTagDAO.getTagsWithNameInCollection(any(List.class))).thenReturn(createTestTags(1));
+        when(referenceData.getSnapshot()).thenReturn(ReferenceData.EMPTY.withTags(new ArrayList<Tag>()));
+        when(resourceTagRelationDAO.addTagsToResourceByName(VALID_RESOURCE_ID, tagNameSet)).thenReturn(listOfTags);
         mockTagManager.addTagsToResource(tagNameSet, VALID_RESOURCE_ID);
-        verify(mockTagDAO, times(1)).batchAddTags(any(List.class));
+        verify(referenceData, times(1)).refreshTags();
     }
 }
@@ -3,10 +3,13 @@ package com.cerner.devcenter.education.managers;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.junit.Before;
@@ -25,6 +28,7 @@ import com.cerner.devcenter.education.dao.UserInterestedCategoryDAO;
 import com.cerner.devcenter.education.exceptions.DuplicateUserInterestedCategoryException;
 import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.UserInterestedCategory;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
 
 /**
  * Class that tests the functionalities of
@@ -42,6 +46,8 @@ public class UserInterestedCategoryManagerTest {
     @Mock
     private UserInterestedCategoryDAO mockUserInterestedCategoryDAO;
     @Mock
+    private UserRecommendationCache recommendationCache;
+    @Mock
     private UserInterestedCategory mockUserInterestedCategory;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
@@ -352,6 +358,7 @@ public class UserInterestedCategoryManagerTest {
     public void testDeleteUserInterestedCategory() throws DAOException {
         userInterestedCategoryManager.deleteUserInterestedCategory(userInterestedCategory);
         verify(mockUserInterestedCategoryDAO).deleteUserInterestedCategory(VALID_USER_ID, VALID_CATEGORY_ID);
+        verify(recommendationCache).invalidateUser(VALID_USER_ID);
     }
 
     /**
@@ -417,8 +424,23 @@ public class UserInterestedCategoryManagerTest {
     @Test
     public void testDeleteUserInterestedCategoriesInBatchWithValidValues() throws DAOException {
         when(mockUserInterestedCategoryDAO.deleteUserInterestedCategoryInBatch(VALID_USER_ID, categoryIds))
-                .thenReturn(true);
+                .thenReturn(Arrays.asList(VALID_CATEGORY_ID));
         assertTrue(userInterestedCategoryManager.deleteUserInterestedCategoriesInBatch(VALID_USER_ID, categoryIds));
+        verify(recommendationCache).invalidateUser(VALID_USER_ID);
+    }
+
+    /**
+     * Test
+     * {@link UserInterestedCategoryManager#deleteUserInterestedCategoriesInBatch(String, int[])}
+     * when none of the categories was deleted and expects false without
+     * invalidating the cached recommendations.
+     */
+    @Test
+    public void testDeleteUserInterestedCategoriesInBatchWhenNothingDeleted() throws DAOException {
+        when(mockUserInterestedCategoryDAO.deleteUserInterestedCategoryInBatch(VALID_USER_ID, categoryIds))
+                .thenReturn(Collections.<Integer> emptyList());
+        assertFalse(userInterestedCategoryManager.deleteUserInterestedCategoriesInBatch(VALID_USER_ID, categoryIds));
+        verify(recommendationCache, never()).invalidateUser(VALID_USER_ID);
     }
 
     /**
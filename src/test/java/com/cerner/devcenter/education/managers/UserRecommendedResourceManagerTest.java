@@ -5,12 +5,16 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -22,6 +26,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
@@ -32,6 +37,8 @@ import com.cerner.devcenter.education.models.Category;
 import com.cerner.devcenter.education.models.Resource;
 import com.cerner.devcenter.education.models.UserInterestedCategory;
 import com.cerner.devcenter.education.models.UserRecommendedResource;
+import com.cerner.devcenter.education.recommendation.RecommendationEngine;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache;
 import com.cerner.devcenter.education.utils.Constants;
 
 /**
@@ -86,6 +93,8 @@ public class UserRecommendedResourceManagerTest {
     @Mock
     private UserInterestedCategoryManager userInterestedCategoryManager;
     @Mock
+    private RecommendationEngine recommendationEngine;
+    @Mock
     private DAOException daoException;
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
@@ -105,6 +114,9 @@ public class UserRecommendedResourceManagerTest {
 
     @Before
     public void setup() {
+        final UserRecommendationCache recommendationCache = new UserRecommendationCache();
+        recommendationCache.init();
+        userRecommendedResourceManager.recommendationCache = recommendationCache;
         category = new Category(VALID_CATEGORY_ID, VALID_CATEGORY_NAME, VALID_CATEGORY_DESC);
         userInterestedCategory = new UserInterestedCategory(VALID_USER_ID, category, VALID_SKILL_LEVEL, VALID_INTEREST_LEVEL);
         listOfUserInterestedCategory.add(userInterestedCategory);
@@ -226,6 +238,75 @@ public class UserRecommendedResourceManagerTest {
                         VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED)));
     }
 
+    /**
+     * Test
+     * {@link UserRecommendedResourceManager#getRecommendedResourcesByUserId(String, double, int)}
+     * is answered from the cache on the second call and recomputed once the
+     * cache entry is invalidated by a change to one of the user's categories.
+     */
+    @Test
+    public void testGetRecommendedResourcesByUserIdIsCached() throws DAOException, SQLException {
+        when(mockUserRecommendedResourceDAO.getRecommendedResourcesForTheUser(VALID_USER_ID,
+                VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED))
+                        .thenReturn(listOfUserRecommendedResource);
+        when(userInterestedCategoryManager.getUserInterestedCategoriesById(VALID_USER_ID))
+                .thenReturn(listOfUserInterestedCategory);
+        final List<UserRecommendedResource> first = userRecommendedResourceManager.getRecommendedResourcesByUserId(
+                VALID_USER_ID, VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED);
+        assertEquals(listOfUserRecommendedResource.size(), first.size());
+        assertEquals(first, userRecommendedResourceManager.getRecommendedResourcesByUserId(VALID_USER_ID,
+                VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED));
+        verify(mockUserRecommendedResourceDAO, times(1)).getRecommendedResourcesForTheUser(VALID_USER_ID,
+                VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED);
+
+        userRecommendedResourceManager.recommendationCache.invalidateCategories(Arrays.asList(VALID_CATEGORY_ID));
+        userRecommendedResourceManager.getRecommendedResourcesByUserId(VALID_USER_ID, VALID_MINIMUM_RATING_REQUIRED,
+                VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED);
+        verify(mockUserRecommendedResourceDAO, times(2)).getRecommendedResourcesForTheUser(VALID_USER_ID,
+                VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED);
+    }
+
+    /**
+     * Test
+     * {@link UserRecommendedResourceManager#getRecommendedResourcesByUserId(String, double, int)}
+     * computes the candidate resources with the {@link RecommendationEngine}
+     * instead of the database once the engine is ready.
+     */
+    @Test
+    public void testGetRecommendedResourcesByUserIdWithReadyEngine() throws DAOException, SQLException {
+        when(recommendationEngine.isReady()).thenReturn(true);
+        when(userInterestedCategoryManager.getUserInterestedCategoriesById(VALID_USER_ID))
+                .thenReturn(listOfUserInterestedCategory);
+        when(recommendationEngine.getRecommendedResources(VALID_USER_ID, listOfUserInterestedCategory,
+                VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED,
+                MAX_COUNT_OF_RESOURCES_TO_RECOMMEND)).thenReturn(listOfUserRecommendedResource);
+        assertEquals(listOfUserRecommendedResource, userRecommendedResourceManager.getRecommendedResourcesByUserId(
+                VALID_USER_ID, VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED));
+        verify(mockUserRecommendedResourceDAO, never()).getRecommendedResourcesForTheUser(anyString(),
+                any(Double.class), any(Integer.class));
+    }
+
+    /**
+     * Test
+     * {@link UserRecommendedResourceManager#getRecommendedResourcesByUserId(String, double, int)}
+     * reads the candidate resources from the database while the
+     * {@link RecommendationEngine} has not loaded its catalog.
+     */
+    @Test
+    public void testGetRecommendedResourcesByUserIdWithEngineNotReady() throws DAOException, SQLException {
+        when(recommendationEngine.isReady()).thenReturn(false);
+        when(mockUserRecommendedResourceDAO.getRecommendedResourcesForTheUser(VALID_USER_ID,
+                VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED))
+                        .thenReturn(listOfUserRecommendedResource);
+        when(userInterestedCategoryManager.getUserInterestedCategoriesById(VALID_USER_ID))
+                .thenReturn(listOfUserInterestedCategory);
+        assertEquals(listOfUserRecommendedResource, userRecommendedResourceManager.getRecommendedResourcesByUserId(
+                VALID_USER_ID, VALID_MINIMUM_RATING_REQUIRED, VALID_MINIMUM_NUMBER_OF_RATINGS_REQUIRED));
+        verify(recommendationEngine, never()).getRecommendedResources(anyString(),
+                Matchers.<List<UserInterestedCategory>> any(), any(Double.class), any(Integer.class),
+                any(Integer.class));
+    }
+
     /**
      * Test
      * {@link UserRecommendedResourceManager#getRecommendedResourcesByUserId(String, double, int)}
@@ -0,0 +1,128 @@
+package com.cerner.devcenter.education.managers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class tests {@link XlsxSheetReader} against workbooks written with the
+ * XSSF usermodel.
+ */
+public class XlsxSheetReaderTest {
+
+    private static final String FIRST_VALUE = "first";
+    private static final String SECOND_VALUE = "second";
+    private static final String OTHER_SHEET_VALUE = "other sheet";
+    private static final double NUMERIC_VALUE = 42;
+    private static final String FORMULA = "CONCATENATE(\"a\",\"b\")";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<Integer> rowNums = new ArrayList<>();
+    private final List<List<SheetCell>> rows = new ArrayList<>();
+    private XlsxSheetReader.RowHandler rowHandler;
+
+    @Before
+    public void setUp() {
+        rowHandler = new XlsxSheetReader.RowHandler() {
+            @Override
+            public void handleRow(int rowNum, List<SheetCell> cells) {
+                rowNums.add(rowNum);
+                rows.add(cells);
+            }
+        };
+    }
+
+    /**
+     * Verifies that string cells are read with their addresses and values, and
+     * that only the first sheet is read.
+     */
+    @Test
+    public void testReadFirstSheetReadsStrings() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Row row = workbook.createSheet().createRow(0);
+        row.createCell(0).setCellValue(FIRST_VALUE);
+        row.createCell(1).setCellValue(SECOND_VALUE);
+        workbook.createSheet().createRow(0).createCell(0).setCellValue(OTHER_SHEET_VALUE);
+
+        XlsxSheetReader.readFirstSheet(write(workbook), rowHandler);
+
+        assertEquals(1, rows.size());
+        assertEquals(Integer.valueOf(0), rowNums.get(0));
+        List<SheetCell> cells = rows.get(0);
+        assertEquals(2, cells.size());
+        assertEquals("A1", cells.get(0).getAddress().formatAsString());
+        assertEquals(FIRST_VALUE, cells.get(0).getStringValue());
+        assertEquals(1, cells.get(1).getColumnIndex());
+        assertEquals(SECOND_VALUE, cells.get(1).getStringValue());
+    }
+
+    /**
+     * Verifies that numeric, formula and blank cells are reported but not as
+     * strings, matching the usermodel cell types.
+     */
+    @Test
+    public void testReadFirstSheetReportsNonStringCells() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Row row = workbook.createSheet().createRow(0);
+        row.createCell(0).setCellValue(NUMERIC_VALUE);
+        row.createCell(1).setCellFormula(FORMULA);
+        row.createCell(2, Cell.CELL_TYPE_BLANK).setCellStyle(workbook.createCellStyle());
+
+        XlsxSheetReader.readFirstSheet(write(workbook), rowHandler);
+
+        List<SheetCell> cells = rows.get(0);
+        assertEquals(3, cells.size());
+        for (SheetCell cell : cells) {
+            assertFalse(cell.isString());
+            assertNull(cell.getStringValue());
+        }
+    }
+
+    /**
+     * Verifies that row numbers are taken from the sheet so that gaps between
+     * rows and skipped cells keep their positions.
+     */
+    @Test
+    public void testReadFirstSheetKeepsRowAndColumnPositions() throws Exception {
+        Workbook workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet();
+        sheet.createRow(0).createCell(0).setCellValue(FIRST_VALUE);
+        sheet.createRow(4).createCell(3).setCellValue(SECOND_VALUE);
+
+        XlsxSheetReader.readFirstSheet(write(workbook), rowHandler);
+
+        assertEquals(2, rows.size());
+        assertEquals(Integer.valueOf(4), rowNums.get(1));
+        SheetCell cell = rows.get(1).get(0);
+        assertEquals("D5", cell.getAddress().formatAsString());
+        assertTrue(cell.isString());
+    }
+
+    private File write(Workbook workbook) throws IOException {
+        File file = temporaryFolder.newFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            workbook.write(out);
+        }
+        workbook.close();
+        return file;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cerner.devcenter.education.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link KeysetPage} class.
+ */
+public class KeysetPageTest {
+
+    private static final List<String> ITEMS = Arrays.asList("first", "second");
+    private static final int NEXT_AFTER = 12;
+    private static final int APPROXIMATE_TOTAL = 340;
+
+    /**
+     * Expects the items, the id to read the next page after and the
+     * approximate total to be returned as given.
+     */
+    @Test
+    public void testGetters() {
+        final KeysetPage<String> page = new KeysetPage<>(ITEMS, NEXT_AFTER, APPROXIMATE_TOTAL);
+        assertEquals(ITEMS, page.getItems());
+        assertEquals(Integer.valueOf(NEXT_AFTER), page.getNextAfter());
+        assertEquals(Integer.valueOf(APPROXIMATE_TOTAL), page.getApproximateTotal());
+    }
+
+    /**
+     * Expects the last page without an approximate total to return
+     * <code>null</code> for both.
+     */
+    @Test
+    public void testLastPageWithoutApproximateTotal() {
+        final KeysetPage<String> page = new KeysetPage<>(ITEMS, null, null);
+        assertNull(page.getNextAfter());
+        assertNull(page.getApproximateTotal());
+    }
+
+    /**
+     * Expects the items of the page not to be modifiable.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testItemsAreUnmodifiable() {
+        new KeysetPage<>(new ArrayList<>(ITEMS), NEXT_AFTER, null).getItems().clear();
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the items are
+     * <code>null</code>.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullItems() {
+        new KeysetPage<String>(null, NEXT_AFTER, APPROXIMATE_TOTAL);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the id to read the next
+     * page after is 0.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroNextAfter() {
+        new KeysetPage<>(ITEMS, 0, APPROXIMATE_TOTAL);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the approximate total is
+     * negative.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeApproximateTotal() {
+        new KeysetPage<>(ITEMS, NEXT_AFTER, -1);
+    }
+}
@@ -0,0 +1,175 @@
+package com.cerner.devcenter.education.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cerner.devcenter.education.admin.ResourceDAOImpl;
+
+/**
+ * Measures the latency of {@link SkillResourceExtractor#getResources(List, int)}
+ * for a learner with 1, 10 and 100 rated categories, first reading the
+ * resources with one {@link ResourceDAOImpl#getResourcesByCategoryId(int)}
+ * query per category, as the extractor used to, and then with the single
+ * {@link ResourceDAOImpl#getResourcesByCategoryIds(java.util.Collection)}
+ * query the extractor uses now. The per-category reads grow with the number
+ * of categories by one round trip each.
+ * <p>
+ * The benchmark needs a PostgreSQL database. Everything is created in a
+ * scratch schema which is dropped afterwards, so it can be pointed at a
+ * development database:
+ *
+ * <pre>
+ * java -cp ... SkillResourceExtractorBenchmark jdbc:postgresql://localhost:5432/continue_education postgres postgres 20 200
+ * </pre>
+ *
+ * The arguments are the JDBC url, user, password, number of resources per
+ * category and number of reads per run.
+ */
+public class SkillResourceExtractorBenchmark {
+
+    private static final int DEFAULT_RESOURCES_PER_CATEGORY = 20;
+    private static final int DEFAULT_READS = 200;
+    private static final int WARMUP_READS = 20;
+    private static final int CATEGORIES = 100;
+    private static final int[] RATED_CATEGORIES = { 1, 10, 100 };
+    private static final String SCHEMA = "skill_resource_extractor_benchmark";
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        String user = args[1];
+        String password = args[2];
+        int resourcesPerCategory = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RESOURCES_PER_CATEGORY;
+        int reads = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_READS;
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, user, password, true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        final ResourceDAOImpl resourceDAO = new ResourceDAOImpl();
+        ReflectionTestUtils.setField(resourceDAO, "jdbcTemplate", jdbcTemplate);
+        final CategorySkillEvaluator skillEvaluator = new CategorySkillEvaluator();
+        final SkillResourceExtractor extractor = new SkillResourceExtractor();
+        ReflectionTestUtils.setField(extractor, "skillEvaluator", skillEvaluator);
+        ReflectionTestUtils.setField(extractor, "resourceDao", resourceDAO);
+        try {
+            createTables(jdbcTemplate, resourcesPerCategory);
+            System.out.printf("Generated %d categories with %d resources each%n", CATEGORIES, resourcesPerCategory);
+            for (final int ratedCategories : RATED_CATEGORIES) {
+                final List<UserRating> ratings = ratings(ratedCategories);
+                report("per-category", ratedCategories, reads, new Read() {
+                    @Override
+                    public int run() throws Exception {
+                        return countResources(readPerCategory(resourceDAO, skillEvaluator, ratings));
+                    }
+                });
+                report("multi-category", ratedCategories, reads, new Read() {
+                    @Override
+                    public int run() throws Exception {
+                        return countResources(extractor.getResources(ratings, 0));
+                    }
+                });
+            }
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    private interface Read {
+        int run() throws Exception;
+    }
+
+    private static void createTables(JdbcTemplate jdbcTemplate, int resourcesPerCategory) {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA + ", public");
+        jdbcTemplate.execute("CREATE TABLE type (type_id integer PRIMARY KEY, type_name character varying(30) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO type VALUES (1, 'EBook'), (2, 'Video'), (3, 'Website')");
+        jdbcTemplate.execute("CREATE TABLE resource (resource_id integer PRIMARY KEY, name character varying(255) NOT NULL,"
+                + " link character varying(255) NOT NULL, description character varying(200) NOT NULL,"
+                + " type_id integer NOT NULL REFERENCES type(type_id))");
+        jdbcTemplate.execute("CREATE TABLE category_resource_reltn (resource_id integer, category_id integer,"
+                + " difficulty_level integer DEFAULT 1)");
+        jdbcTemplate.update("INSERT INTO resource SELECT i, 'Resource ' || i, 'http://www.example.com/resources/' || i,"
+                + " 'Description of resource ' || i, 1 + i % 3 FROM generate_series(1, ?) AS i",
+                CATEGORIES * resourcesPerCategory);
+        jdbcTemplate.update("INSERT INTO category_resource_reltn SELECT i, 1 + (i - 1) / ?, 1 + i % 5"
+                + " FROM generate_series(1, ?) AS i", resourcesPerCategory, CATEGORIES * resourcesPerCategory);
+        jdbcTemplate.execute("CREATE INDEX category_resource_reltn_category_id_resource_id_idx ON category_resource_reltn"
+                + " (category_id, resource_id)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /**
+     * Rates the first ratedCategories categories with skill and relevance
+     * levels spread over 1 to 5.
+     */
+    private static List<UserRating> ratings(int ratedCategories) {
+        List<UserRating> ratings = new ArrayList<>(ratedCategories);
+        for (int categoryId = 1; categoryId <= ratedCategories; categoryId++) {
+            ratings.add(new UserRating(categoryId, 1 + categoryId % 5, 1 + (categoryId / 5) % 5));
+        }
+        return ratings;
+    }
+
+    /**
+     * Reads the resources of the rated categories in rating order with one
+     * query per category, as {@link SkillResourceExtractor} used to.
+     */
+    private static Map<Integer, List<Resource>> readPerCategory(
+            ResourceDAOImpl resourceDAO,
+            SkillEvaluator skillEvaluator,
+            List<UserRating> ratings) throws Exception {
+        Map<Integer, Integer> categoryRatingMap = new HashMap<>();
+        for (UserRating rating : ratings) {
+            categoryRatingMap.put(rating.getCategoryId(),
+                    skillEvaluator.calculateRating(rating.getSkill(), rating.getRelevance()));
+        }
+        Map<Integer, List<Resource>> resourcesByCategoryId = new LinkedHashMap<>();
+        for (Integer categoryId : skillEvaluator.sortCategories(categoryRatingMap).keySet()) {
+            resourcesByCategoryId.put(categoryId, resourceDAO.getResourcesByCategoryId(categoryId));
+        }
+        return resourcesByCategoryId;
+    }
+
+    private static int countResources(Map<Integer, List<Resource>> resourcesByCategoryId) {
+        int resources = 0;
+        for (List<Resource> categoryResources : resourcesByCategoryId.values()) {
+            resources += categoryResources.size();
+        }
+        return resources;
+    }
+
+    private static void report(String mode, int ratedCategories, int reads, Read read) throws Exception {
+        for (int i = 0; i < WARMUP_READS; i++) {
+            read.run();
+        }
+        long[] latencies = new long[reads];
+        long resources = 0;
+        for (int i = 0; i < reads; i++) {
+            long start = System.nanoTime();
+            resources += read.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-14s %3d categories, %5d reads, %7.1f resources/read, p50 %8.2f ms, p99 %8.2f ms,"
+                + " max %8.2f ms%n", mode, ratedCategories, reads, resources / (double) reads,
+                toMillis(percentile(latencies, 50)), toMillis(percentile(latencies, 99)),
+                toMillis(latencies[latencies.length - 1]));
+    }
+
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.cerner.devcenter.education.models;
+
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ResourceDAO;
+
+/**
+ * Tests the {@link SkillResourceExtractor}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SkillResourceExtractorTest {
+
+    // Ratings are skill * relevance: category 3 rates 25, category 2 rates 9
+    // and category 1 rates 4.
+    private static final List<UserRating> USER_CATEGORY_RATINGS = Arrays.asList(new UserRating(1, 2, 2),
+            new UserRating(3, 5, 5), new UserRating(2, 3, 3));
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @InjectMocks
+    private SkillResourceExtractor skillResourceExtractor;
+    @Spy
+    private CategorySkillEvaluator skillEvaluator;
+    @Mock
+    private ResourceDAO resourceDao;
+
+    private final Map<Integer, List<Resource>> resourcesByCategoryId = Collections.singletonMap(3,
+            Collections.<Resource> emptyList());
+
+    /**
+     * Verifies that the resources of the best rated categories are read with
+     * one query, the categories given in rating order.
+     */
+    @Test
+    public void testGetResourcesReadsQualifiedCategoriesAtOnce() throws DAOException {
+        when(resourceDao.getResourcesByCategoryIds(Arrays.asList(3, 2))).thenReturn(resourcesByCategoryId);
+        assertSame(resourcesByCategoryId, skillResourceExtractor.getResources(USER_CATEGORY_RATINGS, 2));
+        verify(resourceDao, never()).getResourcesByCategoryId(anyInt());
+    }
+
+    /**
+     * Verifies that every category is read when maxCategories is 0.
+     */
+    @Test
+    public void testGetResourcesWithAllCategories() throws DAOException {
+        when(resourceDao.getResourcesByCategoryIds(Arrays.asList(3, 2, 1))).thenReturn(resourcesByCategoryId);
+        assertSame(resourcesByCategoryId, skillResourceExtractor.getResources(USER_CATEGORY_RATINGS, 0));
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when there are no ratings.
+     */
+    @Test
+    public void testGetResourcesWithEmptyRatings() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        skillResourceExtractor.getResources(Collections.<UserRating> emptyList(), 0);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when maxCategories is negative.
+     */
+    @Test
+    public void testGetResourcesWithNegativeMaxCategories() throws DAOException {
+        expectedException.expect(IllegalArgumentException.class);
+        skillResourceExtractor.getResources(USER_CATEGORY_RATINGS, -1);
+    }
+}
@@ -0,0 +1,340 @@
+package com.cerner.devcenter.education.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.subethamail.wiser.Wiser;
+import org.subethamail.wiser.WiserMessage;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.UserSubscriptionDAO;
+import com.cerner.devcenter.education.models.Learner;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceType;
+
+/**
+ * This class tests {@link ResourceNotificationDispatcher}. Messages are sent to
+ * a local {@link Wiser} SMTP server so the tests see exactly what a mail
+ * server would receive.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceNotificationDispatcherTest {
+
+    private static final String FROM_ADDRESS = "no-reply@example.com";
+    private static final String FIRST_LEARNER = "first.learner@example.com";
+    private static final String SECOND_LEARNER = "second.learner@example.com";
+    private static final String FIRST_DESCRIPTION = "First resource";
+    private static final String SECOND_DESCRIPTION = "Second resource";
+    private static final String MESSAGE_ID_HEADER = "Message-ID";
+    private static final String BCC_HEADER = "Bcc";
+    private static final ResourceType RESOURCE_TYPE = new ResourceType(1, "EBook");
+    private static final long DIGEST_WINDOW_MILLIS = 300;
+    private static final long BACKOFF_MILLIS = 10;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private UserSubscriptionDAO userSubscriptionDAO;
+
+    private Wiser wiser;
+    private ResourceNotificationDispatcher dispatcher;
+    private Resource firstResource;
+    private Resource secondResource;
+
+    @Before
+    public void setUp() throws IOException {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        wiser = new Wiser(port);
+        wiser.setHostname("localhost");
+        wiser.start();
+
+        final JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        final SimpleMailMessage templateMessage = new SimpleMailMessage();
+        templateMessage.setFrom(FROM_ADDRESS);
+
+        dispatcher = new ResourceNotificationDispatcher();
+        dispatcher.setMailSender(mailSender);
+        dispatcher.setTemplateMessage(templateMessage);
+        dispatcher.setUserSubscriptionDAO(userSubscriptionDAO);
+        dispatcher.setDigestWindowMillis(0);
+        dispatcher.setInitialBackoffMillis(BACKOFF_MILLIS);
+
+        firstResource = createResource(1, FIRST_DESCRIPTION);
+        secondResource = createResource(2, SECOND_DESCRIPTION);
+    }
+
+    @After
+    public void tearDown() {
+        dispatcher.close();
+        wiser.stop();
+    }
+
+    /**
+     * Verifies that resources added within the digest window are sent as one
+     * email per learner listing every resource the learner is subscribed to.
+     */
+    @Test
+    public void testResourcesWithinWindowAreSentAsOneDigestPerLearner() throws Exception {
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(firstResource)).thenReturn(
+                learners(FIRST_LEARNER, SECOND_LEARNER));
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(secondResource)).thenReturn(
+                learners(FIRST_LEARNER));
+        dispatcher.setDigestWindowMillis(DIGEST_WINDOW_MILLIS);
+        dispatcher.init();
+
+        assertTrue(dispatcher.submit(firstResource));
+        assertTrue(dispatcher.submit(secondResource));
+        dispatcher.close();
+
+        final Map<String, MimeMessage> messagesByRecipient = messagesByRecipient();
+        assertEquals(2, messagesByRecipient.size());
+        final String firstLearnerBody = (String) messagesByRecipient.get(FIRST_LEARNER).getContent();
+        assertTrue(firstLearnerBody.contains(FIRST_DESCRIPTION));
+        assertTrue(firstLearnerBody.contains(SECOND_DESCRIPTION));
+        final MimeMessage secondLearnerMessage = messagesByRecipient.get(SECOND_LEARNER);
+        assertEquals(FIRST_DESCRIPTION, secondLearnerMessage.getSubject());
+        assertFalse(((String) secondLearnerMessage.getContent()).contains(SECOND_DESCRIPTION));
+        assertEquals(1, dispatcher.getMetrics().getDigestCount());
+        assertEquals(2, dispatcher.getMetrics().getSentMessageCount());
+    }
+
+    /**
+     * Verifies that learners receiving the same digest share messages, sent as
+     * BCC in batches of at most the configured number of recipients.
+     */
+    @Test
+    public void testRecipientsAreSentInBccBatches() throws Exception {
+        final List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            emails.add("learner" + i + "@example.com");
+        }
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(firstResource)).thenReturn(
+                learners(emails.toArray(new String[emails.size()])));
+        dispatcher.setMaximumRecipientsPerMessage(2);
+        dispatcher.init();
+
+        dispatcher.submit(firstResource);
+        dispatcher.close();
+
+        final Set<String> messageIds = new HashSet<>();
+        final Set<String> recipients = new HashSet<>();
+        for (final WiserMessage wiserMessage : wiser.getMessages()) {
+            final MimeMessage message = wiserMessage.getMimeMessage();
+            messageIds.add(message.getHeader(MESSAGE_ID_HEADER, null));
+            recipients.add(wiserMessage.getEnvelopeReceiver());
+            assertNull(message.getHeader(BCC_HEADER));
+            assertEquals(FROM_ADDRESS, message.getRecipients(Message.RecipientType.TO)[0].toString());
+        }
+        assertEquals(3, messageIds.size());
+        assertTrue(recipients.containsAll(emails));
+        assertEquals(3, dispatcher.getMetrics().getSentMessageCount());
+        assertEquals(5, dispatcher.getMetrics().getSentRecipientCount());
+        assertEquals(3, dispatcher.getMetrics().getSendLatency().getCount());
+    }
+
+    /**
+     * Verifies that a failed send is retried with backoff until it succeeds.
+     */
+    @Test
+    public void testFailedSendIsRetried() throws Exception {
+        final JavaMailSender mailSender = failingMailSender();
+        doThrow(new MailSendException("Connection refused")).doThrow(new MailSendException("Connection refused"))
+                .doNothing().when(mailSender).send(any(MimeMessage.class));
+        dispatcher.setMailSender(mailSender);
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(firstResource)).thenReturn(
+                learners(FIRST_LEARNER));
+        dispatcher.init();
+
+        dispatcher.submit(firstResource);
+        dispatcher.close();
+
+        verify(mailSender, times(3)).send(any(MimeMessage.class));
+        assertEquals(2, dispatcher.getMetrics().getRetryCount());
+        assertEquals(1, dispatcher.getMetrics().getSentMessageCount());
+        assertEquals(0, dispatcher.getMetrics().getFailedMessageCount());
+        assertEquals(0, dispatcher.getMetrics().getPendingMessages());
+    }
+
+    /**
+     * Verifies that a message is given up on after the maximum number of
+     * attempts.
+     */
+    @Test
+    public void testSendIsGivenUpAfterMaximumAttempts() throws Exception {
+        final JavaMailSender mailSender = failingMailSender();
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage.class));
+        dispatcher.setMailSender(mailSender);
+        dispatcher.setMaximumAttempts(3);
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(firstResource)).thenReturn(
+                learners(FIRST_LEARNER));
+        dispatcher.init();
+
+        dispatcher.submit(firstResource);
+        dispatcher.close();
+
+        verify(mailSender, times(3)).send(any(MimeMessage.class));
+        assertEquals(2, dispatcher.getMetrics().getRetryCount());
+        assertEquals(1, dispatcher.getMetrics().getFailedMessageCount());
+        assertEquals(0, dispatcher.getMetrics().getPendingMessages());
+    }
+
+    /**
+     * Verifies that resources are dropped instead of blocking the caller once
+     * the queue is full.
+     */
+    @Test
+    public void testSubmitDropsResourcesWhenQueueIsFull() throws Exception {
+        final CountDownLatch lookupStarted = new CountDownLatch(1);
+        final CountDownLatch releaseLookup = new CountDownLatch(1);
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(firstResource)).thenAnswer(
+                new Answer<List<Learner>>() {
+                    @Override
+                    public List<Learner> answer(final InvocationOnMock invocation) throws InterruptedException {
+                        lookupStarted.countDown();
+                        releaseLookup.await(5, TimeUnit.SECONDS);
+                        return learners(FIRST_LEARNER);
+                    }
+                });
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(secondResource)).thenReturn(
+                learners(SECOND_LEARNER));
+        dispatcher.setQueueCapacity(1);
+        dispatcher.init();
+
+        assertTrue(dispatcher.submit(firstResource));
+        assertTrue(lookupStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(dispatcher.submit(secondResource));
+        assertFalse(dispatcher.submit(createResource(3, "Third resource")));
+        assertEquals(1, dispatcher.getMetrics().getQueueDepth());
+        assertEquals(1, dispatcher.getMetrics().getDroppedCount());
+        releaseLookup.countDown();
+        dispatcher.close();
+
+        assertEquals(2, dispatcher.getMetrics().getSubmittedCount());
+        assertEquals(2, wiser.getMessages().size());
+    }
+
+    /**
+     * Verifies that a failed subscriber lookup is counted and does not stop
+     * the other resources of the digest from being sent.
+     */
+    @Test
+    public void testLookupFailureIsCounted() throws Exception {
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(firstResource)).thenThrow(
+                new DAOException("lookup failed"));
+        when(userSubscriptionDAO.getLearnersSubscribedToCategoriesBelongingToResource(secondResource)).thenReturn(
+                learners(SECOND_LEARNER));
+        dispatcher.setDigestWindowMillis(DIGEST_WINDOW_MILLIS);
+        dispatcher.init();
+
+        dispatcher.submit(firstResource);
+        dispatcher.submit(secondResource);
+        dispatcher.close();
+
+        assertEquals(1, dispatcher.getMetrics().getLookupFailureCount());
+        assertEquals(1, wiser.getMessages().size());
+        assertEquals(SECOND_DESCRIPTION, wiser.getMessages().get(0).getMimeMessage().getSubject());
+    }
+
+    /**
+     * Verifies that resources cannot be submitted before the dispatcher is
+     * initialized.
+     */
+    @Test
+    public void testSubmitBeforeInit() {
+        expectedException.expect(IllegalStateException.class);
+        dispatcher.submit(firstResource);
+    }
+
+    /**
+     * Verifies that a null resource is rejected.
+     */
+    @Test
+    public void testSubmitNullResource() {
+        dispatcher.init();
+        expectedException.expect(IllegalArgumentException.class);
+        dispatcher.submit(null);
+    }
+
+    private Map<String, MimeMessage> messagesByRecipient() throws MessagingException {
+        final Map<String, MimeMessage> messages = new HashMap<>();
+        for (final WiserMessage wiserMessage : wiser.getMessages()) {
+            messages.put(wiserMessage.getEnvelopeReceiver(), wiserMessage.getMimeMessage());
+        }
+        return messages;
+    }
+
+    private static JavaMailSender failingMailSender() {
+        final JavaMailSender mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(new Answer<MimeMessage>() {
+            @Override
+            public MimeMessage answer(final InvocationOnMock invocation) {
+                return new MimeMessage(Session.getInstance(new Properties()));
+            }
+        });
+        return mailSender;
+    }
+
+    private static List<Learner> learners(final String... emails) {
+        final List<Learner> learners = new ArrayList<>();
+        for (final String email : Arrays.asList(emails)) {
+            learners.add(new Learner(email.substring(0, email.indexOf('@')), email));
+        }
+        return learners;
+    }
+
+    private static Resource createResource(final int resourceId, final String description) throws IOException {
+        final Resource resource = new Resource();
+        resource.setResourceId(resourceId);
+        resource.setDescription(description);
+        resource.setResourceName(description);
+        resource.setResourceLink(new URL("http://www.example.com/" + resourceId));
+        resource.setResourceType(RESOURCE_TYPE);
+        return resource;
+    }
+}
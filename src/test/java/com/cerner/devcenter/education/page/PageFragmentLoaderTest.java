@@ -0,0 +1,208 @@
+package com.cerner.devcenter.education.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests the {@link PageFragmentLoader}.
+ */
+public class PageFragmentLoaderTest {
+
+    private static final String FIRST = "first";
+    private static final String SECOND = "second";
+    private static final String LOADED = "loaded";
+    private static final String EMPTY = "empty";
+    private static final long FRAGMENT_TIMEOUT_MILLIS = 200;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private PageFragmentLoader loader;
+
+    @Before
+    public void setUp() {
+        loader = new PageFragmentLoader();
+        loader.setFragmentTimeoutMillis(FRAGMENT_TIMEOUT_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        loader.close();
+    }
+
+    /**
+     * Verifies that the fragments are loaded at the same time and their
+     * models are merged: each fragment waits for the other one to start, so
+     * loading them one after the other would time out.
+     */
+    @Test
+    public void testLoadAllLoadsConcurrently() {
+        loader.init();
+        final CyclicBarrier bothStarted = new CyclicBarrier(2);
+        final Map<String, Object> model = loader.loadAll(Arrays.asList(
+                new AwaitingFragment(FIRST, bothStarted),
+                new AwaitingFragment(SECOND, bothStarted)));
+        assertEquals(LOADED, model.get(FIRST));
+        assertEquals(LOADED, model.get(SECOND));
+        final PageFragmentMetrics metrics = loader.getMetrics();
+        assertEquals(1, metrics.getPageCount());
+        assertEquals(2, metrics.getFragmentCount());
+        assertEquals(0, metrics.getTimeoutCount());
+        assertEquals(1, metrics.getPageLatency().getCount());
+    }
+
+    /**
+     * Verifies that a fragment that does not finish in time is replaced by its
+     * fallback without holding up the rest of the page.
+     */
+    @Test
+    public void testLoadAllFallsBackWhenFragmentTimesOut() {
+        loader.init();
+        final CountDownLatch never = new CountDownLatch(1);
+        final long startNanos = System.nanoTime();
+        final Map<String, Object> model = loader.loadAll(Arrays.asList(
+                new ValueFragment(FIRST),
+                new PageFragment(SECOND, Collections.<String, Object> singletonMap(SECOND, EMPTY)) {
+                    @Override
+                    public Map<String, Object> load() {
+                        try {
+                            never.await();
+                        } catch (final InterruptedException interruptedException) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return Collections.<String, Object> singletonMap(SECOND, LOADED);
+                    }
+                }));
+        assertTrue(System.nanoTime() - startNanos < TimeUnit.MILLISECONDS.toNanos(FRAGMENT_TIMEOUT_MILLIS * 10));
+        assertEquals(LOADED, model.get(FIRST));
+        assertEquals(EMPTY, model.get(SECOND));
+        assertEquals(1, loader.getMetrics().getTimeoutCount());
+    }
+
+    /**
+     * Verifies that a fragment that throws or returns no model is replaced by
+     * its fallback.
+     */
+    @Test
+    public void testLoadAllFallsBackWhenFragmentFails() {
+        loader.init();
+        final Map<String, Object> model = loader.loadAll(Arrays.asList(
+                new PageFragment(FIRST, Collections.<String, Object> singletonMap(FIRST, EMPTY)) {
+                    @Override
+                    public Map<String, Object> load() {
+                        throw new IllegalStateException();
+                    }
+                },
+                new PageFragment(SECOND, Collections.<String, Object> singletonMap(SECOND, EMPTY)) {
+                    @Override
+                    public Map<String, Object> load() {
+                        return null;
+                    }
+                }));
+        assertEquals(EMPTY, model.get(FIRST));
+        assertEquals(EMPTY, model.get(SECOND));
+        assertEquals(1, loader.getMetrics().getFailureCount());
+    }
+
+    /**
+     * Verifies that fragments are loaded on the request thread when the loader
+     * threads and the queue are all busy.
+     */
+    @Test
+    public void testLoadAllLoadsOnRequestThreadWhenSaturated() {
+        loader.setMaximumThreads(1);
+        loader.setQueueCapacity(1);
+        loader.init();
+        final CyclicBarrier bothStarted = new CyclicBarrier(2);
+        final Map<String, Object> model = loader.loadAll(Arrays.asList(
+                new AwaitingFragment(FIRST, bothStarted),
+                new ValueFragment(SECOND),
+                new AwaitingFragment("third", bothStarted)));
+        assertEquals(LOADED, model.get(FIRST));
+        assertEquals(LOADED, model.get(SECOND));
+        assertEquals(LOADED, model.get("third"));
+        assertEquals(1, loader.getMetrics().getRejectedCount());
+    }
+
+    /**
+     * Expects {@link IllegalStateException} when loading before the loader has
+     * been initialized.
+     */
+    @Test
+    public void testLoadAllBeforeInit() {
+        expectedException.expect(IllegalStateException.class);
+        loader.loadAll(Arrays.asList(new ValueFragment(FIRST)));
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the fragments are null.
+     */
+    @Test
+    public void testLoadAllWithNullFragments() {
+        loader.init();
+        expectedException.expect(IllegalArgumentException.class);
+        loader.loadAll(null);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the fragment timeout is not
+     * positive.
+     */
+    @Test
+    public void testSetFragmentTimeoutMillisWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        loader.setFragmentTimeoutMillis(0);
+    }
+
+    /**
+     * Fragment whose model maps its name to {@link #LOADED}.
+     */
+    private static class ValueFragment extends PageFragment {
+
+        ValueFragment(final String name) {
+            super(name, Collections.<String, Object> singletonMap(name, EMPTY));
+        }
+
+        @Override
+        public Map<String, Object> load() {
+            return Collections.<String, Object> singletonMap(getName(), LOADED);
+        }
+    }
+
+    /**
+     * Fragment that only loads once another fragment waiting on the same
+     * barrier has started.
+     */
+    private static class AwaitingFragment extends ValueFragment {
+
+        private final CyclicBarrier barrier;
+
+        AwaitingFragment(final String name, final CyclicBarrier barrier) {
+            super(name);
+            this.barrier = barrier;
+        }
+
+        @Override
+        public Map<String, Object> load() {
+            try {
+                barrier.await(FRAGMENT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (final Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+            return super.load();
+        }
+    }
+}
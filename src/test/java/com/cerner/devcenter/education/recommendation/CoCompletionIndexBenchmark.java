@@ -0,0 +1,139 @@
+package com.cerner.devcenter.education.recommendation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cerner.devcenter.education.dao.CompletedUserResourceDAOImpl;
+
+/**
+ * Measures how long a {@link CoCompletionIndex} rebuild takes over a large
+ * completed_user_resource table and how much heap it takes, with one worker
+ * thread, with several, and with several threads over two passes. The
+ * completions are generated so each resource is mostly completed together
+ * with resources of nearby ids, as resources of the same category would be.
+ * <p>
+ * The benchmark needs a PostgreSQL database. Everything is created in a
+ * scratch schema which is dropped afterwards, so it can be pointed at a
+ * development database:
+ *
+ * <pre>
+ * java -Xmx1g -cp ... CoCompletionIndexBenchmark jdbc:postgresql://localhost:5432/continue_education postgres postgres 100000 30 8
+ * </pre>
+ *
+ * The arguments are the JDBC url, user, password, number of users, number of
+ * completions per user and number of threads of the parallel rebuilds.
+ */
+public class CoCompletionIndexBenchmark {
+
+    private static final int DEFAULT_USERS = 100000;
+    private static final int DEFAULT_COMPLETIONS_PER_USER = 30;
+    private static final int DEFAULT_THREADS = 8;
+    private static final int RESOURCES = 20000;
+    private static final int NEIGHBOURHOOD = 500;
+    private static final int LOOKUPS = 10000;
+    private static final long HEAP_SAMPLE_MILLIS = 10;
+    private static final String SCHEMA = "co_completion_index_benchmark";
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        String user = args[1];
+        String password = args[2];
+        int users = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_USERS;
+        int completionsPerUser = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_COMPLETIONS_PER_USER;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_THREADS;
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, user, password, true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        CompletedUserResourceDAOImpl completedUserResourceDAO = new CompletedUserResourceDAOImpl();
+        ReflectionTestUtils.setField(completedUserResourceDAO, "jdbcTemplate", jdbcTemplate);
+        try {
+            long start = System.nanoTime();
+            createTables(jdbcTemplate, users, completionsPerUser);
+            System.out.printf("Generated %d completions of %d users over %d resources in %.2f ms%n",
+                    (long) users * completionsPerUser, users, RESOURCES, toMillis(System.nanoTime() - start));
+            rebuild(completedUserResourceDAO, 1, 1);
+            rebuild(completedUserResourceDAO, threads, 1);
+            rebuild(completedUserResourceDAO, threads, 2);
+        } finally {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    private static void createTables(JdbcTemplate jdbcTemplate, int users, int completionsPerUser) {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+        jdbcTemplate.execute("CREATE TABLE completed_user_resource (user_id character varying(8) NOT NULL,"
+                + " resource_id integer NOT NULL, completion_rating integer, completion_date bigint NOT NULL,"
+                + " PRIMARY KEY (user_id, resource_id))");
+        jdbcTemplate.update("INSERT INTO completed_user_resource SELECT 'U' || lpad(u::text, 7, '0'),"
+                + " 1 + ((u * 7919) % ? + c * (1 + u % 7) * ? / ?) % ?, NULL, c FROM generate_series(1, ?) AS u,"
+                + " generate_series(1, ?) AS c ON CONFLICT DO NOTHING", RESOURCES, NEIGHBOURHOOD, completionsPerUser,
+                RESOURCES, users, completionsPerUser);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static void rebuild(CompletedUserResourceDAOImpl completedUserResourceDAO, int threads, int passes)
+            throws Exception {
+        CoCompletionIndex index = new CoCompletionIndex();
+        index.setCompletedUserResourceDAO(completedUserResourceDAO);
+        index.setThreads(threads);
+        index.setPasses(passes);
+        final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        final long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        final AtomicLong peakHeap = new AtomicLong(heapBefore);
+        final AtomicBoolean rebuilding = new AtomicBoolean(true);
+        Thread sampler = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (rebuilding.get()) {
+                    long used = memory.getHeapMemoryUsage().getUsed();
+                    if (used > peakHeap.get()) {
+                        peakHeap.set(used);
+                    }
+                    try {
+                        Thread.sleep(HEAP_SAMPLE_MILLIS);
+                    } catch (InterruptedException interruptedException) {
+                        return;
+                    }
+                }
+            }
+        });
+        sampler.setDaemon(true);
+        sampler.start();
+        long start = System.nanoTime();
+        try {
+            index.rebuild();
+        } finally {
+            rebuilding.set(false);
+            sampler.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        long related = 0;
+        long lookupStart = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            related += index.getRelatedResources(1 + i % RESOURCES).size();
+        }
+        long lookupElapsed = System.nanoTime() - lookupStart;
+        CoCompletionIndexMetrics metrics = index.getMetrics();
+        System.out.printf("%2d threads, %d passes: rebuild %10.2f ms, peak heap +%6d MB, index %5d MB,"
+                + " %6d resources, %8d related, %7.1f related/lookup, %8.3f us/lookup%n", threads, passes,
+                toMillis(elapsed), (peakHeap.get() - heapBefore) >> 20, (heapAfter - heapBefore) >> 20,
+                metrics.getResourceCount(), metrics.getRelatedResourceCount(), related / (double) LOOKUPS,
+                lookupElapsed / 1000.0 / LOOKUPS);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
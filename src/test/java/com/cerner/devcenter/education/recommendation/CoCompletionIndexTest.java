@@ -0,0 +1,340 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.CompletedUserResourceDAO;
+import com.cerner.devcenter.education.models.CompletedResource;
+
+/**
+ * Tests {@link CoCompletionIndex} functionality.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CoCompletionIndexTest {
+
+    private static final String NEW_USER_ID = "AB099999";
+    private static final double DELTA = 1e-9;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private CompletedUserResourceDAO completedUserResourceDAO;
+
+    private CoCompletionIndex index;
+    private TreeMap<String, int[]> completedResourceIdsByUser;
+
+    @Before
+    public void setUp() throws DAOException {
+        completedResourceIdsByUser = new TreeMap<>();
+        completedResourceIdsByUser.put("AB000001", new int[] { 1, 2, 3 });
+        completedResourceIdsByUser.put("AB000002", new int[] { 1, 2 });
+        completedResourceIdsByUser.put("AB000003", new int[] { 1, 4 });
+        completedResourceIdsByUser.put("AB000004", new int[] { 2, 3 });
+        when(completedUserResourceDAO.getRecentlyCompletedResourceIdsByUserAfter(anyString(), anyInt(), anyInt()))
+                .thenAnswer(new Answer<Map<String, int[]>>() {
+                    @Override
+                    public Map<String, int[]> answer(final InvocationOnMock invocation) {
+                        final Object[] arguments = invocation.getArguments();
+                        return page((String) arguments[0], (Integer) arguments[1], (Integer) arguments[2]);
+                    }
+                });
+        index = new CoCompletionIndex();
+        index.setCompletedUserResourceDAO(completedUserResourceDAO);
+        index.setThreads(1);
+        index.setUsersPerPage(1);
+    }
+
+    /**
+     * Verifies that the index is not ready and returns no related resources
+     * before it has been built.
+     */
+    @Test
+    public void testGetRelatedResourcesBeforeRebuild() {
+        assertFalse(index.isReady());
+        assertTrue(index.getRelatedResources(1).isEmpty());
+    }
+
+    /**
+     * Verifies that related resources are ranked by the cosine similarity of
+     * their learners rather than by the raw co-completion count.
+     */
+    @Test
+    public void testGetRelatedResourcesRankedBySimilarity() throws DAOException {
+        index.rebuild();
+
+        final List<CoCompletedResource> related = index.getRelatedResources(1);
+        assertEquals(Arrays.asList(2, 4, 3), resourceIds(related));
+        assertEquals(2, related.get(0).getCoCompletionCount());
+        assertEquals(2 / Math.sqrt(3 * 3), related.get(0).getSimilarity(), DELTA);
+        assertEquals(1, related.get(1).getCoCompletionCount());
+        assertEquals(1 / Math.sqrt(3 * 1), related.get(1).getSimilarity(), DELTA);
+        assertEquals(1, related.get(2).getCoCompletionCount());
+        assertEquals(1 / Math.sqrt(3 * 2), related.get(2).getSimilarity(), DELTA);
+        assertEquals(Arrays.asList(2, 1), resourceIds(index.getRelatedResources(3)));
+        assertEquals(Arrays.asList(1), resourceIds(index.getRelatedResources(4)));
+    }
+
+    /**
+     * Verifies that a resource nobody completed has no related resources.
+     */
+    @Test
+    public void testGetRelatedResourcesForUnknownResource() throws DAOException {
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertTrue(index.getRelatedResources(5).isEmpty());
+    }
+
+    /**
+     * Verifies that only the configured number of most similar resources is
+     * kept for each resource.
+     */
+    @Test
+    public void testRebuildKeepsMaximumRelatedResources() throws DAOException {
+        index.setMaximumRelatedResources(2);
+        index.rebuild();
+
+        assertEquals(Arrays.asList(2, 4), resourceIds(index.getRelatedResources(1)));
+    }
+
+    /**
+     * Verifies that an index built by several threads over several passes is
+     * the same as one built by a single thread in a single pass.
+     */
+    @Test
+    public void testRebuildWithThreadsAndPassesMatchesSingleThread() throws DAOException {
+        final Random random = new Random(42);
+        completedResourceIdsByUser.clear();
+        for (int user = 0; user < 300; user++) {
+            final int[] resourceIds = new int[1 + random.nextInt(8)];
+            for (int completion = 0; completion < resourceIds.length; completion++) {
+                resourceIds[completion] = completion * 10 + 1 + random.nextInt(10);
+            }
+            completedResourceIdsByUser.put(String.format("AB%06d", user), resourceIds);
+        }
+        index.setUsersPerPage(17);
+        index.setMaximumRelatedResources(5);
+        index.rebuild();
+        final CoCompletionIndex parallelIndex = new CoCompletionIndex();
+        parallelIndex.setCompletedUserResourceDAO(completedUserResourceDAO);
+        parallelIndex.setThreads(3);
+        parallelIndex.setPasses(2);
+        parallelIndex.setUsersPerPage(17);
+        parallelIndex.setMaximumRelatedResources(5);
+        parallelIndex.rebuild();
+
+        assertEquals(index.getMetrics().getResourceCount(), parallelIndex.getMetrics().getResourceCount());
+        assertEquals(index.getMetrics().getRelatedResourceCount(),
+                parallelIndex.getMetrics().getRelatedResourceCount());
+        for (int resourceId = 1; resourceId <= 80; resourceId++) {
+            final List<CoCompletedResource> expected = index.getRelatedResources(resourceId);
+            final List<CoCompletedResource> actual = parallelIndex.getRelatedResources(resourceId);
+            assertEquals(resourceIds(expected), resourceIds(actual));
+            for (int related = 0; related < expected.size(); related++) {
+                assertEquals(expected.get(related).getCoCompletionCount(),
+                        actual.get(related).getCoCompletionCount());
+            }
+        }
+    }
+
+    /**
+     * Verifies that a completion added after a rebuild counts the pairs it
+     * forms with the other resources of the learner.
+     */
+    @Test
+    public void testAddCompletion() throws DAOException {
+        index.rebuild();
+        when(completedUserResourceDAO.getMostRecentlyCompletedResources(NEW_USER_ID, 200))
+                .thenReturn(completedResources(4, 3));
+
+        index.addCompletion(NEW_USER_ID, 4, System.nanoTime());
+
+        final List<CoCompletedResource> related = index.getRelatedResources(4);
+        assertEquals(Arrays.asList(3, 1), resourceIds(related));
+        assertEquals(1 / Math.sqrt(2 * 2), related.get(0).getSimilarity(), DELTA);
+        assertEquals(Arrays.asList(2, 4, 1), resourceIds(index.getRelatedResources(3)));
+        assertEquals(1, index.getMetrics().getUpdateCount());
+    }
+
+    /**
+     * Verifies that a completion recorded before the completions of the last
+     * rebuild were read is not counted a second time.
+     */
+    @Test
+    public void testAddCompletionRecordedBeforeRebuild() throws DAOException {
+        final long completedNanos = System.nanoTime();
+        index.rebuild();
+
+        index.addCompletion(NEW_USER_ID, 4, completedNanos);
+
+        verify(completedUserResourceDAO, never()).getMostRecentlyCompletedResources(anyString(), anyInt());
+        assertEquals(Arrays.asList(1), resourceIds(index.getRelatedResources(4)));
+        assertEquals(0, index.getMetrics().getUpdateCount());
+    }
+
+    /**
+     * Verifies that a completion is ignored when the index has not been
+     * initialized.
+     */
+    @Test
+    public void testResourceCompletedBeforeInit() {
+        index.resourceCompleted(NEW_USER_ID, 4);
+
+        verifyZeroInteractions(completedUserResourceDAO);
+    }
+
+    /**
+     * Verifies that a failed rebuild is counted and leaves the index not
+     * ready.
+     */
+    @Test
+    public void testRebuildFailure() throws DAOException {
+        when(completedUserResourceDAO.getRecentlyCompletedResourceIdsByUserAfter(anyString(), anyInt(), anyInt()))
+                .thenThrow(new DAOException("Error reading completions"));
+        try {
+            index.rebuild();
+            fail("Expected DAOException");
+        } catch (final DAOException daoException) {
+            assertFalse(index.isReady());
+            assertEquals(1, index.getMetrics().getRebuildFailureCount());
+            assertEquals(0, index.getMetrics().getRebuildCount());
+        }
+    }
+
+    /**
+     * Verifies the rebuild metrics.
+     */
+    @Test
+    public void testGetMetrics() throws DAOException {
+        index.rebuild();
+        index.getRelatedResources(1);
+
+        final CoCompletionIndexMetrics metrics = index.getMetrics();
+        assertTrue(metrics.isReady());
+        assertEquals(4, metrics.getResourceCount());
+        assertEquals(8, metrics.getRelatedResourceCount());
+        assertEquals(4, metrics.getLastRebuildUserCount());
+        assertEquals(9, metrics.getLastRebuildCompletionCount());
+        assertEquals(1, metrics.getRebuildCount());
+        assertEquals(1, metrics.getRequestCount());
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when related resources are
+     * asked for a negative resource id.
+     */
+    @Test
+    public void testGetRelatedResourcesWithNegativeResourceId() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource Id cannot be negative");
+        index.getRelatedResources(-1);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when a completion is added with
+     * a blank user id.
+     */
+    @Test
+    public void testResourceCompletedWithBlankUserId() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("User Id cannot be null, empty or whitespace.");
+        index.resourceCompleted(" ", 1);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the number of threads is
+     * not greater than 0.
+     */
+    @Test
+    public void testSetThreadsWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Threads must be greater than 0");
+        index.setThreads(0);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the index is initialized
+     * without a DAO.
+     */
+    @Test
+    public void testInitWithoutDAO() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Completed user resource DAO cannot be null");
+        new CoCompletionIndex().init();
+    }
+
+    /**
+     * Verifies that a disabled index is never built.
+     */
+    @Test
+    public void testInitDisabled() {
+        index.setEnabled(false);
+        index.init();
+
+        index.resourceCompleted(NEW_USER_ID, 4);
+
+        assertFalse(index.isReady());
+        verifyZeroInteractions(completedUserResourceDAO);
+        index.close();
+    }
+
+    private Map<String, int[]> page(final String afterUserId, final int numberOfUsers,
+            final int numberOfResourcesPerUser) {
+        final Map<String, int[]> page = new LinkedHashMap<>();
+        for (final Map.Entry<String, int[]> entry : completedResourceIdsByUser.tailMap(afterUserId, false)
+                .entrySet()) {
+            if (page.size() == numberOfUsers) {
+                break;
+            }
+            final int[] resourceIds = entry.getValue();
+            page.put(entry.getKey(), Arrays.copyOf(resourceIds, Math.min(resourceIds.length, numberOfResourcesPerUser)));
+        }
+        return page;
+    }
+
+    private static List<CompletedResource> completedResources(final int... resourceIds) {
+        final List<CompletedResource> completedResources = new ArrayList<>();
+        for (final int resourceId : resourceIds) {
+            final CompletedResource completedResource = mock(CompletedResource.class);
+            when(completedResource.getResourceId()).thenReturn(resourceId);
+            completedResources.add(completedResource);
+        }
+        return completedResources;
+    }
+
+    private static List<Integer> resourceIds(final List<CoCompletedResource> related) {
+        final List<Integer> resourceIds = new ArrayList<>();
+        for (final CoCompletedResource coCompletedResource : related) {
+            resourceIds.add(coCompletedResource.getResourceId());
+        }
+        return resourceIds;
+    }
+}
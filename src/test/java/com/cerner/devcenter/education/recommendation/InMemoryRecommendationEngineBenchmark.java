@@ -0,0 +1,227 @@
+package com.cerner.devcenter.education.recommendation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cerner.devcenter.education.dao.RecommendationCatalogDAOImpl;
+import com.cerner.devcenter.education.dao.UserRecommendedResourceDAOImpl;
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.UserInterestedCategory;
+
+/**
+ * Measures the latency and throughput of computing the recommendation
+ * candidates of a user, first with the recommendation query of
+ * {@link UserRecommendedResourceDAOImpl}, as on a cache miss without the
+ * engine, and then with the {@link InMemoryRecommendationEngine}, single
+ * threaded and from several threads at once. The query costs a round trip and
+ * grows with the catalog and the completed resources of the user, while the
+ * engine only walks the first resources of each interesting category.
+ * <p>
+ * The benchmark needs a PostgreSQL database. Everything is created in a
+ * scratch schema which is dropped afterwards, so it can be pointed at a
+ * development database:
+ *
+ * <pre>
+ * java -cp ... InMemoryRecommendationEngineBenchmark jdbc:postgresql://localhost:5432/continue_education postgres postgres 20000 1000 8
+ * </pre>
+ *
+ * The arguments are the JDBC url, user, password, number of resources, number
+ * of reads per run and number of threads of the concurrent run.
+ */
+public class InMemoryRecommendationEngineBenchmark {
+
+    private static final int DEFAULT_RESOURCES = 20000;
+    private static final int DEFAULT_READS = 1000;
+    private static final int DEFAULT_THREADS = 8;
+    private static final int WARMUP_READS = 50;
+    private static final int CATEGORIES = 100;
+    private static final int USERS = 1000;
+    private static final int INTERESTED_CATEGORIES = 5;
+    private static final int MAXIMUM_PER_CATEGORY = 10;
+    private static final double MINIMUM_RATING_REQUIRED = 2.5;
+    private static final int MINIMUM_NUMBER_OF_RATINGS_REQUIRED = 1;
+    private static final String SCHEMA = "recommendation_engine_benchmark";
+
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        String user = args[1];
+        String password = args[2];
+        int resources = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RESOURCES;
+        int reads = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_READS;
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_THREADS;
+
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(url, user, password, true);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        final UserRecommendedResourceDAOImpl recommendedResourceDAO = new UserRecommendedResourceDAOImpl();
+        ReflectionTestUtils.setField(recommendedResourceDAO, "jdbcTemplate", jdbcTemplate);
+        RecommendationCatalogDAOImpl catalogDAO = new RecommendationCatalogDAOImpl();
+        ReflectionTestUtils.setField(catalogDAO, "jdbcTemplate", jdbcTemplate);
+        UserRecommendationCache recommendationCache = new UserRecommendationCache();
+        recommendationCache.init();
+        final InMemoryRecommendationEngine engine = new InMemoryRecommendationEngine();
+        engine.setCatalogDAO(catalogDAO);
+        engine.setRecommendationCache(recommendationCache);
+        try {
+            createTables(jdbcTemplate, resources);
+            long start = System.nanoTime();
+            engine.refresh();
+            System.out.printf("Generated %d categories, %d resources and %d users; loaded the engine in %.2f ms%n",
+                    CATEGORIES, resources, USERS, toMillis(System.nanoTime() - start));
+            final List<List<UserInterestedCategory>> interests = interests();
+            report("query", reads, 1, new Read() {
+                @Override
+                public int run(int i) throws Exception {
+                    return recommendedResourceDAO.getRecommendedResourcesForTheUser(userId(i),
+                            MINIMUM_RATING_REQUIRED, MINIMUM_NUMBER_OF_RATINGS_REQUIRED).size();
+                }
+            });
+            Read engineRead = new Read() {
+                @Override
+                public int run(int i) throws Exception {
+                    return engine.getRecommendedResources(userId(i), interests.get(i % USERS),
+                            MINIMUM_RATING_REQUIRED, MINIMUM_NUMBER_OF_RATINGS_REQUIRED, MAXIMUM_PER_CATEGORY).size();
+                }
+            };
+            report("engine", reads, 1, engineRead);
+            report("engine", reads, threads, engineRead);
+        } finally {
+            engine.close();
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            dataSource.destroy();
+        }
+    }
+
+    private interface Read {
+        int run(int i) throws Exception;
+    }
+
+    private static void createTables(JdbcTemplate jdbcTemplate, int resources) {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+        jdbcTemplate.execute("CREATE TYPE status AS ENUM ('Available', 'Pending', 'Deleted')");
+        jdbcTemplate.execute("CREATE TABLE resource (resource_id integer PRIMARY KEY, name character varying(255) NOT NULL,"
+                + " link character varying(255) NOT NULL, description character varying(200) NOT NULL,"
+                + " status status DEFAULT 'Available' NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE category (id integer PRIMARY KEY, name character varying(255) NOT NULL,"
+                + " description character varying(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE category_resource_reltn (resource_id integer, category_id integer,"
+                + " difficulty_level integer DEFAULT 1)");
+        jdbcTemplate.execute("CREATE TABLE user_interested_category (user_id character varying(8) NOT NULL,"
+                + " category_id integer NOT NULL, skill_level integer, interest_level integer,"
+                + " PRIMARY KEY (user_id, category_id))");
+        jdbcTemplate.execute("CREATE TABLE completed_user_resource (user_id character varying(8) NOT NULL,"
+                + " resource_id integer NOT NULL, completion_rating integer, completion_date bigint NOT NULL,"
+                + " PRIMARY KEY (user_id, resource_id))");
+        jdbcTemplate.execute("CREATE TABLE resource_rating_summary (resource_id integer PRIMARY KEY,"
+                + " rating_count integer DEFAULT 0 NOT NULL, rating_sum bigint DEFAULT 0 NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE resource_engagement (resource_id integer PRIMARY KEY,"
+                + " view_count bigint DEFAULT 0 NOT NULL, click_count bigint DEFAULT 0 NOT NULL)");
+        jdbcTemplate.update("INSERT INTO category SELECT i, 'Category ' || i, 'Description of category ' || i"
+                + " FROM generate_series(1, ?) AS i", CATEGORIES);
+        jdbcTemplate.update("INSERT INTO resource SELECT i, 'Resource ' || i, 'http://www.example.com/resources/' || i,"
+                + " 'Description of resource ' || i, 'Available' FROM generate_series(1, ?) AS i", resources);
+        jdbcTemplate.update("INSERT INTO category_resource_reltn SELECT i, 1 + i % ?, 1 + (i / ?) % 5"
+                + " FROM generate_series(1, ?) AS i", CATEGORIES, CATEGORIES, resources);
+        jdbcTemplate.update("INSERT INTO resource_rating_summary SELECT i, i % 7, (i % 7) * (1 + i % 5)"
+                + " FROM generate_series(1, ?) AS i", resources);
+        jdbcTemplate.update("INSERT INTO resource_engagement SELECT i, 10 * (i % 11), i % 11"
+                + " FROM generate_series(1, ?) AS i", resources);
+        jdbcTemplate.update("INSERT INTO user_interested_category SELECT 'U' || lpad(u::text, 7, '0'), c,"
+                + " 1 + (u + c) % 5, 3 + (u + c) % 3 FROM generate_series(1, ?) AS u, generate_series(1, ?) AS c"
+                + " WHERE ((c - u) % ? + ?) % ? < ?", USERS, CATEGORIES, CATEGORIES, CATEGORIES, CATEGORIES,
+                INTERESTED_CATEGORIES);
+        jdbcTemplate.update("INSERT INTO completed_user_resource SELECT 'U' || lpad(u::text, 7, '0'), r, NULL, 0"
+                + " FROM generate_series(1, ?) AS u, generate_series(1, ?) AS r WHERE (r * 31 + u) % 97 = 0",
+                USERS, resources);
+        jdbcTemplate.execute("CREATE INDEX category_resource_reltn_category_id_resource_id_idx ON category_resource_reltn"
+                + " (category_id, resource_id)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /**
+     * Builds the interests the table holds for each user, so the engine is
+     * asked about the same categories as the query.
+     */
+    private static List<List<UserInterestedCategory>> interests() {
+        List<List<UserInterestedCategory>> interests = new ArrayList<>(USERS);
+        for (int u = 1; u <= USERS; u++) {
+            List<UserInterestedCategory> userInterests = new ArrayList<>(INTERESTED_CATEGORIES);
+            for (int c = 1; c <= CATEGORIES; c++) {
+                if (((c - u) % CATEGORIES + CATEGORIES) % CATEGORIES < INTERESTED_CATEGORIES) {
+                    userInterests.add(new UserInterestedCategory(String.format("U%07d", u),
+                            new Category(c, "Category " + c, "Description of category " + c), 1 + (u + c) % 5,
+                            3 + (u + c) % 3));
+                }
+            }
+            interests.add(userInterests);
+        }
+        return interests;
+    }
+
+    private static String userId(int i) {
+        return String.format("U%07d", 1 + i % USERS);
+    }
+
+    private static void report(String mode, int reads, int threads, final Read read) throws Exception {
+        for (int i = 0; i < WARMUP_READS; i++) {
+            read.run(i);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final int readsPerThread = reads / threads;
+            List<Callable<long[]>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                final int firstRead = t * readsPerThread;
+                tasks.add(new Callable<long[]>() {
+                    @Override
+                    public long[] call() throws Exception {
+                        long[] latencies = new long[readsPerThread + 1];
+                        for (int i = 0; i < readsPerThread; i++) {
+                            long start = System.nanoTime();
+                            latencies[readsPerThread] += read.run(firstRead + i);
+                            latencies[i] = System.nanoTime() - start;
+                        }
+                        return latencies;
+                    }
+                });
+            }
+            long start = System.nanoTime();
+            List<Future<long[]>> results = executor.invokeAll(tasks);
+            long elapsed = System.nanoTime() - start;
+            long[] latencies = new long[readsPerThread * threads];
+            long resources = 0;
+            for (int t = 0; t < threads; t++) {
+                long[] threadLatencies = results.get(t).get();
+                System.arraycopy(threadLatencies, 0, latencies, t * readsPerThread, readsPerThread);
+                resources += threadLatencies[readsPerThread];
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%-6s %2d threads, %6d reads, %7.1f resources/read, %10.1f reads/s, p50 %8.3f ms,"
+                    + " p99 %8.3f ms, max %8.3f ms%n", mode, threads, latencies.length,
+                    resources / (double) latencies.length, latencies.length / (elapsed / 1000000000.0),
+                    toMillis(percentile(latencies, 50)), toMillis(percentile(latencies, 99)),
+                    toMillis(latencies[latencies.length - 1]));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)];
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+}
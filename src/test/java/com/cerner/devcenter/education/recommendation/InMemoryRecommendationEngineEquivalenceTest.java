@@ -0,0 +1,317 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.cerner.devcenter.education.dao.RecommendationCatalogDAOImpl;
+import com.cerner.devcenter.education.dao.UserRecommendedResourceDAOImpl;
+import com.cerner.devcenter.education.managers.UserInterestedCategoryManager;
+import com.cerner.devcenter.education.managers.UserRecommendedResourceManager;
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.UserInterestedCategory;
+import com.cerner.devcenter.education.models.UserRecommendedResource;
+
+/**
+ * Checks that the {@link InMemoryRecommendationEngine} recommends exactly what
+ * the recommendation query of {@link UserRecommendedResourceDAOImpl} does, on
+ * generated data with many rating ties, duplicate category resource
+ * relations, unavailable resources and completed resources, for several
+ * rating thresholds.
+ * <p>
+ * The test needs a PostgreSQL 9.5 or later database and is skipped unless one
+ * is given. Everything is created in a scratch schema which is dropped
+ * afterwards:
+ *
+ * <pre>
+ * mvn test -Dtest=InMemoryRecommendationEngineEquivalenceTest -Dtest.postgres.url=jdbc:postgresql://localhost:5432/continue_education -Dtest.postgres.user=postgres -Dtest.postgres.password=postgres
+ * </pre>
+ */
+public class InMemoryRecommendationEngineEquivalenceTest {
+
+    private static final String URL_PROPERTY = "test.postgres.url";
+    private static final String SCHEMA = "recommendation_engine_equivalence_test";
+    private static final long SEED = 42;
+    private static final int CATEGORIES = 20;
+    private static final int RESOURCES = 600;
+    private static final int USERS = 60;
+    private static final int MAXIMUM_PER_CATEGORY = 10;
+    private static final double[] MINIMUM_RATINGS_REQUIRED = { 0, 2.5, 3.0, 4.5 };
+    private static final int[] MINIMUM_NUMBERS_OF_RATINGS_REQUIRED = { 0, 1, 2 };
+
+    private static String url;
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static UserRecommendedResourceDAOImpl recommendedResourceDAO;
+    private static InMemoryRecommendationEngine engine;
+    private static final Map<String, List<UserInterestedCategory>> interestsByUser = new LinkedHashMap<>();
+
+    @BeforeClass
+    public static void createTables() throws Exception {
+        url = System.getProperty(URL_PROPERTY);
+        assumeTrue(StringUtils.isNotBlank(url));
+        dataSource = new SingleConnectionDataSource(url, System.getProperty("test.postgres.user"),
+                System.getProperty("test.postgres.password"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+        jdbcTemplate.execute("CREATE TYPE status AS ENUM ('Available', 'Pending', 'Deleted')");
+        jdbcTemplate.execute("CREATE TABLE resource (resource_id integer PRIMARY KEY, name character varying(255) NOT NULL,"
+                + " link character varying(255) NOT NULL, description character varying(200) NOT NULL,"
+                + " status status DEFAULT 'Available' NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE category (id integer PRIMARY KEY, name character varying(255) NOT NULL,"
+                + " description character varying(255) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE category_resource_reltn (resource_id integer, category_id integer,"
+                + " difficulty_level integer DEFAULT 1)");
+        jdbcTemplate.execute("CREATE TABLE user_interested_category (user_id character varying(8) NOT NULL,"
+                + " category_id integer NOT NULL, skill_level integer, interest_level integer,"
+                + " PRIMARY KEY (user_id, category_id))");
+        jdbcTemplate.execute("CREATE TABLE completed_user_resource (user_id character varying(8) NOT NULL,"
+                + " resource_id integer NOT NULL, completion_rating integer, completion_date bigint NOT NULL,"
+                + " PRIMARY KEY (user_id, resource_id))");
+        jdbcTemplate.execute("CREATE TABLE resource_rating_summary (resource_id integer PRIMARY KEY,"
+                + " rating_count integer DEFAULT 0 NOT NULL, rating_sum bigint DEFAULT 0 NOT NULL)");
+        generateData(new Random(SEED));
+
+        recommendedResourceDAO = new UserRecommendedResourceDAOImpl();
+        ReflectionTestUtils.setField(recommendedResourceDAO, "jdbcTemplate", jdbcTemplate);
+        final RecommendationCatalogDAOImpl catalogDAO = new RecommendationCatalogDAOImpl();
+        ReflectionTestUtils.setField(catalogDAO, "jdbcTemplate", jdbcTemplate);
+        final UserRecommendationCache recommendationCache = new UserRecommendationCache();
+        recommendationCache.init();
+        engine = new InMemoryRecommendationEngine();
+        engine.setCatalogDAO(catalogDAO);
+        engine.setRecommendationCache(recommendationCache);
+        engine.refresh();
+    }
+
+    @AfterClass
+    public static void dropTables() {
+        if (StringUtils.isBlank(url)) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    /**
+     * Verifies that the engine returns the rows of the recommendation query,
+     * in the same order, keeping the first rows of each category, for every
+     * user and rating threshold.
+     */
+    @Test
+    public void testSameResourcesAsQuery() throws Exception {
+        int comparedRows = 0;
+        for (final Map.Entry<String, List<UserInterestedCategory>> interests : interestsByUser.entrySet()) {
+            for (final double minimumRatingRequired : MINIMUM_RATINGS_REQUIRED) {
+                for (final int minimumNumberOfRatingsRequired : MINIMUM_NUMBERS_OF_RATINGS_REQUIRED) {
+                    final List<UserRecommendedResource> queried = recommendedResourceDAO
+                            .getRecommendedResourcesForTheUser(interests.getKey(), minimumRatingRequired,
+                                    minimumNumberOfRatingsRequired);
+                    for (final int maximumPerCategory : new int[] { MAXIMUM_PER_CATEGORY, Integer.MAX_VALUE }) {
+                        final List<String> expected = firstPerCategory(queried, maximumPerCategory);
+                        assertEquals(interests.getKey() + " " + minimumRatingRequired + " "
+                                + minimumNumberOfRatingsRequired, expected, describe(engine.getRecommendedResources(
+                                        interests.getKey(), interests.getValue(), minimumRatingRequired,
+                                        minimumNumberOfRatingsRequired, maximumPerCategory)));
+                        comparedRows += expected.size();
+                    }
+                }
+            }
+        }
+        assertTrue(comparedRows > 0);
+    }
+
+    /**
+     * Verifies that the weighted top ten of the
+     * {@link UserRecommendedResourceManager} is the same with and without the
+     * engine, also after resources are completed once the engine has loaded.
+     */
+    @Test
+    public void testSameTopTenAsQuery() throws Exception {
+        final UserInterestedCategoryManager interestManager = mock(UserInterestedCategoryManager.class);
+        for (final Map.Entry<String, List<UserInterestedCategory>> interests : interestsByUser.entrySet()) {
+            when(interestManager.getUserInterestedCategoriesById(interests.getKey())).thenReturn(interests.getValue());
+        }
+        compareTopTen(interestManager);
+
+        final Random random = new Random(SEED + 1);
+        for (final String userId : interestsByUser.keySet()) {
+            final List<UserRecommendedResource> recommended = newManager(interestManager, engine)
+                    .getRecommendedResourcesByUserId(userId, 0, 0);
+            if (!recommended.isEmpty() && random.nextBoolean()) {
+                final int resourceId = recommended.get(random.nextInt(recommended.size())).getResource()
+                        .getResourceId();
+                jdbcTemplate.update("INSERT INTO completed_user_resource VALUES (?, ?, NULL, 0)", userId, resourceId);
+                engine.resourceCompleted(userId, resourceId);
+            }
+        }
+        compareTopTen(interestManager);
+    }
+
+    private static void compareTopTen(final UserInterestedCategoryManager interestManager) throws Exception {
+        for (final String userId : interestsByUser.keySet()) {
+            for (final double minimumRatingRequired : MINIMUM_RATINGS_REQUIRED) {
+                for (final int minimumNumberOfRatingsRequired : MINIMUM_NUMBERS_OF_RATINGS_REQUIRED) {
+                    assertEquals(userId,
+                            describe(newManager(interestManager, null).getRecommendedResourcesByUserId(userId,
+                                    minimumRatingRequired, minimumNumberOfRatingsRequired)),
+                            describe(newManager(interestManager, engine).getRecommendedResourcesByUserId(userId,
+                                    minimumRatingRequired, minimumNumberOfRatingsRequired)));
+                }
+            }
+        }
+    }
+
+    private static UserRecommendedResourceManager newManager(
+            final UserInterestedCategoryManager interestManager,
+            final RecommendationEngine recommendationEngine) {
+        final UserRecommendationCache recommendationCache = new UserRecommendationCache();
+        recommendationCache.init();
+        final UserRecommendedResourceManager manager = new UserRecommendedResourceManager();
+        ReflectionTestUtils.setField(manager, "userRecommendedResourceDAO", recommendedResourceDAO);
+        ReflectionTestUtils.setField(manager, "userInterestedCategoryManager", interestManager);
+        ReflectionTestUtils.setField(manager, "recommendationCache", recommendationCache);
+        ReflectionTestUtils.setField(manager, "recommendationEngine", recommendationEngine);
+        return manager;
+    }
+
+    /**
+     * Generates categories and resources with few distinct average ratings,
+     * so ties are common, a tenth of them unavailable, some related to a
+     * category twice or without a difficulty level, and users with random
+     * skill and interest levels who have completed some of the resources.
+     */
+    private static void generateData(final Random random) throws Exception {
+        final List<Object[]> categories = new ArrayList<>();
+        final Category[] categoryById = new Category[CATEGORIES + 1];
+        for (int categoryId = 1; categoryId <= CATEGORIES; categoryId++) {
+            categoryById[categoryId] = new Category(categoryId, "Category " + categoryId,
+                    "Description of category " + categoryId);
+            categories.add(new Object[] { categoryId, categoryById[categoryId].getName(),
+                    categoryById[categoryId].getDescription() });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO category VALUES (?, ?, ?)", categories);
+
+        final List<Object[]> resources = new ArrayList<>();
+        final List<Object[]> relations = new ArrayList<>();
+        final List<Object[]> ratingSummaries = new ArrayList<>();
+        for (int resourceId = 1; resourceId <= RESOURCES; resourceId++) {
+            resources.add(new Object[] { resourceId, "Resource " + resourceId,
+                    new URL("http://www.example.com/resources/" + resourceId).toString(),
+                    "Description of resource " + resourceId, random.nextInt(10) == 0 ? "Pending" : "Available" });
+            final int relatedCategories = 1 + random.nextInt(2);
+            for (int relation = 0; relation < relatedCategories; relation++) {
+                final int categoryId = 1 + random.nextInt(CATEGORIES);
+                final int difficultyLevel = 1 + random.nextInt(5);
+                relations.add(new Object[] { resourceId, categoryId,
+                        random.nextInt(50) == 0 ? null : difficultyLevel });
+                if (random.nextInt(20) == 0) {
+                    relations.add(new Object[] { resourceId, categoryId,
+                            random.nextBoolean() ? difficultyLevel : 1 + random.nextInt(5) });
+                }
+            }
+            final int ratingCount = random.nextInt(5);
+            if (ratingCount > 0 || random.nextBoolean()) {
+                long ratingSum = 0;
+                for (int rating = 0; rating < ratingCount; rating++) {
+                    ratingSum += 1 + random.nextInt(5);
+                }
+                ratingSummaries.add(new Object[] { resourceId, ratingCount, ratingSum });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO resource VALUES (?, ?, ?, ?, ?::status)", resources);
+        jdbcTemplate.batchUpdate("INSERT INTO category_resource_reltn VALUES (?, ?, ?)", relations);
+        jdbcTemplate.batchUpdate("INSERT INTO resource_rating_summary VALUES (?, ?, ?)", ratingSummaries);
+
+        final List<Object[]> interests = new ArrayList<>();
+        final List<Object[]> completions = new ArrayList<>();
+        for (int user = 1; user <= USERS; user++) {
+            final String userId = String.format("U%07d", user);
+            final List<UserInterestedCategory> userInterests = new ArrayList<>();
+            final Set<Integer> interestedCategoryIds = new HashSet<>();
+            final int interestedCategories = 1 + random.nextInt(6);
+            for (int interest = 0; interest < interestedCategories; interest++) {
+                final int categoryId = 1 + random.nextInt(CATEGORIES);
+                if (interestedCategoryIds.add(categoryId)) {
+                    final int skillLevel = 1 + random.nextInt(5);
+                    final int interestLevel = 1 + random.nextInt(5);
+                    userInterests.add(new UserInterestedCategory(userId, categoryById[categoryId], skillLevel,
+                            interestLevel));
+                    interests.add(new Object[] { userId, categoryId, skillLevel, interestLevel });
+                }
+            }
+            interestsByUser.put(userId, userInterests);
+            final Set<Integer> completedResourceIds = new HashSet<>();
+            final int completed = random.nextInt(40);
+            for (int completion = 0; completion < completed; completion++) {
+                final int resourceId = 1 + random.nextInt(RESOURCES);
+                if (completedResourceIds.add(resourceId)) {
+                    completions.add(new Object[] { userId, resourceId });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_interested_category VALUES (?, ?, ?, ?)", interests);
+        jdbcTemplate.batchUpdate("INSERT INTO completed_user_resource VALUES (?, ?, NULL, 0)", completions);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /**
+     * Keeps the first rows of each category of the query result, grouping the
+     * categories in the order of their first row as the manager does.
+     */
+    private static List<String> firstPerCategory(
+            final List<UserRecommendedResource> rows,
+            final int maximumPerCategory) {
+        final Map<Integer, List<UserRecommendedResource>> rowsByCategory = new LinkedHashMap<>();
+        for (final UserRecommendedResource row : rows) {
+            List<UserRecommendedResource> categoryRows = rowsByCategory.get(row.getCategory().getId());
+            if (categoryRows == null) {
+                categoryRows = new ArrayList<>();
+                rowsByCategory.put(row.getCategory().getId(), categoryRows);
+            }
+            if (categoryRows.size() < maximumPerCategory) {
+                categoryRows.add(row);
+            }
+        }
+        final List<UserRecommendedResource> firstRows = new ArrayList<>();
+        for (final List<UserRecommendedResource> categoryRows : rowsByCategory.values()) {
+            firstRows.addAll(categoryRows);
+        }
+        return describe(firstRows);
+    }
+
+    private static List<String> describe(final List<UserRecommendedResource> rows) {
+        final List<String> descriptions = new ArrayList<>();
+        for (final UserRecommendedResource row : rows) {
+            descriptions.add(row.getResource().getResourceId() + "/" + row.getResource().getResourceName() + "/"
+                    + row.getResource().getResourceLink() + " in " + row.getCategory().getId() + "/"
+                    + row.getCategory().getName() + " at " + row.getDifficultyLevel() + " with "
+                    + row.getInterestLevel());
+        }
+        return descriptions;
+    }
+}
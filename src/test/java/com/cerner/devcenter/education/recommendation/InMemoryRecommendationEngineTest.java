@@ -0,0 +1,452 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.RecommendationCatalogDAO;
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.RecommendableResource;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.UserInterestedCategory;
+import com.cerner.devcenter.education.models.UserRecommendedResource;
+import com.google.common.base.Ticker;
+
+/**
+ * Tests {@link InMemoryRecommendationEngine} functionality.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class InMemoryRecommendationEngineTest {
+
+    private static final String USER_ID = "AB012345";
+    private static final double MINIMUM_RATING_REQUIRED = 3.0;
+    private static final int MINIMUM_NUMBER_OF_RATINGS_REQUIRED = 2;
+    private static final int MAXIMUM_PER_CATEGORY = 10;
+    private static final long RECONCILE_PERIOD_MILLIS = 600000;
+    private static final Category JAVA = new Category(1, "Java", "Fundamentals of Java.");
+    private static final Category SPRING = new Category(2, "Spring", "Dependency injection.");
+    private static final Category DOCKER = new Category(3, "Docker", "Containers.");
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private RecommendationCatalogDAO catalogDAO;
+    @Mock
+    private UserRecommendationCache recommendationCache;
+
+    private ManualTicker ticker;
+    private InMemoryRecommendationEngine engine;
+    private List<RecommendableResource> catalog;
+    private Map<String, BitSet> completedResourceIdsByUser;
+
+    @Before
+    public void setUp() throws DAOException {
+        engine = new InMemoryRecommendationEngine();
+        engine.setCatalogDAO(catalogDAO);
+        engine.setRecommendationCache(recommendationCache);
+        ticker = new ManualTicker();
+        engine.setTicker(ticker);
+        engine.setReconcilePeriodMillis(RECONCILE_PERIOD_MILLIS);
+        catalog = new ArrayList<>();
+        completedResourceIdsByUser = new HashMap<>();
+        when(catalogDAO.getRecommendableResources()).thenReturn(catalog);
+        when(catalogDAO.getCompletedResourceIdsByUser()).thenReturn(completedResourceIdsByUser);
+    }
+
+    /**
+     * Expects {@link IllegalStateException} when recommendations are asked
+     * for before the catalog has been loaded.
+     */
+    @Test
+    public void testGetRecommendedResourcesBeforeRefresh() {
+        assertFalse(engine.isReady());
+        expectedException.expect(IllegalStateException.class);
+        getRecommendedResources(interest(JAVA, 2, 5));
+    }
+
+    /**
+     * Verifies that the resources within one difficulty level of the skill
+     * level are ranked by average rating, unrated after rated and resources
+     * rated below the minimum rating last.
+     */
+    @Test
+    public void testRanksResourcesWithinSkillWindow() throws DAOException {
+        catalog.add(row(1, JAVA, 1, 2, 8));
+        catalog.add(row(2, JAVA, 2, 2, 10));
+        catalog.add(row(3, JAVA, 3, 0, 0));
+        catalog.add(row(4, JAVA, 4, 2, 10));
+        catalog.add(row(5, JAVA, 2, 5, 10));
+        catalog.add(row(6, JAVA, 3, 1, 1));
+        engine.refresh();
+        assertTrue(engine.isReady());
+        assertEquals(Arrays.asList(2, 1, 6, 3, 5), resourceIds(getRecommendedResources(interest(JAVA, 2, 5))));
+    }
+
+    /**
+     * Verifies that resources with the same average rating are ranked by id,
+     * and a resource related to the category at two difficulty levels of the
+     * window is returned once per level, lowest level first.
+     */
+    @Test
+    public void testRanksTiesByIdAndDifficultyLevel() throws DAOException {
+        catalog.add(row(9, JAVA, 2, 2, 8));
+        catalog.add(row(4, JAVA, 3, 1, 4));
+        catalog.add(row(4, JAVA, 1, 1, 4));
+        catalog.add(row(4, JAVA, 1, 1, 4));
+        engine.refresh();
+        final List<UserRecommendedResource> recommended = getRecommendedResources(interest(JAVA, 2, 5));
+        assertEquals(Arrays.asList(4, 4, 9), resourceIds(recommended));
+        assertEquals(1, recommended.get(0).getDifficultyLevel());
+        assertEquals(3, recommended.get(1).getDifficultyLevel());
+        assertEquals(5, recommended.get(2).getInterestLevel());
+    }
+
+    /**
+     * Verifies that resources and categories with the same average rating are
+     * ranked by click count, most clicked first, before their id.
+     */
+    @Test
+    public void testRanksTiesByClickCount() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 2, 8, 5));
+        catalog.add(row(2, JAVA, 2, 2, 8, 9));
+        catalog.add(row(3, JAVA, 2, 0, 0, 20));
+        catalog.add(row(4, SPRING, 2, 2, 8, 12));
+        engine.refresh();
+        assertEquals(Arrays.asList(2, 1, 3), resourceIds(getRecommendedResources(interest(JAVA, 2, 5))));
+        assertEquals(Arrays.asList(4, 2, 1, 3), resourceIds(getRecommendedResources(
+                interest(JAVA, 2, 5), interest(SPRING, 2, 5))));
+    }
+
+    /**
+     * Verifies that the completed resources loaded with the catalog and the
+     * ones completed afterwards are not recommended.
+     */
+    @Test
+    public void testExcludesCompletedResources() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 0, 0));
+        catalog.add(row(2, JAVA, 2, 0, 0));
+        catalog.add(row(3, JAVA, 2, 0, 0));
+        final BitSet completed = new BitSet();
+        completed.set(1);
+        completedResourceIdsByUser.put(USER_ID, completed);
+        engine.refresh();
+        engine.resourceCompleted(USER_ID, 3);
+        assertEquals(Arrays.asList(2), resourceIds(getRecommendedResources(interest(JAVA, 2, 5))));
+        assertTrue(completed.get(1));
+        assertFalse(completed.get(3));
+    }
+
+    /**
+     * Verifies that a resource completed while the completed resources of
+     * every user are being read is still excluded once they are replaced.
+     */
+    @Test
+    public void testKeepsResourcesCompletedDuringRefresh() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 0, 0));
+        catalog.add(row(2, JAVA, 2, 0, 0));
+        engine.refresh();
+        ticker.advance(RECONCILE_PERIOD_MILLIS);
+        when(catalogDAO.getCompletedResourceIdsByUser()).thenAnswer(new Answer<Map<String, BitSet>>() {
+            @Override
+            public Map<String, BitSet> answer(final InvocationOnMock invocation) {
+                engine.resourceCompleted(USER_ID, 2);
+                return new HashMap<>();
+            }
+        });
+        engine.refresh();
+        assertEquals(Arrays.asList(1), resourceIds(getRecommendedResources(interest(JAVA, 2, 5))));
+    }
+
+    /**
+     * Verifies that a refresh within the reconcile period only reads the
+     * completions made since the previous read, and adds them without
+     * changing the published completed resources.
+     */
+    @Test
+    public void testRefreshReadsOnlyNewCompletions() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 0, 0));
+        catalog.add(row(2, JAVA, 2, 0, 0));
+        catalog.add(row(3, JAVA, 2, 0, 0));
+        final BitSet completed = new BitSet();
+        completed.set(1);
+        completedResourceIdsByUser.put(USER_ID, completed);
+        engine.refresh();
+        final BitSet newCompletions = new BitSet();
+        newCompletions.set(2);
+        when(catalogDAO.getCompletedResourceIdsByUserSince(anyLong()))
+                .thenReturn(Collections.singletonMap(USER_ID, newCompletions));
+        engine.refresh();
+        assertEquals(Arrays.asList(3), resourceIds(getRecommendedResources(interest(JAVA, 2, 5))));
+        verify(catalogDAO, times(1)).getCompletedResourceIdsByUser();
+        verify(catalogDAO, times(1)).getCompletedResourceIdsByUserSince(anyLong());
+        assertFalse(completed.get(2));
+        final RecommendationEngineMetrics metrics = engine.getMetrics();
+        assertEquals(2, metrics.getRefreshCount());
+        assertEquals(1, metrics.getReconcileCount());
+    }
+
+    /**
+     * Verifies that the completed resources of every user are read again once
+     * the reconcile period has passed, dropping the ones no longer in the
+     * database.
+     */
+    @Test
+    public void testRefreshReconcilesCompletionsAfterReconcilePeriod() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 0, 0));
+        catalog.add(row(2, JAVA, 2, 0, 0));
+        final BitSet completed = new BitSet();
+        completed.set(1);
+        completedResourceIdsByUser.put(USER_ID, completed);
+        engine.refresh();
+        completedResourceIdsByUser.clear();
+        ticker.advance(RECONCILE_PERIOD_MILLIS - 1);
+        engine.refresh();
+        assertEquals(Arrays.asList(2), resourceIds(getRecommendedResources(interest(JAVA, 2, 5))));
+        ticker.advance(1);
+        engine.refresh();
+        assertEquals(Arrays.asList(1, 2), resourceIds(getRecommendedResources(interest(JAVA, 2, 5))));
+        verify(catalogDAO, times(2)).getCompletedResourceIdsByUser();
+        assertEquals(2, engine.getMetrics().getReconcileCount());
+    }
+
+    /**
+     * Verifies that categories are ordered by interest level, then by their
+     * best resource, then by id, and that categories the user is barely
+     * interested in or that have no resources in the window are left out.
+     */
+    @Test
+    public void testOrdersCategories() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 2, 6));
+        catalog.add(row(2, SPRING, 2, 2, 10));
+        catalog.add(row(3, DOCKER, 2, 2, 10));
+        catalog.add(row(4, DOCKER, 5, 2, 10));
+        engine.refresh();
+        assertEquals(Arrays.asList(3, 2, 1), resourceIds(getRecommendedResources(
+                interest(JAVA, 2, 4), interest(SPRING, 2, 4), interest(DOCKER, 2, 5))));
+        assertEquals(Arrays.asList(2, 3), resourceIds(getRecommendedResources(
+                interest(DOCKER, 2, 4), interest(SPRING, 2, 4), interest(JAVA, 2, 2))));
+        assertEquals(Collections.emptyList(), getRecommendedResources(interest(JAVA, 5, 5)));
+    }
+
+    /**
+     * Verifies that no more than the maximum number of resources is returned
+     * per category.
+     */
+    @Test
+    public void testLimitsResourcesPerCategory() throws DAOException {
+        for (int resourceId = 1; resourceId <= 5; resourceId++) {
+            catalog.add(row(resourceId, JAVA, 2, 0, 0));
+            catalog.add(row(10 + resourceId, SPRING, 2, 0, 0));
+        }
+        engine.refresh();
+        assertEquals(Arrays.asList(11, 12, 1, 2), resourceIds(engine.getRecommendedResources(USER_ID,
+                Arrays.asList(interest(JAVA, 2, 3), interest(SPRING, 2, 4)), MINIMUM_RATING_REQUIRED,
+                MINIMUM_NUMBER_OF_RATINGS_REQUIRED, 2)));
+    }
+
+    /**
+     * Verifies that the cached recommendations are only dropped when a
+     * refresh finds a changed catalog.
+     */
+    @Test
+    public void testRefreshInvalidatesCacheWhenCatalogChanges() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 2, 8));
+        engine.refresh();
+        engine.refresh();
+        verify(recommendationCache, never()).invalidateAll();
+        catalog.set(0, row(1, JAVA, 2, 3, 9));
+        engine.refresh();
+        verify(recommendationCache, times(1)).invalidateAll();
+        assertEquals(3, engine.getMetrics().getRefreshCount());
+    }
+
+    /**
+     * Verifies that the cached recommendations are kept when only click
+     * counts changed.
+     */
+    @Test
+    public void testRefreshKeepsCacheWhenOnlyClickCountsChange() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 2, 8, 1));
+        engine.refresh();
+        catalog.set(0, row(1, JAVA, 2, 2, 8, 40));
+        engine.refresh();
+        verify(recommendationCache, never()).invalidateAll();
+    }
+
+    /**
+     * Verifies that a failed refresh keeps the previous catalog and is
+     * counted.
+     */
+    @Test
+    public void testFailedRefreshKeepsCatalog() throws DAOException {
+        catalog.add(row(1, JAVA, 2, 0, 0));
+        engine.refresh();
+        final DAOException daoException = new DAOException("Error");
+        when(catalogDAO.getRecommendableResources()).thenThrow(daoException);
+        try {
+            engine.refresh();
+            fail();
+        } catch (final DAOException expected) {
+            assertEquals(daoException, expected);
+        }
+        assertTrue(engine.isReady());
+        assertEquals(Arrays.asList(1), resourceIds(getRecommendedResources(interest(JAVA, 2, 5))));
+        final RecommendationEngineMetrics metrics = engine.getMetrics();
+        assertEquals(1, metrics.getRefreshCount());
+        assertEquals(1, metrics.getRefreshFailureCount());
+        assertEquals(1, metrics.getRequestCount());
+        assertEquals(1, metrics.getResourceCount());
+    }
+
+    /**
+     * Verifies that a disabled engine never loads the catalog.
+     */
+    @Test
+    public void testInitWhenDisabled() {
+        engine.setEnabled(false);
+        engine.init();
+        engine.close();
+        assertFalse(engine.isReady());
+        assertFalse(engine.getMetrics().isEnabled());
+        verifyZeroInteractions(catalogDAO);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the engine is initialized
+     * without a catalog DAO.
+     */
+    @Test
+    public void testInitWithoutCatalogDAO() {
+        expectedException.expect(IllegalArgumentException.class);
+        new InMemoryRecommendationEngine().init();
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the user id is blank.
+     */
+    @Test
+    public void testGetRecommendedResourcesWithBlankUserId() {
+        expectedException.expect(IllegalArgumentException.class);
+        engine.getRecommendedResources(" ", Collections.<UserInterestedCategory> emptyList(),
+                MINIMUM_RATING_REQUIRED, MINIMUM_NUMBER_OF_RATINGS_REQUIRED, MAXIMUM_PER_CATEGORY);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when a completed resource id is
+     * negative.
+     */
+    @Test
+    public void testResourceCompletedWithNegativeResourceId() {
+        expectedException.expect(IllegalArgumentException.class);
+        engine.resourceCompleted(USER_ID, -1);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the reconcile period is
+     * not positive.
+     */
+    @Test
+    public void testSetReconcilePeriodMillisWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        engine.setReconcilePeriodMillis(0);
+    }
+
+    /**
+     * Verifies the order of average ratings, compared exactly.
+     */
+    @Test
+    public void testCompareAverageRatings() {
+        assertTrue(InMemoryRecommendationEngine.compareAverageRatings(3, 10, 2, 6) < 0);
+        assertTrue(InMemoryRecommendationEngine.compareAverageRatings(2, 6, 3, 10) > 0);
+        assertEquals(0, InMemoryRecommendationEngine.compareAverageRatings(2, 8, 4, 16));
+        assertTrue(InMemoryRecommendationEngine.compareAverageRatings(1, 1, 0, 0) < 0);
+        assertTrue(InMemoryRecommendationEngine.compareAverageRatings(0, 0, 1, 1) > 0);
+        assertEquals(0, InMemoryRecommendationEngine.compareAverageRatings(0, 0, 0, 0));
+    }
+
+    private List<UserRecommendedResource> getRecommendedResources(final UserInterestedCategory... interests) {
+        return engine.getRecommendedResources(USER_ID, Arrays.asList(interests), MINIMUM_RATING_REQUIRED,
+                MINIMUM_NUMBER_OF_RATINGS_REQUIRED, MAXIMUM_PER_CATEGORY);
+    }
+
+    private static UserInterestedCategory interest(final Category category, final int skillLevel,
+            final int interestLevel) {
+        return new UserInterestedCategory(USER_ID, category, skillLevel, interestLevel);
+    }
+
+    private static RecommendableResource row(
+            final int resourceId,
+            final Category category,
+            final int difficultyLevel,
+            final int ratingCount,
+            final long ratingSum) {
+        return row(resourceId, category, difficultyLevel, ratingCount, ratingSum, 0);
+    }
+
+    private static RecommendableResource row(
+            final int resourceId,
+            final Category category,
+            final int difficultyLevel,
+            final int ratingCount,
+            final long ratingSum,
+            final long clickCount) {
+        try {
+            final Resource resource = new Resource(resourceId, new URL("http://www.example.com/" + resourceId),
+                    "Description " + resourceId, "Resource " + resourceId);
+            return new RecommendableResource(resource, category, difficultyLevel, ratingCount, ratingSum,
+                    clickCount);
+        } catch (final MalformedURLException malformedURLException) {
+            throw new IllegalStateException(malformedURLException);
+        }
+    }
+
+    private static List<Integer> resourceIds(final List<UserRecommendedResource> recommendedResources) {
+        final List<Integer> resourceIds = new ArrayList<>();
+        for (final UserRecommendedResource recommendedResource : recommendedResources) {
+            resourceIds.add(recommendedResource.getResource().getResourceId());
+        }
+        return resourceIds;
+    }
+
+    private static final class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        private void advance(final long millis) {
+            nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
+import com.cerner.devcenter.education.dao.ResourceRatingSummaryDAO;
+
+/**
+ * Tests {@link RatingSummaryReconciler} functionality.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class RatingSummaryReconcilerTest {
+
+    private static final int DRIFTED_RESOURCE_ID = 3;
+    private static final int ANOTHER_DRIFTED_RESOURCE_ID = 8;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private ResourceRatingSummaryDAO ratingSummaryDAO;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private UserRecommendationCache recommendationCache;
+
+    private RatingSummaryReconciler reconciler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        reconciler = new RatingSummaryReconciler();
+        reconciler.setRatingSummaryDAO(ratingSummaryDAO);
+        reconciler.setTransactionTemplate(transactionTemplate);
+        reconciler.setRecommendationCache(recommendationCache);
+        when(transactionTemplate.execute(any(TransactionCallback.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                return ((TransactionCallback<?>) invocation.getArguments()[0]).doInTransaction(null);
+            }
+        });
+    }
+
+    /**
+     * Verifies that nothing is rebuilt when no summary has drifted.
+     */
+    @Test
+    public void testReconcileWithoutDrift() throws DAOException {
+        when(ratingSummaryDAO.getResourceIdsWithDriftedRatingSummary()).thenReturn(Collections.<Integer> emptyList());
+        assertEquals(0, reconciler.reconcile());
+        verify(ratingSummaryDAO, never()).rebuildRatingSummaries();
+        verify(recommendationCache, never()).invalidateResource(anyInt());
+    }
+
+    /**
+     * Verifies that drifted summaries are rebuilt and the cached
+     * recommendations containing them are dropped.
+     */
+    @Test
+    public void testReconcileWithDrift() throws DAOException {
+        when(ratingSummaryDAO.getResourceIdsWithDriftedRatingSummary())
+                .thenReturn(Arrays.asList(DRIFTED_RESOURCE_ID, ANOTHER_DRIFTED_RESOURCE_ID));
+        when(ratingSummaryDAO.rebuildRatingSummaries()).thenReturn(2);
+        assertEquals(2, reconciler.reconcile());
+        verify(ratingSummaryDAO).rebuildRatingSummaries();
+        verify(recommendationCache).invalidateResource(DRIFTED_RESOURCE_ID);
+        verify(recommendationCache).invalidateResource(ANOTHER_DRIFTED_RESOURCE_ID);
+    }
+
+    /**
+     * Verifies that a failed rebuild is reported as a {@link ManagerException}
+     * and leaves the cache untouched.
+     */
+    @Test
+    public void testReconcileWhenRebuildFails() throws DAOException {
+        expectedException.expect(ManagerException.class);
+        when(ratingSummaryDAO.getResourceIdsWithDriftedRatingSummary()).thenReturn(Arrays.asList(DRIFTED_RESOURCE_ID));
+        when(ratingSummaryDAO.rebuildRatingSummaries()).thenThrow(new DAOException());
+        try {
+            reconciler.reconcile();
+        } finally {
+            verify(recommendationCache, never()).invalidateResource(anyInt());
+        }
+    }
+
+    /**
+     * Tests {@link RatingSummaryReconciler#init()} when a collaborator is
+     * missing.
+     */
+    @Test
+    public void testInitWithoutCollaborators() {
+        expectedException.expect(IllegalArgumentException.class);
+        new RatingSummaryReconciler().init();
+    }
+
+    /**
+     * Tests {@link RatingSummaryReconciler#setPeriodMillis(long)} when the
+     * period is not positive.
+     */
+    @Test
+    public void testSetPeriodMillisWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        reconciler.setPeriodMillis(0);
+    }
+}
@@ -0,0 +1,280 @@
+package com.cerner.devcenter.education.recommendation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.UserRecommendedResource;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache.Loader;
+import com.cerner.devcenter.education.recommendation.UserRecommendationCache.Recommendations;
+
+/**
+ * Tests {@link UserRecommendationCache} functionality.
+ */
+public class UserRecommendationCacheTest {
+
+    private static final String VALID_USER_ID = "TU001";
+    private static final String ANOTHER_VALID_USER_ID = "TU002";
+    private static final double MINIMUM_RATING_REQUIRED = 3.0;
+    private static final int MINIMUM_NUMBER_OF_RATINGS_REQUIRED = 5;
+    private static final int VALID_CATEGORY_ID = 1;
+    private static final int ANOTHER_VALID_CATEGORY_ID = 2;
+    private static final int VALID_RESOURCE_ID = 10;
+    private static final int ANOTHER_VALID_RESOURCE_ID = 20;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private UserRecommendationCache cache;
+    private CountingLoader loader;
+    private CountingLoader anotherLoader;
+
+    @Before
+    public void setUp() throws MalformedURLException {
+        cache = new UserRecommendationCache();
+        cache.init();
+        loader = new CountingLoader(new Recommendations(
+                Arrays.asList(createRecommendedResource(VALID_RESOURCE_ID, VALID_CATEGORY_ID)),
+                Arrays.asList(VALID_CATEGORY_ID)));
+        anotherLoader = new CountingLoader(new Recommendations(
+                Arrays.asList(createRecommendedResource(ANOTHER_VALID_RESOURCE_ID, ANOTHER_VALID_CATEGORY_ID)),
+                Arrays.asList(ANOTHER_VALID_CATEGORY_ID)));
+    }
+
+    /**
+     * Verifies that the second request for the same thresholds is answered
+     * from the cache.
+     */
+    @Test
+    public void testGetCachesRecommendations() {
+        final List<UserRecommendedResource> first = get(VALID_USER_ID, loader);
+        assertSame(first, get(VALID_USER_ID, loader));
+        assertEquals(1, loader.loadCount);
+        assertEquals(1, cache.getMetrics().getHitCount());
+        assertEquals(1, cache.getMetrics().getMissCount());
+        assertEquals(0.5, cache.getMetrics().getHitRatio(), 0);
+        assertEquals(1, cache.getMetrics().getRecomputeLatency().getCount());
+        assertEquals(1, cache.getMetrics().getSize());
+    }
+
+    /**
+     * Verifies that recommendations computed with different thresholds are
+     * recomputed.
+     */
+    @Test
+    public void testGetWithDifferentThresholdsRecomputes() {
+        get(VALID_USER_ID, loader);
+        cache.get(VALID_USER_ID, MINIMUM_RATING_REQUIRED + 1, MINIMUM_NUMBER_OF_RATINGS_REQUIRED, loader);
+        cache.get(VALID_USER_ID, MINIMUM_RATING_REQUIRED + 1, MINIMUM_NUMBER_OF_RATINGS_REQUIRED + 1, loader);
+        assertEquals(3, loader.loadCount);
+    }
+
+    /**
+     * Verifies that invalidating a user only drops that user's
+     * recommendations.
+     */
+    @Test
+    public void testInvalidateUser() {
+        get(VALID_USER_ID, loader);
+        get(ANOTHER_VALID_USER_ID, anotherLoader);
+        cache.invalidateUser(VALID_USER_ID);
+        get(VALID_USER_ID, loader);
+        get(ANOTHER_VALID_USER_ID, anotherLoader);
+        assertEquals(2, loader.loadCount);
+        assertEquals(1, anotherLoader.loadCount);
+        assertEquals(1, cache.getMetrics().getInvalidationCount());
+    }
+
+    /**
+     * Verifies that invalidating a category drops the recommendations of the
+     * users interested in it.
+     */
+    @Test
+    public void testInvalidateCategories() {
+        get(VALID_USER_ID, loader);
+        get(ANOTHER_VALID_USER_ID, anotherLoader);
+        cache.invalidateCategories(Arrays.asList(ANOTHER_VALID_CATEGORY_ID));
+        get(VALID_USER_ID, loader);
+        get(ANOTHER_VALID_USER_ID, anotherLoader);
+        assertEquals(1, loader.loadCount);
+        assertEquals(2, anotherLoader.loadCount);
+    }
+
+    /**
+     * Verifies that invalidating a resource drops the recommendations it is
+     * part of.
+     */
+    @Test
+    public void testInvalidateResource() {
+        get(VALID_USER_ID, loader);
+        get(ANOTHER_VALID_USER_ID, anotherLoader);
+        cache.invalidateResource(VALID_RESOURCE_ID);
+        get(VALID_USER_ID, loader);
+        get(ANOTHER_VALID_USER_ID, anotherLoader);
+        assertEquals(2, loader.loadCount);
+        assertEquals(1, anotherLoader.loadCount);
+    }
+
+    /**
+     * Verifies that a category or resource of a user's earlier
+     * recommendations no longer drops the recommendations that replaced them.
+     */
+    @Test
+    public void testInvalidateResourceAfterRecommendationsChanged() {
+        get(VALID_USER_ID, loader);
+        cache.invalidateUser(VALID_USER_ID);
+        get(VALID_USER_ID, anotherLoader);
+        cache.invalidateResource(VALID_RESOURCE_ID);
+        cache.invalidateCategories(Arrays.asList(VALID_CATEGORY_ID));
+        get(VALID_USER_ID, anotherLoader);
+        assertEquals(1, anotherLoader.loadCount);
+        assertEquals(1, cache.getMetrics().getHitCount());
+    }
+
+    /**
+     * Verifies that invalidating the whole cache drops every user's
+     * recommendations.
+     */
+    @Test
+    public void testInvalidateAll() {
+        get(VALID_USER_ID, loader);
+        get(ANOTHER_VALID_USER_ID, anotherLoader);
+        cache.invalidateAll();
+        assertEquals(0, cache.getMetrics().getSize());
+    }
+
+    /**
+     * Verifies that recommendations computed while an invalidation happens are
+     * returned but not cached.
+     */
+    @Test
+    public void testInvalidationDuringLoadIsNotCached() {
+        final Loader invalidatingLoader = new Loader() {
+            @Override
+            public Recommendations load() {
+                cache.invalidateCategories(Arrays.asList(VALID_CATEGORY_ID));
+                return loader.load();
+            }
+        };
+        assertEquals(1, get(VALID_USER_ID, invalidatingLoader).size());
+        get(VALID_USER_ID, loader);
+        assertEquals(2, loader.loadCount);
+    }
+
+    /**
+     * Verifies that the cached recommendations cannot be modified.
+     */
+    @Test
+    public void testGetReturnsUnmodifiableList() {
+        expectedException.expect(UnsupportedOperationException.class);
+        get(VALID_USER_ID, loader).clear();
+    }
+
+    /**
+     * Tests {@link UserRecommendationCache#get(String, double, int, Loader)}
+     * when the user id is blank.
+     */
+    @Test
+    public void testGetWithBlankUserId() {
+        expectedException.expect(IllegalArgumentException.class);
+        get("  ", loader);
+    }
+
+    /**
+     * Tests {@link UserRecommendationCache#get(String, double, int, Loader)}
+     * when the loader is null.
+     */
+    @Test
+    public void testGetWithNullLoader() {
+        expectedException.expect(IllegalArgumentException.class);
+        get(VALID_USER_ID, null);
+    }
+
+    /**
+     * Tests {@link UserRecommendationCache#get(String, double, int, Loader)}
+     * before the cache is initialized.
+     */
+    @Test
+    public void testGetBeforeInit() {
+        expectedException.expect(IllegalStateException.class);
+        new UserRecommendationCache().get(VALID_USER_ID, MINIMUM_RATING_REQUIRED, MINIMUM_NUMBER_OF_RATINGS_REQUIRED,
+                loader);
+    }
+
+    /**
+     * Tests {@link UserRecommendationCache#invalidateCategories(java.util.Collection)}
+     * when the category ids are null.
+     */
+    @Test
+    public void testInvalidateCategoriesWithNullIds() {
+        expectedException.expect(IllegalArgumentException.class);
+        cache.invalidateCategories(null);
+    }
+
+    /**
+     * Tests {@link UserRecommendationCache#setTimeToLiveSeconds(long)} when
+     * the time to live is not positive.
+     */
+    @Test
+    public void testSetTimeToLiveSecondsWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        new UserRecommendationCache().setTimeToLiveSeconds(0);
+    }
+
+    /**
+     * Tests {@link UserRecommendationCache#setMaximumEntries(int)} when the
+     * maximum is not positive.
+     */
+    @Test
+    public void testSetMaximumEntriesWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        new UserRecommendationCache().setMaximumEntries(0);
+    }
+
+    /**
+     * Tests {@link Recommendations} when the resources are null.
+     */
+    @Test
+    public void testRecommendationsWithNullResources() {
+        expectedException.expect(IllegalArgumentException.class);
+        new Recommendations(null, Collections.<Integer> emptyList());
+    }
+
+    private List<UserRecommendedResource> get(final String userId, final Loader loader) {
+        return cache.get(userId, MINIMUM_RATING_REQUIRED, MINIMUM_NUMBER_OF_RATINGS_REQUIRED, loader);
+    }
+
+    private static UserRecommendedResource createRecommendedResource(final int resourceId, final int categoryId)
+            throws MalformedURLException {
+        final Resource resource = new Resource(resourceId, new URL("http://www.example.com"), "Description", "Name");
+        final Category category = new Category(categoryId, "Category", "Category description");
+        return new UserRecommendedResource(resource, category, 1, 1);
+    }
+
+    private static final class CountingLoader implements Loader {
+        private final Recommendations recommendations;
+        private int loadCount;
+
+        private CountingLoader(final Recommendations recommendations) {
+            this.recommendations = recommendations;
+        }
+
+        @Override
+        public Recommendations load() {
+            loadCount++;
+            return recommendations;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.cerner.devcenter.education.reference;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cerner.devcenter.education.admin.CategoryDifficultySummaryDAO;
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
+
+/**
+ * Tests {@link CategorySummaryReconciler} functionality.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CategorySummaryReconcilerTest {
+
+    private static final int DRIFTED_CATEGORY_ID = 2;
+    private static final int ANOTHER_DRIFTED_CATEGORY_ID = 6;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private CategoryDifficultySummaryDAO difficultySummaryDAO;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ReferenceDataStore referenceData;
+
+    private CategorySummaryReconciler reconciler;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        reconciler = new CategorySummaryReconciler();
+        reconciler.setDifficultySummaryDAO(difficultySummaryDAO);
+        reconciler.setTransactionTemplate(transactionTemplate);
+        reconciler.setReferenceData(referenceData);
+        when(transactionTemplate.execute(any(TransactionCallback.class))).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                return ((TransactionCallback<?>) invocation.getArguments()[0]).doInTransaction(null);
+            }
+        });
+    }
+
+    /**
+     * Verifies that nothing is rebuilt when no summary has drifted.
+     */
+    @Test
+    public void testReconcileWithoutDrift() throws DAOException {
+        when(difficultySummaryDAO.getCategoryIdsWithDriftedDifficultySummary())
+                .thenReturn(Collections.<Integer> emptyList());
+        assertEquals(0, reconciler.reconcile());
+        verify(difficultySummaryDAO, never()).rebuildDifficultySummaries();
+        verify(referenceData, never()).refreshCategories();
+    }
+
+    /**
+     * Verifies that drifted summaries are rebuilt and the categories of the
+     * reference data are reloaded.
+     */
+    @Test
+    public void testReconcileWithDrift() throws DAOException {
+        when(difficultySummaryDAO.getCategoryIdsWithDriftedDifficultySummary())
+                .thenReturn(Arrays.asList(DRIFTED_CATEGORY_ID, ANOTHER_DRIFTED_CATEGORY_ID));
+        when(difficultySummaryDAO.rebuildDifficultySummaries()).thenReturn(2);
+        assertEquals(2, reconciler.reconcile());
+        verify(difficultySummaryDAO).rebuildDifficultySummaries();
+        verify(referenceData).refreshCategories();
+    }
+
+    /**
+     * Verifies that a failed rebuild is reported as a {@link ManagerException}
+     * and leaves the reference data untouched.
+     */
+    @Test
+    public void testReconcileWhenRebuildFails() throws DAOException {
+        expectedException.expect(ManagerException.class);
+        when(difficultySummaryDAO.getCategoryIdsWithDriftedDifficultySummary())
+                .thenReturn(Arrays.asList(DRIFTED_CATEGORY_ID));
+        when(difficultySummaryDAO.rebuildDifficultySummaries()).thenThrow(new DAOException());
+        try {
+            reconciler.reconcile();
+        } finally {
+            verify(referenceData, never()).refreshCategories();
+        }
+    }
+
+    /**
+     * Tests {@link CategorySummaryReconciler#init()} when a collaborator is
+     * missing.
+     */
+    @Test
+    public void testInitWithoutCollaborators() {
+        expectedException.expect(IllegalArgumentException.class);
+        new CategorySummaryReconciler().init();
+    }
+
+    /**
+     * Tests {@link CategorySummaryReconciler#setPeriodMillis(long)} when the
+     * period is not positive.
+     */
+    @Test
+    public void testSetPeriodMillisWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        reconciler.setPeriodMillis(0);
+    }
+}
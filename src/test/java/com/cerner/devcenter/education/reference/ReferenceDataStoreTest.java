@@ -0,0 +1,190 @@
+package com.cerner.devcenter.education.reference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.cerner.devcenter.education.admin.CategoryDAO;
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
+import com.cerner.devcenter.education.admin.ResourceTypeDAO;
+import com.cerner.devcenter.education.admin.TagDAO;
+import com.cerner.devcenter.education.dao.SkillOptionsDAO;
+import com.cerner.devcenter.education.models.Category;
+import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.models.Tag;
+
+/**
+ * Tests {@link ReferenceDataStore} functionality.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReferenceDataStoreTest {
+
+    private static final int VALID_ID = 1;
+    private static final int ANOTHER_VALID_ID = 2;
+    private static final String LOAD_TAGS_FAILED_MESSAGE = "Error loading tags into the reference data";
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Mock
+    private CategoryDAO categoryDAO;
+    @Mock
+    private ResourceTypeDAO resourceTypeDAO;
+    @Mock
+    private TagDAO tagDAO;
+    @Mock
+    private SkillOptionsDAO skillOptionsDAO;
+
+    private ReferenceDataStore store;
+    private List<Category> categories;
+    private List<ResourceType> resourceTypes;
+    private List<Tag> tags;
+    private Map<Integer, String> skillOptions;
+
+    @Before
+    public void setUp() throws DAOException {
+        categories = Arrays.asList(new Category(VALID_ID, "Java", "Java description"));
+        resourceTypes = Arrays.asList(new ResourceType(VALID_ID, "Ebook"));
+        tags = Arrays.asList(new Tag(VALID_ID, "commits"));
+        skillOptions = Collections.singletonMap(VALID_ID, "Beginner");
+        when(categoryDAO.getAllCategoryList()).thenReturn(categories);
+        when(resourceTypeDAO.getAllResourceTypes()).thenReturn(resourceTypes);
+        when(tagDAO.getAllTags()).thenReturn(tags);
+        when(skillOptionsDAO.getSkillOptions()).thenReturn(skillOptions);
+        store = new ReferenceDataStore();
+        store.setCategoryDAO(categoryDAO);
+        store.setResourceTypeDAO(resourceTypeDAO);
+        store.setTagDAO(tagDAO);
+        store.setSkillOptionsDAO(skillOptionsDAO);
+    }
+
+    /**
+     * Verifies that {@link ReferenceDataStore#init()} loads every part of the
+     * reference data.
+     */
+    @Test
+    public void testInitLoadsReferenceData() {
+        store.init();
+        final ReferenceData snapshot = store.getSnapshot();
+        assertEquals(categories, snapshot.getCategories());
+        assertEquals(resourceTypes, snapshot.getResourceTypes());
+        assertEquals(tags, snapshot.getTags());
+        assertEquals(skillOptions, snapshot.getSkillOptions());
+    }
+
+    /**
+     * Verifies that a refresh publishes a new version holding the reloaded
+     * part and keeps the other parts.
+     */
+    @Test
+    public void testRefreshTagsPublishesNewVersion() throws DAOException {
+        store.init();
+        final ReferenceData previous = store.getSnapshot();
+        final List<Tag> newTags = Arrays.asList(new Tag(VALID_ID, "commits"), new Tag(ANOTHER_VALID_ID, "git"));
+        when(tagDAO.getAllTags()).thenReturn(newTags);
+        store.refreshTags();
+        final ReferenceData current = store.getSnapshot();
+        assertEquals(previous.getVersion() + 1, current.getVersion());
+        assertEquals(newTags, current.getTags());
+        assertSame(previous.getCategories(), current.getCategories());
+        assertEquals(tags, previous.getTags());
+    }
+
+    /**
+     * Verifies that the categories, resource types and skill options are
+     * reloaded by their refresh methods.
+     */
+    @Test
+    public void testRefreshReloadsEachPart() throws DAOException {
+        store.init();
+        store.refreshCategories();
+        store.refreshResourceTypes();
+        store.refreshSkillOptions();
+        verify(categoryDAO, times(2)).getAllCategoryList();
+        verify(resourceTypeDAO, times(2)).getAllResourceTypes();
+        verify(skillOptionsDAO, times(2)).getSkillOptions();
+    }
+
+    /**
+     * Verifies that the published lists cannot be modified.
+     */
+    @Test
+    public void testSnapshotListsAreUnmodifiable() {
+        store.init();
+        expectedException.expect(UnsupportedOperationException.class);
+        store.getSnapshot().getCategories().clear();
+    }
+
+    /**
+     * Verifies that a failed refresh throws {@link ManagerException} and
+     * keeps the previous snapshot.
+     */
+    @Test
+    public void testRefreshTagsWhenDAOFails() throws DAOException {
+        store.init();
+        final ReferenceData previous = store.getSnapshot();
+        when(tagDAO.getAllTags()).thenThrow(new DAOException());
+        expectedException.expect(ManagerException.class);
+        try {
+            store.refreshTags();
+        } finally {
+            assertSame(previous, store.getSnapshot());
+        }
+    }
+
+    /**
+     * Verifies that {@link ReferenceDataStore#init()} throws
+     * {@link ManagerException} when the reference data cannot be read.
+     */
+    @Test
+    public void testInitWhenDAOFails() throws DAOException {
+        expectedException.expect(ManagerException.class);
+        expectedException.expectMessage(LOAD_TAGS_FAILED_MESSAGE);
+        when(tagDAO.getAllTags()).thenThrow(new DAOException());
+        store.init();
+    }
+
+    /**
+     * Tests {@link ReferenceDataStore#init()} when a DAO has not been set.
+     */
+    @Test
+    public void testInitWithoutDAOs() {
+        expectedException.expect(IllegalArgumentException.class);
+        new ReferenceDataStore().init();
+    }
+
+    /**
+     * Tests {@link ReferenceDataStore#setTagDAO(TagDAO)} when the DAO is null.
+     */
+    @Test
+    public void testSetTagDAOWithNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        store.setTagDAO(null);
+    }
+
+    /**
+     * Tests {@link ReferenceData#withCategories(List)} when the categories are
+     * null.
+     */
+    @Test
+    public void testWithCategoriesWithNull() {
+        expectedException.expect(IllegalArgumentException.class);
+        ReferenceData.EMPTY.withCategories(null);
+    }
+}
@@ -0,0 +1,129 @@
+package com.cerner.devcenter.education.search;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.cerner.devcenter.education.admin.ResourceDAO;
+import com.cerner.devcenter.education.helpers.ResourceNameSorter;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceType;
+import com.cerner.devcenter.education.utils.Constants;
+
+/**
+ * Compares answering an autocomplete keystroke from
+ * {@link ResourceAutocompleteIndex} with what the autocomplete endpoint did
+ * after the database returned the matching rows: sort every match with
+ * {@link ResourceNameSorter} and keep the first {@link Constants#AUTOFILL_SIZE}.
+ * The database round trip itself is not included, so the old numbers are a
+ * lower bound.
+ *
+ * <pre>
+ * java -cp ... ResourceAutocompleteBenchmark 100000 2000
+ * </pre>
+ *
+ * The arguments are the number of resources and the number of keystrokes per
+ * run. Also reports how long building the index takes, which is the cost of
+ * adding, editing or deleting a resource.
+ */
+public class ResourceAutocompleteBenchmark {
+
+    private static final int DEFAULT_RESOURCES = 100000;
+    private static final int DEFAULT_KEYSTROKES = 2000;
+    private static final String[] WORDS = { "java", "spring", "hibernate", "postgres", "testing", "mockito", "junit",
+            "javascript", "angular", "react", "docker", "kubernetes", "security", "oauth", "design", "patterns",
+            "concurrency", "streams", "collections", "generics", "performance", "tuning", "profiling", "memory" };
+    private static final List<String> TYPED = Arrays.asList("spring security", "java concurrency", "docker",
+            "design patterns", "performance tuning");
+
+    public static void main(String[] args) throws Exception {
+        int resourceCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RESOURCES;
+        int keystrokes = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_KEYSTROKES;
+
+        List<Resource> resources = new ArrayList<>(resourceCount);
+        ResourceType type = new ResourceType(1, "EBook");
+        for (int i = 1; i <= resourceCount; i++) {
+            String name = capitalize(WORDS[(i * 7) % WORDS.length]) + " " + WORDS[(i * 13) % WORDS.length] + " " + i;
+            resources.add(new Resource(i, new URL("http://www.example.com/resources/" + i), "Guide to " + name, name,
+                    type));
+        }
+        ResourceDAO resourceDAO = mock(ResourceDAO.class);
+        when(resourceDAO.getAvailableResources()).thenReturn(resources);
+        ResourceAutocompleteIndex index = new ResourceAutocompleteIndex();
+        index.setResourceDAO(resourceDAO);
+
+        long start = System.nanoTime();
+        index.init();
+        System.out.printf("Indexed %d resources in %d ms%n", resourceCount,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        List<String> searches = new ArrayList<>();
+        for (String typed : TYPED) {
+            for (int length = 1; length <= typed.length(); length++) {
+                searches.add(typed.substring(0, length));
+            }
+        }
+
+        final ResourceAutocompleteIndex autocompleteIndex = index;
+        report("index", keystrokes, searches, new Suggester() {
+            @Override
+            public int suggest(String search) {
+                return autocompleteIndex.getSuggestions(search, Constants.AUTOFILL_SIZE).size();
+            }
+        });
+        final List<Resource> allResources = resources;
+        report("sort-all-matches", Math.max(1, keystrokes / 20), searches, new Suggester() {
+            @Override
+            public int suggest(String search) {
+                List<Resource> matches = new ArrayList<>();
+                for (Resource resource : allResources) {
+                    if (resource.getResourceName().toLowerCase().contains(search)
+                            || resource.getDescription().toLowerCase().contains(search)) {
+                        matches.add(resource);
+                    }
+                }
+                Collections.sort(matches, new ResourceNameSorter(search));
+                return Math.min(matches.size(), Constants.AUTOFILL_SIZE);
+            }
+        });
+    }
+
+    private interface Suggester {
+        int suggest(String search);
+    }
+
+    private static void report(String mode, int keystrokes, List<String> searches, Suggester suggester) {
+        for (int i = 0; i < Math.min(keystrokes, 200); i++) {
+            suggester.suggest(searches.get(i % searches.size()));
+        }
+        long[] latencies = new long[keystrokes];
+        for (int i = 0; i < keystrokes; i++) {
+            long start = System.nanoTime();
+            suggester.suggest(searches.get(i % searches.size()));
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-17s %6d keystrokes, p50 %10.1f us, p99 %10.1f us, max %10.1f us%n", mode, keystrokes,
+                toMicros(percentile(latencies, 50)), toMicros(percentile(latencies, 99)),
+                toMicros(latencies[latencies.length - 1]));
+    }
+
+    private static long percentile(long[] sortedLatencies, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)];
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
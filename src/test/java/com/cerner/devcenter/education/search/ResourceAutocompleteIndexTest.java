@@ -0,0 +1,216 @@
+package com.cerner.devcenter.education.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.admin.ManagerException;
+import com.cerner.devcenter.education.admin.ResourceDAO;
+import com.cerner.devcenter.education.models.Resource;
+import com.cerner.devcenter.education.models.ResourceStatus;
+import com.cerner.devcenter.education.models.ResourceType;
+
+/**
+ * This class tests {@link ResourceAutocompleteIndex}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceAutocompleteIndexTest {
+
+    private static final int LIMIT = 10;
+    private static final ResourceType RESOURCE_TYPE = new ResourceType(1, "EBook");
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private ResourceDAO resourceDAO;
+
+    private ResourceAutocompleteIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        index = new ResourceAutocompleteIndex();
+        index.setResourceDAO(resourceDAO);
+        when(resourceDAO.getAvailableResources()).thenReturn(Arrays.asList(
+                createResource(1, "Java Concurrency in Practice"),
+                createResource(2, "Effective Java"),
+                createResource(3, "JavaScript: The Good Parts"),
+                createResource(4, "Spring Security Reference"),
+                createResource(5, "Java")));
+        index.init();
+    }
+
+    /**
+     * Verifies that a search matches the start of a name and the start of
+     * every word in a name, shortest name first.
+     */
+    @Test
+    public void testGetSuggestionsMatchesWordPrefixes() {
+        assertEquals(Arrays.asList(5, 2, 3, 1), resourceIds(index.getSuggestions("jav", LIMIT)));
+        assertEquals(Arrays.asList(4), resourceIds(index.getSuggestions("secu", LIMIT)));
+    }
+
+    /**
+     * Verifies that one and two character searches are answered from the
+     * precomputed suggestions with the same ranking.
+     */
+    @Test
+    public void testGetSuggestionsForShortSearch() {
+        assertEquals(Arrays.asList(5, 2, 3, 1), resourceIds(index.getSuggestions("j", LIMIT)));
+        assertEquals(Arrays.asList(2), resourceIds(index.getSuggestions("ef", LIMIT)));
+    }
+
+    /**
+     * Verifies that case and surrounding whitespace are ignored and a search
+     * can span words.
+     */
+    @Test
+    public void testGetSuggestionsIgnoresCase() {
+        assertEquals(Arrays.asList(1), resourceIds(index.getSuggestions("  CONCURRENCY IN ", LIMIT)));
+        assertEquals(Arrays.asList(3), resourceIds(index.getSuggestions("the good", LIMIT)));
+    }
+
+    /**
+     * Verifies that a search in the middle of a word does not match.
+     */
+    @Test
+    public void testGetSuggestionsDoesNotMatchInsideWords() {
+        assertTrue(index.getSuggestions("ava", LIMIT).isEmpty());
+        assertTrue(index.getSuggestions("   ", LIMIT).isEmpty());
+    }
+
+    /**
+     * Verifies that a resource whose name matches more than once is suggested
+     * once, and that the limit is applied to the best suggestions.
+     */
+    @Test
+    public void testGetSuggestionsDeduplicatesAndLimits() throws Exception {
+        index.add(createResource(6, "Java by Java"));
+        assertEquals(Arrays.asList(5, 6), resourceIds(index.getSuggestions("java", 2)));
+        assertEquals(Arrays.asList(5, 6, 2, 3, 1), resourceIds(index.getSuggestions("java", LIMIT)));
+    }
+
+    /**
+     * Verifies that the index is kept up to date when resources are added,
+     * edited and deleted, and that only available resources are added.
+     */
+    @Test
+    public void testIndexIsRefreshedOnChanges() throws Exception {
+        final Resource pending = createResource(7, "Kotlin in Action");
+        pending.setResourceStatus(ResourceStatus.Pending.toString());
+        index.addAll(Arrays.asList(createResource(6, "Kotlin Koans"), pending));
+        assertEquals(Arrays.asList(6), resourceIds(index.getSuggestions("kot", LIMIT)));
+
+        final Resource edited = createResource(6, "Kotlin Coroutines");
+        index.update(edited);
+        assertEquals(Arrays.asList(6), resourceIds(index.getSuggestions("corout", LIMIT)));
+        assertTrue(index.getSuggestions("koans", LIMIT).isEmpty());
+
+        final Resource notAvailable = createResource(8, "Not indexed");
+        notAvailable.setResourceStatus(ResourceStatus.Pending.toString());
+        index.update(notAvailable);
+        assertTrue(index.getSuggestions("not", LIMIT).isEmpty());
+
+        index.remove(6);
+        assertTrue(index.getSuggestions("k", LIMIT).isEmpty());
+        assertEquals(5, index.size());
+    }
+
+    /**
+     * Verifies that an edited resource is added to the index when it becomes
+     * available and removed when it no longer is.
+     */
+    @Test
+    public void testUpdateFollowsStatus() throws Exception {
+        index.update(createResource(6, "Kotlin Koans"));
+        assertEquals(Arrays.asList(6), resourceIds(index.getSuggestions("kot", LIMIT)));
+        assertEquals(6, index.size());
+
+        final Resource deleted = createResource(6, "Kotlin Koans");
+        deleted.setResourceStatus(ResourceStatus.Deleted.toString());
+        index.update(deleted);
+        assertTrue(index.getSuggestions("kot", LIMIT).isEmpty());
+        assertEquals(5, index.size());
+    }
+
+    /**
+     * Verifies that the cached suggestions of a short search are refreshed
+     * when a matching resource is added, renamed or removed.
+     */
+    @Test
+    public void testShortSearchSeesChanges() throws Exception {
+        assertEquals(Arrays.asList(4), resourceIds(index.getSuggestions("s", LIMIT)));
+
+        index.add(createResource(6, "Scala"));
+        assertEquals(Arrays.asList(6, 4), resourceIds(index.getSuggestions("s", LIMIT)));
+
+        index.update(createResource(6, "Go"));
+        assertEquals(Arrays.asList(4), resourceIds(index.getSuggestions("s", LIMIT)));
+        assertEquals(Arrays.asList(6, 3), resourceIds(index.getSuggestions("g", LIMIT)));
+
+        index.remove(4);
+        assertTrue(index.getSuggestions("s", LIMIT).isEmpty());
+    }
+
+    /**
+     * Verifies that a limit larger than the maximum number of suggestions is
+     * rejected.
+     */
+    @Test
+    public void testGetSuggestionsWithLimitTooLarge() {
+        expectedException.expect(IllegalArgumentException.class);
+        index.getSuggestions("java", LIMIT + 1);
+    }
+
+    /**
+     * Verifies that a failure loading the resources is reported as a
+     * {@link ManagerException}.
+     */
+    @Test
+    public void testReloadWhenDAOFails() throws DAOException {
+        when(resourceDAO.getAvailableResources()).thenThrow(new DAOException());
+        expectedException.expect(ManagerException.class);
+        index.reload();
+    }
+
+    /**
+     * Verifies that an empty index has no suggestions.
+     */
+    @Test
+    public void testGetSuggestionsWhenEmpty() throws DAOException {
+        when(resourceDAO.getAvailableResources()).thenReturn(Collections.<Resource> emptyList());
+        index.reload();
+        assertTrue(index.getSuggestions("j", LIMIT).isEmpty());
+        assertTrue(index.getSuggestions("java", LIMIT).isEmpty());
+    }
+
+    private static List<Integer> resourceIds(final List<Resource> resources) {
+        final List<Integer> ids = new ArrayList<>();
+        for (final Resource resource : resources) {
+            ids.add(resource.getResourceId());
+        }
+        return ids;
+    }
+
+    private static Resource createResource(final int resourceId, final String name) throws MalformedURLException {
+        final Resource resource = new Resource(resourceId, new URL("http://www.example.com/" + resourceId),
+                "Description of " + name, name, RESOURCE_TYPE);
+        resource.setResourceStatus(ResourceStatus.Available.toString());
+        return resource;
+    }
+}
@@ -0,0 +1,396 @@
+package com.cerner.devcenter.education.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.ResourceFacetDAO;
+import com.cerner.devcenter.education.dao.ResourceFacetDAO.ResourceFacetHandler;
+import com.cerner.devcenter.education.models.ResourceStatus;
+
+/**
+ * Tests {@link ResourceFacetIndex} functionality. The index is rebuilt by hand
+ * from five resources:
+ * <ul>
+ * <li>1: type 10, Available, level 1 in category 100 and level 3 in category
+ * 200, tags 7 and 8</li>
+ * <li>2: type 10, Available, level 2 in category 100, tag 7</li>
+ * <li>3: type 20, Pending, level 1 in category 100</li>
+ * <li>4: type 20, Available, level 1 in category 200, tag 8</li>
+ * <li>5: type 10, Deleted, no category, tag 7</li>
+ * </ul>
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ResourceFacetIndexTest {
+
+    private static final String AVAILABLE = ResourceStatus.Available.toString();
+    private static final String PENDING = ResourceStatus.Pending.toString();
+    private static final String DELETED = ResourceStatus.Deleted.toString();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private ResourceFacetDAO resourceFacetDAO;
+
+    private ResourceFacetIndex index;
+
+    @Before
+    public void setUp() throws DAOException {
+        doAnswer(new FacetAnswer() {
+            @Override
+            void read(final ResourceFacetHandler handler) {
+                handler.resource(3, 20, PENDING);
+                handler.resource(1, 10, AVAILABLE);
+                handler.resource(5, 10, DELETED);
+                handler.resource(2, 10, AVAILABLE);
+                handler.resource(4, 20, AVAILABLE);
+            }
+        }).when(resourceFacetDAO).readResources(any(ResourceFacetHandler.class));
+        doAnswer(new FacetAnswer() {
+            @Override
+            void read(final ResourceFacetHandler handler) {
+                handler.category(1, 200, 3);
+                handler.category(1, 100, 1);
+                handler.category(2, 100, 2);
+                handler.category(3, 100, 1);
+                handler.category(4, 200, 1);
+                handler.category(99, 100, 1);
+            }
+        }).when(resourceFacetDAO).readCategories(any(ResourceFacetHandler.class));
+        doAnswer(new FacetAnswer() {
+            @Override
+            void read(final ResourceFacetHandler handler) {
+                handler.tag(1, 8);
+                handler.tag(1, 7);
+                handler.tag(1, 7);
+                handler.tag(2, 7);
+                handler.tag(4, 8);
+                handler.tag(5, 7);
+            }
+        }).when(resourceFacetDAO).readTags(any(ResourceFacetHandler.class));
+        index = new ResourceFacetIndex();
+        index.setResourceFacetDAO(resourceFacetDAO);
+    }
+
+    /**
+     * Verifies that the index is not ready and refuses queries before it has
+     * been built.
+     */
+    @Test
+    public void testSearchBeforeRebuild() {
+        assertFalse(index.isReady());
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Resource facet index has not been built yet");
+        index.search(ResourceFacetQuery.ALL, 0, 10);
+    }
+
+    /**
+     * Verifies that the query matching every resource returns them all in
+     * resource id order with the counts of every value, counting a resource
+     * once per value however many rows it has. Rows of a resource missing
+     * from the resource table are skipped.
+     */
+    @Test
+    public void testSearchAll() throws DAOException {
+        index.rebuild();
+        final ResourceFacets facets = index.search(ResourceFacetQuery.ALL, 0, 10);
+
+        assertTrue(index.isReady());
+        assertEquals(5, facets.getTotal());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), facets.getResourceIds());
+        assertNull(facets.getNextAfter());
+        assertEquals(counts(100, 3, 200, 2), facets.getCategoryCounts());
+        assertEquals(counts(1, 3, 2, 1, 3, 1), facets.getDifficultyLevelCounts());
+        assertEquals(counts(10, 3, 20, 2), facets.getResourceTypeCounts());
+        assertEquals(counts(7, 3, 8, 2), facets.getTagCounts());
+        final Map<String, Integer> statusCounts = new LinkedHashMap<>();
+        statusCounts.put(AVAILABLE, 3);
+        statusCounts.put(DELETED, 1);
+        statusCounts.put(PENDING, 1);
+        assertEquals(statusCounts, facets.getStatusCounts());
+    }
+
+    /**
+     * Verifies that a category and a difficulty level match the level a
+     * resource has in that category, not in another one, and that the counts
+     * of each ignore their own filter but keep the other.
+     */
+    @Test
+    public void testSearchByCategoryAndDifficultyLevel() throws DAOException {
+        index.rebuild();
+        final ResourceFacets facets = index.search(query(Arrays.asList(200), Arrays.asList(1), null, null, null),
+                0, 10);
+
+        assertEquals(1, facets.getTotal());
+        assertEquals(Arrays.asList(4), facets.getResourceIds());
+        assertEquals(counts(100, 2, 200, 1), facets.getCategoryCounts());
+        assertEquals(counts(1, 1, 3, 1), facets.getDifficultyLevelCounts());
+        assertEquals(counts(20, 1), facets.getResourceTypeCounts());
+        assertEquals(counts(8, 1), facets.getTagCounts());
+    }
+
+    /**
+     * Verifies that the values of one dimension are alternatives, that every
+     * dimension is required, and that the counts of a dimension ignore its own
+     * filter.
+     */
+    @Test
+    public void testSearchByResourceTypeAndTags() throws DAOException {
+        index.rebuild();
+        final ResourceFacets facets = index.search(query(null, null, Arrays.asList(10), Arrays.asList(7, 8), null),
+                0, 10);
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(Arrays.asList(1, 2, 5), facets.getResourceIds());
+        assertEquals(counts(10, 3, 20, 1), facets.getResourceTypeCounts());
+        assertEquals(counts(7, 3, 8, 1), facets.getTagCounts());
+        assertEquals(counts(100, 2, 200, 1), facets.getCategoryCounts());
+    }
+
+    /**
+     * Verifies that resources are filtered by status.
+     */
+    @Test
+    public void testSearchByStatus() throws DAOException {
+        index.rebuild();
+        final ResourceFacets facets = index.search(
+                query(Arrays.asList(100), null, null, null, Arrays.asList(ResourceStatus.Available)), 0, 10);
+
+        assertEquals(Arrays.asList(1, 2), facets.getResourceIds());
+        assertEquals(Integer.valueOf(2), facets.getStatusCounts().get(AVAILABLE));
+        assertEquals(Integer.valueOf(1), facets.getStatusCounts().get(PENDING));
+        assertNull(facets.getStatusCounts().get(DELETED));
+    }
+
+    /**
+     * Verifies that a value no resource has matches nothing.
+     */
+    @Test
+    public void testSearchByUnknownValue() throws DAOException {
+        index.rebuild();
+        final ResourceFacets facets = index.search(query(null, null, null, Arrays.asList(42), null), 0, 10);
+
+        assertEquals(0, facets.getTotal());
+        assertTrue(facets.getResourceIds().isEmpty());
+        assertEquals(counts(7, 3, 8, 2), facets.getTagCounts());
+        assertTrue(facets.getResourceTypeCounts().isEmpty());
+    }
+
+    /**
+     * Verifies that the matches are paged by seeking past the last resource id
+     * of the previous page, even one that no longer matches.
+     */
+    @Test
+    public void testSearchPages() throws DAOException {
+        index.rebuild();
+
+        final ResourceFacets first = index.search(ResourceFacetQuery.ALL, 0, 2);
+        assertEquals(Arrays.asList(1, 2), first.getResourceIds());
+        assertEquals(Integer.valueOf(2), first.getNextAfter());
+        final ResourceFacets second = index.search(ResourceFacetQuery.ALL, first.getNextAfter(), 2);
+        assertEquals(Arrays.asList(3, 4), second.getResourceIds());
+        assertEquals(Integer.valueOf(4), second.getNextAfter());
+        final ResourceFacets last = index.search(ResourceFacetQuery.ALL, second.getNextAfter(), 2);
+        assertEquals(Arrays.asList(5), last.getResourceIds());
+        assertNull(last.getNextAfter());
+        final ResourceFacets available = index.search(
+                query(null, null, null, null, Arrays.asList(ResourceStatus.Available)), 3, 2);
+        assertEquals(Arrays.asList(4), available.getResourceIds());
+        assertEquals(5, last.getTotal());
+    }
+
+    /**
+     * Verifies that a limit of 0 only counts.
+     */
+    @Test
+    public void testSearchWithZeroLimit() throws DAOException {
+        index.rebuild();
+        final ResourceFacets facets = index.search(ResourceFacetQuery.ALL, 0, 0);
+
+        assertEquals(5, facets.getTotal());
+        assertTrue(facets.getResourceIds().isEmpty());
+        assertNull(facets.getNextAfter());
+    }
+
+    /**
+     * Verifies that the count of a query is its number of matches.
+     */
+    @Test
+    public void testCount() throws DAOException {
+        index.rebuild();
+
+        assertEquals(5, index.count(ResourceFacetQuery.ALL));
+        assertEquals(3, index.count(query(Arrays.asList(100), null, null, null, null)));
+        assertEquals(1, index.count(query(Arrays.asList(100), null, Arrays.asList(20), null, null)));
+        assertEquals(3, index.count(query(null, Arrays.asList(1), Arrays.asList(10, 20), null, null)));
+        assertEquals(1, index.count(query(null, Arrays.asList(1), Arrays.asList(10), null, null)));
+    }
+
+    /**
+     * Verifies that the ids of a query are all of its matches in resource id
+     * order, however many a page would hold.
+     */
+    @Test
+    public void testGetResourceIds() throws DAOException {
+        index.rebuild();
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), index.getResourceIds(ResourceFacetQuery.ALL));
+        assertEquals(Arrays.asList(1, 3), index.getResourceIds(query(Arrays.asList(100), Arrays.asList(1), null,
+                null, null)));
+        assertEquals(Collections.emptyList(), index.getResourceIds(query(Arrays.asList(300), null, null, null, null)));
+    }
+
+    /**
+     * Verifies that the ids cannot be read before the index has been built.
+     */
+    @Test
+    public void testGetResourceIdsBeforeRebuild() {
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Resource facet index has not been built yet");
+        index.getResourceIds(ResourceFacetQuery.ALL);
+    }
+
+    /**
+     * Verifies that a failed rebuild keeps the previous index and is counted.
+     */
+    @Test
+    public void testRebuildFailureKeepsIndex() throws DAOException {
+        index.rebuild();
+        doThrow(new DAOException("Error: unable to read the tags of the resources.")).when(resourceFacetDAO)
+                .readTags(any(ResourceFacetHandler.class));
+        try {
+            index.rebuild();
+            fail("Expected DAOException");
+        } catch (final DAOException daoException) {
+            assertEquals("Error: unable to read the tags of the resources.", daoException.getMessage());
+        }
+
+        assertEquals(5, index.count(ResourceFacetQuery.ALL));
+        final ResourceFacetIndexMetrics metrics = index.getMetrics();
+        assertEquals(1, metrics.getRebuildCount());
+        assertEquals(1, metrics.getRebuildFailureCount());
+    }
+
+    /**
+     * Verifies the metrics after a rebuild and a query.
+     */
+    @Test
+    public void testGetMetrics() throws DAOException {
+        index.rebuild();
+        index.search(ResourceFacetQuery.ALL, 0, 10);
+        final ResourceFacetIndexMetrics metrics = index.getMetrics();
+
+        assertTrue(metrics.isEnabled());
+        assertTrue(metrics.isReady());
+        assertEquals(5, metrics.getResourceCount());
+        assertEquals(16, metrics.getPostingListCount());
+        assertTrue(metrics.getPostingListBytes() > 0);
+        assertTrue(metrics.getLastRebuildTimeMillis() > 0);
+        assertEquals(1, metrics.getQueryCount());
+        assertEquals(1, metrics.getQueryLatency().getCount());
+        assertEquals(1, metrics.getRebuildLatency().getCount());
+    }
+
+    /**
+     * Verifies that a disabled index reads nothing and is never ready.
+     */
+    @Test
+    public void testInitWhenDisabled() {
+        index.setEnabled(false);
+        index.init();
+        index.close();
+
+        assertFalse(index.isReady());
+        assertFalse(index.getMetrics().isEnabled());
+        verifyZeroInteractions(resourceFacetDAO);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the query is null.
+     */
+    @Test
+    public void testSearchWithNullQuery() throws DAOException {
+        index.rebuild();
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource facet query cannot be null");
+        index.search(null, 0, 10);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the resource id to read
+     * after is negative.
+     */
+    @Test
+    public void testSearchWithNegativeAfter() throws DAOException {
+        index.rebuild();
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource Id to read after cannot be negative");
+        index.search(ResourceFacetQuery.ALL, -1, 10);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the query has a null
+     * value.
+     */
+    @Test
+    public void testQueryWithNullValue() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Tag ids cannot contain null");
+        query(null, null, null, Collections.<Integer> singletonList(null), null);
+    }
+
+    private static ResourceFacetQuery query(
+            final List<Integer> categoryIds,
+            final List<Integer> difficultyLevels,
+            final List<Integer> resourceTypeIds,
+            final List<Integer> tagIds,
+            final List<ResourceStatus> statuses) {
+        return new ResourceFacetQuery(categoryIds, difficultyLevels, resourceTypeIds, tagIds, statuses);
+    }
+
+    private static Map<Integer, Integer> counts(final int... valuesAndCounts) {
+        final Map<Integer, Integer> counts = new LinkedHashMap<>();
+        for (int index = 0; index < valuesAndCounts.length; index += 2) {
+            counts.put(valuesAndCounts[index], valuesAndCounts[index + 1]);
+        }
+        return counts;
+    }
+
+    /**
+     * Feeds rows to the {@link ResourceFacetHandler} a DAO method is called
+     * with.
+     */
+    private abstract static class FacetAnswer implements Answer<Void> {
+
+        @Override
+        public Void answer(final InvocationOnMock invocation) {
+            read((ResourceFacetHandler) invocation.getArguments()[0]);
+            return null;
+        }
+
+        abstract void read(ResourceFacetHandler handler);
+    }
+}
@@ -0,0 +1,117 @@
+package com.cerner.devcenter.education.trending;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests the {@link SlidingWindowCounters}.
+ */
+public class SlidingWindowCountersTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private final SlidingWindowCounters counters = new SlidingWindowCounters(3);
+
+    /**
+     * Verifies that an id that was never counted has a count of 0.
+     */
+    @Test
+    public void testCountWhenIdIsMissing() {
+        assertEquals(0, counters.count(1, 10));
+        assertEquals(0, counters.size());
+    }
+
+    /**
+     * Verifies that only the buckets of the window ending with the current
+     * bucket are counted, so events slide out of the window without a sweep.
+     */
+    @Test
+    public void testCountSlidesWithTheWindow() {
+        counters.add(1, 10, 2);
+        counters.add(1, 11, 1);
+        counters.add(1, 12, 4);
+        assertEquals(7, counters.count(1, 12));
+        assertEquals(5, counters.count(1, 13));
+        assertEquals(4, counters.count(1, 14));
+        assertEquals(0, counters.count(1, 15));
+    }
+
+    /**
+     * Verifies that a bucket takes over the slot of the bucket that slid out
+     * of the window, and that events of a bucket whose slot was taken over by
+     * a later bucket are dropped.
+     */
+    @Test
+    public void testAddReusesSlots() {
+        assertTrue(counters.add(1, 10, 2));
+        assertTrue(counters.add(1, 13, 5));
+        assertEquals(5, counters.count(1, 13));
+        assertFalse(counters.add(1, 10, 1));
+        assertEquals(5, counters.count(1, 13));
+    }
+
+    /**
+     * Verifies that the ids are ranked by their count in the window, then by
+     * id, and that ids without events in the window are left out.
+     */
+    @Test
+    public void testTop() {
+        counters.add(1, 12, 3);
+        counters.add(2, 12, 5);
+        counters.add(3, 11, 3);
+        counters.add(4, 12, 1);
+        counters.add(5, 8, 9);
+        final List<TrendingCount> top = counters.top(12, 3);
+        assertEquals(3, top.size());
+        assertEquals(2, top.get(0).getId());
+        assertEquals(5, top.get(0).getCount());
+        assertEquals(1, top.get(1).getId());
+        assertEquals(3, top.get(2).getId());
+        assertEquals(4, counters.top(12, 10).size());
+    }
+
+    /**
+     * Verifies that every bucket of other counters is added.
+     */
+    @Test
+    public void testAddAll() {
+        final SlidingWindowCounters other = new SlidingWindowCounters(3);
+        other.add(1, 11, 2);
+        other.add(2, 12, 1);
+        counters.add(1, 11, 1);
+        counters.add(1, 12, 1);
+        counters.addAll(other);
+        assertEquals(5, counters.count(1, 12));
+        assertEquals(1, counters.count(2, 12));
+        assertEquals(2, counters.size());
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when events are added to a
+     * negative bucket.
+     */
+    @Test
+    public void testAddWithNegativeBucket() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Bucket cannot be negative");
+        counters.add(1, -1, 1);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the window has no bucket.
+     */
+    @Test
+    public void testConstructorWithZeroWindowBuckets() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Window buckets must be greater than 0");
+        new SlidingWindowCounters(0);
+    }
+}
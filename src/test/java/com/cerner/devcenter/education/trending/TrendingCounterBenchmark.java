@@ -0,0 +1,168 @@
+package com.cerner.devcenter.education.trending;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how many completions per second the trending counters record with
+ * many concurrent writers, against a map of {@link AtomicLong} counters and a
+ * synchronized map. Most completions go to a few hot resources, as they do
+ * for a trending resource, so the writers contend on the same counters.
+ * <p>
+ * The benchmark needs no database:
+ *
+ * <pre>
+ * java -cp ... TrendingCounterBenchmark 32 1000000 1000
+ * </pre>
+ *
+ * The arguments are the number of writer threads, the number of completions
+ * each writer records and the number of resources.
+ */
+public class TrendingCounterBenchmark {
+
+    private static final int DEFAULT_THREADS = 32;
+    private static final int DEFAULT_UPDATES_PER_THREAD = 1000000;
+    private static final int DEFAULT_RESOURCES = 1000;
+    private static final int HOT_RESOURCES = 4;
+    private static final int HOT_PERCENT = 80;
+    private static final int WINDOW_BUCKETS = 168;
+    private static final long BUCKET = 500000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+        int updatesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_UPDATES_PER_THREAD;
+        int resources = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_RESOURCES;
+        System.out.printf("%d writers, %d completions each, %d resources, %d%% on %d hot resources%n", threads,
+                updatesPerThread, resources, HOT_PERCENT, HOT_RESOURCES);
+        for (int round = 1; round <= ROUNDS; round++) {
+            System.out.printf("Round %d%n", round);
+            run("sliding window counters", threads, updatesPerThread, resources, new SlidingWindowRecorder());
+            run("atomic long map", threads, updatesPerThread, resources, new AtomicLongRecorder());
+            run("synchronized map", threads, updatesPerThread, resources, new SynchronizedRecorder());
+        }
+    }
+
+    private static void run(String name, int threads, final int updatesPerThread, final int resources,
+            final Recorder recorder) throws InterruptedException {
+        final int[][] resourceIds = new int[threads][updatesPerThread];
+        for (int thread = 0; thread < threads; thread++) {
+            Random random = new Random(thread);
+            for (int update = 0; update < updatesPerThread; update++) {
+                resourceIds[thread][update] = random.nextInt(100) < HOT_PERCENT ? 1 + random.nextInt(HOT_RESOURCES)
+                        : 1 + random.nextInt(resources);
+            }
+        }
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int thread = 0; thread < threads; thread++) {
+            final int[] ids = resourceIds[thread];
+            Thread writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int id : ids) {
+                            recorder.record(id);
+                        }
+                    } catch (InterruptedException interruptedException) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            });
+            writer.setDaemon(true);
+            writer.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        long updates = (long) threads * updatesPerThread;
+        System.out.printf("  %-24s %10.2f ms, %12.0f completions/s, total %s%n", name, toMillis(elapsed),
+                updates / (elapsed / 1e9), recorder.total(resources) == updates ? "ok" : "WRONG");
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
+    }
+
+    private interface Recorder {
+        void record(int resourceId);
+
+        long total(int resources);
+    }
+
+    private static final class SlidingWindowRecorder implements Recorder {
+        private final SlidingWindowCounters counters = new SlidingWindowCounters(WINDOW_BUCKETS);
+
+        @Override
+        public void record(int resourceId) {
+            counters.add(resourceId, BUCKET, 1);
+        }
+
+        @Override
+        public long total(int resources) {
+            long total = 0;
+            for (int resourceId = 1; resourceId <= resources; resourceId++) {
+                total += counters.count(resourceId, BUCKET);
+            }
+            return total;
+        }
+    }
+
+    private static final class AtomicLongRecorder implements Recorder {
+        private final ConcurrentMap<Integer, AtomicLong> counters = new ConcurrentHashMap<>();
+
+        @Override
+        public void record(int resourceId) {
+            AtomicLong counter = counters.get(resourceId);
+            if (counter == null) {
+                AtomicLong created = new AtomicLong();
+                counter = counters.putIfAbsent(resourceId, created);
+                if (counter == null) {
+                    counter = created;
+                }
+            }
+            counter.incrementAndGet();
+        }
+
+        @Override
+        public long total(int resources) {
+            long total = 0;
+            for (AtomicLong counter : counters.values()) {
+                total += counter.get();
+            }
+            return total;
+        }
+    }
+
+    private static final class SynchronizedRecorder implements Recorder {
+        private final Map<Integer, long[]> counters = new HashMap<>();
+
+        @Override
+        public synchronized void record(int resourceId) {
+            long[] counter = counters.get(resourceId);
+            if (counter == null) {
+                counter = new long[1];
+                counters.put(resourceId, counter);
+            }
+            counter[0]++;
+        }
+
+        @Override
+        public synchronized long total(int resources) {
+            long total = 0;
+            for (long[] counter : counters.values()) {
+                total += counter[0];
+            }
+            return total;
+        }
+    }
+}
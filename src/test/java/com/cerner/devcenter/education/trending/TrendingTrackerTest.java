@@ -0,0 +1,313 @@
+package com.cerner.devcenter.education.trending;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import com.cerner.devcenter.education.admin.DAOException;
+import com.cerner.devcenter.education.dao.TrendingDAO;
+import com.cerner.devcenter.education.dao.TrendingDAO.CompletionCountHandler;
+
+/**
+ * Tests {@link TrendingTracker} functionality. The tracker is started without
+ * its scheduler and seeded and ranked by hand, with buckets of 10 seconds and
+ * a window of 3 buckets, so the window ending at second 109 holds the
+ * completions of seconds 80 to 109.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TrendingTrackerTest {
+
+    private static final long SEED_BEFORE_SECONDS = 105;
+    private static final long NOW_SECONDS = 109;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private TrendingDAO trendingDAO;
+
+    private TrendingTracker tracker;
+
+    @Before
+    public void setUp() throws DAOException {
+        final Map<Integer, int[]> categoryIdsByResourceId = new HashMap<>();
+        categoryIdsByResourceId.put(1, new int[] { 100 });
+        categoryIdsByResourceId.put(2, new int[] { 100, 200 });
+        when(trendingDAO.getCategoryIdsByResourceId()).thenReturn(categoryIdsByResourceId);
+        doAnswer(counts(new long[][] { { 1, 8, 4 }, { 2, 10, 2 }, { 3, 7, 9 } })).when(trendingDAO)
+                .countResourceCompletions(anyLong(), anyLong(), anyInt(), any(CompletionCountHandler.class));
+        doAnswer(counts(new long[][] { { 100, 8, 6 } })).when(trendingDAO)
+                .countCategoryCompletions(anyLong(), anyLong(), anyInt(), any(CompletionCountHandler.class));
+        tracker = new TrendingTracker();
+        tracker.setTrendingDAO(trendingDAO);
+        tracker.setBucketSeconds(10);
+        tracker.setWindowBuckets(3);
+    }
+
+    /**
+     * Verifies that the tracker is not ready and returns nothing before it has
+     * been seeded.
+     */
+    @Test
+    public void testGetTrendingResourcesBeforeSeed() throws DAOException {
+        tracker.start(SEED_BEFORE_SECONDS);
+        tracker.refreshCategories();
+        tracker.resourceCompleted(1, 106);
+        tracker.rank(NOW_SECONDS);
+
+        assertFalse(tracker.isReady());
+        assertTrue(tracker.getTrendingResources(5).isEmpty());
+        assertTrue(tracker.getTrendingCategories(5).isEmpty());
+    }
+
+    /**
+     * Verifies that the seeded completions of the window and the recorded
+     * ones add up, and that completions older than the window are left out
+     * of the ranking.
+     */
+    @Test
+    public void testSeedAndRank() throws DAOException {
+        tracker.start(SEED_BEFORE_SECONDS);
+        tracker.refreshCategories();
+        tracker.resourceCompleted(2, 106);
+        tracker.resourceCompleted(2, 107);
+        tracker.resourceCompleted(1, 108);
+        tracker.seed();
+        tracker.rank(NOW_SECONDS);
+
+        verify(trendingDAO).countResourceCompletions(eq(80L), eq(SEED_BEFORE_SECONDS), eq(10),
+                any(CompletionCountHandler.class));
+        assertTrue(tracker.isReady());
+        assertCounts(new long[][] { { 1, 5 }, { 2, 4 } }, tracker.getTrendingResources(5));
+        assertCounts(new long[][] { { 100, 9 }, { 200, 2 } }, tracker.getTrendingCategories(5));
+    }
+
+    /**
+     * Verifies that the window slides with the ranking time.
+     */
+    @Test
+    public void testRankSlidesWithTheWindow() throws DAOException {
+        tracker.start(SEED_BEFORE_SECONDS);
+        tracker.refreshCategories();
+        tracker.seed();
+        tracker.rank(NOW_SECONDS);
+        assertCounts(new long[][] { { 1, 4 }, { 2, 2 } }, tracker.getTrendingResources(5));
+
+        tracker.rank(NOW_SECONDS + 20);
+
+        assertCounts(new long[][] { { 2, 2 } }, tracker.getTrendingResources(5));
+    }
+
+    /**
+     * Verifies that at most limit resources are returned.
+     */
+    @Test
+    public void testGetTrendingResourcesWithLimit() throws DAOException {
+        tracker.start(SEED_BEFORE_SECONDS);
+        tracker.seed();
+        tracker.rank(NOW_SECONDS);
+
+        assertCounts(new long[][] { { 1, 4 } }, tracker.getTrendingResources(1));
+    }
+
+    /**
+     * Verifies that a failed seeding adds nothing, so retrying it does not
+     * count completions twice.
+     */
+    @Test
+    public void testSeedFailureAddsNothing() throws DAOException {
+        doThrow(new DAOException("Error counting completions")).doAnswer(counts(new long[][] { { 100, 8, 6 } }))
+                .when(trendingDAO)
+                .countCategoryCompletions(anyLong(), anyLong(), anyInt(), any(CompletionCountHandler.class));
+        tracker.start(SEED_BEFORE_SECONDS);
+        try {
+            tracker.seed();
+            fail("Expected DAOException");
+        } catch (final DAOException daoException) {
+            tracker.rank(NOW_SECONDS);
+            assertFalse(tracker.isReady());
+            assertEquals(1, tracker.getMetrics().getSeedFailureCount());
+        }
+
+        tracker.seed();
+        tracker.rank(NOW_SECONDS);
+
+        assertTrue(tracker.isReady());
+        assertCounts(new long[][] { { 1, 4 }, { 2, 2 } }, tracker.getTrendingResources(5));
+    }
+
+    /**
+     * Verifies that the categories of a resource missing from the ones read
+     * at startup are read once and then remembered.
+     */
+    @Test
+    public void testCountCategoriesOfUnknownResource() throws DAOException {
+        when(trendingDAO.getCategoryIdsOfResource(4)).thenReturn(new int[] { 300 });
+        tracker.start(SEED_BEFORE_SECONDS);
+        tracker.refreshCategories();
+        tracker.seed();
+
+        tracker.countCategories(4, 10);
+        tracker.countCategories(4, 10);
+        tracker.rank(NOW_SECONDS);
+
+        verify(trendingDAO, times(1)).getCategoryIdsOfResource(4);
+        assertCounts(new long[][] { { 100, 6 }, { 300, 2 } }, tracker.getTrendingCategories(5));
+    }
+
+    /**
+     * Verifies that a completion whose time bucket has been taken over by a
+     * later one is dropped and counted as such.
+     */
+    @Test
+    public void testResourceCompletedBeforeTheWindow() throws DAOException {
+        tracker.start(SEED_BEFORE_SECONDS);
+        tracker.refreshCategories();
+        tracker.resourceCompleted(1, 106);
+        tracker.resourceCompleted(1, 76);
+
+        final TrendingMetrics metrics = tracker.getMetrics();
+        assertEquals(1, metrics.getCompletionCount());
+        assertEquals(1, metrics.getDroppedCompletionCount());
+    }
+
+    /**
+     * Verifies that a completion is ignored when the tracker has not been
+     * started.
+     */
+    @Test
+    public void testResourceCompletedBeforeInit() {
+        tracker.resourceCompleted(1, 106);
+
+        verifyZeroInteractions(trendingDAO);
+        assertEquals(0, tracker.getMetrics().getCompletionCount());
+    }
+
+    /**
+     * Verifies the seed and rank metrics.
+     */
+    @Test
+    public void testGetMetrics() throws DAOException {
+        tracker.start(SEED_BEFORE_SECONDS);
+        tracker.refreshCategories();
+        tracker.seed();
+        tracker.rank(NOW_SECONDS);
+        tracker.getTrendingResources(5);
+
+        final TrendingMetrics metrics = tracker.getMetrics();
+        assertTrue(metrics.isReady());
+        assertEquals(3, metrics.getResourceCount());
+        assertEquals(1, metrics.getCategoryCount());
+        assertEquals(15, metrics.getSeededCompletionCount());
+        assertEquals(1, metrics.getSeedCount());
+        assertEquals(1, metrics.getRankCount());
+        assertEquals(1, metrics.getRequestCount());
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when trending resources are
+     * asked with a limit of 0.
+     */
+    @Test
+    public void testGetTrendingResourcesWithZeroLimit() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Limit must be greater than 0");
+        tracker.getTrendingResources(0);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when a completion is recorded
+     * for a negative resource id.
+     */
+    @Test
+    public void testResourceCompletedWithNegativeResourceId() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Resource Id cannot be negative");
+        tracker.resourceCompleted(-1, 106);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the bucket length is not
+     * greater than 0.
+     */
+    @Test
+    public void testSetBucketSecondsWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Bucket seconds must be greater than 0");
+        tracker.setBucketSeconds(0);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the tracker is initialized
+     * without a DAO.
+     */
+    @Test
+    public void testInitWithoutDAO() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Trending DAO cannot be null");
+        new TrendingTracker().init();
+    }
+
+    /**
+     * Verifies that a disabled tracker never counts completions.
+     */
+    @Test
+    public void testInitDisabled() {
+        tracker.setEnabled(false);
+        tracker.init();
+
+        tracker.resourceCompleted(1, 106);
+
+        assertFalse(tracker.isReady());
+        assertEquals(Collections.emptyList(), tracker.getTrendingResources(5));
+        verifyZeroInteractions(trendingDAO);
+        tracker.close();
+    }
+
+    private static Answer<Void> counts(final long[][] rows) {
+        return new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                final CompletionCountHandler handler = (CompletionCountHandler) invocation.getArguments()[3];
+                for (final long[] row : rows) {
+                    handler.count((int) row[0], row[1], row[2]);
+                }
+                return null;
+            }
+        };
+    }
+
+    private static void assertCounts(final long[][] expected, final List<TrendingCount> trendingCounts) {
+        final long[][] actual = new long[trendingCounts.size()][];
+        for (int index = 0; index < actual.length; index++) {
+            actual[index] = new long[] { trendingCounts.get(index).getId(), trendingCounts.get(index).getCount() };
+        }
+        assertArrayEquals(expected, actual);
+    }
+}
@@ -0,0 +1,157 @@
+package com.cerner.devcenter.education.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.naming.NamingException;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.cerner.devcenter.education.authentication.EmbeddedLdapServer;
+import com.cerner.devcenter.education.authentication.LdapConnectionManager;
+import com.cerner.devcenter.education.authentication.LdapReader;
+
+/**
+ * Tests {@link LdapUserProfileDirectory} against an {@link EmbeddedLdapServer}
+ * holding the same entries and attributes as the office directory, searched
+ * through a pooled {@link LdapConnectionManager}.
+ */
+public class LdapUserProfileDirectoryTest {
+
+    private static final String USER_ID = "AB012345";
+    private static final String ANOTHER_USER_ID = "CD678901";
+    private static final String UNKNOWN_USER_ID = "ZZ999999";
+
+    private static EmbeddedLdapServer server;
+    private static LdapConnectionManager connectionManager;
+
+    private LdapUserProfileDirectory directory;
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        server = new EmbeddedLdapServer();
+        server.addUser(USER_ID, "Doe,Jane", "secret");
+        server.addUser(ANOTHER_USER_ID, "Roe,Rick", "secret");
+        server.start();
+
+        connectionManager = new LdapConnectionManager();
+        connectionManager.setConnectionProperties(server.getConnectionProperties());
+        connectionManager.setSearchPrincipal(EmbeddedLdapServer.SERVICE_ACCOUNT_DN);
+        connectionManager.setSearchCredentials(EmbeddedLdapServer.SERVICE_ACCOUNT_PASSWORD);
+        connectionManager.init();
+        LdapReader.getInstance().setConnectionManager(connectionManager);
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        LdapReader.getInstance().setConnectionManager(null);
+        connectionManager.close();
+        server.shutDown();
+    }
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        final InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(DOMAIN);
+        config.setSchema(null);
+        config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("default", 0));
+        server = new InMemoryDirectoryServer(config);
+        server.add("dn: " + DOMAIN, "objectClass: top", "objectClass: domain", "dc: northamerica");
+        server.add("dn: " + SEARCH_BASE, "objectClass: top", "objectClass: organizationalUnit", "ou: Office Locations");
+        addUser(USER_ID, "Doe,Jane");
+        addUser(ANOTHER_USER_ID, "Roe,Rick");
+        server.startListening();
+
+        final Properties connectionProperties = new Properties();
+        connectionProperties.setProperty(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.ldap.LdapCtxFactory");
+        connectionProperties.setProperty(Context.PROVIDER_URL, "ldap://localhost:" + server.getListenPort());
+        connectionProperties.setProperty(Context.SECURITY_AUTHENTICATION, "none");
+        LdapReader.getInstance().createDirContext(connectionProperties);
+    }
+
+    @AfterClass
+    public static void stopServer() throws NamingException {
+        LdapReader.getInstance().getDirContext().close();
+        server.shutDown(true);
+    }
+
+    @Before
+    public void setUp() {
+        directory = new LdapUserProfileDirectory();
+        directory.setSearchBase(EmbeddedLdapServer.SEARCH_BASE);
+    }
+
+    /**
+     * Verifies that a user is read with all the details of the profile.
+     */
+    @Test
+    public void testFind() throws NamingException {
+        final UserProfileDetails user = directory.find(USER_ID);
+        assertEquals(USER_ID, user.getUserId());
+        assertEquals("Doe,Jane", user.getName());
+        assertEquals("Software Engineer", user.getRole());
+        assertEquals(USER_ID + "@cerner.com", user.getEmail());
+        assertEquals("Dev Center", user.getDepartment());
+        assertEquals("Manager", user.getManager());
+        assertEquals("Project", user.getProject());
+    }
+
+    /**
+     * Verifies that <code>null</code> is returned for an unknown user.
+     */
+    @Test
+    public void testFindUnknownUser() throws NamingException {
+        assertNull(directory.find(UNKNOWN_USER_ID));
+    }
+
+    /**
+     * Verifies that filter characters in a userID are matched literally
+     * instead of as a wildcard.
+     */
+    @Test
+    public void testFindWithWildcard() throws NamingException {
+        assertNull(directory.find("*"));
+        assertEquals(0, directory.findAll(Arrays.asList("AB*", "*)(objectClass=*")).size());
+    }
+
+    /**
+     * Verifies that several users are found with an OR-filter search, over
+     * several searches when there are more ids than fit in one, and unknown
+     * users are left out.
+     */
+    @Test
+    public void testFindAll() throws NamingException {
+        directory.setMaximumIdsPerSearch(2);
+        final List<UserProfileDetails> users = directory
+                .findAll(Arrays.asList(USER_ID, UNKNOWN_USER_ID, ANOTHER_USER_ID));
+        final Set<String> userIds = new TreeSet<>();
+        for (final UserProfileDetails user : users) {
+            userIds.add(user.getUserId());
+        }
+        assertEquals(new TreeSet<>(Arrays.asList(USER_ID, ANOTHER_USER_ID)), userIds);
+    }
+
+    /**
+     * Verifies that no search is needed for no users.
+     */
+    @Test
+    public void testFindAllWithoutUsers() throws NamingException {
+        assertEquals(0, directory.findAll(Collections.<String> emptyList()).size());
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the userID is blank.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindWithBlankUserId() throws NamingException {
+        directory.find(" ");
+    }
+}
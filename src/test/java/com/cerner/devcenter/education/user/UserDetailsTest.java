@@ -0,0 +1,272 @@
+package com.cerner.devcenter.education.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.NamingException;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.google.common.base.Ticker;
+
+/**
+ * Tests the {@link UserDetails} cache of LDAP user details.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class UserDetailsTest {
+
+    private static final String USER_ID = "AB012345";
+    private static final String ANOTHER_USER_ID = "CD678901";
+    private static final String UNKNOWN_USER_ID = "ZZ999999";
+    private static final long TIME_TO_LIVE_SECONDS = 600;
+    private static final long UNKNOWN_USER_TIME_TO_LIVE_SECONDS = 30;
+    private static final UserProfileDetails USER = new UserProfileDetails("Doe,Jane", "Software Engineer", USER_ID,
+            "jane.doe@cerner.com", "Dev Center", "Manager", "Project");
+    private static final UserProfileDetails ANOTHER_USER = new UserProfileDetails("Roe,Rick", "Software Engineer",
+            ANOTHER_USER_ID, "rick.roe@cerner.com", "Dev Center", "Manager", "Project");
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+    @Mock
+    private UserProfileDirectory directory;
+
+    private ManualTicker ticker;
+    private UserDetails userDetails;
+
+    @Before
+    public void setUp() throws NamingException {
+        ticker = new ManualTicker();
+        userDetails = new UserDetails();
+        userDetails.setDirectory(directory);
+        userDetails.setTimeToLiveSeconds(TIME_TO_LIVE_SECONDS);
+        userDetails.setUnknownUserTimeToLiveSeconds(UNKNOWN_USER_TIME_TO_LIVE_SECONDS);
+        userDetails.setTicker(ticker);
+        userDetails.init();
+        when(directory.find(USER_ID)).thenReturn(USER);
+        when(directory.find(ANOTHER_USER_ID)).thenReturn(ANOTHER_USER);
+    }
+
+    /**
+     * Verifies that the second lookup of a user is answered from the cache,
+     * whatever the case of the userID.
+     */
+    @Test
+    public void testGetUserDetailsCachesUser() throws NamingException {
+        assertSame(USER, userDetails.getUserDetails(USER_ID));
+        assertSame(USER, userDetails.getUserDetails(USER_ID.toLowerCase()));
+        verify(directory, times(1)).find(anyString());
+        final UserProfileCacheMetrics metrics = userDetails.getMetrics();
+        assertEquals(1, metrics.getHitCount());
+        assertEquals(1, metrics.getMissCount());
+        assertEquals(1, metrics.getDirectoryLookupCount());
+        assertEquals(1, metrics.getLookupLatency().getCount());
+        assertEquals(0.5, metrics.getHitRatio(), 0);
+        assertEquals(1, metrics.getSize());
+    }
+
+    /**
+     * Verifies that a user is searched again once the time to live has
+     * passed.
+     */
+    @Test
+    public void testGetUserDetailsAfterTimeToLive() throws NamingException {
+        userDetails.getUserDetails(USER_ID);
+        ticker.advance(TIME_TO_LIVE_SECONDS - 1);
+        userDetails.getUserDetails(USER_ID);
+        verify(directory, times(1)).find(USER_ID);
+        ticker.advance(1);
+        userDetails.getUserDetails(USER_ID);
+        verify(directory, times(2)).find(USER_ID);
+    }
+
+    /**
+     * Verifies that an unknown userID is remembered as unknown for the shorter
+     * unknown user time to live.
+     */
+    @Test
+    public void testGetUserDetailsCachesUnknownUser() throws NamingException {
+        assertNull(userDetails.getUserDetails(UNKNOWN_USER_ID));
+        assertNull(userDetails.getUserDetails(UNKNOWN_USER_ID));
+        verify(directory, times(1)).find(UNKNOWN_USER_ID);
+        assertEquals(1, userDetails.getMetrics().getUnknownUserHitCount());
+        ticker.advance(UNKNOWN_USER_TIME_TO_LIVE_SECONDS);
+        assertNull(userDetails.getUserDetails(UNKNOWN_USER_ID));
+        verify(directory, times(2)).find(UNKNOWN_USER_ID);
+    }
+
+    /**
+     * Verifies that a failed search is not cached.
+     */
+    @Test
+    public void testGetUserDetailsWhenSearchFails() throws NamingException {
+        when(directory.find(UNKNOWN_USER_ID)).thenThrow(new NamingException()).thenReturn(null);
+        try {
+            userDetails.getUserDetails(UNKNOWN_USER_ID);
+        } catch (final NamingException expected) {
+            assertEquals(0, userDetails.getMetrics().getSize());
+        }
+        assertNull(userDetails.getUserDetails(UNKNOWN_USER_ID));
+        verify(directory, times(2)).find(UNKNOWN_USER_ID);
+    }
+
+    /**
+     * Verifies that the least recently used user is dropped when the cache is
+     * full.
+     */
+    @Test
+    public void testGetUserDetailsEvictsWhenFull() throws NamingException {
+        final UserDetails smallCache = new UserDetails();
+        smallCache.setDirectory(directory);
+        smallCache.setMaximumEntries(1);
+        smallCache.init();
+        smallCache.getUserDetails(USER_ID);
+        smallCache.getUserDetails(ANOTHER_USER_ID);
+        smallCache.getUserDetails(USER_ID);
+        verify(directory, times(2)).find(USER_ID);
+        assertEquals(1, smallCache.getMetrics().getSize());
+        assertTrue(smallCache.getMetrics().getEvictionCount() > 0);
+    }
+
+    /**
+     * Verifies that a user put in the cache, as read at login, is not searched
+     * until the time to live has passed.
+     */
+    @Test
+    public void testPut() throws NamingException {
+        userDetails.put(USER);
+        assertSame(USER, userDetails.getUserDetails(USER_ID));
+        verify(directory, never()).find(anyString());
+        ticker.advance(TIME_TO_LIVE_SECONDS);
+        userDetails.getUserDetails(USER_ID);
+        verify(directory, times(1)).find(USER_ID);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when putting a null user.
+     */
+    @Test
+    public void testPutWithNullUser() {
+        expectedException.expect(IllegalArgumentException.class);
+        userDetails.put(null);
+    }
+
+    /**
+     * Verifies that an invalidated user is searched again.
+     */
+    @Test
+    public void testInvalidate() throws NamingException {
+        userDetails.getUserDetails(USER_ID);
+        userDetails.invalidate(USER_ID);
+        userDetails.getUserDetails(USER_ID);
+        verify(directory, times(2)).find(USER_ID);
+    }
+
+    /**
+     * Verifies that a batch lookup searches once for all the users that are
+     * not cached, caches the unknown ones and returns the users in request
+     * order.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetUserDetailsForSeveralUsers() throws NamingException {
+        userDetails.getUserDetails(USER_ID);
+        when(directory.findAll(anyCollectionOf(String.class))).thenReturn(Arrays.asList(ANOTHER_USER));
+        final Map<String, UserProfileDetails> users = userDetails
+                .getUserDetails(Arrays.asList(ANOTHER_USER_ID, UNKNOWN_USER_ID, USER_ID, ANOTHER_USER_ID));
+        assertEquals(Arrays.asList(ANOTHER_USER_ID, USER_ID), new ArrayList<>(users.keySet()));
+        assertSame(ANOTHER_USER, users.get(ANOTHER_USER_ID));
+        assertSame(USER, users.get(USER_ID));
+        final ArgumentCaptor<Collection> searched = ArgumentCaptor.forClass(Collection.class);
+        verify(directory, times(1)).findAll(searched.capture());
+        assertEquals(Arrays.asList(ANOTHER_USER_ID, UNKNOWN_USER_ID), new ArrayList<String>(searched.getValue()));
+
+        assertEquals(1, userDetails.getUserDetails(Arrays.asList(ANOTHER_USER_ID, UNKNOWN_USER_ID)).size());
+        verify(directory, times(1)).findAll(anyCollectionOf(String.class));
+        verify(directory, never()).find(UNKNOWN_USER_ID);
+        assertEquals(2, userDetails.getMetrics().getDirectoryLookupCount());
+    }
+
+    /**
+     * Verifies that a batch lookup of cached users does not search at all.
+     */
+    @Test
+    public void testGetUserDetailsForCachedUsers() throws NamingException {
+        userDetails.getUserDetails(USER_ID);
+        assertEquals(Collections.singletonMap(USER_ID, USER),
+                userDetails.getUserDetails(Collections.singletonList(USER_ID)));
+        verify(directory, never()).findAll(anyCollectionOf(String.class));
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the userID is blank.
+     */
+    @Test
+    public void testGetUserDetailsWithBlankUserId() throws NamingException {
+        expectedException.expect(IllegalArgumentException.class);
+        userDetails.getUserDetails(" ");
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the userIDs are null.
+     */
+    @Test
+    public void testGetUserDetailsWithNullUserIds() throws NamingException {
+        expectedException.expect(IllegalArgumentException.class);
+        userDetails.getUserDetails((Collection<String>) null);
+    }
+
+    /**
+     * Expects {@link IllegalStateException} when the cache has not been
+     * initialized.
+     */
+    @Test
+    public void testGetUserDetailsBeforeInit() throws NamingException {
+        expectedException.expect(IllegalStateException.class);
+        new UserDetails().getUserDetails(USER_ID);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the unknown user time to
+     * live is not positive.
+     */
+    @Test
+    public void testSetUnknownUserTimeToLiveSecondsWithZero() {
+        expectedException.expect(IllegalArgumentException.class);
+        userDetails.setUnknownUserTimeToLiveSeconds(0);
+    }
+
+    private static final class ManualTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        private void advance(final long seconds) {
+            nanos += TimeUnit.SECONDS.toNanos(seconds);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.cerner.devcenter.education.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests the {@link LongIntHashMap}.
+ */
+public class LongIntHashMapTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    /**
+     * Verifies that a key not in the map has a count of 0.
+     */
+    @Test
+    public void testGetWhenKeyIsMissing() {
+        final LongIntHashMap map = new LongIntHashMap();
+        assertEquals(0, map.get(42L));
+        assertEquals(0, map.size());
+    }
+
+    /**
+     * Verifies that increments add up per key, including the key 0 and
+     * negative keys.
+     */
+    @Test
+    public void testIncrement() {
+        final LongIntHashMap map = new LongIntHashMap();
+        assertEquals(1, map.increment(0L, 1));
+        assertEquals(3, map.increment(0L, 2));
+        assertEquals(5, map.increment(-7L, 5));
+        assertEquals(3, map.get(0L));
+        assertEquals(5, map.get(-7L));
+        assertEquals(2, map.size());
+    }
+
+    /**
+     * Verifies that the map keeps its counts while it grows past its initial
+     * capacity, against a {@link HashMap}.
+     */
+    @Test
+    public void testIncrementWhileGrowing() {
+        final LongIntHashMap map = new LongIntHashMap();
+        final Map<Long, Integer> expected = new HashMap<>();
+        final Random random = new Random(7);
+        for (int increment = 0; increment < 100000; increment++) {
+            final long key = ((long) random.nextInt(5000) << 32) | random.nextInt(5000);
+            map.increment(key, 1);
+            final Integer count = expected.get(key);
+            expected.put(key, count == null ? 1 : count + 1);
+        }
+        assertEquals(expected.size(), map.size());
+        for (final Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Verifies that the keys are returned once each.
+     */
+    @Test
+    public void testKeys() {
+        final LongIntHashMap map = new LongIntHashMap(2);
+        map.increment(30L, 1);
+        map.increment(10L, 1);
+        map.increment(20L, 1);
+        map.increment(10L, 1);
+        final long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(new long[] { 10L, 20L, 30L }, keys);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when a count is increased by
+     * 0.
+     */
+    @Test
+    public void testIncrementWithZeroDelta() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Delta must be greater than 0");
+        new LongIntHashMap().increment(1L, 0);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the map is sized for a
+     * negative number of keys.
+     */
+    @Test
+    public void testConstructorWithNegativeExpectedSize() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Expected size cannot be negative");
+        new LongIntHashMap(-1);
+    }
+}
@@ -0,0 +1,142 @@
+package com.cerner.devcenter.education.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.jdbc.core.SqlTypeValue;
+
+/**
+ * Tests the {@link SqlArrayValue}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SqlArrayValueTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Mock
+    private PreparedStatement preparedStatement;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Array array;
+
+    /**
+     * Verifies that an integer collection is bound as one
+     * <code>int4[]</code> parameter.
+     */
+    @Test
+    public void testOfIntegersBindsArray() throws SQLException {
+        when(preparedStatement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf("int4", new Object[] { 3, 1, 2 })).thenReturn(array);
+        SqlArrayValue.ofIntegers(Arrays.asList(3, 1, 2)).setTypeValue(preparedStatement, 1,
+                SqlTypeValue.TYPE_UNKNOWN, null);
+        verify(preparedStatement).setObject(1, array);
+    }
+
+    /**
+     * Verifies that a primitive int array is bound as one <code>int4[]</code>
+     * parameter equal to the one built from the same integers.
+     */
+    @Test
+    public void testOfIntsBindsArray() throws SQLException {
+        when(preparedStatement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf("int4", new Object[] { 7, 5 })).thenReturn(array);
+        final SqlArrayValue value = SqlArrayValue.ofInts(new int[] { 7, 5 });
+        value.setTypeValue(preparedStatement, 1, SqlTypeValue.TYPE_UNKNOWN, null);
+        verify(preparedStatement).setObject(1, array);
+        assertEquals(SqlArrayValue.ofIntegers(Arrays.asList(7, 5)), value);
+    }
+
+    /**
+     * Verifies that a primitive long array is bound as one
+     * <code>bigint[]</code> parameter.
+     */
+    @Test
+    public void testOfLongsBindsArray() throws SQLException {
+        when(preparedStatement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf("int8", new Object[] { 7L, 5L })).thenReturn(array);
+        final SqlArrayValue value = SqlArrayValue.ofLongs(new long[] { 7, 5 });
+        value.setTypeValue(preparedStatement, 1, SqlTypeValue.TYPE_UNKNOWN, null);
+        verify(preparedStatement).setObject(1, array);
+        assertEquals(2, value.size());
+    }
+
+    /**
+     * Verifies that a string collection is bound as one <code>text[]</code>
+     * parameter.
+     */
+    @Test
+    public void testOfStringsBindsArray() throws SQLException {
+        when(preparedStatement.getConnection()).thenReturn(connection);
+        when(connection.createArrayOf("text", new Object[] { "java", "git" })).thenReturn(array);
+        SqlArrayValue.ofStrings(Arrays.asList("java", "git")).setTypeValue(preparedStatement, 2,
+                SqlTypeValue.TYPE_UNKNOWN, null);
+        verify(preparedStatement).setObject(2, array);
+    }
+
+    /**
+     * Verifies that values are equal when their element type and elements
+     * are, so DAO tests can match them.
+     */
+    @Test
+    public void testEquals() {
+        assertEquals(SqlArrayValue.ofIntegers(Arrays.asList(1, 2)), SqlArrayValue.ofIntegers(Arrays.asList(1, 2)));
+        assertEquals(SqlArrayValue.ofIntegers(Arrays.asList(1, 2)).hashCode(),
+                SqlArrayValue.ofIntegers(Arrays.asList(1, 2)).hashCode());
+        assertFalse(SqlArrayValue.ofIntegers(Arrays.asList(1, 2)).equals(SqlArrayValue.ofIntegers(Arrays.asList(2, 1))));
+        assertFalse(SqlArrayValue.ofStrings(Collections.<String> emptyList()).equals(
+                SqlArrayValue.ofIntegers(Collections.<Integer> emptyList())));
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the values are null.
+     */
+    @Test
+    public void testOfIntegersWithNullValues() {
+        expectedException.expect(IllegalArgumentException.class);
+        SqlArrayValue.ofIntegers(null);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the int array is null.
+     */
+    @Test
+    public void testOfIntsWithNullValues() {
+        expectedException.expect(IllegalArgumentException.class);
+        SqlArrayValue.ofInts(null);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the long values are null.
+     */
+    @Test
+    public void testOfLongsWithNullValues() {
+        expectedException.expect(IllegalArgumentException.class);
+        SqlArrayValue.ofLongs(null);
+    }
+
+    /**
+     * Expects {@link IllegalArgumentException} when the values contain null.
+     */
+    @Test
+    public void testOfStringsWithNullElement() {
+        expectedException.expect(IllegalArgumentException.class);
+        SqlArrayValue.ofStrings(Arrays.asList("java", null));
+    }
+}
@@ -0,0 +1,109 @@
+package com.cerner.devcenter.education.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link StripedCounter}.
+ */
+public class StripedCounterTest {
+
+    /**
+     * Verifies that a new counter sums to 0.
+     */
+    @Test
+    public void testSumWhenNew() {
+        assertEquals(0, new StripedCounter().sum());
+    }
+
+    /**
+     * Verifies that increments and adds, including negative ones, sum up.
+     */
+    @Test
+    public void testAdd() {
+        final StripedCounter counter = new StripedCounter();
+        counter.increment();
+        counter.add(10);
+        counter.add(-3);
+        assertEquals(8, counter.sum());
+    }
+
+    /**
+     * Verifies that no add is lost when many threads add at once, which makes
+     * the counter grow its stripes.
+     */
+    @Test
+    public void testIncrementFromManyThreads() throws InterruptedException {
+        final StripedCounter counter = new StripedCounter();
+        final int threads = 16;
+        final int increments = 20000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] writers = new Thread[threads];
+        for (int writer = 0; writer < threads; writer++) {
+            writers[writer] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (final InterruptedException interruptedException) {
+                        return;
+                    }
+                    for (int increment = 0; increment < increments; increment++) {
+                        counter.increment();
+                    }
+                }
+            });
+            writers[writer].start();
+        }
+        start.countDown();
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+        assertEquals((long) threads * increments, counter.sum());
+    }
+
+    /**
+     * Verifies that a reset returns the sum and starts the counter over.
+     */
+    @Test
+    public void testSumThenReset() {
+        final StripedCounter counter = new StripedCounter();
+        counter.add(5);
+        assertEquals(5, counter.sumThenReset());
+        assertEquals(0, counter.sum());
+        counter.increment();
+        assertEquals(1, counter.sumThenReset());
+    }
+
+    /**
+     * Verifies that resets taken while many threads add lose and repeat no
+     * add.
+     */
+    @Test
+    public void testSumThenResetWhileIncrementing() throws InterruptedException {
+        final StripedCounter counter = new StripedCounter();
+        final int threads = 8;
+        final int increments = 20000;
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int writer = 0; writer < threads; writer++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int increment = 0; increment < increments; increment++) {
+                        counter.increment();
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        long drained = 0;
+        while (done.getCount() > 0) {
+            drained += counter.sumThenReset();
+        }
+        drained += counter.sumThenReset();
+        assertEquals((long) threads * increments, drained);
+    }
+}